@@ -0,0 +1,179 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ZstdBlockCodec.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.core.io;
+
+import adams.core.io.ParallelBlockCompressor.BlockCodec;
+import com.github.luben.zstd.Zstd;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Block codec for zstd. Every block is stored as a separate zstd frame,
+ * preceded by a skippable frame that contains the length of the data
+ * frame. Decoders skip skippable frames, i.e., the output is a regular
+ * multi-frame zstd stream.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ZstdBlockCodec
+  implements BlockCodec {
+
+  private static final long serialVersionUID = 7090522932096815870L;
+
+  /** the magic number of the skippable frame that stores the frame length. */
+  public final static int SKIPPABLE_MAGIC = 0x184D2A5A;
+
+  /** the length of the skippable frame. */
+  public final static int SKIPPABLE_LENGTH = 12;
+
+  /** the default compression level. */
+  public final static int DEFAULT_LEVEL = 3;
+
+  /** the compression level. */
+  protected int m_Level;
+
+  /**
+   * Initializes the codec with the default compression level.
+   */
+  public ZstdBlockCodec() {
+    this(DEFAULT_LEVEL);
+  }
+
+  /**
+   * Initializes the codec.
+   *
+   * @param level	the compression level
+   */
+  public ZstdBlockCodec(int level) {
+    m_Level = level;
+  }
+
+  /**
+   * Returns the name of the format.
+   *
+   * @return		the name
+   */
+  @Override
+  public String getName() {
+    return "zstd";
+  }
+
+  /**
+   * Compresses the block into a self-contained member.
+   *
+   * @param data	the buffer with the data
+   * @param length	the number of bytes to compress
+   * @return		the member
+   * @throws Exception	if compression fails
+   */
+  @Override
+  public byte[] compress(byte[] data, int length) throws Exception {
+    byte[]	result;
+    byte[]	frame;
+
+    if (length < data.length)
+      data = Arrays.copyOf(data, length);
+    frame  = Zstd.compress(data, m_Level);
+    result = new byte[SKIPPABLE_LENGTH + frame.length];
+    ParallelBlockCompressor.writeIntLE(SKIPPABLE_MAGIC, result, 0);
+    ParallelBlockCompressor.writeIntLE(4, result, 4);
+    ParallelBlockCompressor.writeIntLE(frame.length, result, 8);
+    System.arraycopy(frame, 0, result, SKIPPABLE_LENGTH, frame.length);
+
+    return result;
+  }
+
+  /**
+   * Checks whether the start of the stream was generated by this codec,
+   * i.e., whether the member boundaries can be determined.
+   *
+   * @param header	the first bytes of the stream
+   * @param length	the number of valid bytes in the header
+   * @return		true if the stream can be decompressed in parallel
+   */
+  @Override
+  public boolean isBlockCompressed(byte[] header, int length) {
+    if (length < SKIPPABLE_LENGTH)
+      return false;
+
+    return (ParallelBlockCompressor.readIntLE(header, 0) == SKIPPABLE_MAGIC)
+      && (ParallelBlockCompressor.readIntLE(header, 4) == 4);
+  }
+
+  /**
+   * Reads the next member from the stream.
+   *
+   * @param in		the stream to read from
+   * @return		the member, null if the end of the stream has been reached
+   * @throws IOException	if reading fails or the member was not generated
+   * 			by this codec
+   */
+  @Override
+  public byte[] readMember(InputStream in) throws IOException {
+    byte[]	result;
+    byte[]	header;
+    int		length;
+
+    header = new byte[SKIPPABLE_LENGTH];
+    if (!ParallelBlockCompressor.readFully(in, header, 0, header.length))
+      return null;
+    if (!isBlockCompressed(header, header.length))
+      throw new IOException("zstd frame is not preceded by frame length, cannot split stream!");
+
+    length = ParallelBlockCompressor.readIntLE(header, 8);
+    if (length < 0)
+      throw new IOException("Invalid zstd frame length: " + length);
+    result = new byte[SKIPPABLE_LENGTH + length];
+    System.arraycopy(header, 0, result, 0, header.length);
+    ParallelBlockCompressor.readFully(in, result, SKIPPABLE_LENGTH, length);
+
+    return result;
+  }
+
+  /**
+   * Decompresses the member.
+   *
+   * @param member	the member to decompress
+   * @return		the uncompressed data
+   * @throws Exception	if decompression fails
+   */
+  @Override
+  public byte[] decompress(byte[] member) throws Exception {
+    byte[]	result;
+    long	size;
+    long	read;
+
+    size = Zstd.decompressedSize(member, SKIPPABLE_LENGTH, member.length - SKIPPABLE_LENGTH);
+    if ((size < 0) || (size > Integer.MAX_VALUE))
+      throw new IOException("Cannot determine content size of zstd frame: " + size);
+
+    result = new byte[(int) size];
+    read   = Zstd.decompressByteArray(result, 0, result.length, member, SKIPPABLE_LENGTH, member.length - SKIPPABLE_LENGTH);
+    if (Zstd.isError(read))
+      throw new IOException("Failed to decompress zstd frame: " + Zstd.getErrorName(read));
+    if (read != size)
+      throw new IOException("Decompressed size differs from content size: " + read + " != " + size);
+
+    return result;
+  }
+}
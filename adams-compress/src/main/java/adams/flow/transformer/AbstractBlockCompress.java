@@ -0,0 +1,268 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * AbstractBlockCompress.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.flow.transformer;
+
+import adams.core.Performance;
+import adams.core.QuickInfoHelper;
+import adams.core.Utils;
+import adams.core.io.ParallelBlockCompressor;
+import adams.core.io.ParallelBlockCompressor.BlockCodec;
+import adams.core.io.PlaceholderFile;
+import gnu.trove.list.TByteList;
+
+import java.io.File;
+
+/**
+ * Ancestor for single-file compression algorithms that can compress
+ * independent blocks of data in parallel. With a single thread, the
+ * regular (sequential) compression is used.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public abstract class AbstractBlockCompress
+  extends AbstractSingleCompress {
+
+  private static final long serialVersionUID = 2894452519393081539L;
+
+  /** the number of threads to use. */
+  protected int m_NumThreads;
+
+  /** the size of the blocks. */
+  protected int m_BlockSize;
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "num-threads", "numThreads",
+      1);
+
+    m_OptionManager.add(
+      "block-size", "blockSize",
+      ParallelBlockCompressor.DEFAULT_BLOCK_SIZE, 1024, null);
+  }
+
+  /**
+   * Sets the number of threads to use for compression.
+   *
+   * @param value 	the number of threads
+   */
+  public void setNumThreads(int value) {
+    m_NumThreads = value;
+    reset();
+  }
+
+  /**
+   * Returns the number of threads to use for compression.
+   *
+   * @return 		the number of threads
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String numThreadsTipText() {
+    return Performance.getNumThreadsHelp() + "; with more than one thread, "
+      + "blocks of data get compressed independently.";
+  }
+
+  /**
+   * Sets the size of the uncompressed blocks when using multiple threads.
+   *
+   * @param value 	the size in bytes
+   */
+  public void setBlockSize(int value) {
+    if (getOptionManager().isValid("blockSize", value)) {
+      m_BlockSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the size of the uncompressed blocks when using multiple threads.
+   *
+   * @return 		the size in bytes
+   */
+  public int getBlockSize() {
+    return m_BlockSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String blockSizeTipText() {
+    return "The size in bytes of the uncompressed blocks that get compressed in parallel.";
+  }
+
+  /**
+   * Returns a quick info about the actor, which will be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result  = super.getQuickInfo();
+    result += QuickInfoHelper.toString(this, "numThreads", Performance.getNumThreadsQuickInfo(m_NumThreads), ", ");
+
+    return result;
+  }
+
+  /**
+   * Returns whether the block-compression is used.
+   *
+   * @return		true if block compression is used
+   */
+  protected boolean isBlockMode() {
+    return (m_NumThreads != 1);
+  }
+
+  /**
+   * Returns a new instance of the codec for compressing the blocks.
+   *
+   * @return		the codec
+   */
+  protected abstract BlockCodec newCodec();
+
+  /**
+   * Returns a new compressor instance.
+   *
+   * @return		the compressor
+   */
+  protected ParallelBlockCompressor newCompressor() {
+    return new ParallelBlockCompressor(newCodec(), m_BlockSize, m_NumThreads);
+  }
+
+  /**
+   * Compresses the file sequentially.
+   *
+   * @param inFile	the uncompressed input file
+   * @param outFile	the compressed output file
+   * @return		null if successfully compressed, otherwise error message
+   */
+  protected abstract String compressSequential(File inFile, File outFile);
+
+  /**
+   * Compresses the bytes sequentially.
+   *
+   * @param inBytes	the uncompressed bytes
+   * @param outBytes	the compressed bytes
+   * @return		null if successfully compressed, otherwise error message
+   */
+  protected abstract String compressSequential(byte[] inBytes, TByteList outBytes);
+
+  /**
+   * Compresses the file, in blocks if multiple threads are to be used.
+   *
+   * @param inFile	the uncompressed input file
+   * @param outFile	the compressed output file
+   * @return		null if successfully compressed, otherwise error message
+   */
+  @Override
+  protected String compress(File inFile, File outFile) {
+    String			result;
+    ParallelBlockCompressor	compressor;
+
+    if (!isBlockMode())
+      return compressSequential(inFile, outFile);
+
+    compressor = newCompressor();
+    result     = compressor.compress(inFile, outFile, m_RemoveInputFile);
+    if (result == null)
+      getLogger().info(compressor.getStatistics());
+
+    return result;
+  }
+
+  /**
+   * Compresses the bytes, in blocks if multiple threads are to be used.
+   *
+   * @param inBytes	the uncompressed bytes
+   * @param outBytes	the compressed bytes
+   * @return		null if successfully compressed, otherwise error message
+   */
+  @Override
+  protected String compress(byte[] inBytes, TByteList outBytes) {
+    ParallelBlockCompressor	compressor;
+
+    if (!isBlockMode())
+      return compressSequential(inBytes, outBytes);
+
+    compressor = newCompressor();
+    try {
+      outBytes.addAll(compressor.compress(inBytes));
+      getLogger().info(compressor.getStatistics());
+      return null;
+    }
+    catch (Exception e) {
+      return handleException("Failed to compress bytes!", e);
+    }
+  }
+
+  /**
+   * Performs the actual transformation.
+   *
+   * @return		null if everything is fine, otherwise error message
+   */
+  @Override
+  protected String doExecute() {
+    String	result;
+    long	size;
+    long	start;
+    long	duration;
+
+    size = -1;
+    if (!isBlockMode() && isLoggingEnabled()) {
+      if (m_InputToken.hasPayload(File.class))
+	size = m_InputToken.getPayload(File.class).length();
+      else if (m_InputToken.hasPayload(String.class))
+	size = new PlaceholderFile(m_InputToken.getPayload(String.class)).length();
+      else if (m_InputToken.hasPayload(byte[].class))
+	size = m_InputToken.getPayload(byte[].class).length;
+    }
+
+    start  = System.currentTimeMillis();
+    result = super.doExecute();
+
+    if ((result == null) && (size > -1)) {
+      duration = System.currentTimeMillis() - start;
+      getLogger().info(
+	"uncompressed=" + size + ", duration=" + duration + "ms, "
+	  + "throughput=" + Utils.doubleToString(ParallelBlockCompressor.throughput(size, duration), 1) + "MB/s");
+    }
+
+    return result;
+  }
+}
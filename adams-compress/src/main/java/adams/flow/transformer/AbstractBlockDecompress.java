@@ -0,0 +1,195 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * AbstractBlockDecompress.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.flow.transformer;
+
+import adams.core.Performance;
+import adams.core.QuickInfoHelper;
+import adams.core.io.ParallelBlockCompressor;
+import adams.core.io.ParallelBlockCompressor.BlockCodec;
+import gnu.trove.list.TByteList;
+
+import java.io.File;
+
+/**
+ * Ancestor for single-file decompression algorithms that can decompress
+ * archives generated by {@link AbstractBlockCompress} in parallel. Archives
+ * that weren't block-compressed get decompressed sequentially.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public abstract class AbstractBlockDecompress
+  extends AbstractSingleDecompress {
+
+  private static final long serialVersionUID = -2213958187071283781L;
+
+  /** the number of threads to use. */
+  protected int m_NumThreads;
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "num-threads", "numThreads",
+      1);
+  }
+
+  /**
+   * Sets the number of threads to use for decompression.
+   *
+   * @param value 	the number of threads
+   */
+  public void setNumThreads(int value) {
+    m_NumThreads = value;
+    reset();
+  }
+
+  /**
+   * Returns the number of threads to use for decompression.
+   *
+   * @return 		the number of threads
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String numThreadsTipText() {
+    return Performance.getNumThreadsHelp() + "; with more than one thread, "
+      + "block-compressed archives get decompressed in parallel.";
+  }
+
+  /**
+   * Returns a quick info about the actor, which will be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result  = super.getQuickInfo();
+    result += QuickInfoHelper.toString(this, "numThreads", Performance.getNumThreadsQuickInfo(m_NumThreads), ", ");
+
+    return result;
+  }
+
+  /**
+   * Returns a new instance of the codec for decompressing the blocks.
+   *
+   * @return		the codec
+   */
+  protected abstract BlockCodec newCodec();
+
+  /**
+   * Returns a new decompressor instance.
+   *
+   * @return		the decompressor
+   */
+  protected ParallelBlockCompressor newDecompressor() {
+    return new ParallelBlockCompressor(newCodec(), ParallelBlockCompressor.DEFAULT_BLOCK_SIZE, m_NumThreads);
+  }
+
+  /**
+   * Decompresses the archive sequentially.
+   *
+   * @param inFile	the compressed archive
+   * @param outFile	the decompressed output file
+   * @return		null if successful, otherwise error message
+   */
+  protected abstract String decompressSequential(File inFile, File outFile);
+
+  /**
+   * Decompresses the bytes sequentially.
+   *
+   * @param inBytes	the compressed bytes
+   * @param outBytes	the decompressed bytes
+   * @return		null if successful, otherwise error message
+   */
+  protected abstract String decompressSequential(byte[] inBytes, TByteList outBytes);
+
+  /**
+   * Decompresses the archive, in parallel if multiple threads are to be
+   * used and the archive was block-compressed.
+   *
+   * @param inFile	the compressed archive
+   * @param outFile	the decompressed output file
+   * @return		null if successful, otherwise error message
+   */
+  @Override
+  protected String decompress(File inFile, File outFile) {
+    String			result;
+    ParallelBlockCompressor	decompressor;
+
+    if (m_NumThreads == 1)
+      return decompressSequential(inFile, outFile);
+
+    decompressor = newDecompressor();
+    if (!decompressor.isBlockCompressed(inFile)) {
+      if (isLoggingEnabled())
+	getLogger().info("Not block-compressed, decompressing sequentially: " + inFile);
+      return decompressSequential(inFile, outFile);
+    }
+
+    result = decompressor.decompress(inFile, outFile);
+    if (result == null)
+      getLogger().info(decompressor.getStatistics());
+
+    return result;
+  }
+
+  /**
+   * Decompresses the bytes, in parallel if multiple threads are to be
+   * used and the data was block-compressed.
+   *
+   * @param inBytes	the compressed bytes
+   * @param outBytes	the decompressed bytes
+   * @return		null if successful, otherwise error message
+   */
+  @Override
+  protected String decompress(byte[] inBytes, TByteList outBytes) {
+    ParallelBlockCompressor	decompressor;
+
+    if (m_NumThreads == 1)
+      return decompressSequential(inBytes, outBytes);
+
+    decompressor = newDecompressor();
+    if (!decompressor.isBlockCompressed(inBytes))
+      return decompressSequential(inBytes, outBytes);
+
+    try {
+      outBytes.addAll(decompressor.decompress(inBytes));
+      getLogger().info(decompressor.getStatistics());
+      return null;
+    }
+    catch (Exception e) {
+      return handleException("Failed to decompress bytes!", e);
+    }
+  }
+}
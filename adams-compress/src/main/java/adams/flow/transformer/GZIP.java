@@ -15,13 +15,15 @@
 
 /*
  * GZIP.java
- * Copyright (C) 2009-2019 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2009-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.flow.transformer;
 
 import adams.core.MessageCollection;
+import adams.core.io.GzipBlockCodec;
 import adams.core.io.GzipUtils;
+import adams.core.io.ParallelBlockCompressor.BlockCodec;
 import gnu.trove.list.TByteList;
 
 import java.io.File;
@@ -80,12 +82,27 @@ import java.io.File;
  * &nbsp;&nbsp;&nbsp;default: 1024
  * </pre>
  *
+ * <pre>-num-threads &lt;int&gt; (property: numThreads)
+ * &nbsp;&nbsp;&nbsp;The number of threads to use for parallel execution; &gt; 0: specific number
+ * &nbsp;&nbsp;&nbsp;of cores to use (capped by actual number of cores available, 1 = sequential
+ * &nbsp;&nbsp;&nbsp;execution); = 0: number of cores; &lt; 0: number of free cores (eg -2 means
+ * &nbsp;&nbsp;&nbsp;2 free cores; minimum of one core is used); with more than one thread,
+ * &nbsp;&nbsp;&nbsp;blocks of data get compressed independently.
+ * &nbsp;&nbsp;&nbsp;default: 1
+ * </pre>
+ *
+ * <pre>-block-size &lt;int&gt; (property: blockSize)
+ * &nbsp;&nbsp;&nbsp;The size in bytes of the uncompressed blocks that get compressed in parallel.
+ * &nbsp;&nbsp;&nbsp;default: 1048576
+ * &nbsp;&nbsp;&nbsp;minimum: 1024
+ * </pre>
+ *
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
  */
 public class GZIP
-  extends AbstractSingleCompress {
+  extends AbstractBlockCompress {
 
   /** for serialization. */
   private static final long serialVersionUID = 6718580828800815681L;
@@ -125,6 +142,16 @@ public class GZIP
     return GzipUtils.EXTENSION;
   }
 
+  /**
+   * Returns a new instance of the codec for compressing the blocks.
+   *
+   * @return		the codec
+   */
+  @Override
+  protected BlockCodec newCodec() {
+    return new GzipBlockCodec();
+  }
+
   /**
    * Compresses the file.
    *
@@ -132,7 +159,7 @@ public class GZIP
    * @param outFile	the compressed output file
    * @return		null if successfully compressed, otherwise error message
    */
-  protected String compress(File inFile, File outFile) {
+  protected String compressSequential(File inFile, File outFile) {
     return GzipUtils.compress(inFile, m_BufferSize, outFile, m_RemoveInputFile);
   }
 
@@ -143,7 +170,7 @@ public class GZIP
    * @param outBytes	the compressed bytes
    * @return		null if successfully compressed, otherwise error message
    */
-  protected String compress(byte[] inBytes, TByteList outBytes) {
+  protected String compressSequential(byte[] inBytes, TByteList outBytes) {
     byte[]	compressed;
     MessageCollection errors;
 
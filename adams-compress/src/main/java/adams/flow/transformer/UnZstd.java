@@ -15,12 +15,14 @@
 
 /*
  * UnZstd.java
- * Copyright (C) 2018-2019 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2018-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.flow.transformer;
 
 import adams.core.MessageCollection;
+import adams.core.io.ParallelBlockCompressor.BlockCodec;
+import adams.core.io.ZstdBlockCodec;
 import adams.core.io.ZstdUtils;
 import gnu.trove.list.TByteList;
 
@@ -95,12 +97,21 @@ import java.io.File;
  * &nbsp;&nbsp;&nbsp;default: 1024
  * </pre>
  * 
+ * <pre>-num-threads &lt;int&gt; (property: numThreads)
+ * &nbsp;&nbsp;&nbsp;The number of threads to use for parallel execution; &gt; 0: specific number
+ * &nbsp;&nbsp;&nbsp;of cores to use (capped by actual number of cores available, 1 = sequential
+ * &nbsp;&nbsp;&nbsp;execution); = 0: number of cores; &lt; 0: number of free cores (eg -2 means
+ * &nbsp;&nbsp;&nbsp;2 free cores; minimum of one core is used); with more than one thread,
+ * &nbsp;&nbsp;&nbsp;block-compressed archives get decompressed in parallel.
+ * &nbsp;&nbsp;&nbsp;default: 1
+ * </pre>
+ * 
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
  */
 public class UnZstd
-  extends AbstractSingleDecompress {
+  extends AbstractBlockDecompress {
 
   /** for serialization. */
   private static final long serialVersionUID = -8357597085805205924L;
@@ -154,6 +165,16 @@ public class UnZstd
     return ZstdUtils.EXTENSION;
   }
 
+  /**
+   * Returns a new instance of the codec for decompressing the blocks.
+   *
+   * @return		the codec
+   */
+  @Override
+  protected BlockCodec newCodec() {
+    return new ZstdBlockCodec();
+  }
+
   /**
    * Decompresses the archive.
    *
@@ -161,7 +182,7 @@ public class UnZstd
    * @param outFile	the decompressed output file
    * @return		null if successful, otherwise error message
    */
-  protected String decompress(File inFile, File outFile) {
+  protected String decompressSequential(File inFile, File outFile) {
     return ZstdUtils.decompress(inFile, m_BufferSize, outFile);
   }
 
@@ -172,7 +193,7 @@ public class UnZstd
    * @param outBytes	the decompressed bytes
    * @return		null if successful, otherwise error message
    */
-  protected String decompress(byte[] inBytes, TByteList outBytes) {
+  protected String decompressSequential(byte[] inBytes, TByteList outBytes) {
     byte[]	decompressed;
     MessageCollection errors;
 
@@ -15,12 +15,14 @@
 
 /*
  * Zstd.java
- * Copyright (C) 2018-2019 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2018-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.flow.transformer;
 
 import adams.core.MessageCollection;
+import adams.core.io.ParallelBlockCompressor.BlockCodec;
+import adams.core.io.ZstdBlockCodec;
 import adams.core.io.ZstdUtils;
 import gnu.trove.list.TByteList;
 
@@ -89,12 +91,27 @@ import java.io.File;
  * &nbsp;&nbsp;&nbsp;default: 1024
  * </pre>
  * 
+ * <pre>-num-threads &lt;int&gt; (property: numThreads)
+ * &nbsp;&nbsp;&nbsp;The number of threads to use for parallel execution; &gt; 0: specific number
+ * &nbsp;&nbsp;&nbsp;of cores to use (capped by actual number of cores available, 1 = sequential
+ * &nbsp;&nbsp;&nbsp;execution); = 0: number of cores; &lt; 0: number of free cores (eg -2 means
+ * &nbsp;&nbsp;&nbsp;2 free cores; minimum of one core is used); with more than one thread,
+ * &nbsp;&nbsp;&nbsp;blocks of data get compressed independently.
+ * &nbsp;&nbsp;&nbsp;default: 1
+ * </pre>
+ * 
+ * <pre>-block-size &lt;int&gt; (property: blockSize)
+ * &nbsp;&nbsp;&nbsp;The size in bytes of the uncompressed blocks that get compressed in parallel.
+ * &nbsp;&nbsp;&nbsp;default: 1048576
+ * &nbsp;&nbsp;&nbsp;minimum: 1024
+ * </pre>
+ * 
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
  */
 public class Zstd
-  extends AbstractSingleCompress {
+  extends AbstractBlockCompress {
 
   /** for serialization. */
   private static final long serialVersionUID = -4692431747542097656L;
@@ -134,6 +151,16 @@ public class Zstd
     return ZstdUtils.EXTENSION;
   }
 
+  /**
+   * Returns a new instance of the codec for compressing the blocks.
+   *
+   * @return		the codec
+   */
+  @Override
+  protected BlockCodec newCodec() {
+    return new ZstdBlockCodec();
+  }
+
   /**
    * Compresses the file.
    *
@@ -141,7 +168,7 @@ public class Zstd
    * @param outFile	the compressed output file
    * @return		null if successfully compressed, otherwise error message
    */
-  protected String compress(File inFile, File outFile) {
+  protected String compressSequential(File inFile, File outFile) {
     return ZstdUtils.compress(inFile, m_BufferSize, outFile, m_RemoveInputFile);
   }
 
@@ -152,7 +179,7 @@ public class Zstd
    * @param outBytes	the compressed bytes
    * @return		null if successfully compressed, otherwise error message
    */
-  protected String compress(byte[] inBytes, TByteList outBytes) {
+  protected String compressSequential(byte[] inBytes, TByteList outBytes) {
     byte[]	compressed;
     MessageCollection errors;
 
@@ -15,7 +15,7 @@
 
 /*
  * ClassLister.java
- * Copyright (C) 2007-2022 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2007-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.core;
@@ -32,19 +32,22 @@ import adams.flow.core.Compatibility;
 import adams.gui.goe.AbstractEditorRegistration;
 import nz.ac.waikato.cms.locator.ClassCache;
 import nz.ac.waikato.cms.locator.ClassLocator;
-import nz.ac.waikato.cms.locator.ClassPathTraversal;
 import nz.ac.waikato.cms.locator.ClassTraversalWithBlacklister;
 import nz.ac.waikato.cms.locator.PropertiesBasedClassListTraversal;
 import nz.ac.waikato.cms.locator.blacklisting.SimpleBlacklister;
 
 import java.io.File;
 import java.io.InputStream;
+import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -71,7 +74,11 @@ import java.util.Set;
  *   adams.core.ClassLister -super adams.flow.core.Actor -match ".*\.transformer\..*"
  * - List only actors from the adams-compress module:
  *   adams.core.ClassLister -super adams.flow.core.Actor -filter-by-module adams-compress"
+ * - Generate the class index for a module (see "class-index" maven profile):
+ *   adams.core.ClassLister -action index -dir adams-core/target/classes
  * </pre>
+ * With dynamic discovery, jars and directories that contain a class index
+ * ({@link #CLASSLISTER_INDEX}) don't get scanned, see {@link IndexedClassPathTraversal}.
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
  * @see #main(String[])
@@ -97,6 +104,12 @@ public class ClassLister
   /** for statically listed packages (superclass -> comma-separated packages). */
   public static final String CLASSLISTER_PACKAGES = "ClassLister.packages";
 
+  /** the class index generated at build time (superclass -> comma-separated classnames of the module). */
+  public static final String CLASSLISTER_INDEX = "META-INF/adams/ClassLister.index";
+
+  /** the key in the class index listing all concrete classes of the module. */
+  public static final String INDEX_ALL = "*";
+
   /** the singleton. */
   protected static ClassLister m_Singleton;
 
@@ -107,7 +120,7 @@ public class ClassLister
    * Initializes the classlister.
    */
   protected ClassLister() {
-    super(new ClassPathTraversal());
+    super(new IndexedClassPathTraversal());
 
     long start = System.currentTimeMillis();
 
@@ -163,6 +176,8 @@ public class ClassLister
       System.out.println(getClass().getName() + ": Using dynamic class discovery");
       setPackages(Environment.getInstance().read(ClassListerDefinition.KEY));
       setBlacklist(Environment.getInstance().read(ClassListerBlacklistDefinition.KEY));
+      if (m_ClassTraversal instanceof IndexedClassPathTraversal)
+        ((IndexedClassPathTraversal) m_ClassTraversal).setSuperclasses(new HashSet<>(Arrays.asList(getSuperclasses())));
     }
 
     initialize();
@@ -341,6 +356,101 @@ public class ClassLister
     return result.toArray(new Class[0]);
   }
 
+  /**
+   * Collects the classnames of all the class files below the directory,
+   * skipping anonymous classes.
+   *
+   * @param root	the root directory of the classes
+   * @param dir		the current directory
+   * @param classnames	for collecting the classnames
+   */
+  protected static void collectClassnames(File root, File dir, List<String> classnames) {
+    File[]	files;
+    String	name;
+
+    files = dir.listFiles();
+    if (files == null)
+      return;
+
+    for (File file: files) {
+      if (file.isDirectory()) {
+	collectClassnames(root, file, classnames);
+      }
+      else if (file.getName().endsWith(".class")) {
+	name = root.toPath().relativize(file.toPath()).toString();
+	name = name.substring(0, name.length() - ".class".length());
+	name = name.replace(File.separatorChar, '.');
+	if (name.endsWith("module-info") || name.endsWith("package-info"))
+	  continue;
+	if (name.matches(ClassCache.PATTERN_ANONYMOUS))
+	  continue;
+	classnames.add(name);
+      }
+    }
+  }
+
+  /**
+   * Generates the class index for the compiled classes in the specified
+   * directory (eg target/classes of a module). For each superclass, the
+   * concrete classes derived from it get listed, regardless of package.
+   * The {@link #INDEX_ALL} key lists all concrete classes, which gets used
+   * at runtime in case superclasses are managed that were unknown at build
+   * time.
+   *
+   * @param dir			the directory with the compiled classes
+   * @param superclasses	the superclasses to index
+   * @return			the index
+   * @see			#CLASSLISTER_INDEX
+   */
+  public static Properties createIndex(File dir, String[] superclasses) {
+    Properties			result;
+    List<String>		classnames;
+    List<String>		all;
+    Map<String,List<String>>	matches;
+    Map<String,Class>		supers;
+    Class			cls;
+
+    classnames = new ArrayList<>();
+    collectClassnames(dir, dir, classnames);
+    Collections.sort(classnames);
+
+    supers  = new HashMap<>();
+    matches = new HashMap<>();
+    for (String superclass: superclasses) {
+      matches.put(superclass, new ArrayList<>());
+      try {
+	supers.put(superclass, Class.forName(superclass, false, ClassLister.class.getClassLoader()));
+      }
+      catch (Throwable t) {
+	// not available
+      }
+    }
+
+    all = new ArrayList<>();
+    for (String classname: classnames) {
+      try {
+	cls = Class.forName(classname, false, ClassLister.class.getClassLoader());
+      }
+      catch (Throwable t) {
+	continue;
+      }
+      if (cls.isInterface() || Modifier.isAbstract(cls.getModifiers()))
+	continue;
+      all.add(classname);
+      for (String superclass: supers.keySet()) {
+	if (ClassLocator.matches(supers.get(superclass), cls))
+	  matches.get(superclass).add(classname);
+      }
+    }
+
+    result = new Properties();
+    result.setProperty(INDEX_ALL, Utils.flatten(all, ","));
+    for (String superclass: matches.keySet())
+      result.setProperty(superclass, Utils.flatten(matches.get(superclass), ","));
+
+    return result;
+  }
+
   /**
    * Returns the singleton instance of the class lister.
    *
@@ -362,7 +472,7 @@ public class ClassLister
   public static void main(String[] args) throws Exception {
     if (OptionUtils.helpRequested(args)) {
       System.out.println();
-      System.out.println("Usage: " + ClassLister.class.getName() + " [-env <classname>] [-action <search|classes|packages>]");
+      System.out.println("Usage: " + ClassLister.class.getName() + " [-env <classname>] [-action <search|classes|packages|index>]");
       System.out.println();
       System.out.println("'search' action (default):");
       System.out.println("allows searching for classes");
@@ -378,6 +488,12 @@ public class ClassLister
       System.out.println("each key is a superclass, the corresponding value a comma-separated list of package names");
       System.out.println("-output <props_file>");
       System.out.println();
+      System.out.println("'index' action:");
+      System.out.println("for generating the class index of a module's compiled classes, used at startup instead of scanning");
+      System.out.println("each key is a superclass, the corresponding value a comma-separated list of class names");
+      System.out.println("-dir <classes_dir> [-output <props_file>]");
+      System.out.println("the output file defaults to: <classes_dir>/" + CLASSLISTER_INDEX);
+      System.out.println();
       return;
     }
 
@@ -466,6 +582,31 @@ public class ClassLister
 	}
         break;
 
+      case "index":
+        PlaceholderFile index_dir = new PlaceholderFile(OptionUtils.getOption(args, "-dir"));
+        if (!index_dir.isDirectory()) {
+          System.out.println("No classes directory, skipping class index: " + index_dir);
+          break;
+        }
+        PlaceholderFile index_file;
+        if (OptionUtils.getOption(args, "-output") == null)
+          index_file = new PlaceholderFile(index_dir.getAbsolutePath() + File.separator + CLASSLISTER_INDEX);
+        else
+          index_file = new PlaceholderFile(OptionUtils.getOption(args, "-output"));
+        File index_file_dir = index_file.getParentFile();
+        if (!index_file_dir.exists()) {
+          if (!index_file_dir.mkdirs()) {
+            System.err.println("Failed to create directory for class index: " + index_file_dir);
+            System.exit(2);
+          }
+        }
+        Properties index_props = createIndex(index_dir.getAbsoluteFile(), getSingleton().getSuperclasses());
+        if (!index_props.save(index_file.getAbsolutePath())) {
+	  System.err.println("Failed to write class index to: " + index_file);
+	  System.exit(1);
+	}
+        break;
+
       default:
         throw new IllegalArgumentException("Unknown action: " + action);
     }
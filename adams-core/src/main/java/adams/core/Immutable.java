@@ -0,0 +1,33 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * Immutable.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.core;
+
+/**
+ * Marker interface for classes whose objects cannot be modified once they
+ * have been created. Such objects get shared by {@link ObjectCopyHelper}
+ * instead of being copied, e.g., when forwarding them to multiple threads.
+ * See {@link adams.data.spreadsheet.ImmutableSpreadSheet} for a read-only
+ * spreadsheet.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public interface Immutable {
+}
@@ -0,0 +1,318 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * IndexedClassPathTraversal.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.core;
+
+import adams.core.io.FileUtils;
+import nz.ac.waikato.cms.locator.ClassPathTraversal;
+import nz.ac.waikato.cms.locator.TraversalListener;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+
+/**
+ * Classpath traversal that uses the class index generated at build time
+ * (see {@link ClassLister#CLASSLISTER_INDEX}) for jars and directories that
+ * contain one, instead of inspecting every single class file. Classpath parts
+ * without an index get traversed as usual, as do directories with an index
+ * that is older than any of the class files in there.
+ * <br><br>
+ * If the index covers all the superclasses that are currently being managed,
+ * only the classes listed for these superclasses are reported. Otherwise, all
+ * the concrete classes of the module get reported (see
+ * {@link ClassLister#INDEX_ALL}), which still skips abstract classes,
+ * interfaces and anonymous classes.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class IndexedClassPathTraversal
+  extends ClassPathTraversal {
+
+  private static final long serialVersionUID = -7443291283505574512L;
+
+  /** the superclasses that are being managed. */
+  protected Set<String> m_Superclasses;
+
+  /** the number of classpath parts that were handled via their index. */
+  protected int m_NumIndexed;
+
+  /** the number of classpath parts that had to be scanned. */
+  protected int m_NumScanned;
+
+  /**
+   * Initializes the members.
+   */
+  @Override
+  protected void initialize() {
+    super.initialize();
+
+    m_Superclasses = new HashSet<>();
+    m_NumIndexed   = 0;
+    m_NumScanned   = 0;
+  }
+
+  /**
+   * Sets the superclasses that are being managed. Used for determining
+   * whether an index covers all of them.
+   *
+   * @param value	the superclasses
+   */
+  public void setSuperclasses(Set<String> value) {
+    m_Superclasses = new HashSet<>(value);
+  }
+
+  /**
+   * Returns the superclasses that are being managed.
+   *
+   * @return		the superclasses
+   */
+  public Set<String> getSuperclasses() {
+    return m_Superclasses;
+  }
+
+  /**
+   * Returns the number of classpath parts that were handled via their index
+   * during the last traversal.
+   *
+   * @return		the number of parts
+   */
+  public int getNumIndexed() {
+    return m_NumIndexed;
+  }
+
+  /**
+   * Returns the number of classpath parts that had to be scanned during
+   * the last traversal.
+   *
+   * @return		the number of parts
+   */
+  public int getNumScanned() {
+    return m_NumScanned;
+  }
+
+  /**
+   * Reads the index from the stream.
+   *
+   * @param stream	the stream to read from
+   * @return		the index, null if failed to read
+   */
+  protected Properties readIndex(InputStream stream) {
+    Properties	result;
+
+    result = new Properties();
+    try {
+      result.load(stream);
+    }
+    catch (Exception e) {
+      getLogger().log(Level.SEVERE, "Failed to read class index!", e);
+      result = null;
+    }
+
+    return result;
+  }
+
+  /**
+   * Determines the classes to report from the index.
+   *
+   * @param index	the index to use
+   * @return		the classnames
+   */
+  protected Set<String> fromIndex(Properties index) {
+    Set<String>		result;
+    boolean		covered;
+    String		value;
+
+    result  = new HashSet<>();
+    covered = index.keySet().containsAll(m_Superclasses);
+    if (covered) {
+      for (String superclass: m_Superclasses) {
+	value = index.getProperty(superclass, "");
+	if (!value.isEmpty())
+	  result.addAll(Arrays.asList(Utils.split(value, ',')));
+      }
+    }
+    else {
+      value = index.getProperty(ClassLister.INDEX_ALL, "");
+      if (!value.isEmpty())
+	result.addAll(Arrays.asList(Utils.split(value, ',')));
+    }
+    result.remove("");
+
+    return result;
+  }
+
+  /**
+   * Reports the classes to the listener.
+   *
+   * @param classnames	the classes to report
+   * @param state	the traversal state
+   */
+  protected void report(Set<String> classnames, TraversalState state) {
+    for (String classname: classnames)
+      state.getListener().traversing(classname.trim(), state.getURL());
+  }
+
+  /**
+   * Checks whether any of the class files below the directory is newer than
+   * the index, e.g., when classes got recompiled in the IDE.
+   *
+   * @param dir		the directory to check
+   * @param timestamp	the timestamp of the index
+   * @return		true if the index is out of date
+   */
+  protected boolean isStale(File dir, long timestamp) {
+    File[]	files;
+
+    files = dir.listFiles();
+    if (files == null)
+      return false;
+
+    for (File file: files) {
+      if (file.isDirectory()) {
+	if (isStale(file, timestamp))
+	  return true;
+      }
+      else if (file.getName().endsWith(".class") && (file.lastModified() > timestamp)) {
+	return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Uses the index in the directory if available and up to date, otherwise
+   * traverses it.
+   *
+   * @param dir		the directory to traverse
+   * @param state	the traversal state
+   */
+  @Override
+  protected void traverseDir(File dir, TraversalState state) {
+    File		file;
+    FileInputStream	stream;
+    Properties		index;
+
+    file  = new File(dir, ClassLister.CLASSLISTER_INDEX);
+    index = null;
+    if (file.exists() && !isStale(dir, file.lastModified())) {
+      stream = null;
+      try {
+	stream = new FileInputStream(file);
+	index  = readIndex(stream);
+      }
+      catch (Exception e) {
+	getLogger().log(Level.SEVERE, "Failed to open class index: " + file, e);
+      }
+      finally {
+	FileUtils.closeQuietly(stream);
+      }
+    }
+
+    if (index != null) {
+      if (isLoggingEnabled())
+	getLogger().info("Using class index of dir: " + dir);
+      m_NumIndexed++;
+      report(fromIndex(index), state);
+    }
+    else {
+      m_NumScanned++;
+      super.traverseDir(dir, state);
+    }
+  }
+
+  /**
+   * Uses the index in the jar if available, otherwise traverses it.
+   *
+   * @param file	the jar to traverse
+   * @param state	the traversal state
+   */
+  @Override
+  protected void traverseJar(File file, TraversalState state) {
+    JarFile		jar;
+    JarEntry		entry;
+    InputStream		stream;
+    Properties		index;
+
+    index = null;
+    jar   = null;
+    if (file.exists()) {
+      try {
+	jar   = new JarFile(file);
+	entry = jar.getJarEntry(ClassLister.CLASSLISTER_INDEX);
+	if (entry != null) {
+	  stream = null;
+	  try {
+	    stream = jar.getInputStream(entry);
+	    index  = readIndex(stream);
+	  }
+	  finally {
+	    FileUtils.closeQuietly(stream);
+	  }
+	}
+	if (index != null) {
+	  if (isLoggingEnabled())
+	    getLogger().info("Using class index of jar: " + file);
+	  m_NumIndexed++;
+	  report(fromIndex(index), state);
+	  traverseManifest(jar.getManifest(), state);
+	}
+      }
+      catch (Exception e) {
+	getLogger().log(Level.SEVERE, "Failed to read class index of jar: " + file, e);
+	index = null;
+      }
+      finally {
+	if (jar != null) {
+	  try {
+	    jar.close();
+	  }
+	  catch (Exception e) {
+	    // ignored
+	  }
+	}
+      }
+    }
+
+    if (index == null) {
+      m_NumScanned++;
+      super.traverseJar(file, state);
+    }
+  }
+
+  /**
+   * Traverses the classpath.
+   *
+   * @param listener 	the listener to use
+   */
+  @Override
+  public void traverse(TraversalListener listener) {
+    m_NumIndexed = 0;
+    m_NumScanned = 0;
+    super.traverse(listener);
+  }
+}
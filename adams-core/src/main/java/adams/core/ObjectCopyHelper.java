@@ -28,6 +28,9 @@ import adams.core.option.OptionUtils;
 
 import java.io.Serializable;
 import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.TemporalAccessor;
 
 /**
  * Helper class for copying objects.
@@ -43,6 +46,7 @@ public class ObjectCopyHelper {
    * How to copy an object.
    */
   public enum CopyType {
+    IMMUTABLE,
     OPTIONHANDLER,
     CLONEHANDLER,
     SERIALIZABLE,
@@ -50,6 +54,31 @@ public class ObjectCopyHelper {
     UNSUPPORTED
   }
 
+  /**
+   * Checks whether the object cannot be modified and therefore can be shared
+   * rather than copied.
+   *
+   * @param source	the object to check
+   * @return		true if immutable
+   * @see		Immutable
+   */
+  public static boolean isImmutable(Object source) {
+    return (source instanceof Immutable)
+      || (source instanceof String)
+      || (source instanceof Boolean)
+      || (source instanceof Character)
+      || (source instanceof Byte)
+      || (source instanceof Short)
+      || (source instanceof Integer)
+      || (source instanceof Long)
+      || (source instanceof Float)
+      || (source instanceof Double)
+      || (source instanceof BigInteger)
+      || (source instanceof BigDecimal)
+      || (source instanceof Enum)
+      || ((source instanceof TemporalAccessor) && source.getClass().getName().startsWith("java.time."));
+  }
+
   /**
    * Determines how to copy an object.
    *
@@ -60,7 +89,9 @@ public class ObjectCopyHelper {
     if (source == null)
       throw new IllegalArgumentException("Object cannot be null!");
 
-    if (source instanceof OptionHandler)
+    if (isImmutable(source))
+      return CopyType.IMMUTABLE;
+    else if (source instanceof OptionHandler)
       return CopyType.OPTIONHANDLER;
     else if (source instanceof CloneHandler)
       return CopyType.CLONEHANDLER;
@@ -159,13 +190,27 @@ public class ObjectCopyHelper {
    * @see		CopyType
    */
   protected static <T> T createCopy(CopyType type, T source) {
+    T		result;
+
     if (source == null)
       return null;
 
+    // avoid serializing the object twice, once for determining
+    // the copy type and once for the actual copy
+    if ((type == null) && !isImmutable(source) && !(source instanceof OptionHandler)
+      && !(source instanceof CloneHandler) && (source instanceof Serializable)) {
+      result = (T) ClassManager.getSingleton().deepCopy(source, true);
+      if (result != null)
+	return result;
+      type = CopyType.NEWINSTANCE;
+    }
+
     if (type == null)
       type = copyType(source);
 
     switch (type) {
+      case IMMUTABLE:
+	return source;
       case OPTIONHANDLER:
         return (T) OptionUtils.shallowCopy((OptionHandler) source, false);
       case CLONEHANDLER:
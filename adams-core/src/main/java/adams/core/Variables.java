@@ -27,6 +27,7 @@ import adams.event.VariableChangeListener;
 
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
@@ -86,6 +87,15 @@ public class Variables
   /** the listeners. */
   protected WrapperHashSet<VariableChangeListener> m_VariableChangeListeners;
 
+  /** the listeners that are only interested in specific variables (name - listeners). */
+  protected Map<String,WrapperHashSet<VariableChangeListener>> m_TargetedVariableChangeListeners;
+
+  /** the number of variable change events that were generated. */
+  protected long m_NumVariableChangeEvents;
+
+  /** the number of times listeners got notified. */
+  protected long m_NumDispatchedVariableChangeEvents;
+
   /**
    * Initializes the container.
    */
@@ -94,6 +104,7 @@ public class Variables
 
     m_Variables               = new Hashtable<>();
     m_VariableChangeListeners = new WrapperHashSet<>();
+    m_TargetedVariableChangeListeners = new HashMap<>();
 
     // environment variables
     m_EnvironmentVariables = new Hashtable<>();
@@ -316,21 +327,85 @@ public class Variables
   }
 
   /**
-   * Adds the listener to the internal list.
+   * Checks whether the listener is registered for the specified variable.
+   *
+   * @param name	the name (or placeholder string) of the variable
+   * @param l		the listener to check
+   * @return		true if already registered
+   */
+  public boolean hasVariableChangeListener(String name, VariableChangeListener l) {
+    WrapperHashSet<VariableChangeListener>	listeners;
+
+    synchronized(m_TargetedVariableChangeListeners) {
+      listeners = m_TargetedVariableChangeListeners.get(extractName(name));
+      return (listeners != null) && listeners.contains(l);
+    }
+  }
+
+  /**
+   * Adds the listener to the internal list. The listener gets notified
+   * about changes of all variables.
    *
    * @param l		the listener to add
+   * @see		#addVariableChangeListener(String, VariableChangeListener)
    */
   public void addVariableChangeListener(VariableChangeListener l) {
     m_VariableChangeListeners.add(l);
   }
 
   /**
-   * Removes the listener from the internal list.
+   * Adds the listener for the specified variable. The listener only gets
+   * notified about changes of this particular variable.
+   *
+   * @param name	the name (or placeholder string) of the variable
+   * @param l		the listener to add
+   */
+  public void addVariableChangeListener(String name, VariableChangeListener l) {
+    WrapperHashSet<VariableChangeListener>	listeners;
+
+    name = extractName(name);
+    synchronized(m_TargetedVariableChangeListeners) {
+      listeners = m_TargetedVariableChangeListeners.get(name);
+      if (listeners == null) {
+	listeners = new WrapperHashSet<>();
+	m_TargetedVariableChangeListeners.put(name, listeners);
+      }
+      listeners.add(l);
+    }
+  }
+
+  /**
+   * Removes the listener from the internal list, including any registrations
+   * for specific variables.
    *
    * @param l		the listener to remove
    */
   public void removeVariableChangeListener(VariableChangeListener l) {
     m_VariableChangeListeners.remove(l);
+    synchronized(m_TargetedVariableChangeListeners) {
+      for (WrapperHashSet<VariableChangeListener> listeners: m_TargetedVariableChangeListeners.values())
+	listeners.remove(l);
+    }
+  }
+
+  /**
+   * Removes the listener for the specified variable.
+   *
+   * @param name	the name (or placeholder string) of the variable
+   * @param l		the listener to remove
+   */
+  public void removeVariableChangeListener(String name, VariableChangeListener l) {
+    WrapperHashSet<VariableChangeListener>	listeners;
+
+    name = extractName(name);
+    synchronized(m_TargetedVariableChangeListeners) {
+      listeners = m_TargetedVariableChangeListeners.get(name);
+      if (listeners != null) {
+	listeners.remove(l);
+	if (listeners.size() == 0)
+	  m_TargetedVariableChangeListeners.remove(name);
+      }
+    }
   }
 
   /**
@@ -338,16 +413,71 @@ public class Variables
    */
   public void removeVariableChangeListeners() {
     m_VariableChangeListeners.clear();
+    synchronized(m_TargetedVariableChangeListeners) {
+      m_TargetedVariableChangeListeners.clear();
+    }
   }
 
   /**
-   * Notifies all listeners with the specified event.
+   * Notifies all listeners with the specified event: the ones listening to
+   * all variables and the ones registered for this particular variable.
    *
    * @param e		the event to send
    */
   protected void notifyVariableChangeListeners(VariableChangeEvent e) {
-    for (VariableChangeListener l: m_VariableChangeListeners)
+    WrapperHashSet<VariableChangeListener>	listeners;
+    int						count;
+
+    count = 0;
+    for (VariableChangeListener l: m_VariableChangeListeners) {
       l.variableChanged(e);
+      count++;
+    }
+
+    synchronized(m_TargetedVariableChangeListeners) {
+      listeners = m_TargetedVariableChangeListeners.get(extractName(e.getName()));
+      if (listeners != null)
+	listeners = new WrapperHashSet<>(listeners);
+    }
+    if (listeners != null) {
+      for (VariableChangeListener l: listeners) {
+	l.variableChanged(e);
+	count++;
+      }
+    }
+
+    synchronized(this) {
+      m_NumVariableChangeEvents++;
+      m_NumDispatchedVariableChangeEvents += count;
+    }
+  }
+
+  /**
+   * Returns the number of variable change events that were generated.
+   *
+   * @return		the number of events
+   */
+  public synchronized long getNumVariableChangeEvents() {
+    return m_NumVariableChangeEvents;
+  }
+
+  /**
+   * Returns the number of times that listeners got notified about variable
+   * changes. The ratio to {@link #getNumVariableChangeEvents()} is the average
+   * number of listeners that an event got dispatched to.
+   *
+   * @return		the number of notifications
+   */
+  public synchronized long getNumDispatchedVariableChangeEvents() {
+    return m_NumDispatchedVariableChangeEvents;
+  }
+
+  /**
+   * Resets the counters for the variable change events.
+   */
+  public synchronized void resetVariableChangeStatistics() {
+    m_NumVariableChangeEvents           = 0;
+    m_NumDispatchedVariableChangeEvents = 0;
   }
 
   /**
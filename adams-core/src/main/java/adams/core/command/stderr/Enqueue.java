@@ -136,7 +136,7 @@ public class Enqueue
   @Override
   public void processAsync(String output) {
     if (m_Handler != null)
-      m_Handler.add(output);
+      m_Handler.add(output, m_Owner.getFlowContext());
   }
 
   /**
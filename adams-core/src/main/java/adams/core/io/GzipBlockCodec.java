@@ -0,0 +1,268 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * GzipBlockCodec.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.core.io;
+
+import adams.core.io.ParallelBlockCompressor.BlockCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Block codec for gzip. Every block is stored as a separate gzip member,
+ * i.e., the output can be read by any gzip implementation that supports
+ * concatenated members (RFC 1952). The total length of each member is
+ * stored in an extra field ('A', 'D') of the member header, which allows
+ * splitting the stream without inflating it (similar to BGZF).
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class GzipBlockCodec
+  implements BlockCodec {
+
+  private static final long serialVersionUID = -3311564512429227617L;
+
+  /** the first subfield ID. */
+  public final static byte SUBFIELD_ID1 = 'A';
+
+  /** the second subfield ID. */
+  public final static byte SUBFIELD_ID2 = 'D';
+
+  /** the length of the member header (incl extra field). */
+  public final static int HEADER_LENGTH = 20;
+
+  /** the length of the fixed part of the member header (incl XLEN). */
+  public final static int FIXED_HEADER_LENGTH = 12;
+
+  /** the length of the member trailer. */
+  public final static int TRAILER_LENGTH = 8;
+
+  /** the FEXTRA flag. */
+  public final static int FLAG_EXTRA = 4;
+
+  /** the compression level. */
+  protected int m_Level;
+
+  /**
+   * Initializes the codec with the default compression level.
+   */
+  public GzipBlockCodec() {
+    this(Deflater.DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * Initializes the codec.
+   *
+   * @param level	the compression level (0-9, -1 for default)
+   */
+  public GzipBlockCodec(int level) {
+    m_Level = level;
+  }
+
+  /**
+   * Returns the name of the format.
+   *
+   * @return		the name
+   */
+  @Override
+  public String getName() {
+    return "gzip";
+  }
+
+  /**
+   * Compresses the block into a self-contained member.
+   *
+   * @param data	the buffer with the data
+   * @param length	the number of bytes to compress
+   * @return		the member
+   * @throws Exception	if compression fails
+   */
+  @Override
+  public byte[] compress(byte[] data, int length) throws Exception {
+    byte[]			result;
+    ByteArrayOutputStream	body;
+    Deflater			deflater;
+    CRC32			crc;
+    byte[]			buffer;
+    int				len;
+    int				total;
+
+    deflater = new Deflater(m_Level, true);
+    body     = new ByteArrayOutputStream(length / 2 + 64);
+    buffer   = new byte[64 * 1024];
+    try {
+      deflater.setInput(data, 0, length);
+      deflater.finish();
+      while (!deflater.finished()) {
+	len = deflater.deflate(buffer);
+	body.write(buffer, 0, len);
+      }
+    }
+    finally {
+      deflater.end();
+    }
+
+    crc = new CRC32();
+    crc.update(data, 0, length);
+
+    total  = HEADER_LENGTH + body.size() + TRAILER_LENGTH;
+    result = new byte[total];
+    // header
+    result[0]  = (byte) 0x1f;
+    result[1]  = (byte) 0x8b;
+    result[2]  = 8;  // deflate
+    result[3]  = FLAG_EXTRA;
+    // mtime (4), xfl (1): 0
+    result[9]  = (byte) 255;  // unknown OS
+    result[10] = 8;  // XLEN
+    result[11] = 0;
+    result[12] = SUBFIELD_ID1;
+    result[13] = SUBFIELD_ID2;
+    result[14] = 4;  // subfield length
+    result[15] = 0;
+    ParallelBlockCompressor.writeIntLE(total, result, 16);
+    // data
+    System.arraycopy(body.toByteArray(), 0, result, HEADER_LENGTH, body.size());
+    // trailer
+    ParallelBlockCompressor.writeIntLE((int) crc.getValue(), result, total - 8);
+    ParallelBlockCompressor.writeIntLE(length, result, total - 4);
+
+    return result;
+  }
+
+  /**
+   * Locates the member length in the extra field.
+   *
+   * @param extra	the extra field
+   * @param length	the length of the extra field
+   * @return		the member length, -1 if not present
+   */
+  protected int findMemberLength(byte[] extra, int length) {
+    int		pos;
+    int		len;
+
+    pos = 0;
+    while (pos + 4 <= length) {
+      len = (extra[pos + 2] & 0xff) | ((extra[pos + 3] & 0xff) << 8);
+      if ((extra[pos] == SUBFIELD_ID1) && (extra[pos + 1] == SUBFIELD_ID2) && (len == 4) && (pos + 8 <= length))
+	return ParallelBlockCompressor.readIntLE(extra, pos + 4);
+      pos += 4 + len;
+    }
+
+    return -1;
+  }
+
+  /**
+   * Checks whether the start of the stream was generated by this codec,
+   * i.e., whether the member boundaries can be determined.
+   *
+   * @param header	the first bytes of the stream
+   * @param length	the number of valid bytes in the header
+   * @return		true if the stream can be decompressed in parallel
+   */
+  @Override
+  public boolean isBlockCompressed(byte[] header, int length) {
+    int		xlen;
+
+    if (length < FIXED_HEADER_LENGTH)
+      return false;
+    if ((header[0] != (byte) 0x1f) || (header[1] != (byte) 0x8b) || ((header[3] & FLAG_EXTRA) == 0))
+      return false;
+    xlen = (header[10] & 0xff) | ((header[11] & 0xff) << 8);
+    if (FIXED_HEADER_LENGTH + xlen > length)
+      return false;
+    byte[] extra = new byte[xlen];
+    System.arraycopy(header, FIXED_HEADER_LENGTH, extra, 0, xlen);
+
+    return (findMemberLength(extra, xlen) > 0);
+  }
+
+  /**
+   * Reads the next member from the stream.
+   *
+   * @param in		the stream to read from
+   * @return		the member, null if the end of the stream has been reached
+   * @throws IOException	if reading fails or the member was not generated
+   * 			by this codec
+   */
+  @Override
+  public byte[] readMember(InputStream in) throws IOException {
+    byte[]	result;
+    byte[]	header;
+    byte[]	extra;
+    int		xlen;
+    int		total;
+
+    header = new byte[FIXED_HEADER_LENGTH];
+    if (!ParallelBlockCompressor.readFully(in, header, 0, header.length))
+      return null;
+    if ((header[0] != (byte) 0x1f) || (header[1] != (byte) 0x8b))
+      throw new IOException("Not a gzip member!");
+    if ((header[3] & FLAG_EXTRA) == 0)
+      throw new IOException("gzip member has no extra field, cannot determine member length!");
+
+    xlen  = (header[10] & 0xff) | ((header[11] & 0xff) << 8);
+    extra = new byte[xlen];
+    ParallelBlockCompressor.readFully(in, extra, 0, xlen);
+    total = findMemberLength(extra, xlen);
+    if (total < FIXED_HEADER_LENGTH + xlen + TRAILER_LENGTH)
+      throw new IOException("gzip member does not contain a valid member length!");
+
+    result = new byte[total];
+    System.arraycopy(header, 0, result, 0, header.length);
+    System.arraycopy(extra, 0, result, header.length, xlen);
+    ParallelBlockCompressor.readFully(in, result, header.length + xlen, total - header.length - xlen);
+
+    return result;
+  }
+
+  /**
+   * Decompresses the member.
+   *
+   * @param member	the member to decompress
+   * @return		the uncompressed data
+   * @throws Exception	if decompression fails
+   */
+  @Override
+  public byte[] decompress(byte[] member) throws Exception {
+    byte[]		result;
+    GZIPInputStream	in;
+    int			size;
+
+    size   = ParallelBlockCompressor.readIntLE(member, member.length - 4);
+    result = new byte[size];
+    in     = new GZIPInputStream(new ByteArrayInputStream(member));
+    try {
+      ParallelBlockCompressor.readFully(in, result, 0, size);
+      if (in.read() != -1)
+	throw new IOException("gzip member contains more data than stated in trailer!");
+    }
+    finally {
+      FileUtils.closeQuietly(in);
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,640 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ParallelBlockCompressor.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.core.io;
+
+import adams.core.Performance;
+import adams.core.Utils;
+import adams.core.logging.Logger;
+import adams.core.logging.LoggingHelper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+/**
+ * Compresses data in independent blocks, using multiple threads. Each block
+ * is turned into a self-contained member (e.g., a gzip member or a zstd
+ * frame) and the members are written in order, resulting in a
+ * standard-compatible concatenated stream.
+ * <br><br>
+ * Decompression in parallel is only possible for streams that were
+ * generated this way, since the codec needs to be able to determine the
+ * member boundaries without decompressing the data.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ParallelBlockCompressor
+  implements Serializable {
+
+  private static final long serialVersionUID = 4309617006385946573L;
+
+  /**
+   * Interface for compression formats that support independent blocks.
+   */
+  public interface BlockCodec
+    extends Serializable {
+
+    /**
+     * Returns the name of the format.
+     *
+     * @return		the name
+     */
+    public String getName();
+
+    /**
+     * Compresses the block into a self-contained member.
+     *
+     * @param data	the buffer with the data
+     * @param length	the number of bytes to compress
+     * @return		the member
+     * @throws Exception	if compression fails
+     */
+    public byte[] compress(byte[] data, int length) throws Exception;
+
+    /**
+     * Checks whether the start of the stream was generated by this codec,
+     * i.e., whether the member boundaries can be determined.
+     *
+     * @param header	the first bytes of the stream
+     * @param length	the number of valid bytes in the header
+     * @return		true if the stream can be decompressed in parallel
+     */
+    public boolean isBlockCompressed(byte[] header, int length);
+
+    /**
+     * Reads the next member from the stream.
+     *
+     * @param in		the stream to read from
+     * @return		the member, null if the end of the stream has been reached
+     * @throws IOException	if reading fails or the member was not generated
+     * 			by this codec
+     */
+    public byte[] readMember(InputStream in) throws IOException;
+
+    /**
+     * Decompresses the member.
+     *
+     * @param member	the member to decompress
+     * @return		the uncompressed data
+     * @throws Exception	if decompression fails
+     */
+    public byte[] decompress(byte[] member) throws Exception;
+  }
+
+  /** the default block size. */
+  public final static int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+  /** the number of bytes to inspect for determining whether data is block compressed. */
+  public final static int HEADER_LENGTH = 64;
+
+  /** for logging errors. */
+  protected static Logger LOGGER = LoggingHelper.getLogger(ParallelBlockCompressor.class);
+
+  /** the codec to use. */
+  protected BlockCodec m_Codec;
+
+  /** the block size. */
+  protected int m_BlockSize;
+
+  /** the number of threads to use. */
+  protected int m_NumThreads;
+
+  /** the number of uncompressed bytes processed. */
+  protected long m_UncompressedBytes;
+
+  /** the number of compressed bytes processed. */
+  protected long m_CompressedBytes;
+
+  /** the number of blocks processed. */
+  protected int m_Blocks;
+
+  /** the time in msec of the last operation. */
+  protected long m_Duration;
+
+  /**
+   * Initializes the compressor with gzip, the default block size and
+   * a single thread.
+   */
+  public ParallelBlockCompressor() {
+    this(new GzipBlockCodec(), DEFAULT_BLOCK_SIZE, 1);
+  }
+
+  /**
+   * Initializes the compressor.
+   *
+   * @param codec	the codec to use
+   * @param blockSize	the size of the uncompressed blocks in bytes
+   * @param numThreads	the number of threads
+   * @see		Performance#determineNumThreads(int)
+   */
+  public ParallelBlockCompressor(BlockCodec codec, int blockSize, int numThreads) {
+    if (blockSize < 1)
+      throw new IllegalArgumentException("Block size must be at least 1, provided: " + blockSize);
+
+    m_Codec      = codec;
+    m_BlockSize  = blockSize;
+    m_NumThreads = numThreads;
+    resetStatistics();
+  }
+
+  /**
+   * Returns the codec in use.
+   *
+   * @return		the codec
+   */
+  public BlockCodec getCodec() {
+    return m_Codec;
+  }
+
+  /**
+   * Returns the block size.
+   *
+   * @return		the size in bytes
+   */
+  public int getBlockSize() {
+    return m_BlockSize;
+  }
+
+  /**
+   * Returns the number of threads.
+   *
+   * @return		the number of threads
+   * @see		Performance#determineNumThreads(int)
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Resets the statistics.
+   */
+  protected void resetStatistics() {
+    m_UncompressedBytes = 0;
+    m_CompressedBytes   = 0;
+    m_Blocks            = 0;
+    m_Duration          = 0;
+  }
+
+  /**
+   * Reads a full block from the stream.
+   *
+   * @param in		the stream to read from
+   * @param block	the buffer to fill
+   * @return		the number of bytes read, 0 if end of stream
+   * @throws IOException	if reading fails
+   */
+  protected int readBlock(InputStream in, byte[] block) throws IOException {
+    int		result;
+    int		read;
+
+    result = 0;
+    while (result < block.length) {
+      read = in.read(block, result, block.length - result);
+      if (read == -1)
+	break;
+      result += read;
+    }
+
+    return result;
+  }
+
+  /**
+   * Unwraps the exception thrown by a worker.
+   *
+   * @param e		the exception to unwrap
+   * @return		the unwrapped exception
+   */
+  protected Exception unwrap(ExecutionException e) {
+    if (e.getCause() instanceof Exception)
+      return (Exception) e.getCause();
+    else
+      return e;
+  }
+
+  /**
+   * Compresses the stream.
+   *
+   * @param in		the uncompressed data
+   * @param out		the stream to write the members to
+   * @throws Exception	if compression fails
+   */
+  public void compress(InputStream in, OutputStream out) throws Exception {
+    ForkJoinPool		pool;
+    Deque<Future<byte[]>>	pending;
+    int				threads;
+    long			start;
+    byte[]			block;
+    byte[]			member;
+    int				read;
+
+    resetStatistics();
+    start   = System.currentTimeMillis();
+    threads = Performance.determineNumThreads(m_NumThreads);
+    pool    = (threads > 1) ? new ForkJoinPool(threads) : null;
+    pending = new ArrayDeque<>();
+
+    try {
+      while (true) {
+	block = new byte[m_BlockSize];
+	read  = readBlock(in, block);
+	// an empty stream still requires a member
+	if ((read == 0) && (m_Blocks > 0))
+	  break;
+	m_UncompressedBytes += read;
+	m_Blocks++;
+
+	if (pool == null) {
+	  member = m_Codec.compress(block, read);
+	  m_CompressedBytes += member.length;
+	  out.write(member);
+	}
+	else {
+	  final byte[] fBlock = block;
+	  final int fRead = read;
+	  pending.add(pool.submit(() -> m_Codec.compress(fBlock, fRead)));
+	  while (pending.size() >= 2 * threads) {
+	    member = pending.poll().get();
+	    m_CompressedBytes += member.length;
+	    out.write(member);
+	  }
+	}
+
+	if (read < m_BlockSize)
+	  break;
+      }
+
+      while (!pending.isEmpty()) {
+	member = pending.poll().get();
+	m_CompressedBytes += member.length;
+	out.write(member);
+      }
+      out.flush();
+    }
+    catch (ExecutionException e) {
+      throw unwrap(e);
+    }
+    finally {
+      if (pool != null)
+	pool.shutdownNow();
+      m_Duration = System.currentTimeMillis() - start;
+    }
+  }
+
+  /**
+   * Decompresses the stream.
+   *
+   * @param in		the compressed data
+   * @param out		the stream to write the uncompressed data to
+   * @throws Exception	if decompression fails
+   */
+  public void decompress(InputStream in, OutputStream out) throws Exception {
+    ForkJoinPool		pool;
+    Deque<Future<byte[]>>	pending;
+    int				threads;
+    long			start;
+    byte[]			member;
+    byte[]			data;
+
+    resetStatistics();
+    start   = System.currentTimeMillis();
+    threads = Performance.determineNumThreads(m_NumThreads);
+    pool    = (threads > 1) ? new ForkJoinPool(threads) : null;
+    pending = new ArrayDeque<>();
+
+    try {
+      while ((member = m_Codec.readMember(in)) != null) {
+	m_CompressedBytes += member.length;
+	m_Blocks++;
+
+	if (pool == null) {
+	  data = m_Codec.decompress(member);
+	  m_UncompressedBytes += data.length;
+	  out.write(data);
+	}
+	else {
+	  final byte[] fMember = member;
+	  pending.add(pool.submit(() -> m_Codec.decompress(fMember)));
+	  while (pending.size() >= 2 * threads) {
+	    data = pending.poll().get();
+	    m_UncompressedBytes += data.length;
+	    out.write(data);
+	  }
+	}
+      }
+
+      while (!pending.isEmpty()) {
+	data = pending.poll().get();
+	m_UncompressedBytes += data.length;
+	out.write(data);
+      }
+      out.flush();
+    }
+    catch (ExecutionException e) {
+      throw unwrap(e);
+    }
+    finally {
+      if (pool != null)
+	pool.shutdownNow();
+      m_Duration = System.currentTimeMillis() - start;
+    }
+  }
+
+  /**
+   * Compresses the file.
+   *
+   * @param inputFile	the file to compress
+   * @param outputFile	the destination file (the archive)
+   * @param removeInput	whether to remove the input file
+   * @return		the error message, null if everything OK
+   */
+  public String compress(File inputFile, File outputFile, boolean removeInput) {
+    String		result;
+    InputStream		in;
+    OutputStream	out;
+    String		msg;
+
+    result = null;
+    in     = null;
+    out    = null;
+    try {
+      in  = new BufferedInputStream(new FileInputStream(inputFile.getAbsolutePath()));
+      out = new BufferedOutputStream(new FileOutputStream(outputFile.getAbsolutePath()));
+      compress(in, out);
+      FileUtils.closeQuietly(in);
+      FileUtils.closeQuietly(out);
+      in  = null;
+      out = null;
+
+      // remove input file?
+      if (removeInput) {
+	if (!inputFile.delete())
+	  result = "Failed to delete input file '" + inputFile + "' after successful compression!";
+      }
+    }
+    catch (Exception e) {
+      msg = "Failed to compress '" + inputFile + "' (" + m_Codec.getName() + "): ";
+      LOGGER.log(Level.SEVERE, msg, e);
+      result = msg + e;
+    }
+    finally {
+      FileUtils.closeQuietly(in);
+      FileUtils.closeQuietly(out);
+    }
+
+    return result;
+  }
+
+  /**
+   * Decompresses the file.
+   *
+   * @param archiveFile	the file to decompress
+   * @param outputFile	the destination file
+   * @return		the error message, null if everything OK
+   */
+  public String decompress(File archiveFile, File outputFile) {
+    String		result;
+    InputStream		in;
+    OutputStream	out;
+    String		msg;
+
+    result = null;
+    in     = null;
+    out    = null;
+    try {
+      in  = new BufferedInputStream(new FileInputStream(archiveFile.getAbsolutePath()));
+      out = new BufferedOutputStream(new FileOutputStream(outputFile.getAbsolutePath()));
+      decompress(in, out);
+    }
+    catch (Exception e) {
+      msg = "Failed to decompress '" + archiveFile + "' (" + m_Codec.getName() + "): ";
+      LOGGER.log(Level.SEVERE, msg, e);
+      result = msg + e;
+    }
+    finally {
+      FileUtils.closeQuietly(in);
+      FileUtils.closeQuietly(out);
+    }
+
+    return result;
+  }
+
+  /**
+   * Compresses the bytes.
+   *
+   * @param input	the bytes to compress
+   * @return		the compressed bytes
+   * @throws Exception	if compression fails
+   */
+  public byte[] compress(byte[] input) throws Exception {
+    ByteArrayOutputStream	out;
+
+    out = new ByteArrayOutputStream();
+    compress(new ByteArrayInputStream(input), out);
+
+    return out.toByteArray();
+  }
+
+  /**
+   * Decompresses the bytes.
+   *
+   * @param input	the bytes to decompress
+   * @return		the uncompressed bytes
+   * @throws Exception	if decompression fails
+   */
+  public byte[] decompress(byte[] input) throws Exception {
+    ByteArrayOutputStream	out;
+
+    out = new ByteArrayOutputStream();
+    decompress(new ByteArrayInputStream(input), out);
+
+    return out.toByteArray();
+  }
+
+  /**
+   * Checks whether the file was generated by the codec in use, i.e.,
+   * whether it can be decompressed in parallel.
+   *
+   * @param file	the file to check
+   * @return		true if block compressed
+   */
+  public boolean isBlockCompressed(File file) {
+    byte[]	header;
+
+    header = FileUtils.loadFromBinaryFile(file, HEADER_LENGTH);
+    if (header == null)
+      return false;
+
+    return m_Codec.isBlockCompressed(header, header.length);
+  }
+
+  /**
+   * Checks whether the data was generated by the codec in use, i.e.,
+   * whether it can be decompressed in parallel.
+   *
+   * @param data	the data to check
+   * @return		true if block compressed
+   */
+  public boolean isBlockCompressed(byte[] data) {
+    return m_Codec.isBlockCompressed(data, Math.min(data.length, HEADER_LENGTH));
+  }
+
+  /**
+   * Returns the number of uncompressed bytes of the last operation.
+   *
+   * @return		the number of bytes
+   */
+  public long getUncompressedBytes() {
+    return m_UncompressedBytes;
+  }
+
+  /**
+   * Returns the number of compressed bytes of the last operation.
+   *
+   * @return		the number of bytes
+   */
+  public long getCompressedBytes() {
+    return m_CompressedBytes;
+  }
+
+  /**
+   * Returns the number of blocks of the last operation.
+   *
+   * @return		the number of blocks
+   */
+  public int getBlocks() {
+    return m_Blocks;
+  }
+
+  /**
+   * Returns the duration of the last operation.
+   *
+   * @return		the duration in msec
+   */
+  public long getDuration() {
+    return m_Duration;
+  }
+
+  /**
+   * Returns the throughput of the last operation, based on the uncompressed
+   * data.
+   *
+   * @return		the throughput in MB/s
+   */
+  public double getThroughput() {
+    return throughput(m_UncompressedBytes, m_Duration);
+  }
+
+  /**
+   * Returns the statistics of the last operation.
+   *
+   * @return		the statistics
+   */
+  public String getStatistics() {
+    return m_Codec.getName()
+      + ": blocks=" + m_Blocks
+      + ", uncompressed=" + m_UncompressedBytes
+      + ", compressed=" + m_CompressedBytes
+      + ", duration=" + m_Duration + "ms"
+      + ", throughput=" + Utils.doubleToString(getThroughput(), 1) + "MB/s";
+  }
+
+  /**
+   * Calculates the throughput.
+   *
+   * @param bytes	the number of (uncompressed) bytes
+   * @param msec	the time in msec
+   * @return		the throughput in MB/s
+   */
+  public static double throughput(long bytes, long msec) {
+    return (bytes / (1024.0 * 1024.0)) / (Math.max(1, msec) / 1000.0);
+  }
+
+  /**
+   * Reads exactly the specified number of bytes.
+   *
+   * @param in		the stream to read from
+   * @param buffer	the buffer to fill
+   * @param offset	the offset in the buffer
+   * @param length	the number of bytes to read
+   * @return		false if the stream was already at its end
+   * @throws IOException	if reading fails or the stream ends prematurely
+   */
+  public static boolean readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
+    int		total;
+    int		read;
+
+    total = 0;
+    while (total < length) {
+      read = in.read(buffer, offset + total, length - total);
+      if (read == -1) {
+	if (total == 0)
+	  return false;
+	throw new EOFException("Premature end of stream, expected " + length + " bytes but read only " + total + "!");
+      }
+      total += read;
+    }
+
+    return true;
+  }
+
+  /**
+   * Writes the integer in little endian byte order.
+   *
+   * @param value	the value to write
+   * @param buffer	the buffer to write to
+   * @param offset	the offset in the buffer
+   */
+  public static void writeIntLE(int value, byte[] buffer, int offset) {
+    buffer[offset]     = (byte) (value);
+    buffer[offset + 1] = (byte) (value >>> 8);
+    buffer[offset + 2] = (byte) (value >>> 16);
+    buffer[offset + 3] = (byte) (value >>> 24);
+  }
+
+  /**
+   * Reads an integer in little endian byte order.
+   *
+   * @param buffer	the buffer to read from
+   * @param offset	the offset in the buffer
+   * @return		the value
+   */
+  public static int readIntLE(byte[] buffer, int offset) {
+    return (buffer[offset] & 0xff)
+      | ((buffer[offset + 1] & 0xff) << 8)
+      | ((buffer[offset + 2] & 0xff) << 16)
+      | ((buffer[offset + 3] & 0xff) << 24);
+  }
+}
@@ -15,7 +15,7 @@
 
 /*
  * AbstractDirectoryLister.java
- * Copyright (C) 2009-2016 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2009-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.core.io.lister;
@@ -60,7 +60,7 @@ public abstract class AbstractDirectoryLister
   protected BaseRegExp m_RegExp;
 
   /** whether to stop the currently listing. */
-  protected boolean m_Stopped;
+  protected volatile boolean m_Stopped;
 
   /**
    * Initializes the object.
@@ -15,7 +15,7 @@
 
 /*
  * LocalDirectoryLister.java
- * Copyright (C) 2009-2017 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2009-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.core.io.lister;
@@ -50,7 +50,7 @@ public class LocalDirectoryLister
   protected String m_StopFile;
 
   /** whether the stop file was encountered. */
-  protected boolean m_StopFileEncountered;
+  protected volatile boolean m_StopFileEncountered;
 
   /** whether to skip locked files. */
   protected boolean m_SkipLockedFiles;
@@ -0,0 +1,645 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ParallelLocalDirectoryLister.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.core.io.lister;
+
+import adams.core.Performance;
+import adams.core.ThreadLimiter;
+import adams.core.io.FileObject;
+import adams.core.io.LocalFileObject;
+import adams.core.io.PlaceholderFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Lists files/dirs in a directory, traversing sub-directories in parallel
+ * using a fork-join pool. The attributes of each directory entry are read
+ * only once via NIO and reused for type checks, timestamp constraints and
+ * sorting.
+ * <br><br>
+ * Optionally, the listings of directories can be cached between calls:
+ * if the "last modified" timestamp of a directory has not changed, its
+ * entries (and their attributes) are taken from the cache rather than
+ * being read again. Sub-directories are still visited, as their changes
+ * are not reflected in the timestamp of the parent directory. Note that
+ * files that got modified in place (i.e., without being created, deleted
+ * or renamed) in an unchanged directory will have an outdated timestamp.
+ * <br><br>
+ * Without sorting, results can be obtained incrementally, while the
+ * traversal is still running, using {@link #iterate()}. Without sorting,
+ * the order of the results is not defined. The traversal only runs ahead
+ * of the consumer of the iterator by {@link #ITERATE_QUEUE_SIZE} items.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ParallelLocalDirectoryLister
+  extends LocalDirectoryLister
+  implements ThreadLimiter {
+
+  /** for serialization. */
+  private static final long serialVersionUID = 4330125651826961364L;
+
+  /** the maximum number of items waiting to be returned by the iterator. */
+  public final static int ITERATE_QUEUE_SIZE = 1000;
+
+  /**
+   * A single directory entry.
+   */
+  public static class Entry
+    implements Serializable {
+
+    private static final long serialVersionUID = -1703327946606632347L;
+
+    /** the file. */
+    protected File m_File;
+
+    /** whether a directory. */
+    protected boolean m_Directory;
+
+    /** the last modified timestamp. */
+    protected long m_LastModified;
+
+    /**
+     * Initializes the entry.
+     *
+     * @param file		the file
+     * @param directory		whether the file is a directory
+     * @param lastModified	the last modified timestamp
+     */
+    public Entry(File file, boolean directory, long lastModified) {
+      m_File         = file;
+      m_Directory    = directory;
+      m_LastModified = lastModified;
+    }
+
+    /**
+     * Returns the file.
+     *
+     * @return		the file
+     */
+    public File getFile() {
+      return m_File;
+    }
+
+    /**
+     * Returns the name of the file.
+     *
+     * @return		the name
+     */
+    public String getName() {
+      return m_File.getName();
+    }
+
+    /**
+     * Returns whether the file is a directory.
+     *
+     * @return		true if a directory
+     */
+    public boolean isDirectory() {
+      return m_Directory;
+    }
+
+    /**
+     * Returns the "last modified" timestamp.
+     *
+     * @return		the timestamp
+     */
+    public long getLastModified() {
+      return m_LastModified;
+    }
+  }
+
+  /**
+   * The cached listing of a directory.
+   */
+  public static class CachedDirectory
+    implements Serializable {
+
+    private static final long serialVersionUID = 5102624000271386419L;
+
+    /** the last modified timestamp of the directory. */
+    protected long m_LastModified;
+
+    /** the entries. */
+    protected Entry[] m_Entries;
+
+    /**
+     * Initializes the container.
+     *
+     * @param lastModified	the timestamp of the directory
+     * @param entries		the entries of the directory
+     */
+    public CachedDirectory(long lastModified, Entry[] entries) {
+      m_LastModified = lastModified;
+      m_Entries      = entries;
+    }
+
+    /**
+     * Returns the timestamp of the directory at the time of listing.
+     *
+     * @return		the timestamp
+     */
+    public long getLastModified() {
+      return m_LastModified;
+    }
+
+    /**
+     * Returns the entries.
+     *
+     * @return		the entries
+     */
+    public Entry[] getEntries() {
+      return m_Entries;
+    }
+  }
+
+  /**
+   * Traverses a directory, forking tasks for its sub-directories.
+   */
+  public class Walker
+    extends RecursiveAction {
+
+    private static final long serialVersionUID = 6062591700474219393L;
+
+    /** the directory to traverse. */
+    protected File m_Directory;
+
+    /** the depth indicator (searched no deeper, if 0). */
+    protected int m_Depth;
+
+    /** the minimum timestamp, -1 if unbounded. */
+    protected long m_MinFileAge;
+
+    /** the maximum timestamp, -1 if unbounded. */
+    protected long m_MaxFileAge;
+
+    /** for receiving the located items. */
+    protected Consumer<SortContainer> m_Consumer;
+
+    /**
+     * Initializes the task.
+     *
+     * @param dir	the directory to traverse
+     * @param depth	the depth indicator
+     * @param minFileAge	the minimum timestamp, -1 if unbounded
+     * @param maxFileAge	the maximum timestamp, -1 if unbounded
+     * @param consumer	for receiving the located items
+     */
+    public Walker(File dir, int depth, long minFileAge, long maxFileAge, Consumer<SortContainer> consumer) {
+      m_Directory  = dir;
+      m_Depth      = depth;
+      m_MinFileAge = minFileAge;
+      m_MaxFileAge = maxFileAge;
+      m_Consumer   = consumer;
+    }
+
+    /**
+     * Checks whether the entry should be listed.
+     *
+     * @param entry	the entry to check
+     * @return		true if to list
+     */
+    protected boolean accept(Entry entry) {
+      // does name match?
+      if (!m_RegExp.isEmpty() && !m_RegExp.isMatch(entry.getName()))
+	return false;
+
+      // too old?
+      if ((m_MinFileAge != -1) && (m_MinFileAge > entry.getLastModified()))
+	return false;
+
+      // too new?
+      if ((m_MaxFileAge != -1) && (m_MaxFileAge < entry.getLastModified()))
+	return false;
+
+      // file locked?
+      if (m_SkipLockedFiles && isFileLocked(entry.getFile())) {
+	if (getDebug())
+	  getLogger().info("file locked, skipping: " + entry.getFile());
+	return false;
+      }
+
+      return true;
+    }
+
+    /**
+     * Performs the traversal.
+     */
+    @Override
+    protected void compute() {
+      Entry[]		entries;
+      List<Walker>	subdirs;
+
+      if ((m_Depth == 0) || m_Stopped || m_StopFileEncountered)
+	return;
+
+      if (getDebug())
+	getLogger().info("search: current=" + m_Directory + ", depth=" + m_Depth);
+
+      try {
+	entries = readDirectory(m_Directory.toPath());
+      }
+      catch (Exception e) {
+	if (getDebug())
+	  getLogger().info("No files listed: " + m_Directory + " (" + e + ")");
+	return;
+      }
+
+      // stop file?
+      for (Entry entry: entries) {
+	if (!entry.isDirectory() && entry.getName().equals(m_StopFile)) {
+	  m_StopFileEncountered = true;
+	  if (getDebug())
+	    getLogger().info("stop file encountered");
+	  return;
+	}
+      }
+
+      subdirs = new ArrayList<>();
+      for (Entry entry: entries) {
+	// do we have to stop?
+	if (m_Stopped || m_StopFileEncountered)
+	  break;
+
+	if (entry.isDirectory()) {
+	  if (m_Recursive)
+	    subdirs.add(new Walker(entry.getFile(), m_Depth - 1, m_MinFileAge, m_MaxFileAge, m_Consumer));
+	  if (m_ListDirs && accept(entry))
+	    m_Consumer.accept(new SortContainer(new LocalFileObject(entry.getFile()), m_Sorting, entry.getLastModified()));
+	}
+	else {
+	  if (m_ListFiles && accept(entry))
+	    m_Consumer.accept(new SortContainer(new LocalFileObject(entry.getFile()), m_Sorting, entry.getLastModified()));
+	}
+      }
+
+      if (!subdirs.isEmpty())
+	invokeAll(subdirs);
+    }
+  }
+
+  /** the minimum age in msec of a directory's timestamp before its listing gets cached
+   * (timestamps have limited resolution, changes right after listing could go unnoticed otherwise). */
+  public static final long MIN_CACHE_AGE = 2000;
+
+  /** the number of threads to use. */
+  protected int m_NumThreads;
+
+  /** whether to cache the directory listings. */
+  protected boolean m_CacheDirectories;
+
+  /** the cached directory listings (absolute path - listing). */
+  protected transient Map<String,CachedDirectory> m_Cache;
+
+  /** the thread of the current incremental traversal. */
+  protected transient Thread m_IterateThread;
+
+  /**
+   * Initializes the object.
+   */
+  public ParallelLocalDirectoryLister() {
+    super();
+
+    m_NumThreads       = -1;
+    m_CacheDirectories = false;
+  }
+
+  /**
+   * Sets the number of threads to use.
+   *
+   * @param value 	the number of threads: -1 = # of CPUs/cores
+   */
+  public void setNumThreads(int value) {
+    m_NumThreads = value;
+  }
+
+  /**
+   * Returns the number of threads to use.
+   *
+   * @return 		the number of threads: -1 = # of CPUs/cores
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Sets whether to cache the directory listings between calls.
+   *
+   * @param value 	true if to cache
+   */
+  public void setCacheDirectories(boolean value) {
+    m_CacheDirectories = value;
+    if (!value)
+      clearCache();
+  }
+
+  /**
+   * Returns whether to cache the directory listings between calls.
+   *
+   * @return 		true if caching
+   */
+  public boolean getCacheDirectories() {
+    return m_CacheDirectories;
+  }
+
+  /**
+   * Removes all cached directory listings.
+   */
+  public synchronized void clearCache() {
+    m_Cache = null;
+  }
+
+  /**
+   * Returns the cache for the directory listings, instantiates it if necessary.
+   *
+   * @return		the cache
+   */
+  protected synchronized Map<String,CachedDirectory> getCache() {
+    if (m_Cache == null)
+      m_Cache = new ConcurrentHashMap<>();
+    return m_Cache;
+  }
+
+  /**
+   * Reads the entries of the directory, or retrieves them from the cache
+   * if the directory has not changed.
+   *
+   * @param dir		the directory to read
+   * @return		the entries
+   * @throws IOException	if reading fails
+   */
+  protected Entry[] readDirectory(Path dir) throws IOException {
+    Entry[]			result;
+    List<Entry>			entries;
+    Map<String,CachedDirectory>	cache;
+    CachedDirectory		cached;
+    BasicFileAttributes		attrs;
+    long			lastModified;
+
+    cache        = null;
+    lastModified = 0;
+    if (m_CacheDirectories) {
+      cache        = getCache();
+      lastModified = Files.readAttributes(dir, BasicFileAttributes.class).lastModifiedTime().toMillis();
+      cached       = cache.get(dir.toString());
+      if ((cached != null) && (cached.getLastModified() == lastModified))
+	return cached.getEntries();
+    }
+
+    entries = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+      for (Path path: stream) {
+	try {
+	  attrs = Files.readAttributes(path, BasicFileAttributes.class);
+	}
+	catch (IOException e) {
+	  // eg broken link
+	  continue;
+	}
+	entries.add(new Entry(path.toFile(), attrs.isDirectory(), attrs.lastModifiedTime().toMillis()));
+      }
+    }
+    result = entries.toArray(new Entry[0]);
+
+    if ((cache != null) && (System.currentTimeMillis() - lastModified >= MIN_CACHE_AGE))
+      cache.put(dir.toString(), new CachedDirectory(lastModified, result));
+
+    return result;
+  }
+
+  /**
+   * Traverses the directory in parallel, passing the located items to the
+   * consumer (from multiple threads).
+   *
+   * @param current	the directory to traverse
+   * @param depth	the depth indicator (searched no deeper, if 0)
+   * @param consumer	for receiving the items, must be thread-safe
+   */
+  protected void walk(File current, int depth, Consumer<SortContainer> consumer) {
+    ForkJoinPool	pool;
+    long		minFileAge;
+    long		maxFileAge;
+
+    if (m_MinFileTimestamp.isInfinityPast() || m_MinFileTimestamp.isInfinityFuture())
+      minFileAge = -1;
+    else
+      minFileAge = m_MinFileTimestamp.dateValue().getTime();
+    if (m_MaxFileTimestamp.isInfinityPast() || m_MaxFileTimestamp.isInfinityFuture())
+      maxFileAge = -1;
+    else
+      maxFileAge = m_MaxFileTimestamp.dateValue().getTime();
+
+    pool = new ForkJoinPool(Performance.determineNumThreads(m_NumThreads));
+    try {
+      pool.invoke(new Walker(current, depth, minFileAge, maxFileAge, consumer));
+    }
+    finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Performs the parallel search. Search goes deeper if != 0 (use -1 to
+   * start with for infinite search).
+   *
+   * @param current	the current directory
+   * @param files	the files collected so far
+   * @param depth	the depth indicator (searched no deeper, if 0)
+   */
+  @Override
+  protected void search(File current, List<SortContainer> files, int depth) {
+    walk(current, depth, Collections.synchronizedList(files)::add);
+  }
+
+  /**
+   * Turns the file object into a path string.
+   *
+   * @param file	the file object to convert
+   * @param parent	the watch directory with trailing separator
+   * @return		the absolute or relative path
+   */
+  protected String toPath(FileObject file, String parent) {
+    String	result;
+
+    result = file.getFile().getAbsolutePath();
+    if (m_UseRelativePaths)
+      result = result.replace(parent, "");
+
+    return result;
+  }
+
+  /**
+   * Adds the item to the queue, waiting for space to become available.
+   * Gives up if the lister gets stopped.
+   *
+   * @param queue	the queue to add to
+   * @param item	the item to add
+   * @return		true if added, false if stopped or interrupted
+   */
+  protected boolean offer(BlockingQueue<Object> queue, Object item) {
+    try {
+      while (!m_Stopped) {
+	if (queue.offer(item, 100, TimeUnit.MILLISECONDS))
+	  return true;
+      }
+    }
+    catch (InterruptedException e) {
+      // ignored
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns the files/directories in the watched directory incrementally,
+   * while the traversal is still running. Only possible without sorting;
+   * when sorting, the complete list gets generated first. If the stop file
+   * is encountered, the traversal stops, but items that have already been
+   * returned cannot be revoked. The traversal blocks if the consumer falls
+   * behind by {@link #ITERATE_QUEUE_SIZE} items; an iterator that does not
+   * get consumed completely requires the lister to be stopped via
+   * {@link #stopExecution()}. A traversal that is still running gets stopped
+   * before starting a new one.
+   *
+   * @return		the iterator over the absolute or relative file/directory names
+   */
+  public Iterator<String> iterate() {
+    final BlockingQueue<Object>	queue;
+    final Object		end;
+    final String		parent;
+    final File			root;
+    final Thread		thread;
+
+    if (m_Sorting != Sorting.NO_SORTING)
+      return Arrays.asList(list()).iterator();
+
+    if (isIterating()) {
+      m_Stopped = true;
+      try {
+	m_IterateThread.join();
+      }
+      catch (InterruptedException e) {
+	// ignored
+      }
+    }
+
+    m_Stopped             = false;
+    m_StopFileEncountered = false;
+    if (!m_ListFiles && !m_ListDirs)
+      return Collections.emptyIterator();
+
+    queue  = new ArrayBlockingQueue<>(ITERATE_QUEUE_SIZE);
+    end    = new Object();
+    parent = new PlaceholderFile(getWatchDir()).getAbsolutePath() + File.separator;
+    root   = new File(new PlaceholderFile(m_WatchDir).getAbsolutePath());
+    thread = new Thread(() -> {
+      try {
+	walk(root, m_MaxDepth, (SortContainer cont) -> offer(queue, toPath(cont.getFile(), parent)));
+      }
+      finally {
+	offer(queue, end);
+      }
+    }, getClass().getSimpleName() + "-iterate");
+    thread.setDaemon(true);
+    thread.start();
+    m_IterateThread = thread;
+
+    return new Iterator<String>() {
+      protected Object m_Next;
+      protected int m_Count;
+      @Override
+      public boolean hasNext() {
+	if ((m_MaxItems > 0) && (m_Count >= m_MaxItems)) {
+	  stopExecution();
+	  return false;
+	}
+	while (m_Next == null) {
+	  try {
+	    m_Next = queue.poll(100, TimeUnit.MILLISECONDS);
+	    // traversal stopped without adding the end marker?
+	    if ((m_Next == null) && !thread.isAlive() && queue.isEmpty())
+	      m_Next = end;
+	  }
+	  catch (InterruptedException e) {
+	    stopExecution();
+	    m_Next = end;
+	  }
+	}
+	return (m_Next != end);
+      }
+      @Override
+      public String next() {
+	String	result;
+	if (!hasNext())
+	  throw new NoSuchElementException();
+	result = (String) m_Next;
+	m_Next = null;
+	m_Count++;
+	return result;
+      }
+    };
+  }
+
+  /**
+   * Returns whether an incremental traversal is still running.
+   *
+   * @return		true if still running
+   * @see		#iterate()
+   */
+  public boolean isIterating() {
+    return (m_IterateThread != null) && m_IterateThread.isAlive();
+  }
+
+  /**
+   * A string representation of the object.
+   *
+   * @return		the string representation
+   */
+  @Override
+  public String toString() {
+    String	result;
+
+    result  = super.toString() + ", ";
+    result += "NumThreads=" + m_NumThreads + ", ";
+    result += "CacheDirectories=" + m_CacheDirectories;
+
+    return result;
+  }
+}
@@ -15,7 +15,7 @@
 
 /**
  * SortContainer.java
- * Copyright (C) 2016 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2016-2026 University of Waikato, Hamilton, NZ
  */
 
 package adams.core.io.lister;
@@ -58,6 +58,29 @@ public class SortContainer
       throw new IllegalArgumentException("Unhandled sorting: " + sorting);
   }
 
+  /**
+   * Initializes the sort container, using the supplied timestamp rather than
+   * querying the file object for it.
+   *
+   * @param file	the file object to sort
+   * @param sorting	the type of sorting to perform
+   * @param lastModified	the "last modified" timestamp of the file
+   */
+  public SortContainer(FileObject file, Sorting sorting, long lastModified) {
+    super();
+
+    m_File = file;
+
+    if (sorting == Sorting.NO_SORTING)
+      m_Sort = null;
+    else if (sorting == Sorting.SORT_BY_NAME)
+      m_Sort = file.getActualFile().getAbsolutePath();
+    else if (sorting == Sorting.SORT_BY_LAST_MODIFIED)
+      m_Sort = lastModified;
+    else
+      throw new IllegalArgumentException("Unhandled sorting: " + sorting);
+  }
+
   /**
    * Returns the stored file.
    *
@@ -1031,7 +1031,7 @@ public class OptionManager
       }
       public void handleArgumentOption(AbstractArgumentOption option, OptionTraversalPath path) {
 	if (option.isVariableAttached())
-	  getVariables().addVariableChangeListener(option);
+	  getVariables().addVariableChangeListener(option.getVariableName(), option);
       }
       public boolean canHandle(AbstractOption option) {
 	return true;
@@ -15,7 +15,7 @@
 
 /*
  * BufferedImageHelper.java
- * Copyright (C) 2011-2020 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2011-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.data.image;
 
@@ -28,6 +28,7 @@ import adams.data.report.Report;
 import adams.data.xml.DOMUtils;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
 import javax.imageio.ImageReader;
 import javax.imageio.ImageWriter;
 import javax.imageio.metadata.IIOMetadata;
@@ -36,6 +37,7 @@ import javax.swing.JComponent;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.WritableRaster;
@@ -443,18 +445,71 @@ public class BufferedImageHelper {
    * @return		the image container, null if failed to read
    */
   public static BufferedImageContainer read(File file, boolean addMetaData) {
+    return read(file, addMetaData, 1, null);
+  }
+
+  /**
+   * Reads an image, also fills in meta-data. The subsampling and the region
+   * get applied by the image reader while decoding, i.e., the full resolution
+   * raster never gets created.
+   *
+   * @param file	the file to read
+   * @param addMetaData whether to add the meta-data
+   * @param subsampling	the subsampling factor to apply to both axes (eg 4 for 1/4 scale), 1 for no subsampling
+   * @param region	the region of the image to decode, null for the full image; gets clipped to the image bounds
+   * @return		the image container, null if failed to read
+   * @see		ImageReadParam#setSourceSubsampling(int, int, int, int)
+   * @see		ImageReadParam#setSourceRegion(Rectangle)
+   */
+  public static BufferedImageContainer read(File file, boolean addMetaData, int subsampling, Rectangle region) {
+    if (subsampling < 1)
+      throw new IllegalArgumentException("Subsampling factor must be at least 1, provided: " + subsampling);
+    return read(file, addMetaData, subsampling, region, -1, -1);
+  }
+
+  /**
+   * Reads a reduced version of the image, e.g., for previews. The largest
+   * subsampling factor is used that still results in an image at least as
+   * large as the specified dimensions, without ever decoding the full
+   * resolution raster. No meta-data is read.
+   *
+   * @param file	the file to read
+   * @param minWidth	the minimum width of the decoded image, ignored if less than 1
+   * @param minHeight	the minimum height of the decoded image, ignored if less than 1
+   * @return		the image container, null if failed to read
+   */
+  public static BufferedImageContainer readThumbnail(File file, int minWidth, int minHeight) {
+    return read(file, false, 1, null, minWidth, minHeight);
+  }
+
+  /**
+   * Reads an image, also fills in meta-data. The subsampling and the region
+   * get applied by the image reader while decoding.
+   *
+   * @param file	the file to read
+   * @param addMetaData whether to add the meta-data
+   * @param subsampling	the subsampling factor to apply to both axes, 1 for no subsampling
+   * @param region	the region of the image to decode, null for the full image; gets clipped to the image bounds
+   * @param minWidth	the minimum width of the decoded image for determining the subsampling factor automatically, ignored if less than 1
+   * @param minHeight	the minimum height of the decoded image for determining the subsampling factor automatically, ignored if less than 1
+   * @return		the image container, null if failed to read
+   */
+  protected static BufferedImageContainer read(File file, boolean addMetaData, int subsampling, Rectangle region, int minWidth, int minHeight) {
     BufferedImageContainer	result;
     FileInputStream		fis;
     ImageInputStream 		iis;
     Iterator 			it;
     ImageReader 		reader;
+    ImageReadParam		param;
     IIOMetadata 		meta;
     BufferedImage 		image;
     String[]			formats;
     Properties			props;
+    Rectangle			bounds;
 
-    iis = null;
-    fis = null;
+    iis    = null;
+    fis    = null;
+    reader = null;
     try {
       result = new BufferedImageContainer();
       fis    = new FileInputStream(file.getAbsoluteFile());
@@ -477,10 +532,35 @@ public class BufferedImageHelper {
 	result.setReport(Report.parseProperties(props));
       }
 
+      // automatic subsampling
+      if ((minWidth > 0) || (minHeight > 0)) {
+	subsampling = Integer.MAX_VALUE;
+	if (minWidth > 0)
+	  subsampling = Math.min(subsampling, reader.getWidth(0) / minWidth);
+	if (minHeight > 0)
+	  subsampling = Math.min(subsampling, reader.getHeight(0) / minHeight);
+	subsampling = Math.max(1, subsampling);
+      }
+
       // image
-      image = reader.read(0);
+      if ((subsampling == 1) && (region == null)) {
+	image = reader.read(0);
+      }
+      else {
+	param = reader.getDefaultReadParam();
+	if (region != null) {
+	  bounds = region.intersection(new Rectangle(0, 0, reader.getWidth(0), reader.getHeight(0)));
+	  if (bounds.isEmpty()) {
+	    System.err.println("Region " + region + " lies outside image (" + reader.getWidth(0) + "x" + reader.getHeight(0) + "): " + file);
+	    return null;
+	  }
+	  param.setSourceRegion(bounds);
+	}
+	if (subsampling > 1)
+	  param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+	image = reader.read(0, param);
+      }
       result.setImage(image);
-      reader = null;
 
       return result;
     }
@@ -490,6 +570,8 @@ public class BufferedImageHelper {
       return null;
     }
     finally {
+      if (reader != null)
+	reader.dispose();
       if (iis != null) {
 	try {
 	  iis.close();
@@ -23,6 +23,7 @@ import adams.core.Constants;
 import adams.core.DateFormat;
 import adams.core.DateTime;
 import adams.core.DateTimeMsec;
+import adams.core.Performance;
 import adams.core.Range;
 import adams.core.Time;
 import adams.core.TimeMsec;
@@ -48,20 +49,27 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Serializable;
+import java.io.StringReader;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 
 /**
  <!-- globalinfo-start -->
  * Reads CSV files.<br>
  * It is possible to force columns to be text. In that case no intelligent parsing is attempted to determine the type of data a cell has.<br>
- * For very large files, one can turn on chunking, which returns spreadsheet objects till all the data has been read.
+ * For very large files, one can turn on chunking, which returns spreadsheet objects till all the data has been read.<br>
+ * Alternatively, large files can be parsed using multiple threads, with blocks of records getting parsed in parallel.
  * <br><br>
  <!-- globalinfo-end -->
  *
@@ -264,6 +272,22 @@ import java.util.logging.Level;
  * &nbsp;&nbsp;&nbsp;default: false
  * </pre>
  * 
+ * <pre>-num-threads &lt;int&gt; (property: numThreads)
+ * &nbsp;&nbsp;&nbsp;The number of threads to use for parsing the data; not available when reading 
+ * &nbsp;&nbsp;&nbsp;in chunks; The number of threads to use for parallel execution; &gt; 0: specific 
+ * &nbsp;&nbsp;&nbsp;number of cores to use (capped by actual number of cores available, 1 = sequential 
+ * &nbsp;&nbsp;&nbsp;execution); = 0: number of cores; &lt; 0: number of free cores (eg -2 means 
+ * &nbsp;&nbsp;&nbsp;2 free cores; minimum of one core is used)
+ * &nbsp;&nbsp;&nbsp;default: 1
+ * </pre>
+ * 
+ * <pre>-block-size &lt;int&gt; (property: blockSize)
+ * &nbsp;&nbsp;&nbsp;The number of characters to read per block when parsing in parallel; blocks 
+ * &nbsp;&nbsp;&nbsp;get cut at record boundaries once they are at least half full.
+ * &nbsp;&nbsp;&nbsp;default: 4194304
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ * 
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
@@ -294,6 +318,168 @@ public class CsvSpreadSheetReader
     /** the replacement for doubled up quotes. */
     public final static char[] COLLAPSED_QUOTES = new char[]{'"'};
 
+    /** the default number of characters to read per block when parsing in parallel. */
+    public final static int DEFAULT_BLOCK_SIZE = 4 * 1024 * 1024;
+
+    /** the marker for cells that are present, but missing. */
+    protected final static Object MISSING_CELL = ContentType.MISSING;
+
+    /**
+     * Content that needs to be set as string (or formula) rather than as
+     * native object.
+     */
+    protected static class CellContent {
+
+      /** the value. */
+      protected String m_Value;
+
+      /** whether the value is a formula. */
+      protected boolean m_Formula;
+
+      /**
+       * Initializes the content.
+       *
+       * @param value	the value
+       * @param formula	whether the value is a formula
+       */
+      public CellContent(String value, boolean formula) {
+        m_Value   = value;
+        m_Formula = formula;
+      }
+
+      /**
+       * Sets the content of the cell.
+       *
+       * @param cell	the cell to update
+       */
+      public void apply(Cell cell) {
+        if (m_Formula)
+          cell.setContent(m_Value);
+        else
+          cell.setContentAsString(m_Value);
+      }
+    }
+
+    /**
+     * Locates the record boundaries in the data, using the same quoting
+     * rules as {@link ChunkReader#readCells(Reader)}.
+     */
+    protected static class RecordScanner {
+
+      /** the column separator. */
+      protected char m_Separator;
+
+      /** the quote character. */
+      protected char m_QuoteChar;
+
+      /** whether inside quotes. */
+      protected boolean m_Escaped;
+
+      /** whether the current cell is quoted. */
+      protected boolean m_Quoted;
+
+      /** the length of the current cell. */
+      protected int m_CellLength;
+
+      /** whether a CR has been encountered. */
+      protected boolean m_MaybeNewLine;
+
+      /** the last record boundary. */
+      protected int m_Boundary;
+
+      /**
+       * Initializes the scanner.
+       *
+       * @param separator	the column separator
+       * @param quoteChar	the quote character
+       */
+      public RecordScanner(char separator, char quoteChar) {
+        m_Separator = separator;
+        m_QuoteChar = quoteChar;
+        m_Boundary  = -1;
+        startRecord();
+      }
+
+      /**
+       * Resets the state for a new record.
+       */
+      protected void startRecord() {
+        m_Escaped      = false;
+        m_Quoted       = false;
+        m_CellLength   = 0;
+        m_MaybeNewLine = false;
+      }
+
+      /**
+       * Forgets the last record boundary, e.g., after the data up to the
+       * boundary has been removed from the buffer.
+       */
+      public void resetBoundary() {
+        m_Boundary = -1;
+      }
+
+      /**
+       * Scans the data, continuing with the state of the previous scan.
+       *
+       * @param data	the data to scan
+       * @param from	the position to start scanning from
+       * @return		the position where the last complete record ends
+       * 			(ie the start of the next record), -1 if none
+       */
+      public int scan(CharSequence data, int from) {
+        int	i;
+        char	chr;
+
+        for (i = from; i < data.length(); i++) {
+          chr = data.charAt(i);
+          // a CR that is not followed by a LF ends the record as well
+          if (m_MaybeNewLine && (chr != '\r') && (chr != '\n')) {
+            m_Boundary = i;
+            startRecord();
+          }
+          if (chr == m_Separator) {
+            if (m_Escaped) {
+              m_CellLength++;
+            }
+            else {
+              m_CellLength = 0;
+              m_Quoted     = false;
+            }
+          }
+          else if (chr == m_QuoteChar) {
+            if (m_Quoted) {
+              m_Escaped = !m_Escaped;
+            }
+            else if (m_CellLength == 0) {
+              m_Escaped = true;
+              m_Quoted  = true;
+            }
+            m_CellLength++;
+          }
+          else if (chr == '\r') {
+            if (m_Escaped)
+              m_CellLength++;
+            else
+              m_MaybeNewLine = true;
+          }
+          else if (chr == '\n') {
+            if (m_Escaped) {
+              m_CellLength++;
+            }
+            else {
+              m_Boundary = i + 1;
+              startRecord();
+            }
+          }
+          else {
+            m_CellLength++;
+          }
+        }
+
+        return m_Boundary;
+      }
+    }
+
     /** the owning reader. */
     protected CsvSpreadSheetReader m_Owner;
 
@@ -402,6 +588,12 @@ public class CsvSpreadSheetReader
     /** the automatically determined column types. */
     protected ContentType[] m_AutoTypes;
 
+    /** the number of threads to use for parsing. */
+    protected int m_NumThreads;
+
+    /** the number of characters to read per block when parsing in parallel. */
+    protected int m_BlockSize;
+
     /**
      * Initializes the low-level reader.
      *
@@ -497,11 +689,16 @@ public class CsvSpreadSheetReader
           in = reader.read();
           if (in == -1)
             break;
-          firstChr = false;
-          chr      = (char) in;
+          chr = (char) in;
         }
+        firstChr = false;
 
-        if (chr == m_Separator) {
+        // a CR that is not followed by a LF ends the line as well
+        if (maybeNewLine && (chr != '\r') && (chr != '\n')) {
+          m_LastChar   = chr;  // keep char for next read
+          lineFinished = true;
+        }
+        else if (chr == m_Separator) {
           if (escaped) {
             current.append(chr);
           }
@@ -540,14 +737,7 @@ public class CsvSpreadSheetReader
           }
         }
         else {
-          if (maybeNewLine) {
-            m_LastChar   = chr;  // keep char for next read
-            lineFinished = true;
-            escapeChr    = '\0';
-          }
-          else {
-            current.append(chr);
-          }
+          current.append(chr);
         }
       }
       while (!lineFinished);
@@ -561,6 +751,67 @@ public class CsvSpreadSheetReader
       return result;
     }
 
+    /**
+     * Sets the content of the cell, using the determined column types and
+     * the configured date/time columns.
+     *
+     * @param cell	the cell to update
+     * @param i		the column index
+     * @param value	the string value to set
+     */
+    protected void setCell(Cell cell, int i, String value) {
+      Object		autoObj;
+      boolean		autoSuccess;
+
+      autoSuccess = false;
+      if ((m_AutoTypes != null) && (m_AutoTypes[i] != null)) {
+        autoObj = cell.parseContent(value, m_AutoTypes[i]);
+        if (!autoObj.equals(SpreadSheet.MISSING_VALUE)) {
+          cell.setNative(autoObj);
+          autoSuccess = true;
+        }
+      }
+      if (!autoSuccess) {
+        if (m_HasTextCols && m_TextCols.contains(i))
+          cell.setContentAsString(value);
+        else if (m_HasDateTimeMsecCols && m_DateTimeMsecCols.contains(i) && m_DateTimeMsecFormat.check(value))
+          cell.setContent(new DateTimeMsec(m_DateTimeMsecFormat.parse(value)));
+        else if (m_HasDateTimeCols && m_DateTimeCols.contains(i) && m_DateTimeFormat.check(value))
+          cell.setContent(new DateTime(m_DateTimeFormat.parse(value)));
+        else if (m_HasDateCols && m_DateCols.contains(i) && m_DateFormat.check(value))
+          cell.setContent(m_DateFormat.parse(value));
+        else if (m_HasTimeCols && m_TimeCols.contains(i) && m_TimeFormat.check(value))
+          cell.setContent(new Time(m_TimeFormat.parse(value)));
+        else if (m_HasTimeMsecCols && m_TimeMsecCols.contains(i) && m_TimeMsecFormat.check(value))
+          cell.setContent(new TimeMsec(m_TimeMsecFormat.parse(value)));
+        else if (!m_ParseFormulas && value.startsWith("="))
+          cell.setContentAsString(value);
+        else
+          cell.setContent(value);
+      }
+    }
+
+    /**
+     * Creates a new, empty spreadsheet as configured by the owner.
+     *
+     * @return		the spreadsheet
+     */
+    protected SpreadSheet newSpreadSheet() {
+      SpreadSheet	result;
+
+      result = m_Owner.getSpreadSheetType().newInstance();
+      result.setDateLenient(m_Owner.isDateLenient());
+      result.setDateTimeLenient(m_Owner.isDateTimeLenient());
+      result.setDateTimeMsecLenient(m_Owner.isDateTimeMsecLenient());
+      result.setTimeLenient(m_Owner.isTimeLenient());
+      result.setTimeMsecLenient(m_Owner.isTimeMsecLenient());
+      result.setTimeZone(m_Owner.getTimeZone());
+      result.setLocale(m_Owner.getLocale());
+      result.setDataRowClass(m_Owner.getDataRowType().getClass());
+
+      return result;
+    }
+
     /**
      * Reads the next chunk.
      *
@@ -576,24 +827,12 @@ public class CsvSpreadSheetReader
       int			i;
       boolean			canAdd;
       HashSet<ContentType>	types;
-      Object			autoObj;
-      boolean			autoSuccess;
       int			skipped;
 
-      if (m_Header == null) {
-        result = m_Owner.getSpreadSheetType().newInstance();
-        result.setDateLenient(m_Owner.isDateLenient());
-        result.setDateTimeLenient(m_Owner.isDateTimeLenient());
-        result.setDateTimeMsecLenient(m_Owner.isDateTimeMsecLenient());
-        result.setTimeLenient(m_Owner.isTimeLenient());
-        result.setTimeMsecLenient(m_Owner.isTimeMsecLenient());
-        result.setTimeZone(m_Owner.getTimeZone());
-        result.setLocale(m_Owner.getLocale());
-        result.setDataRowClass(m_Owner.getDataRowType().getClass());
-      }
-      else {
+      if (m_Header == null)
+        result = newSpreadSheet();
+      else
         result = m_Header.getHeader();
-      }
 
       try {
         comments = (m_Header == null);
@@ -690,34 +929,8 @@ public class CsvSpreadSheetReader
                 }
                 else {
                   cell = row.addCell("" + i);
-                  if (cell != null) {
-                    autoSuccess = false;
-                    if ((m_AutoTypes != null) && (m_AutoTypes[i] != null)) {
-                      autoObj = cell.parseContent(cells.get(i), m_AutoTypes[i]);
-                      if (!autoObj.equals(SpreadSheet.MISSING_VALUE)) {
-                        cell.setNative(autoObj);
-                        autoSuccess = true;
-                      }
-                    }
-                    if (!autoSuccess) {
-                      if (m_HasTextCols && m_TextCols.contains(i))
-                        cell.setContentAsString(cells.get(i));
-                      else if (m_HasDateTimeMsecCols && m_DateTimeMsecCols.contains(i) && m_DateTimeMsecFormat.check(cells.get(i)))
-                        cell.setContent(new DateTimeMsec(m_DateTimeMsecFormat.parse(cells.get(i))));
-                      else if (m_HasDateTimeCols && m_DateTimeCols.contains(i) && m_DateTimeFormat.check(cells.get(i)))
-                        cell.setContent(new DateTime(m_DateTimeFormat.parse(cells.get(i))));
-                      else if (m_HasDateCols && m_DateCols.contains(i) && m_DateFormat.check(cells.get(i)))
-                        cell.setContent(m_DateFormat.parse(cells.get(i)));
-                      else if (m_HasTimeCols && m_TimeCols.contains(i) && m_TimeFormat.check(cells.get(i)))
-                        cell.setContent(new Time(m_TimeFormat.parse(cells.get(i))));
-                      else if (m_HasTimeMsecCols && m_TimeMsecCols.contains(i) && m_TimeMsecFormat.check(cells.get(i)))
-                        cell.setContent(new TimeMsec(m_TimeMsecFormat.parse(cells.get(i))));
-                      else if (!m_ParseFormulas && cells.get(i).startsWith("="))
-                        cell.setContentAsString(cells.get(i));
-                      else
-                        cell.setContent(cells.get(i));
-                    }
-                  }
+                  if (cell != null)
+                    setCell(cell, i, cells.get(i));
                 }
               }
             }
@@ -795,6 +1008,18 @@ public class CsvSpreadSheetReader
       else
         m_Reader = new BufferedReader(r);
 
+      configure();
+
+      if ((m_ChunkSize <= 0) && (m_NumThreads > 1))
+        return readParallel();
+      else
+        return next();
+    }
+
+    /**
+     * Initializes the parsing setup from the owner.
+     */
+    protected void configure() {
       m_Header              = null;
       m_HeaderCells         = null;
       m_ChunkSize           = m_Owner.getChunkSize();
@@ -840,8 +1065,231 @@ public class CsvSpreadSheetReader
       m_TimeMsecFormat.setLenient(m_Owner.isTimeMsecLenient());
       m_TimeMsecFormat.setTimeZone(m_Owner.getTimeZone());
       m_NumberFormat = LocaleHelper.getSingleton().getNumberFormat(m_Owner.getLocale());
+      m_NumThreads   = Performance.determineNumThreads(m_Owner.getNumThreads());
+      m_BlockSize    = m_Owner.getBlockSize();
+    }
+
+    /**
+     * Creates a new reader for parsing blocks of records in parallel, using
+     * the current parsing setup and header information.
+     *
+     * @return		the worker
+     */
+    protected ChunkReader newWorker() {
+      ChunkReader	result;
+
+      result = new ChunkReader(m_Owner);
+      result.configure();
+      result.m_HeaderCells         = m_HeaderCells;
+      result.m_HasTextCols         = m_HasTextCols;
+      result.m_TextCols            = m_TextCols;
+      result.m_HasDateTimeCols     = m_HasDateTimeCols;
+      result.m_DateTimeCols        = m_DateTimeCols;
+      result.m_HasDateTimeMsecCols = m_HasDateTimeMsecCols;
+      result.m_DateTimeMsecCols    = m_DateTimeMsecCols;
+      result.m_HasDateCols         = m_HasDateCols;
+      result.m_DateCols            = m_DateCols;
+      result.m_HasTimeCols         = m_HasTimeCols;
+      result.m_TimeCols            = m_TimeCols;
+      result.m_HasTimeMsecCols     = m_HasTimeMsecCols;
+      result.m_TimeMsecCols        = m_TimeMsecCols;
+      result.m_AutoTypes           = m_AutoTypes;
+
+      return result;
+    }
+
+    /**
+     * Creates the task for parsing the block of records in parallel.
+     *
+     * @param block	the block of complete records
+     * @return		the task
+     * @see		#parseBlock(String, SpreadSheet)
+     */
+    protected Callable<List<Object[]>> newTask(final String block) {
+      final ChunkReader	worker;
+      final SpreadSheet	scratch;
+
+      worker  = newWorker();
+      scratch = m_Header.getHeader();
 
-      return next();
+      return () -> worker.parseBlock(block, scratch);
+    }
+
+    /**
+     * Parses the records of a block. The cell values get converted using a
+     * scratch row of the provided spreadsheet, generating the content that
+     * can be transferred into the final spreadsheet cheaply.
+     *
+     * @param block	the block of complete records
+     * @param scratch	the spreadsheet (with header) to use for the conversion
+     * @return		the converted records, null for records that only count
+     * 			towards the row window (rows with differing number of cells)
+     * @throws IOException	if reading fails
+     * @see		#applyContent(Cell, Object)
+     */
+    protected List<Object[]> parseBlock(String block, SpreadSheet scratch) throws IOException {
+      List<Object[]>	result;
+      StringReader	reader;
+      List<String>	cells;
+      Row		row;
+      Cell		cell;
+      Object[]		values;
+      String		value;
+      int		i;
+
+      result = new ArrayList<>();
+      reader = new StringReader(block);
+      row    = scratch.addRow();
+      while (!m_Owner.isStopped() && ((cells = readCells(reader)) != null)) {
+        if ((cells.size() == 1) && (cells.get(0).trim().length() == 0))
+          continue;
+        if (m_SkipDifferingRows && (m_HeaderCells.size() != cells.size())) {
+          result.add(null);
+          continue;
+        }
+        values = new Object[Math.min(m_HeaderCells.size(), cells.size())];
+        for (i = 0; i < values.length; i++) {
+          value = cells.get(i);
+          if (m_MissingValue.isMatch(value) || (value.isEmpty() && m_MissingValue.isEmpty()))
+            continue;
+          cell = row.addCell("" + i);
+          if (cell == null)
+            continue;
+          cell.setMissing();
+          setCell(cell, i, value);
+          if (cell.isFormula())
+            values[i] = new CellContent(value, true);
+          else if (cell.getContentType() == ContentType.STRING)
+            values[i] = new CellContent(value, false);
+          else if (cell.isMissing())
+            values[i] = MISSING_CELL;
+          else
+            values[i] = cell.getNative();
+        }
+        result.add(values);
+      }
+
+      return result;
+    }
+
+    /**
+     * Sets the content that was determined by {@link #parseBlock(String, SpreadSheet)}.
+     *
+     * @param cell	the cell to update
+     * @param value	the content
+     */
+    protected void applyContent(Cell cell, Object value) {
+      if (value == MISSING_CELL)
+        cell.setMissing();
+      else if (value instanceof CellContent)
+        ((CellContent) value).apply(cell);
+      else
+        cell.setNative(value);
+    }
+
+    /**
+     * Reads the data in parallel. The header, the initial rows for
+     * determining the column types and the rows preceding the row window
+     * get read sequentially. The remainder is read in blocks of complete
+     * records, which get parsed in parallel and added in order.
+     *
+     * @return		the spreadsheet, null in case of an error
+     */
+    protected SpreadSheet readParallel() {
+      SpreadSheet			result;
+      ForkJoinPool			pool;
+      Deque<Future<List<Object[]>>>	pending;
+      RecordScanner			scanner;
+      StringBuilder			buffer;
+      char[]				chars;
+      int				read;
+      int				boundary;
+      boolean				finished;
+      String				block;
+      Row				row;
+      Cell				cell;
+      int				i;
+
+      // header, comments, column type discovery
+      m_ChunkSize = Math.max(1, m_NumRowsAuto);
+      result      = next();
+      m_ChunkSize = m_Owner.getChunkSize();
+      if ((result == null) || !hasNext())
+        return result;
+
+      pool     = new ForkJoinPool(m_NumThreads);
+      pending  = new ArrayDeque<>();
+      scanner  = new RecordScanner(m_Separator, m_QuoteChar);
+      buffer   = new StringBuilder();
+      chars    = new char[m_BlockSize];
+      finished = false;
+      if (m_LastChar != '\0') {
+        buffer.append(m_LastChar);
+        scanner.scan(buffer, 0);
+        m_LastChar = '\0';
+      }
+
+      try {
+        while (!finished && !m_Owner.isStopped()) {
+          // submit blocks
+          while (!finished && (pending.size() < 2 * m_NumThreads)) {
+            read = m_Reader.read(chars);
+            if (read == -1) {
+              finished = true;
+              block    = buffer.toString();
+            }
+            else {
+              buffer.append(chars, 0, read);
+              boundary = scanner.scan(buffer, buffer.length() - read);
+              if ((boundary == -1) || (boundary < m_BlockSize / 2))
+                continue;
+              block = buffer.substring(0, boundary);
+              buffer.delete(0, boundary);
+              scanner.resetBoundary();
+            }
+            pending.add(pool.submit(newTask(block)));
+          }
+
+          // add parsed rows in order
+          while (!pending.isEmpty() && (finished || pending.peekFirst().isDone())) {
+            for (Object[] values: pending.removeFirst().get()) {
+              m_RowCount++;
+              if ((values != null) && (m_RowCount >= m_FirstRow)) {
+                row = result.addRow();
+                for (i = 0; i < values.length; i++) {
+                  if (values[i] == null)
+                    continue;
+                  cell = row.addCell("" + i);
+                  if (cell != null)
+                    applyContent(cell, values[i]);
+                }
+              }
+              // end of window reached?
+              if ((m_NumRows > -1) && (m_RowCount >= m_FirstRow + m_NumRows - 1)) {
+                finished = true;
+                pending.clear();
+                break;
+              }
+            }
+          }
+          if (finished && pending.isEmpty())
+            break;
+          // wait for oldest block
+          if (!finished && (pending.size() >= 2 * m_NumThreads))
+            pending.peekFirst().get();
+        }
+      }
+      catch (Exception e) {
+        result = null;
+        m_Owner.getLogger().log(Level.SEVERE, "Failed to read data!", e);
+        m_Owner.setLastError("Failed to read data!\n" + LoggingHelper.throwableToString(e));
+      }
+      finally {
+        pool.shutdownNow();
+        close();
+      }
+
+      return result;
     }
   }
 
@@ -938,6 +1386,12 @@ public class CsvSpreadSheetReader
   /** whether to drop rows with too few or too many cells. */
   protected boolean m_SkipDifferingRows;
 
+  /** the number of threads to use for parsing. */
+  protected int m_NumThreads;
+
+  /** the number of characters to read per block when parsing in parallel. */
+  protected int m_BlockSize;
+
   /** for reading the actual data. */
   protected ChunkReader m_Reader;
 
@@ -954,7 +1408,9 @@ public class CsvSpreadSheetReader
         + "intelligent parsing is attempted to determine the type of data a "
         + "cell has.\n"
         + "For very large files, one can turn on chunking, which returns "
-        + "spreadsheet objects till all the data has been read.";
+        + "spreadsheet objects till all the data has been read.\n"
+        + "Alternatively, large files can be parsed using multiple threads, "
+        + "with blocks of records getting parsed in parallel.";
   }
 
   /**
@@ -1091,6 +1547,14 @@ public class CsvSpreadSheetReader
     m_OptionManager.add(
       "skip-differing-rows", "skipDifferingRows",
       false);
+
+    m_OptionManager.add(
+      "num-threads", "numThreads",
+      1);
+
+    m_OptionManager.add(
+      "block-size", "blockSize",
+      ChunkReader.DEFAULT_BLOCK_SIZE, 1, null);
   }
 
   /**
@@ -2046,6 +2510,73 @@ public class CsvSpreadSheetReader
     return "If enabled, skips rows that have either too many or too few cells compared to the header row.";
   }
 
+  /**
+   * Sets the number of threads to use for parsing the data.
+   *
+   * @param value	the number of threads, 1 = sequential parsing
+   */
+  public void setNumThreads(int value) {
+    m_NumThreads = value;
+    reset();
+  }
+
+  /**
+   * Returns the number of threads to use for parsing the data.
+   *
+   * @return		the number of threads, 1 = sequential parsing
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  public String numThreadsTipText() {
+    return
+      "The number of threads to use for parsing the data; not available "
+	+ "when reading in chunks; " + Performance.getNumThreadsHelp();
+  }
+
+  /**
+   * Sets the number of characters to read per block when parsing in
+   * parallel. Blocks get cut at record boundaries once they are at least
+   * half full.
+   *
+   * @param value	the number of characters (at least 1)
+   */
+  public void setBlockSize(int value) {
+    if (getOptionManager().isValid("blockSize", value)) {
+      m_BlockSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the number of characters to read per block when parsing in
+   * parallel.
+   *
+   * @return		the number of characters
+   */
+  public int getBlockSize() {
+    return m_BlockSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  public String blockSizeTipText() {
+    return
+      "The number of characters to read per block when parsing in parallel; "
+	+ "blocks get cut at record boundaries once they are at least half full.";
+  }
+
   /**
    * Returns a string describing the format (used in the file chooser).
    *
@@ -15,7 +15,7 @@
 
 /**
  * JAIImageReader.java
- * Copyright (C) 2014-2016 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2014-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.data.io.input;
 
@@ -27,6 +27,7 @@ import adams.data.io.output.AbstractImageWriter;
 import adams.data.io.output.JAIImageWriter;
 
 import javax.imageio.ImageIO;
+import java.awt.Rectangle;
 
 /**
  <!-- globalinfo-start -->
@@ -45,6 +46,39 @@ import javax.imageio.ImageIO;
  * &nbsp;&nbsp;&nbsp;default: false
  * </pre>
  * 
+ * <pre>-subsampling &lt;int&gt; (property: subsampling)
+ * &nbsp;&nbsp;&nbsp;The subsampling factor to apply to both axes while decoding, e.g., 4 to 
+ * &nbsp;&nbsp;&nbsp;decode the image at 1&#47;4 scale; 1 decodes the image at full resolution.
+ * &nbsp;&nbsp;&nbsp;default: 1
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ * 
+ * <pre>-region-x &lt;int&gt; (property: regionX)
+ * &nbsp;&nbsp;&nbsp;The x position of the top-left corner of the region to decode (0-based
+ * &nbsp;&nbsp;&nbsp;).
+ * &nbsp;&nbsp;&nbsp;default: 0
+ * &nbsp;&nbsp;&nbsp;minimum: 0
+ * </pre>
+ * 
+ * <pre>-region-y &lt;int&gt; (property: regionY)
+ * &nbsp;&nbsp;&nbsp;The y position of the top-left corner of the region to decode (0-based
+ * &nbsp;&nbsp;&nbsp;).
+ * &nbsp;&nbsp;&nbsp;default: 0
+ * &nbsp;&nbsp;&nbsp;minimum: 0
+ * </pre>
+ * 
+ * <pre>-region-width &lt;int&gt; (property: regionWidth)
+ * &nbsp;&nbsp;&nbsp;The width of the region to decode; uses the remainder of the image width 
+ * &nbsp;&nbsp;&nbsp;if less than 1.
+ * &nbsp;&nbsp;&nbsp;default: 0
+ * </pre>
+ * 
+ * <pre>-region-height &lt;int&gt; (property: regionHeight)
+ * &nbsp;&nbsp;&nbsp;The height of the region to decode; uses the remainder of the image height 
+ * &nbsp;&nbsp;&nbsp;if less than 1.
+ * &nbsp;&nbsp;&nbsp;default: 0
+ * </pre>
+ * 
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
@@ -59,6 +93,21 @@ public class JAIImageReader
   /** whether to add the meta-data. */
   protected boolean m_AddMetaData;
 
+  /** the subsampling factor. */
+  protected int m_Subsampling;
+
+  /** the x of the region to decode. */
+  protected int m_RegionX;
+
+  /** the y of the region to decode. */
+  protected int m_RegionY;
+
+  /** the width of the region to decode. */
+  protected int m_RegionWidth;
+
+  /** the height of the region to decode. */
+  protected int m_RegionHeight;
+
   /** the format extensions. */
   protected String[] m_FormatExtensions;
   
@@ -82,6 +131,26 @@ public class JAIImageReader
     m_OptionManager.add(
       "add-meta-data", "addMetaData",
       false);
+
+    m_OptionManager.add(
+      "subsampling", "subsampling",
+      1, 1, null);
+
+    m_OptionManager.add(
+      "region-x", "regionX",
+      0, 0, null);
+
+    m_OptionManager.add(
+      "region-y", "regionY",
+      0, 0, null);
+
+    m_OptionManager.add(
+      "region-width", "regionWidth",
+      0);
+
+    m_OptionManager.add(
+      "region-height", "regionHeight",
+      0);
   }
 
   /**
@@ -123,6 +192,172 @@ public class JAIImageReader
     return "If enabled, any available meta-data gets added the image report.";
   }
 
+  /**
+   * Sets the subsampling factor to apply while decoding.
+   *
+   * @param value	the factor, 1 for full resolution
+   */
+  public void setSubsampling(int value) {
+    if (getOptionManager().isValid("subsampling", value)) {
+      m_Subsampling = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the subsampling factor to apply while decoding.
+   *
+   * @return		the factor, 1 for full resolution
+   */
+  public int getSubsampling() {
+    return m_Subsampling;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String subsamplingTipText() {
+    return "The subsampling factor to apply to both axes while decoding, e.g., 4 to decode the image at 1/4 scale; 1 decodes the image at full resolution.";
+  }
+
+  /**
+   * Sets the x position of the region to decode (0-based).
+   *
+   * @param value	the position
+   */
+  public void setRegionX(int value) {
+    if (getOptionManager().isValid("regionX", value)) {
+      m_RegionX = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the x position of the region to decode (0-based).
+   *
+   * @return		the position
+   */
+  public int getRegionX() {
+    return m_RegionX;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String regionXTipText() {
+    return "The x position of the top-left corner of the region to decode (0-based).";
+  }
+
+  /**
+   * Sets the y position of the region to decode (0-based).
+   *
+   * @param value	the position
+   */
+  public void setRegionY(int value) {
+    if (getOptionManager().isValid("regionY", value)) {
+      m_RegionY = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the y position of the region to decode (0-based).
+   *
+   * @return		the position
+   */
+  public int getRegionY() {
+    return m_RegionY;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String regionYTipText() {
+    return "The y position of the top-left corner of the region to decode (0-based).";
+  }
+
+  /**
+   * Sets the width of the region to decode.
+   *
+   * @param value	the width, less than 1 for remainder of image width
+   */
+  public void setRegionWidth(int value) {
+    m_RegionWidth = value;
+    reset();
+  }
+
+  /**
+   * Returns the width of the region to decode.
+   *
+   * @return		the width, less than 1 for remainder of image width
+   */
+  public int getRegionWidth() {
+    return m_RegionWidth;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String regionWidthTipText() {
+    return "The width of the region to decode; uses the remainder of the image width if less than 1.";
+  }
+
+  /**
+   * Sets the height of the region to decode.
+   *
+   * @param value	the height, less than 1 for remainder of image height
+   */
+  public void setRegionHeight(int value) {
+    m_RegionHeight = value;
+    reset();
+  }
+
+  /**
+   * Returns the height of the region to decode.
+   *
+   * @return		the height, less than 1 for remainder of image height
+   */
+  public int getRegionHeight() {
+    return m_RegionHeight;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String regionHeightTipText() {
+    return "The height of the region to decode; uses the remainder of the image height if less than 1.";
+  }
+
+  /**
+   * Returns the region to decode.
+   *
+   * @return		the region, null if the full image is to be decoded
+   */
+  protected Rectangle getRegion() {
+    if ((m_RegionX == 0) && (m_RegionY == 0) && (m_RegionWidth < 1) && (m_RegionHeight < 1))
+      return null;
+    return new Rectangle(
+      m_RegionX,
+      m_RegionY,
+      (m_RegionWidth < 1)  ? Integer.MAX_VALUE - m_RegionX : m_RegionWidth,
+      (m_RegionHeight < 1) ? Integer.MAX_VALUE - m_RegionY : m_RegionHeight);
+  }
+
   /**
    * Returns a string describing the format (used in the file chooser).
    *
@@ -172,6 +407,6 @@ public class JAIImageReader
    */
   @Override
   protected BufferedImageContainer doRead(PlaceholderFile file) {
-    return BufferedImageHelper.read(file, m_AddMetaData);
+    return BufferedImageHelper.read(file, m_AddMetaData, m_Subsampling, getRegion());
   }
 }
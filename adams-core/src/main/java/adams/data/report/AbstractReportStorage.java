@@ -0,0 +1,166 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * AbstractReportStorage.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.report;
+
+import adams.core.CloneHandler;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Hashtable;
+import java.util.Map;
+
+/**
+ * Ancestor for classes that store the values of a {@link Report}.
+ * Like {@link Hashtable}, storages do not accept null values and, when
+ * putting a value for a field that is already present, the originally
+ * stored field is kept.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public abstract class AbstractReportStorage
+  implements Serializable, CloneHandler<AbstractReportStorage> {
+
+  private static final long serialVersionUID = 5313960581093719478L;
+
+  /**
+   * Returns the number of stored values.
+   *
+   * @return		the number of values
+   */
+  public abstract int size();
+
+  /**
+   * Returns whether no values are stored.
+   *
+   * @return		true if empty
+   */
+  public boolean isEmpty() {
+    return (size() == 0);
+  }
+
+  /**
+   * Returns whether a value is stored for the field.
+   *
+   * @param key		the field to look for
+   * @return		true if present
+   */
+  public abstract boolean containsKey(AbstractField key);
+
+  /**
+   * Returns the value for the field.
+   *
+   * @param key		the field to get the value for
+   * @return		the value, null if not present
+   */
+  public abstract Object get(AbstractField key);
+
+  /**
+   * Stores the value for the field.
+   *
+   * @param key		the field
+   * @param value	the value, not null
+   * @return		the previous value, null if none
+   */
+  public abstract Object put(AbstractField key, Object value);
+
+  /**
+   * Stores all the values.
+   *
+   * @param values	the values to store
+   */
+  public void putAll(Map<AbstractField,Object> values) {
+    for (AbstractField key: values.keySet())
+      put(key, values.get(key));
+  }
+
+  /**
+   * Removes the value for the field.
+   *
+   * @param key		the field to remove
+   * @return		the previous value, null if none
+   */
+  public abstract Object remove(AbstractField key);
+
+  /**
+   * Removes all values.
+   */
+  public abstract void clear();
+
+  /**
+   * Returns the fields that have values.
+   *
+   * @return		the fields
+   */
+  public abstract Collection<AbstractField> keys();
+
+  /**
+   * Returns the values as hashtable.
+   *
+   * @return		the values
+   */
+  public abstract Hashtable<AbstractField,Object> toHashtable();
+
+  /**
+   * Checks whether the other storage contains the same values, regardless
+   * of the type of storage.
+   *
+   * @param obj		the object to compare with
+   * @return		true if the same values
+   */
+  @Override
+  public boolean equals(Object obj) {
+    AbstractReportStorage	other;
+    Object			value;
+
+    if (obj == this)
+      return true;
+    if (!(obj instanceof AbstractReportStorage))
+      return false;
+
+    other = (AbstractReportStorage) obj;
+    if (other.size() != size())
+      return false;
+
+    for (AbstractField key: keys()) {
+      value = other.get(key);
+      if ((value == null) || !value.equals(get(key)))
+	return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns the hashcode, computed the same way as {@link Map#hashCode()}.
+   *
+   * @return		the hashcode
+   */
+  @Override
+  public int hashCode() {
+    int		result;
+
+    result = 0;
+    for (AbstractField key: keys())
+      result += key.hashCode() ^ get(key).hashCode();
+
+    return result;
+  }
+}
@@ -0,0 +1,413 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * CompactReportStorage.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.report;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Hashtable;
+import java.util.List;
+
+/**
+ * Memory-efficient storage for report values. Fields get interned via the
+ * {@link ReportFieldDictionary} and the values are kept in parallel arrays,
+ * sorted by the ID of the field name: numeric and boolean values are stored
+ * as primitive doubles, only other values (e.g., strings) are stored as
+ * objects. Access is not synchronized.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CompactReportStorage
+  extends AbstractReportStorage {
+
+  private static final long serialVersionUID = -6350213452806946834L;
+
+  /** slot contains a double. */
+  public final static byte TYPE_DOUBLE = 1;
+
+  /** slot contains a boolean. */
+  public final static byte TYPE_BOOLEAN = 2;
+
+  /** slot contains an object. */
+  public final static byte TYPE_OBJECT = 3;
+
+  /** the dictionary in use. */
+  protected static final ReportFieldDictionary DICTIONARY = ReportFieldDictionary.getSingleton();
+
+  /** the IDs of the field names (sorted), get re-generated after deserialization. */
+  protected transient int[] m_IDs;
+
+  /** the interned fields. */
+  protected AbstractField[] m_Keys;
+
+  /** the type of value per slot. */
+  protected byte[] m_Types;
+
+  /** the numeric/boolean values. */
+  protected double[] m_Doubles;
+
+  /** the other values, allocated on demand. */
+  protected Object[] m_Objects;
+
+  /** the number of values. */
+  protected int m_Size;
+
+  /**
+   * Initializes an empty storage.
+   */
+  public CompactReportStorage() {
+    this(0);
+  }
+
+  /**
+   * Initializes an empty storage.
+   *
+   * @param capacity	the initial capacity
+   */
+  public CompactReportStorage(int capacity) {
+    m_IDs     = new int[capacity];
+    m_Keys    = new AbstractField[capacity];
+    m_Types   = new byte[capacity];
+    m_Doubles = new double[capacity];
+    m_Objects = null;
+    m_Size    = 0;
+  }
+
+  /**
+   * Returns the slot for the field.
+   *
+   * @param key		the field to look for
+   * @return		the slot, negative if not present
+   */
+  protected int indexOf(AbstractField key) {
+    int		id;
+
+    id = DICTIONARY.lookup(key.getName());
+    if (id == -1)
+      return -1;
+
+    return Arrays.binarySearch(m_IDs, 0, m_Size, id);
+  }
+
+  /**
+   * Ensures that the arrays can hold the specified number of values.
+   *
+   * @param capacity	the minimum capacity
+   */
+  protected void ensureCapacity(int capacity) {
+    int		size;
+
+    if (capacity <= m_IDs.length)
+      return;
+
+    size      = Math.max(capacity, m_IDs.length + (m_IDs.length >> 1) + 4);
+    m_IDs     = Arrays.copyOf(m_IDs, size);
+    m_Keys    = Arrays.copyOf(m_Keys, size);
+    m_Types   = Arrays.copyOf(m_Types, size);
+    m_Doubles = Arrays.copyOf(m_Doubles, size);
+    if (m_Objects != null)
+      m_Objects = Arrays.copyOf(m_Objects, size);
+  }
+
+  /**
+   * Returns the value stored in the slot.
+   *
+   * @param index	the slot
+   * @return		the value
+   */
+  protected Object valueAt(int index) {
+    switch (m_Types[index]) {
+      case TYPE_DOUBLE:
+	return m_Doubles[index];
+      case TYPE_BOOLEAN:
+	return (m_Doubles[index] != 0);
+      default:
+	return m_Objects[index];
+    }
+  }
+
+  /**
+   * Stores the value in the slot.
+   *
+   * @param index	the slot
+   * @param value	the value
+   */
+  protected void setValueAt(int index, Object value) {
+    if (value instanceof Double) {
+      m_Types[index]   = TYPE_DOUBLE;
+      m_Doubles[index] = (Double) value;
+      if (m_Objects != null)
+	m_Objects[index] = null;
+    }
+    else if (value instanceof Boolean) {
+      m_Types[index]   = TYPE_BOOLEAN;
+      m_Doubles[index] = ((Boolean) value) ? 1 : 0;
+      if (m_Objects != null)
+	m_Objects[index] = null;
+    }
+    else {
+      if (m_Objects == null)
+	m_Objects = new Object[m_IDs.length];
+      m_Types[index]   = TYPE_OBJECT;
+      m_Doubles[index] = 0;
+      m_Objects[index] = value;
+    }
+  }
+
+  /**
+   * Returns the number of stored values.
+   *
+   * @return		the number of values
+   */
+  @Override
+  public int size() {
+    return m_Size;
+  }
+
+  /**
+   * Returns whether a value is stored for the field.
+   *
+   * @param key		the field to look for
+   * @return		true if present
+   */
+  @Override
+  public boolean containsKey(AbstractField key) {
+    return (indexOf(key) >= 0);
+  }
+
+  /**
+   * Returns the value for the field.
+   *
+   * @param key		the field to get the value for
+   * @return		the value, null if not present
+   */
+  @Override
+  public Object get(AbstractField key) {
+    int		index;
+
+    index = indexOf(key);
+    if (index < 0)
+      return null;
+
+    return valueAt(index);
+  }
+
+  /**
+   * Returns the value for the field as primitive double, without boxing.
+   *
+   * @param key		the field to get the value for
+   * @param defValue	the value to return if not present or not numeric
+   * @return		the value
+   */
+  public double getDouble(AbstractField key, double defValue) {
+    int		index;
+
+    index = indexOf(key);
+    if ((index < 0) || (m_Types[index] != TYPE_DOUBLE))
+      return defValue;
+
+    return m_Doubles[index];
+  }
+
+  /**
+   * Stores the value for the field.
+   *
+   * @param key		the field
+   * @param value	the value, not null
+   * @return		the previous value, null if none
+   */
+  @Override
+  public Object put(AbstractField key, Object value) {
+    Object	result;
+    int		id;
+    int		index;
+
+    if (value == null)
+      throw new NullPointerException("Value cannot be null: " + key);
+
+    id    = DICTIONARY.register(key.getName());
+    index = Arrays.binarySearch(m_IDs, 0, m_Size, id);
+    if (index >= 0) {
+      result = valueAt(index);
+      setValueAt(index, value);
+      return result;
+    }
+
+    index = -(index + 1);
+    ensureCapacity(m_Size + 1);
+    if (index < m_Size) {
+      System.arraycopy(m_IDs, index, m_IDs, index + 1, m_Size - index);
+      System.arraycopy(m_Keys, index, m_Keys, index + 1, m_Size - index);
+      System.arraycopy(m_Types, index, m_Types, index + 1, m_Size - index);
+      System.arraycopy(m_Doubles, index, m_Doubles, index + 1, m_Size - index);
+      if (m_Objects != null)
+	System.arraycopy(m_Objects, index, m_Objects, index + 1, m_Size - index);
+    }
+    m_IDs[index]  = id;
+    m_Keys[index] = DICTIONARY.intern(key);
+    setValueAt(index, value);
+    m_Size++;
+
+    return null;
+  }
+
+  /**
+   * Removes the value for the field.
+   *
+   * @param key		the field to remove
+   * @return		the previous value, null if none
+   */
+  @Override
+  public Object remove(AbstractField key) {
+    Object	result;
+    int		index;
+
+    index = indexOf(key);
+    if (index < 0)
+      return null;
+
+    result = valueAt(index);
+    m_Size--;
+    if (index < m_Size) {
+      System.arraycopy(m_IDs, index + 1, m_IDs, index, m_Size - index);
+      System.arraycopy(m_Keys, index + 1, m_Keys, index, m_Size - index);
+      System.arraycopy(m_Types, index + 1, m_Types, index, m_Size - index);
+      System.arraycopy(m_Doubles, index + 1, m_Doubles, index, m_Size - index);
+      if (m_Objects != null)
+	System.arraycopy(m_Objects, index + 1, m_Objects, index, m_Size - index);
+    }
+    m_Keys[m_Size] = null;
+    if (m_Objects != null)
+      m_Objects[m_Size] = null;
+
+    return result;
+  }
+
+  /**
+   * Removes all values.
+   */
+  @Override
+  public void clear() {
+    Arrays.fill(m_Keys, 0, m_Size, null);
+    m_Objects = null;
+    m_Size    = 0;
+  }
+
+  /**
+   * Returns the fields that have values.
+   *
+   * @return		the fields (copy)
+   */
+  @Override
+  public Collection<AbstractField> keys() {
+    List<AbstractField>	result;
+    int			i;
+
+    result = new ArrayList<>(m_Size);
+    for (i = 0; i < m_Size; i++)
+      result.add(m_Keys[i]);
+
+    return result;
+  }
+
+  /**
+   * Returns the values as hashtable.
+   *
+   * @return		the values (copy)
+   */
+  @Override
+  public Hashtable<AbstractField,Object> toHashtable() {
+    Hashtable<AbstractField,Object>	result;
+    int					i;
+
+    result = new Hashtable<>(Math.max(11, m_Size * 2));
+    for (i = 0; i < m_Size; i++)
+      result.put(m_Keys[i], valueAt(i));
+
+    return result;
+  }
+
+  /**
+   * Returns a clone of the object. The fields are shared.
+   *
+   * @return		the clone
+   */
+  @Override
+  public AbstractReportStorage getClone() {
+    CompactReportStorage	result;
+
+    result           = new CompactReportStorage(0);
+    result.m_IDs     = Arrays.copyOf(m_IDs, m_Size);
+    result.m_Keys    = Arrays.copyOf(m_Keys, m_Size);
+    result.m_Types   = Arrays.copyOf(m_Types, m_Size);
+    result.m_Doubles = Arrays.copyOf(m_Doubles, m_Size);
+    result.m_Objects = (m_Objects == null) ? null : Arrays.copyOf(m_Objects, m_Size);
+    result.m_Size    = m_Size;
+
+    return result;
+  }
+
+  /**
+   * Re-interns the fields and re-generates the IDs, since these are only
+   * valid within the JVM that generated them.
+   *
+   * @param in		the stream to read from
+   * @throws IOException	if reading fails
+   * @throws ClassNotFoundException	if a class cannot be found
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    AbstractField[]	keys;
+    byte[]		types;
+    double[]		doubles;
+    Object[]		objects;
+    int			size;
+    int			i;
+
+    in.defaultReadObject();
+
+    keys    = m_Keys;
+    types   = m_Types;
+    doubles = m_Doubles;
+    objects = m_Objects;
+    size    = m_Size;
+
+    m_IDs     = new int[size];
+    m_Keys    = new AbstractField[size];
+    m_Types   = new byte[size];
+    m_Doubles = new double[size];
+    m_Objects = null;
+    m_Size    = 0;
+    for (i = 0; i < size; i++) {
+      switch (types[i]) {
+	case TYPE_DOUBLE:
+	  put(keys[i], doubles[i]);
+	  break;
+	case TYPE_BOOLEAN:
+	  put(keys[i], doubles[i] != 0);
+	  break;
+	default:
+	  put(keys[i], objects[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * HashtableReportStorage.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.report;
+
+import java.util.Collection;
+import java.util.Hashtable;
+
+/**
+ * Stores the report values in a {@link Hashtable}, i.e., boxed and with
+ * synchronized access.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class HashtableReportStorage
+  extends AbstractReportStorage {
+
+  private static final long serialVersionUID = -2958155497532946370L;
+
+  /** the values. */
+  protected Hashtable<AbstractField,Object> m_Table;
+
+  /**
+   * Initializes an empty storage.
+   */
+  public HashtableReportStorage() {
+    this(new Hashtable<>());
+  }
+
+  /**
+   * Initializes the storage with the hashtable (not copied).
+   *
+   * @param table	the table to use
+   */
+  public HashtableReportStorage(Hashtable<AbstractField,Object> table) {
+    m_Table = table;
+  }
+
+  /**
+   * Returns the number of stored values.
+   *
+   * @return		the number of values
+   */
+  @Override
+  public int size() {
+    return m_Table.size();
+  }
+
+  /**
+   * Returns whether a value is stored for the field.
+   *
+   * @param key		the field to look for
+   * @return		true if present
+   */
+  @Override
+  public boolean containsKey(AbstractField key) {
+    return m_Table.containsKey(key);
+  }
+
+  /**
+   * Returns the value for the field.
+   *
+   * @param key		the field to get the value for
+   * @return		the value, null if not present
+   */
+  @Override
+  public Object get(AbstractField key) {
+    return m_Table.get(key);
+  }
+
+  /**
+   * Stores the value for the field.
+   *
+   * @param key		the field
+   * @param value	the value, not null
+   * @return		the previous value, null if none
+   */
+  @Override
+  public Object put(AbstractField key, Object value) {
+    return m_Table.put(key, value);
+  }
+
+  /**
+   * Removes the value for the field.
+   *
+   * @param key		the field to remove
+   * @return		the previous value, null if none
+   */
+  @Override
+  public Object remove(AbstractField key) {
+    return m_Table.remove(key);
+  }
+
+  /**
+   * Removes all values.
+   */
+  @Override
+  public void clear() {
+    m_Table.clear();
+  }
+
+  /**
+   * Returns the fields that have values.
+   *
+   * @return		the fields (backed by the hashtable)
+   */
+  @Override
+  public Collection<AbstractField> keys() {
+    return m_Table.keySet();
+  }
+
+  /**
+   * Returns the underlying hashtable.
+   *
+   * @return		the values (not a copy)
+   */
+  @Override
+  public Hashtable<AbstractField,Object> toHashtable() {
+    return m_Table;
+  }
+
+  /**
+   * Returns a clone of the object.
+   *
+   * @return		the clone
+   */
+  @Override
+  public AbstractReportStorage getClone() {
+    return new HashtableReportStorage((Hashtable<AbstractField,Object>) m_Table.clone());
+  }
+}
@@ -15,7 +15,7 @@
 
 /*
  * Report.java
- * Copyright (C) 2009-2020 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2009-2026 University of Waikato, Hamilton, New Zealand
  *
  */
 
@@ -24,6 +24,7 @@ package adams.data.report;
 import adams.core.CloneHandler;
 import adams.core.Constants;
 import adams.core.Mergeable;
+import adams.core.Performance;
 import adams.core.Properties;
 import adams.core.Utils;
 import adams.core.base.BaseRegExp;
@@ -70,8 +71,14 @@ public class Report
   /** the property suffix for the data type. */
   public final static String DATATYPE_SUFFIX = "\tDataType";
 
+  /** the key in the Performance.props file for enabling the compact storage. */
+  public final static String KEY_COMPACTSTORAGE = "compactReports";
+
+  /** whether to use the compact storage for new reports (null if not yet determined). */
+  protected static Boolean m_CompactStorage;
+
   /** Store Header parameters ( parameter:value ). */
-  protected Hashtable<AbstractField,Object> m_Params;
+  protected AbstractReportStorage m_Params;
 
   /** fields. */
   protected Hashtable<String, AbstractField> m_Fields;
@@ -85,12 +92,47 @@ public class Report
   public Report() {
     super();
 
-    m_Params     = new Hashtable<>();
+    m_Params     = newStorage();
     m_DatabaseID = Constants.NO_ID;
 
     initFields();
   }
 
+  /**
+   * Sets whether new reports use the {@link CompactReportStorage} rather than
+   * the {@link HashtableReportStorage}. Overrides the setting from the
+   * Performance.props file.
+   *
+   * @param value	true if to use the compact storage
+   */
+  public static synchronized void setCompactStorage(boolean value) {
+    m_CompactStorage = value;
+  }
+
+  /**
+   * Returns whether new reports use the {@link CompactReportStorage}.
+   *
+   * @return		true if compact storage is used
+   */
+  public static synchronized boolean isCompactStorage() {
+    if (m_CompactStorage == null)
+      m_CompactStorage = Performance.getBoolean(KEY_COMPACTSTORAGE, false);
+    return m_CompactStorage;
+  }
+
+  /**
+   * Creates a new, empty storage for the values.
+   *
+   * @return		the storage
+   * @see		#isCompactStorage()
+   */
+  protected AbstractReportStorage newStorage() {
+    if (isCompactStorage())
+      return new CompactReportStorage();
+    else
+      return new HashtableReportStorage();
+  }
+
   /**
    * Sets the logging level.
    *
@@ -146,6 +188,8 @@ public class Report
    * @param field		the field to add
    */
   public void addField(AbstractField field) {
+    if (m_Params instanceof CompactReportStorage)
+      field = ReportFieldDictionary.getSingleton().intern(field);
     m_Fields.put(field.getName(), field);
   }
 
@@ -195,7 +239,7 @@ public class Report
 
     result = new ArrayList<>();
 
-    for (AbstractField key:m_Params.keySet())
+    for (AbstractField key: m_Params.keys())
       result.add(key);
 
     return result;
@@ -213,7 +257,7 @@ public class Report
 
     result = new ArrayList<>();
     str    = prefix.getPrefix();
-    for (AbstractField key: m_Params.keySet()) {
+    for (AbstractField key: m_Params.keys()) {
       if (key.isCompound() && key.getPrefix().equals(str))
 	result.add(key);
     }
@@ -233,7 +277,7 @@ public class Report
 
     result = new ArrayList<>();
     str    = suffix.getSuffix();
-    for (AbstractField key: m_Params.keySet()) {
+    for (AbstractField key: m_Params.keys()) {
       if (key.isCompound() && key.getSuffix().equals(str))
 	result.add(key);
     }
@@ -251,7 +295,7 @@ public class Report
     HashSet<PrefixOnlyField>	fields;
 
     fields = new HashSet<>();
-    for (AbstractField key: m_Params.keySet()) {
+    for (AbstractField key: m_Params.keys()) {
       if (key.isCompound())
 	fields.add(new PrefixField(key));
     }
@@ -272,7 +316,7 @@ public class Report
     HashSet<SuffixOnlyField>	fields;
 
     fields = new HashSet<>();
-    for (AbstractField key: m_Params.keySet()) {
+    for (AbstractField key: m_Params.keys()) {
       if (key.isCompound())
 	fields.add(new SuffixField(key));
     }
@@ -328,21 +372,38 @@ public class Report
   }
 
   /**
-   * Set the parameters.
+   * Set the parameters. With the hashtable storage, the hashtable is used
+   * as is, otherwise its values get copied.
    *
    * @param ht	hashtable of parameters
    */
   public void setParams(Hashtable<AbstractField,Object> ht) {
-    m_Params = ht;
+    if (m_Params instanceof HashtableReportStorage) {
+      m_Params = new HashtableReportStorage(ht);
+    }
+    else {
+      m_Params = newStorage();
+      m_Params.putAll(ht);
+    }
   }
 
   /**
-   * Get the parameters.
+   * Get the parameters. With the hashtable storage, changes to the hashtable
+   * get reflected in the report, with the compact storage a copy is returned.
    *
    * @return hashtable of parameters
    */
   public Hashtable<AbstractField,Object> getParams() {
-    return(m_Params);
+    return m_Params.toHashtable();
+  }
+
+  /**
+   * Returns the storage for the values.
+   *
+   * @return		the storage
+   */
+  public AbstractReportStorage getStorage() {
+    return m_Params;
   }
 
   /**
@@ -525,8 +586,11 @@ public class Report
    * @return 		parameter value, null if not present
    */
   public String getStringValue(AbstractField key) {
-    if (m_Params.containsKey(key))
-      return m_Params.get(key).toString();
+    Object	value;
+
+    value = m_Params.get(key);
+    if (value != null)
+      return value.toString();
     else
       return null;
   }
@@ -548,8 +612,11 @@ public class Report
    * @return 		parameter value, null if not present
    */
   public Boolean getBooleanValue(AbstractField key) {
-    if (m_Params.containsKey(key) && (m_Params.get(key) instanceof Boolean))
-      return (Boolean) m_Params.get(key);
+    Object	value;
+
+    value = m_Params.get(key);
+    if (value instanceof Boolean)
+      return (Boolean) value;
     else
       return null;
   }
@@ -571,8 +638,11 @@ public class Report
    * @return 		parameter value, null if not present
    */
   public Double getDoubleValue(AbstractField key) {
-    if (m_Params.containsKey(key) && (m_Params.get(key) instanceof Double))
-      return (Double) m_Params.get(key);
+    Object	value;
+
+    value = m_Params.get(key);
+    if (value instanceof Double)
+      return (Double) value;
     else
       return null;
   }
@@ -598,7 +668,7 @@ public class Report
     List<AbstractField>		remove;
 
     remove = new ArrayList<>();
-    for (AbstractField key: m_Params.keySet()) {
+    for (AbstractField key: m_Params.keys()) {
       if (regExp.isMatch(key.getName()))
         remove.add(key);
     }
@@ -619,7 +689,7 @@ public class Report
     List<AbstractField>		remove;
 
     remove = new ArrayList<>();
-    for (AbstractField key: m_Params.keySet()) {
+    for (AbstractField key: m_Params.keys()) {
       if (key.getName().startsWith(prefix))
         remove.add(key);
     }
@@ -649,7 +719,7 @@ public class Report
   public String toString() {
     StringBuilder ret = new StringBuilder();
     List<AbstractField> fields = new ArrayList<>();
-    for (AbstractField s:m_Params.keySet())
+    for (AbstractField s: m_Params.keys())
       fields.add(s);
     Collections.sort(fields);
     for (int i = 0; i < fields.size(); i++) {
@@ -684,7 +754,7 @@ public class Report
    */
   public void assign(Report other) {
     m_Fields     = (Hashtable<String,AbstractField>) other.m_Fields.clone();
-    m_Params     = (Hashtable<AbstractField,Object>) other.m_Params.clone();
+    m_Params     = other.m_Params.getClone();
     m_LoggingLevel = other.m_LoggingLevel;
     m_DatabaseID = other.m_DatabaseID;
   }
@@ -734,7 +804,6 @@ public class Report
     Report			qr;
     List<AbstractField>		keys;
     List<AbstractField>		keysQr;
-    Enumeration<AbstractField>	enm;
     int				i;
 
     if (o == null)
@@ -750,16 +819,10 @@ public class Report
     if (result == 0)
       result = Integer.compare(m_Params.size(), qr.m_Params.size());
 
-    keys = new ArrayList<>();
-    enm = m_Params.keys();
-    while (enm.hasMoreElements())
-      keys.add(enm.nextElement());
+    keys = new ArrayList<>(m_Params.keys());
     Collections.sort(keys);
 
-    keysQr = new ArrayList<>();
-    enm = m_Params.keys();
-    while (enm.hasMoreElements())
-      keysQr.add(enm.nextElement());
+    keysQr = new ArrayList<>(m_Params.keys());
     Collections.sort(keysQr);
 
     for (i = 0; i < keys.size(); i++) {
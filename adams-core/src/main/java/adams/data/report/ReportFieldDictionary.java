@@ -0,0 +1,171 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ReportFieldDictionary.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.report;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JVM-wide dictionary of report field names. Every name gets a unique
+ * integer ID and fields are interned, i.e., all reports that use the
+ * compact storage share the same field instances. Fields are immutable,
+ * so sharing them is safe. The dictionary only grows, which is fine as the
+ * number of distinct field names is usually small compared to the number
+ * of reports.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ReportFieldDictionary {
+
+  /**
+   * The dictionary entry for a field name.
+   */
+  protected static class Entry {
+
+    /** the ID of the name. */
+    protected final int id;
+
+    /** the interned fields with this name (different types/classes). */
+    protected volatile AbstractField[] fields;
+
+    /**
+     * Initializes the entry.
+     *
+     * @param id	the ID of the name
+     */
+    protected Entry(int id) {
+      this.id     = id;
+      this.fields = new AbstractField[0];
+    }
+  }
+
+  /** the singleton. */
+  protected static ReportFieldDictionary m_Singleton;
+
+  /** the entries (name - entry). */
+  protected ConcurrentHashMap<String,Entry> m_Entries;
+
+  /**
+   * Initializes the dictionary.
+   */
+  protected ReportFieldDictionary() {
+    m_Entries = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns the entry for the name, creating it if necessary.
+   *
+   * @param name	the field name
+   * @return		the entry
+   */
+  protected Entry entry(String name) {
+    Entry	result;
+
+    result = m_Entries.get(name);
+    if (result == null) {
+      synchronized(this) {
+	result = m_Entries.get(name);
+	if (result == null) {
+	  result = new Entry(m_Entries.size());
+	  m_Entries.put(name, result);
+	}
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the ID for the field name, registering it if necessary.
+   *
+   * @param name	the field name
+   * @return		the ID
+   */
+  public int register(String name) {
+    return entry(name).id;
+  }
+
+  /**
+   * Returns the ID for the field name.
+   *
+   * @param name	the field name
+   * @return		the ID, -1 if not registered
+   */
+  public int lookup(String name) {
+    Entry	entry;
+
+    entry = m_Entries.get(name);
+    if (entry == null)
+      return -1;
+    else
+      return entry.id;
+  }
+
+  /**
+   * Returns the shared instance of the field, i.e., one with the same
+   * class, name and data type.
+   *
+   * @param field	the field to intern
+   * @return		the shared instance
+   */
+  public AbstractField intern(AbstractField field) {
+    Entry		entry;
+    AbstractField[]	fields;
+
+    entry = entry(field.getName());
+    for (AbstractField f: entry.fields) {
+      if ((f.getClass() == field.getClass()) && (f.getDataType() == field.getDataType()))
+	return f;
+    }
+
+    synchronized(entry) {
+      for (AbstractField f: entry.fields) {
+	if ((f.getClass() == field.getClass()) && (f.getDataType() == field.getDataType()))
+	  return f;
+      }
+      fields = new AbstractField[entry.fields.length + 1];
+      System.arraycopy(entry.fields, 0, fields, 0, entry.fields.length);
+      fields[fields.length - 1] = field;
+      entry.fields = fields;
+    }
+
+    return field;
+  }
+
+  /**
+   * Returns the number of registered names.
+   *
+   * @return		the number of names
+   */
+  public int size() {
+    return m_Entries.size();
+  }
+
+  /**
+   * Returns the singleton.
+   *
+   * @return		the dictionary
+   */
+  public static synchronized ReportFieldDictionary getSingleton() {
+    if (m_Singleton == null)
+      m_Singleton = new ReportFieldDictionary();
+    return m_Singleton;
+  }
+}
@@ -0,0 +1,481 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ColumnStore.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.spreadsheet;
+
+import adams.data.SharedStringsTable;
+import adams.data.spreadsheet.Cell.ContentType;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Primitive storage for a single column of a {@link ColumnarSpreadSheet}.
+ * <br><br>
+ * As long as all values of the column share the same type, they get stored
+ * in a typed array (double[] for {@link ContentType#DOUBLE}, BitSet for
+ * {@link ContentType#BOOLEAN}, int[] with indices into the
+ * {@link SharedStringsTable} for {@link ContentType#STRING} and long[] for
+ * {@link ContentType#LONG} and all date/time types). Once a value with a
+ * different type gets stored, the column switches to mixed mode, using a
+ * long[] with the raw bits and a byte[] with the type of each value.
+ * <br><br>
+ * Missing values are recorded in a bitmap, objects and formulas are kept in
+ * sparse maps.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ColumnStore
+  implements Serializable {
+
+  private static final long serialVersionUID = -4683035417093125452L;
+
+  /** the minimum capacity to allocate. */
+  public final static int MIN_CAPACITY = 16;
+
+  /** all content types, indexed by ordinal. */
+  protected final static ContentType[] CONTENT_TYPES = ContentType.values();
+
+  /** the uniform type of the column, null if no value stored yet. */
+  protected ContentType m_Type;
+
+  /** whether the column stores values of different types. */
+  protected boolean m_Mixed;
+
+  /** the doubles (uniform DOUBLE). */
+  protected double[] m_Doubles;
+
+  /** the longs (uniform LONG/date types) or the raw bits (mixed). */
+  protected long[] m_Longs;
+
+  /** the booleans (uniform BOOLEAN). */
+  protected BitSet m_Booleans;
+
+  /** the indices in the shared strings table (uniform STRING). */
+  protected int[] m_Strings;
+
+  /** the types per slot (mixed). */
+  protected byte[] m_Types;
+
+  /** the missing-value bitmap (a set bit means the value is present). */
+  protected BitSet m_Present;
+
+  /** the objects (sparse). */
+  protected TIntObjectHashMap<Object> m_Objects;
+
+  /** the formulas (sparse). */
+  protected TIntObjectHashMap<String> m_Formulas;
+
+  /** the slots that are currently calculating their formulas. */
+  protected transient TIntHashSet m_Calculating;
+
+  /** the current capacity of the arrays. */
+  protected int m_Capacity;
+
+  /**
+   * Initializes the storage.
+   */
+  public ColumnStore() {
+    super();
+    clear();
+  }
+
+  /**
+   * Removes all values.
+   */
+  public void clear() {
+    m_Type        = null;
+    m_Mixed       = false;
+    m_Doubles     = null;
+    m_Longs       = null;
+    m_Booleans    = null;
+    m_Strings     = null;
+    m_Types       = null;
+    m_Present     = new BitSet();
+    m_Objects     = null;
+    m_Formulas    = null;
+    m_Calculating = null;
+    m_Capacity    = 0;
+  }
+
+  /**
+   * Returns the uniform type of the column.
+   *
+   * @return		the type, null if no values stored yet or mixed
+   */
+  public ContentType getType() {
+    if (m_Mixed)
+      return null;
+    return m_Type;
+  }
+
+  /**
+   * Returns whether the column stores values of different types.
+   *
+   * @return		true if mixed
+   */
+  public boolean isMixed() {
+    return m_Mixed;
+  }
+
+  /**
+   * Returns whether any formulas are stored in this column.
+   *
+   * @return		true if formulas present
+   */
+  public boolean hasFormulas() {
+    return (m_Formulas != null) && (m_Formulas.size() > 0);
+  }
+
+  /**
+   * Returns the current capacity of the storage.
+   *
+   * @return		the capacity
+   */
+  public int getCapacity() {
+    return m_Capacity;
+  }
+
+  /**
+   * Makes sure that the arrays can accommodate the specified number of slots.
+   *
+   * @param size	the number of slots
+   */
+  protected void ensureCapacity(int size) {
+    int		capacity;
+
+    if (size <= m_Capacity)
+      return;
+
+    capacity = Math.max(size, m_Capacity + (m_Capacity >> 1));
+    capacity = Math.max(capacity, MIN_CAPACITY);
+    if (m_Doubles != null)
+      m_Doubles = Arrays.copyOf(m_Doubles, capacity);
+    if (m_Longs != null)
+      m_Longs = Arrays.copyOf(m_Longs, capacity);
+    if (m_Strings != null)
+      m_Strings = Arrays.copyOf(m_Strings, capacity);
+    if (m_Types != null)
+      m_Types = Arrays.copyOf(m_Types, capacity);
+    m_Capacity = capacity;
+  }
+
+  /**
+   * Allocates the typed storage for the specified type.
+   *
+   * @param type	the type of the column
+   */
+  protected void allocate(ContentType type) {
+    m_Type = type;
+    switch (type) {
+      case DOUBLE:
+	m_Doubles = new double[m_Capacity];
+	break;
+      case BOOLEAN:
+	m_Booleans = new BitSet();
+	break;
+      case STRING:
+	m_Strings = new int[m_Capacity];
+	break;
+      case OBJECT:
+	break;
+      default:
+	m_Longs = new long[m_Capacity];
+    }
+  }
+
+  /**
+   * Switches the column to mixed mode, converting the present values.
+   */
+  protected void convertToMixed() {
+    long[]	longs;
+    byte[]	types;
+    int		i;
+
+    longs = new long[m_Capacity];
+    types = new byte[m_Capacity];
+    for (i = m_Present.nextSetBit(0); (i >= 0) && (i < m_Capacity); i = m_Present.nextSetBit(i + 1)) {
+      types[i] = (byte) m_Type.ordinal();
+      longs[i] = getRaw(i);
+    }
+
+    m_Doubles  = null;
+    m_Booleans = null;
+    m_Strings  = null;
+    m_Longs    = longs;
+    m_Types    = types;
+    m_Mixed    = true;
+  }
+
+  /**
+   * Returns whether a value is stored at the specified slot.
+   *
+   * @param slot	the slot
+   * @return		true if present, false if missing
+   */
+  public boolean isPresent(int slot) {
+    return m_Present.get(slot);
+  }
+
+  /**
+   * Returns the content type at the specified slot.
+   *
+   * @param slot	the slot
+   * @return		the type, {@link ContentType#MISSING} if not present
+   */
+  public ContentType getContentType(int slot) {
+    if (!m_Present.get(slot))
+      return ContentType.MISSING;
+    if (m_Mixed)
+      return CONTENT_TYPES[m_Types[slot]];
+    return m_Type;
+  }
+
+  /**
+   * Returns the raw value stored at the specified slot. Doubles are returned
+   * as raw long bits, booleans as 0/1, strings as index in the shared strings
+   * table.
+   *
+   * @param slot	the slot
+   * @return		the raw value, 0 if missing
+   */
+  public long getRaw(int slot) {
+    if (!m_Present.get(slot))
+      return 0L;
+    if (m_Mixed)
+      return m_Longs[slot];
+    switch (m_Type) {
+      case DOUBLE:
+	return Double.doubleToRawLongBits(m_Doubles[slot]);
+      case BOOLEAN:
+	return m_Booleans.get(slot) ? 1L : 0L;
+      case STRING:
+	return m_Strings[slot];
+      case OBJECT:
+	return 0L;
+      default:
+	return m_Longs[slot];
+    }
+  }
+
+  /**
+   * Returns the double value stored at the specified slot.
+   *
+   * @param slot	the slot
+   * @return		the value, NaN if missing or not a double
+   */
+  public double getDouble(int slot) {
+    if (!m_Present.get(slot))
+      return Double.NaN;
+    if (!m_Mixed && (m_Type == ContentType.DOUBLE))
+      return m_Doubles[slot];
+    if (getContentType(slot) == ContentType.DOUBLE)
+      return Double.longBitsToDouble(getRaw(slot));
+    return Double.NaN;
+  }
+
+  /**
+   * Returns the object stored at the specified slot.
+   *
+   * @param slot	the slot
+   * @return		the object, null if none stored
+   */
+  public Object getObject(int slot) {
+    if (m_Objects == null)
+      return null;
+    return m_Objects.get(slot);
+  }
+
+  /**
+   * Stores the raw value at the specified slot.
+   *
+   * @param slot	the slot
+   * @param type	the type of the value
+   * @param raw		the raw value
+   * @see		#getRaw(int)
+   */
+  public void set(int slot, ContentType type, long raw) {
+    if (type == ContentType.MISSING) {
+      setMissing(slot);
+      return;
+    }
+
+    ensureCapacity(slot + 1);
+    if (!m_Mixed) {
+      if (m_Type == null)
+	allocate(type);
+      else if (m_Type != type)
+	convertToMixed();
+    }
+    if ((m_Objects != null) && (type != ContentType.OBJECT))
+      m_Objects.remove(slot);
+
+    if (m_Mixed) {
+      m_Longs[slot] = raw;
+      m_Types[slot] = (byte) type.ordinal();
+    }
+    else {
+      switch (type) {
+	case DOUBLE:
+	  m_Doubles[slot] = Double.longBitsToDouble(raw);
+	  break;
+	case BOOLEAN:
+	  m_Booleans.set(slot, raw != 0L);
+	  break;
+	case STRING:
+	  m_Strings[slot] = (int) raw;
+	  break;
+	case OBJECT:
+	  break;
+	default:
+	  m_Longs[slot] = raw;
+      }
+    }
+    m_Present.set(slot);
+  }
+
+  /**
+   * Stores the double value at the specified slot.
+   *
+   * @param slot	the slot
+   * @param value	the value
+   */
+  public void setDouble(int slot, double value) {
+    set(slot, ContentType.DOUBLE, Double.doubleToRawLongBits(value));
+  }
+
+  /**
+   * Stores the object at the specified slot.
+   *
+   * @param slot	the slot
+   * @param value	the object, null for missing
+   */
+  public void setObject(int slot, Object value) {
+    if (value == null) {
+      setMissing(slot);
+      return;
+    }
+    set(slot, ContentType.OBJECT, 0L);
+    if (m_Objects == null)
+      m_Objects = new TIntObjectHashMap<>();
+    m_Objects.put(slot, value);
+  }
+
+  /**
+   * Marks the specified slot as missing. Does not remove any formula.
+   *
+   * @param slot	the slot
+   */
+  public void setMissing(int slot) {
+    m_Present.clear(slot);
+    if (m_Objects != null)
+      m_Objects.remove(slot);
+  }
+
+  /**
+   * Returns the formula at the specified slot.
+   *
+   * @param slot	the slot
+   * @return		the formula, null if none
+   */
+  public String getFormula(int slot) {
+    if (m_Formulas == null)
+      return null;
+    return m_Formulas.get(slot);
+  }
+
+  /**
+   * Sets the formula at the specified slot.
+   *
+   * @param slot	the slot
+   * @param value	the formula, null to remove
+   */
+  public void setFormula(int slot, String value) {
+    if (value == null) {
+      if (m_Formulas != null)
+	m_Formulas.remove(slot);
+      return;
+    }
+    if (m_Formulas == null)
+      m_Formulas = new TIntObjectHashMap<>();
+    m_Formulas.put(slot, value);
+  }
+
+  /**
+   * Marks/unmarks the slot as currently calculating its formula.
+   *
+   * @param slot	the slot
+   * @param value	true if calculating
+   * @return		false if the slot was already (or is no longer) marked
+   */
+  public boolean setCalculating(int slot, boolean value) {
+    if (m_Calculating == null)
+      m_Calculating = new TIntHashSet();
+    if (value)
+      return m_Calculating.add(slot);
+    else
+      return m_Calculating.remove(slot);
+  }
+
+  /**
+   * Copies the value from the other store.
+   *
+   * @param source		the store to copy from
+   * @param sourceSlot		the slot in the source store
+   * @param sourceStrings	the strings table of the source
+   * @param targetSlot		the slot to copy to
+   * @param targetStrings	the strings table of this store
+   */
+  public void copy(ColumnStore source, int sourceSlot, SharedStringsTable sourceStrings, int targetSlot, SharedStringsTable targetStrings) {
+    ContentType		type;
+
+    type = source.getContentType(sourceSlot);
+    switch (type) {
+      case MISSING:
+	setMissing(targetSlot);
+	break;
+      case STRING:
+	if (sourceStrings == targetStrings)
+	  set(targetSlot, type, source.getRaw(sourceSlot));
+	else
+	  set(targetSlot, type, targetStrings.getIndex(sourceStrings.getString((int) source.getRaw(sourceSlot))));
+	break;
+      case OBJECT:
+	setObject(targetSlot, source.getObject(sourceSlot));
+	break;
+      default:
+	set(targetSlot, type, source.getRaw(sourceSlot));
+    }
+    setFormula(targetSlot, source.getFormula(sourceSlot));
+  }
+
+  /**
+   * Returns a short description of the storage.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "type=" + (m_Mixed ? "mixed" : m_Type) + ", capacity=" + m_Capacity + ", present=" + m_Present.cardinality();
+  }
+}
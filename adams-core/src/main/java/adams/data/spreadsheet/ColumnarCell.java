@@ -0,0 +1,1162 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ColumnarCell.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.spreadsheet;
+
+import adams.core.DateTime;
+import adams.core.DateTimeMsec;
+import adams.core.DateUtils;
+import adams.core.Time;
+import adams.core.TimeMsec;
+import adams.core.Utils;
+import adams.parser.SpreadSheetFormula;
+
+import java.util.Date;
+import java.util.HashMap;
+
+/**
+ * Lightweight cell view onto the {@link ColumnStore} of a
+ * {@link ColumnarSpreadSheet}. The cell itself holds no data, all values
+ * get read from/written to the column storage, using the slot of the
+ * owning {@link ColumnarDataRow}.
+ * <br><br>
+ * Any integer type gets turned into a Long and any floating point type
+ * into a Double.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ColumnarCell
+  implements Cell {
+
+  private static final long serialVersionUID = 7271604569802735137L;
+
+  /** the row this cell belongs to. */
+  protected ColumnarDataRow m_Owner;
+
+  /** the column storage. */
+  protected ColumnStore m_Store;
+
+  /**
+   * Initializes the cell view.
+   *
+   * @param owner	the row this cell belongs to
+   * @param store	the column storage to use
+   */
+  public ColumnarCell(ColumnarDataRow owner, ColumnStore store) {
+    super();
+
+    m_Owner = owner;
+    m_Store = store;
+  }
+
+  /**
+   * Sets the row this cell belongs to.
+   *
+   * @param owner	the owner, must be a {@link ColumnarDataRow}
+   */
+  public void setOwner(Row owner) {
+    if (!(owner instanceof ColumnarDataRow))
+      throw new IllegalArgumentException(
+	"Owner must be a " + ColumnarDataRow.class.getName() + ", provided: "
+	  + ((owner == null) ? "null" : owner.getClass().getName()));
+    m_Owner = (ColumnarDataRow) owner;
+  }
+
+  /**
+   * Returns the row this cell belongs to.
+   *
+   * @return		the owner
+   */
+  public Row getOwner() {
+    return m_Owner;
+  }
+
+  /**
+   * Returns the spreadsheet this cell belongs to.
+   *
+   * @return		the spreadsheet
+   */
+  public SpreadSheet getSpreadSheet() {
+    return getOwner().getOwner();
+  }
+
+  /**
+   * Returns the underlying column storage.
+   *
+   * @return		the storage
+   */
+  public ColumnStore getStore() {
+    return m_Store;
+  }
+
+  /**
+   * Returns the slot of the owning row.
+   *
+   * @return		the slot
+   */
+  protected int slot() {
+    return m_Owner.getSlot();
+  }
+
+  /**
+   * Stores the raw value.
+   *
+   * @param type	the type of the value
+   * @param raw		the raw value
+   * @return		the cell itself
+   */
+  protected Cell set(ContentType type, long raw) {
+    m_Store.set(slot(), type, raw);
+    return this;
+  }
+
+  /**
+   * Returns the raw value.
+   *
+   * @return		the raw value
+   * @see		ColumnStore#getRaw(int)
+   */
+  protected long raw() {
+    return m_Store.getRaw(slot());
+  }
+
+  /**
+   * Obtains the content/type of the other cell, but not the owner.
+   *
+   * @param cell	the cell to get the content/type from
+   */
+  public void assign(Cell cell) {
+    String	content;
+    ContentType	type;
+
+    if (cell instanceof ColumnarCell) {
+      m_Store.copy(
+	((ColumnarCell) cell).m_Store, ((ColumnarCell) cell).slot(), cell.getSpreadSheet().getSharedStringsTable(),
+	slot(), getSpreadSheet().getSharedStringsTable());
+      return;
+    }
+
+    if (cell.isFormula()) {
+      setFormula(cell.getFormula());
+    }
+    else if (cell.isObject()) {
+      setObject(cell.getObject());
+    }
+    else {
+      type = cell.getContentType();
+      switch (type) {
+	case MISSING:
+	  setMissing();
+	  break;
+	// for string we need to ensure that the shared strings table
+	// gets updated correctly
+	case STRING:
+	  content = cell.getContent();
+	  if (content.equals(SpreadSheet.MISSING_VALUE))
+	    setContentAsString("'" + SpreadSheet.MISSING_VALUE + "'");
+	  else
+	    setContentAsString(content);
+	  break;
+	default:
+	  setNative(cell.getNative());
+      }
+    }
+  }
+
+  /**
+   * Sets the cell to missing.
+   */
+  public void setMissing() {
+    m_Store.setMissing(slot());
+    m_Store.setFormula(slot(), null);
+  }
+
+  /**
+   * Sets the content of the cell.
+   *
+   * @param value	the content; null intepreted as missing value
+   * @return		the cell itself
+   */
+  public Cell setContent(Boolean value) {
+    if (value == null) {
+      setMissing();
+      return this;
+    }
+    return set(ContentType.BOOLEAN, value ? 1L : 0L);
+  }
+
+  /**
+   * Sets the content of the cell.
+   *
+   * @param value	the content; null intepreted as missing value
+   * @return		the cell itself
+   */
+  public Cell setContent(Byte value) {
+    if (value == null) {
+      setMissing();
+      return this;
+    }
+    return set(ContentType.LONG, value.longValue());
+  }
+
+  /**
+   * Sets the content of the cell.
+   *
+   * @param value	the content; null intepreted as missing value
+   * @return		the cell itself
+   */
+  public Cell setContent(Short value) {
+    if (value == null) {
+      setMissing();
+      return this;
+    }
+    return set(ContentType.LONG, value.longValue());
+  }
+
+  /**
+   * Sets the content of the cell.
+   *
+   * @param value	the content; null intepreted as missing value
+   * @return		the cell itself
+   */
+  public Cell setContent(Integer value) {
+    if (value == null) {
+      setMissing();
+      return this;
+    }
+    return set(ContentType.LONG, value.longValue());
+  }
+
+  /**
+   * Sets the content of the cell.
+   *
+   * @param value	the content; null intepreted as missing value
+   * @return		the cell itself
+   */
+  public Cell setContent(Long value) {
+    if (value == null) {
+      setMissing();
+      return this;
+    }
+    return set(ContentType.LONG, value);
+  }
+
+  /**
+   * Sets the content of the cell.
+   *
+   * @param value	the content; null or NaN is intepreted as missing value
+   * @return		the cell itself
+   */
+  public Cell setContent(Float value) {
+    if ((value == null) || (Float.isNaN(value))) {
+      setMissing();
+      return this;
+    }
+    return set(ContentType.DOUBLE, Double.doubleToRawLongBits(value.doubleValue()));
+  }
+
+  /**
+   * Sets the content of the cell.
+   *
+   * @param value	the content; null or NaN is intepreted as missing value
+   * @return		the cell itself
+   */
+  public Cell setContent(Double value) {
+    if ((value == null) || (Double.isNaN(value))) {
+      setMissing();
+      return this;
+    }
+    return set(ContentType.DOUBLE, Double.doubleToRawLongBits(value));
+  }
+
+  /**
+   * Sets the content of the cell.
+   *
+   * @param value	the content; null is intepreted as missing value
+   * @return		the cell itself
+   */
+  public Cell setContent(Date value) {
+    if (value == null) {
+      setMissing();
+      return this;
+    }
+    return set(ContentType.DATE, value.getTime());
+  }
+
+  /**
+   * Sets the content of the cell.
+   *
+   * @param value	the content; null is intepreted as missing value
+   * @return		the cell itself
+   */
+  public Cell setContent(DateTime value) {
+    if (value == null) {
+      setMissing();
+      return this;
+    }
+    return set(ContentType.DATETIME, value.getTime());
+  }
+
+  /**
+   * Sets the content of the cell.
+   *
+   * @param value	the content; null is intepreted as missing value
+   * @return		the cell itself
+   */
+  public Cell setContent(DateTimeMsec value) {
+    if (value == null) {
+      setMissing();
+      return this;
+    }
+    return set(ContentType.DATETIMEMSEC, value.getTime());
+  }
+
+  /**
+   * Sets the content of the cell.
+   *
+   * @param value	the content; null is intepreted as missing value
+   * @return		the cell itself
+   */
+  public Cell setContent(Time value) {
+    if (value == null) {
+      setMissing();
+      return this;
+    }
+    return set(ContentType.TIME, value.getTime());
+  }
+
+  /**
+   * Sets the content of the cell.
+   *
+   * @param value	the content; null is intepreted as missing value
+   * @return		the cell itself
+   */
+  public Cell setContent(TimeMsec value) {
+    if (value == null) {
+      setMissing();
+      return this;
+    }
+    return set(ContentType.TIMEMSEC, value.getTime());
+  }
+
+  /**
+   * Checks whether the string represents a valid formula.
+   *
+   * @param s		the string to check
+   * @return		true if valid formula
+   */
+  protected boolean checkFormula(String s) {
+    try {
+      SpreadSheetFormula.evaluate(s, new HashMap(), getSpreadSheet());
+      return true;
+    }
+    catch (Throwable t) {
+      return false;
+    }
+  }
+
+  /**
+   * Checks whether the string represents a boolean.
+   *
+   * @param s		the string to check
+   * @return		true if boolean
+   */
+  protected boolean checkBoolean(String s) {
+    s = s.toLowerCase();
+    return (s.equals("true") || s.equals("false"));
+  }
+
+  /**
+   * Checks whether the string represents a time.
+   *
+   * @param s		the string to check
+   * @return		true if time
+   * @see		SpreadSheet#getTimeFormat()
+   */
+  protected boolean checkTime(String s) {
+    return DateUtils.checkTime(s, getSpreadSheet().getTimeFormat());
+  }
+
+  /**
+   * Checks whether the string represents a time.
+   *
+   * @param s		the string to check
+   * @return		true if time
+   * @see		SpreadSheet#getTimeMsecFormat()
+   */
+  protected boolean checkTimeMsec(String s) {
+    return DateUtils.checkTimeMsec(s, getSpreadSheet().getTimeMsecFormat());
+  }
+
+  /**
+   * Checks whether the string represents a date.
+   *
+   * @param s		the string to check
+   * @return		true if date
+   * @see		SpreadSheet#getDateFormat()
+   */
+  protected boolean checkDate(String s) {
+    return DateUtils.checkDate(s, getSpreadSheet().getDateFormat());
+  }
+
+  /**
+   * Checks whether the string represents a date/time.
+   *
+   * @param s		the string to check
+   * @return		true if date/time
+   * @see		SpreadSheet#getDateTimeFormat()
+   */
+  protected boolean checkDateTime(String s) {
+    return DateUtils.checkDateTime(s, getSpreadSheet().getDateTimeFormat());
+  }
+
+  /**
+   * Checks whether the string represents a date/time msec.
+   *
+   * @param s		the string to check
+   * @return		true if date/time
+   * @see		SpreadSheet#getDateTimeMsecFormat()
+   */
+  protected boolean checkDateTimeMsec(String s) {
+    return DateUtils.checkDateTimeMsec(s, getSpreadSheet().getDateTimeMsecFormat());
+  }
+
+  /**
+   * Checks whether the string represents a long.
+   *
+   * @param s		the string to check
+   * @return		true if long
+   */
+  protected boolean checkLong(String s) {
+    return Utils.isLong(s);
+  }
+
+  /**
+   * Checks whether the string represents a double.
+   *
+   * @param s		the string to check
+   * @return		true if double
+   */
+  protected boolean checkDouble(String s) {
+    return Utils.isDouble(s, getSpreadSheet().getLocale());
+  }
+
+  /**
+   * Attempts to determine the data type of the string.
+   *
+   * @param value	the non-empty string to parse
+   * @return		the cell itself
+   */
+  public Cell parseContent(String value) {
+    if (checkBoolean(value)) {
+      setContent(Boolean.parseBoolean(value));
+    }
+    else if (checkDateTimeMsec(value)) {
+      setContent(new DateTimeMsec(getSpreadSheet().getDateTimeMsecFormat().parse(value)));
+    }
+    else if (checkDateTime(value)) {
+      setContent(new DateTime(getSpreadSheet().getDateTimeFormat().parse(value)));
+    }
+    else if (checkTimeMsec(value)) {
+      setContent(new TimeMsec(getSpreadSheet().getTimeMsecFormat().parse(value).getTime()));
+    }
+    else if (checkTime(value)) {
+      setContent(new Time(getSpreadSheet().getTimeFormat().parse(value).getTime()));
+    }
+    else if (checkDate(value)) {
+      setContent(getSpreadSheet().getDateFormat().parse(value));
+    }
+    else if (checkLong(value)) {
+      setContent(Long.parseLong(value));
+    }
+    else if (checkDouble(value)) {
+      try {
+	setContent(Utils.toDouble(value, getSpreadSheet().getLocale()));
+      }
+      catch (Exception e) {
+	setContentAsString(null);
+      }
+    }
+    else {
+      setContentAsString(value);
+    }
+    return this;
+  }
+
+  /**
+   * Sets the content of the cell. Tries to determine whether the cell
+   * content is numeric or not.
+   *
+   * @param value	the content
+   * @return		the cell itself
+   */
+  public Cell setContent(String value) {
+    if ((value == null) || (value.equals(SpreadSheet.MISSING_VALUE))) {
+      setMissing();
+    }
+    else {
+      if ((value.length() > 0) && value.startsWith(PREFIX_FORMULA) && checkFormula(value)) {
+	m_Store.setMissing(slot());
+	m_Store.setFormula(slot(), value);
+      }
+      else {
+	m_Store.setFormula(slot(), null);
+	if (value.length() > 0)
+	  parseContent(value);
+	else
+	  setContentAsString(value);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Parses the content of the cell using the specified type. If the string
+   * cannot be parsed according to the type, missing is used instead.
+   *
+   * @param value	the content
+   * @param type	the expected type
+   * @return		the parsed content
+   */
+  public Object parseContent(String value, ContentType type) {
+    switch (type) {
+      case BOOLEAN:
+	if (checkBoolean(value))
+	  return Boolean.parseBoolean(value);
+	else
+	  return SpreadSheet.MISSING_VALUE;
+      case LONG:
+	if (checkLong(value))
+	  return Long.parseLong(value);
+	else
+	  return SpreadSheet.MISSING_VALUE;
+      case DOUBLE:
+	if (checkDouble(value))
+	  return Double.parseDouble(value);
+	else
+	  return SpreadSheet.MISSING_VALUE;
+      case STRING:
+	return value;
+      case TIME:
+	if (checkTime(value))
+	  return new Time(getSpreadSheet().getTimeFormat().parse(value));
+	else
+	  return SpreadSheet.MISSING_VALUE;
+      case TIMEMSEC:
+	if (checkTimeMsec(value))
+	  return new TimeMsec(getSpreadSheet().getTimeMsecFormat().parse(value));
+	else
+	  return SpreadSheet.MISSING_VALUE;
+      case DATE:
+	if (checkDate(value))
+	  return getSpreadSheet().getDateFormat().parse(value);
+	else
+	  return SpreadSheet.MISSING_VALUE;
+      case DATETIME:
+	if (checkDateTime(value))
+	  return new DateTime(getSpreadSheet().getDateTimeFormat().parse(value));
+	else
+	  return SpreadSheet.MISSING_VALUE;
+      case DATETIMEMSEC:
+	if (checkDateTimeMsec(value))
+	  return new DateTimeMsec(getSpreadSheet().getDateTimeMsecFormat().parse(value));
+	else
+	  return SpreadSheet.MISSING_VALUE;
+      default:
+	return SpreadSheet.MISSING_VALUE;
+    }
+  }
+
+  /**
+   * Sets the string content of the cell.
+   *
+   * @param value	the content
+   * @return		the cell itself
+   */
+  public Cell setContentAsString(String value) {
+    if ((value == null) || (value.equals(SpreadSheet.MISSING_VALUE))) {
+      setMissing();
+      return this;
+    }
+    if (value.equals("'" + SpreadSheet.MISSING_VALUE + "'"))
+      value = SpreadSheet.MISSING_VALUE;
+    return set(ContentType.STRING, getSpreadSheet().getSharedStringsTable().getIndex(value));
+  }
+
+  /**
+   * Sets the content of the cell, trying to parse the content using the
+   * specified content type.
+   *
+   * @param value	the content
+   * @param type	the type to use
+   * @return		the cell itself
+   */
+  public Cell setContentAs(String value, ContentType type) {
+    Object	obj;
+
+    obj = parseContent(value, type);
+    if (obj.equals(SpreadSheet.MISSING_VALUE))
+      setMissing();
+    else
+      setNative(obj);
+
+    return this;
+  }
+
+  /**
+   * Sets the object content of the cell.
+   *
+   * @param value	the content
+   * @return		the cell itself
+   */
+  public Cell setObject(Object value) {
+    if (value == null)
+      setMissing();
+    else
+      m_Store.setObject(slot(), value);
+    return this;
+  }
+
+  /**
+   * Sets the formula content of the cell.
+   *
+   * @param value	the content
+   * @return		the cell itself
+   */
+  public Cell setFormula(String value) {
+    if ((value == null) || (value.equals(SpreadSheet.MISSING_VALUE))) {
+      setMissing();
+    }
+    else {
+      if (!value.startsWith("=")) {
+	setContentAsString(value);
+      }
+      else {
+	m_Store.setMissing(slot());
+	m_Store.setFormula(slot(), value);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Returns the formula.
+   *
+   * @return		the formula, null if none used
+   */
+  public String getFormula() {
+    return m_Store.getFormula(slot());
+  }
+
+  /**
+   * Returns the object.
+   *
+   * @return		the object, null if none set
+   */
+  public Object getObject() {
+    return m_Store.getObject(slot());
+  }
+
+  /**
+   * Returns the content of the cell.
+   *
+   * @return		the content
+   */
+  public String getContent() {
+    AbstractObjectHandler	handler;
+    Object			obj;
+
+    switch (getContentType()) {
+      case MISSING:
+	return SpreadSheet.MISSING_VALUE;
+      case TIME:
+	return getSpreadSheet().getTimeFormat().format(new Date(raw()));
+      case TIMEMSEC:
+	return getSpreadSheet().getTimeMsecFormat().format(new Date(raw()));
+      case DATE:
+	return getSpreadSheet().getDateFormat().format(new Date(raw()));
+      case DATETIME:
+	return getSpreadSheet().getDateTimeFormat().format(new Date(raw()));
+      case DATETIMEMSEC:
+	return getSpreadSheet().getDateTimeMsecFormat().format(new Date(raw()));
+      case STRING:
+	return getSpreadSheet().getSharedStringsTable().getString((int) raw());
+      case LONG:
+	return Long.toString(raw());
+      case BOOLEAN:
+	return Boolean.toString(raw() != 0L);
+      case OBJECT:
+	obj = getObject();
+	if (obj == null)
+	  return SpreadSheet.MISSING_VALUE;
+	handler = AbstractObjectHandler.getHandler(obj);
+	if (handler == null)
+	  return SpreadSheet.MISSING_VALUE;
+	return handler.format(obj);
+      default:
+	return "" + m_Store.getDouble(slot());
+    }
+  }
+
+  /**
+   * Returns the content type.
+   *
+   * @return		the type
+   */
+  public ContentType getContentType() {
+    calculateIfRequired();
+    return m_Store.getContentType(slot());
+  }
+
+  /**
+   * Determines the best set-method based on the class of the provided object.
+   * Fallback is the {@link #setObject(Object)} method.
+   *
+   * @param value	the value to set
+   * @return		the cell itself
+   */
+  public Cell setNative(Object value) {
+    if (value == null)
+      setMissing();
+    // common
+    else if (value instanceof String)
+      setContentAsString((String) value);
+    else if (value instanceof Integer)
+      setContent((Integer) value);
+    else if (value instanceof Long)
+      setContent((Long) value);
+    else if (value instanceof Double)
+      setContent((Double) value);
+    else if (value instanceof DateTime)
+      setContent((DateTime) value);
+    else if (value instanceof DateTimeMsec)
+      setContent((DateTimeMsec) value);
+    else if (value instanceof Time)
+      setContent((Time) value);
+    else if (value instanceof TimeMsec)
+      setContent((TimeMsec) value);
+    else if (value instanceof Date)
+      setContent((Date) value);
+    else if (value instanceof Boolean)
+      setContent((Boolean) value);
+    // less common
+    else if (value instanceof Byte)
+      setContent((Byte) value);
+    else if (value instanceof Short)
+      setContent((Short) value);
+    else if (value instanceof Float)
+      setContent((Float) value);
+    else if (value instanceof Number)
+      setContent(((Number) value).doubleValue());
+    else
+      setObject(value);
+    return this;
+  }
+
+  /**
+   * Returns the cell as native object, according to its type.
+   * If a cell is missing, the result is the {@link SpreadSheet#MISSING_VALUE}
+   * string.
+   *
+   * @return		the corresponding object
+   */
+  public Object getNative() {
+    ContentType		type;
+
+    type = getContentType();
+    switch (type) {
+      case MISSING:
+	return SpreadSheet.MISSING_VALUE;
+      case BOOLEAN:
+	return toBoolean();
+      case TIME:
+	return toTime();
+      case TIMEMSEC:
+	return toTimeMsec();
+      case DATE:
+	return toDate();
+      case DATETIME:
+	return toDateTime();
+      case DATETIMEMSEC:
+	return toDateTimeMsec();
+      case LONG:
+	return toLong();
+      case DOUBLE:
+	return toDouble();
+      case STRING:
+	return toString();
+      case OBJECT:
+	return getObject();
+      default:
+	throw new IllegalStateException("Unhandled content type: " + type);
+    }
+  }
+
+  /**
+   * Returns the column this cell is in.
+   *
+   * @return		the column index, -1 if not available
+   */
+  public int index() {
+    return getOwner().indexOf(this);
+  }
+
+  /**
+   * Checks whether the stored string is numeric.
+   *
+   * @return		true if the content is numeric
+   */
+  public boolean isNumeric() {
+    ContentType		type;
+
+    type = getContentType();
+    return (type == ContentType.LONG) || (type == ContentType.DOUBLE);
+  }
+
+  /**
+   * Checks whether the cell contains a missing value.
+   *
+   * @return		true if missing value
+   */
+  public boolean isMissing() {
+    return (getContentType() == ContentType.MISSING);
+  }
+
+  /**
+   * Checks whether the cell represents a boolean value.
+   *
+   * @return		true if boolean value
+   */
+  public boolean isBoolean() {
+    return (getContentType() == ContentType.BOOLEAN);
+  }
+
+  /**
+   * Returns the boolean content, null if not a boolean.
+   *
+   * @return		the date, null if not boolean
+   */
+  public Boolean toBoolean() {
+    if (getContentType() == ContentType.BOOLEAN)
+      return (raw() != 0L);
+    else
+      return null;
+  }
+
+  /**
+   * Checks whether the cell represents a date, time or date/time value.
+   *
+   * @return		true if date, time or date/time value
+   */
+  public boolean isAnyDateType() {
+    ContentType		type;
+
+    type = getContentType();
+    return (type == ContentType.TIME)
+      || (type == ContentType.TIMEMSEC)
+      || (type == ContentType.DATE)
+      || (type == ContentType.DATETIME)
+      || (type == ContentType.DATETIMEMSEC);
+  }
+
+  /**
+   * Returns the date content, null if not a date, time or date/time.
+   *
+   * @return		the date, null if not date, time or date/time
+   */
+  public Date toAnyDateType() {
+    if (isTime())
+      return toTime();
+    else if (isTimeMsec())
+      return toTimeMsec();
+    else if (isDate())
+      return toDate();
+    else if (isDateTime())
+      return toDateTime();
+    else if (isDateTimeMsec())
+      return toDateTimeMsec();
+    else
+      return null;
+  }
+
+  /**
+   * Checks whether the cell represents a date value.
+   *
+   * @return		true if date value
+   */
+  public boolean isDate() {
+    return (getContentType() == ContentType.DATE);
+  }
+
+  /**
+   * Returns the date content, null if not a date.
+   *
+   * @return		the date, null if not date
+   */
+  public Date toDate() {
+    if (getContentType() == ContentType.DATE)
+      return new Date(raw());
+    else
+      return null;
+  }
+
+  /**
+   * Checks whether the cell represents a date/time value.
+   *
+   * @return		true if date/time value
+   */
+  public boolean isDateTime() {
+    return (getContentType() == ContentType.DATETIME);
+  }
+
+  /**
+   * Returns the date/time content, null if not a date/time.
+   *
+   * @return		the date/time, null if not date/time
+   */
+  public DateTime toDateTime() {
+    if (getContentType() == ContentType.DATETIME)
+      return new DateTime(raw());
+    else
+      return null;
+  }
+
+  /**
+   * Checks whether the cell represents a date/time msec value.
+   *
+   * @return		true if date/time msec value
+   */
+  public boolean isDateTimeMsec() {
+    return (getContentType() == ContentType.DATETIMEMSEC);
+  }
+
+  /**
+   * Returns the date/time msec content, null if not a date/time msec.
+   *
+   * @return		the date/time msec, null if not date/time msec
+   */
+  public DateTimeMsec toDateTimeMsec() {
+    if (getContentType() == ContentType.DATETIMEMSEC)
+      return new DateTimeMsec(raw());
+    else
+      return null;
+  }
+
+  /**
+   * Checks whether the cell represents a time value.
+   *
+   * @return		true if time value
+   */
+  public boolean isTime() {
+    return (getContentType() == ContentType.TIME);
+  }
+
+  /**
+   * Returns the time content, null if not a time.
+   *
+   * @return		the time, null if not time
+   */
+  public Time toTime() {
+    if (getContentType() == ContentType.TIME)
+      return new Time(raw());
+    else
+      return null;
+  }
+
+  /**
+   * Checks whether the cell represents a time/msec value.
+   *
+   * @return		true if time/msec value
+   */
+  public boolean isTimeMsec() {
+    return (getContentType() == ContentType.TIMEMSEC);
+  }
+
+  /**
+   * Returns the time/msec content, null if not a time/msec.
+   *
+   * @return		the time/msec, null if not time/msec
+   */
+  public TimeMsec toTimeMsec() {
+    if (getContentType() == ContentType.TIMEMSEC)
+      return new TimeMsec(raw());
+    else
+      return null;
+  }
+
+  /**
+   * Returns the content of the cell.
+   *
+   * @return		the content
+   * @see		#getContent()
+   */
+  @Override
+  public String toString() {
+    return getContent();
+  }
+
+  /**
+   * Returns whether the content represents a double number.
+   *
+   * @return		true if a double
+   */
+  public boolean isDouble() {
+    ContentType		type;
+
+    type = getContentType();
+    if (type == ContentType.DOUBLE)
+      return true;
+    else if (type == ContentType.STRING)
+      return checkDouble(getContent());
+    else
+      return false;
+  }
+
+  /**
+   * Returns the content as double, if possible.
+   *
+   * @return		the content as double, if representing a number,
+   * 			otherwise null
+   */
+  public Double toDouble() {
+    ContentType		type;
+
+    type = getContentType();
+    if (type == ContentType.DOUBLE) {
+      return m_Store.getDouble(slot());
+    }
+    else if (type == ContentType.LONG) {
+      return (double) raw();
+    }
+    else if (type == ContentType.STRING) {
+      try {
+	return Utils.toDouble(getContent(), getSpreadSheet().getLocale());
+      }
+      catch (Exception e) {
+	return null;
+      }
+    }
+    else {
+      return null;
+    }
+  }
+
+  /**
+   * Returns whether the content represents a long number.
+   *
+   * @return		true if a long
+   */
+  public boolean isLong() {
+    ContentType		type;
+
+    type = getContentType();
+    if (type == ContentType.LONG)
+      return true;
+    else if (type == ContentType.STRING)
+      return Utils.isLong(getContent());
+    else
+      return false;
+  }
+
+  /**
+   * Returns the content as long, if possible. First, a Double object is
+   * created and then the longValue() method called to return the value.
+   *
+   * @return		the content as long, if representing a number,
+   * 			otherwise null
+   */
+  public Long toLong() {
+    ContentType		type;
+
+    type = getContentType();
+    if (type == ContentType.LONG)
+      return raw();
+    else if (type == ContentType.STRING)
+      return Double.valueOf(getContent()).longValue();
+    return null;
+  }
+
+  /**
+   * Returns whether the content represents a formula.
+   *
+   * @return		true if a formula
+   */
+  public boolean isFormula() {
+    return (m_Store.getFormula(slot()) != null);
+  }
+
+  /**
+   * Returns whether the content represents an object.
+   *
+   * @return		true if an object
+   */
+  public boolean isObject() {
+    return (m_Store.getObject(slot()) != null);
+  }
+
+  /**
+   * Recalculates the value from the cell's formula.
+   */
+  public void calculate() {
+    Object	eval;
+    int		slot;
+
+    if (!isFormula())
+      return;
+
+    slot = slot();
+    if (!m_Store.setCalculating(slot, true)) {
+      setContentAsString(FORMULA_ERROR);
+      return;
+    }
+
+    // parse formula
+    eval = null;
+    try {
+      eval = SpreadSheetFormula.evaluate(getFormula(), new HashMap(), getSpreadSheet());
+      if ((eval instanceof Double) && (Double.isNaN((Double) eval)))
+	eval = null;
+    }
+    catch (Throwable t) {
+      System.err.println("Failed to parse formula: " + getFormula());
+      t.printStackTrace();
+      eval = FORMULA_ERROR;
+    }
+
+    m_Store.setCalculating(slot, false);
+
+    if (eval != null) {
+      if (eval instanceof Double)
+	setContent((Double) eval);
+      else if (eval instanceof Boolean)
+	setContent((Boolean) eval);
+      else
+	parseContent("" + eval);
+    }
+  }
+
+  /**
+   * Calculates the cell value if necessary.
+   */
+  protected void calculateIfRequired() {
+    if (m_Store.hasFormulas() && !m_Store.isPresent(slot()) && isFormula())
+      calculate();
+  }
+}
@@ -0,0 +1,475 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ColumnarDataRow.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.spreadsheet;
+
+import adams.event.SpreadSheetColumnInsertionEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A row of a {@link ColumnarSpreadSheet}. The row itself only stores the
+ * slot in the column storage, the cells are lightweight views that get
+ * created on demand.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ColumnarDataRow
+  implements DataRow {
+
+  private static final long serialVersionUID = -1209427580006716011L;
+
+  /** the owner. */
+  protected ColumnarSpreadSheet m_Owner;
+
+  /** the slot in the column storage. */
+  protected int m_Slot;
+
+  /**
+   * Default constructor for GOE only.
+   */
+  public ColumnarDataRow() {
+    this(null);
+  }
+
+  /**
+   * Constructor that ties row to spreadsheet.
+   *
+   * @param owner	the spreadsheet this row belongs to, must be a {@link ColumnarSpreadSheet}
+   */
+  public ColumnarDataRow(SpreadSheet owner) {
+    super();
+
+    m_Owner = check(owner);
+    m_Slot  = (m_Owner == null) ? -1 : m_Owner.allocateSlot();
+  }
+
+  /**
+   * Ensures that the spreadsheet is a {@link ColumnarSpreadSheet}.
+   *
+   * @param owner	the spreadsheet to check
+   * @return		the columnar spreadsheet
+   * @throws IllegalArgumentException	if not a columnar spreadsheet
+   */
+  protected ColumnarSpreadSheet check(SpreadSheet owner) {
+    if ((owner != null) && !(owner instanceof ColumnarSpreadSheet))
+      throw new IllegalArgumentException(
+	getClass().getName() + " requires a " + ColumnarSpreadSheet.class.getName() + " as owner, provided: " + owner.getClass().getName());
+    return (ColumnarSpreadSheet) owner;
+  }
+
+  /**
+   * Sets the spreadsheet this row belongs to.
+   * <br><br>
+   * Allocates a new slot in the new owner and copies the values across.
+   *
+   * @param owner	the owner
+   */
+  @Override
+  public void setOwner(SpreadSheet owner) {
+    ColumnarSpreadSheet	old;
+    int			oldSlot;
+    int			i;
+    int			count;
+
+    if (owner == m_Owner)
+      return;
+
+    old     = m_Owner;
+    oldSlot = m_Slot;
+    m_Owner = check(owner);
+    m_Slot  = (m_Owner == null) ? -1 : m_Owner.allocateSlot();
+
+    if ((old != null) && (m_Owner != null)) {
+      count = Math.min(old.getColumnCount(), m_Owner.getColumnCount());
+      for (i = 0; i < count; i++)
+	m_Owner.getColumnStore(i).copy(
+	  old.getColumnStore(i), oldSlot, old.getSharedStringsTable(),
+	  m_Slot, m_Owner.getSharedStringsTable());
+    }
+  }
+
+  /**
+   * Returns the spreadsheet this row belongs to.
+   *
+   * @return		the owner
+   */
+  @Override
+  public SpreadSheet getOwner() {
+    return m_Owner;
+  }
+
+  /**
+   * Returns the slot in the column storage.
+   *
+   * @return		the slot
+   */
+  public int getSlot() {
+    return m_Slot;
+  }
+
+  /**
+   * Sets the slot in the column storage.
+   *
+   * @param value	the slot
+   * @see		ColumnarSpreadSheet#compact()
+   */
+  protected void setSlot(int value) {
+    m_Slot = value;
+  }
+
+  /**
+   * Creates a copy of itself.
+   *
+   * @param owner	the new owner
+   * @return		the cloned object
+   */
+  @Override
+  public DataRow getClone(SpreadSheet owner) {
+    ColumnarDataRow	result;
+
+    result = new ColumnarDataRow(owner);
+    result.assign(this);
+
+    return result;
+  }
+
+  /**
+   * Sets all cells to missing.
+   */
+  @Override
+  public void clear() {
+    int		i;
+    ColumnStore	store;
+
+    if (m_Owner == null)
+      return;
+
+    for (i = 0; i < m_Owner.getColumnCount(); i++) {
+      store = m_Owner.getColumnStore(i);
+      store.setMissing(m_Slot);
+      store.setFormula(m_Slot, null);
+    }
+  }
+
+  /**
+   * Obtains copies of the cells from the other row, but not the owner.
+   *
+   * @param row		the row to get the cells from
+   */
+  @Override
+  public void assign(Row row) {
+    ColumnarDataRow	other;
+    int			i;
+
+    clear();
+
+    if (m_Owner == null)
+      return;
+
+    if ((row instanceof ColumnarDataRow) && (((ColumnarDataRow) row).m_Owner != null)) {
+      other = (ColumnarDataRow) row;
+      for (i = 0; i < Math.min(m_Owner.getColumnCount(), other.m_Owner.getColumnCount()); i++)
+	m_Owner.getColumnStore(i).copy(
+	  other.m_Owner.getColumnStore(i), other.m_Slot, other.m_Owner.getSharedStringsTable(),
+	  m_Slot, m_Owner.getSharedStringsTable());
+    }
+    else {
+      for (i = 0; i < m_Owner.getColumnCount(); i++) {
+	if (row.hasCell(i))
+	  getCell(i).assign(row.getCell(i));
+      }
+    }
+  }
+
+  /**
+   * Creates a new instance of a cell. Since the data is stored in the
+   * columns of the spreadsheet, this is a standalone cell.
+   *
+   * @param owner	the owner
+   * @return		the cell
+   */
+  @Override
+  public Cell newCell(Row owner) {
+    return new DoubleCell(owner);
+  }
+
+  /**
+   * Returns whether the row alread contains the cell at the specified location.
+   *
+   * @param columnIndex	the column index
+   * @return		true if the cell already exists
+   */
+  @Override
+  public boolean hasCell(int columnIndex) {
+    return (m_Owner != null) && (columnIndex >= 0) && (columnIndex < m_Owner.getColumnCount());
+  }
+
+  /**
+   * Returns whether the row alread contains the cell with the given key.
+   *
+   * @param cellKey	the key to look for
+   * @return		true if the cell already exists
+   */
+  @Override
+  public boolean hasCell(String cellKey) {
+    if (m_Owner == null)
+      return false;
+    else
+      return m_Owner.getHeaderRow().hasCell(cellKey);
+  }
+
+  /**
+   * Returns the cell for the given column, as all cells are always present.
+   *
+   * @param columnIndex	the index of the column to create
+   * @return		the cell, null if outside header bounds
+   */
+  @Override
+  public Cell addCell(int columnIndex) {
+    return getCell(columnIndex);
+  }
+
+  /**
+   * Returns the cell for the given column, as all cells are always present.
+   *
+   * @param cellKey	the key for the cell to create
+   * @return		the cell, null if outside header bounds
+   */
+  @Override
+  public Cell addCell(String cellKey) {
+    return getCell(cellKey);
+  }
+
+  /**
+   * Cells cannot be removed from columnar storage, the cell only gets set
+   * to missing. Columns get removed via {@link SpreadSheet#removeColumn(int)}.
+   *
+   * @param columnIndex	the index of the column
+   * @return		always null
+   */
+  @Override
+  public Cell removeCell(int columnIndex) {
+    Cell	cell;
+
+    cell = getCell(columnIndex);
+    if (cell != null)
+      cell.setMissing();
+
+    return null;
+  }
+
+  /**
+   * Cells cannot be removed from columnar storage, the cell only gets set
+   * to missing. Columns get removed via {@link SpreadSheet#removeColumn(String)}.
+   *
+   * @param cellKey	the key of the cell to remove
+   * @return		always null
+   */
+  @Override
+  public Cell removeCell(String cellKey) {
+    if (m_Owner == null)
+      return null;
+    else
+      return removeCell(m_Owner.getHeaderRow().indexOf(cellKey));
+  }
+
+  /**
+   * Returns the cell with the given key, null if not found.
+   *
+   * @param cellKey	the cell to look for
+   * @return		the cell or null if not found
+   */
+  @Override
+  public Cell getCell(String cellKey) {
+    if (m_Owner == null)
+      return null;
+    else
+      return getCell(m_Owner.getHeaderRow().indexOf(cellKey));
+  }
+
+  /**
+   * Returns the cell with the given index, null if not found.
+   *
+   * @param columnIndex	the index of the column
+   * @return			the cell or null if not found
+   */
+  @Override
+  public Cell getCell(int columnIndex) {
+    if (hasCell(columnIndex))
+      return new ColumnarCell(this, m_Owner.getColumnStore(columnIndex));
+    else
+      return null;
+  }
+
+  /**
+   * Returns the cell content with the given index.
+   *
+   * @param columnIndex	the index of the column
+   * @return			the content or null if not found
+   */
+  @Override
+  public String getContent(int columnIndex) {
+    if (hasCell(columnIndex))
+      return getCell(columnIndex).getContent();
+    else
+      return null;
+  }
+
+  /**
+   * Returns the cell key with the given column index.
+   *
+   * @param columnIndex	the index of the column
+   * @return			the cell key, null if invalid index
+   */
+  @Override
+  public String getCellKey(int columnIndex) {
+    if (m_Owner == null)
+      return null;
+    else
+      return m_Owner.getHeaderRow().getCellKey(columnIndex);
+  }
+
+  /**
+   * Returns a collection of all stored cell keys.
+   *
+   * @return		all cell keys (sorted according to columns)
+   */
+  @Override
+  public Collection<String> cellKeys() {
+    if (m_Owner == null)
+      return null;
+    else
+      return m_Owner.getHeaderRow().cellKeys();
+  }
+
+  /**
+   * Returns all cells.
+   *
+   * @return		the cells
+   */
+  @Override
+  public Collection<Cell> cells() {
+    List<Cell>	result;
+    int		i;
+
+    result = new ArrayList<>();
+    if (m_Owner != null) {
+      for (i = 0; i < m_Owner.getColumnCount(); i++)
+	result.add(getCell(i));
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the number of cells stored in the row.
+   *
+   * @return		the number of cells, same as columns
+   */
+  @Override
+  public int getCellCount() {
+    if (m_Owner == null)
+      return 0;
+    else
+      return m_Owner.getColumnCount();
+  }
+
+  /**
+   * Does nothing as the underlying data structure is fixed.
+   *
+   * @return		always false
+   */
+  @Override
+  public boolean removeMissing() {
+    return false;
+  }
+
+  /**
+   * Returns the column this particular cell is in (must belong to this row!).
+   *
+   * @param cell	the cell to get the column index of
+   * @return		the column index, -1 if not found
+   */
+  @Override
+  public int indexOf(Cell cell) {
+    if ((m_Owner == null) || !(cell instanceof ColumnarCell) || (cell.getOwner() != this))
+      return -1;
+    return m_Owner.indexOfColumnStore(((ColumnarCell) cell).getStore());
+  }
+
+  /**
+   * Does nothing, as the spreadsheet manages the column storage.
+   *
+   * @param e		the insertion event
+   */
+  @Override
+  public void spreadSheetColumnInserted(SpreadSheetColumnInsertionEvent e) {
+  }
+
+  /**
+   * Returns the values as comma-separated list.
+   *
+   * @return		the values of the row
+   */
+  @Override
+  public String toString() {
+    StringBuilder	result;
+    int			i;
+
+    if (m_Owner == null)
+      return getClass().getSimpleName();
+
+    result = new StringBuilder();
+    for (i = 0; i < m_Owner.getColumnCount(); i++) {
+      if (i > 0)
+	result.append(",");
+      result.append(getCell(i).toString());
+    }
+
+    return result.toString();
+  }
+
+  /**
+   * Merges its own data with the one provided by the specified row.
+   * <br><br>
+   * Assumes that this sheet's header has already been updated.
+   *
+   * @param other		the row to merge with
+   */
+  @Override
+  public void mergeWith(Row other) {
+    int		i;
+    int		start;
+
+    if (m_Owner == null)
+      return;
+
+    start = m_Owner.getColumnCount() - other.getOwner().getColumnCount();
+    for (i = 0; i < other.getOwner().getColumnCount(); i++) {
+      if (!other.hasCell(i) || other.getCell(i).isMissing())
+	getCell(start + i).setMissing();
+      else
+	getCell(start + i).assign(other.getCell(i));
+    }
+  }
+}
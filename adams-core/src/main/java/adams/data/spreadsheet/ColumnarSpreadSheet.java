@@ -0,0 +1,254 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ColumnarSpreadSheet.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.spreadsheet;
+
+import adams.data.spreadsheet.Cell.ContentType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Column-oriented spreadsheet. Instead of storing a cell object per value,
+ * the values of each column are kept in a {@link ColumnStore}, using
+ * primitive arrays, dictionary-encoded strings (based on the
+ * {@link adams.data.SharedStringsTable}) and a missing-value bitmap.
+ * Rows ({@link ColumnarDataRow}) only store their slot in the column storage
+ * and cells ({@link ColumnarCell}) are lightweight views created on demand.
+ * <br><br>
+ * Can be used by spreadsheet readers via their <code>spreadSheetType</code>
+ * option. The data row class is always {@link ColumnarDataRow}, any other
+ * class gets ignored.
+ * <br><br>
+ * Removed rows keep their slot in the column storage to keep references to
+ * them valid. Use {@link #compact()} to reclaim that space.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ColumnarSpreadSheet
+  extends DefaultSpreadSheet {
+
+  private static final long serialVersionUID = 2790404372294812203L;
+
+  /** the column storage. */
+  protected List<ColumnStore> m_Columns;
+
+  /** the number of allocated slots. */
+  protected int m_NumSlots;
+
+  /**
+   * Initializes the members.
+   */
+  @Override
+  protected void initialize() {
+    super.initialize();
+
+    m_Columns      = new ArrayList<>();
+    m_NumSlots     = 0;
+    m_DataRowClass = ColumnarDataRow.class;
+  }
+
+  /**
+   * Ignored, always uses {@link ColumnarDataRow}.
+   *
+   * @param cls		ignored
+   */
+  @Override
+  public void setDataRowClass(Class cls) {
+    super.setDataRowClass(ColumnarDataRow.class);
+  }
+
+  /**
+   * Allocates a new slot in the column storage.
+   *
+   * @return		the slot
+   */
+  protected synchronized int allocateSlot() {
+    return m_NumSlots++;
+  }
+
+  /**
+   * Returns the number of allocated slots (including the ones of removed rows).
+   *
+   * @return		the number of slots
+   */
+  public int getNumSlots() {
+    return m_NumSlots;
+  }
+
+  /**
+   * Ensures that there is column storage for every column in the header.
+   * Columns get appended via the header row, hence the lazy initialization.
+   */
+  protected void syncColumns() {
+    while (m_Columns.size() < getColumnCount())
+      m_Columns.add(new ColumnStore());
+  }
+
+  /**
+   * Returns the storage for the specified column.
+   *
+   * @param columnIndex	the index of the column
+   * @return		the storage, null if invalid index
+   */
+  public ColumnStore getColumnStore(int columnIndex) {
+    if ((columnIndex < 0) || (columnIndex >= getColumnCount()))
+      return null;
+    syncColumns();
+    return m_Columns.get(columnIndex);
+  }
+
+  /**
+   * Returns the index of the column storage.
+   *
+   * @param store	the storage to look for
+   * @return		the column index, -1 if not found
+   */
+  public int indexOfColumnStore(ColumnStore store) {
+    int		i;
+
+    for (i = 0; i < m_Columns.size(); i++) {
+      if (m_Columns.get(i) == store)
+	return i;
+    }
+
+    return -1;
+  }
+
+  /**
+   * Creates a new standalone cell, not backed by the column storage.
+   *
+   * @return		the new instance
+   */
+  @Override
+  public Cell newCell() {
+    return new DoubleCell(null);
+  }
+
+  /**
+   * Removes all cells, but leaves comments.
+   */
+  @Override
+  public void clear() {
+    super.clear();
+    m_Columns.clear();
+    m_NumSlots = 0;
+  }
+
+  /**
+   * Inserts a column at the specified location.
+   *
+   * @param columnIndex	the position of the column
+   * @param header	the name of the column
+   * @param initial	the initial value for the cells, "null" for missing
+   * 			values (in that case no cells are added)
+   * @param forceString	whether to enforce the value to be set as string
+   */
+  @Override
+  public void insertColumn(int columnIndex, String header, String initial, boolean forceString) {
+    syncColumns();
+    m_Columns.add(columnIndex, new ColumnStore());
+    super.insertColumn(columnIndex, header, initial, forceString);
+  }
+
+  /**
+   * Removes the specified column.
+   *
+   * @param columnKey	the column to remove
+   * @return		true if removed
+   */
+  @Override
+  public boolean removeColumn(String columnKey) {
+    int		index;
+
+    index = getHeaderRow().indexOf(columnKey);
+    if (index == -1)
+      return false;
+
+    syncColumns();
+    m_Columns.remove(index);
+    getHeaderRow().removeCell(columnKey);
+
+    return true;
+  }
+
+  /**
+   * Returns the all content types of the given column, if available.
+   * Uniformly typed columns without formulas only need to check for
+   * missing values.
+   *
+   * @param columnIndex	the index of the column to check
+   * @return		the content types that this column consists of
+   */
+  @Override
+  public Collection<ContentType> getContentTypes(int columnIndex) {
+    HashSet<ContentType>	result;
+    ColumnStore			store;
+
+    store = getColumnStore(columnIndex);
+    if ((store == null) || store.isMixed() || store.hasFormulas())
+      return super.getContentTypes(columnIndex);
+
+    result = new HashSet<>();
+    if (store.getType() != null) {
+      for (DataRow row: m_Rows.values()) {
+	if (store.isPresent(((ColumnarDataRow) row).getSlot())) {
+	  result.add(store.getType());
+	  break;
+	}
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Re-allocates the column storage, using the current row order and
+   * dropping the slots of removed rows.
+   * <br><br>
+   * NB: rows that were removed from the spreadsheet prior to compacting
+   * no longer reference valid data.
+   */
+  public synchronized void compact() {
+    List<ColumnStore>	columns;
+    ColumnarDataRow	row;
+    int			i;
+    int			slot;
+
+    syncColumns();
+    columns = new ArrayList<>();
+    for (i = 0; i < m_Columns.size(); i++)
+      columns.add(new ColumnStore());
+
+    slot = 0;
+    for (String key: m_RowKeys) {
+      row = (ColumnarDataRow) m_Rows.get(key);
+      for (i = 0; i < m_Columns.size(); i++)
+	columns.get(i).copy(m_Columns.get(i), row.getSlot(), m_StringsTable, slot, m_StringsTable);
+      row.setSlot(slot);
+      slot++;
+    }
+
+    m_Columns  = columns;
+    m_NumSlots = slot;
+  }
+}
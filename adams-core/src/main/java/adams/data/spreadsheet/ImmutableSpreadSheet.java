@@ -0,0 +1,627 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ImmutableSpreadSheet.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.spreadsheet;
+
+import adams.core.Immutable;
+import adams.core.exception.NotImplementedException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Read-only spreadsheet. Takes a copy of the spreadsheet it gets created
+ * from, which cannot be modified afterwards: all modifying methods of the
+ * spreadsheet, its rows and its cells throw a {@link NotImplementedException}.
+ * Alternatively, the spreadsheet can be wrapped without copying it (see
+ * {@link #ImmutableSpreadSheet(SpreadSheet, boolean)}), in which case the
+ * caller hands over ownership and must not modify it afterwards.
+ * <br><br>
+ * Since it implements {@link Immutable}, the spreadsheet gets shared rather
+ * than copied when forwarding it to multiple branches or threads. Use
+ * {@link #getClone()} to obtain a modifiable copy.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class ImmutableSpreadSheet
+  extends SpreadSheetView
+  implements Immutable {
+
+  private static final long serialVersionUID = 6186519390522106624L;
+
+  /**
+   * Read-only view of a cell.
+   */
+  public static class ImmutableCellView
+    extends CellView {
+
+    private static final long serialVersionUID = -2779126707962883937L;
+
+    /**
+     * Initializes the view.
+     *
+     * @param owner	the owning row
+     * @param cell	the cell to wrap
+     */
+    public ImmutableCellView(Row owner, Cell cell) {
+      super(owner, cell);
+    }
+
+    /**
+     * Does not expose the underlying cell.
+     *
+     * @return		the view itself
+     */
+    @Override
+    public Cell getCell() {
+      return this;
+    }
+  }
+
+  /**
+   * Read-only view of a data row.
+   */
+  public static class ImmutableDataRowView
+    extends DataRowView {
+
+    private static final long serialVersionUID = 4412658262541306167L;
+
+    /**
+     * Initializes the view.
+     *
+     * @param owner	the owning spreadsheet
+     * @param row	the row to wrap
+     */
+    public ImmutableDataRowView(SpreadSheet owner, DataRow row) {
+      super(owner, row, null);
+    }
+
+    /**
+     * Returns the cell with the given key, null if not found.
+     *
+     * @param cellKey	the cell to look for
+     * @return		the cell or null if not found
+     */
+    @Override
+    public Cell getCell(String cellKey) {
+      Cell	result;
+
+      result = m_Row.getCell(cellKey);
+      if (result != null)
+	result = new ImmutableCellView(this, result);
+
+      return result;
+    }
+
+    /**
+     * Returns the cell with the given index, null if not found.
+     *
+     * @param columnIndex	the index of the column
+     * @return			the cell or null if not found
+     */
+    @Override
+    public Cell getCell(int columnIndex) {
+      Cell	result;
+
+      result = m_Row.getCell(columnIndex);
+      if (result != null)
+	result = new ImmutableCellView(this, result);
+
+      return result;
+    }
+
+    /**
+     * Returns all cells.
+     *
+     * @return		the cells
+     */
+    @Override
+    public List<Cell> cells() {
+      List<Cell>	result;
+
+      result = new ArrayList<>();
+      for (Cell cell: m_Row.cells())
+	result.add(new ImmutableCellView(this, cell));
+
+      return result;
+    }
+
+    /**
+     * Returns the column this particular cell is in.
+     *
+     * @param cell	the cell to get the column index of
+     * @return		the column index, -1 if not found
+     */
+    @Override
+    public int indexOf(Cell cell) {
+      if (cell instanceof CellView)
+	cell = ((CellView) cell).m_Cell;
+      return m_Row.indexOf(cell);
+    }
+
+    /**
+     * Returns a modifiable copy of the row.
+     *
+     * @param owner	the new owner
+     * @return		the clone
+     */
+    @Override
+    public DataRow getClone(SpreadSheet owner) {
+      return m_Row.getClone(owner);
+    }
+
+    /**
+     * Not implemented!
+     *
+     * @param row		ignored
+     */
+    @Override
+    public void assign(Row row) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Returns a copy of the underlying data row.
+     *
+     * @return		the copy
+     */
+    @Override
+    public DataRow getDataRow() {
+      return m_Row.getClone(m_Row.getOwner());
+    }
+  }
+
+  /**
+   * Read-only copy of a header row.
+   */
+  public static class ImmutableHeaderRow
+    extends HeaderRow {
+
+    private static final long serialVersionUID = -6413405929858962236L;
+
+    /**
+     * Initializes the row with copies of the cells of the other row.
+     *
+     * @param owner	the owning spreadsheet
+     * @param row	the row to copy
+     */
+    public ImmutableHeaderRow(SpreadSheet owner, HeaderRow row) {
+      super(owner);
+
+      int	i;
+      String	key;
+      Cell	cell;
+
+      for (i = 0; i < row.getCellCount(); i++) {
+	key  = row.getCellKey(i);
+	cell = newCell(this);
+	cell.assign(row.getCell(key));
+	m_CellKeys.add(key);
+	m_Cells.put(key, cell);
+      }
+    }
+
+    /**
+     * Not implemented!
+     *
+     * @param row		ignored
+     */
+    @Override
+    public void assign(Row row) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not implemented!
+     */
+    @Override
+    public void clear() {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not implemented!
+     *
+     * @param owner	ignored
+     */
+    @Override
+    public void setOwner(SpreadSheet owner) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not implemented!
+     *
+     * @param columnIndex	ignored
+     * @return			nothing
+     */
+    @Override
+    public Cell addCell(int columnIndex) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not implemented!
+     *
+     * @param cellKey	ignored
+     * @return		nothing
+     */
+    @Override
+    public Cell addCell(String cellKey) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not implemented!
+     *
+     * @param columnIndex	ignored
+     * @return			nothing
+     */
+    @Override
+    public Cell insertCell(int columnIndex) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not implemented!
+     *
+     * @param cellKey	ignored
+     * @return		nothing
+     */
+    @Override
+    public Cell removeCell(String cellKey) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not implemented!
+     *
+     * @return		nothing
+     */
+    @Override
+    public boolean removeMissing() {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not implemented!
+     *
+     * @param other	ignored
+     */
+    @Override
+    public void mergeWith(Row other) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Returns the cell with the given key, null if not found.
+     *
+     * @param cellKey	the cell to look for
+     * @return		the read-only cell or null if not found
+     */
+    @Override
+    public Cell getCell(String cellKey) {
+      Cell	result;
+
+      result = m_Cells.get(cellKey);
+      if (result != null)
+	result = new ImmutableCellView(this, result);
+
+      return result;
+    }
+
+    /**
+     * Returns all cells.
+     *
+     * @return		the read-only cells (sorted)
+     */
+    @Override
+    public Collection<Cell> cells() {
+      List<Cell>	result;
+
+      result = new ArrayList<>();
+      for (String key: m_CellKeys)
+	result.add(new ImmutableCellView(this, m_Cells.get(key)));
+
+      return result;
+    }
+
+    /**
+     * Returns the column this particular cell is in.
+     *
+     * @param cell	the cell to get the column index of
+     * @return		the column index, -1 if not found
+     */
+    @Override
+    public int indexOf(Cell cell) {
+      if (cell instanceof CellView)
+	cell = ((CellView) cell).m_Cell;
+      return super.indexOf(cell);
+    }
+  }
+
+  /**
+   * Initializes with an empty spreadsheet.
+   */
+  public ImmutableSpreadSheet() {
+    this(new DefaultSpreadSheet());
+  }
+
+  /**
+   * Initializes the spreadsheet with a copy of the provided one.
+   * Other immutable spreadsheets get shared.
+   *
+   * @param sheet	the spreadsheet to copy
+   */
+  public ImmutableSpreadSheet(SpreadSheet sheet) {
+    this(sheet, true);
+  }
+
+  /**
+   * Initializes the spreadsheet with the provided one. Other immutable
+   * spreadsheets get shared.
+   *
+   * @param sheet	the spreadsheet to wrap
+   * @param copy	whether to copy the spreadsheet; if false, the
+   *                    spreadsheet gets wrapped as is and must not be
+   *                    modified by the caller afterwards
+   */
+  public ImmutableSpreadSheet(SpreadSheet sheet, boolean copy) {
+    super(underlying(sheet, copy), null, null);
+  }
+
+  /**
+   * Returns the spreadsheet to wrap.
+   *
+   * @param sheet	the spreadsheet to wrap
+   * @param copy	whether to copy the spreadsheet
+   * @return		the (copy of the) spreadsheet, or the underlying spreadsheet if already immutable
+   */
+  protected static SpreadSheet underlying(SpreadSheet sheet, boolean copy) {
+    if (sheet == null)
+      throw new IllegalArgumentException("Underlying spreadsheet cannot be null!");
+    if (sheet instanceof ImmutableSpreadSheet)
+      return ((ImmutableSpreadSheet) sheet).m_Sheet;
+    if (copy)
+      return sheet.getClone();
+    return sheet;
+  }
+
+  /**
+   * Turns the spreadsheet into an immutable one, if necessary, using a copy
+   * of the spreadsheet.
+   *
+   * @param sheet	the spreadsheet to convert
+   * @return		the immutable spreadsheet
+   */
+  public static ImmutableSpreadSheet toImmutable(SpreadSheet sheet) {
+    return toImmutable(sheet, true);
+  }
+
+  /**
+   * Turns the spreadsheet into an immutable one, if necessary.
+   *
+   * @param sheet	the spreadsheet to convert
+   * @param copy	whether to copy the spreadsheet; if false, the
+   *                    spreadsheet must not be modified by the caller afterwards
+   * @return		the immutable spreadsheet
+   */
+  public static ImmutableSpreadSheet toImmutable(SpreadSheet sheet, boolean copy) {
+    if (sheet instanceof ImmutableSpreadSheet)
+      return (ImmutableSpreadSheet) sheet;
+    return new ImmutableSpreadSheet(sheet, copy);
+  }
+
+  /**
+   * Wraps the data row in a read-only view.
+   *
+   * @param row		the row to wrap
+   * @return		the wrapped row
+   */
+  @Override
+  protected DataRowView wrap(DataRow row) {
+    return new ImmutableDataRowView(this, row);
+  }
+
+  /**
+   * Not implemented!
+   *
+   * @param sheet	ignored
+   */
+  @Override
+  public void assign(SpreadSheet sheet) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not implemented!
+   *
+   * @param cls		ignored
+   */
+  @Override
+  public void setDataRowClass(Class cls) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Returns a modifiable copy of the spreadsheet.
+   *
+   * @return		the clone
+   */
+  @Override
+  public SpreadSheet getClone() {
+    return m_Sheet.getClone();
+  }
+
+  /**
+   * Not implemented!
+   *
+   * @param value	ignored
+   */
+  @Override
+  public void setName(String value) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not implemented!
+   *
+   * @param comment	ignored
+   */
+  @Override
+  public void addComment(String comment) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not implemented!
+   *
+   * @param comment	ignored
+   */
+  @Override
+  public void addComment(List<String> comment) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Returns the comments.
+   *
+   * @return		the comments (read-only)
+   */
+  @Override
+  public List<String> getComments() {
+    return Collections.unmodifiableList(m_Sheet.getComments());
+  }
+
+  /**
+   * Returns a read-only copy of the header row.
+   *
+   * @return		the row
+   */
+  @Override
+  public synchronized HeaderRow getHeaderRow() {
+    if (m_HeaderRow == null)
+      m_HeaderRow = new ImmutableHeaderRow(this, m_Sheet.getHeaderRow());
+
+    return m_HeaderRow;
+  }
+
+  /**
+   * Returns a collection of all row keys.
+   *
+   * @return		the row keys (read-only)
+   */
+  @Override
+  public Collection<String> rowKeys() {
+    return Collections.unmodifiableCollection(m_Sheet.rowKeys());
+  }
+
+  /**
+   * Not implemented!
+   *
+   * @param value	ignored
+   */
+  @Override
+  public void setDateLenient(boolean value) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not implemented!
+   *
+   * @param value	ignored
+   */
+  @Override
+  public void setDateTimeLenient(boolean value) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not implemented!
+   *
+   * @param value	ignored
+   */
+  @Override
+  public void setDateTimeMsecLenient(boolean value) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not implemented!
+   *
+   * @param value	ignored
+   */
+  @Override
+  public void setTimeLenient(boolean value) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not implemented!
+   *
+   * @param value	ignored
+   */
+  @Override
+  public void setTimeMsecLenient(boolean value) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not implemented!
+   *
+   * @param value	ignored
+   */
+  @Override
+  public void setTimeZone(TimeZone value) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not implemented!
+   *
+   * @param value	ignored
+   */
+  @Override
+  public void setLocale(Locale value) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not implemented!
+   */
+  @Override
+  public void calculate() {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Returns a modifiable copy of the underlying sheet.
+   *
+   * @return		the copy
+   */
+  @Override
+  public SpreadSheet getSheet() {
+    return m_Sheet.getClone();
+  }
+}
@@ -15,7 +15,7 @@
 
 /*
  * AbstractDatabaseConnection.java
- * Copyright (C) 2008-2019 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2008-2026 University of Waikato, Hamilton, New Zealand
  *
  */
 
@@ -39,6 +39,7 @@ import adams.event.DatabaseConnectionChangeListener;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -112,9 +113,30 @@ public abstract class AbstractDatabaseConnection
   /** autocommit? */
   protected boolean m_AutoCommit;
 
+  /** whether to use a connection pool. */
+  protected boolean m_Pooled;
+
+  /** the minimum number of pooled connections. */
+  protected int m_PoolMinSize;
+
+  /** the maximum number of pooled connections. */
+  protected int m_PoolMaxSize;
+
+  /** the idle timeout in seconds for pooled connections. */
+  protected int m_PoolIdleTimeout;
+
+  /** the maximum time in msec to wait for a pooled connection. */
+  protected int m_PoolMaxWait;
+
+  /** the timeout in seconds for validating pooled connections. */
+  protected int m_PoolValidationTimeout;
+
   /** The database connection. */
   protected transient Connection m_Connection;
 
+  /** the connection pool, if pooled. */
+  protected transient volatile ConnectionPool m_Pool;
+
   /** whether we could connect successfully. */
   protected boolean m_ConnectionOK;
 
@@ -175,6 +197,7 @@ public abstract class AbstractDatabaseConnection
     Drivers.getSingleton();
 
     m_Connection            = null;
+    m_Pool                  = null;
     m_FailedConnectAttempts = new Hashtable<>();
     m_ConnectionOK          = false;
     m_LastConnectionError   = "";
@@ -267,6 +290,30 @@ public abstract class AbstractDatabaseConnection
     m_OptionManager.add(
 	"auto-commit", "autoCommit",
 	getDefaultAutoCommit());
+
+    m_OptionManager.add(
+	"pooled", "pooled",
+	false);
+
+    m_OptionManager.add(
+	"pool-min-size", "poolMinSize",
+	1, 0, null);
+
+    m_OptionManager.add(
+	"pool-max-size", "poolMaxSize",
+	8, 1, null);
+
+    m_OptionManager.add(
+	"pool-idle-timeout", "poolIdleTimeout",
+	300, 0, null);
+
+    m_OptionManager.add(
+	"pool-max-wait", "poolMaxWait",
+	30000, 0, null);
+
+    m_OptionManager.add(
+	"pool-validation-timeout", "poolValidationTimeout",
+	5, 0, null);
   }
 
   /**
@@ -767,6 +814,270 @@ public abstract class AbstractDatabaseConnection
     return "Whether to set the auto-commit property for the connection.";
   }
 
+  /**
+   * Returns whether to use a pool of connections, leasing a separate
+   * connection to each thread.
+   *
+   * @return		true if pooled
+   */
+  public boolean getPooled() {
+    return m_Pooled;
+  }
+
+  /**
+   * Sets whether to use a pool of connections, leasing a separate
+   * connection to each thread. Has no effect if already connected.
+   *
+   * @param value	true if pooled
+   */
+  public void setPooled(boolean value) {
+    if (isConnected())
+      return;
+
+    m_Pooled       = value;
+    m_ConnectionOK = false;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String pooledTipText() {
+    return
+      "If enabled, a pool of connections is used instead of a single connection, "
+	+ "with each thread leasing its own connection.";
+  }
+
+  /**
+   * Returns the minimum number of connections to keep open in the pool.
+   *
+   * @return		the minimum
+   */
+  public int getPoolMinSize() {
+    return m_PoolMinSize;
+  }
+
+  /**
+   * Sets the minimum number of connections to keep open in the pool.
+   * Has no effect if already connected.
+   *
+   * @param value	the minimum
+   */
+  public void setPoolMinSize(int value) {
+    if (isConnected())
+      return;
+
+    if (getOptionManager().isValid("poolMinSize", value)) {
+      m_PoolMinSize  = value;
+      m_ConnectionOK = false;
+    }
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String poolMinSizeTipText() {
+    return "The minimum number of connections to keep open in the pool.";
+  }
+
+  /**
+   * Returns the maximum number of connections in the pool.
+   *
+   * @return		the maximum
+   */
+  public int getPoolMaxSize() {
+    return m_PoolMaxSize;
+  }
+
+  /**
+   * Sets the maximum number of connections in the pool.
+   * Has no effect if already connected.
+   *
+   * @param value	the maximum
+   */
+  public void setPoolMaxSize(int value) {
+    if (isConnected())
+      return;
+
+    if (getOptionManager().isValid("poolMaxSize", value)) {
+      m_PoolMaxSize  = value;
+      m_ConnectionOK = false;
+    }
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String poolMaxSizeTipText() {
+    return "The maximum number of connections in the pool.";
+  }
+
+  /**
+   * Returns the time after which idle connections in the pool get closed.
+   *
+   * @return		the timeout in seconds, 0 to keep them open
+   */
+  public int getPoolIdleTimeout() {
+    return m_PoolIdleTimeout;
+  }
+
+  /**
+   * Sets the time after which idle connections in the pool get closed.
+   * Has no effect if already connected.
+   *
+   * @param value	the timeout in seconds, 0 to keep them open
+   */
+  public void setPoolIdleTimeout(int value) {
+    if (isConnected())
+      return;
+
+    if (getOptionManager().isValid("poolIdleTimeout", value)) {
+      m_PoolIdleTimeout = value;
+      m_ConnectionOK    = false;
+    }
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String poolIdleTimeoutTipText() {
+    return
+      "The time in seconds after which idle connections in the pool get closed "
+	+ "(as long as the minimum number of connections remains open); 0 keeps them open.";
+  }
+
+  /**
+   * Returns the maximum time to wait for a connection from the pool.
+   *
+   * @return		the maximum in msec, 0 to wait forever
+   */
+  public int getPoolMaxWait() {
+    return m_PoolMaxWait;
+  }
+
+  /**
+   * Sets the maximum time to wait for a connection from the pool.
+   * Has no effect if already connected.
+   *
+   * @param value	the maximum in msec, 0 to wait forever
+   */
+  public void setPoolMaxWait(int value) {
+    if (isConnected())
+      return;
+
+    if (getOptionManager().isValid("poolMaxWait", value)) {
+      m_PoolMaxWait  = value;
+      m_ConnectionOK = false;
+    }
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String poolMaxWaitTipText() {
+    return "The maximum time in msec to wait for a connection from the pool; 0 waits forever.";
+  }
+
+  /**
+   * Returns the timeout for validating connections borrowed from the pool.
+   *
+   * @return		the timeout in seconds, 0 to only check whether closed
+   */
+  public int getPoolValidationTimeout() {
+    return m_PoolValidationTimeout;
+  }
+
+  /**
+   * Sets the timeout for validating connections borrowed from the pool.
+   * Has no effect if already connected.
+   *
+   * @param value	the timeout in seconds, 0 to only check whether closed
+   */
+  public void setPoolValidationTimeout(int value) {
+    if (isConnected())
+      return;
+
+    if (getOptionManager().isValid("poolValidationTimeout", value)) {
+      m_PoolValidationTimeout = value;
+      m_ConnectionOK          = false;
+    }
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String poolValidationTimeoutTipText() {
+    return
+      "The timeout in seconds for validating connections when borrowing them "
+	+ "from the pool; 0 only checks whether they have been closed.";
+  }
+
+  /**
+   * Configures the pooled mode in one go. Disconnects first if connected and
+   * the settings differ from the current ones.
+   *
+   * @param pooled	whether to use a connection pool
+   * @param minSize	the minimum number of connections
+   * @param maxSize	the maximum number of connections
+   * @param idleTimeout	the idle timeout in seconds
+   * @param maxWait	the maximum wait in msec
+   * @param validationTimeout	the validation timeout in seconds
+   * @return		true if the settings changed
+   */
+  public synchronized boolean configurePool(boolean pooled, int minSize, int maxSize, int idleTimeout, int maxWait, int validationTimeout) {
+    boolean	result;
+
+    result = (pooled != m_Pooled);
+    if (pooled) {
+      result = result
+	|| (minSize != m_PoolMinSize)
+	|| (maxSize != m_PoolMaxSize)
+	|| (idleTimeout != m_PoolIdleTimeout)
+	|| (maxWait != m_PoolMaxWait)
+	|| (validationTimeout != m_PoolValidationTimeout);
+    }
+
+    if (result) {
+      if (isConnected())
+	disconnect();
+      setPooled(pooled);
+      setPoolMinSize(minSize);
+      setPoolMaxSize(maxSize);
+      setPoolIdleTimeout(idleTimeout);
+      setPoolMaxWait(maxWait);
+      setPoolValidationTimeout(validationTimeout);
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the connection pool, if connected in pooled mode.
+   *
+   * @return		the pool, null if not available
+   * @see		#getPooled()
+   */
+  public ConnectionPool getPool() {
+    return m_Pool;
+  }
+
   /**
    * Returns the current connection parameters.
    *
@@ -905,21 +1216,54 @@ public abstract class AbstractDatabaseConnection
   }
 
   /**
-   * Return db connection.
+   * Return db connection. In pooled mode, this is the connection leased to
+   * the current thread.
+   *
    * @param keepTrying	continue attempting to connect
    * @return	new Connection
+   * @see	#getPooled()
    */
-  public synchronized Connection getConnection(boolean keepTrying) {
-    if (!m_ConnectionOK) {
-      if (keepTrying) {
-	if (!tryConnection())
+  public Connection getConnection(boolean keepTrying) {
+    ConnectionPool	pool;
+
+    synchronized(this) {
+      if (!m_ConnectionOK) {
+	if (keepTrying) {
+	  if (!tryConnection())
+	    return null;
+	}
+	else {
 	  return null;
+	}
       }
-      else {
-	return null;
-      }
+      if (m_Pool == null)
+	return m_Connection;
+      pool = m_Pool;
+    }
+
+    // wait for pooled connection outside the monitor
+    try {
+      return pool.lease();
+    }
+    catch (SQLException e) {
+      m_LastConnectionError = e.toString();
+      getLogger().log(Level.SEVERE, "Failed to obtain pooled connection", e);
+      return null;
     }
-    return m_Connection;
+  }
+
+  /**
+   * Returns the connection leased by the current thread to the pool.
+   * Does nothing if not in pooled mode.
+   *
+   * @see	#getPooled()
+   */
+  public void releaseConnection() {
+    ConnectionPool	pool;
+
+    pool = m_Pool;
+    if (pool != null)
+      pool.release();
   }
 
   /**
@@ -981,6 +1325,13 @@ public abstract class AbstractDatabaseConnection
   public synchronized boolean isConnected() {
     boolean 	result;
 
+    if (m_Pool != null) {
+      result = !m_Pool.isClosed();
+      if (!result)
+	m_Pool = null;
+      return result;
+    }
+
     result = (m_Connection != null);
     if (result) {
       try {
@@ -1012,6 +1363,31 @@ public abstract class AbstractDatabaseConnection
     }
   }
 
+  /**
+   * Creates a new JDBC connection using the current URL, user and password,
+   * applying the auto-commit setting.
+   *
+   * @return		the connection
+   * @throws SQLException	if connecting fails
+   */
+  protected Connection createConnection() throws SQLException {
+    Connection	result;
+
+    if (m_User.equals(""))
+      result = DriverManager.getConnection(m_URL);
+    else
+      result = DriverManager.getConnection(m_URL, m_User, m_Password.getValue());
+
+    try {
+      result.setAutoCommit(m_AutoCommit);
+    }
+    catch (Exception e) {
+      getLogger().log(Level.SEVERE, "Failed to set autocommit", e);
+    }
+
+    return result;
+  }
+
   /**
    * Try to make a connection to the database, with the url,username and password.
    *
@@ -1032,18 +1408,27 @@ public abstract class AbstractDatabaseConnection
 	return false;
       }
 
-      try {
-	if (m_User.equals(""))
-	  m_Connection = DriverManager.getConnection(m_URL);
-	else
-	  m_Connection = DriverManager.getConnection(m_URL,m_User,m_Password.getValue());
+      if (m_Pooled) {
+	try {
+	  m_Pool = new ConnectionPool(this, m_PoolMinSize, Math.max(m_PoolMinSize, m_PoolMaxSize), m_PoolIdleTimeout, m_PoolMaxWait, m_PoolValidationTimeout);
+	  m_Pool.initialize();
+	}
+	catch (Exception e) {
+	  m_Pool                = null;
+	  m_LastConnectionError = e.toString();
+	}
       }
-      catch(Exception e) {
-	m_Connection          = null;
-	m_LastConnectionError = e.toString();
+      else {
+	try {
+	  m_Connection = createConnection();
+	}
+	catch(Exception e) {
+	  m_Connection          = null;
+	  m_LastConnectionError = e.toString();
+	}
       }
 
-      if (m_Connection == null) {
+      if ((m_Connection == null) && (m_Pool == null)) {
 	getLogger().severe(
 	    "Cannot connect: " + m_LastConnectionError + "\n"
 		+ "- URL: " + m_URL + "\n"
@@ -1054,14 +1439,16 @@ public abstract class AbstractDatabaseConnection
       }
     }
 
-    try {
-      if (m_AutoCommit)
-	m_Connection.setAutoCommit(true);
-      else
-	m_Connection.setAutoCommit(false);
-    }
-    catch(Exception e) {
-      getLogger().log(Level.SEVERE, "Failed to set autocommit", e);
+    if (m_Connection != null) {
+      try {
+	if (m_AutoCommit)
+	  m_Connection.setAutoCommit(true);
+	else
+	  m_Connection.setAutoCommit(false);
+      }
+      catch(Exception e) {
+	getLogger().log(Level.SEVERE, "Failed to set autocommit", e);
+      }
     }
 
     m_ConnectionOK = isConnected();
@@ -1094,6 +1481,13 @@ public abstract class AbstractDatabaseConnection
       }
       m_Connection = null;
     }
+    if (m_Pool != null) {
+      getLogger().info("closing connection pool: " + m_URL);
+      if (isLoggingEnabled())
+	getLogger().info(m_Pool.getStatistics());
+      m_Pool.close();
+      m_Pool = null;
+    }
 
     m_ConnectionOK = false;
 
@@ -1430,6 +1824,7 @@ public abstract class AbstractDatabaseConnection
     // non-option-related members
     if (isConnected()) {
       result.m_Connection          = m_Connection;
+      result.m_Pool                = m_Pool;
       result.m_ConnectionOK        = m_ConnectionOK;
       result.m_LastConnectionError = m_LastConnectionError;
     }
@@ -1467,6 +1862,7 @@ public abstract class AbstractDatabaseConnection
     result += ", user=" + getUser();
     result += ", password=" + getPassword();
     result += ", connected=" + isConnected();
+    result += ", pooled=" + getPooled();
     result += ", #listeners=" + getChangeListeners().size();
 
     return result;
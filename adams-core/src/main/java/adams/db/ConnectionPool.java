@@ -0,0 +1,859 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ConnectionPool.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.db;
+
+import adams.core.logging.CustomLoggingLevelObject;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+
+/**
+ * Pool of JDBC connections for a database connection object.
+ * <br><br>
+ * Connections get leased per thread: the first time a thread requests a
+ * connection, one gets borrowed from the pool and stays with the thread
+ * until it gets released explicitly, the enclosing scope is left (see
+ * {@link #enterScope()}/{@link #leaveScope()}) or the thread terminates.
+ * Borrowed connections get validated first. Idle connections that exceed
+ * the idle timeout get closed, as long as the minimum number of connections
+ * is still available.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ConnectionPool
+  extends CustomLoggingLevelObject {
+
+  private static final long serialVersionUID = 2944018466612035720L;
+
+  /** the interval in nano-seconds for checking for connections of terminated threads while waiting. */
+  public final static long RECLAIM_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * Container for a pooled connection.
+   */
+  protected static class PooledConnection {
+
+    /** the actual connection. */
+    public Connection connection;
+
+    /** the timestamp when it was last returned to the pool. */
+    public long lastUsed;
+
+    /**
+     * Initializes the container.
+     *
+     * @param connection	the connection to manage
+     */
+    public PooledConnection(Connection connection) {
+      this.connection = connection;
+      this.lastUsed   = System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * Container for the connection usage scope of a thread.
+   */
+  protected static class Scope {
+
+    /** the nesting depth. */
+    public int depth;
+
+    /** the pools that leased connections within the scope. */
+    public Set<ConnectionPool> pools = new HashSet<>();
+  }
+
+  /** the scopes per thread. */
+  protected final static ThreadLocal<Scope> SCOPES = ThreadLocal.withInitial(Scope::new);
+
+  /** the database connection that the pool belongs to. */
+  protected AbstractDatabaseConnection m_Owner;
+
+  /** the minimum number of connections to keep. */
+  protected int m_MinSize;
+
+  /** the maximum number of connections. */
+  protected int m_MaxSize;
+
+  /** the idle timeout in seconds (0 = never evict). */
+  protected int m_IdleTimeout;
+
+  /** the maximum time in msec to wait for a connection (0 = wait forever). */
+  protected int m_MaxWait;
+
+  /** the timeout in seconds for validating a connection (0 = only check closed state). */
+  protected int m_ValidationTimeout;
+
+  /** the idle connections, most recently used ones first. */
+  protected Deque<PooledConnection> m_Idle;
+
+  /** the leased connections (thread - connection). */
+  protected Map<Thread,PooledConnection> m_Leases;
+
+  /** for guarding the idle connections. */
+  protected ReentrantLock m_Lock;
+
+  /** for signaling that a connection became available. */
+  protected Condition m_Available;
+
+  /** the total number of open connections. */
+  protected int m_Total;
+
+  /** whether the pool got closed. */
+  protected volatile boolean m_Closed;
+
+  /** for evicting idle connections. */
+  protected transient Timer m_Evictor;
+
+  /** the number of connections that got borrowed. */
+  protected long m_BorrowCount;
+
+  /** the total time in nano-seconds spent waiting for connections. */
+  protected long m_BorrowWait;
+
+  /** the maximum time in nano-seconds spent waiting for a connection. */
+  protected long m_MaxBorrowWait;
+
+  /** the number of connections that got created. */
+  protected long m_CreatedCount;
+
+  /** the number of connections that failed validation. */
+  protected long m_InvalidCount;
+
+  /** the number of idle connections that got evicted. */
+  protected long m_EvictedCount;
+
+  /** the number of borrow attempts that timed out. */
+  protected long m_TimeoutCount;
+
+  /**
+   * Initializes the pool.
+   *
+   * @param owner		the database connection object that creates the connections
+   * @param minSize		the minimum number of connections to keep open
+   * @param maxSize		the maximum number of connections
+   * @param idleTimeout		the timeout in seconds after which idle connections get closed, 0 to keep them
+   * @param maxWait		the maximum time in msec to wait for a connection, 0 to wait forever
+   * @param validationTimeout	the timeout in seconds for validating connections, 0 to only check whether closed
+   */
+  public ConnectionPool(AbstractDatabaseConnection owner, int minSize, int maxSize, int idleTimeout, int maxWait, int validationTimeout) {
+    super();
+
+    if (maxSize < 1)
+      throw new IllegalArgumentException("Maximum pool size must be at least 1: " + maxSize);
+    if ((minSize < 0) || (minSize > maxSize))
+      throw new IllegalArgumentException("Minimum pool size must be between 0 and " + maxSize + ": " + minSize);
+
+    m_Owner             = owner;
+    m_MinSize           = minSize;
+    m_MaxSize           = maxSize;
+    m_IdleTimeout       = idleTimeout;
+    m_MaxWait           = maxWait;
+    m_ValidationTimeout = validationTimeout;
+    m_Idle              = new ArrayDeque<>();
+    m_Leases            = new ConcurrentHashMap<>();
+    m_Lock              = new ReentrantLock();
+    m_Available         = m_Lock.newCondition();
+    m_Total             = 0;
+    m_Closed            = false;
+    m_Evictor           = null;
+
+    setLoggingLevel(owner.getLoggingLevel());
+  }
+
+  /**
+   * Opens the minimum number of connections (at least one, to ensure that the
+   * connection parameters are correct) and starts the eviction of idle
+   * connections.
+   *
+   * @throws SQLException	if connecting fails
+   */
+  public void initialize() throws SQLException {
+    List<PooledConnection>	conns;
+    int				i;
+
+    conns = new ArrayList<>();
+    try {
+      for (i = 0; i < Math.max(1, m_MinSize); i++)
+	conns.add(new PooledConnection(m_Owner.createConnection()));
+    }
+    catch (SQLException e) {
+      for (PooledConnection conn: conns)
+	closeQuietly(conn);
+      throw e;
+    }
+
+    m_Lock.lock();
+    try {
+      for (PooledConnection conn: conns)
+	m_Idle.addLast(conn);
+      m_Total        += conns.size();
+      m_CreatedCount += conns.size();
+    }
+    finally {
+      m_Lock.unlock();
+    }
+
+    if (m_IdleTimeout > 0) {
+      m_Evictor = new Timer(getClass().getSimpleName() + "-" + m_Owner.toStringShort(), true);
+      m_Evictor.schedule(new TimerTask() {
+	@Override
+	public void run() {
+	  evict();
+	}
+      }, m_IdleTimeout * 500L, m_IdleTimeout * 500L);
+    }
+  }
+
+  /**
+   * Returns the minimum number of connections to keep open.
+   *
+   * @return		the minimum
+   */
+  public int getMinSize() {
+    return m_MinSize;
+  }
+
+  /**
+   * Returns the maximum number of connections.
+   *
+   * @return		the maximum
+   */
+  public int getMaxSize() {
+    return m_MaxSize;
+  }
+
+  /**
+   * Returns the timeout after which idle connections get closed.
+   *
+   * @return		the timeout in seconds, 0 if never closed
+   */
+  public int getIdleTimeout() {
+    return m_IdleTimeout;
+  }
+
+  /**
+   * Returns the maximum time to wait for a connection.
+   *
+   * @return		the maximum in msec, 0 if waiting forever
+   */
+  public int getMaxWait() {
+    return m_MaxWait;
+  }
+
+  /**
+   * Returns the timeout for validating connections.
+   *
+   * @return		the timeout in seconds, 0 if only checking closed state
+   */
+  public int getValidationTimeout() {
+    return m_ValidationTimeout;
+  }
+
+  /**
+   * Returns whether the pool has been closed.
+   *
+   * @return		true if closed
+   */
+  public boolean isClosed() {
+    return m_Closed;
+  }
+
+  /**
+   * Closes the connection, ignoring any errors.
+   *
+   * @param conn	the connection to close
+   */
+  protected void closeQuietly(PooledConnection conn) {
+    try {
+      conn.connection.close();
+    }
+    catch (Exception e) {
+      getLogger().log(Level.WARNING, "Failed to close connection", e);
+    }
+  }
+
+  /**
+   * Checks whether the connection is still usable.
+   *
+   * @param conn	the connection to check
+   * @return		true if valid
+   */
+  protected boolean isValid(PooledConnection conn) {
+    try {
+      if (m_ValidationTimeout > 0)
+	return conn.connection.isValid(m_ValidationTimeout);
+      else
+	return !conn.connection.isClosed();
+    }
+    catch (Throwable t) {
+      // older drivers may not implement isValid
+      try {
+	return !conn.connection.isClosed();
+      }
+      catch (Exception e) {
+	return false;
+      }
+    }
+  }
+
+  /**
+   * Closes the connection and removes it from the total count.
+   *
+   * @param conn	the connection to discard
+   */
+  protected void discard(PooledConnection conn) {
+    closeQuietly(conn);
+    m_Lock.lock();
+    try {
+      m_Total--;
+      m_Available.signal();
+    }
+    finally {
+      m_Lock.unlock();
+    }
+  }
+
+  /**
+   * Borrows a connection from the pool, creating a new one if none is idle
+   * and the maximum has not been reached yet. Otherwise waits for a
+   * connection to become available.
+   *
+   * @return		the connection
+   * @throws SQLException	if pool closed, creating the connection failed or timed out
+   */
+  protected PooledConnection borrow() throws SQLException {
+    PooledConnection	result;
+    long		start;
+    long		deadline;
+    long		remaining;
+    boolean		create;
+    boolean		reclaim;
+    boolean		reclaimed;
+    long		wait;
+
+    result    = null;
+    start     = System.nanoTime();
+    deadline  = start + TimeUnit.MILLISECONDS.toNanos(m_MaxWait);
+    reclaimed = false;
+
+    while (result == null) {
+      create  = false;
+      reclaim = false;
+      m_Lock.lock();
+      try {
+	if (m_Closed)
+	  throw new SQLException("Connection pool has been closed: " + m_Owner.toStringShort());
+	result = m_Idle.pollFirst();
+	if (result == null) {
+	  if (m_Total < m_MaxSize) {
+	    m_Total++;
+	    create = true;
+	  }
+	  else if (!reclaimed) {
+	    // returning connections may roll back, which must not happen under the lock
+	    reclaim = true;
+	  }
+	  else {
+	    reclaimed = false;
+	    remaining = deadline - System.nanoTime();
+	    if ((m_MaxWait > 0) && (remaining <= 0)) {
+	      m_TimeoutCount++;
+	      throw new SQLException(
+		"Timed out waiting for connection after " + m_MaxWait + "msec (active: " + m_Leases.size() + "): " + m_Owner.toStringShort());
+	    }
+	    // wake up regularly to reclaim connections of terminated threads
+	    if (m_MaxWait > 0)
+	      m_Available.awaitNanos(Math.min(remaining, RECLAIM_INTERVAL));
+	    else
+	      m_Available.awaitNanos(RECLAIM_INTERVAL);
+	  }
+	}
+      }
+      catch (InterruptedException e) {
+	throw new SQLException("Interrupted while waiting for connection: " + m_Owner.toStringShort(), e);
+      }
+      finally {
+	m_Lock.unlock();
+      }
+
+      if (reclaim) {
+	reclaim();
+	reclaimed = true;
+      }
+      else if (create) {
+	try {
+	  result = new PooledConnection(m_Owner.createConnection());
+	}
+	catch (SQLException e) {
+	  m_Lock.lock();
+	  try {
+	    m_Total--;
+	    m_Available.signal();
+	  }
+	  finally {
+	    m_Lock.unlock();
+	  }
+	  throw e;
+	}
+	m_Lock.lock();
+	try {
+	  m_CreatedCount++;
+	}
+	finally {
+	  m_Lock.unlock();
+	}
+      }
+      else if ((result != null) && !isValid(result)) {
+	getLogger().warning("Discarding invalid connection: " + m_Owner.toStringShort());
+	discard(result);
+	m_Lock.lock();
+	try {
+	  m_InvalidCount++;
+	}
+	finally {
+	  m_Lock.unlock();
+	}
+	result = null;
+      }
+    }
+
+    wait = System.nanoTime() - start;
+    m_Lock.lock();
+    try {
+      m_BorrowCount++;
+      m_BorrowWait   += wait;
+      m_MaxBorrowWait = Math.max(m_MaxBorrowWait, wait);
+    }
+    finally {
+      m_Lock.unlock();
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the connection to the pool. Connections that are closed get
+   * discarded. Any pending transaction gets rolled back if auto-commit is
+   * off.
+   *
+   * @param conn	the connection to return
+   */
+  protected void giveBack(PooledConnection conn) {
+    boolean	closed;
+
+    try {
+      closed = conn.connection.isClosed();
+      if (!closed && !conn.connection.getAutoCommit())
+	conn.connection.rollback();
+    }
+    catch (Exception e) {
+      closed = true;
+    }
+
+    if (closed || m_Closed) {
+      discard(conn);
+      return;
+    }
+
+    conn.lastUsed = System.currentTimeMillis();
+    m_Lock.lock();
+    try {
+      m_Idle.addFirst(conn);
+      m_Available.signal();
+    }
+    finally {
+      m_Lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the connections leased by threads that have terminated to the
+   * pool.
+   *
+   * @return		the number of connections that were reclaimed
+   */
+  protected int reclaim() {
+    int						result;
+    Iterator<Map.Entry<Thread,PooledConnection>>	iter;
+    Map.Entry<Thread,PooledConnection>		entry;
+
+    result = 0;
+    iter   = m_Leases.entrySet().iterator();
+    while (iter.hasNext()) {
+      entry = iter.next();
+      if (!entry.getKey().isAlive()) {
+	if (m_Leases.remove(entry.getKey(), entry.getValue())) {
+	  giveBack(entry.getValue());
+	  result++;
+	}
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the connection leased to the current thread, borrowing one from
+   * the pool if necessary.
+   *
+   * @return		the connection
+   * @throws SQLException	if pool closed, creating the connection failed or timed out
+   */
+  public Connection lease() throws SQLException {
+    Thread		thread;
+    PooledConnection	conn;
+
+    thread = Thread.currentThread();
+    conn   = m_Leases.get(thread);
+    if (conn != null) {
+      try {
+	if (!conn.connection.isClosed()) {
+	  addToScope();
+	  return conn.connection;
+	}
+      }
+      catch (Exception e) {
+	// ignored
+      }
+      m_Leases.remove(thread);
+      discard(conn);
+    }
+
+    conn = borrow();
+    m_Leases.put(thread, conn);
+    addToScope();
+
+    return conn.connection;
+  }
+
+  /**
+   * Records the pool with the scope of the current thread, if any.
+   */
+  protected void addToScope() {
+    Scope	scope;
+
+    scope = SCOPES.get();
+    if (scope.depth > 0)
+      scope.pools.add(this);
+  }
+
+  /**
+   * Enters a connection usage scope for the current thread. Scopes can be
+   * nested. Connections that get leased within the outermost scope get
+   * returned to their pools once that scope is left.
+   *
+   * @see		#leaveScope()
+   */
+  public static void enterScope() {
+    SCOPES.get().depth++;
+  }
+
+  /**
+   * Leaves the connection usage scope of the current thread. If this was the
+   * outermost scope, all connections that the thread leased within the scope
+   * get returned to their pools.
+   *
+   * @see		#enterScope()
+   */
+  public static void leaveScope() {
+    Scope	scope;
+
+    scope = SCOPES.get();
+    if (scope.depth == 0)
+      return;
+    scope.depth--;
+    if (scope.depth > 0)
+      return;
+    for (ConnectionPool pool: scope.pools)
+      pool.release();
+    scope.pools.clear();
+  }
+
+  /**
+   * Returns the connection leased by the current thread (if any) to the pool.
+   */
+  public void release() {
+    PooledConnection	conn;
+
+    conn = m_Leases.remove(Thread.currentThread());
+    if (conn != null)
+      giveBack(conn);
+  }
+
+  /**
+   * Reclaims the connections of terminated threads and closes idle
+   * connections that exceeded the idle timeout, while keeping the minimum
+   * number of connections open.
+   */
+  public void evict() {
+    List<PooledConnection>	evicted;
+    Iterator<PooledConnection>	iter;
+    PooledConnection		conn;
+    long			limit;
+
+    if (m_Closed)
+      return;
+
+    reclaim();
+    if (m_IdleTimeout <= 0)
+      return;
+
+    evicted = new ArrayList<>();
+    limit   = System.currentTimeMillis() - m_IdleTimeout * 1000L;
+    m_Lock.lock();
+    try {
+      // least recently used ones are at the end
+      iter = m_Idle.descendingIterator();
+      while (iter.hasNext() && (m_Total > m_MinSize)) {
+	conn = iter.next();
+	if (conn.lastUsed >= limit)
+	  break;
+	iter.remove();
+	evicted.add(conn);
+	m_Total--;
+	m_EvictedCount++;
+      }
+    }
+    finally {
+      m_Lock.unlock();
+    }
+
+    for (PooledConnection c: evicted)
+      closeQuietly(c);
+    if (!evicted.isEmpty() && isLoggingEnabled())
+      getLogger().info("Evicted " + evicted.size() + " idle connection(s): " + m_Owner.toStringShort());
+  }
+
+  /**
+   * Closes the pool and all its connections, including leased ones.
+   */
+  public void close() {
+    List<PooledConnection>	conns;
+
+    m_Lock.lock();
+    try {
+      if (m_Closed)
+	return;
+      m_Closed = true;
+      conns    = new ArrayList<>(m_Idle);
+      conns.addAll(m_Leases.values());
+      m_Idle.clear();
+      m_Leases.clear();
+      m_Total = 0;
+      m_Available.signalAll();
+    }
+    finally {
+      m_Lock.unlock();
+    }
+
+    if (m_Evictor != null) {
+      m_Evictor.cancel();
+      m_Evictor = null;
+    }
+
+    for (PooledConnection conn: conns)
+      closeQuietly(conn);
+  }
+
+  /**
+   * Returns the number of connections that are currently leased.
+   *
+   * @return		the number of active connections
+   */
+  public int getActiveCount() {
+    return m_Leases.size();
+  }
+
+  /**
+   * Returns the number of idle connections.
+   *
+   * @return		the number of idle connections
+   */
+  public int getIdleCount() {
+    m_Lock.lock();
+    try {
+      return m_Idle.size();
+    }
+    finally {
+      m_Lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the total number of open connections.
+   *
+   * @return		the number of connections
+   */
+  public int getTotalCount() {
+    m_Lock.lock();
+    try {
+      return m_Total;
+    }
+    finally {
+      m_Lock.unlock();
+    }
+  }
+
+  /**
+   * Returns how many times connections were borrowed from the pool.
+   *
+   * @return		the number of borrows
+   */
+  public long getBorrowCount() {
+    m_Lock.lock();
+    try {
+      return m_BorrowCount;
+    }
+    finally {
+      m_Lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the average time spent waiting for a connection when borrowing.
+   *
+   * @return		the average wait in msec
+   */
+  public double getAverageBorrowWait() {
+    m_Lock.lock();
+    try {
+      if (m_BorrowCount == 0)
+	return 0.0;
+      return (double) m_BorrowWait / m_BorrowCount / 1000000.0;
+    }
+    finally {
+      m_Lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the maximum time spent waiting for a connection when borrowing.
+   *
+   * @return		the maximum wait in msec
+   */
+  public double getMaxBorrowWait() {
+    m_Lock.lock();
+    try {
+      return m_MaxBorrowWait / 1000000.0;
+    }
+    finally {
+      m_Lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of connections that were created.
+   *
+   * @return		the number of connections
+   */
+  public long getCreatedCount() {
+    m_Lock.lock();
+    try {
+      return m_CreatedCount;
+    }
+    finally {
+      m_Lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of connections that failed validation.
+   *
+   * @return		the number of connections
+   */
+  public long getInvalidCount() {
+    m_Lock.lock();
+    try {
+      return m_InvalidCount;
+    }
+    finally {
+      m_Lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of idle connections that got evicted.
+   *
+   * @return		the number of connections
+   */
+  public long getEvictedCount() {
+    m_Lock.lock();
+    try {
+      return m_EvictedCount;
+    }
+    finally {
+      m_Lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of borrow attempts that timed out.
+   *
+   * @return		the number of timeouts
+   */
+  public long getTimeoutCount() {
+    m_Lock.lock();
+    try {
+      return m_TimeoutCount;
+    }
+    finally {
+      m_Lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the pool statistics.
+   *
+   * @return		the statistics
+   */
+  public String getStatistics() {
+    StringBuilder	result;
+
+    result = new StringBuilder();
+    result.append("Connection pool: ").append(m_Owner.toStringShort()).append("\n");
+    result.append("- min/max size: ").append(m_MinSize).append("/").append(m_MaxSize).append("\n");
+    result.append("- active: ").append(getActiveCount()).append("\n");
+    result.append("- idle: ").append(getIdleCount()).append("\n");
+    result.append("- borrowed: ").append(getBorrowCount()).append("\n");
+    result.append("- borrow wait (avg/max msec): ").append(String.format("%.3f", getAverageBorrowWait())).append("/").append(String.format("%.3f", getMaxBorrowWait())).append("\n");
+    result.append("- created: ").append(getCreatedCount()).append("\n");
+    result.append("- invalid: ").append(getInvalidCount()).append("\n");
+    result.append("- evicted: ").append(getEvictedCount()).append("\n");
+    result.append("- timeouts: ").append(getTimeoutCount()).append("\n");
+
+    return result.toString();
+  }
+}
@@ -41,6 +41,8 @@ import adams.env.Environment;
 import adams.flow.control.Flow;
 import adams.flow.core.Actor;
 import adams.flow.core.ActorUtils;
+import adams.flow.execution.FlowExecutionListener;
+import adams.flow.execution.NullListener;
 import adams.flow.processor.ManageInteractiveActors;
 import adams.gui.application.AbstractInitialization;
 import adams.gui.core.GUIHelper;
@@ -125,6 +127,12 @@ import java.util.logging.Level;
  * &nbsp;&nbsp;&nbsp;default: adams.core.shutdown.Null
  * </pre>
  *
+ * <pre>-flow-execution-listener &lt;adams.flow.execution.FlowExecutionListener&gt; (property: flowExecutionListener)
+ * &nbsp;&nbsp;&nbsp;The execution listener to attach to the flow(s), e.g., for profiling;
+ * &nbsp;&nbsp;&nbsp; ignored if adams.flow.execution.NullListener.
+ * &nbsp;&nbsp;&nbsp;default: adams.flow.execution.NullListener
+ * </pre>
+ *
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
@@ -174,6 +182,9 @@ public class FlowRunner
   /** the shutdown hook. */
   protected AbstractShutdownHook m_ShutdownHook;
 
+  /** the execution listener to attach. */
+  protected FlowExecutionListener m_FlowExecutionListener;
+
   /** the listeners for changes to the remote scripting engine. */
   protected Set<RemoteScriptingEngineUpdateListener> m_RemoteScriptingEngineUpdateListeners;
 
@@ -247,6 +258,10 @@ public class FlowRunner
     m_OptionManager.add(
       "shutdown-hook", "shutdownHook",
       new Null());
+
+    m_OptionManager.add(
+      "flow-execution-listener", "flowExecutionListener",
+      new NullListener());
   }
 
   /**
@@ -571,6 +586,37 @@ public class FlowRunner
     return "The shutdown hook to use.";
   }
 
+  /**
+   * Sets the execution listener to attach to the flow(s).
+   *
+   * @param value 	the listener
+   */
+  public void setFlowExecutionListener(FlowExecutionListener value) {
+    m_FlowExecutionListener = value;
+    reset();
+  }
+
+  /**
+   * Returns the execution listener to attach to the flow(s).
+   *
+   * @return 		the listener
+   */
+  public FlowExecutionListener getFlowExecutionListener() {
+    return m_FlowExecutionListener;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String flowExecutionListenerTipText() {
+    return
+      "The execution listener to attach to the flow(s), e.g., for profiling; "
+	+ "ignored if " + NullListener.class.getName() + ".";
+  }
+
   /**
    * Adds the scripting engine to execute. Doesn't stop any running engines.
    *
@@ -801,6 +847,13 @@ public class FlowRunner
 	((Flow) m_Actor).setRegister(m_Register);
 	if (isLoggingEnabled() && ((Flow) m_Actor).getRegister())
 	  getLogger().info("Flow added to running flow registry");
+	// execution listener?
+	if (!(m_FlowExecutionListener instanceof NullListener)) {
+	  ((Flow) m_Actor).setFlowExecutionListener(m_FlowExecutionListener);
+	  ((Flow) m_Actor).setFlowExecutionListeningEnabled(true);
+	  if (isLoggingEnabled())
+	    getLogger().info("Flow execution listener attached: " + OptionUtils.getCommandLine(m_FlowExecutionListener));
+	}
       }
 
       ActorUtils.updateProgrammaticVariables((VariablesHandler & Actor) m_Actor, m_Input);
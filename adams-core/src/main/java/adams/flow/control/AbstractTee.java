@@ -15,7 +15,7 @@
 
 /*
  * AbstractTee.java
- * Copyright (C) 2009-2023 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2009-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.flow.control;
@@ -44,7 +44,7 @@ import java.util.Hashtable;
  */
 public abstract class AbstractTee
   extends AbstractControlActor
-  implements InputConsumer, OutputProducer, MutableActorHandler, AtomicExecution {
+  implements InputConsumer, OutputProducer, MutableActorHandler, AtomicExecution, PipelinedExecution {
 
   /** for serialization. */
   private static final long serialVersionUID = 7132280825125548047L;
@@ -137,6 +137,14 @@ public abstract class AbstractTee
       "stopping-timeout", "stoppingTimeout",
       -1, -1, null);
 
+    m_OptionManager.add(
+      "pipelined", "pipelined",
+      false);
+
+    m_OptionManager.add(
+      "pipeline-queue-size", "pipelineQueueSize",
+      SequentialDirector.DEFAULT_PIPELINE_QUEUE_SIZE, 1, null);
+
     m_OptionManager.add(
       "asynchronous", "asynchronous",
       false, UserMode.EXPERT);
@@ -295,6 +303,44 @@ public abstract class AbstractTee
     return m_Actors.stoppingTimeoutTipText();
   }
 
+  /**
+   * Sets whether to execute the sub-actors pipelined.
+   *
+   * @param value	true if pipelined
+   */
+  public void setPipelined(boolean value) {
+    m_Actors.setPipelined(value);
+    reset();
+  }
+
+  /**
+   * Returns whether to execute the sub-actors pipelined.
+   *
+   * @return		true if pipelined
+   */
+  public boolean getPipelined() {
+    return m_Actors.getPipelined();
+  }
+
+  /**
+   * Sets the size of the queues between the sub-actors.
+   *
+   * @param value	the size
+   */
+  public void setPipelineQueueSize(int value) {
+    m_Actors.setPipelineQueueSize(value);
+    reset();
+  }
+
+  /**
+   * Returns the size of the queues between the sub-actors.
+   *
+   * @return		the size
+   */
+  public int getPipelineQueueSize() {
+    return m_Actors.getPipelineQueueSize();
+  }
+
   /**
    * Sets whether to finish processing before stopping execution.
    * 
@@ -632,6 +678,20 @@ public abstract class AbstractTee
     return token;
   }
 
+  /**
+   * Hook method for copying the token to tee-off before it gets passed on
+   * to the sub-actors.
+   * <br><br>
+   * Default implementation just returns the token.
+   *
+   * @param token	the token to tee-off
+   * @return		the token to pass on
+   * @see		#createTeeToken(Token)
+   */
+  protected Token copyTeeToken(Token token) {
+    return token;
+  }
+
   /**
    * The method that accepts the input token and then processes it.
    *
@@ -682,7 +742,7 @@ public abstract class AbstractTee
     try {
       if (getFlowExecutionListeningSupporter().isFlowExecutionListeningEnabled())
 	getFlowExecutionListeningSupporter().getFlowExecutionListener().preInput(this, token);
-      m_Actors.input(createTeeToken(token));
+      m_Actors.input(copyTeeToken(createTeeToken(token)));
       if (getFlowExecutionListeningSupporter().isFlowExecutionListeningEnabled())
 	getFlowExecutionListeningSupporter().getFlowExecutionListener().postInput(this);
       if (getFlowExecutionListeningSupporter().isFlowExecutionListeningEnabled())
@@ -89,6 +89,13 @@ import java.util.Hashtable;
  * &nbsp;&nbsp;&nbsp;minimum: -1
  * </pre>
  * 
+ * <pre>-copy-input &lt;boolean&gt; (property: copyInput)
+ * &nbsp;&nbsp;&nbsp;If enabled, each branch receives its own copy of the token, so that branches 
+ * &nbsp;&nbsp;&nbsp;cannot modify each other's data; immutable payloads (eg strings or 
+ * &nbsp;&nbsp;&nbsp;adams.data.spreadsheet.ImmutableSpreadSheet) get shared rather than copied.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
  * <pre>-array-class &lt;adams.core.base.BaseClassname&gt; (property: arrayClass)
  * &nbsp;&nbsp;&nbsp;The class to use for the array; if none is specified, the class of the first 
  * &nbsp;&nbsp;&nbsp;element is used.
@@ -23,6 +23,7 @@ package adams.flow.control;
 import adams.core.Performance;
 import adams.core.QuickInfoHelper;
 import adams.core.ThreadLimiter;
+import adams.data.spreadsheet.ImmutableSpreadSheet;
 import adams.flow.core.Actor;
 import adams.flow.core.ActorExecution;
 import adams.flow.core.ActorHandler;
@@ -100,6 +101,13 @@ import java.util.logging.Level;
  * &nbsp;&nbsp;&nbsp;minimum: -1
  * </pre>
  * 
+ * <pre>-copy-input &lt;boolean&gt; (property: copyInput)
+ * &nbsp;&nbsp;&nbsp;If enabled, each branch receives its own copy of the token, so that branches 
+ * &nbsp;&nbsp;&nbsp;cannot modify each other's data; immutable payloads (eg strings or 
+ * &nbsp;&nbsp;&nbsp;adams.data.spreadsheet.ImmutableSpreadSheet) get shared rather than copied.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
@@ -123,6 +131,9 @@ public class Branch
   /** the actual number of threads to use. */
   protected int m_ActualNumThreads;
 
+  /** whether to supply each branch with its own copy of the token. */
+  protected boolean m_CopyInput;
+
   /** the executor service to use for parallel execution. */
   protected ExecutorService m_Executor;
 
@@ -212,6 +223,10 @@ public class Branch
     m_OptionManager.add(
       "num-threads", "numThreads",
       0);
+
+    m_OptionManager.add(
+      "copy-input", "copyInput",
+      false);
   }
 
   /**
@@ -225,6 +240,7 @@ public class Branch
 
     result  = QuickInfoHelper.toString(this, "numThreads", Performance.getNumThreadsQuickInfo(m_NumThreads));
     result += QuickInfoHelper.toString(this, "finishBeforeStopping", m_FinishBeforeStopping, "atomic execution", ", ");
+    result += QuickInfoHelper.toString(this, "copyInput", m_CopyInput, "copy", ", ");
 
     return result;
   }
@@ -382,6 +398,39 @@ public class Branch
     return Performance.getNumThreadsHelp();
   }
 
+  /**
+   * Sets whether to supply each branch with its own copy of the token.
+   *
+   * @param value	true if to copy
+   */
+  public void setCopyInput(boolean value) {
+    m_CopyInput = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to supply each branch with its own copy of the token.
+   *
+   * @return		true if to copy
+   */
+  public boolean getCopyInput() {
+    return m_CopyInput;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String copyInputTipText() {
+    return
+      "If enabled, each branch receives its own copy of the token, so that "
+	+ "branches cannot modify each other's data; immutable payloads "
+	+ "(eg strings or " + ImmutableSpreadSheet.class.getName() + ") get "
+	+ "shared rather than copied.";
+  }
+
   /**
    * Whether to collect the output of the branches.
    * 
@@ -681,6 +730,19 @@ public class Branch
       getLogger().fine("input token: " + token);
   }
 
+  /**
+   * Creates the token to pass on to a branch.
+   *
+   * @return		the token, a copy if requested
+   * @see		#getCopyInput()
+   */
+  protected Token createBranchToken() {
+    if (m_CopyInput)
+      return ActorUtils.copyToken(this, m_CurrentToken);
+    else
+      return m_CurrentToken;
+  }
+
   /**
    * Returns whether an input token is currently present.
    *
@@ -835,12 +897,12 @@ public class Branch
 	  String result;
 	  if (m_HasGlobalTransformers) {
 	    synchronized(m_Self) {
-	      ((InputConsumer) branch).input(m_CurrentToken);
+	      ((InputConsumer) branch).input(createBranchToken());
 	      result = branch.execute();
 	    }
 	  }
 	  else {
-	    ((InputConsumer) branch).input(m_CurrentToken);
+	    ((InputConsumer) branch).input(createBranchToken());
 	    result = branch.execute();
 	  }
 	  if (isLoggingEnabled())
@@ -932,7 +994,7 @@ public class Branch
 	// input
 	if (getFlowExecutionListeningSupporter().isFlowExecutionListeningEnabled())
 	  getFlowExecutionListeningSupporter().getFlowExecutionListener().preInput(actor, m_CurrentToken);
-	((InputConsumer) actor).input(m_CurrentToken);
+	((InputConsumer) actor).input(createBranchToken());
 	if (getFlowExecutionListeningSupporter().isFlowExecutionListeningEnabled())
 	  getFlowExecutionListeningSupporter().getFlowExecutionListener().postInput(actor);
 	// execute
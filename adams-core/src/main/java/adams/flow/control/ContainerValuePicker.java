@@ -87,6 +87,21 @@ import java.util.logging.Level;
  * &nbsp;&nbsp;&nbsp;default: false
  * </pre>
  * 
+ * <pre>-pipelined &lt;boolean&gt; (property: pipelined)
+ * &nbsp;&nbsp;&nbsp;If enabled, the sub-actors get executed pipelined, i.e., each in its own 
+ * &nbsp;&nbsp;&nbsp;thread with bounded queues in between that preserve the order of the tokens; 
+ * &nbsp;&nbsp;&nbsp;only gets applied if all actors apart from the first accept input and all 
+ * &nbsp;&nbsp;&nbsp;actors apart from the last generate output.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
+ * <pre>-pipeline-queue-size &lt;int&gt; (property: pipelineQueueSize)
+ * &nbsp;&nbsp;&nbsp;The maximum number of tokens waiting between two sub-actors in pipelined 
+ * &nbsp;&nbsp;&nbsp;execution.
+ * &nbsp;&nbsp;&nbsp;default: 10
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ * 
  * <pre>-asynchronous &lt;boolean&gt; (property: asynchronous)
  * &nbsp;&nbsp;&nbsp;If enabled, the sub-actors get executed asynchronously rather than the flow 
  * &nbsp;&nbsp;&nbsp;waiting for them to finish before proceeding with execution.
@@ -98,6 +113,13 @@ import java.util.logging.Level;
  * &nbsp;&nbsp;&nbsp;default: 
  * </pre>
  * 
+ * <pre>-copy-input &lt;boolean&gt; (property: copyInput)
+ * &nbsp;&nbsp;&nbsp;If enabled, the sub-actors receive a copy of the token, so they cannot 
+ * &nbsp;&nbsp;&nbsp;modify the token that gets forwarded; immutable payloads (eg strings or 
+ * &nbsp;&nbsp;&nbsp;adams.data.spreadsheet.ImmutableSpreadSheet) get shared rather than copied.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
  * <pre>-value &lt;java.lang.String&gt; (property: valueName)
  * &nbsp;&nbsp;&nbsp;The name of the value to tee off.
  * &nbsp;&nbsp;&nbsp;default: Classification
@@ -1123,6 +1123,7 @@ public class Flow
 
     // variables
     forceVariables(getVariables());
+    getVariables().resetVariableChangeStatistics();
 
     result = super.setUp();
 
@@ -1420,6 +1421,11 @@ public class Flow
 
     RunningFlowsRegistry.getSingleton().removeFlow(this);
 
+    if (isLoggingEnabled())
+      getLogger().info(
+	"Variable change events: " + getVariables().getNumVariableChangeEvents()
+	  + ", dispatched to listeners: " + getVariables().getNumDispatchedVariableChangeEvents());
+
     super.wrapUp();
   }
 
@@ -21,7 +21,6 @@
 package adams.flow.control;
 
 import adams.core.DeepCopyOperator;
-import adams.core.ObjectCopyHelper;
 import adams.core.Performance;
 import adams.core.QuickInfoHelper;
 import adams.core.UniqueIDs;
@@ -713,7 +712,7 @@ public class LoadBalancer
     for (StorageName sname: getStorageHandler().getStorage().keySet()) {
       svalue = getStorageHandler().getStorage().get(sname);
       if (m_UseLocalStorage)
-        shell.getStorage().put(sname, ObjectCopyHelper.copyObject(svalue));
+        shell.getStorage().put(sname, ActorUtils.copyObject(this, svalue));
       else
         shell.getStorage().put(sname, svalue);
     }
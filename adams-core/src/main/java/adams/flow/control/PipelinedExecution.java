@@ -0,0 +1,87 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * PipelinedExecution.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+package adams.flow.control;
+
+import adams.flow.core.Actor;
+
+/**
+ * Interface for actors that can execute their sub-actors pipelined, i.e.,
+ * each sub-actor runs in its own thread and the tokens get passed on via
+ * bounded queues. The settings get picked up by the {@link SequentialDirector}
+ * when the actor gets set as its control actor.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ * @see SequentialDirector#setPipelined(boolean)
+ */
+public interface PipelinedExecution
+  extends Actor {
+
+  /**
+   * Sets whether to execute the sub-actors pipelined.
+   *
+   * @param value	true if pipelined
+   */
+  public void setPipelined(boolean value);
+
+  /**
+   * Returns whether to execute the sub-actors pipelined.
+   *
+   * @return		true if pipelined
+   */
+  public boolean getPipelined();
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public default String pipelinedTipText() {
+    return
+      "If enabled, the sub-actors get executed pipelined, i.e., each in its "
+	+ "own thread with bounded queues in between that preserve the order "
+	+ "of the tokens; only gets applied if all actors apart from the first "
+	+ "accept input and all actors apart from the last generate output.";
+  }
+
+  /**
+   * Sets the size of the queues between the sub-actors.
+   *
+   * @param value	the size
+   */
+  public void setPipelineQueueSize(int value);
+
+  /**
+   * Returns the size of the queues between the sub-actors.
+   *
+   * @return		the size
+   */
+  public int getPipelineQueueSize();
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public default String pipelineQueueSizeTipText() {
+    return "The maximum number of tokens waiting between two sub-actors in pipelined execution.";
+  }
+}
@@ -81,6 +81,13 @@ import adams.flow.core.Token;
  * &nbsp;&nbsp;&nbsp;default: adams.flow.control.Sequence -actor adams.flow.sink.Null
  * </pre>
  *
+ * <pre>-copy-input &lt;boolean&gt; (property: copyInput)
+ * &nbsp;&nbsp;&nbsp;If enabled, the sub-actors receive a copy of the token, so they cannot 
+ * &nbsp;&nbsp;&nbsp;modify the token that gets forwarded; immutable payloads (eg strings or 
+ * &nbsp;&nbsp;&nbsp;adams.data.spreadsheet.ImmutableSpreadSheet) get shared rather than copied.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
  * <pre>-log-source &lt;java.lang.String&gt; (property: logSource)
  * &nbsp;&nbsp;&nbsp;The value to use as 'source' field in the log entries; the actor's full
  * &nbsp;&nbsp;&nbsp;name is used by default if left empty.
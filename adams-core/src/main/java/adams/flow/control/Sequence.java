@@ -15,7 +15,7 @@
 
 /*
  * Sequence.java
- * Copyright (C) 2009-2021 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2009-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.flow.control;
@@ -65,13 +65,27 @@ import java.util.Hashtable;
  *         All the actors that define this sequence.
  * </pre>
  *
+ * <pre>-pipelined (property: pipelined)
+ *         If enabled, the sub-actors get executed pipelined, i.e., each in its own
+ *          thread with bounded queues in between that preserve the order of the tokens;
+ *          only gets applied if all actors apart from the first accept input and all
+ *          actors apart from the last generate output.
+ * </pre>
+ *
+ * <pre>-pipeline-queue-size &lt;int&gt; (property: pipelineQueueSize)
+ *         The maximum number of tokens waiting between two sub-actors in pipelined
+ *          execution.
+ *         default: 10
+ *         minimum: 1
+ * </pre>
+ *
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
  */
 public class Sequence
   extends MutableConnectedControlActor
-  implements InputConsumer, OptionalStopRestrictor {
+  implements InputConsumer, OptionalStopRestrictor, PipelinedExecution {
 
   /** for serialization. */
   private static final long serialVersionUID = -9211041097478667239L;
@@ -94,6 +108,12 @@ public class Sequence
   /** whether a restricted stop occurred. */
   protected boolean m_RestrictedStop;
 
+  /** whether to execute the sub-actors pipelined. */
+  protected boolean m_Pipelined;
+
+  /** the size of the queues between the sub-actors in pipelined execution. */
+  protected int m_PipelineQueueSize;
+
   /**
    * Default constructor.
    */
@@ -121,6 +141,22 @@ public class Sequence
     return "Encapsulates a sequence of flow items.";
   }
 
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "pipelined", "pipelined",
+      false);
+
+    m_OptionManager.add(
+      "pipeline-queue-size", "pipelineQueueSize",
+      SequentialDirector.DEFAULT_PIPELINE_QUEUE_SIZE, 1, null);
+  }
+
   /**
    * Initializes the members.
    */
@@ -142,6 +178,46 @@ public class Sequence
     return "All the actors that define this sequence.";
   }
 
+  /**
+   * Sets whether to execute the sub-actors pipelined.
+   *
+   * @param value	true if pipelined
+   */
+  public void setPipelined(boolean value) {
+    m_Pipelined = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to execute the sub-actors pipelined.
+   *
+   * @return		true if pipelined
+   */
+  public boolean getPipelined() {
+    return m_Pipelined;
+  }
+
+  /**
+   * Sets the size of the queues between the sub-actors.
+   *
+   * @param value	the size
+   */
+  public void setPipelineQueueSize(int value) {
+    if (getOptionManager().isValid("pipelineQueueSize", value)) {
+      m_PipelineQueueSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the size of the queues between the sub-actors.
+   *
+   * @return		the size
+   */
+  public int getPipelineQueueSize() {
+    return m_PipelineQueueSize;
+  }
+
   /**
    * Returns the default for restricting stops.
    *
@@ -15,7 +15,7 @@
 
 /*
  * SequentialDirector.java
- * Copyright (C) 2009-2019 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2009-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.flow.control;
@@ -28,16 +28,42 @@ import adams.flow.core.InputConsumer;
 import adams.flow.core.OptionalStopRestrictor;
 import adams.flow.core.OutputProducer;
 import adams.flow.core.Token;
+import adams.flow.execution.FlowExecutionListeningSupporter;
+import adams.flow.execution.PipelineStageListener;
+import adams.multiprocess.CallableWithResult;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
 /**
  * Manages the execution of actors in sequential order.
+ * <br><br>
+ * Optionally, the actors can be executed pipelined: each actor runs in its
+ * own thread, receiving the tokens from its predecessor via a bounded queue
+ * (preserving the order of the tokens). This allows slow readers,
+ * CPU-heavy transformers and slow writers to overlap. Pipelining only gets
+ * applied if all actors (apart from the first) accept input and all actors
+ * (apart from the last) generate output. Since actors get executed
+ * concurrently, they must not rely on being executed in the same thread
+ * (e.g., when accessing storage items that other actors of the sequence
+ * modify). The worker threads and the queues get created with the first
+ * pipelined execution and are re-used by subsequent executions until the
+ * director gets stopped or cleaned up. The pipeline settings are taken from
+ * the control actor if it implements {@link PipelinedExecution}.
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
  */
@@ -56,6 +82,241 @@ public class SequentialDirector
   /** whether the director was executed at all. */
   protected boolean m_Executed;
 
+  /** the marker for the end of the token stream in pipelined execution. */
+  protected final static Token END_OF_STREAM = new Token();
+
+  /** the default size of the queues between the actors in pipelined execution. */
+  public final static int DEFAULT_PIPELINE_QUEUE_SIZE = 10;
+
+  /** whether to execute the actors pipelined. */
+  protected boolean m_Pipelined;
+
+  /** the size of the queues between the actors in pipelined execution. */
+  protected int m_PipelineQueueSize;
+
+  /** the worker threads for pipelined execution. */
+  protected transient ThreadPoolExecutor m_PipelineExecutor;
+
+  /** the queues between the actors in pipelined execution. */
+  protected transient List<BlockingQueue<Token>> m_PipelineQueues;
+
+  /**
+   * A stage in pipelined execution, processing the tokens of a single actor.
+   */
+  protected class PipelineStage
+    extends CallableWithResult<String> {
+
+    /** the actor to execute. */
+    protected Actor m_Actor;
+
+    /** the queue with the input tokens, null if first stage. */
+    protected BlockingQueue<Token> m_Input;
+
+    /** the queue for the output tokens, null if last stage. */
+    protected BlockingQueue<Token> m_Output;
+
+    /** whether the pipeline got aborted. */
+    protected AtomicBoolean m_Aborted;
+
+    /** the time in nanoseconds spent waiting since the last update. */
+    protected long m_Idle;
+
+    /**
+     * Initializes the stage.
+     *
+     * @param actor	the actor to execute
+     * @param input	the input queue, null if first stage
+     * @param output	the output queue, null if last stage
+     * @param aborted	the flag for aborting the pipeline
+     */
+    public PipelineStage(Actor actor, BlockingQueue<Token> input, BlockingQueue<Token> output, AtomicBoolean aborted) {
+      m_Actor   = actor;
+      m_Input   = input;
+      m_Output  = output;
+      m_Aborted = aborted;
+      m_Idle    = 0;
+    }
+
+    /**
+     * Returns whether the pipeline should halt.
+     *
+     * @return		true if to halt
+     */
+    protected boolean isHalted() {
+      return m_Aborted.get() || isStopped() || isStopping() || isFlushing();
+    }
+
+    /**
+     * Notifies the listener (if any) about the state of the stage.
+     */
+    protected void notifyListener() {
+      FlowExecutionListeningSupporter	supporter;
+
+      supporter = m_Actor.getFlowExecutionListeningSupporter();
+      if ((supporter != null)
+	&& supporter.isFlowExecutionListeningEnabled()
+	&& (supporter.getFlowExecutionListener() instanceof PipelineStageListener))
+	((PipelineStageListener) supporter.getFlowExecutionListener()).pipelineStageUpdated(
+	  m_Actor, (m_Input == null) ? 0 : m_Input.size(), m_Idle);
+      m_Idle = 0;
+    }
+
+    /**
+     * Obtains the next token from the input queue.
+     *
+     * @return		the token, null if the pipeline got halted
+     * @throws InterruptedException	if interrupted
+     */
+    protected Token take() throws InterruptedException {
+      Token	result;
+      long	start;
+
+      result = null;
+      start  = System.nanoTime();
+      while (result == null) {
+	if (isPaused())
+	  pause();
+	if (isHalted())
+	  break;
+	result = m_Input.poll(100, TimeUnit.MILLISECONDS);
+      }
+      m_Idle += System.nanoTime() - start;
+
+      return result;
+    }
+
+    /**
+     * Hands on the token to the next stage.
+     *
+     * @param token	the token to pass on
+     * @return		false if the pipeline got halted
+     * @throws InterruptedException	if interrupted
+     */
+    protected boolean put(Token token) throws InterruptedException {
+      boolean	result;
+      long	start;
+
+      result = false;
+      start  = System.nanoTime();
+      while (!result) {
+	if (isHalted())
+	  break;
+	result = m_Output.offer(token, 100, TimeUnit.MILLISECONDS);
+      }
+      m_Idle += System.nanoTime() - start;
+
+      return result;
+    }
+
+    /**
+     * Passes on all the pending output tokens of the actor.
+     *
+     * @throws InterruptedException	if interrupted
+     */
+    protected void drain() throws InterruptedException {
+      Token	token;
+
+      if (!(m_Actor instanceof OutputProducer))
+	return;
+
+      while (doHasOutput(m_Actor)) {
+	token = doOutput(m_Actor);
+	if (token == null)
+	  break;
+	if (m_Output == null) {
+	  if (isFinalOutputRecorded() && !isFlushing())
+	    getFinalOutput().add(token);
+	}
+	else if (!put(token)) {
+	  break;
+	}
+	if (m_Input == null)
+	  notifyListener();
+      }
+    }
+
+    /**
+     * Presents the token (if any) to the actor, executes it and passes on
+     * the generated tokens.
+     *
+     * @param token	the token to process, null if to execute without input
+     * @return		null if successful, otherwise the error message
+     *			(if flow is to be stopped)
+     * @throws InterruptedException	if interrupted
+     */
+    protected String process(Token token) throws InterruptedException {
+      String	actorResult;
+
+      if (token != null)
+	doInput(m_Actor, token);
+      actorResult = doExecute(m_Actor);
+      if ((actorResult != null) && !m_ControlActor.getSilent()) {
+	getLogger().severe(
+	  m_Actor.getFullName() + " generated following error output:\n"
+	    + actorResult);
+	if (m_Actor.getStopFlowOnError())
+	  return actorResult;
+	if (isFlushing())
+	  return null;
+      }
+
+      drain();
+
+      return null;
+    }
+
+    /**
+     * Performs the actual code execution.
+     *
+     * @return		null if successful, otherwise the error message
+     * @throws Exception	if failed to execute
+     */
+    @Override
+    protected String doCall() throws Exception {
+      String	result;
+      Token	token;
+
+      result = null;
+
+      try {
+	if (m_Input == null) {
+	  // pending output from previous execution?
+	  if ((m_Actor instanceof OutputProducer) && doHasOutput(m_Actor))
+	    drain();
+	  else
+	    result = process(null);
+	}
+	else {
+	  while (result == null) {
+	    token = take();
+	    if ((token == null) || (token == END_OF_STREAM))
+	      break;
+	    notifyListener();
+	    result = process(token);
+	  }
+	}
+
+	// actor requires further executions?
+	while ((result == null) && !isHalted() && !m_Actor.isFinished()) {
+	  if (isPaused())
+	    pause();
+	  result = process(null);
+	}
+      }
+      catch (Throwable t) {
+	result = handleException(m_Actor, "Pipelined execution failed: ", t);
+      }
+      finally {
+	if (result != null)
+	  m_Aborted.set(true);
+	if (m_Output != null)
+	  put(END_OF_STREAM);
+      }
+
+      return result;
+    }
+  }
+
   /**
    * Initializes the members.
    */
@@ -63,7 +324,67 @@ public class SequentialDirector
   protected void initialize() {
     super.initialize();
 
-    m_FinalOutput = null;
+    m_FinalOutput       = null;
+    m_Pipelined         = false;
+    m_PipelineQueueSize = DEFAULT_PIPELINE_QUEUE_SIZE;
+    m_PipelineExecutor  = null;
+    m_PipelineQueues    = null;
+  }
+
+  /**
+   * Sets the control actor to execute. Obtains the pipeline settings from
+   * the actor if it implements {@link PipelinedExecution}.
+   *
+   * @param value 	the control actor
+   */
+  @Override
+  public void setControlActor(AbstractControlActor value) {
+    super.setControlActor(value);
+
+    if (value instanceof PipelinedExecution) {
+      setPipelined(((PipelinedExecution) value).getPipelined());
+      setPipelineQueueSize(((PipelinedExecution) value).getPipelineQueueSize());
+    }
+  }
+
+  /**
+   * Sets whether to execute the actors pipelined, each in its own thread.
+   *
+   * @param value	true if pipelined
+   */
+  public void setPipelined(boolean value) {
+    m_Pipelined = value;
+  }
+
+  /**
+   * Returns whether the actors are executed pipelined, each in its own thread.
+   *
+   * @return		true if pipelined
+   */
+  public boolean isPipelined() {
+    return m_Pipelined;
+  }
+
+  /**
+   * Sets the size of the queues between the actors in pipelined execution.
+   *
+   * @param value	the size (at least 1)
+   */
+  public void setPipelineQueueSize(int value) {
+    if (value < 1) {
+      getLogger().warning("Pipeline queue size must be at least 1, provided: " + value);
+      return;
+    }
+    m_PipelineQueueSize = value;
+  }
+
+  /**
+   * Returns the size of the queues between the actors in pipelined execution.
+   *
+   * @return		the size
+   */
+  public int getPipelineQueueSize() {
+    return m_PipelineQueueSize;
   }
 
   /**
@@ -375,6 +696,157 @@ public class SequentialDirector
     return result;
   }
 
+  /**
+   * Checks whether the actors can be executed pipelined.
+   *
+   * @param indices	the indices of the actors to execute
+   * @return		true if pipelining is possible
+   */
+  protected boolean canExecutePipelined(int[] indices) {
+    int		i;
+    Actor	actor;
+
+    if (indices.length < 2)
+      return false;
+
+    for (i = 0; i < indices.length; i++) {
+      actor = m_ControlActor.get(indices[i]);
+      if ((i > 0) && !(actor instanceof InputConsumer))
+	return false;
+      if ((i < indices.length - 1) && !(actor instanceof OutputProducer))
+	return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns the worker threads for pipelined execution, ensuring that there
+   * are enough threads for the specified number of stages.
+   *
+   * @param stages	the number of stages
+   * @return		the executor
+   */
+  protected synchronized ThreadPoolExecutor getPipelineExecutor(int stages) {
+    if (m_PipelineExecutor == null) {
+      m_PipelineExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(stages);
+    }
+    else if (m_PipelineExecutor.getMaximumPoolSize() < stages) {
+      m_PipelineExecutor.setMaximumPoolSize(stages);
+      m_PipelineExecutor.setCorePoolSize(stages);
+    }
+
+    return m_PipelineExecutor;
+  }
+
+  /**
+   * Returns the (empty) queue between the specified stage and its successor.
+   *
+   * @param index	the index of the stage
+   * @return		the queue
+   */
+  protected synchronized BlockingQueue<Token> getPipelineQueue(int index) {
+    BlockingQueue<Token>	result;
+
+    if (m_PipelineQueues == null)
+      m_PipelineQueues = new ArrayList<>();
+    while (m_PipelineQueues.size() <= index)
+      m_PipelineQueues.add(new ArrayBlockingQueue<>(m_PipelineQueueSize));
+
+    result = m_PipelineQueues.get(index);
+    result.clear();
+
+    return result;
+  }
+
+  /**
+   * Shuts down the worker threads and removes the queues of the pipelined
+   * execution. Running stages finish by themselves, as they check whether
+   * the director got stopped.
+   */
+  protected synchronized void shutdownPipeline() {
+    if (m_PipelineExecutor != null) {
+      m_PipelineExecutor.shutdown();
+      m_PipelineExecutor = null;
+    }
+    if (m_PipelineQueues != null) {
+      m_PipelineQueues.clear();
+      m_PipelineQueues = null;
+    }
+  }
+
+  /**
+   * Peforms the pipelined execution of the actors.
+   *
+   * @param indices	the indices of the actors to execute
+   * @return		null if everything ok, otherwise the error message
+   */
+  protected String doExecuteActorsPipelined(int[] indices) {
+    String			result;
+    String			stageResult;
+    List<PipelineStage>		stages;
+    List<Future<String>>	futures;
+    BlockingQueue<Token>	input;
+    BlockingQueue<Token>	output;
+    AtomicBoolean		aborted;
+    ThreadPoolExecutor		executor;
+    int				i;
+
+    result  = null;
+    aborted = new AtomicBoolean(false);
+    getFinalOutput().clear();
+
+    if (getLoggingLevel().isAtLeast(Level.INFO))
+      getLogger().info("Pipelined execution of " + indices.length + " actors");
+
+    // create stages
+    stages = new ArrayList<>();
+    input  = null;
+    for (i = 0; i < indices.length; i++) {
+      if (i < indices.length - 1)
+	output = getPipelineQueue(i);
+      else
+	output = null;
+      stages.add(new PipelineStage(m_ControlActor.get(indices[i]), input, output, aborted));
+      input = output;
+    }
+
+    // execute stages
+    futures  = new ArrayList<>();
+    executor = getPipelineExecutor(stages.size());
+    try {
+      for (PipelineStage stage: stages)
+	futures.add(executor.submit(stage));
+    }
+    catch (RejectedExecutionException e) {
+      result = handleException("Failed to start up pipeline", e);
+      aborted.set(true);
+    }
+
+    // wait for stages to finish
+    for (i = 0; i < futures.size(); i++) {
+      stageResult = null;
+      while (true) {
+	try {
+	  stageResult = futures.get(i).get(100, TimeUnit.MILLISECONDS);
+	  break;
+	}
+	catch (TimeoutException | InterruptedException e) {
+	  // ignored
+	}
+	catch (ExecutionException e) {
+	  stageResult = handleException(stages.get(i).m_Actor, "Pipelined execution failed: ", e.getCause());
+	  aborted.set(true);
+	  break;
+	}
+      }
+      if ((result == null) && (stageResult != null))
+	result = stageResult;
+    }
+
+    return result;
+  }
+
   /**
    * Peforms the execution of the actors.
    *
@@ -393,6 +865,12 @@ public class SequentialDirector
     int			lastActive;
     int[]		indices;
 
+    if (m_Pipelined && (m_ControlActor.active() > 0)) {
+      indices = activeIndices(m_ControlActor.indexOf(startActor.getName()), m_ControlActor.lastActive().index());
+      if (canExecutePipelined(indices))
+	return doExecuteActorsPipelined(indices);
+    }
+
     result           = null;
     notFinishedActor = startActor;
     pendingActors    = new Stack<>();
@@ -643,6 +1121,7 @@ public class SequentialDirector
   public void stopExecution() {
     super.stopExecution();
 
+    shutdownPipeline();
     getFinalOutput().clear();
   }
 
@@ -653,6 +1132,7 @@ public class SequentialDirector
   public void cleanUp() {
     super.cleanUp();
 
+    shutdownPipeline();
     if (m_FinalOutput != null)
       m_FinalOutput.clear();
   }
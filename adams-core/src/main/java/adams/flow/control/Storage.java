@@ -29,15 +29,29 @@ import adams.event.StorageChangeListener;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 /**
  * Used for temporary storage during flow execution.
+ * <br><br>
+ * The storage is thread-safe without using a global lock: the regular
+ * values are kept in a concurrent map and each LRU cache is guarded by its
+ * own lock (instead of the cache's synchronized methods). The number of
+ * times that threads had to wait for a cache lock is available via
+ * {@link #getContentionCount()}.
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
  */
@@ -53,30 +67,308 @@ public class Storage
   /** the end of a storage placeholder. */
   public final static String END = "}";
 
-  private static final long serialVersionUID = 2110403856127326735L;
+  private static final long serialVersionUID = 6905275003366092148L;
+
+  /**
+   * Placeholder for null values, which the concurrent map does not support.
+   */
+  protected enum NullValue {
+    INSTANCE
+  }
+
+  /**
+   * LRU cache that gets guarded by its lock rather than synchronizing its
+   * methods. Must only be accessed while holding the lock.
+   */
+  protected static class LockedCache
+    extends LRUCache<String,Object> {
+
+    private static final long serialVersionUID = -2411364427920787113L;
+
+    /** the lock guarding the cache. */
+    protected ReentrantLock m_Lock;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param cacheSize	the maximum number of entries
+     */
+    public LockedCache(int cacheSize) {
+      super(cacheSize);
+      m_Lock = new ReentrantLock();
+    }
+
+    /**
+     * Returns the lock guarding the cache.
+     *
+     * @return		the lock
+     */
+    public ReentrantLock getLock() {
+      return m_Lock;
+    }
+
+    /**
+     * Returns whether the cache is enabled.
+     *
+     * @return		true if the cache is enabled
+     */
+    @Override
+    public boolean isEnabled() {
+      return m_Enabled;
+    }
+
+    /**
+     * Sets the enabled state of the cache. Enabling the cache is ignored if
+     * the cache size is 0.
+     *
+     * @param value	if true then the cache is activated
+     */
+    @Override
+    public void setEnabled(boolean value) {
+      if ((value && (m_CacheSize > 0)) || !value)
+	m_Enabled = value;
+    }
+
+    /**
+     * Returns the number of used entries in the cache.
+     *
+     * @return 		the number of entries currently in the cache.
+     */
+    @Override
+    public int sizeUsed() {
+      return m_Map.size();
+    }
+
+    /**
+     * Resizes the caches (disables, empties and re-enables the cache).
+     *
+     * @param cacheSize	the new size of the cache
+     */
+    @Override
+    public void resize(int cacheSize) {
+      m_Enabled   = false;
+      m_CacheSize = cacheSize;
+      m_Map       = new LRUCacheLinkedHashMap(
+			  (int) Math.ceil(cacheSize / HASHTABLE_LOAD_FACTOR) + 1,
+			  HASHTABLE_LOAD_FACTOR);
+      m_Enabled   = (m_CacheSize > 0);
+    }
+
+    /**
+     * Checks whether a given key is already stored in the cache.
+     *
+     * @param key	the key to look for
+     * @return		true if a value is already stored under this key
+     */
+    @Override
+    public boolean contains(String key) {
+      return m_Map.containsKey(key);
+    }
+
+    /**
+     * Retrieves an entry from the cache, making it the most recently used one.
+     *
+     * @param key 	the key whose associated value is to be returned.
+     * @return    	the associated value, null if not in cache
+     */
+    @Override
+    public Object get(String key) {
+      return m_Map.get(key);
+    }
+
+    /**
+     * Adds an entry to this cache (if enabled), dropping the least recently
+     * used entry if the cache is full.
+     *
+     * @param key    	the key to associate the value with
+     * @param value  	the value to store
+     */
+    @Override
+    public void put(String key, Object value) {
+      if (m_Enabled)
+	m_Map.put(key, value);
+    }
+
+    /**
+     * Removes the entry from this cache (if enabled).
+     *
+     * @param key    	the key of the value to remove from the cache
+     * @return  	the previously associated value, or null if not in
+     * 			cache or cache not enabled
+     */
+    @Override
+    public Object remove(String key) {
+      if (m_Enabled)
+	return m_Map.remove(key);
+      else
+	return null;
+    }
+
+    /**
+     * Clears the cache.
+     */
+    @Override
+    public void clear() {
+      m_Map.clear();
+    }
+
+    /**
+     * Returns a copy of all cache entries.
+     *
+     * @return 		the entries
+     */
+    @Override
+    public Collection<Map.Entry<String,Object>> getAll() {
+      return new ArrayList<>(m_Map.entrySet());
+    }
+
+    /**
+     * Returns a clone of the object.
+     *
+     * @return		the clone
+     */
+    @Override
+    public LockedCache getClone() {
+      LockedCache	result;
+
+      result           = new LockedCache(m_CacheSize);
+      result.m_Map     = (LinkedHashMap<String,Object>) m_Map.clone();
+      result.m_Enabled = m_Enabled;
+
+      return result;
+    }
+
+    /**
+     * Returns the content of the cache as string.
+     *
+     * @return		the content
+     */
+    @Override
+    public String toString() {
+      return m_Map.toString();
+    }
+  }
 
   /** for storing the data. */
-  protected HashMap<String,Object> m_Data;
+  protected ConcurrentHashMap<String,Object> m_Data;
 
   /** name LRU caches. */
-  protected HashMap<String,LRUCache<String,Object>> m_Caches;
+  protected ConcurrentHashMap<String,LockedCache> m_Caches;
 
   /** the listeners. */
-  protected transient Set<StorageChangeListener> m_ChangeListeners;
+  protected transient volatile Set<StorageChangeListener> m_ChangeListeners;
+
+  /** the number of cache lock acquisitions. */
+  protected transient volatile LongAdder m_LockCount;
+
+  /** the number of times threads had to wait for a cache lock. */
+  protected transient volatile LongAdder m_ContentionCount;
 
   /**
    * Initializes the storage.
    */
   public Storage() {
-    m_Data   = new HashMap<>();
-    m_Caches = new HashMap<>();
+    m_Data   = new ConcurrentHashMap<>();
+    m_Caches = new ConcurrentHashMap<>();
     initChangeListeners();
+    initStatistics();
+  }
+
+  /**
+   * Initializes the lock statistics, if necessary.
+   */
+  protected synchronized void initStatistics() {
+    if (m_ContentionCount == null) {
+      m_LockCount       = new LongAdder();
+      m_ContentionCount = new LongAdder();
+    }
+  }
+
+  /**
+   * Acquires the lock of the cache, recording whether the thread had to wait.
+   * Needs to be released via {@link #unlock(LockedCache)}.
+   *
+   * @param cache	the cache to lock
+   */
+  protected void lock(LockedCache cache) {
+    if (m_ContentionCount == null)
+      initStatistics();
+    m_LockCount.increment();
+    if (!cache.getLock().tryLock()) {
+      m_ContentionCount.increment();
+      cache.getLock().lock();
+    }
+  }
+
+  /**
+   * Releases the lock of the cache.
+   *
+   * @param cache	the cache to unlock
+   */
+  protected void unlock(LockedCache cache) {
+    cache.getLock().unlock();
+  }
+
+  /**
+   * Returns the number of times cache locks have been acquired.
+   *
+   * @return		the number of locks
+   */
+  public long getLockCount() {
+    if (m_ContentionCount == null)
+      initStatistics();
+    return m_LockCount.sum();
+  }
+
+  /**
+   * Returns how often threads had to wait for a cache lock to become
+   * available.
+   *
+   * @return		the number of times
+   */
+  public long getContentionCount() {
+    if (m_ContentionCount == null)
+      initStatistics();
+    return m_ContentionCount.sum();
+  }
+
+  /**
+   * Resets the lock statistics.
+   *
+   * @see		#getLockCount()
+   * @see		#getContentionCount()
+   */
+  public void resetContentionStatistics() {
+    if (m_ContentionCount == null)
+      initStatistics();
+    m_LockCount.reset();
+    m_ContentionCount.reset();
+  }
+
+  /**
+   * Turns the value into one that can be stored in the concurrent map.
+   *
+   * @param value	the value to wrap
+   * @return		the wrapped value
+   */
+  protected static Object wrap(Object value) {
+    return (value == null) ? NullValue.INSTANCE : value;
+  }
+
+  /**
+   * Turns the value stored in the concurrent map into the original one.
+   *
+   * @param value	the value to unwrap
+   * @return		the unwrapped value
+   */
+  protected static Object unwrap(Object value) {
+    return (value == NullValue.INSTANCE) ? null : value;
   }
 
   /**
    * Empties the storage. Also removes all the LRU caches.
    */
-  public synchronized void clear() {
+  public void clear() {
     m_Data.clear();
     m_Caches.clear();
   }
@@ -86,7 +378,7 @@ public class Storage
    *
    * @return 		the names of the LRU caches
    */
-  public synchronized Iterator<String> caches() {
+  public Iterator<String> caches() {
     List<String>	result;
 
     result = new ArrayList<>(m_Caches.keySet());
@@ -101,8 +393,8 @@ public class Storage
    * @param name	the name of the cache
    * @param size	the size of the cache
    */
-  public synchronized void addCache(String name, int size) {
-    m_Caches.put(name, new LRUCache<>(size));
+  public void addCache(String name, int size) {
+    m_Caches.put(name, new LockedCache(size));
   }
 
   /**
@@ -112,15 +404,44 @@ public class Storage
    * @param value	the value to store
    * @return		any previous value stored under the same name
    */
-  public synchronized Object put(StorageName name, Object value) {
+  public Object put(StorageName name, Object value) {
     Object	result;
 
-    result = m_Data.put(name.getValue(), value);
+    result = unwrap(m_Data.put(name.getValue(), wrap(value)));
     notifyChangeListeners(new StorageChangeEvent(this, (result != null) ? Type.MODIFIED : Type.ADDED, name.getValue()));
 
     return result;
   }
 
+  /**
+   * Returns the value stored under the specified name. If there is none
+   * (or it is null), the function is used to compute the value, which then
+   * gets stored.
+   * Computing and storing happens atomically, i.e., the function is called
+   * at most once, with other threads accessing the same name waiting
+   * for the computation to finish.
+   *
+   * @param name	the name to retrieve/store the value under
+   * @param func	the function for computing the value, must not modify the storage
+   * @return		the stored or computed value
+   */
+  public Object computeIfAbsent(StorageName name, Function<StorageName,Object> func) {
+    Object	result;
+    boolean[]	computed;
+
+    computed = new boolean[1];
+    result   = m_Data.compute(name.getValue(), (String key, Object value) -> {
+      if ((value != null) && (value != NullValue.INSTANCE))
+	return value;
+      computed[0] = true;
+      return wrap(func.apply(name));
+    });
+    if (computed[0])
+      notifyChangeListeners(new StorageChangeEvent(this, Type.ADDED, name.getValue()));
+
+    return unwrap(result);
+  }
+
   /**
    * Adds the given value under the specified name to the named LRU cache.
    * Value gets dropped if cache is not available.
@@ -129,11 +450,62 @@ public class Storage
    * @param name	the name to store the value under
    * @param value	the value to store
    */
-  public synchronized void put(String cache, StorageName name, Object value) {
-    if (m_Caches.containsKey(cache)) {
-      m_Caches.get(cache).put(name.getValue(), value);
-      notifyChangeListeners(new StorageChangeEvent(this, Type.ADDED, name.getValue(), cache));
+  public void put(String cache, StorageName name, Object value) {
+    LockedCache		lru;
+
+    lru = m_Caches.get(cache);
+    if (lru == null)
+      return;
+
+    lock(lru);
+    try {
+      lru.put(name.getValue(), value);
+    }
+    finally {
+      unlock(lru);
     }
+    notifyChangeListeners(new StorageChangeEvent(this, Type.ADDED, name.getValue(), cache));
+  }
+
+  /**
+   * Returns the value stored under the specified name in the named LRU
+   * cache. If there is none, the function is used to compute the value,
+   * which then gets stored. Computing and storing happens atomically.
+   * Returns null if the cache is not available.
+   *
+   * @param cache	the name of the cache to use
+   * @param name	the name to retrieve/store the value under
+   * @param func	the function for computing the value, must not modify the storage
+   * @return		the stored or computed value
+   */
+  public Object computeIfAbsent(String cache, StorageName name, Function<StorageName,Object> func) {
+    Object		result;
+    LockedCache		lru;
+    boolean		computed;
+
+    lru = m_Caches.get(cache);
+    if (lru == null)
+      return null;
+
+    computed = false;
+    lock(lru);
+    try {
+      if (lru.contains(name.getValue())) {
+	result = lru.get(name.getValue());
+      }
+      else {
+	result   = func.apply(name);
+	computed = true;
+	lru.put(name.getValue(), result);
+      }
+    }
+    finally {
+      unlock(lru);
+    }
+    if (computed)
+      notifyChangeListeners(new StorageChangeEvent(this, Type.ADDED, name.getValue(), cache));
+
+    return result;
   }
 
   /**
@@ -142,7 +514,7 @@ public class Storage
    * @param name	the name to check
    * @return		true if a value is stored under the name
    */
-  public synchronized boolean has(StorageName name) {
+  public boolean has(StorageName name) {
     return m_Data.containsKey(name.getValue());
   }
 
@@ -154,9 +526,20 @@ public class Storage
    * @param name	the name to check
    * @return		true if a value is stored under the name
    */
-  public synchronized boolean has(String cache, StorageName name) {
-    return (m_Caches.containsKey(cache))
-      && m_Caches.get(cache).contains(name.getValue());
+  public boolean has(String cache, StorageName name) {
+    LockedCache		lru;
+
+    lru = m_Caches.get(cache);
+    if (lru == null)
+      return false;
+
+    lock(lru);
+    try {
+      return lru.contains(name.getValue());
+    }
+    finally {
+      unlock(lru);
+    }
   }
 
   /**
@@ -165,8 +548,8 @@ public class Storage
    * @param name	the name of the value to retrieve
    * @return		the associated value, or null if not found
    */
-  public synchronized Object get(StorageName name) {
-    return m_Data.get(name.getValue());
+  public Object get(StorageName name) {
+    return unwrap(m_Data.get(name.getValue()));
   }
 
   /**
@@ -176,11 +559,20 @@ public class Storage
    * @param name	the name of the value to retrieve
    * @return		the associated value, or null if not found
    */
-  public synchronized Object get(String cache, StorageName name) {
-    if (m_Caches.containsKey(cache))
-      return m_Caches.get(cache).get(name.getValue());
-    else
+  public Object get(String cache, StorageName name) {
+    LockedCache		lru;
+
+    lru = m_Caches.get(cache);
+    if (lru == null)
       return null;
+
+    lock(lru);
+    try {
+      return lru.get(name.getValue());
+    }
+    finally {
+      unlock(lru);
+    }
   }
 
   /**
@@ -189,10 +581,10 @@ public class Storage
    * @param name	the name of the value to remove
    * @return		the previously associated value, or null if none present
    */
-  public synchronized Object remove(StorageName name) {
+  public Object remove(StorageName name) {
     Object	result;
 
-    result = m_Data.remove(name.getValue());
+    result = unwrap(m_Data.remove(name.getValue()));
 
     if (result != null)
       notifyChangeListeners(new StorageChangeEvent(this, Type.REMOVED, name.getValue()));
@@ -206,7 +598,7 @@ public class Storage
    * @param regexp	the regular expression to match against
    * @return		true if at least one removed
    */
-  public synchronized boolean remove(BaseRegExp regexp) {
+  public boolean remove(BaseRegExp regexp) {
     boolean		result;
     List<StorageName>	keys;
 
@@ -215,8 +607,7 @@ public class Storage
     for (StorageName key: keys) {
       if (regexp.isMatch(key.getValue())) {
         result = true;
-        if (remove(key) != null)
-	  notifyChangeListeners(new StorageChangeEvent(this, Type.REMOVED, key.getValue()));
+        remove(key);
       }
     }
 
@@ -230,13 +621,22 @@ public class Storage
    * @param name	the name of the value to remove
    * @return		the previously associated value, or null if none present
    */
-  public synchronized Object remove(String cache, StorageName name) {
-    Object	result;
+  public Object remove(String cache, StorageName name) {
+    Object		result;
+    LockedCache		lru;
 
     result = null;
 
-    if (m_Caches.containsKey(cache))
-      result = m_Caches.get(cache).remove(name.getValue());
+    lru = m_Caches.get(cache);
+    if (lru != null) {
+      lock(lru);
+      try {
+	result = lru.remove(name.getValue());
+      }
+      finally {
+	unlock(lru);
+      }
+    }
 
     if (result != null)
       notifyChangeListeners(new StorageChangeEvent(this, Type.REMOVED, name.getValue(), cache));
@@ -251,7 +651,7 @@ public class Storage
    * @param regexp	the regular expression to match against
    * @return		true if at least one removed
    */
-  public synchronized boolean remove(String cache, BaseRegExp regexp) {
+  public boolean remove(String cache, BaseRegExp regexp) {
     boolean		result;
     List<StorageName>	keys;
 
@@ -260,8 +660,7 @@ public class Storage
     for (StorageName key: keys) {
       if (regexp.isMatch(key.getValue())) {
         result = true;
-        if (remove(cache, key) != null)
-	  notifyChangeListeners(new StorageChangeEvent(this, Type.REMOVED, key.getValue(), cache));
+        remove(cache, key);
       }
     }
 
@@ -298,7 +697,7 @@ public class Storage
    *
    * @return		the number of stored values
    */
-  public synchronized int size() {
+  public int size() {
     return m_Data.size();
   }
 
@@ -308,11 +707,20 @@ public class Storage
    * @param cache	the cache to get the size for
    * @return		the number of stored values, 0 if cache not available
    */
-  public synchronized int size(String cache) {
-    if (m_Caches.containsKey(cache))
-      return m_Caches.get(cache).sizeUsed();
-    else
+  public int size(String cache) {
+    LockedCache		lru;
+
+    lru = m_Caches.get(cache);
+    if (lru == null)
       return 0;
+
+    lock(lru);
+    try {
+      return lru.sizeUsed();
+    }
+    finally {
+      unlock(lru);
+    }
   }
 
   /**
@@ -320,7 +728,7 @@ public class Storage
    *
    * @return		the set
    */
-  public synchronized Set<StorageName> keySet() {
+  public Set<StorageName> keySet() {
     HashSet<StorageName>	result;
     Set<String>			set;
 
@@ -338,14 +746,22 @@ public class Storage
    * @param cache	the cache to query
    * @return		the set, emoty set if cache not available
    */
-  public synchronized Set<StorageName> keySet(String cache) {
+  public Set<StorageName> keySet(String cache) {
     HashSet<StorageName>	result;
+    LockedCache			lru;
     Set<String>			set;
 
     result = new HashSet<>();
 
-    if (m_Caches.containsKey(cache)) {
-      set = m_Caches.get(cache).keySet();
+    lru = m_Caches.get(cache);
+    if (lru != null) {
+      lock(lru);
+      try {
+	set = new HashSet<>(lru.keySet());
+      }
+      finally {
+	unlock(lru);
+      }
       for (String key: set)
 	result.add(new StorageName(key));
     }
@@ -358,7 +774,7 @@ public class Storage
    *
    * @return		the clone
    */
-  public synchronized Storage getClone() {
+  public Storage getClone() {
     return getClone(null);
   }
 
@@ -369,18 +785,29 @@ public class Storage
    * 			must match (not applied to caches!), null to ignore
    * @return		the clone
    */
-  public synchronized Storage getClone(BaseRegExp filter) {
-    Storage 			result;
-    LRUCache<String,Object>	cache;
+  public Storage getClone(BaseRegExp filter) {
+    Storage 		result;
+    LockedCache		cache;
+    Object		value;
 
     result = new Storage();
-    for (String key: m_Caches.keySet()) {
-      cache = (LRUCache<String,Object>) ClassManager.getSingleton().deepCopy(m_Caches.get(key));
-      result.m_Caches.put(key, cache);
+    for (Map.Entry<String,LockedCache> entry: m_Caches.entrySet()) {
+      lock(entry.getValue());
+      try {
+	cache = (LockedCache) ClassManager.getSingleton().deepCopy(entry.getValue());
+      }
+      finally {
+	unlock(entry.getValue());
+      }
+      result.m_Caches.put(entry.getKey(), cache);
     }
-    for (String name: m_Data.keySet()) {
-      if ((filter == null) || ((filter != null) && filter.isMatch(name)))
-	result.m_Data.put(name, ClassManager.getSingleton().deepCopy(m_Data.get(name)));
+    for (Map.Entry<String,Object> entry: m_Data.entrySet()) {
+      if ((filter == null) || filter.isMatch(entry.getKey())) {
+	value = entry.getValue();
+	if (value != NullValue.INSTANCE)
+	  value = ClassManager.getSingleton().deepCopy(value);
+	result.m_Data.put(entry.getKey(), wrap(value));
+      }
     }
 
     return result;
@@ -391,16 +818,22 @@ public class Storage
    *
    * @return		the shallow copy
    */
-  public synchronized Storage getShallowCopy() {
-    Storage 			result;
-    LRUCache<String,Object>	cache;
+  public Storage getShallowCopy() {
+    Storage 		result;
+    LockedCache		cache;
 
     result = new Storage();
-    for (String key: m_Caches.keySet()) {
-      cache = m_Caches.get(key).getClone();
-      result.m_Caches.put(key, cache);
+    for (Map.Entry<String,LockedCache> entry: m_Caches.entrySet()) {
+      lock(entry.getValue());
+      try {
+	cache = entry.getValue().getClone();
+      }
+      finally {
+	unlock(entry.getValue());
+      }
+      result.m_Caches.put(entry.getKey(), cache);
     }
-    result.m_Data = (HashMap<String,Object>) m_Data.clone();
+    result.m_Data.putAll(m_Data);
 
     return result;
   }
@@ -411,21 +844,36 @@ public class Storage
    * @return		the string representation
    */
   @Override
-  public synchronized String toString() {
-    StringBuilder	result;
-    Iterator<String>	names;
-    String		name;
+  public String toString() {
+    StringBuilder		result;
+    Iterator<String>		names;
+    String			name;
+    Map<String,Object>		data;
+    LockedCache			cache;
+
+    data = new HashMap<>();
+    for (Map.Entry<String,Object> entry: m_Data.entrySet())
+      data.put(entry.getKey(), unwrap(entry.getValue()));
 
     result = new StringBuilder();
     result.append("Regular:\n");
-    result.append(m_Data.toString());
+    result.append(data.toString());
 
     names = caches();
     while (names.hasNext()) {
       name = names.next();
       result.append("\n");
       result.append("Cache '" + name + "':\n");
-      result.append(m_Caches.get(name).toString());
+      cache = m_Caches.get(name);
+      if (cache == null)
+	continue;
+      lock(cache);
+      try {
+	result.append(cache.toString());
+      }
+      finally {
+	unlock(cache);
+      }
     }
 
     return result.toString();
@@ -462,7 +910,7 @@ public class Storage
    * @param s		the string to process
    * @return		the processed string
    */
-  public synchronized String expand(String s) {
+  public String expand(String s) {
     return expand(s, s.contains(START + START));
   }
 
@@ -512,9 +960,9 @@ public class Storage
   /**
    * Initializes the change listeners.
    */
-  protected void initChangeListeners() {
+  protected synchronized void initChangeListeners() {
     if (m_ChangeListeners == null)
-      m_ChangeListeners = new HashSet<>();
+      m_ChangeListeners = new CopyOnWriteArraySet<>();
   }
 
   /**
@@ -523,7 +971,8 @@ public class Storage
    * @param l		the listener to add
    */
   public void addChangeListener(StorageChangeListener l) {
-    initChangeListeners();
+    if (m_ChangeListeners == null)
+      initChangeListeners();
     m_ChangeListeners.add(l);
   }
 
@@ -533,7 +982,8 @@ public class Storage
    * @param l		the listener to remove
    */
   public void removeChangeListener(StorageChangeListener l) {
-    initChangeListeners();
+    if (m_ChangeListeners == null)
+      initChangeListeners();
     m_ChangeListeners.remove(l);
   }
 
@@ -543,7 +993,8 @@ public class Storage
    * @param e		the event to send
    */
   protected void notifyChangeListeners(StorageChangeEvent e) {
-    initChangeListeners();
+    if (m_ChangeListeners == null)
+      initChangeListeners();
     for (StorageChangeListener l: m_ChangeListeners)
       l.storageChanged(e);
   }
@@ -20,6 +20,7 @@
 package adams.flow.control;
 
 import adams.core.Properties;
+import adams.core.Utils;
 import adams.core.logging.LoggingLevel;
 import adams.core.logging.LoggingObject;
 import adams.db.LogEntry;
@@ -27,13 +28,23 @@ import adams.flow.core.Actor;
 import adams.flow.core.InputConsumer;
 import adams.flow.core.Token;
 
-import java.util.ArrayList;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Wrapper class around an {@link ArrayList} object stored in internal storage.
+ * Wrapper class around a {@link BlockingQueue} object stored in internal storage.
  * Allows to limit the queue size and the specification of a logging actor.
+ * <br><br>
+ * In blocking mode, adding an item to a full queue waits till space becomes
+ * available (or the timeout is reached) rather than rejecting it straight
+ * away (back-pressure). Since producers and consumers use separate locks in
+ * this mode, they don't block each other.
+ * <br><br>
+ * Keeps track of the number of added/removed/rejected items, the peak queue
+ * depth and the time spent waiting when adding/removing items.
  * 
  * @author  fracpete (fracpete at waikato dot ac dot nz)
  * @version $Revision$
@@ -45,14 +56,44 @@ public class StorageQueueHandler
   /** for serialization. */
   private static final long serialVersionUID = 5211228304482833329L;
 
+  /** the interval in msec for checking whether the caller got stopped while blocking. */
+  public final static int WAIT_INTERVAL = 100;
+
   /** the name of the queue. */
   protected String m_Name;
   
   /** the queue itself. */
-  protected ArrayBlockingQueue m_Queue;
+  protected BlockingQueue m_Queue;
   
   /** the limit for the queue (-1 is unlimited). */
   protected int m_Limit;
+
+  /** whether to block when adding to a full queue. */
+  protected boolean m_Blocking;
+
+  /** the timeout in msec when blocking (-1 waits indefinitely). */
+  protected int m_Timeout;
+
+  /** the number of items added. */
+  protected AtomicLong m_Added;
+
+  /** the number of items removed. */
+  protected AtomicLong m_Removed;
+
+  /** the number of items rejected. */
+  protected AtomicLong m_Rejected;
+
+  /** the time in nano-seconds spent waiting to add items. */
+  protected AtomicLong m_AddWait;
+
+  /** the time in nano-seconds spent waiting to remove items. */
+  protected AtomicLong m_RemoveWait;
+
+  /** the peak depth of the queue. */
+  protected AtomicLong m_PeakSize;
+
+  /** the timestamp when the queue was created (nano-seconds). */
+  protected long m_Start;
   
   /** the (optional) logging actor. */
   protected Actor m_Logging;
@@ -80,13 +121,43 @@ public class StorageQueueHandler
    * 			objects to
    */
   public StorageQueueHandler(String name, int limit, Actor logging, Actor monitoring) {
+    this(name, limit, logging, monitoring, false, -1);
+  }
+
+  /**
+   * Initializes the queue with the specified limit, logging and blocking mode.
+   *
+   * @param name	the name of the queue
+   * @param limit	the size limit, use <= 0 for unlimited
+   * @param logging	the logging actor for sending the {@link LogEntry}
+   * 			objects to
+   * @param monitoring	the monitoring actor for sending the {@link LogEntry}
+   * 			objects to
+   * @param blocking	whether adding to a full queue blocks till space is available
+   * @param timeout	the timeout in msec for blocking, use <= 0 to wait indefinitely
+   */
+  public StorageQueueHandler(String name, int limit, Actor logging, Actor monitoring, boolean blocking, int timeout) {
     if (limit <= 0)
       limit = 65535;
+    if (timeout <= 0)
+      timeout = -1;
     m_Name       = name;
-    m_Queue      = new ArrayBlockingQueue(limit);
     m_Limit      = limit;
     m_Logging    = logging;
     m_Monitoring = monitoring;
+    m_Blocking   = blocking;
+    m_Timeout    = timeout;
+    if (m_Blocking)
+      m_Queue = new LinkedBlockingQueue(limit);
+    else
+      m_Queue = new ArrayBlockingQueue(limit);
+    m_Added      = new AtomicLong();
+    m_Removed    = new AtomicLong();
+    m_Rejected   = new AtomicLong();
+    m_AddWait    = new AtomicLong();
+    m_RemoveWait = new AtomicLong();
+    m_PeakSize   = new AtomicLong();
+    m_Start      = System.nanoTime();
   }
 
   /**
@@ -116,6 +187,24 @@ public class StorageQueueHandler
   public int getLimit() {
     return m_Limit;
   }
+
+  /**
+   * Returns whether adding to a full queue blocks.
+   *
+   * @return		true if blocking
+   */
+  public boolean isBlocking() {
+    return m_Blocking;
+  }
+
+  /**
+   * Returns the timeout for blocking.
+   *
+   * @return		the timeout in msec, -1 if waiting indefinitely
+   */
+  public int getTimeout() {
+    return m_Timeout;
+  }
   
   /**
    * Checks whether a logging actor is available.
@@ -155,11 +244,12 @@ public class StorageQueueHandler
   
   /**
    * Logs the log entry with the specified actor.
+   * Synchronized, as producers and consumers can log concurrently.
    * 
    * @param log		the log entry to send
    * @param actor	the logging actor to send the LogEntry to
    */
-  protected void log(LogEntry log, Actor actor) {
+  protected synchronized void log(LogEntry log, Actor actor) {
     if (actor instanceof InputConsumer) {
       ((InputConsumer) actor).input(new Token(log));
       actor.execute();
@@ -214,44 +304,152 @@ public class StorageQueueHandler
   }
   
   /**
-   * Adds the object to the queue.
+   * Updates the statistics after an item was added.
+   *
+   * @param obj		the object that was added
+   * @param wait	the time in nano-seconds spent waiting
+   */
+  protected void added(Object obj, long wait) {
+    m_Added.incrementAndGet();
+    m_AddWait.addAndGet(wait);
+    m_PeakSize.accumulateAndGet(m_Queue.size(), Math::max);
+    if (hasMonitoring())
+      logMonitor("Add", obj);
+  }
+
+  /**
+   * Updates the statistics after an item was rejected.
+   *
+   * @param obj		the object that was rejected
+   * @param wait	the time in nano-seconds spent waiting
+   */
+  protected void rejected(Object obj, long wait) {
+    m_Rejected.incrementAndGet();
+    m_AddWait.addAndGet(wait);
+    if (hasLogging())
+      logError("Cannot add item to queue '" + m_Name + "' as it reached its limit: " + m_Limit, obj);
+  }
+
+  /**
+   * Updates the statistics after an item was removed.
+   *
+   * @param obj		the object that was removed, can be null
+   * @param wait	the time in nano-seconds spent waiting
+   */
+  protected void removed(Object obj, long wait) {
+    m_RemoveWait.addAndGet(wait);
+    if (obj != null)
+      m_Removed.incrementAndGet();
+    if (hasMonitoring())
+      logMonitor("Remove", obj);
+  }
+
+  /**
+   * Adds the object to the queue. In blocking mode, waits till space is
+   * available or the timeout has been reached.
    * 
    * @param obj		the object to add
    * @return		true if successfully added
+   * @see		#add(Object, Actor)
    */
-  public synchronized boolean add(Object obj) {
-    if (m_Limit == -1) {
-      m_Queue.add(obj);
-      if (hasMonitoring())
-	logMonitor("Add", obj);
-      return true;
-    }
-    else {
-      if (m_Queue.size() + 1 <= m_Limit) {
-	m_Queue.add(obj);
-	if (hasMonitoring())
-	  logMonitor("Add", obj);
-	return true;
+  public boolean add(Object obj) {
+    return add(obj, null);
+  }
+
+  /**
+   * Adds the object to the queue. In blocking mode, waits till space is
+   * available, the timeout has been reached or the calling actor got stopped.
+   *
+   * @param obj		the object to add
+   * @param caller	the actor adding the object, gets checked whether it
+   * 			got stopped while waiting; can be null
+   * @return		true if successfully added
+   */
+  public boolean add(Object obj, Actor caller) {
+    boolean	result;
+    long	start;
+    long	deadline;
+    long	wait;
+    boolean	stopped;
+
+    if (m_Blocking) {
+      start    = System.nanoTime();
+      deadline = start + TimeUnit.MILLISECONDS.toNanos(m_Timeout);
+      result   = false;
+      stopped  = false;
+      try {
+	while (!result) {
+	  if ((caller != null) && caller.isStopped()) {
+	    stopped = true;
+	    break;
+	  }
+	  wait = TimeUnit.MILLISECONDS.toNanos(WAIT_INTERVAL);
+	  if (m_Timeout != -1) {
+	    wait = Math.min(wait, deadline - System.nanoTime());
+	    if (wait <= 0)
+	      break;
+	  }
+	  result = m_Queue.offer(obj, wait, TimeUnit.NANOSECONDS);
+	}
       }
-      else {
-	if (hasLogging())
-	  logError("Cannot add item to queue '" + m_Name + "' as it reached its limit: " + m_Limit, obj);
-	return false;
+      catch (InterruptedException e) {
+	Thread.currentThread().interrupt();
+	stopped = true;
       }
+      if (result)
+	added(obj, System.nanoTime() - start);
+      else if (stopped)
+	m_AddWait.addAndGet(System.nanoTime() - start);
+      else
+	rejected(obj, System.nanoTime() - start);
+      return result;
+    }
+
+    synchronized(this) {
+      result = m_Queue.offer(obj);
+      if (result)
+	added(obj, 0);
+      else
+	rejected(obj, 0);
+      return result;
     }
   }
   
   /**
    * Removes the first element from the queue and returns it.
    * 
-   * @return		the first element from the queue
+   * @return		the first element from the queue, null if empty
    */
-  public synchronized Object remove() {
+  public Object remove() {
     Object	result;
 
     result = m_Queue.poll();
-    if (hasMonitoring())
-      logMonitor("Remove", result);
+    removed(result, 0);
+
+    return result;
+  }
+
+  /**
+   * Removes the first element from the queue and returns it, waiting at
+   * most the specified amount of time for an element to become available.
+   * Wakes up as soon as an element gets added.
+   *
+   * @param timeout	the timeout for the poll
+   * @param unit	the time unit
+   * @return		the first element from the queue, null if timed out
+   * @throws InterruptedException	if interrupted
+   */
+  public Object remove(long timeout, TimeUnit unit) throws InterruptedException {
+    Object	result;
+    long	start;
+
+    start  = System.nanoTime();
+    result = m_Queue.poll(timeout, unit);
+    if (result != null)
+      removed(result, System.nanoTime() - start);
+    else
+      m_RemoveWait.addAndGet(System.nanoTime() - start);
+
     return result;
   }
   
@@ -260,7 +458,7 @@ public class StorageQueueHandler
    * 
    * @return		the size
    */
-  public synchronized int size() {
+  public int size() {
     return m_Queue.size();
   }
 
@@ -273,7 +471,94 @@ public class StorageQueueHandler
    * @throws InterruptedException	if interrupted
    */
   public Object poll(long timeout, TimeUnit unit) throws InterruptedException {
-    return m_Queue.poll(timeout, unit);
+    return remove(timeout, unit);
+  }
+
+  /**
+   * Returns the number of items that were added.
+   *
+   * @return		the number of items
+   */
+  public long getNumAdded() {
+    return m_Added.get();
+  }
+
+  /**
+   * Returns the number of items that were removed.
+   *
+   * @return		the number of items
+   */
+  public long getNumRemoved() {
+    return m_Removed.get();
+  }
+
+  /**
+   * Returns the number of items that were rejected, due to the queue being
+   * full (or the timeout being reached in blocking mode).
+   *
+   * @return		the number of items
+   */
+  public long getNumRejected() {
+    return m_Rejected.get();
+  }
+
+  /**
+   * Returns the peak depth of the queue.
+   *
+   * @return		the peak size
+   */
+  public long getPeakSize() {
+    return m_PeakSize.get();
+  }
+
+  /**
+   * Returns the total time spent by producers waiting to add items.
+   *
+   * @return		the time in msec
+   */
+  public double getAddWaitTime() {
+    return m_AddWait.get() / 1000000.0;
+  }
+
+  /**
+   * Returns the total time spent by consumers waiting for items.
+   *
+   * @return		the time in msec
+   */
+  public double getRemoveWaitTime() {
+    return m_RemoveWait.get() / 1000000.0;
+  }
+
+  /**
+   * Returns the throughput of the queue, i.e., the number of items removed
+   * per second since the queue was created.
+   *
+   * @return		the items per second
+   */
+  public double getThroughput() {
+    double	secs;
+
+    secs = (System.nanoTime() - m_Start) / 1000000000.0;
+    if (secs <= 0)
+      return 0.0;
+    else
+      return m_Removed.get() / secs;
+  }
+
+  /**
+   * Returns the statistics of the queue as string.
+   *
+   * @return		the statistics
+   */
+  public String getStatistics() {
+    return "size=" + size()
+      + ", peak=" + getPeakSize()
+      + ", added=" + getNumAdded()
+      + ", removed=" + getNumRemoved()
+      + ", rejected=" + getNumRejected()
+      + ", addWait=" + Utils.doubleToString(getAddWaitTime(), 1) + "ms"
+      + ", removeWait=" + Utils.doubleToString(getRemoveWaitTime(), 1) + "ms"
+      + ", throughput=" + Utils.doubleToString(getThroughput(), 1) + "/s";
   }
 
   /**
@@ -283,6 +568,6 @@ public class StorageQueueHandler
    */
   @Override
   public String toString() {
-    return "name=" + m_Name + ", size=" + m_Queue.size() + ", limit=" + m_Limit + ", logging=" + m_Logging + ", monitoring=" + m_Monitoring;
+    return "name=" + m_Name + ", size=" + m_Queue.size() + ", limit=" + m_Limit + ", blocking=" + m_Blocking + ", timeout=" + m_Timeout + ", logging=" + m_Logging + ", monitoring=" + m_Monitoring;
   }
 }
@@ -20,6 +20,7 @@
 
 package adams.flow.control;
 
+import adams.data.spreadsheet.ImmutableSpreadSheet;
 import adams.flow.core.Actor;
 import adams.flow.core.ActorHandlerInfo;
 import adams.flow.core.ActorUtils;
@@ -27,6 +28,7 @@ import adams.flow.core.ActorWithConditionalEquivalent;
 import adams.flow.core.ActorWithTimedEquivalent;
 import adams.flow.core.Compatibility;
 import adams.flow.core.InputConsumer;
+import adams.flow.core.Token;
 
 /**
  <!-- globalinfo-start -->
@@ -79,6 +81,21 @@ import adams.flow.core.InputConsumer;
  * &nbsp;&nbsp;&nbsp;default: false
  * </pre>
  * 
+ * <pre>-pipelined &lt;boolean&gt; (property: pipelined)
+ * &nbsp;&nbsp;&nbsp;If enabled, the sub-actors get executed pipelined, i.e., each in its own 
+ * &nbsp;&nbsp;&nbsp;thread with bounded queues in between that preserve the order of the tokens; 
+ * &nbsp;&nbsp;&nbsp;only gets applied if all actors apart from the first accept input and all 
+ * &nbsp;&nbsp;&nbsp;actors apart from the last generate output.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
+ * <pre>-pipeline-queue-size &lt;int&gt; (property: pipelineQueueSize)
+ * &nbsp;&nbsp;&nbsp;The maximum number of tokens waiting between two sub-actors in pipelined 
+ * &nbsp;&nbsp;&nbsp;execution.
+ * &nbsp;&nbsp;&nbsp;default: 10
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ * 
  * <pre>-asynchronous &lt;boolean&gt; (property: asynchronous)
  * &nbsp;&nbsp;&nbsp;If enabled, the sub-actors get executed asynchronously rather than the flow 
  * &nbsp;&nbsp;&nbsp;waiting for them to finish before proceeding with execution.
@@ -90,6 +107,13 @@ import adams.flow.core.InputConsumer;
  * &nbsp;&nbsp;&nbsp;default: 
  * </pre>
  * 
+ * <pre>-copy-input &lt;boolean&gt; (property: copyInput)
+ * &nbsp;&nbsp;&nbsp;If enabled, the sub-actors receive a copy of the token, so they cannot 
+ * &nbsp;&nbsp;&nbsp;modify the token that gets forwarded; immutable payloads (eg strings or 
+ * &nbsp;&nbsp;&nbsp;adams.data.spreadsheet.ImmutableSpreadSheet) get shared rather than copied.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
@@ -101,6 +125,9 @@ public class Tee
   /** for serialization. */
   private static final long serialVersionUID = -7489525518244336025L;
 
+  /** whether to pass on a copy of the token to the sub-actors. */
+  protected boolean m_CopyInput;
+
   /**
    * Default constructor.
    */
@@ -128,6 +155,51 @@ public class Tee
     return "Allows to tap into the flow and tee-off tokens.";
   }
 
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "copy-input", "copyInput",
+      false);
+  }
+
+  /**
+   * Sets whether to pass on a copy of the token to the sub-actors.
+   *
+   * @param value	true if to copy
+   */
+  public void setCopyInput(boolean value) {
+    m_CopyInput = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to pass on a copy of the token to the sub-actors.
+   *
+   * @return		true if to copy
+   */
+  public boolean getCopyInput() {
+    return m_CopyInput;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String copyInputTipText() {
+    return
+      "If enabled, the sub-actors receive a copy of the token, so they "
+	+ "cannot modify the token that gets forwarded; immutable payloads "
+	+ "(eg strings or " + ImmutableSpreadSheet.class.getName() + ") get "
+	+ "shared rather than copied.";
+  }
+
   /**
    * Returns the class that is the corresponding conditional equivalent.
    * 
@@ -197,6 +269,21 @@ public class Tee
     return null;
   }
 
+  /**
+   * Copies the token to tee-off if requested.
+   *
+   * @param token	the token to tee-off
+   * @return		the token to pass on
+   * @see		#getCopyInput()
+   */
+  @Override
+  protected Token copyTeeToken(Token token) {
+    if (m_CopyInput)
+      return ActorUtils.copyToken(this, token);
+    else
+      return token;
+  }
+
   /**
    * Gets called in the setUp() method. Returns null if tee-actor is fine,
    * otherwise error message.
@@ -34,6 +34,8 @@ import adams.core.option.ArrayConsumer;
 import adams.core.option.OptionUtils;
 import adams.core.option.UserMode;
 import adams.core.sizeof.ActorFilter;
+import adams.db.ConnectionPool;
+import adams.db.DatabaseConnectionUser;
 import adams.db.LogEntry;
 import adams.db.MutableLogEntryHandler;
 import adams.event.VariableChangeEvent;
@@ -676,8 +678,33 @@ public abstract class AbstractActor
     }
     m_DetectedVariables.removeAll(m_DetectedObjectVariables);
 
-    if (m_DetectedVariables.size() > 0)
+    // only register for the variables that are actually referenced
+    getVariables().removeVariableChangeListener(this);
+    if (listensToAllVariables()) {
       getVariables().addVariableChangeListener(this);
+    }
+    else {
+      for (String var: m_DetectedVariables)
+	getVariables().addVariableChangeListener(var, this);
+    }
+  }
+
+  /**
+   * Returns whether the actor needs to be notified about changes of all
+   * variables rather than just the ones detected in its setup. This is the
+   * case for actors that override {@link #variableChanged(VariableChangeEvent)},
+   * as these may monitor variables that they don't reference (e.g., the
+   * variable for resetting a counter).
+   *
+   * @return		true if to listen to all variables
+   */
+  protected boolean listensToAllVariables() {
+    try {
+      return (getClass().getMethod("variableChanged", VariableChangeEvent.class).getDeclaringClass() != AbstractActor.class);
+    }
+    catch (Exception e) {
+      return true;
+    }
   }
 
   /**
@@ -691,7 +718,6 @@ public abstract class AbstractActor
     getOptionManager().getVariables().removeVariableChangeListener(this);
     getOptionManager().deregisterVariables();
     getOptionManager().setVariables(value);
-    getOptionManager().getVariables().addVariableChangeListener(this);
     getOptionManager().updateVariablesInstance(value);
     updateDetectedVariables();
   }
@@ -1151,26 +1177,38 @@ public abstract class AbstractActor
   }
 
   /**
-   * Executes the flow item.
+   * Executes the flow item. Actors that use a database return any pooled
+   * connections they leased once the execution finishes.
    *
    * @return		null if everything is fine, otherwise error message
+   * @see		ConnectionPool#enterScope()
    */
   public String execute() {
     String	result;
+    boolean	scoped;
 
     result = null;
+    scoped = (this instanceof DatabaseConnectionUser);
 
-    if (!m_Skip) {
-      m_Executing = true;
-      if (!isStopped())
-	result = preExecute();
+    if (scoped)
+      ConnectionPool.enterScope();
+    try {
+      if (!m_Skip) {
+	m_Executing = true;
+	if (!isStopped())
+	  result = preExecute();
+      }
+      if (!m_Skip) {
+	if ((result == null) && !isStopped())
+	  result = doExecute();
+	if ((result == null) && !isStopped())
+	  result = postExecute();
+	m_Executing = false;
+      }
     }
-    if (!m_Skip) {
-      if ((result == null) && !isStopped())
-	result = doExecute();
-      if ((result == null) && !isStopped())
-	result = postExecute();
-      m_Executing = false;
+    finally {
+      if (scoped)
+	ConnectionPool.leaveScope();
     }
 
     return result;
@@ -23,6 +23,8 @@ package adams.flow.core;
 import adams.core.ClassLister;
 import adams.core.DateUtils;
 import adams.core.MessageCollection;
+import adams.core.ObjectCopyHelper;
+import adams.core.ObjectCopyHelper.CopyType;
 import adams.core.Utils;
 import adams.core.Variables;
 import adams.core.VariablesHandler;
@@ -52,6 +54,8 @@ import adams.flow.control.SubProcess;
 import adams.flow.core.actorfilter.AcceptAll;
 import adams.flow.core.actorfilter.ActorFilter;
 import adams.flow.core.actorfilter.ExactMatch;
+import adams.flow.execution.FlowExecutionListeningSupporter;
+import adams.flow.execution.ObjectCopyListener;
 import adams.flow.processor.ActorProcessor;
 import adams.flow.processor.CheckProcessor;
 import adams.flow.processor.CheckStorageUsage;
@@ -2100,4 +2104,62 @@ public class ActorUtils {
     else
       return -1;
   }
+
+  /**
+   * Copies the object, notifying the flow execution listener if it is
+   * listening for copies. Immutable objects get shared rather than copied.
+   *
+   * @param actor	the actor that performs the copy
+   * @param source	the object to copy
+   * @return		the copy
+   * @see		ObjectCopyHelper#copyObject(Object)
+   * @see		ObjectCopyListener
+   */
+  public static <T> T copyObject(Actor actor, T source) {
+    return copyObject(actor, null, source);
+  }
+
+  /**
+   * Copies the object, notifying the flow execution listener if it is
+   * listening for copies.
+   *
+   * @param actor	the actor that performs the copy
+   * @param type	the copy type to use, null to automatically determine
+   * @param source	the object to copy
+   * @return		the copy
+   * @see		ObjectCopyHelper#copyObject(CopyType, Object)
+   * @see		ObjectCopyListener
+   */
+  public static <T> T copyObject(Actor actor, CopyType type, T source) {
+    T					result;
+    FlowExecutionListeningSupporter	supporter;
+
+    result = ObjectCopyHelper.copyObject(type, source);
+
+    if (source != null) {
+      supporter = actor.getFlowExecutionListeningSupporter();
+      if ((supporter != null) && supporter.isFlowExecutionListeningEnabled()
+	&& (supporter.getFlowExecutionListener() instanceof ObjectCopyListener))
+	((ObjectCopyListener) supporter.getFlowExecutionListener()).objectCopied(actor, source, result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Copies the token for handing it to one of several consumers, notifying
+   * the flow execution listener if it is listening for copies. Immutable
+   * payloads get shared rather than copied.
+   *
+   * @param actor	the actor that performs the copy
+   * @param token	the token to copy, can be null
+   * @return		the copy, null if token was null
+   * @see		#copyObject(Actor, Object)
+   * @see		ObjectCopyHelper#isImmutable(Object)
+   */
+  public static Token copyToken(Actor actor, Token token) {
+    if ((token == null) || token.isNull())
+      return token;
+    return new Token(copyObject(actor, token.getPayload()));
+  }
 }
@@ -69,6 +69,6 @@ public class QueueHelper {
     if (!hasQueue(actor, queue))
       return false;
     else
-      return getQueue(actor, queue).add(payload);
+      return getQueue(actor, queue).add(payload, actor);
   }
 }
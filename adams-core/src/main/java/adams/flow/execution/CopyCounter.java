@@ -0,0 +1,344 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * CopyCounter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.flow.execution;
+
+import adams.core.SizeOf;
+import adams.core.io.PlaceholderFile;
+import adams.data.io.output.CsvSpreadSheetWriter;
+import adams.data.spreadsheet.DefaultSpreadSheet;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.flow.core.Actor;
+import adams.gui.core.SpreadSheetTableModel;
+
+import javax.swing.table.TableModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ <!-- globalinfo-start -->
+ * Counts how often actors copied data (e.g., the Copy transformer or the local storage of the LoadBalancer control actor) and how often they could share immutable data instead.<br>
+ * Optionally, the size in bytes of the copies is recorded as well, which is expensive to determine.<br>
+ * The final counts can be written to a log file in CSV format.
+ * <br><br>
+ <!-- globalinfo-end -->
+ *
+ <!-- options-start -->
+ * <pre>-logging-level &lt;OFF|SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST&gt; (property: loggingLevel)
+ * &nbsp;&nbsp;&nbsp;The logging level for outputting errors and debugging output.
+ * &nbsp;&nbsp;&nbsp;default: WARNING
+ * </pre>
+ *
+ * <pre>-update-interval &lt;int&gt; (property: updateInterval)
+ * &nbsp;&nbsp;&nbsp;The update interval after which the GUI gets refreshed.
+ * &nbsp;&nbsp;&nbsp;default: 100
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ *
+ * <pre>-measure-size &lt;boolean&gt; (property: measureSize)
+ * &nbsp;&nbsp;&nbsp;If enabled, the size in bytes of the copies gets determined (expensive).
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ * <pre>-log-file &lt;adams.core.io.PlaceholderFile&gt; (property: logFile)
+ * &nbsp;&nbsp;&nbsp;The CSV log file to write to; writing is disabled if pointing to a directory.
+ * &nbsp;&nbsp;&nbsp;default: ${CWD}
+ * </pre>
+ *
+ <!-- options-end -->
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CopyCounter
+  extends AbstractTimedFlowExecutionListenerWithTable
+  implements ObjectCopyListener {
+
+  /** for serialization. */
+  private static final long serialVersionUID = 3851366927432915186L;
+
+  /** the index for the number of copies. */
+  public final static int INDEX_COPIES = 0;
+
+  /** the index for the number of shared objects. */
+  public final static int INDEX_SHARED = 1;
+
+  /** the index for the bytes. */
+  public final static int INDEX_BYTES = 2;
+
+  /** whether to measure the size of the copies. */
+  protected boolean m_MeasureSize;
+
+  /** the file to write to. */
+  protected PlaceholderFile m_LogFile;
+
+  /** keeps track of the counts (actor name - copies/shared/bytes). */
+  protected Map<String,long[]> m_Counts;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Counts how often actors copied data (e.g., the Copy transformer or "
+      + "the local storage of the LoadBalancer control actor) and how often "
+      + "they could share immutable data instead.\n"
+      + "Optionally, the size in bytes of the copies is recorded as well, which "
+      + "is expensive to determine.\n"
+      + "The final counts can be written to a log file in CSV format.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "measure-size", "measureSize",
+      false);
+
+    m_OptionManager.add(
+      "log-file", "logFile",
+      new PlaceholderFile("."));
+  }
+
+  /**
+   * Initializes the members.
+   */
+  @Override
+  protected void initialize() {
+    super.initialize();
+
+    m_Counts = new HashMap<>();
+  }
+
+  /**
+   * Returns the default update interval.
+   */
+  @Override
+  protected int getDefaultUpdateInterval() {
+    return 100;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  @Override
+  public String updateIntervalTipText() {
+    return "The update interval after which the GUI gets refreshed.";
+  }
+
+  /**
+   * Sets whether to determine the size of the copies.
+   *
+   * @param value	true if to measure
+   */
+  public void setMeasureSize(boolean value) {
+    m_MeasureSize = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to determine the size of the copies.
+   *
+   * @return		true if to measure
+   */
+  public boolean getMeasureSize() {
+    return m_MeasureSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String measureSizeTipText() {
+    return "If enabled, the size in bytes of the copies gets determined (expensive).";
+  }
+
+  /**
+   * Sets the log file.
+   *
+   * @param value	the file
+   */
+  public void setLogFile(PlaceholderFile value) {
+    m_LogFile = value;
+    reset();
+  }
+
+  /**
+   * Returns the log file.
+   *
+   * @return		the file
+   */
+  public PlaceholderFile getLogFile() {
+    return m_LogFile;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String logFileTipText() {
+    return "The CSV log file to write to; writing is disabled if pointing to a directory.";
+  }
+
+  /**
+   * The title of this listener.
+   *
+   * @return		the title
+   */
+  public String getListenerTitle() {
+    return "Copy counter";
+  }
+
+  /**
+   * Returns the counts as spreadsheet.
+   *
+   * @return		the counts
+   */
+  public synchronized SpreadSheet getCounts() {
+    SpreadSheet		result;
+    Row			row;
+    List<String>	keys;
+    long[]		counts;
+
+    result = new DefaultSpreadSheet();
+    row    = result.getHeaderRow();
+    row.addCell("A").setContentAsString("Actor");
+    row.addCell("C").setContentAsString("Copies");
+    row.addCell("S").setContentAsString("Shared");
+    if (m_MeasureSize)
+      row.addCell("B").setContentAsString("Bytes");
+
+    keys = new ArrayList<>(m_Counts.keySet());
+    Collections.sort(keys);
+    for (String key: keys) {
+      counts = m_Counts.get(key);
+      row    = result.addRow();
+      row.addCell("A").setContentAsString(key);
+      row.addCell("C").setContent(counts[INDEX_COPIES]);
+      row.addCell("S").setContent(counts[INDEX_SHARED]);
+      if (m_MeasureSize)
+	row.addCell("B").setContent(counts[INDEX_BYTES]);
+    }
+
+    return result;
+  }
+
+  /**
+   * Creates a new table model with the current data.
+   *
+   * @return		the model with the current data
+   */
+  @Override
+  protected TableModel createTableModel() {
+    return new SpreadSheetTableModel(getCounts());
+  }
+
+  /**
+   * Gets called when the flow execution starts.
+   */
+  @Override
+  public synchronized void startListening() {
+    super.startListening();
+
+    m_Counts.clear();
+  }
+
+  /**
+   * Gets called after the actor copied an object.
+   *
+   * @param actor	the actor that copied the object
+   * @param source	the original object
+   * @param copy	the copy, identical to source if it got shared
+   */
+  @Override
+  public void objectCopied(Actor actor, Object source, Object copy) {
+    String	key;
+    long[]	counts;
+    int		size;
+
+    size = 0;
+    if (m_MeasureSize && (copy != source) && (copy != null))
+      size = Math.max(0, SizeOf.sizeOf(copy));
+
+    synchronized(this) {
+      key    = actor.getFullName();
+      counts = m_Counts.get(key);
+      if (counts == null) {
+	counts = new long[3];
+	m_Counts.put(key, counts);
+      }
+      if (copy == source)
+	counts[INDEX_SHARED]++;
+      else
+	counts[INDEX_COPIES]++;
+      counts[INDEX_BYTES] += size;
+
+      incCounter();
+    }
+  }
+
+  /**
+   * Gets called when the flow execution ends.
+   * <br><br>
+   * Outputs the counts in debug mode.
+   */
+  @Override
+  public void finishListening() {
+    CsvSpreadSheetWriter 	writer;
+
+    if (!m_LogFile.isDirectory()) {
+      writer = new CsvSpreadSheetWriter();
+      if (!writer.write(getCounts(), m_LogFile))
+	getLogger().severe("Failed to write counts to: " + m_LogFile);
+    }
+
+    super.finishListening();
+
+    if (isLoggingEnabled())
+      getLogger().info(getCounts().toString());
+  }
+
+  /**
+   * Cleans up data structures, frees up memory.
+   */
+  @Override
+  public synchronized void cleanUp() {
+    super.cleanUp();
+
+    if (m_Counts != null)
+      m_Counts.clear();
+  }
+}
@@ -15,7 +15,7 @@
 
 /*
  * MultiListener.java
- * Copyright (C) 2013-2021 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2013-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.flow.execution;
@@ -56,7 +56,7 @@ import java.util.HashSet;
  */
 public class MultiListener
   extends AbstractFlowExecutionListener
-  implements GraphicalFlowExecutionListener {
+  implements GraphicalFlowExecutionListener, ObjectCopyListener, PipelineStageListener {
 
   /** for serialization. */
   private static final long serialVersionUID = 2134802149210184280L;
@@ -204,6 +204,38 @@ public class MultiListener
       l.postOutput(actor, token);
   }
 
+  /**
+   * Gets called after the actor copied an object.
+   *
+   * @param actor	the actor that copied the object
+   * @param source	the original object
+   * @param copy	the copy, identical to source if it got shared
+   */
+  @Override
+  public void objectCopied(Actor actor, Object source, Object copy) {
+    for (FlowExecutionListener l: m_Listeners) {
+      if (l instanceof ObjectCopyListener)
+	((ObjectCopyListener) l).objectCopied(actor, source, copy);
+    }
+  }
+
+  /**
+   * Gets called after a stage of a pipeline received a token (or, for the
+   * first stage, generated one).
+   *
+   * @param actor	the actor of the stage
+   * @param queueSize	the number of tokens still waiting in the stage's input queue
+   * @param idleTime	the time in nanoseconds the stage was waiting (for input
+   * 			or free space in the output queue) since the last call
+   */
+  @Override
+  public void pipelineStageUpdated(Actor actor, int queueSize, long idleTime) {
+    for (FlowExecutionListener l: m_Listeners) {
+      if (l instanceof PipelineStageListener)
+	((PipelineStageListener) l).pipelineStageUpdated(actor, queueSize, idleTime);
+    }
+  }
+
   /**
    * The title of this listener.
    * 
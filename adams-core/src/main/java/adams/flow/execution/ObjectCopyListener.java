@@ -0,0 +1,43 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ObjectCopyListener.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.flow.execution;
+
+import adams.flow.core.Actor;
+
+/**
+ * Interface for flow execution listeners that get notified whenever an
+ * actor copies (or shares) data, e.g., when handing it to multiple threads.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ * @see adams.flow.core.ActorUtils#copyObject(Actor, Object)
+ */
+public interface ObjectCopyListener
+  extends FlowExecutionListener {
+
+  /**
+   * Gets called after the actor copied an object.
+   *
+   * @param actor	the actor that copied the object
+   * @param source	the original object
+   * @param copy	the copy, identical to source if it got shared
+   */
+  public void objectCopied(Actor actor, Object source, Object copy);
+}
@@ -0,0 +1,301 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * PipelineMonitor.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.flow.execution;
+
+import adams.core.io.PlaceholderFile;
+import adams.data.io.output.CsvSpreadSheetWriter;
+import adams.data.spreadsheet.DefaultSpreadSheet;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.flow.core.Actor;
+import adams.gui.core.SpreadSheetTableModel;
+
+import javax.swing.table.TableModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ <!-- globalinfo-start -->
+ * Records statistics about the stages of pipelined sub-flows (e.g., a Sequence with the 'pipelined' option enabled): the number of tokens, the average and maximum number of tokens waiting in the input queue and the time the stage was idle (waiting for input or for free space in the output queue).<br>
+ * Stages with little idle time and deep input queues are the bottlenecks of the pipeline.<br>
+ * The final statistics can be written to a log file in CSV format.
+ * <br><br>
+ <!-- globalinfo-end -->
+ *
+ <!-- options-start -->
+ * <pre>-logging-level &lt;OFF|SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST&gt; (property: loggingLevel)
+ * &nbsp;&nbsp;&nbsp;The logging level for outputting errors and debugging output.
+ * &nbsp;&nbsp;&nbsp;default: WARNING
+ * </pre>
+ *
+ * <pre>-update-interval &lt;int&gt; (property: updateInterval)
+ * &nbsp;&nbsp;&nbsp;The update interval after which the GUI gets refreshed.
+ * &nbsp;&nbsp;&nbsp;default: 100
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ *
+ * <pre>-log-file &lt;adams.core.io.PlaceholderFile&gt; (property: logFile)
+ * &nbsp;&nbsp;&nbsp;The CSV log file to write to; writing is disabled if pointing to a directory.
+ * &nbsp;&nbsp;&nbsp;default: ${CWD}
+ * </pre>
+ *
+ <!-- options-end -->
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class PipelineMonitor
+  extends AbstractTimedFlowExecutionListenerWithTable
+  implements PipelineStageListener {
+
+  /** for serialization. */
+  private static final long serialVersionUID = -2748102318452380016L;
+
+  /** the index for the number of tokens. */
+  public final static int INDEX_TOKENS = 0;
+
+  /** the index for the sum of the queue sizes. */
+  public final static int INDEX_QUEUE_SUM = 1;
+
+  /** the index for the maximum queue size. */
+  public final static int INDEX_QUEUE_MAX = 2;
+
+  /** the index for the idle time (nanoseconds). */
+  public final static int INDEX_IDLE = 3;
+
+  /** the file to write to. */
+  protected PlaceholderFile m_LogFile;
+
+  /** keeps track of the statistics (actor name - tokens/queue sum/queue max/idle). */
+  protected Map<String,long[]> m_Statistics;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Records statistics about the stages of pipelined sub-flows (e.g., "
+      + "a Sequence with the 'pipelined' option enabled): the number of tokens, "
+      + "the average and maximum number of tokens waiting in the input queue "
+      + "and the time the stage was idle (waiting for input or for free space "
+      + "in the output queue).\n"
+      + "Stages with little idle time and deep input queues are the bottlenecks "
+      + "of the pipeline.\n"
+      + "The final statistics can be written to a log file in CSV format.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "log-file", "logFile",
+      new PlaceholderFile("."));
+  }
+
+  /**
+   * Initializes the members.
+   */
+  @Override
+  protected void initialize() {
+    super.initialize();
+
+    m_Statistics = new HashMap<>();
+  }
+
+  /**
+   * Returns the default update interval.
+   */
+  @Override
+  protected int getDefaultUpdateInterval() {
+    return 100;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  @Override
+  public String updateIntervalTipText() {
+    return "The update interval after which the GUI gets refreshed.";
+  }
+
+  /**
+   * Sets the log file.
+   *
+   * @param value	the file
+   */
+  public void setLogFile(PlaceholderFile value) {
+    m_LogFile = value;
+    reset();
+  }
+
+  /**
+   * Returns the log file.
+   *
+   * @return		the file
+   */
+  public PlaceholderFile getLogFile() {
+    return m_LogFile;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String logFileTipText() {
+    return "The CSV log file to write to; writing is disabled if pointing to a directory.";
+  }
+
+  /**
+   * The title of this listener.
+   *
+   * @return		the title
+   */
+  public String getListenerTitle() {
+    return "Pipeline monitor";
+  }
+
+  /**
+   * Returns the statistics as spreadsheet.
+   *
+   * @return		the statistics
+   */
+  public synchronized SpreadSheet getStatistics() {
+    SpreadSheet		result;
+    Row			row;
+    List<String>	keys;
+    long[]		stats;
+
+    result = new DefaultSpreadSheet();
+    row    = result.getHeaderRow();
+    row.addCell("A").setContentAsString("Actor");
+    row.addCell("T").setContentAsString("Tokens");
+    row.addCell("QA").setContentAsString("Queue (avg)");
+    row.addCell("QM").setContentAsString("Queue (max)");
+    row.addCell("I").setContentAsString("Idle (msec)");
+
+    keys = new ArrayList<>(m_Statistics.keySet());
+    Collections.sort(keys);
+    for (String key: keys) {
+      stats = m_Statistics.get(key);
+      row   = result.addRow();
+      row.addCell("A").setContentAsString(key);
+      row.addCell("T").setContent(stats[INDEX_TOKENS]);
+      row.addCell("QA").setContent((double) stats[INDEX_QUEUE_SUM] / Math.max(1, stats[INDEX_TOKENS]));
+      row.addCell("QM").setContent(stats[INDEX_QUEUE_MAX]);
+      row.addCell("I").setContent(stats[INDEX_IDLE] / 1000000L);
+    }
+
+    return result;
+  }
+
+  /**
+   * Creates a new table model with the current data.
+   *
+   * @return		the model with the current data
+   */
+  @Override
+  protected TableModel createTableModel() {
+    return new SpreadSheetTableModel(getStatistics());
+  }
+
+  /**
+   * Gets called when the flow execution starts.
+   */
+  @Override
+  public synchronized void startListening() {
+    super.startListening();
+
+    m_Statistics.clear();
+  }
+
+  /**
+   * Gets called after a stage of a pipeline received a token (or, for the
+   * first stage, generated one).
+   *
+   * @param actor	the actor of the stage
+   * @param queueSize	the number of tokens still waiting in the stage's input queue
+   * @param idleTime	the time in nanoseconds the stage was waiting (for input
+   * 			or free space in the output queue) since the last call
+   */
+  @Override
+  public synchronized void pipelineStageUpdated(Actor actor, int queueSize, long idleTime) {
+    String	key;
+    long[]	stats;
+
+    key   = actor.getFullName();
+    stats = m_Statistics.get(key);
+    if (stats == null) {
+      stats = new long[4];
+      m_Statistics.put(key, stats);
+    }
+    stats[INDEX_TOKENS]++;
+    stats[INDEX_QUEUE_SUM] += queueSize;
+    stats[INDEX_QUEUE_MAX]  = Math.max(stats[INDEX_QUEUE_MAX], queueSize);
+    stats[INDEX_IDLE]      += idleTime;
+
+    incCounter();
+  }
+
+  /**
+   * Gets called when the flow execution ends.
+   * <br><br>
+   * Outputs the statistics in debug mode.
+   */
+  @Override
+  public void finishListening() {
+    CsvSpreadSheetWriter 	writer;
+
+    if (!m_LogFile.isDirectory()) {
+      writer = new CsvSpreadSheetWriter();
+      if (!writer.write(getStatistics(), m_LogFile))
+	getLogger().severe("Failed to write statistics to: " + m_LogFile);
+    }
+
+    super.finishListening();
+
+    if (isLoggingEnabled())
+      getLogger().info(getStatistics().toString());
+  }
+
+  /**
+   * Cleans up data structures, frees up memory.
+   */
+  @Override
+  public synchronized void cleanUp() {
+    super.cleanUp();
+
+    if (m_Statistics != null)
+      m_Statistics.clear();
+  }
+}
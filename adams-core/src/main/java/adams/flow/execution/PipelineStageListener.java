@@ -0,0 +1,45 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * PipelineStageListener.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.flow.execution;
+
+import adams.flow.core.Actor;
+
+/**
+ * Interface for flow execution listeners that get notified about the
+ * state of the stages of pipelined sub-flows.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ * @see adams.flow.control.SequentialDirector#setPipelined(boolean)
+ */
+public interface PipelineStageListener
+  extends FlowExecutionListener {
+
+  /**
+   * Gets called after a stage of a pipeline received a token (or, for the
+   * first stage, generated one).
+   *
+   * @param actor	the actor of the stage
+   * @param queueSize	the number of tokens still waiting in the stage's input queue
+   * @param idleTime	the time in nanoseconds the stage was waiting (for input
+   * 			or free space in the output queue) since the last call
+   */
+  public void pipelineStageUpdated(Actor actor, int queueSize, long idleTime);
+}
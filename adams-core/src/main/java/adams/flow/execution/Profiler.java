@@ -0,0 +1,1060 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * Profiler.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.flow.execution;
+
+import adams.core.io.FileUtils;
+import adams.core.io.PlaceholderFile;
+import adams.data.io.output.CsvSpreadSheetWriter;
+import adams.data.spreadsheet.DefaultSpreadSheet;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.flow.core.Actor;
+import adams.flow.core.Token;
+import adams.gui.core.SpreadSheetTableModel;
+
+import javax.swing.table.TableModel;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ <!-- globalinfo-start -->
+ * Profiles the flow execution, recording inclusive and self time of the actors' input, execute and output phases per actor path, the number of tokens they received and generated, the time they spent waiting rather than using the CPU and (if supported by the JVM) an estimate of the memory that they allocated.<br>
+ * The statistics can be output as CSV and JSON files, and the call stacks in folded format (self time in microseconds), suitable for generating flame graphs, e.g., with flamegraph.pl.<br>
+ * Time spent in threads spawned by actors is not accounted for.
+ * <br><br>
+ <!-- globalinfo-end -->
+ *
+ <!-- options-start -->
+ * <pre>-logging-level &lt;OFF|SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST&gt; (property: loggingLevel)
+ * &nbsp;&nbsp;&nbsp;The logging level for outputting errors and debugging output.
+ * &nbsp;&nbsp;&nbsp;default: WARNING
+ * </pre>
+ *
+ * <pre>-update-interval &lt;int&gt; (property: updateInterval)
+ * &nbsp;&nbsp;&nbsp;The update interval (= number of method executions) after which the GUI
+ * &nbsp;&nbsp;&nbsp;gets refreshed.
+ * &nbsp;&nbsp;&nbsp;default: 1000
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ *
+ * <pre>-measure-resources &lt;boolean&gt; (property: measureResources)
+ * &nbsp;&nbsp;&nbsp;If enabled, CPU time and allocated memory get recorded as well (if supported
+ * &nbsp;&nbsp;&nbsp;by the JVM).
+ * &nbsp;&nbsp;&nbsp;default: true
+ * </pre>
+ *
+ * <pre>-csv-file &lt;adams.core.io.PlaceholderFile&gt; (property: csvFile)
+ * &nbsp;&nbsp;&nbsp;The CSV file to write the statistics to; writing is disabled if pointing
+ * &nbsp;&nbsp;&nbsp;to a directory.
+ * &nbsp;&nbsp;&nbsp;default: ${CWD}
+ * </pre>
+ *
+ * <pre>-json-file &lt;adams.core.io.PlaceholderFile&gt; (property: jsonFile)
+ * &nbsp;&nbsp;&nbsp;The JSON file to write the statistics to; writing is disabled if pointing
+ * &nbsp;&nbsp;&nbsp;to a directory.
+ * &nbsp;&nbsp;&nbsp;default: ${CWD}
+ * </pre>
+ *
+ * <pre>-folded-file &lt;adams.core.io.PlaceholderFile&gt; (property: foldedFile)
+ * &nbsp;&nbsp;&nbsp;The file to write the folded stacks to (for flame graphs); writing is disabled
+ * &nbsp;&nbsp;&nbsp;if pointing to a directory.
+ * &nbsp;&nbsp;&nbsp;default: ${CWD}
+ * </pre>
+ *
+ <!-- options-end -->
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class Profiler
+  extends AbstractTimedFlowExecutionListenerWithTable {
+
+  /** for serialization. */
+  private static final long serialVersionUID = -1497393625106581457L;
+
+  /** the input phase. */
+  public final static int PHASE_INPUT = 0;
+
+  /** the execute phase. */
+  public final static int PHASE_EXECUTE = 1;
+
+  /** the output phase. */
+  public final static int PHASE_OUTPUT = 2;
+
+  /** the names of the phases. */
+  public final static String[] PHASES = {"input", "execute", "output"};
+
+  /**
+   * Node in the calling context tree. Only the thread that owns the tree
+   * modifies the counters, adding children is synchronized on the node.
+   */
+  protected static class Node {
+
+    /** the actor, null for the root. */
+    public final Actor actor;
+
+    /** the phase. */
+    public final int phase;
+
+    /** the children (actor - node per phase). */
+    protected Map<Actor,Node[]> m_Children;
+
+    /** the number of calls. */
+    public long calls;
+
+    /** the number of tokens (for input/output phase). */
+    public long tokens;
+
+    /** the inclusive wall time in nano-seconds. */
+    public long inclusive;
+
+    /** the self wall time in nano-seconds. */
+    public long self;
+
+    /** the inclusive CPU time in nano-seconds. */
+    public long cpu;
+
+    /** the self allocated bytes. */
+    public long allocated;
+
+    /**
+     * Initializes the node.
+     *
+     * @param actor	the actor, null for the root
+     * @param phase	the phase
+     */
+    public Node(Actor actor, int phase) {
+      this.actor = actor;
+      this.phase = phase;
+      m_Children = new IdentityHashMap<>();
+    }
+
+    /**
+     * Returns the child node for the actor/phase, creating it if necessary.
+     *
+     * @param actor	the actor
+     * @param phase	the phase
+     * @return		the child
+     */
+    public Node child(Actor actor, int phase) {
+      Node[]	nodes;
+
+      nodes = m_Children.get(actor);
+      if ((nodes == null) || (nodes[phase] == null)) {
+	synchronized(this) {
+	  if (nodes == null) {
+	    nodes = new Node[PHASES.length];
+	    m_Children.put(actor, nodes);
+	  }
+	  nodes[phase] = new Node(actor, phase);
+	}
+      }
+
+      return nodes[phase];
+    }
+
+    /**
+     * Returns the children.
+     *
+     * @return		the children
+     */
+    public synchronized List<Node> children() {
+      List<Node>	result;
+
+      result = new ArrayList<>();
+      for (Node[] nodes: m_Children.values()) {
+	for (Node node: nodes) {
+	  if (node != null)
+	    result.add(node);
+	}
+      }
+
+      return result;
+    }
+
+    /**
+     * Returns the label to use in the stack.
+     *
+     * @return		the label
+     */
+    public String label() {
+      String	result;
+
+      result = actor.getName().replace(';', ',');
+      if (phase != PHASE_EXECUTE)
+	result += " [" + PHASES[phase] + "]";
+
+      return result;
+    }
+  }
+
+  /**
+   * An active method call.
+   */
+  protected static class Frame {
+
+    /** the node. */
+    public Node node;
+
+    /** the start time (wall). */
+    public long start;
+
+    /** the start CPU time. */
+    public long startCpu;
+
+    /** the allocated bytes at the start. */
+    public long startAllocated;
+
+    /** the wall time of the children. */
+    public long childWall;
+
+    /** the allocated bytes of the children. */
+    public long childAllocated;
+  }
+
+  /**
+   * The profiling state of a thread.
+   */
+  protected static class ThreadState {
+
+    /** the root of the tree. */
+    public Node root;
+
+    /** the active calls. */
+    public Deque<Frame> frames;
+
+    /**
+     * Initializes the state.
+     */
+    public ThreadState() {
+      root   = new Node(null, PHASE_EXECUTE);
+      frames = new ArrayDeque<>();
+    }
+
+    /**
+     * Returns the current node.
+     *
+     * @return		the node
+     */
+    public Node current() {
+      if (frames.isEmpty())
+	return root;
+      else
+	return frames.peek().node;
+    }
+  }
+
+  /**
+   * Container for the statistics of a single actor.
+   */
+  protected static class Statistics {
+
+    /** the number of executions. */
+    public long executions;
+
+    /** the number of input tokens. */
+    public long tokensIn;
+
+    /** the number of output tokens. */
+    public long tokensOut;
+
+    /** the inclusive wall time in nano-seconds. */
+    public long inclusive;
+
+    /** the self wall time in nano-seconds. */
+    public long self;
+
+    /** the inclusive CPU time in nano-seconds. */
+    public long cpu;
+
+    /** the self allocated bytes. */
+    public long allocated;
+  }
+
+  /** whether to measure CPU time and allocated memory. */
+  protected boolean m_MeasureResources;
+
+  /** the CSV file to write to. */
+  protected PlaceholderFile m_CsvFile;
+
+  /** the JSON file to write to. */
+  protected PlaceholderFile m_JsonFile;
+
+  /** the file to write the folded stacks to. */
+  protected PlaceholderFile m_FoldedFile;
+
+  /** the state per thread. */
+  protected transient ThreadLocal<ThreadState> m_State;
+
+  /** the roots of all threads. */
+  protected transient List<Node> m_Roots;
+
+  /** the number of finished calls (across all threads). */
+  protected transient AtomicLong m_Calls;
+
+  /** the thread bean for CPU time. */
+  protected transient ThreadMXBean m_CpuBean;
+
+  /** the thread bean for allocated memory. */
+  protected transient com.sun.management.ThreadMXBean m_AllocationBean;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return
+      "Profiles the flow execution, recording inclusive and self time of the "
+	+ "actors' input, execute and output phases per actor path, the number "
+	+ "of tokens they received and generated, the time they spent waiting "
+	+ "rather than using the CPU and (if supported by the JVM) an estimate "
+	+ "of the memory that they allocated.\n"
+	+ "The statistics can be output as CSV and JSON files, and the call "
+	+ "stacks in folded format (self time in microseconds), suitable for "
+	+ "generating flame graphs, e.g., with flamegraph.pl.\n"
+	+ "Time spent in threads spawned by actors is not accounted for.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "measure-resources", "measureResources",
+      true);
+
+    m_OptionManager.add(
+      "csv-file", "csvFile",
+      new PlaceholderFile("."));
+
+    m_OptionManager.add(
+      "json-file", "jsonFile",
+      new PlaceholderFile("."));
+
+    m_OptionManager.add(
+      "folded-file", "foldedFile",
+      new PlaceholderFile("."));
+  }
+
+  /**
+   * Initializes the members.
+   */
+  @Override
+  protected void initialize() {
+    super.initialize();
+
+    m_State = new ThreadLocal<>();
+    m_Roots = new ArrayList<>();
+  }
+
+  /**
+   * Returns the default update interval.
+   */
+  @Override
+  protected int getDefaultUpdateInterval() {
+    return 1000;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  @Override
+  public String updateIntervalTipText() {
+    return "The update interval (= number of method executions) after which the GUI gets refreshed.";
+  }
+
+  /**
+   * Sets whether to measure CPU time and allocated memory.
+   *
+   * @param value	true if to measure
+   */
+  public void setMeasureResources(boolean value) {
+    m_MeasureResources = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to measure CPU time and allocated memory.
+   *
+   * @return		true if to measure
+   */
+  public boolean getMeasureResources() {
+    return m_MeasureResources;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String measureResourcesTipText() {
+    return "If enabled, CPU time and allocated memory get recorded as well (if supported by the JVM).";
+  }
+
+  /**
+   * Sets the CSV file to write the statistics to.
+   *
+   * @param value	the file
+   */
+  public void setCsvFile(PlaceholderFile value) {
+    m_CsvFile = value;
+    reset();
+  }
+
+  /**
+   * Returns the CSV file to write the statistics to.
+   *
+   * @return		the file
+   */
+  public PlaceholderFile getCsvFile() {
+    return m_CsvFile;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String csvFileTipText() {
+    return "The CSV file to write the statistics to; writing is disabled if pointing to a directory.";
+  }
+
+  /**
+   * Sets the JSON file to write the statistics to.
+   *
+   * @param value	the file
+   */
+  public void setJsonFile(PlaceholderFile value) {
+    m_JsonFile = value;
+    reset();
+  }
+
+  /**
+   * Returns the JSON file to write the statistics to.
+   *
+   * @return		the file
+   */
+  public PlaceholderFile getJsonFile() {
+    return m_JsonFile;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String jsonFileTipText() {
+    return "The JSON file to write the statistics to; writing is disabled if pointing to a directory.";
+  }
+
+  /**
+   * Sets the file to write the folded stacks to.
+   *
+   * @param value	the file
+   */
+  public void setFoldedFile(PlaceholderFile value) {
+    m_FoldedFile = value;
+    reset();
+  }
+
+  /**
+   * Returns the file to write the folded stacks to.
+   *
+   * @return		the file
+   */
+  public PlaceholderFile getFoldedFile() {
+    return m_FoldedFile;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String foldedFileTipText() {
+    return "The file to write the folded stacks to (for flame graphs); writing is disabled if pointing to a directory.";
+  }
+
+  /**
+   * The title of this listener.
+   *
+   * @return		the title
+   */
+  public String getListenerTitle() {
+    return "Profiler";
+  }
+
+  /**
+   * Gets called when the flow execution starts.
+   */
+  @Override
+  public void startListening() {
+    ThreadMXBean	bean;
+
+    super.startListening();
+
+    m_State = new ThreadLocal<>();
+    m_Calls = new AtomicLong();
+    synchronized(this) {
+      m_Roots = new ArrayList<>();
+    }
+
+    m_CpuBean        = null;
+    m_AllocationBean = null;
+    if (m_MeasureResources) {
+      bean = ManagementFactory.getThreadMXBean();
+      if (bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled())
+	m_CpuBean = bean;
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+	if (((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+	  && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled())
+	  m_AllocationBean = (com.sun.management.ThreadMXBean) bean;
+      }
+      if (isLoggingEnabled())
+	getLogger().info("CPU time: " + (m_CpuBean != null) + ", allocation: " + (m_AllocationBean != null));
+    }
+  }
+
+  /**
+   * Returns the state for the current thread.
+   *
+   * @return		the state
+   */
+  protected ThreadState getState() {
+    ThreadState		result;
+
+    result = m_State.get();
+    if (result == null) {
+      result = new ThreadState();
+      m_State.set(result);
+      synchronized(this) {
+	m_Roots.add(result.root);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Starts a method call.
+   *
+   * @param actor	the actor
+   * @param phase	the phase
+   * @return		the node of the call
+   */
+  protected Node enter(Actor actor, int phase) {
+    ThreadState		state;
+    Frame		frame;
+
+    state = getState();
+    frame = new Frame();
+    frame.node = state.current().child(actor, phase);
+    frame.node.calls++;
+    if (m_AllocationBean != null)
+      frame.startAllocated = m_AllocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    if (m_CpuBean != null)
+      frame.startCpu = m_CpuBean.getCurrentThreadCpuTime();
+    frame.start = System.nanoTime();
+    state.frames.push(frame);
+
+    return frame.node;
+  }
+
+  /**
+   * Finishes a method call.
+   *
+   * @param actor	the actor
+   * @param phase	the phase
+   * @return		the node of the call, null if no matching call
+   */
+  protected Node leave(Actor actor, int phase) {
+    long		end;
+    long		endCpu;
+    long		endAllocated;
+    ThreadState		state;
+    Frame		frame;
+    Frame		parent;
+    long		wall;
+    long		allocated;
+
+    end          = System.nanoTime();
+    endCpu       = (m_CpuBean != null) ? m_CpuBean.getCurrentThreadCpuTime() : 0;
+    endAllocated = (m_AllocationBean != null) ? m_AllocationBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    state        = getState();
+
+    // discard calls that never finished (e.g., due to exceptions)
+    frame = null;
+    for (Frame f: state.frames) {
+      if ((f.node.actor == actor) && (f.node.phase == phase)) {
+	frame = f;
+	break;
+      }
+    }
+    if (frame == null)
+      return null;
+    while (state.frames.pop() != frame);
+
+    wall      = end - frame.start;
+    allocated = endAllocated - frame.startAllocated;
+    frame.node.inclusive += wall;
+    frame.node.self      += wall - frame.childWall;
+    frame.node.allocated += allocated - frame.childAllocated;
+    if (m_CpuBean != null)
+      frame.node.cpu += endCpu - frame.startCpu;
+
+    parent = state.frames.peek();
+    if (parent != null) {
+      parent.childWall      += wall;
+      parent.childAllocated += allocated;
+    }
+
+    incCounter();
+
+    return frame.node;
+  }
+
+  /**
+   * Increments the counter and checks whether the GUI needs updating.
+   * Uses an atomic counter, as the calls can come from multiple threads.
+   */
+  @Override
+  protected void incCounter() {
+    if (m_Calls.incrementAndGet() % m_UpdateInterval == 0)
+      updateGUI();
+  }
+
+  /**
+   * Gets called before the actor receives the token.
+   *
+   * @param actor	the actor that will receive the token
+   * @param token	the token that the actor will receive
+   */
+  @Override
+  public void preInput(Actor actor, Token token) {
+    enter(actor, PHASE_INPUT).tokens++;
+  }
+
+  /**
+   * Gets called after the actor received the token.
+   *
+   * @param actor	the actor that received the token
+   */
+  @Override
+  public void postInput(Actor actor) {
+    leave(actor, PHASE_INPUT);
+  }
+
+  /**
+   * Gets called before the actor gets executed.
+   *
+   * @param actor	the actor that will get executed
+   */
+  @Override
+  public void preExecute(Actor actor) {
+    enter(actor, PHASE_EXECUTE);
+  }
+
+  /**
+   * Gets called after the actor was executed.
+   *
+   * @param actor	the actor that was executed
+   */
+  @Override
+  public void postExecute(Actor actor) {
+    leave(actor, PHASE_EXECUTE);
+  }
+
+  /**
+   * Gets called before a token gets obtained from the actor.
+   *
+   * @param actor	the actor the token gets obtained from
+   */
+  @Override
+  public void preOutput(Actor actor) {
+    enter(actor, PHASE_OUTPUT);
+  }
+
+  /**
+   * Gets called after a token was acquired from the actor.
+   *
+   * @param actor	the actor that the token was acquired from
+   * @param token	the token that was acquired from the actor
+   */
+  @Override
+  public void postOutput(Actor actor, Token token) {
+    Node	node;
+
+    node = leave(actor, PHASE_OUTPUT);
+    if ((node != null) && (token != null))
+      node.tokens++;
+  }
+
+  /**
+   * Returns the roots of the trees of all threads.
+   *
+   * @return		the roots
+   */
+  protected synchronized List<Node> getRoots() {
+    return new ArrayList<>(m_Roots);
+  }
+
+  /**
+   * Returns the actor path of the node.
+   *
+   * @param node	the node to get the path for
+   * @param names	the cache for the actor paths
+   * @return		the path, null for the root
+   */
+  protected String path(Node node, Map<Actor,String> names) {
+    String	result;
+
+    if (node.actor == null)
+      return null;
+
+    result = names.get(node.actor);
+    if (result == null) {
+      result = node.actor.getFullName();
+      names.put(node.actor, result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Adds the statistics of the node and its children. Nested nodes with
+   * the same actor path as their parent (e.g., the internal sequence of
+   * a Tee) only contribute their self time/allocations, to avoid counting
+   * executions and inclusive times twice.
+   *
+   * @param node	the node to process
+   * @param parent	the actor path of the parent, null if none
+   * @param stats	the statistics to add to (actor path - stats)
+   * @param names	the cache for the actor paths
+   */
+  protected void collect(Node node, String parent, Map<String,Statistics> stats, Map<Actor,String> names) {
+    String	name;
+    Statistics	stat;
+
+    name = path(node, names);
+    if (name != null) {
+      stat = stats.get(name);
+      if (stat == null) {
+	stat = new Statistics();
+	stats.put(name, stat);
+      }
+      if (!name.equals(parent)) {
+	switch (node.phase) {
+	  case PHASE_INPUT:
+	    stat.tokensIn += node.tokens;
+	    break;
+	  case PHASE_EXECUTE:
+	    stat.executions += node.calls;
+	    break;
+	  case PHASE_OUTPUT:
+	    stat.tokensOut += node.tokens;
+	    break;
+	}
+	stat.inclusive += node.inclusive;
+	stat.cpu       += node.cpu;
+      }
+      stat.self      += node.self;
+      stat.allocated += node.allocated;
+    }
+
+    for (Node child: node.children())
+      collect(child, name, stats, names);
+  }
+
+  /**
+   * Returns the statistics per actor path.
+   *
+   * @return		the statistics
+   */
+  protected Map<String,Statistics> getStatistics() {
+    Map<String,Statistics>	result;
+    Map<Actor,String>		names;
+
+    result = new TreeMap<>();
+    names  = new IdentityHashMap<>();
+    for (Node root: getRoots())
+      collect(root, null, result, names);
+
+    return result;
+  }
+
+  /**
+   * Returns the statistics as spreadsheet. Times are in milli-seconds.
+   *
+   * @return		the statistics
+   */
+  @Override
+  public SpreadSheet getSheet() {
+    SpreadSheet			result;
+    Row				row;
+    Map<String,Statistics>	stats;
+    Statistics			stat;
+
+    result = new DefaultSpreadSheet();
+    row    = result.getHeaderRow();
+    row.addCell("A").setContentAsString("Actor");
+    row.addCell("E").setContentAsString("Executions");
+    row.addCell("I").setContentAsString("Tokens in");
+    row.addCell("O").setContentAsString("Tokens out");
+    row.addCell("T").setContentAsString("Inclusive msec");
+    row.addCell("S").setContentAsString("Self msec");
+    if (m_CpuBean != null) {
+      row.addCell("C").setContentAsString("CPU msec");
+      row.addCell("W").setContentAsString("Wait msec");
+    }
+    if (m_AllocationBean != null)
+      row.addCell("M").setContentAsString("Allocated bytes");
+
+    stats = getStatistics();
+    for (String name: stats.keySet()) {
+      stat = stats.get(name);
+      row  = result.addRow();
+      row.addCell("A").setContentAsString(name);
+      row.addCell("E").setContent(stat.executions);
+      row.addCell("I").setContent(stat.tokensIn);
+      row.addCell("O").setContent(stat.tokensOut);
+      row.addCell("T").setContent(stat.inclusive / 1000000.0);
+      row.addCell("S").setContent(stat.self / 1000000.0);
+      if (m_CpuBean != null) {
+	row.addCell("C").setContent(stat.cpu / 1000000.0);
+	row.addCell("W").setContent(Math.max(0, stat.inclusive - stat.cpu) / 1000000.0);
+      }
+      if (m_AllocationBean != null)
+	row.addCell("M").setContent(stat.allocated);
+    }
+
+    return result;
+  }
+
+  /**
+   * Creates a new table model with the current data.
+   *
+   * @return		the model with the current data
+   */
+  @Override
+  protected TableModel createTableModel() {
+    return new SpreadSheetTableModel(getSheet());
+  }
+
+  /**
+   * Adds the folded stacks of the node and its children. Nested nodes with
+   * the same actor path as their parent get merged into the parent's frame.
+   *
+   * @param node	the node to process
+   * @param parent	the actor path of the parent, null if none
+   * @param prefix	the stack so far
+   * @param stacks	for adding the stacks (stack - microseconds)
+   * @param names	the cache for the actor paths
+   */
+  protected void fold(Node node, String parent, String prefix, Map<String,Long> stacks, Map<Actor,String> names) {
+    String	name;
+    String	stack;
+    long	usec;
+
+    name  = path(node, names);
+    stack = prefix;
+    if (name != null) {
+      if (!name.equals(parent))
+	stack = prefix.isEmpty() ? node.label() : prefix + ";" + node.label();
+      usec = node.self / 1000;
+      if (usec > 0)
+	stacks.put(stack, stacks.getOrDefault(stack, 0L) + usec);
+    }
+
+    for (Node child: node.children())
+      fold(child, name, stack, stacks, names);
+  }
+
+  /**
+   * Returns the call stacks in folded format, i.e., one line per stack with
+   * the frames separated by semi-colons and the self time in microseconds.
+   *
+   * @return		the folded stacks
+   */
+  public List<String> getFoldedStacks() {
+    List<String>	result;
+    Map<String,Long>	stacks;
+    Map<Actor,String>	names;
+
+    stacks = new TreeMap<>();
+    names  = new IdentityHashMap<>();
+    for (Node root: getRoots())
+      fold(root, null, "", stacks, names);
+
+    result = new ArrayList<>();
+    for (String stack: stacks.keySet())
+      result.add(stack + " " + stacks.get(stack));
+
+    return result;
+  }
+
+  /**
+   * Escapes the string for use in JSON.
+   *
+   * @param s		the string to escape
+   * @return		the escaped string, including quotes
+   */
+  protected String quote(String s) {
+    StringBuilder	result;
+    char		c;
+    int			i;
+
+    result = new StringBuilder("\"");
+    for (i = 0; i < s.length(); i++) {
+      c = s.charAt(i);
+      switch (c) {
+	case '"':
+	  result.append("\\\"");
+	  break;
+	case '\\':
+	  result.append("\\\\");
+	  break;
+	case '\n':
+	  result.append("\\n");
+	  break;
+	case '\r':
+	  result.append("\\r");
+	  break;
+	case '\t':
+	  result.append("\\t");
+	  break;
+	default:
+	  if (c < 0x20)
+	    result.append(String.format("\\u%04x", (int) c));
+	  else
+	    result.append(c);
+      }
+    }
+    result.append("\"");
+
+    return result.toString();
+  }
+
+  /**
+   * Returns the statistics in JSON format. Times are in nano-seconds.
+   *
+   * @return		the JSON string
+   */
+  public String getJson() {
+    StringBuilder		result;
+    Map<String,Statistics>	stats;
+    Statistics			stat;
+    boolean			first;
+
+    result = new StringBuilder();
+    result.append("{\n");
+    result.append("  \"cpu\": ").append(m_CpuBean != null).append(",\n");
+    result.append("  \"allocation\": ").append(m_AllocationBean != null).append(",\n");
+    result.append("  \"actors\": [");
+    stats = getStatistics();
+    first = true;
+    for (String name: stats.keySet()) {
+      stat = stats.get(name);
+      result.append(first ? "\n" : ",\n");
+      result.append("    {");
+      result.append("\"actor\": ").append(quote(name));
+      result.append(", \"executions\": ").append(stat.executions);
+      result.append(", \"tokensIn\": ").append(stat.tokensIn);
+      result.append(", \"tokensOut\": ").append(stat.tokensOut);
+      result.append(", \"inclusiveNanos\": ").append(stat.inclusive);
+      result.append(", \"selfNanos\": ").append(stat.self);
+      if (m_CpuBean != null) {
+	result.append(", \"cpuNanos\": ").append(stat.cpu);
+	result.append(", \"waitNanos\": ").append(Math.max(0, stat.inclusive - stat.cpu));
+      }
+      if (m_AllocationBean != null)
+	result.append(", \"allocatedBytes\": ").append(stat.allocated);
+      result.append("}");
+      first = false;
+    }
+    result.append("\n  ]\n");
+    result.append("}\n");
+
+    return result.toString();
+  }
+
+  /**
+   * Gets called when the flow execution ends.
+   * <br><br>
+   * Writes the statistics and stacks to the files.
+   */
+  @Override
+  public void finishListening() {
+    CsvSpreadSheetWriter	writer;
+    String			msg;
+
+    if (!m_CsvFile.isDirectory()) {
+      writer = new CsvSpreadSheetWriter();
+      if (!writer.write(getSheet(), m_CsvFile))
+	getLogger().severe("Failed to write statistics to: " + m_CsvFile);
+    }
+
+    if (!m_JsonFile.isDirectory()) {
+      msg = FileUtils.writeToFileMsg(m_JsonFile.getAbsolutePath(), getJson(), false, null);
+      if (msg != null)
+	getLogger().severe("Failed to write statistics to: " + m_JsonFile + "\n" + msg);
+    }
+
+    if (!m_FoldedFile.isDirectory()) {
+      if (!FileUtils.saveToFile(getFoldedStacks(), m_FoldedFile))
+	getLogger().severe("Failed to write folded stacks to: " + m_FoldedFile);
+    }
+
+    super.finishListening();
+  }
+
+  /**
+   * Cleans up data structures, frees up memory.
+   */
+  @Override
+  public void cleanUp() {
+    super.cleanUp();
+
+    m_State = new ThreadLocal<>();
+    m_Calls = new AtomicLong();
+    synchronized(this) {
+      m_Roots = new ArrayList<>();
+    }
+  }
+}
@@ -28,9 +28,13 @@ import adams.flow.core.QueueHelper;
 import adams.flow.core.Token;
 import adams.flow.core.Unknown;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  <!-- globalinfo-start -->
  * Polls the specified queue in internal storage for an item, blocks till an item is available.<br>
+ * Wakes up as soon as an item gets added, the interval is only used for checking whether the flow has been stopped in the meantime.<br>
+ * The queue statistics (depth, wait times, throughput) get output at log level INFO when the flow finishes.<br>
  * NB: The user needs to stop the flow as the DeQueue source will never stop, as it assumes that there will be more data coming through.
  * <br><br>
  <!-- globalinfo-end -->
@@ -76,7 +80,7 @@ import adams.flow.core.Unknown;
  * </pre>
  * 
  * <pre>-interval &lt;int&gt; (property: interval)
- * &nbsp;&nbsp;&nbsp;The polling interval in milli-seconds.
+ * &nbsp;&nbsp;&nbsp;The maximum time in milli-seconds to wait for an item before checking whether the flow has been stopped.
  * &nbsp;&nbsp;&nbsp;default: 50
  * &nbsp;&nbsp;&nbsp;minimum: 1
  * </pre>
@@ -135,6 +139,10 @@ public class DeQueue
     return
         "Polls the specified queue in internal storage for an item, blocks "
 	+ "till an item is available.\n"
+	+ "Wakes up as soon as an item gets added, the interval is only used for "
+	+ "checking whether the flow has been stopped in the meantime.\n"
+	+ "The queue statistics (depth, wait times, throughput) get output at "
+	+ "log level INFO when the flow finishes.\n"
         + "NB: The user needs to stop the flow as the DeQueue source will "
 	+ "never stop, as it assumes that there will be more data coming through.";
   }
@@ -243,7 +251,7 @@ public class DeQueue
    * 			displaying in the GUI or for listing the options.
    */
   public String intervalTipText() {
-    return "The polling interval in milli-seconds.";
+    return "The maximum time in milli-seconds to wait for an item before checking whether the flow has been stopped.";
   }
 
   /**
@@ -295,26 +303,38 @@ public class DeQueue
   public Token output() {
     Token		result;
     StorageQueueHandler	queue;
+    Object		item;
 
     result = null;
     queue  = QueueHelper.getQueue(this, m_StorageName);
     
     while ((result == null) && !isStopped()) {
       try {
-	if (queue.size() > 0) {
-	  result = new Token(queue.remove());
-	}
-	else {
-	  synchronized(this) {
-	    wait(m_Interval);
-	  }
-	}
+	item = queue.remove(m_Interval, TimeUnit.MILLISECONDS);
+	if (item != null)
+	  result = new Token(item);
       }
-      catch (Exception e) {
+      catch (InterruptedException e) {
 	// ignored
       }
     }
     
     return result;
   }
+
+  /**
+   * Cleans up after the execution has finished. Outputs the queue statistics.
+   */
+  @Override
+  public void wrapUp() {
+    StorageQueueHandler	queue;
+
+    if (isLoggingEnabled() && (getStorageHandler() != null)) {
+      queue = QueueHelper.getQueue(this, m_StorageName);
+      if (queue != null)
+	getLogger().info("Queue '" + m_StorageName + "': " + queue.getStatistics());
+    }
+
+    super.wrapUp();
+  }
 }
@@ -15,21 +15,25 @@
 
 /**
  * FileSystemSearch.java
- * Copyright (C) 2014-2016 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2014-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.flow.source;
 
 import adams.core.QuickInfoHelper;
 import adams.core.io.FileUtils;
 import adams.core.io.ForwardSlashSupporter;
+import adams.flow.core.Token;
 import adams.flow.source.filesystemsearch.AbstractFileSystemSearchlet;
+import adams.flow.source.filesystemsearch.IncrementalFileSystemSearchlet;
 import adams.flow.source.filesystemsearch.LocalFileSearch;
 
+import java.util.Iterator;
 import java.util.List;
 
 /**
  <!-- globalinfo-start -->
- * Uses the specified search algorithm to perform a file system search and returns the located items.
+ * Uses the specified search algorithm to perform a file system search and returns the located items.<br>
+ * Search algorithms that support incremental searches output the items as soon as they get located (unless output as array).
  * <br><br>
  <!-- globalinfo-end -->
  *
@@ -109,6 +113,9 @@ public class FileSystemSearch
   /** whether to output forward slashes. */
   protected boolean m_UseForwardSlashes;
 
+  /** the iterator for incremental searches. */
+  protected transient Iterator<String> m_Iterator;
+
   /**
    * Returns a string describing the object.
    *
@@ -118,7 +125,9 @@ public class FileSystemSearch
   public String globalInfo() {
     return 
 	"Uses the specified search algorithm to perform a file system "
-	+ "search and returns the located items.";
+	+ "search and returns the located items.\n"
+	+ "Search algorithms that support incremental searches output the "
+	+ "items as soon as they get located (unless output as array).";
   }
 
   /**
@@ -247,13 +256,19 @@ public class FileSystemSearch
     result = null;
     
     m_Queue.clear();
+    stopIteration();
     try {
       m_Search.setFlowContext(this);
-      items = m_Search.search();
-      for (String item: items) {
-        if (m_UseForwardSlashes)
-          item = FileUtils.useForwardSlashes(item);
-        m_Queue.add(item);
+      if (!m_OutputArray && (m_Search instanceof IncrementalFileSystemSearchlet)) {
+	m_Iterator = ((IncrementalFileSystemSearchlet) m_Search).searchIncrementally();
+      }
+      else {
+	items = m_Search.search();
+	for (String item : items) {
+	  if (m_UseForwardSlashes)
+	    item = FileUtils.useForwardSlashes(item);
+	  m_Queue.add(item);
+	}
       }
     }
     catch (Exception e) {
@@ -263,6 +278,46 @@ public class FileSystemSearch
     return result;
   }
 
+  /**
+   * Checks whether there is pending output to be collected after
+   * executing the flow item.
+   *
+   * @return		true if there is pending output
+   */
+  @Override
+  public boolean hasPendingOutput() {
+    return super.hasPendingOutput() || ((m_Iterator != null) && m_Iterator.hasNext());
+  }
+
+  /**
+   * Returns the generated token.
+   *
+   * @return		the generated token
+   */
+  @Override
+  public Token output() {
+    String	item;
+
+    if ((m_Iterator == null) || (m_Queue.size() > 0))
+      return super.output();
+
+    item = m_Iterator.next();
+    if (m_UseForwardSlashes)
+      item = FileUtils.useForwardSlashes(item);
+
+    return new Token(item);
+  }
+
+  /**
+   * Stops the incremental search, if one is still in progress.
+   */
+  protected void stopIteration() {
+    if (m_Iterator != null) {
+      m_Search.stopExecution();
+      m_Iterator = null;
+    }
+  }
+
   /**
    * Stops the execution. No message set.
    */
@@ -270,7 +325,18 @@ public class FileSystemSearch
   public void stopExecution() {
     if (m_Search != null)
       m_Search.stopExecution();
+    m_Iterator = null;
 
     super.stopExecution();
   }
+
+  /**
+   * Cleans up after the execution has finished.
+   */
+  @Override
+  public void wrapUp() {
+    stopIteration();
+
+    super.wrapUp();
+  }
 }
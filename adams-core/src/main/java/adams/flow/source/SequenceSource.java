@@ -15,13 +15,14 @@
 
 /*
  * SequenceSource.java
- * Copyright (C) 2009-2018 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2009-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.flow.source;
 
 import adams.flow.control.AbstractDirectedControlActor;
 import adams.flow.control.MutableConnectedControlActor;
+import adams.flow.control.PipelinedExecution;
 import adams.flow.control.SequentialDirector;
 import adams.flow.core.Actor;
 import adams.flow.core.ActorExecution;
@@ -77,13 +78,28 @@ import java.util.List;
  * &nbsp;&nbsp;&nbsp;default: 
  * </pre>
  * 
+ * <pre>-pipelined &lt;boolean&gt; (property: pipelined)
+ * &nbsp;&nbsp;&nbsp;If enabled, the sub-actors get executed pipelined, i.e., each in its own 
+ * &nbsp;&nbsp;&nbsp;thread with bounded queues in between that preserve the order of the tokens; 
+ * &nbsp;&nbsp;&nbsp;only gets applied if all actors apart from the first accept input and all 
+ * &nbsp;&nbsp;&nbsp;actors apart from the last generate output.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
+ * <pre>-pipeline-queue-size &lt;int&gt; (property: pipelineQueueSize)
+ * &nbsp;&nbsp;&nbsp;The maximum number of tokens waiting between two sub-actors in pipelined 
+ * &nbsp;&nbsp;&nbsp;execution.
+ * &nbsp;&nbsp;&nbsp;default: 10
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ * 
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
  */
 public class SequenceSource
   extends MutableConnectedControlActor
-  implements OutputProducer {
+  implements OutputProducer, PipelinedExecution {
 
   /** for serialization. */
   private static final long serialVersionUID = -1007878227244351146L;
@@ -149,6 +165,12 @@ public class SequenceSource
   /** for storing generated output tokens. */
   protected transient List<Token> m_OutputTokens;
 
+  /** whether to execute the sub-actors pipelined. */
+  protected boolean m_Pipelined;
+
+  /** the size of the queues between the sub-actors in pipelined execution. */
+  protected int m_PipelineQueueSize;
+
   /**
    * Returns a string describing the object.
    *
@@ -172,6 +194,62 @@ public class SequenceSource
     return "All the actors that define this sequence.";
   }
 
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "pipelined", "pipelined",
+      false);
+
+    m_OptionManager.add(
+      "pipeline-queue-size", "pipelineQueueSize",
+      SequentialDirector.DEFAULT_PIPELINE_QUEUE_SIZE, 1, null);
+  }
+
+  /**
+   * Sets whether to execute the sub-actors pipelined.
+   *
+   * @param value	true if pipelined
+   */
+  public void setPipelined(boolean value) {
+    m_Pipelined = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to execute the sub-actors pipelined.
+   *
+   * @return		true if pipelined
+   */
+  public boolean getPipelined() {
+    return m_Pipelined;
+  }
+
+  /**
+   * Sets the size of the queues between the sub-actors.
+   *
+   * @param value	the size
+   */
+  public void setPipelineQueueSize(int value) {
+    if (getOptionManager().isValid("pipelineQueueSize", value)) {
+      m_PipelineQueueSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the size of the queues between the sub-actors.
+   *
+   * @return		the size
+   */
+  public int getPipelineQueueSize() {
+    return m_PipelineQueueSize;
+  }
+
   /**
    * Returns some information about the actor handler, e.g., whether it can
    * contain standalones and the actor execution.
@@ -0,0 +1,40 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * IncrementalFileSystemSearchlet.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.flow.source.filesystemsearch;
+
+import java.util.Iterator;
+
+/**
+ * Interface for search algorithms that can return their results
+ * incrementally, while the search is still running.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public interface IncrementalFileSystemSearchlet {
+
+  /**
+   * Searches the file system, returning the items as they get located.
+   *
+   * @return		the iterator over the search results
+   * @throws Exception	if checks or search failed
+   */
+  public Iterator<String> searchIncrementally() throws Exception;
+}
@@ -0,0 +1,240 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ParallelLocalFileSearch.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+package adams.flow.source.filesystemsearch;
+
+import adams.core.Performance;
+import adams.core.QuickInfoHelper;
+import adams.core.ThreadLimiter;
+import adams.core.io.lister.ParallelLocalDirectoryLister;
+
+import java.util.Iterator;
+
+/**
+ <!-- globalinfo-start -->
+ * Searches only for files, traversing sub-directories in parallel.<br>
+ * Directory listings can be cached between searches, skipping the re-reading of unchanged directories.<br>
+ * Without sorting, the files are returned incrementally (if supported by the owning actor) and in no particular order.
+ * <br><br>
+ <!-- globalinfo-end -->
+ *
+ <!-- options-start -->
+ * <pre>-logging-level &lt;OFF|SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST&gt; (property: loggingLevel)
+ * &nbsp;&nbsp;&nbsp;The logging level for outputting errors and debugging output.
+ * &nbsp;&nbsp;&nbsp;default: WARNING
+ * </pre>
+ * 
+ * <pre>-directory &lt;adams.core.io.PlaceholderDirectory&gt; (property: directory)
+ * &nbsp;&nbsp;&nbsp;The directory to search for files.
+ * &nbsp;&nbsp;&nbsp;default: ${CWD}
+ * </pre>
+ * 
+ * <pre>-max-items &lt;int&gt; (property: maxItems)
+ * &nbsp;&nbsp;&nbsp;The maximum number of files to return (&lt;= 0 is unlimited).
+ * &nbsp;&nbsp;&nbsp;default: -1
+ * </pre>
+ * 
+ * <pre>-regexp &lt;adams.core.base.BaseRegExp&gt; (property: regExp)
+ * &nbsp;&nbsp;&nbsp;The regular expression that the files must match (empty string matches all
+ * &nbsp;&nbsp;&nbsp;).
+ * &nbsp;&nbsp;&nbsp;default: 
+ * </pre>
+ * 
+ * <pre>-sorting &lt;NO_SORTING|SORT_BY_NAME|SORT_BY_LAST_MODIFIED&gt; (property: sorting)
+ * &nbsp;&nbsp;&nbsp;The type of sorting to perform.
+ * &nbsp;&nbsp;&nbsp;default: NO_SORTING
+ * </pre>
+ * 
+ * <pre>-descending &lt;boolean&gt; (property: sortDescending)
+ * &nbsp;&nbsp;&nbsp;If set to true, the files are sorted in descending manner.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
+ * <pre>-recursive &lt;boolean&gt; (property: recursive)
+ * &nbsp;&nbsp;&nbsp;Whether to search recursively or not.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
+ * <pre>-max-depth &lt;int&gt; (property: maxDepth)
+ * &nbsp;&nbsp;&nbsp;The maximum depth to search in recursive mode (1 = only watch directory, 
+ * &nbsp;&nbsp;&nbsp;-1 = infinite).
+ * &nbsp;&nbsp;&nbsp;default: -1
+ * </pre>
+ * 
+ * <pre>-use-relative-paths &lt;boolean&gt; (property: useRelativePaths)
+ * &nbsp;&nbsp;&nbsp;If enabled, paths relative to the specified directory.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
+ * <pre>-num-threads &lt;int&gt; (property: numThreads)
+ * &nbsp;&nbsp;&nbsp;The number of threads to use for parallel execution; &gt; 0: specific number 
+ * &nbsp;&nbsp;&nbsp;of cores to use (capped by actual number of cores available, 1 = sequential 
+ * &nbsp;&nbsp;&nbsp;execution); = 0: number of cores; &lt; 0: number of free cores (eg -2 means 
+ * &nbsp;&nbsp;&nbsp;2 free cores; minimum of one core is used)
+ * &nbsp;&nbsp;&nbsp;default: -1
+ * </pre>
+ * 
+ * <pre>-cache-directories &lt;boolean&gt; (property: cacheDirectories)
+ * &nbsp;&nbsp;&nbsp;If enabled, directory listings are cached between searches and reused if 
+ * &nbsp;&nbsp;&nbsp;the timestamp of the directory has not changed.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
+ <!-- options-end -->
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ParallelLocalFileSearch
+  extends LocalFileSearch
+  implements ThreadLimiter, IncrementalFileSystemSearchlet {
+
+  /** for serialization. */
+  private static final long serialVersionUID = -4215707339591946458L;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return
+      "Searches only for files, traversing sub-directories in parallel.\n"
+	+ "Directory listings can be cached between searches, skipping the "
+	+ "re-reading of unchanged directories.\n"
+	+ "Without sorting, the files are returned incrementally (if supported "
+	+ "by the owning actor) and in no particular order.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+	    "num-threads", "numThreads",
+	    -1);
+
+    m_OptionManager.add(
+	    "cache-directories", "cacheDirectories",
+	    false);
+  }
+
+  /**
+   * Initializes the members.
+   */
+  @Override
+  protected void initialize() {
+    super.initialize();
+
+    m_Lister = new ParallelLocalDirectoryLister();
+    m_Lister.setListDirs(false);
+    m_Lister.setListFiles(true);
+  }
+
+  /**
+   * Sets the number of threads to use.
+   *
+   * @param value 	the number of threads
+   */
+  public void setNumThreads(int value) {
+    ((ParallelLocalDirectoryLister) m_Lister).setNumThreads(value);
+    reset();
+  }
+
+  /**
+   * Returns the number of threads to use.
+   *
+   * @return 		the number of threads
+   */
+  public int getNumThreads() {
+    return ((ParallelLocalDirectoryLister) m_Lister).getNumThreads();
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String numThreadsTipText() {
+    return Performance.getNumThreadsHelp();
+  }
+
+  /**
+   * Sets whether to cache the directory listings between searches.
+   *
+   * @param value 	true if to cache
+   */
+  public void setCacheDirectories(boolean value) {
+    ((ParallelLocalDirectoryLister) m_Lister).setCacheDirectories(value);
+    reset();
+  }
+
+  /**
+   * Returns whether to cache the directory listings between searches.
+   *
+   * @return 		true if to cache
+   */
+  public boolean getCacheDirectories() {
+    return ((ParallelLocalDirectoryLister) m_Lister).getCacheDirectories();
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String cacheDirectoriesTipText() {
+    return
+      "If enabled, directory listings are cached between searches and reused "
+	+ "if the timestamp of the directory has not changed.";
+  }
+
+  /**
+   * Returns a quick info about the actor, which will be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result  = super.getQuickInfo();
+    result += QuickInfoHelper.toString(this, "numThreads", Performance.getNumThreadsQuickInfo(getNumThreads()), ", threads: ");
+    result += QuickInfoHelper.toString(this, "cacheDirectories", getCacheDirectories(), "cached", ", ");
+
+    return result;
+  }
+
+  /**
+   * Searches the file system, returning the items as they get located.
+   *
+   * @return		the iterator over the search results
+   * @throws Exception	if checks or search failed
+   */
+  public Iterator<String> searchIncrementally() throws Exception {
+    m_Stopped = false;
+    check();
+    return ((ParallelLocalDirectoryLister) m_Lister).iterate();
+  }
+}
@@ -15,7 +15,7 @@
 
 /*
  * AbstractDatabaseConnection.java
- * Copyright (C) 2011-2023 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2011-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.flow.standalone;
@@ -80,6 +80,24 @@ public abstract class AbstractDatabaseConnection
   /** whether to close the connection when the flow wraps up. */
   protected boolean m_CloseConnection;
 
+  /** whether to use a connection pool. */
+  protected boolean m_Pooled;
+
+  /** the minimum number of pooled connections. */
+  protected int m_PoolMinSize;
+
+  /** the maximum number of pooled connections. */
+  protected int m_PoolMaxSize;
+
+  /** the idle timeout in seconds for pooled connections. */
+  protected int m_PoolIdleTimeout;
+
+  /** the maximum time in msec to wait for a pooled connection. */
+  protected int m_PoolMaxWait;
+
+  /** the timeout in seconds for validating pooled connections. */
+  protected int m_PoolValidationTimeout;
+
   /** the database connection in use. */
   protected transient adams.db.AbstractDatabaseConnection m_Connection;
 
@@ -125,6 +143,30 @@ public abstract class AbstractDatabaseConnection
     m_OptionManager.add(
       "close-connection", "closeConnection",
       false);
+
+    m_OptionManager.add(
+      "pooled", "pooled",
+      false);
+
+    m_OptionManager.add(
+      "pool-min-size", "poolMinSize",
+      1, 0, null);
+
+    m_OptionManager.add(
+      "pool-max-size", "poolMaxSize",
+      8, 1, null);
+
+    m_OptionManager.add(
+      "pool-idle-timeout", "poolIdleTimeout",
+      300, 0, null);
+
+    m_OptionManager.add(
+      "pool-max-wait", "poolMaxWait",
+      30000, 0, null);
+
+    m_OptionManager.add(
+      "pool-validation-timeout", "poolValidationTimeout",
+      5, 0, null);
   }
 
   /**
@@ -143,6 +185,7 @@ public abstract class AbstractDatabaseConnection
       result += QuickInfoHelper.toString(this, "stopFlowIfCanceled", m_StopFlowIfCanceled, "stop flow", ", ");
     }
     result += QuickInfoHelper.toString(this, "closeConnection", m_CloseConnection, "close connection", ", ");
+    result += QuickInfoHelper.toString(this, "pooled", m_Pooled, "pooled", ", ");
 
     return result;
   }
@@ -430,6 +473,196 @@ public abstract class AbstractDatabaseConnection
     return "If enabled, the connections gets closed once the flow wraps up.";
   }
 
+  /**
+   * Sets whether to use a pool of connections, leasing a separate
+   * connection to each thread.
+   *
+   * @param value	true if pooled
+   */
+  public void setPooled(boolean value) {
+    m_Pooled = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to use a pool of connections, leasing a separate
+   * connection to each thread.
+   *
+   * @return		true if pooled
+   */
+  public boolean getPooled() {
+    return m_Pooled;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String pooledTipText() {
+    return
+      "If enabled, a pool of connections is used instead of a single connection, "
+	+ "with each thread (eg of a LoadBalancer) leasing its own connection.";
+  }
+
+  /**
+   * Sets the minimum number of connections to keep open in the pool.
+   *
+   * @param value	the minimum
+   */
+  public void setPoolMinSize(int value) {
+    if (getOptionManager().isValid("poolMinSize", value)) {
+      m_PoolMinSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the minimum number of connections to keep open in the pool.
+   *
+   * @return		the minimum
+   */
+  public int getPoolMinSize() {
+    return m_PoolMinSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String poolMinSizeTipText() {
+    return "The minimum number of connections to keep open in the pool.";
+  }
+
+  /**
+   * Sets the maximum number of connections in the pool.
+   *
+   * @param value	the maximum
+   */
+  public void setPoolMaxSize(int value) {
+    if (getOptionManager().isValid("poolMaxSize", value)) {
+      m_PoolMaxSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the maximum number of connections in the pool.
+   *
+   * @return		the maximum
+   */
+  public int getPoolMaxSize() {
+    return m_PoolMaxSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String poolMaxSizeTipText() {
+    return "The maximum number of connections in the pool.";
+  }
+
+  /**
+   * Sets the time after which idle connections in the pool get closed.
+   *
+   * @param value	the timeout in seconds, 0 to keep them open
+   */
+  public void setPoolIdleTimeout(int value) {
+    if (getOptionManager().isValid("poolIdleTimeout", value)) {
+      m_PoolIdleTimeout = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the time after which idle connections in the pool get closed.
+   *
+   * @return		the timeout in seconds, 0 to keep them open
+   */
+  public int getPoolIdleTimeout() {
+    return m_PoolIdleTimeout;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String poolIdleTimeoutTipText() {
+    return "The time in seconds after which idle connections in the pool get closed; 0 keeps them open.";
+  }
+
+  /**
+   * Sets the maximum time to wait for a connection from the pool.
+   *
+   * @param value	the maximum in msec, 0 to wait forever
+   */
+  public void setPoolMaxWait(int value) {
+    if (getOptionManager().isValid("poolMaxWait", value)) {
+      m_PoolMaxWait = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the maximum time to wait for a connection from the pool.
+   *
+   * @return		the maximum in msec, 0 to wait forever
+   */
+  public int getPoolMaxWait() {
+    return m_PoolMaxWait;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String poolMaxWaitTipText() {
+    return "The maximum time in msec to wait for a connection from the pool; 0 waits forever.";
+  }
+
+  /**
+   * Sets the timeout for validating connections borrowed from the pool.
+   *
+   * @param value	the timeout in seconds, 0 to only check whether closed
+   */
+  public void setPoolValidationTimeout(int value) {
+    if (getOptionManager().isValid("poolValidationTimeout", value)) {
+      m_PoolValidationTimeout = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the timeout for validating connections borrowed from the pool.
+   *
+   * @return		the timeout in seconds, 0 to only check whether closed
+   */
+  public int getPoolValidationTimeout() {
+    return m_PoolValidationTimeout;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String poolValidationTimeoutTipText() {
+    return
+      "The timeout in seconds for validating connections when borrowing them "
+	+ "from the pool; 0 only checks whether they have been closed.";
+  }
+
   /**
    * Performs the interaction with the user.
    *
@@ -495,6 +728,7 @@ public abstract class AbstractDatabaseConnection
     String				result;
     String				msg;
     adams.db.AbstractDatabaseConnection	conn;
+    boolean				reconfigured;
 
     result = null;
 
@@ -529,9 +763,10 @@ public abstract class AbstractDatabaseConnection
     }
 
     if (result == null) {
-      conn = getConnection();
-      msg  = null;
-      if (!conn.isConnected() && !conn.getConnectOnStartUp()) {
+      conn         = getConnection();
+      msg          = null;
+      reconfigured = conn.configurePool(m_Pooled, m_PoolMinSize, m_PoolMaxSize, m_PoolIdleTimeout, m_PoolMaxWait, m_PoolValidationTimeout);
+      if (!conn.isConnected() && (!conn.getConnectOnStartUp() || reconfigured)) {
         try {
           conn.connect();
         }
@@ -550,6 +785,8 @@ public abstract class AbstractDatabaseConnection
 
     if (result == null) {
       msg = m_DataTypeSetup.setupDataTypes(conn.getConnection(false));
+      // the setup thread does not need to hold on to a pooled connection
+      conn.releaseConnection();
       if (msg != null)
         result = "Failed to setup data types: " + msg;
     }
@@ -582,6 +819,8 @@ public abstract class AbstractDatabaseConnection
    */
   @Override
   public void wrapUp() {
+    if ((m_Connection != null) && (m_Connection.getPool() != null) && isLoggingEnabled())
+      getLogger().info(m_Connection.getPool().getStatistics());
     if (m_CloseConnection && (m_Connection != null)) {
       if (m_Connection.isConnected())
 	m_Connection.disconnect();
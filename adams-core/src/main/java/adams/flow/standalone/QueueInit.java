@@ -90,6 +90,21 @@ import java.util.Hashtable;
  * &nbsp;&nbsp;&nbsp;minimum: -1
  * </pre>
  * 
+ * <pre>-blocking &lt;boolean&gt; (property: blocking)
+ * &nbsp;&nbsp;&nbsp;If enabled, adding items to a full queue waits till space becomes available 
+ * &nbsp;&nbsp;&nbsp;(back-pressure) instead of rejecting them; producers and consumers no longer 
+ * &nbsp;&nbsp;&nbsp;share a single lock in this mode.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
+ * <pre>-timeout &lt;int&gt; (property: timeout)
+ * &nbsp;&nbsp;&nbsp;The timeout in msec for adding items to a full queue in blocking mode, after 
+ * &nbsp;&nbsp;&nbsp;which the item gets rejected; use &lt;= 0 to wait until space is available
+ * &nbsp;&nbsp;&nbsp;or the flow stops.
+ * &nbsp;&nbsp;&nbsp;default: -1
+ * &nbsp;&nbsp;&nbsp;minimum: -1
+ * </pre>
+ * 
  * <pre>-log &lt;adams.flow.core.CallableActorReference&gt; (property: log)
  * &nbsp;&nbsp;&nbsp;The name of the (optional) callable actor to use for logging errors of type 
  * &nbsp;&nbsp;&nbsp;adams.db.LogEntry.
@@ -128,6 +143,12 @@ public class QueueInit
   /** the limit of the queue (<= 0 is unlimited). */
   protected int m_Limit;
 
+  /** whether adding to a full queue blocks. */
+  protected boolean m_Blocking;
+
+  /** the timeout in msec when blocking (<= 0 waits indefinitely). */
+  protected int m_Timeout;
+
   /** the callable name for the log. */
   protected CallableActorReference m_Log;
 
@@ -173,6 +194,14 @@ public class QueueInit
 	    "limit", "limit",
 	    -1, -1, null);
 
+    m_OptionManager.add(
+	    "blocking", "blocking",
+	    false);
+
+    m_OptionManager.add(
+	    "timeout", "timeout",
+	    -1, -1, null);
+
     m_OptionManager.add(
 	    "log", "log",
 	    new CallableActorReference(CallableActorReference.UNKNOWN));
@@ -223,6 +252,9 @@ public class QueueInit
     result  = QuickInfoHelper.toString(this, "storageName", m_StorageName, "storage: ");
     result += QuickInfoHelper.toString(this, "keepExisting", m_KeepExisting, "keep", ", ");
     result += QuickInfoHelper.toString(this, "limit", m_Limit, ", limit: ");
+    result += QuickInfoHelper.toString(this, "blocking", m_Blocking, "blocking", ", ");
+    if (m_Blocking)
+      result += QuickInfoHelper.toString(this, "timeout", m_Timeout, ", timeout: ");
     result += QuickInfoHelper.toString(this, "log", m_Log, ", log: ");
     result += QuickInfoHelper.toString(this, "monitor", m_Monitor, ", monitor: ");
 
@@ -318,6 +350,72 @@ public class QueueInit
     return "The limit of the queue; use <= 0 for unlimited size.";
   }
 
+  /**
+   * Sets whether adding items to a full queue blocks till space is available.
+   *
+   * @param value	true if to block
+   */
+  public void setBlocking(boolean value) {
+    m_Blocking = value;
+    reset();
+  }
+
+  /**
+   * Returns whether adding items to a full queue blocks till space is available.
+   *
+   * @return		true if to block
+   */
+  public boolean getBlocking() {
+    return m_Blocking;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String blockingTipText() {
+    return
+	"If enabled, adding items to a full queue waits till space becomes available "
+	+ "(back-pressure) instead of rejecting them; producers and consumers no "
+	+ "longer share a single lock in this mode.";
+  }
+
+  /**
+   * Sets the timeout for adding items to a full queue in blocking mode.
+   *
+   * @param value	the timeout in msec, <=0 to wait indefinitely
+   */
+  public void setTimeout(int value) {
+    if (value <= 0)
+      value = -1;
+    m_Timeout = value;
+    reset();
+  }
+
+  /**
+   * Returns the timeout for adding items to a full queue in blocking mode.
+   *
+   * @return		the timeout in msec, <=0 to wait indefinitely
+   */
+  public int getTimeout() {
+    return m_Timeout;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String timeoutTipText() {
+    return
+	"The timeout in msec for adding items to a full queue in blocking mode, "
+	+ "after which the item gets rejected; use <= 0 to wait until space is "
+	+ "available or the flow stops.";
+  }
+
   /**
    * Sets the name of the callable actor to use for logging errors.
    *
@@ -483,7 +581,7 @@ public class QueueInit
     if (result == null) {
       for (StorageName name : m_StorageName) {
 	if ((m_KeepExisting && !getStorageHandler().getStorage().has(name)) || !m_KeepExisting) {
-	  handler = new StorageQueueHandler(name.getValue(), m_Limit, m_LogActor, m_MonitorActor);
+	  handler = new StorageQueueHandler(name.getValue(), m_Limit, m_LogActor, m_MonitorActor, m_Blocking, m_Timeout);
 	  handler.setLoggingLevel(getLoggingLevel());
 	  getStorageHandler().getStorage().put(name, handler);
 	}
@@ -21,9 +21,11 @@
 package adams.flow.transformer;
 
 import adams.core.CloneHandler;
+import adams.core.Immutable;
 import adams.core.ObjectCopyHelper;
 import adams.core.QuickInfoHelper;
 import adams.core.option.OptionUtils;
+import adams.flow.core.ActorUtils;
 import adams.flow.core.Token;
 import adams.flow.core.Unknown;
 
@@ -31,7 +33,7 @@ import java.io.Serializable;
 
 /**
  <!-- globalinfo-start -->
- * Creates copies of the tokens being passed through. In auto-mode, if the payload of the token implements java.io.Serializable, then a deep copy is created. If the payload implements the adams.core.CloneHandler interface, then this approach is used to create a copy of the payload. In all other cases, the payload is just forwarded.
+ * Creates copies of the tokens being passed through. In auto-mode, if the payload of the token implements java.io.Serializable, then a deep copy is created. If the payload implements the adams.core.CloneHandler interface, then this approach is used to create a copy of the payload. Immutable payloads (e.g., strings, numbers or classes implementing adams.core.Immutable) get forwarded as is. In all other cases, the payload is just forwarded.
  * <br><br>
  <!-- globalinfo-end -->
  *
@@ -119,7 +121,9 @@ public class Copy
       + "of the token implements " + Serializable.class.getName() + ", then a "
       + "deep copy is created. If the payload implements the "
       + CloneHandler.class.getName() + " interface, then this approach is used "
-      + "to create a copy of the payload. In all other cases, the payload is "
+      + "to create a copy of the payload. Immutable payloads (e.g., strings, "
+      + "numbers or classes implementing " + Immutable.class.getName() + ") "
+      + "get forwarded as is. In all other cases, the payload is "
       + "just forwarded.";
   }
 
@@ -206,13 +210,13 @@ public class Copy
     try {
       switch (m_Type) {
 	case AUTO:
-	  m_OutputToken = new Token(ObjectCopyHelper.copyObject(m_InputToken.getPayload()));
+	  m_OutputToken = new Token(ActorUtils.copyObject(this, m_InputToken.getPayload()));
 	  break;
 	case CLONEHANDLER:
-	  m_OutputToken = new Token(ObjectCopyHelper.copyObject(ObjectCopyHelper.CopyType.CLONEHANDLER, m_InputToken.getPayload()));
+	  m_OutputToken = new Token(ActorUtils.copyObject(this, ObjectCopyHelper.CopyType.CLONEHANDLER, m_InputToken.getPayload()));
 	  break;
 	case SERIALIZATION:
-	  m_OutputToken = new Token(ObjectCopyHelper.copyObject(ObjectCopyHelper.CopyType.SERIALIZABLE, m_InputToken.getPayload()));
+	  m_OutputToken = new Token(ActorUtils.copyObject(this, ObjectCopyHelper.CopyType.SERIALIZABLE, m_InputToken.getPayload()));
 	  break;
 	case SHALLOWCOPY:
 	  m_OutputToken = new Token(OptionUtils.shallowCopy(m_InputToken.getPayload()));
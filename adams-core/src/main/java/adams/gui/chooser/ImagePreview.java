@@ -1,6 +1,6 @@
 /*
  * Copyright (c) 1995, 2008, Oracle and/or its affiliates. All rights reserved.
- * Copyright (C) 2013-2014 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2013-2026 University of Waikato, Hamilton, NZ
  *
  * Redistribution and use in source and binary forms, with or without
  * modification, are permitted provided that the following conditions
@@ -38,6 +38,7 @@ import adams.core.io.PlaceholderFile;
 import adams.data.image.AbstractImageContainer;
 import adams.data.image.BufferedImageHelper;
 import adams.data.io.input.AbstractImageReader;
+import adams.data.io.input.JAIImageReader;
 import adams.gui.core.GUIHelper;
 import adams.gui.core.MouseUtils;
 import adams.gui.dialog.ApprovalDialog;
@@ -165,14 +166,14 @@ public class ImagePreview
     tmpIcon = null;
     if (m_File.exists() && !m_File.isDirectory()) {
       cont = null;
-      // TODO limit size?
       if (m_Owner instanceof ImageFileChooser) {
 	reader = ((ImageFileChooser) m_Owner).getReaderForFile(m_File);
-	if (reader != null)
+	// ImageIO-based images get subsampled while decoding below
+	if ((reader != null) && !(reader instanceof JAIImageReader))
 	  cont = reader.read(new PlaceholderFile(m_File));
       }
       if (cont == null) {
-	cont = BufferedImageHelper.read(m_File);
+	cont = BufferedImageHelper.readThumbnail(m_File, m_PreviewWidth - 10, -1);
       }
       if (cont != null)
 	tmpIcon = new ImageIcon(cont.toBufferedImage());
@@ -0,0 +1,141 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ExecutorHelper.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.multiprocess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Helper methods for executing jobs with a fixed number of threads, e.g.,
+ * for building models or making batch predictions in parallel. With a
+ * single thread, the jobs get executed in the calling thread.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ExecutorHelper {
+
+  /**
+   * Interface for processing a range of indices.
+   */
+  public interface ChunkProcessor {
+
+    /**
+     * Processes the range of indices.
+     *
+     * @param from	the first index (incl)
+     * @param to		the last index (excl)
+     * @throws Exception	if processing fails
+     */
+    public void process(int from, int to) throws Exception;
+  }
+
+  /**
+   * Waits for the job to finish and returns its result, unwrapping any
+   * exception that the job threw.
+   *
+   * @param job		the job to wait for
+   * @return		the result of the job
+   * @throws Exception	if the job failed
+   */
+  public static <T> T get(Future<T> job) throws Exception {
+    try {
+      return job.get();
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception)
+	throw (Exception) e.getCause();
+      throw e;
+    }
+  }
+
+  /**
+   * Executes the jobs and returns their results in the order of the jobs.
+   *
+   * @param jobs	the jobs to execute
+   * @param numThreads	the number of threads to use
+   * @return		the results
+   * @throws Exception	if a job failed
+   */
+  public static <T> List<T> invokeAll(List<? extends Callable<T>> jobs, int numThreads) throws Exception {
+    List<T>		result;
+    ExecutorService	executor;
+    List<Future<T>>	futures;
+
+    result     = new ArrayList<>();
+    numThreads = Math.min(numThreads, jobs.size());
+    if (numThreads <= 1) {
+      for (Callable<T> job: jobs)
+	result.add(job.call());
+      return result;
+    }
+
+    executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      futures = new ArrayList<>();
+      for (Callable<T> job: jobs)
+	futures.add(executor.submit(job));
+      for (Future<T> future: futures)
+	result.add(get(future));
+    }
+    finally {
+      executor.shutdownNow();
+    }
+
+    return result;
+  }
+
+  /**
+   * Splits the indices into one chunk per thread and processes the chunks.
+   *
+   * @param size	the number of indices
+   * @param numThreads	the number of threads to use
+   * @param processor	for processing the chunks
+   * @throws Exception	if processing of a chunk failed
+   */
+  public static void processChunks(int size, int numThreads, final ChunkProcessor processor) throws Exception {
+    List<Callable<Boolean>>	jobs;
+    int				chunk;
+    int				i;
+
+    numThreads = Math.min(numThreads, size);
+    if (numThreads <= 1) {
+      processor.process(0, size);
+      return;
+    }
+
+    chunk = (int) Math.ceil((double) size / numThreads);
+    jobs  = new ArrayList<>();
+    for (i = 0; i < size; i += chunk) {
+      final int from = i;
+      final int to   = Math.min(i + chunk, size);
+      jobs.add(() -> {
+	processor.process(from, to);
+	return true;
+      });
+    }
+    invokeAll(jobs, numThreads);
+  }
+}
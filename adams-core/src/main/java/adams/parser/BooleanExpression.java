@@ -23,9 +23,9 @@ package adams.parser;
 import adams.core.Utils;
 import adams.data.report.Report;
 import adams.parser.booleanexpression.Parser;
+import adams.parser.booleanexpression.ReplayParser;
 import adams.parser.booleanexpression.Scanner;
 import java_cup.runtime.DefaultSymbolFactory;
-import java_cup.runtime.SymbolFactory;
 
 import java.io.ByteArrayInputStream;
 import java.util.HashMap;
@@ -212,6 +212,11 @@ public class BooleanExpression
   /** for serialization. */
   private static final long serialVersionUID = -5923987640355752595L;
 
+  /** the cache for compiled expressions. */
+  protected static CompiledExpressionCache m_Cache = new CompiledExpressionCache(
+    (String expr) -> new Scanner(new ByteArrayInputStream(expr.getBytes()), new DefaultSymbolFactory()),
+    () -> new ReplayParser());
+
   /**
    * Returns a string describing the object.
    *
@@ -438,20 +443,51 @@ public class BooleanExpression
    * @throws Exception	if something goes wrong
    */
   public static boolean evaluate(String expr, HashMap symbols) throws Exception {
-    SymbolFactory 		sf;
-    ByteArrayInputStream 	parserInput;
-    Parser 			parser;
-
     if (expr.equals("true"))
       return true;
     else if (expr.equals("false"))
       return false;
 
-    sf          = new DefaultSymbolFactory();
-    parserInput = new ByteArrayInputStream(expr.getBytes());
-    parser      = new Parser(new Scanner(parserInput, sf), sf);
+    return evaluate(compile(expr), symbols);
+  }
+
+  /**
+   * Returns the compiled expression, using the cache.
+   *
+   * @param expr	the expression to compile
+   * @return		the compiled expression
+   * @throws Exception	if compilation fails
+   */
+  public static CompiledExpression compile(String expr) throws Exception {
+    return m_Cache.compile(expr);
+  }
+
+  /**
+   * Returns the cache for compiled expressions.
+   *
+   * @return		the cache
+   */
+  public static CompiledExpressionCache getCache() {
+    return m_Cache;
+  }
+
+  /**
+   * Evaluates the compiled expression.
+   * Returns the result of the boolean expression, based on the given
+   * values of the symbols.
+   *
+   * @param expr	the compiled expression to evaluate
+   * @param symbols	the symbol/value mapping
+   * @return		the evaluated result
+   * @throws Exception	if something goes wrong
+   * @see		#compile(String)
+   */
+  public static boolean evaluate(CompiledExpression expr, HashMap symbols) throws Exception {
+    ReplayParser	parser;
+
+    parser = new ReplayParser();
     parser.setSymbols(symbols);
-    parser.parse();
+    expr.evaluate(parser);
 
     return parser.getResult();
   }
@@ -0,0 +1,313 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * CompiledExpression.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.parser;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import java_cup.runtime.Scanner;
+import java_cup.runtime.Symbol;
+import java_cup.runtime.lr_parser;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Stack;
+
+/**
+ * Expression that has been run through the lexer and the LR automaton once.
+ * <br><br>
+ * The token stream and the sequence of shift/reduce actions that the parse
+ * tables produce for it only depend on the expression, not on the values of
+ * the symbols (ie variables), since the grammars evaluate the symbols in
+ * their semantic actions. {@link #evaluate(ReplayableParser)} therefore replays the
+ * recorded action sequence and only executes the semantic actions, skipping
+ * the scanner and the table lookups. The token values (numbers, strings,
+ * names) are immutable and therefore get shared.
+ * <br><br>
+ * Expressions with syntax errors have no action sequence and get run through
+ * the regular parser (using the scanner returned by {@link #newScanner()}),
+ * in order to report the errors the same way as before.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CompiledExpression
+  implements Serializable {
+
+  private static final long serialVersionUID = 2406004622402637719L;
+
+  /**
+   * Scanner that replays the tokens of a compiled expression.
+   */
+  public class ReplayScanner
+    implements Scanner {
+
+    /** the index of the next token. */
+    protected int m_Index;
+
+    /**
+     * Returns the next token. Symbols get created fresh every time, as the
+     * parser modifies their state.
+     *
+     * @return		the token, EOF once all tokens have been returned
+     */
+    @Override
+    public Symbol next_token() {
+      return token(m_Index++);
+    }
+  }
+
+  /** the expression. */
+  protected String m_Expression;
+
+  /** the ID of the EOF token. */
+  protected int m_EOF;
+
+  /** the token IDs (excluding EOF). */
+  protected int[] m_IDs;
+
+  /** the token values. */
+  protected Object[] m_Values;
+
+  /** the left positions. */
+  protected int[] m_Left;
+
+  /** the right positions. */
+  protected int[] m_Right;
+
+  /** the actions: shift (&gt;= 0, the new state) or reduce (&lt; 0, -production-1); null if not available. */
+  protected int[] m_Actions;
+
+  /** the states to go to after the reduce actions. */
+  protected int[] m_Gotos;
+
+  /** the number of symbols to pop off the stack for the reduce actions. */
+  protected int[] m_Handles;
+
+  /**
+   * Compiles the expression by reading all tokens from the scanner and
+   * determining the parse actions with the tables of the parser.
+   *
+   * @param expression	the expression that the scanner is reading
+   * @param scanner	the scanner to obtain the tokens from
+   * @param tables	the parser to obtain the parse tables from
+   * @throws Exception	if the scanner fails or the tables cannot be initialized
+   */
+  public CompiledExpression(String expression, Scanner scanner, ReplayableParser tables) throws Exception {
+    List<Symbol>	tokens;
+    Symbol		token;
+    int			i;
+
+    m_Expression = expression;
+    m_EOF        = tables.getParser().EOF_sym();
+
+    tokens = new ArrayList<>();
+    while (((token = scanner.next_token()) != null) && (token.sym != m_EOF))
+      tokens.add(token);
+
+    m_IDs    = new int[tokens.size()];
+    m_Values = new Object[tokens.size()];
+    m_Left   = new int[tokens.size()];
+    m_Right  = new int[tokens.size()];
+    for (i = 0; i < tokens.size(); i++) {
+      token       = tokens.get(i);
+      m_IDs[i]    = token.sym;
+      m_Values[i] = token.value;
+      m_Left[i]   = token.left;
+      m_Right[i]  = token.right;
+    }
+
+    record(tables);
+  }
+
+  /**
+   * Runs the tokens through the LR automaton, recording the shift and
+   * reduce actions. No actions get recorded in case of a syntax error.
+   *
+   * @param tables	the parser to obtain the parse tables from
+   * @throws Exception	if the tables cannot be initialized
+   */
+  protected void record(ReplayableParser tables) throws Exception {
+    lr_parser	parser;
+    short[][]	production;
+    TIntList	actions;
+    TIntList	gotos;
+    TIntList	handles;
+    TIntList	states;
+    int		index;
+    int		sym;
+    int		act;
+    int		prod;
+    int		handle;
+    int		state;
+
+    tables.initReplay();
+    parser     = tables.getParser();
+    production = parser.production_table();
+    actions    = new TIntArrayList();
+    gotos      = new TIntArrayList();
+    handles    = new TIntArrayList();
+    states     = new TIntArrayList();
+    states.add(parser.start_state());
+    index      = 0;
+
+    while (true) {
+      sym = (index < m_IDs.length) ? m_IDs[index] : m_EOF;
+      act = tables.getAction(states.get(states.size() - 1), sym);
+      // syntax error
+      if (act == 0)
+	return;
+      if (act > 0) {
+	// the parser never reads past EOF
+	if (index > m_IDs.length)
+	  return;
+	states.add(act - 1);
+	actions.add(act - 1);
+	gotos.add(-1);
+	handles.add(0);
+	index++;
+      }
+      else {
+	prod   = -act - 1;
+	handle = production[prod][1];
+	if (handle >= states.size())
+	  return;
+	states.remove(states.size() - handle, handle);
+	state = tables.getReduce(states.get(states.size() - 1), production[prod][0]);
+	states.add(state);
+	actions.add(act);
+	gotos.add(state);
+	handles.add(handle);
+	if (prod == parser.start_production())
+	  break;
+      }
+    }
+
+    m_Actions = actions.toArray();
+    m_Gotos   = gotos.toArray();
+    m_Handles = handles.toArray();
+  }
+
+  /**
+   * Returns the token at the specified position.
+   *
+   * @param index	the position of the token
+   * @return		the token, EOF if past the end
+   */
+  protected Symbol token(int index) {
+    if (index >= m_IDs.length)
+      return new Symbol(m_EOF);
+    return new Symbol(m_IDs[index], m_Left[index], m_Right[index], m_Values[index]);
+  }
+
+  /**
+   * Returns the underlying expression.
+   *
+   * @return		the expression
+   */
+  public String getExpression() {
+    return m_Expression;
+  }
+
+  /**
+   * Returns the number of tokens (excluding EOF).
+   *
+   * @return		the number of tokens
+   */
+  public int size() {
+    return m_IDs.length;
+  }
+
+  /**
+   * Returns whether the parse actions are available, ie whether the
+   * expression is syntactically correct.
+   *
+   * @return		true if available
+   */
+  public boolean hasActions() {
+    return (m_Actions != null);
+  }
+
+  /**
+   * Returns a new scanner that replays the tokens.
+   *
+   * @return		the scanner
+   */
+  public Scanner newScanner() {
+    return new ReplayScanner();
+  }
+
+  /**
+   * Evaluates the expression with the parser, which needs to be set up
+   * with the symbols. Replays the recorded
+   * parse actions, only executing the semantic actions of the reduce steps.
+   * Falls back on a regular parse if no actions are available.
+   *
+   * @param replay	the parser to use for the semantic actions
+   * @return		the symbol of the start production
+   * @throws Exception	if evaluation fails
+   * @see		#hasActions()
+   */
+  public Symbol evaluate(ReplayableParser replay) throws Exception {
+    lr_parser		parser;
+    Stack<Symbol>	stack;
+    Symbol		symbol;
+    int			index;
+    int			i;
+    int			n;
+
+    parser = replay.getParser();
+    if (!hasActions()) {
+      parser.setScanner(newScanner());
+      return parser.parse();
+    }
+
+    replay.initReplay();
+    stack = new Stack<>();
+    stack.push(parser.getSymbolFactory().startSymbol("START", 0, parser.start_state()));
+    symbol = null;
+    index  = 0;
+    for (i = 0; i < m_Actions.length; i++) {
+      if (m_Actions[i] >= 0) {
+	symbol = token(index++);
+	symbol.parse_state = m_Actions[i];
+      }
+      else {
+	symbol = parser.do_action(-m_Actions[i] - 1, parser, stack, stack.size() - 1);
+	for (n = 0; n < m_Handles[i]; n++)
+	  stack.pop();
+	symbol.parse_state = m_Gotos[i];
+      }
+      stack.push(symbol);
+    }
+
+    return symbol;
+  }
+
+  /**
+   * Returns the expression.
+   *
+   * @return		the expression
+   */
+  @Override
+  public String toString() {
+    return m_Expression;
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * CompiledExpressionCache.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.parser;
+
+import adams.core.LRUCache;
+import java_cup.runtime.Scanner;
+
+import java.io.Serializable;
+
+/**
+ * Bounded cache for {@link CompiledExpression} objects, keyed by the
+ * expression text.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CompiledExpressionCache
+  implements Serializable {
+
+  private static final long serialVersionUID = -2400364869700498406L;
+
+  /**
+   * Interface for classes that create a scanner for an expression.
+   */
+  public interface ScannerFactory
+    extends Serializable {
+
+    /**
+     * Creates a new scanner for the expression.
+     *
+     * @param expr	the expression to scan
+     * @return		the scanner
+     */
+    public Scanner newScanner(String expr);
+  }
+
+  /**
+   * Interface for classes that create a parser, used for its parse tables.
+   */
+  public interface ParserFactory
+    extends Serializable {
+
+    /**
+     * Creates a new parser.
+     *
+     * @return		the parser
+     */
+    public ReplayableParser newParser();
+  }
+
+  /** the default cache size. */
+  public final static int DEFAULT_SIZE = 1000;
+
+  /** the factory for creating scanners. */
+  protected ScannerFactory m_Factory;
+
+  /** the factory for creating parsers. */
+  protected ParserFactory m_ParserFactory;
+
+  /** the cache. */
+  protected LRUCache<String,CompiledExpression> m_Cache;
+
+  /** the number of cache hits. */
+  protected long m_Hits;
+
+  /** the number of cache misses. */
+  protected long m_Misses;
+
+  /**
+   * Initializes the cache with the default size.
+   *
+   * @param factory	for creating the scanner
+   * @param parserFactory	for creating the parser
+   * @see		#DEFAULT_SIZE
+   */
+  public CompiledExpressionCache(ScannerFactory factory, ParserFactory parserFactory) {
+    this(factory, parserFactory, DEFAULT_SIZE);
+  }
+
+  /**
+   * Initializes the cache.
+   *
+   * @param factory	for creating the scanner
+   * @param parserFactory	for creating the parser
+   * @param size	the maximum number of expressions to cache
+   */
+  public CompiledExpressionCache(ScannerFactory factory, ParserFactory parserFactory, int size) {
+    super();
+
+    m_Factory       = factory;
+    m_ParserFactory = parserFactory;
+    m_Cache         = new LRUCache<>(size);
+    m_Hits          = 0;
+    m_Misses        = 0;
+  }
+
+  /**
+   * Returns the compiled expression, compiling it if not yet in the cache.
+   *
+   * @param expr	the expression to compile
+   * @return		the compiled expression
+   * @throws Exception	if compilation fails
+   */
+  public CompiledExpression compile(String expr) throws Exception {
+    CompiledExpression	result;
+
+    result = m_Cache.get(expr);
+    if (result != null) {
+      synchronized(this) {
+	m_Hits++;
+      }
+      return result;
+    }
+
+    result = new CompiledExpression(expr, m_Factory.newScanner(expr), m_ParserFactory.newParser());
+    m_Cache.put(expr, result);
+    synchronized(this) {
+      m_Misses++;
+    }
+
+    return result;
+  }
+
+  /**
+   * Sets the maximum number of expressions to cache. Clears the cache.
+   *
+   * @param value	the size, 0 to disable caching
+   */
+  public void resize(int value) {
+    m_Cache.resize(value);
+  }
+
+  /**
+   * Returns the maximum number of expressions to cache.
+   *
+   * @return		the size
+   */
+  public int size() {
+    return m_Cache.size();
+  }
+
+  /**
+   * Returns the number of cached expressions.
+   *
+   * @return		the number of expressions
+   */
+  public int sizeUsed() {
+    return m_Cache.sizeUsed();
+  }
+
+  /**
+   * Returns the number of cache hits.
+   *
+   * @return		the hits
+   */
+  public synchronized long getHits() {
+    return m_Hits;
+  }
+
+  /**
+   * Returns the number of cache misses.
+   *
+   * @return		the misses
+   */
+  public synchronized long getMisses() {
+    return m_Misses;
+  }
+
+  /**
+   * Removes all cached expressions and resets the statistics.
+   */
+  public synchronized void clear() {
+    m_Cache.clear();
+    m_Hits   = 0;
+    m_Misses = 0;
+  }
+
+  /**
+   * Returns a short description of the cache.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "size=" + size() + ", used=" + sizeUsed() + ", hits=" + getHits() + ", misses=" + getMisses();
+  }
+}
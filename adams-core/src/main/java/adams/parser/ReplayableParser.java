@@ -0,0 +1,69 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ReplayableParser.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.parser;
+
+import java_cup.runtime.lr_parser;
+
+/**
+ * Interface for parsers that can have their parse actions recorded and
+ * replayed by {@link CompiledExpression}. Exposes the table lookups and
+ * the action initialization of the CUP runtime, which are protected in
+ * {@link lr_parser}, without having to modify the generated parser code.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public interface ReplayableParser {
+
+  /**
+   * Initializes the parse tables and the semantic actions, just like
+   * {@link lr_parser#parse()} does before parsing.
+   *
+   * @throws Exception	if initialization fails
+   */
+  public void initReplay() throws Exception;
+
+  /**
+   * Returns the action for the state and the symbol, using the action table.
+   *
+   * @param state	the current state
+   * @param sym		the lookahead symbol
+   * @return		the action: shift (&gt; 0, state+1), reduce (&lt; 0, -production-1) or error (0)
+   * @see		#initReplay()
+   */
+  public short getAction(int state, int sym);
+
+  /**
+   * Returns the state to go to after a reduce, using the reduce table.
+   *
+   * @param state	the state uncovered by the reduce
+   * @param sym		the symbol on the left-hand side of the production
+   * @return		the new state, -1 if none
+   * @see		#initReplay()
+   */
+  public short getReduce(int state, int sym);
+
+  /**
+   * Returns the underlying parser.
+   *
+   * @return		the parser
+   */
+  public lr_parser getParser();
+}
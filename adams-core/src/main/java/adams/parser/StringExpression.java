@@ -24,9 +24,9 @@ import adams.core.Utils;
 import adams.data.report.Report;
 import adams.data.report.ReportHandler;
 import adams.parser.stringexpression.Parser;
+import adams.parser.stringexpression.ReplayParser;
 import adams.parser.stringexpression.Scanner;
 import java_cup.runtime.DefaultSymbolFactory;
-import java_cup.runtime.SymbolFactory;
 
 import java.io.ByteArrayInputStream;
 import java.util.HashMap;
@@ -207,6 +207,11 @@ public class StringExpression
   /** for serialization. */
   private static final long serialVersionUID = -5923987640355752595L;
 
+  /** the cache for compiled expressions. */
+  protected static CompiledExpressionCache m_Cache = new CompiledExpressionCache(
+    (String expr) -> new Scanner(new ByteArrayInputStream(expr.getBytes()), new DefaultSymbolFactory()),
+    () -> new ReplayParser());
+
   /** the default placeholder for a single symbol. */
   public final static String PLACEHOLDER_OBJECT = "X";
 
@@ -432,15 +437,46 @@ public class StringExpression
    * @throws Exception	if something goes wrong
    */
   public static String evaluate(String expr, HashMap symbols) throws Exception {
-    SymbolFactory 		sf;
-    ByteArrayInputStream 	parserInput;
-    Parser 			parser;
+    return evaluate(compile(expr), symbols);
+  }
+
+  /**
+   * Returns the compiled expression, using the cache.
+   *
+   * @param expr	the expression to compile
+   * @return		the compiled expression
+   * @throws Exception	if compilation fails
+   */
+  public static CompiledExpression compile(String expr) throws Exception {
+    return m_Cache.compile(expr);
+  }
+
+  /**
+   * Returns the cache for compiled expressions.
+   *
+   * @return		the cache
+   */
+  public static CompiledExpressionCache getCache() {
+    return m_Cache;
+  }
+
+  /**
+   * Evaluates the compiled expression.
+   * Returns the result of the string expression, based on the given
+   * values of the symbols.
+   *
+   * @param expr	the compiled expression to evaluate
+   * @param symbols	the symbol/value mapping
+   * @return		the evaluated result
+   * @throws Exception	if something goes wrong
+   * @see		#compile(String)
+   */
+  public static String evaluate(CompiledExpression expr, HashMap symbols) throws Exception {
+    ReplayParser	parser;
 
-    sf          = new DefaultSymbolFactory();
-    parserInput = new ByteArrayInputStream(expr.getBytes());
-    parser      = new Parser(new Scanner(parserInput, sf), sf);
+    parser = new ReplayParser();
     parser.setSymbols(symbols);
-    parser.parse();
+    expr.evaluate(parser);
 
     return parser.getResult();
   }
@@ -0,0 +1,93 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ReplayParser.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.parser.booleanexpression;
+
+import adams.parser.ReplayableParser;
+import java_cup.runtime.DefaultSymbolFactory;
+import java_cup.runtime.lr_parser;
+
+/**
+ * Parser that can be used for replaying compiled expressions.
+ * Kept separate from the generated {@link Parser} class, which gets
+ * overwritten whenever the grammar gets regenerated.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ * @see adams.parser.CompiledExpression
+ */
+public class ReplayParser
+  extends Parser
+  implements ReplayableParser {
+
+  /**
+   * Initializes the parser without a scanner.
+   */
+  public ReplayParser() {
+    super(null, new DefaultSymbolFactory());
+  }
+
+  /**
+   * Initializes the parse tables and the semantic actions, just like
+   * {@link #parse()} does before parsing.
+   *
+   * @throws Exception	if initialization fails
+   */
+  @Override
+  public void initReplay() throws Exception {
+    production_tab = production_table();
+    action_tab     = action_table();
+    reduce_tab     = reduce_table();
+    init_actions();
+  }
+
+  /**
+   * Returns the action for the state and the symbol, using the action table.
+   *
+   * @param state	the current state
+   * @param sym		the lookahead symbol
+   * @return		the action
+   */
+  @Override
+  public short getAction(int state, int sym) {
+    return get_action(state, sym);
+  }
+
+  /**
+   * Returns the state to go to after a reduce, using the reduce table.
+   *
+   * @param state	the state uncovered by the reduce
+   * @param sym		the symbol on the left-hand side of the production
+   * @return		the new state, -1 if none
+   */
+  @Override
+  public short getReduce(int state, int sym) {
+    return get_reduce(state, sym);
+  }
+
+  /**
+   * Returns the underlying parser.
+   *
+   * @return		this parser
+   */
+  @Override
+  public lr_parser getParser() {
+    return this;
+  }
+}
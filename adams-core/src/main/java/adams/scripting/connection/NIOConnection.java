@@ -0,0 +1,642 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * NIOConnection.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.scripting.connection;
+
+import adams.core.QuickInfoHelper;
+import adams.core.logging.LoggingHelper;
+import adams.scripting.command.RemoteCommand;
+import adams.scripting.processor.BinaryFrame;
+import adams.scripting.processor.RemoteCommandProcessor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Sends the command as length-prefixed binary frame to the specified
+ * host:port, which requires an adams.scripting.engine.NIOScriptingEngine
+ * on the other end.<br>
+ * Connections are kept open and get shared by all instances that send to
+ * the same host:port. Frames from multiple threads get written one after
+ * the other and the engine acknowledges each frame on the same connection,
+ * using the ID of the frame. Sending only succeeds once the acknowledgement
+ * has arrived (responses of commands still get sent via separate
+ * connections, as with the other connections). A single thread reads the
+ * acknowledgements of all connections and detects connections that got
+ * closed by the other end. Frames on such connections, as well as frames
+ * that fail to get written, get sent once more using a new connection.
+ * All connections get closed when the JVM shuts down.<br>
+ * The command processor is not used for formatting the commands.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class NIOConnection
+  extends AbstractConnection {
+
+  private static final long serialVersionUID = -1870374394659426207L;
+
+  /**
+   * An open connection, with the frames that are waiting for their
+   * acknowledgement.
+   */
+  protected static class Link {
+
+    /** the key (host:port). */
+    protected String m_Key;
+
+    /** the channel. */
+    protected SocketChannel m_Channel;
+
+    /** the buffer for reading the acknowledgements. */
+    protected ByteBuffer m_Buffer;
+
+    /** the frames waiting for acknowledgement (frame ID - error message). */
+    protected Map<Long,CompletableFuture<String>> m_Pending;
+
+    /** for waiting until the channel can be written to again. */
+    protected Selector m_WriteSelector;
+
+    /** whether the connection has been closed. */
+    protected volatile boolean m_Closed;
+
+    /**
+     * Initializes the link.
+     *
+     * @param key	the key (host:port)
+     * @param channel	the connected channel, in non-blocking mode
+     * @throws IOException	if initialization fails
+     */
+    public Link(String key, SocketChannel channel) throws IOException {
+      m_Key           = key;
+      m_Channel       = channel;
+      m_Buffer        = ByteBuffer.allocate(BinaryFrame.MAX_ACK_SIZE);
+      m_Pending       = new ConcurrentHashMap<>();
+      m_WriteSelector = Selector.open();
+      m_Channel.register(m_WriteSelector, SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * Returns whether the connection has been closed.
+     *
+     * @return		true if closed
+     */
+    public boolean isClosed() {
+      return m_Closed || !m_Channel.isOpen();
+    }
+
+    /**
+     * Writes the frame to the channel. Frames do not get interleaved.
+     *
+     * @param frame	the frame to write
+     * @param timeout	the timeout in msec to wait for the channel to become writable
+     * @throws IOException	if writing fails
+     */
+    protected void write(BinaryFrame frame, int timeout) throws IOException {
+      ByteBuffer	buffer;
+
+      buffer = frame.toBuffer();
+      synchronized(m_WriteSelector) {
+	while (buffer.hasRemaining()) {
+	  if (m_Channel.write(buffer) > 0)
+	    continue;
+	  if (m_WriteSelector.select(timeout) == 0)
+	    throw new IOException("Timed out writing frame #" + frame.getID() + "!");
+	  m_WriteSelector.selectedKeys().clear();
+	}
+      }
+    }
+
+    /**
+     * Sends the frame and waits for its acknowledgement.
+     *
+     * @param frame	the frame to send
+     * @param timeout	the timeout in msec to wait for the acknowledgement
+     * @return		null if acknowledged successfully, otherwise the error message
+     * @throws IOException	if writing fails or the connection got closed
+     */
+    public String send(BinaryFrame frame, int timeout) throws IOException {
+      CompletableFuture<String>	ack;
+
+      ack = new CompletableFuture<>();
+      m_Pending.put(frame.getID(), ack);
+      try {
+	// closing fails all waiting frames, so check after adding the frame
+	if (isClosed())
+	  throw new ClosedChannelException();
+	write(frame, timeout);
+	return ack.get(timeout, TimeUnit.MILLISECONDS);
+      }
+      catch (ExecutionException e) {
+	if (e.getCause() instanceof IOException)
+	  throw (IOException) e.getCause();
+	throw new IOException(e.getCause());
+      }
+      catch (TimeoutException e) {
+	return "No acknowledgement received for frame #" + frame.getID() + " within " + timeout + "msec!";
+      }
+      catch (InterruptedException e) {
+	return "Interrupted while waiting for acknowledgement of frame #" + frame.getID() + "!";
+      }
+      finally {
+	m_Pending.remove(frame.getID());
+      }
+    }
+
+    /**
+     * Reads the available acknowledgements.
+     *
+     * @throws IOException	if reading fails or the other end closed the connection
+     */
+    public void read() throws IOException {
+      BinaryFrame		frame;
+      CompletableFuture<String>	ack;
+
+      if (m_Channel.read(m_Buffer) == -1)
+	throw new EOFException("Connection closed by " + m_Key);
+
+      m_Buffer.flip();
+      while ((frame = BinaryFrame.read(m_Buffer, BinaryFrame.MAX_ACK_SIZE)) != null) {
+	if (!frame.isAcknowledgement())
+	  throw new IOException("Expected acknowledgement, received frame of type " + frame.getType() + " from " + m_Key);
+	ack = m_Pending.get(frame.getID());
+	if (ack != null)
+	  ack.complete(frame.getError());
+      }
+      m_Buffer.compact();
+    }
+
+    /**
+     * Closes the connection, failing all frames that are waiting for their
+     * acknowledgement.
+     *
+     * @param reason	the reason for closing
+     */
+    public void close(String reason) {
+      IOException	e;
+
+      m_Closed = true;
+      NIOConnection.close(m_Channel);
+      try {
+	m_WriteSelector.close();
+      }
+      catch (Exception ex) {
+	// ignored
+      }
+      e = new ClosedChannelException();
+      e.initCause(new IOException(reason));
+      for (CompletableFuture<String> ack: m_Pending.values())
+	ack.completeExceptionally(e);
+    }
+  }
+
+  /** the open connections (host:port - link). */
+  protected static Map<String,Link> m_Links = new HashMap<>();
+
+  /** the hook for closing the connections when the JVM shuts down. */
+  protected static Thread m_ShutdownHook;
+
+  /** the selector for reading the acknowledgements of all connections. */
+  protected static Selector m_Selector;
+
+  /** the connections that still need registering with the selector. */
+  protected static Queue<Link> m_Register = new ConcurrentLinkedQueue<>();
+
+  /** the thread reading the acknowledgements. */
+  protected static Thread m_Reader;
+
+  /** for generating frame IDs. */
+  protected static AtomicLong m_NextID = new AtomicLong();
+
+  /** the host. */
+  protected String m_Host;
+
+  /** the host port. */
+  protected int m_Port;
+
+  /** the timeout in msec for establishing the connection. */
+  protected int m_Timeout;
+
+  /** the timeout in msec for writing and acknowledging frames. */
+  protected int m_AckTimeout;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return
+      "Sends the command as length-prefixed binary frame to the specified "
+	+ "host:port, which requires an " + adams.scripting.engine.NIOScriptingEngine.class.getName()
+	+ " on the other end.\n"
+	+ "Connections are kept open and get shared by all instances that send to "
+	+ "the same host:port. Frames from multiple threads get written one after "
+	+ "the other and the engine acknowledges each frame on the same connection, "
+	+ "using the ID of the frame. Sending only succeeds once the acknowledgement "
+	+ "has arrived (responses of commands still get sent via separate "
+	+ "connections, as with the other connections). A single thread reads the "
+	+ "acknowledgements of all connections and detects connections that got "
+	+ "closed by the other end. Frames on such connections, as well as frames "
+	+ "that fail to get written, get sent once more using a new connection. "
+	+ "All connections get closed when the JVM shuts down.\n"
+	+ "The command processor is not used for formatting the commands.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "host", "host",
+      "127.0.0.1");
+
+    m_OptionManager.add(
+      "port", "port",
+      12345, 1, 65535);
+
+    m_OptionManager.add(
+      "timeout", "timeout",
+      3000, 100, null);
+
+    m_OptionManager.add(
+      "ack-timeout", "ackTimeout",
+      30000, 100, null);
+  }
+
+  /**
+   * Sets the host to send the command to.
+   *
+   * @param value	the host
+   */
+  public void setHost(String value) {
+    m_Host = value;
+    reset();
+  }
+
+  /**
+   * Returns the host to send the command to.
+   *
+   * @return		the host
+   */
+  public String getHost() {
+    return m_Host;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  public String hostTipText() {
+    return "The host to send the command to.";
+  }
+
+  /**
+   * Sets the port to send the command to.
+   *
+   * @param value	the port
+   */
+  public void setPort(int value) {
+    if (getOptionManager().isValid("port", value)) {
+      m_Port = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the port to send the command to.
+   *
+   * @return		the port
+   */
+  public int getPort() {
+    return m_Port;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  public String portTipText() {
+    return "The port to send the command to.";
+  }
+
+  /**
+   * Sets the timeout in milli-second for establishing the connection.
+   *
+   * @param value	the timeout in msec
+   */
+  public void setTimeout(int value) {
+    if (getOptionManager().isValid("timeout", value)) {
+      m_Timeout = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the timeout in milli-second for establishing the connection.
+   *
+   * @return		the timeout in msec
+   */
+  public int getTimeout() {
+    return m_Timeout;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  public String timeoutTipText() {
+    return "The timeout in milli-second for establishing the connection.";
+  }
+
+  /**
+   * Sets the timeout in milli-second to wait for a frame to get written
+   * and acknowledged.
+   *
+   * @param value	the timeout in msec
+   */
+  public void setAckTimeout(int value) {
+    if (getOptionManager().isValid("ackTimeout", value)) {
+      m_AckTimeout = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the timeout in milli-second to wait for a frame to get written
+   * and acknowledged.
+   *
+   * @return		the timeout in msec
+   */
+  public int getAckTimeout() {
+    return m_AckTimeout;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  public String ackTimeoutTipText() {
+    return "The timeout in milli-second for writing a frame and receiving its acknowledgement.";
+  }
+
+  /**
+   * Returns a quick info about the object, which can be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  public String getQuickInfo() {
+    String  	result;
+
+    result = QuickInfoHelper.toString(this, "host", m_Host);
+    result += QuickInfoHelper.toString(this, "port", m_Port, ":");
+
+    return result;
+  }
+
+  /**
+   * Closes the channel, ignoring any errors.
+   *
+   * @param channel	the channel to close
+   */
+  protected static void close(SocketChannel channel) {
+    try {
+      channel.close();
+    }
+    catch (Exception e) {
+      // ignored
+    }
+  }
+
+  /**
+   * Reads the acknowledgements of all connections, closing the connections
+   * that got closed by the other end or that fail.
+   */
+  protected static void readAll() {
+    Iterator<SelectionKey>	iter;
+    SelectionKey		key;
+    Link			link;
+
+    while (true) {
+      try {
+	m_Selector.select();
+	while ((link = m_Register.poll()) != null) {
+	  try {
+	    link.m_Channel.register(m_Selector, SelectionKey.OP_READ, link);
+	  }
+	  catch (Exception e) {
+	    remove(link, "Failed to register: " + e);
+	  }
+	}
+	iter = m_Selector.selectedKeys().iterator();
+	while (iter.hasNext()) {
+	  key = iter.next();
+	  iter.remove();
+	  link = (Link) key.attachment();
+	  try {
+	    if (key.isValid() && key.isReadable())
+	      link.read();
+	  }
+	  catch (Exception e) {
+	    key.cancel();
+	    remove(link, e.getMessage());
+	  }
+	}
+      }
+      catch (Exception e) {
+	LoggingHelper.getLogger(NIOConnection.class).log(Level.SEVERE, "Failed to read acknowledgements!", e);
+      }
+    }
+  }
+
+  /**
+   * Returns the open connection for the host:port, establishing a new
+   * connection if necessary.
+   *
+   * @param host	the host to connect to
+   * @param port	the host port
+   * @param timeout	the timeout in msec for connecting
+   * @return		the connection
+   * @throws IOException	if connecting fails
+   */
+  protected static Link getLink(String host, int port, int timeout) throws IOException {
+    Link		result;
+    SocketChannel	channel;
+    String		key;
+
+    key = host + ":" + port;
+    synchronized(m_Links) {
+      result = m_Links.get(key);
+      if ((result != null) && result.isClosed()) {
+	result.close("Connection closed");
+	m_Links.remove(key);
+	result = null;
+      }
+      if (result == null) {
+	channel = SocketChannel.open();
+	try {
+	  channel.socket().setTcpNoDelay(true);
+	  channel.socket().connect(new InetSocketAddress(host, port), timeout);
+	  channel.configureBlocking(false);
+	  result = new Link(key, channel);
+	}
+	catch (IOException e) {
+	  close(channel);
+	  throw e;
+	}
+	m_Links.put(key, result);
+	if (m_ShutdownHook == null) {
+	  m_ShutdownHook = new Thread(NIOConnection::closeAll);
+	  Runtime.getRuntime().addShutdownHook(m_ShutdownHook);
+	}
+	if (m_Reader == null) {
+	  m_Selector = Selector.open();
+	  m_Reader   = new Thread(NIOConnection::readAll, NIOConnection.class.getSimpleName() + "-reader");
+	  m_Reader.setDaemon(true);
+	  m_Reader.start();
+	}
+	m_Register.add(result);
+	m_Selector.wakeup();
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Closes the connection and removes it from the open ones.
+   *
+   * @param link	the connection to remove
+   * @param reason	the reason for closing
+   */
+  protected static void remove(Link link, String reason) {
+    synchronized(m_Links) {
+      link.close(reason);
+      m_Links.remove(link.m_Key, link);
+    }
+  }
+
+  /**
+   * Closes all open connections. Gets called automatically when the JVM
+   * shuts down.
+   */
+  public static void closeAll() {
+    synchronized(m_Links) {
+      for (Link link: m_Links.values())
+	link.close("Closing all connections");
+      m_Links.clear();
+    }
+  }
+
+  /**
+   * Sends the command to the specified scripting engine.
+   *
+   * @param cmd		the command to send
+   * @param host	the host to send the command to
+   * @param port	the host port
+   * @param request	whether Request or Response
+   * @return		null if successfully sent and acknowledged, otherwise error message
+   */
+  protected String send(RemoteCommand cmd, String host, int port, boolean request) {
+    String		result;
+    BinaryFrame		frame;
+    Link		link;
+
+    link  = null;
+    frame = BinaryFrame.assemble(m_NextID.incrementAndGet(), cmd, request);
+    try {
+      link   = getLink(host, port, m_Timeout);
+      result = link.send(frame, m_AckTimeout);
+    }
+    catch (Exception e) {
+      // other end might have closed the connection, try again with new connection
+      if (link != null) {
+	remove(link, "Failed to send frame #" + frame.getID() + ": " + e);
+	try {
+	  link   = getLink(host, port, m_Timeout);
+	  result = link.send(frame, m_AckTimeout);
+	}
+	catch (Exception ex) {
+	  result = LoggingHelper.handleException(
+	    cmd, "Failed to send " + (request ? "request" : "response") + " to " + host + ":" + port, ex);
+	}
+      }
+      else {
+	result = LoggingHelper.handleException(
+	  cmd, "Failed to send " + (request ? "request" : "response") + " to " + host + ":" + port, e);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Sends the request command.
+   *
+   * @param cmd		the command to send
+   * @param processor	ignored
+   * @return		null if successful, otherwise error message
+   */
+  @Override
+  protected String doSendRequest(RemoteCommand cmd, RemoteCommandProcessor processor) {
+    return send(cmd, m_Host, m_Port, true);
+  }
+
+  /**
+   * Sends the response command.
+   *
+   * @param cmd		the command to send
+   * @param processor	ignored
+   * @return		null if successful, otherwise error message
+   */
+  @Override
+  protected String doSendResponse(RemoteCommand cmd, RemoteCommandProcessor processor) {
+    return send(cmd, m_Host, m_Port, false);
+  }
+}
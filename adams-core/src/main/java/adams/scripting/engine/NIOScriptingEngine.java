@@ -0,0 +1,583 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * NIOScriptingEngine.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.scripting.engine;
+
+import adams.core.MessageCollection;
+import adams.core.Utils;
+import adams.core.logging.LoggingHelper;
+import adams.core.net.PortManager;
+import adams.multiprocess.PausableFixedThreadPoolExecutor;
+import adams.scripting.command.RemoteCommand;
+import adams.scripting.connection.NIOConnection;
+import adams.scripting.processor.BinaryFrame;
+import adams.scripting.processor.DefaultProcessor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+/**
+ * Scripting engine that keeps client connections open and receives the
+ * commands as length-prefixed binary frames, as sent by the
+ * {@link NIOConnection}. All connections are handled by a single thread
+ * using a selector, with any number of frames per connection. Each frame
+ * gets acknowledged on the same connection (using the ID of the frame) once
+ * the command has been instantiated and permitted. The commands get handled
+ * one after the other in a separate thread, so that acknowledging does not
+ * have to wait for commands that send commands themselves.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class NIOScriptingEngine
+  extends AbstractScriptingEngineWithJobQueue {
+
+  private static final long serialVersionUID = 5563367389738036474L;
+
+  /** the default port. */
+  public final static int DEFAULT_PORT = 12345;
+
+  /** the initial size of the read buffers. */
+  public final static int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * The state of a client connection.
+   */
+  protected static class Client {
+
+    /** the buffer for reading the frames. */
+    protected ByteBuffer m_Buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    /** the acknowledgements that still need writing. */
+    protected Deque<ByteBuffer> m_Pending = new ArrayDeque<>();
+  }
+
+  /** for accepting connections. */
+  protected transient ServerSocketChannel m_Server;
+
+  /** for multiplexing the connections. */
+  protected transient Selector m_Selector;
+
+  /** the timeout for the selector. */
+  protected int m_Timeout;
+
+  /** the port to listen on. */
+  protected int m_Port;
+
+  /** the maximum frame size. */
+  protected int m_MaxFrameSize;
+
+  /** the processor for instantiating the commands. */
+  protected transient DefaultProcessor m_FrameProcessor;
+
+  /** for handling the commands one after the other. */
+  protected transient ExecutorService m_Dispatcher;
+
+  /** the number of frames received. */
+  protected long m_NumFrames;
+
+  /** the number of bytes received. */
+  protected long m_NumBytes;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return
+      "Scripting engine that keeps client connections open and receives the "
+	+ "commands as length-prefixed binary frames, as sent by the "
+	+ NIOConnection.class.getName() + ". All connections are handled by a "
+	+ "single thread using a selector, with any number of frames per connection. "
+	+ "Each frame gets acknowledged on the same connection (using the ID of the "
+	+ "frame) once the command has been instantiated and permitted. The commands "
+	+ "get handled one after the other in a separate thread, so that acknowledging "
+	+ "does not have to wait for commands that send commands themselves.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "port", "port",
+      DEFAULT_PORT, 1, 65535);
+
+    m_OptionManager.add(
+      "timeout", "timeout",
+      3000, 100, null);
+
+    m_OptionManager.add(
+      "max-frame-size", "maxFrameSize",
+      BinaryFrame.DEFAULT_MAX_SIZE, 1024, null);
+  }
+
+  /**
+   * Sets the port to listen on.
+   *
+   * @param value	the port to listen on
+   */
+  public void setPort(int value) {
+    if (getOptionManager().isValid("port", value)) {
+      m_Port = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the port to listen on.
+   *
+   * @return		the port listening on
+   */
+  public int getPort() {
+    return m_Port;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  public String portTipText() {
+    return "The port to listen on for remote connections.";
+  }
+
+  /**
+   * Sets the timeout in milli-second to wait for activity on the connections.
+   *
+   * @param value	the timeout in msec
+   */
+  public void setTimeout(int value) {
+    if (getOptionManager().isValid("timeout", value)) {
+      m_Timeout = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the timeout in milli-second to wait for activity on the connections.
+   *
+   * @return		the timeout in msec
+   */
+  public int getTimeout() {
+    return m_Timeout;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  public String timeoutTipText() {
+    return "The timeout in milli-second for waiting on activity on the client connections.";
+  }
+
+  /**
+   * Sets the maximum size in bytes of a frame.
+   *
+   * @param value	the maximum size
+   */
+  public void setMaxFrameSize(int value) {
+    if (getOptionManager().isValid("maxFrameSize", value)) {
+      m_MaxFrameSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the maximum size in bytes of a frame.
+   *
+   * @return		the maximum size
+   */
+  public int getMaxFrameSize() {
+    return m_MaxFrameSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  public String maxFrameSizeTipText() {
+    return "The maximum size in bytes of a frame; connections sending larger frames get closed.";
+  }
+
+  /**
+   * Returns the number of frames received so far.
+   *
+   * @return		the number of frames
+   */
+  public long getNumFrames() {
+    return m_NumFrames;
+  }
+
+  /**
+   * Returns the number of bytes received so far.
+   *
+   * @return		the number of bytes
+   */
+  public long getNumBytes() {
+    return m_NumBytes;
+  }
+
+  /**
+   * Closes the server socket and all client connections if necessary.
+   */
+  protected void closeSocket() {
+    if (m_Selector != null) {
+      for (SelectionKey key: m_Selector.keys()) {
+	try {
+	  key.channel().close();
+	}
+	catch (Exception e) {
+	  // ignored
+	}
+      }
+      try {
+	m_Selector.close();
+      }
+      catch (Exception e) {
+	LoggingHelper.handleException(this, "Failed to close selector!", e);
+      }
+      m_Selector = null;
+    }
+
+    if (m_Server != null) {
+      PortManager.getSingleton().release(m_Port);
+      try {
+	m_Server.close();
+      }
+      catch (Exception e) {
+	LoggingHelper.handleException(this, "Failed to close server socket!", e);
+      }
+      m_Server = null;
+    }
+  }
+
+  /**
+   * Closes the client connection.
+   *
+   * @param key		the key of the connection to close
+   */
+  protected void closeClient(SelectionKey key) {
+    key.cancel();
+    try {
+      key.channel().close();
+    }
+    catch (Exception e) {
+      // ignored
+    }
+  }
+
+  /**
+   * Accepts a new client connection.
+   *
+   * @throws IOException	if accepting fails
+   */
+  protected void acceptClient() throws IOException {
+    SocketChannel	client;
+
+    client = m_Server.accept();
+    if (client == null)
+      return;
+    client.configureBlocking(false);
+    client.socket().setTcpNoDelay(true);
+    client.register(m_Selector, SelectionKey.OP_READ, new Client());
+    if (isLoggingEnabled())
+      getLogger().info("Accepted connection from " + client.getRemoteAddress());
+  }
+
+  /**
+   * Writes as many of the outstanding acknowledgements as possible without
+   * blocking. Waits for the connection to become writable again if not all
+   * of them could be written.
+   *
+   * @param key		the key of the client connection
+   * @throws IOException	if writing fails
+   */
+  protected void writeClient(SelectionKey key) throws IOException {
+    SocketChannel	channel;
+    Client		client;
+    ByteBuffer		buffer;
+
+    channel = (SocketChannel) key.channel();
+    client  = (Client) key.attachment();
+    while ((buffer = client.m_Pending.peek()) != null) {
+      channel.write(buffer);
+      if (buffer.hasRemaining()) {
+	key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+	return;
+      }
+      client.m_Pending.poll();
+    }
+    key.interestOps(SelectionKey.OP_READ);
+  }
+
+  /**
+   * Reads the available data from the client, handles all the complete
+   * frames and acknowledges them.
+   *
+   * @param key		the key of the client connection
+   */
+  protected void readClient(SelectionKey key) {
+    SocketChannel	channel;
+    Client		client;
+    ByteBuffer		buffer;
+    ByteBuffer		larger;
+    BinaryFrame		frame;
+    String		msg;
+    int			read;
+    int			length;
+
+    channel = (SocketChannel) key.channel();
+    client  = (Client) key.attachment();
+    buffer  = client.m_Buffer;
+
+    try {
+      read = channel.read(buffer);
+      if (read == -1) {
+	if (isLoggingEnabled())
+	  getLogger().info("Connection closed by " + channel.getRemoteAddress());
+	closeClient(key);
+	return;
+      }
+      m_NumBytes += read;
+
+      // process complete frames
+      buffer.flip();
+      while ((frame = BinaryFrame.read(buffer, m_MaxFrameSize)) != null) {
+	m_NumFrames++;
+	msg = handleFrame(frame);
+	client.m_Pending.add(BinaryFrame.acknowledge(frame.getID(), msg).toBuffer());
+      }
+      writeClient(key);
+
+      // make room for the remainder of the current frame
+      if (buffer.remaining() >= BinaryFrame.PREFIX_SIZE) {
+	length = BinaryFrame.PREFIX_SIZE + buffer.getInt(buffer.position());
+	if (length > buffer.capacity()) {
+	  larger = ByteBuffer.allocate(length);
+	  larger.put(buffer);
+	  client.m_Buffer = larger;
+	  return;
+	}
+      }
+      buffer.compact();
+    }
+    catch (Exception e) {
+      getLogger().log(Level.SEVERE, "Failed to process client connection, closing!", e);
+      closeClient(key);
+    }
+  }
+
+  /**
+   * Handles the received frame: instantiates the command, checks whether
+   * it is permitted and queues it for handling.
+   *
+   * @param frame	the frame to handle
+   * @return		null if successfully queued, otherwise error message
+   * @see		#handleCommand(long, RemoteCommand)
+   */
+  protected String handleFrame(BinaryFrame frame) {
+    String		result;
+    RemoteCommand	cmd;
+    MessageCollection	errors;
+
+    if (frame.isAcknowledgement())
+      return "Unexpected acknowledgement!";
+
+    // instantiate command
+    errors = new MessageCollection();
+    cmd    = frame.toCommand(m_FrameProcessor, errors);
+
+    if (cmd != null) {
+      // permitted?
+      if (!m_PermissionHandler.permitted(cmd)) {
+	m_RequestHandler.requestRejected(cmd, "Not permitted!");
+	return "Not permitted!";
+      }
+
+      // handle command
+      m_Dispatcher.execute(() -> handleCommand(frame.getID(), cmd));
+      result = null;
+    }
+    else {
+      if (!errors.isEmpty())
+	result = "Failed to parse command (frame #" + frame.getID() + "):\n" + errors.toString();
+      else
+	result = "Failed to parse command (frame #" + frame.getID() + ")!";
+      getLogger().severe(result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Handles the command.
+   *
+   * @param id		the ID of the frame that the command came in
+   * @param cmd		the command to handle
+   */
+  protected void handleCommand(long id, RemoteCommand cmd) {
+    String	msg;
+
+    try {
+      msg = m_CommandHandler.handle(cmd, m_CommandProcessor);
+      if (msg != null)
+	getLogger().severe("Failed to handle command (frame #" + id + "):\n" + msg);
+    }
+    catch (Exception e) {
+      getLogger().log(Level.SEVERE, "Failed to handle command (frame #" + id + ")!", e);
+    }
+  }
+
+  /**
+   * Executes the scripting engine.
+   *
+   * @return		error message in case of failure to start up or run,
+   * 			otherwise null
+   */
+  @Override
+  protected String doExecute() {
+    String			result;
+    Iterator<SelectionKey>	iter;
+    SelectionKey		key;
+
+    result           = null;
+    m_Paused         = false;
+    m_Stopped        = false;
+    m_NumFrames      = 0;
+    m_NumBytes       = 0;
+    m_FrameProcessor = new DefaultProcessor();
+    m_Dispatcher     = Executors.newSingleThreadExecutor();
+
+    // connect to port
+    try {
+      m_Selector = Selector.open();
+      m_Server   = ServerSocketChannel.open();
+      m_Server.bind(new InetSocketAddress(m_Port));
+      m_Server.configureBlocking(false);
+      m_Server.register(m_Selector, SelectionKey.OP_ACCEPT);
+      PortManager.getSingleton().bind(this, m_Port);
+    }
+    catch (Exception e) {
+      result = LoggingHelper.handleException(this, "Failed to set up server socket, using port " + m_Port + "!", e);
+      closeSocket();
+    }
+
+    // wait for activity
+    if (m_Server != null) {
+      // start up job queue
+      m_Executor = new PausableFixedThreadPoolExecutor(m_MaxConcurrentJobs);
+
+      while (!m_Stopped) {
+	while (m_Paused && !m_Stopped) {
+	  Utils.wait(this, this, 1000, 50);
+	}
+
+	try {
+	  if (m_Selector.select(m_Timeout) == 0)
+	    continue;
+	  iter = m_Selector.selectedKeys().iterator();
+	  while (iter.hasNext()) {
+	    key = iter.next();
+	    iter.remove();
+	    if (!key.isValid())
+	      continue;
+	    if (key.isAcceptable()) {
+	      acceptClient();
+	      continue;
+	    }
+	    if (key.isWritable()) {
+	      try {
+		writeClient(key);
+	      }
+	      catch (Exception e) {
+		getLogger().log(Level.SEVERE, "Failed to acknowledge frames, closing connection!", e);
+		closeClient(key);
+		continue;
+	      }
+	    }
+	    if (key.isReadable())
+	      readClient(key);
+	  }
+	}
+	catch (Exception e) {
+	  if ((m_Server != null) && m_Server.isOpen())
+	    LoggingHelper.handleException(this, "Failed to process connections!", e);
+	}
+      }
+    }
+
+    closeSocket();
+    getLogger().info("Frames received: " + m_NumFrames + ", bytes received: " + m_NumBytes);
+
+    m_Dispatcher.shutdown();
+    while (!m_Dispatcher.isTerminated())
+      Utils.wait(this, 1000, 100);
+
+    if ((m_Executor != null) && !m_Executor.isTerminated()) {
+      getLogger().info("Shutting down job queue...");
+      m_Executor.shutdown();
+      while (!m_Executor.isTerminated())
+	Utils.wait(this, 1000, 100);
+      getLogger().info("Job queue shut down");
+    }
+
+    return result;
+  }
+
+  /**
+   * Stops the execution.
+   */
+  @Override
+  public void stopExecution() {
+    super.stopExecution();
+    if (m_Selector != null)
+      m_Selector.wakeup();
+  }
+
+  /**
+   * Starts the scripting engine from commandline.
+   *
+   * @param args  	additional options for the scripting engine
+   */
+  public static void main(String[] args) {
+    runScriptingEngine(NIOScriptingEngine.class, args);
+  }
+}
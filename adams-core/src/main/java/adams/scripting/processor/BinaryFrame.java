@@ -0,0 +1,363 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * BinaryFrame.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.scripting.processor;
+
+import adams.core.MessageCollection;
+import adams.core.Properties;
+import adams.scripting.command.RemoteCommand;
+import adams.scripting.command.RemoteCommandWithResponse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Length-prefixed binary frame for sending a remote command over a
+ * persistent connection. Unlike the {@link DefaultProcessor}, the (gzip
+ * compressed) payload is sent as is, without Base64 encoding.
+ * <br><br>
+ * Layout (big endian):
+ * <pre>
+ * int    length of the remainder of the frame
+ * long   frame ID
+ * byte   type (request/response)
+ * int    length of the header
+ * byte[] header (properties in comment format, UTF-8)
+ * byte[] payload (gzip compressed)
+ * </pre>
+ * Acknowledgements get sent back on the same connection, using the ID of
+ * the frame that they acknowledge. Their header contains the error message
+ * (if any) and their payload is empty.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class BinaryFrame {
+
+  /** the frame type for requests. */
+  public final static byte TYPE_REQUEST = 0;
+
+  /** the frame type for responses. */
+  public final static byte TYPE_RESPONSE = 1;
+
+  /** the frame type for acknowledgements. */
+  public final static byte TYPE_ACK = 2;
+
+  /** the maximum length of error messages in acknowledgements. */
+  public final static int MAX_ERROR_LENGTH = 8192;
+
+  /** the size of the length prefix. */
+  public final static int PREFIX_SIZE = 4;
+
+  /** the size of the fixed fields following the prefix (ID, type, header length). */
+  public final static int FIXED_SIZE = 8 + 1 + 4;
+
+  /** the default maximum frame size in bytes. */
+  public final static int DEFAULT_MAX_SIZE = 256 * 1024 * 1024;
+
+  /** the maximum size of acknowledgements in bytes. */
+  public final static int MAX_ACK_SIZE = PREFIX_SIZE + FIXED_SIZE + 4 * MAX_ERROR_LENGTH;
+
+  /**
+   * Processor that only records the header and payload that commands
+   * generate when assembling themselves.
+   */
+  protected static class CapturingProcessor
+    implements RemoteCommandProcessor {
+
+    /** the header. */
+    protected Properties m_Header;
+
+    /** the payload. */
+    protected byte[] m_Payload;
+
+    /**
+     * Not supported.
+     *
+     * @param data	ignored
+     * @param errors	for collecting errors
+     * @return		always null
+     */
+    @Override
+    public RemoteCommand parse(String data, MessageCollection errors) {
+      errors.add("Parsing not supported!");
+      return null;
+    }
+
+    /**
+     * Records header and payload.
+     *
+     * @param header	the header data
+     * @param payload	the payload
+     * @return		always empty string
+     */
+    @Override
+    public String format(Properties header, byte[] payload) {
+      m_Header  = header;
+      m_Payload = payload;
+      return "";
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param file	ignored
+     * @param errors	for collecting errors
+     * @return		always null
+     */
+    @Override
+    public RemoteCommand read(File file, MessageCollection errors) {
+      errors.add("Reading not supported!");
+      return null;
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param cmd	ignored
+     * @param file	ignored
+     * @param errors	for collecting errors
+     * @return		always false
+     */
+    @Override
+    public boolean write(RemoteCommand cmd, File file, MessageCollection errors) {
+      errors.add("Writing not supported!");
+      return false;
+    }
+  }
+
+  /** the frame ID. */
+  protected long m_ID;
+
+  /** the type. */
+  protected byte m_Type;
+
+  /** the header. */
+  protected byte[] m_Header;
+
+  /** the payload (compressed). */
+  protected byte[] m_Payload;
+
+  /**
+   * Initializes the frame.
+   *
+   * @param id		the frame ID
+   * @param type	the type of frame
+   * @param header	the header (UTF-8)
+   * @param payload	the gzip compressed payload
+   */
+  public BinaryFrame(long id, byte type, byte[] header, byte[] payload) {
+    m_ID      = id;
+    m_Type    = type;
+    m_Header  = header;
+    m_Payload = payload;
+  }
+
+  /**
+   * Returns the frame ID.
+   *
+   * @return		the ID
+   */
+  public long getID() {
+    return m_ID;
+  }
+
+  /**
+   * Returns the type of frame.
+   *
+   * @return		the type
+   * @see		#TYPE_REQUEST
+   * @see		#TYPE_RESPONSE
+   */
+  public byte getType() {
+    return m_Type;
+  }
+
+  /**
+   * Returns whether this frame is a request.
+   *
+   * @return		true if request
+   */
+  public boolean isRequest() {
+    return (m_Type == TYPE_REQUEST);
+  }
+
+  /**
+   * Returns whether this frame is an acknowledgement.
+   *
+   * @return		true if acknowledgement
+   */
+  public boolean isAcknowledgement() {
+    return (m_Type == TYPE_ACK);
+  }
+
+  /**
+   * Returns the error message of an acknowledgement.
+   *
+   * @return		the error, null if none
+   */
+  public String getError() {
+    if (m_Header.length == 0)
+      return null;
+    return new String(m_Header, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns the header.
+   *
+   * @return		the header
+   */
+  public Properties getHeader() {
+    return Properties.fromComment(new String(m_Header, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns the (gzip compressed) payload.
+   *
+   * @return		the payload
+   */
+  public byte[] getPayload() {
+    return m_Payload;
+  }
+
+  /**
+   * Returns the total size of the frame, including the length prefix.
+   *
+   * @return		the size in bytes
+   */
+  public int size() {
+    return PREFIX_SIZE + FIXED_SIZE + m_Header.length + m_Payload.length;
+  }
+
+  /**
+   * Turns the frame into a buffer, ready for writing.
+   *
+   * @return		the buffer
+   */
+  public ByteBuffer toBuffer() {
+    ByteBuffer	result;
+
+    result = ByteBuffer.allocate(size());
+    result.putInt(size() - PREFIX_SIZE);
+    result.putLong(m_ID);
+    result.put(m_Type);
+    result.putInt(m_Header.length);
+    result.put(m_Header);
+    result.put(m_Payload);
+    result.flip();
+
+    return result;
+  }
+
+  /**
+   * Instantiates the command from the frame.
+   *
+   * @param processor	the processor to use for instantiating the command
+   * @param errors	for collecting errors
+   * @return		the command, null if failed to instantiate
+   */
+  public RemoteCommand toCommand(DefaultProcessor processor, MessageCollection errors) {
+    return processor.parse(getHeader(), m_Payload, errors);
+  }
+
+  /**
+   * Assembles the request or response of the command into a frame.
+   *
+   * @param id		the frame ID
+   * @param cmd		the command to assemble
+   * @param request	whether to assemble request or response
+   * @return		the frame
+   */
+  public static BinaryFrame assemble(long id, RemoteCommand cmd, boolean request) {
+    CapturingProcessor	processor;
+
+    processor = new CapturingProcessor();
+    if (request)
+      cmd.assembleRequest(processor);
+    else
+      ((RemoteCommandWithResponse) cmd).assembleResponse(processor);
+
+    return new BinaryFrame(
+      id,
+      request ? TYPE_REQUEST : TYPE_RESPONSE,
+      processor.m_Header.toComment().getBytes(StandardCharsets.UTF_8),
+      processor.m_Payload);
+  }
+
+  /**
+   * Creates the acknowledgement for the frame with the specified ID.
+   *
+   * @param id		the ID of the frame to acknowledge
+   * @param error	the error message, null if successful
+   * @return		the acknowledgement
+   */
+  public static BinaryFrame acknowledge(long id, String error) {
+    if (error == null)
+      error = "";
+    else if (error.length() > MAX_ERROR_LENGTH)
+      error = error.substring(0, MAX_ERROR_LENGTH);
+
+    return new BinaryFrame(id, TYPE_ACK, error.getBytes(StandardCharsets.UTF_8), new byte[0]);
+  }
+
+  /**
+   * Reads the next frame from the buffer (in read mode). If the buffer
+   * does not contain a complete frame yet, the position of the buffer
+   * remains unchanged.
+   *
+   * @param buffer	the buffer to read from
+   * @param maxSize	the maximum frame size
+   * @return		the frame, null if not yet complete
+   * @throws IOException	if the frame is invalid or too large
+   */
+  public static BinaryFrame read(ByteBuffer buffer, int maxSize) throws IOException {
+    int		length;
+    int		size;
+    long	id;
+    byte	type;
+    byte[]	header;
+    byte[]	payload;
+
+    if (buffer.remaining() < PREFIX_SIZE)
+      return null;
+
+    length = buffer.getInt(buffer.position());
+    if ((length < FIXED_SIZE) || (length > maxSize - PREFIX_SIZE))
+      throw new IOException("Invalid frame size: " + length);
+    if (buffer.remaining() < PREFIX_SIZE + length)
+      return null;
+
+    buffer.getInt();
+    id   = buffer.getLong();
+    type = buffer.get();
+    if ((type != TYPE_REQUEST) && (type != TYPE_RESPONSE) && (type != TYPE_ACK))
+      throw new IOException("Invalid frame type: " + type);
+    size = buffer.getInt();
+    if ((size < 0) || (size > length - FIXED_SIZE))
+      throw new IOException("Invalid header size: " + size);
+    header  = new byte[size];
+    payload = new byte[length - FIXED_SIZE - size];
+    buffer.get(header);
+    buffer.get(payload);
+
+    return new BinaryFrame(id, type, header, payload);
+  }
+}
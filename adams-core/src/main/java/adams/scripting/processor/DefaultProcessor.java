@@ -68,14 +68,12 @@ public class DefaultProcessor
    */
   @Override
   public RemoteCommand parse(String data, MessageCollection errors) {
-    RemoteCommand	result;
     List<String> headerLines;
     Properties header;
     List<String> 	payloadLines;
     String[]		lines;
     boolean		start;
     byte[] 		payload;
-    String		cmd;
 
     lines        = Utils.split(data, "\n");
     headerLines  = new ArrayList<>();
@@ -91,9 +89,25 @@ public class DefaultProcessor
       }
     }
 
-    header = Properties.fromComment(Utils.flatten(headerLines, "\n"));
-    // compression needs to be handle by individual commands
+    header  = Properties.fromComment(Utils.flatten(headerLines, "\n"));
     payload = Base64.getDecoder().decode((Utils.flatten(payloadLines, "").getBytes()));
+
+    return parse(header, payload, errors);
+  }
+
+  /**
+   * Instantiates the command from the header and the (compressed) payload.
+   *
+   * @param header	the header data
+   * @param payload	the gzip compressed payload, empty if none
+   * @param errors	for collecting errors
+   * @return		the instantiated command, null if failed to parse
+   */
+  public RemoteCommand parse(Properties header, byte[] payload, MessageCollection errors) {
+    RemoteCommand	result;
+    String		cmd;
+
+    // compression needs to be handle by individual commands
     if (payload.length > 0) {
       payload = GzipUtils.decompress(payload, 1024);
       if (payload == null) {
@@ -27,6 +27,7 @@ import junit.framework.Test;
 import junit.framework.TestSuite;
 
 import java.io.File;
+import java.util.ArrayList;
 
 /**
  * TODO: What class does.
@@ -78,6 +79,24 @@ public class ObjectCopyHelperTest
     assertEqualsArrays("values differ", d, ObjectCopyHelper.copyObjects(d));
   }
 
+  /**
+   * Tests sharing of immutable objects.
+   */
+  public void testImmutable() {
+    String s = "hello world";
+    assertEquals("wrong copy type", CopyType.IMMUTABLE, ObjectCopyHelper.copyType(s));
+    assertSame("should be shared", s, ObjectCopyHelper.copyObject(s));
+
+    Immutable imm = new Immutable() {};
+    assertSame("should be shared", imm, ObjectCopyHelper.copyObject(imm));
+
+    ArrayList<String> list = new ArrayList<>();
+    list.add(s);
+    assertEquals("wrong copy type", CopyType.SERIALIZABLE, ObjectCopyHelper.copyType(list));
+    assertNotSame("should be copied", list, ObjectCopyHelper.copyObject(list));
+    assertEquals("content differs", list, ObjectCopyHelper.copyObject(list));
+  }
+
   /**
    * Returns a test suite.
    *
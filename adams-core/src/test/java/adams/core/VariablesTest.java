@@ -20,12 +20,16 @@
 
 package adams.core;
 
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
 import adams.core.base.BaseRegExp;
 import adams.env.Environment;
+import adams.event.VariableChangeEvent;
+import adams.event.VariableChangeListener;
 import adams.test.AdamsTestCase;
 
 /**
@@ -285,6 +289,34 @@ public class VariablesTest
     compareVariableNames(vars, Variables.extractNames(expr));
   }
 
+  /**
+   * Tests the targeted notification of listeners.
+   */
+  public void testTargetedListeners() {
+    final List<String> all = new ArrayList<>();
+    final List<String> targeted = new ArrayList<>();
+    VariableChangeListener lAll = (VariableChangeEvent e) -> all.add(e.getName());
+    VariableChangeListener lTargeted = (VariableChangeEvent e) -> targeted.add(e.getName());
+
+    Variables v = new Variables();
+    v.addVariableChangeListener(lAll);
+    v.addVariableChangeListener("@{one}", lTargeted);
+    assertTrue("should be registered", v.hasVariableChangeListener("one", lTargeted));
+    v.set("one", "1");
+    v.set("two", "2");
+    v.set("one", "11");
+    v.remove("one");
+    assertEquals("# of events for all differ", 4, all.size());
+    assertEquals("# of events for targeted differ", 3, targeted.size());
+    assertEquals("# of events differ", 4, v.getNumVariableChangeEvents());
+    assertEquals("# of dispatched events differ", 7, v.getNumDispatchedVariableChangeEvents());
+
+    v.removeVariableChangeListener(lTargeted);
+    assertFalse("should not be registered", v.hasVariableChangeListener("one", lTargeted));
+    v.set("one", "1");
+    assertEquals("# of events for targeted differ", 3, targeted.size());
+  }
+
   /**
    * Returns a test suite.
    *
@@ -0,0 +1,165 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ParallelBlockCompressorTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.core.io;
+
+import adams.env.Environment;
+import adams.test.AdamsTestCase;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Tests the ParallelBlockCompressor class.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ParallelBlockCompressorTest
+  extends AdamsTestCase {
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public ParallelBlockCompressorTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Generates compressible random data.
+   *
+   * @param size	the number of bytes
+   * @return		the data
+   */
+  protected byte[] generate(int size) {
+    byte[]	result;
+    Random	rnd;
+    int		i;
+
+    result = new byte[size];
+    rnd    = new Random(42);
+    for (i = 0; i < size; i++)
+      result[i] = (byte) ('a' + rnd.nextInt(8));
+
+    return result;
+  }
+
+  /**
+   * Decompresses the data with the standard gzip stream.
+   *
+   * @param data	the compressed data
+   * @return		the uncompressed data
+   * @throws Exception	if decompression fails
+   */
+  protected byte[] gunzip(byte[] data) throws Exception {
+    GZIPInputStream		in;
+    ByteArrayOutputStream	out;
+    byte[]			buffer;
+    int				read;
+
+    in     = new GZIPInputStream(new ByteArrayInputStream(data));
+    out    = new ByteArrayOutputStream();
+    buffer = new byte[1024];
+    while ((read = in.read(buffer)) != -1)
+      out.write(buffer, 0, read);
+    in.close();
+
+    return out.toByteArray();
+  }
+
+  /**
+   * Tests compressing/decompressing with multiple threads.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testRoundTrip() throws Exception {
+    ParallelBlockCompressor	compressor;
+    byte[]			data;
+    byte[]			compressed;
+
+    data       = generate(100000);
+    compressor = new ParallelBlockCompressor(new GzipBlockCodec(), 4096, 4);
+    compressed = compressor.compress(data);
+    assertEquals("# of blocks", 25, compressor.getBlocks());
+    assertEquals("uncompressed bytes", data.length, compressor.getUncompressedBytes());
+    assertEquals("compressed bytes", compressed.length, compressor.getCompressedBytes());
+    assertTrue("block compressed", compressor.isBlockCompressed(compressed));
+    assertTrue("same content", Arrays.equals(data, compressor.decompress(compressed)));
+
+    compressor = new ParallelBlockCompressor(new GzipBlockCodec(), 4096, 1);
+    assertTrue("same output sequential", Arrays.equals(compressed, compressor.compress(data)));
+  }
+
+  /**
+   * Tests whether the output is compatible with standard gzip.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testGzipCompatibility() throws Exception {
+    ParallelBlockCompressor	compressor;
+    byte[]			data;
+
+    data       = generate(50000);
+    compressor = new ParallelBlockCompressor(new GzipBlockCodec(), 1024, 2);
+    assertTrue("same content", Arrays.equals(data, gunzip(compressor.compress(data))));
+    assertFalse("regular gzip", compressor.isBlockCompressed(GzipUtils.compress(data)));
+  }
+
+  /**
+   * Tests empty input.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testEmpty() throws Exception {
+    ParallelBlockCompressor	compressor;
+    byte[]			compressed;
+
+    compressor = new ParallelBlockCompressor(new GzipBlockCodec(), 1024, 2);
+    compressed = compressor.compress(new byte[0]);
+    assertEquals("# of blocks", 1, compressor.getBlocks());
+    assertEquals("gzip", 0, gunzip(compressed).length);
+    assertEquals("block", 0, compressor.decompress(compressed).length);
+  }
+
+  /**
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(ParallelBlockCompressorTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(Environment.class);
+    runTest(suite());
+  }
+}
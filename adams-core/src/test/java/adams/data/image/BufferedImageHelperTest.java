@@ -15,11 +15,14 @@
 
 /**
  * BufferedImageHelperTest.java
- * Copyright (C) 2014 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2014-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.data.image;
 
 import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -60,6 +63,49 @@ public class BufferedImageHelperTest
     assertEquals("combine failed", new Color(10, 20, 30).getRGB(), BufferedImageHelper.combine(10, 20, 30, 255));
   }
   
+  /**
+   * Tests the subsampling/region support of the
+   * {@link BufferedImageHelper#read(File, boolean, int, Rectangle)} method.
+   */
+  public void testReadSubsampledRegion() {
+    BufferedImage		img;
+    BufferedImageContainer	cont;
+    File			file;
+    int				x;
+    int				y;
+
+    img = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+    for (y = 0; y < img.getHeight(); y++) {
+      for (x = 0; x < img.getWidth(); x++)
+	img.setRGB(x, y, new Color(x % 256, y % 256, 0).getRGB());
+    }
+    file = new File(m_TestHelper.getTmpDirectory() + File.separator + "subsampled.png");
+    assertNull("failed to write image", BufferedImageHelper.write(img, file));
+
+    cont = BufferedImageHelper.read(file, false, 4, null);
+    assertNotNull("failed to read subsampled", cont);
+    assertEquals("width differs", 100, cont.getWidth());
+    assertEquals("height differs", 75, cont.getHeight());
+    assertEquals("pixel differs", img.getRGB(8, 4), cont.getImage().getRGB(2, 1));
+
+    cont = BufferedImageHelper.read(file, false, 1, new Rectangle(50, 20, 100, 40));
+    assertNotNull("failed to read region", cont);
+    assertEquals("width differs", 100, cont.getWidth());
+    assertEquals("height differs", 40, cont.getHeight());
+    assertEquals("pixel differs", img.getRGB(55, 22), cont.getImage().getRGB(5, 2));
+
+    cont = BufferedImageHelper.read(file, false, 2, new Rectangle(350, 250, 100, 100));
+    assertNotNull("failed to read clipped region", cont);
+    assertEquals("width differs", 25, cont.getWidth());
+    assertEquals("height differs", 25, cont.getHeight());
+
+    cont = BufferedImageHelper.readThumbnail(file, 90, -1);
+    assertNotNull("failed to read thumbnail", cont);
+    assertEquals("width differs", 100, cont.getWidth());
+
+    m_TestHelper.deleteFileFromTmp("subsampled.png");
+  }
+
   /**
    * Returns a test suite.
    *
@@ -22,10 +22,13 @@ package adams.data.io.input;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
+import adams.core.option.OptionUtils;
 import adams.data.spreadsheet.SpreadSheet;
 import adams.env.Environment;
 import adams.test.TmpFile;
 
+import java.io.StringReader;
+
 /**
  * Tests the adams.data.io.input.CsvSpreadSheetReader class. Run from commandline with: <br><br>
  * java adams.data.io.input.CsvSpreadSheetReader
@@ -146,6 +149,103 @@ public class CsvSpreadSheetReaderTest
     assertEquals("# rows differ", 7, numRows);
   }
   
+  /**
+   * Tests whether parsing with multiple threads generates the same output
+   * as parsing sequentially.
+   */
+  public void testParallel() {
+    CsvSpreadSheetReader reader = new CsvSpreadSheetReader();
+    reader.setNumThreads(4);
+    reader.setFirstRow(10);
+    reader.setNumRows(10);
+    SpreadSheet sheet = reader.read(new TmpFile("sample.csv"));
+    assertEquals("# cols differ", 3, sheet.getColumnCount());
+    assertEquals("# rows differ", 7, sheet.getRowCount());
+
+    for (String file: getRegressionInputFiles()) {
+      m_TestHelper.copyResourceToTmp(file);
+      reader = new CsvSpreadSheetReader();
+      SpreadSheet sequential = reader.read(new TmpFile(file));
+      reader = new CsvSpreadSheetReader();
+      reader.setNumThreads(4);
+      SpreadSheet parallel = reader.read(new TmpFile(file));
+      if (!file.equals("sample.csv"))
+	m_TestHelper.deleteFileFromTmp(file);
+      assertEquals("# rows differ: " + file, sequential.getRowCount(), parallel.getRowCount());
+      assertEquals("content differs: " + file, sequential.toString(), parallel.toString());
+    }
+  }
+
+  /**
+   * Tests parsing in parallel with small blocks, i.e., using multiple blocks
+   * and records that are larger than half a block, with CR/LF in quoted
+   * cells.
+   */
+  public void testParallelSmallBlocks() {
+    StringBuilder data = new StringBuilder("id,text,value\r\n");
+    for (int i = 0; i < 200; i++) {
+      data.append(i).append(",");
+      if (i % 7 == 0)
+	data.append("\"multi\r\nline, \"\"quoted\"\" text ").append(i).append("\"");
+      else if (i % 11 == 0)
+	data.append("\"a long cell spanning more than half a block, ").append(i).append("\r\n\r\n-------------------------------\"");
+      else
+	data.append("plain").append(i);
+      data.append(",").append(i * 0.5).append("\r\n");
+    }
+
+    CsvSpreadSheetReader reader = new CsvSpreadSheetReader();
+    SpreadSheet sequential = reader.read(new StringReader(data.toString()));
+    assertEquals("# rows differ", 200, sequential.getRowCount());
+    assertEquals("cell differs", "multi\nline, \"quoted\" text 7", sequential.getCell(7, 1).getContent());
+
+    for (int blockSize: new int[]{1, 16, 64, 1000}) {
+      reader = new CsvSpreadSheetReader();
+      reader.setNumThreads(4);
+      reader.setBlockSize(blockSize);
+      SpreadSheet parallel = reader.read(new StringReader(data.toString()));
+      assertEquals("# rows differ: " + blockSize, sequential.getRowCount(), parallel.getRowCount());
+      assertEquals("content differs: " + blockSize, sequential.toString(), parallel.toString());
+    }
+  }
+
+  /**
+   * Tests CR line endings followed by a separator or a quote, i.e., rows
+   * starting with an empty or a quoted cell.
+   */
+  public void testCarriageReturn() {
+    String data = "a,b\r,q\r\"x,y\",r\rz,\"s\"\r";
+
+    for (int numThreads: new int[]{1, 4}) {
+      CsvSpreadSheetReader reader = new CsvSpreadSheetReader();
+      reader.setNumThreads(numThreads);
+      reader.setBlockSize(4);
+      SpreadSheet sheet = reader.read(new StringReader(data));
+      assertEquals("# cols differ: " + numThreads, 2, sheet.getColumnCount());
+      assertEquals("# rows differ: " + numThreads, 3, sheet.getRowCount());
+      assertEquals("cell differs: " + numThreads, "q", sheet.getCell(0, 1).getContent());
+      assertEquals("cell differs: " + numThreads, "x,y", sheet.getCell(1, 0).getContent());
+      assertEquals("cell differs: " + numThreads, "r", sheet.getCell(1, 1).getContent());
+      assertEquals("cell differs: " + numThreads, "z", sheet.getCell(2, 0).getContent());
+      assertEquals("cell differs: " + numThreads, "s", sheet.getCell(2, 1).getContent());
+    }
+  }
+
+  /**
+   * Tests the block size option: bounds and command-line round-trip.
+   */
+  public void testBlockSizeOption() throws Exception {
+    CsvSpreadSheetReader reader = new CsvSpreadSheetReader();
+    reader.setBlockSize(1024);
+    reader.setBlockSize(0);
+    assertEquals("invalid block size accepted", 1024, reader.getBlockSize());
+
+    String cmdline = OptionUtils.getCommandLine(reader);
+    assertTrue("block size not in command-line: " + cmdline, cmdline.contains("-block-size 1024"));
+    CsvSpreadSheetReader copy = (CsvSpreadSheetReader) OptionUtils.forAnyCommandLine(SpreadSheetReader.class, cmdline);
+    assertEquals("block size not restored", 1024, copy.getBlockSize());
+  }
+
   /**
    * Returns the filenames (without path) of the input data files to use
    * in the regression test.
@@ -0,0 +1,242 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * CompactReportStorageTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.report;
+
+import adams.env.Environment;
+import adams.test.AdamsTestCase;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests the CompactReportStorage class.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CompactReportStorageTest
+  extends AdamsTestCase {
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public CompactReportStorageTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Resets the storage type.
+   *
+   * @throws Exception	if tear-down fails
+   */
+  @Override
+  protected void tearDown() throws Exception {
+    Report.setCompactStorage(false);
+    super.tearDown();
+  }
+
+  /**
+   * Fills the storage with some values.
+   *
+   * @param storage	the storage to fill
+   * @return		the storage
+   */
+  protected AbstractReportStorage fill(AbstractReportStorage storage) {
+    storage.put(new Field("num", DataType.NUMERIC), 1.5);
+    storage.put(new Field("bool", DataType.BOOLEAN), true);
+    storage.put(new Field("str", DataType.STRING), "hello");
+    storage.put(new Field("other", DataType.NUMERIC), -2.0);
+    return storage;
+  }
+
+  /**
+   * Tests storing and retrieving values.
+   */
+  public void testPutGet() {
+    CompactReportStorage	storage;
+
+    storage = (CompactReportStorage) fill(new CompactReportStorage());
+    assertEquals(4, storage.size());
+    assertEquals(1.5, storage.get(new Field("num", DataType.UNKNOWN)));
+    assertEquals(Boolean.TRUE, storage.get(new Field("bool", DataType.UNKNOWN)));
+    assertEquals("hello", storage.get(new Field("str", DataType.UNKNOWN)));
+    assertEquals(-2.0, storage.getDouble(new Field("other", DataType.NUMERIC), Double.NaN));
+    assertTrue(Double.isNaN(storage.getDouble(new Field("str", DataType.NUMERIC), Double.NaN)));
+    assertNull(storage.get(new Field("missing", DataType.UNKNOWN)));
+
+    // replace value, keeps original field
+    assertEquals(1.5, storage.put(new Field("num", DataType.STRING), "text"));
+    assertEquals("text", storage.get(new Field("num", DataType.UNKNOWN)));
+    assertEquals(4, storage.size());
+    for (AbstractField key: storage.keys()) {
+      if (key.getName().equals("num"))
+	assertEquals(DataType.NUMERIC, key.getDataType());
+    }
+
+    try {
+      storage.put(new Field("null", DataType.STRING), null);
+      fail("Null values should not be accepted");
+    }
+    catch (NullPointerException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Tests removing values.
+   */
+  public void testRemove() {
+    AbstractReportStorage	storage;
+
+    storage = fill(new CompactReportStorage());
+    assertEquals("hello", storage.remove(new Field("str", DataType.STRING)));
+    assertNull(storage.remove(new Field("str", DataType.STRING)));
+    assertEquals(3, storage.size());
+    assertFalse(storage.containsKey(new Field("str", DataType.STRING)));
+    assertEquals(1.5, storage.get(new Field("num", DataType.NUMERIC)));
+    storage.clear();
+    assertTrue(storage.isEmpty());
+  }
+
+  /**
+   * Tests that the storage is equal to the hashtable-based one.
+   */
+  public void testEquals() {
+    AbstractReportStorage	compact;
+    AbstractReportStorage	table;
+
+    compact = fill(new CompactReportStorage());
+    table   = fill(new HashtableReportStorage());
+    assertEquals(table, compact);
+    assertEquals(compact, table);
+    assertEquals(table.hashCode(), compact.hashCode());
+    assertEquals(table.toHashtable(), compact.toHashtable());
+    assertEquals(compact, compact.getClone());
+
+    compact.put(new Field("num", DataType.NUMERIC), 2.5);
+    assertFalse(table.equals(compact));
+  }
+
+  /**
+   * Tests that fields get shared across storages.
+   */
+  public void testInterning() {
+    AbstractReportStorage	s1;
+    AbstractReportStorage	s2;
+
+    s1 = fill(new CompactReportStorage());
+    s2 = fill(new CompactReportStorage());
+    assertSame(s1.keys().iterator().next(), s2.keys().iterator().next());
+  }
+
+  /**
+   * Tests serialization.
+   *
+   * @throws Exception	if serialization fails
+   */
+  public void testSerialization() throws Exception {
+    AbstractReportStorage	storage;
+    ByteArrayOutputStream	bos;
+    ObjectOutputStream		oos;
+    ObjectInputStream		ois;
+    AbstractReportStorage	copy;
+
+    storage = fill(new CompactReportStorage());
+    bos     = new ByteArrayOutputStream();
+    oos     = new ObjectOutputStream(bos);
+    oos.writeObject(storage);
+    oos.close();
+    ois  = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+    copy = (AbstractReportStorage) ois.readObject();
+    ois.close();
+    assertEquals(storage, copy);
+    assertEquals(1.5, copy.get(new Field("num", DataType.NUMERIC)));
+  }
+
+  /**
+   * Tests that reports behave the same with either storage.
+   */
+  public void testReport() {
+    Report			compact;
+    Report			table;
+    List<AbstractField>		fields1;
+    List<AbstractField>		fields2;
+
+    Report.setCompactStorage(false);
+    table = new Report();
+    Report.setCompactStorage(true);
+    compact = new Report();
+    assertTrue(compact.getStorage() instanceof CompactReportStorage);
+    assertTrue(table.getStorage() instanceof HashtableReportStorage);
+
+    for (Report report: new Report[]{table, compact}) {
+      report.setNumericValue("a", 1.0);
+      report.setStringValue("b", "value");
+      report.setBooleanValue("c", false);
+      report.addParameter("d", "42");
+      report.setDummyReport(true);
+      report.setValue(new Field("a", DataType.STRING), "one");
+      report.removeValuesStartingWith("d");
+    }
+
+    assertEquals(table.toString(), compact.toString());
+    assertEquals(table, compact);
+    fields1 = table.getFields();
+    fields2 = compact.getFields();
+    Collections.sort(fields1);
+    Collections.sort(fields2);
+    assertEquals(fields1, fields2);
+    assertEquals(table.toString(), compact.getClone().toString());
+    assertTrue(compact.getClone().getStorage() instanceof CompactReportStorage);
+    assertEquals(Boolean.FALSE, compact.getBooleanValue("c"));
+    assertEquals("one", compact.getStringValue("a"));
+    assertNull(compact.getDoubleValue("a"));
+    assertTrue(compact.isDummyReport());
+    assertEquals(table.getParams(), compact.getParams());
+    assertEquals(table.toString(), Report.parseReport(compact.toString()).toString());
+  }
+
+  /**
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(CompactReportStorageTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(Environment.class);
+    runTest(suite());
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ColumnarSpreadSheetTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.spreadsheet;
+
+import adams.data.io.input.CsvSpreadSheetReader;
+import adams.data.spreadsheet.Cell.ContentType;
+import adams.env.Environment;
+import adams.test.AbstractTestHelper;
+import adams.test.AdamsTestCase;
+import adams.test.TestHelper;
+import adams.test.TmpFile;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Tests the adams.data.spreadsheet.ColumnarSpreadSheet class. Run from commandline with: <br><br>
+ * java adams.data.spreadsheet.ColumnarSpreadSheetTest
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ColumnarSpreadSheetTest
+  extends AdamsTestCase {
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public ColumnarSpreadSheetTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Returns the test helper class to use.
+   *
+   * @return		the helper class instance
+   */
+  @Override
+  protected AbstractTestHelper newTestHelper() {
+    return new TestHelper(this, "adams/data/spreadsheet/data");
+  }
+
+  /**
+   * Called by JUnit before each test method.
+   *
+   * @throws Exception if an error occurs
+   */
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+
+    m_TestHelper.copyResourceToTmp("sample.csv");
+    m_TestHelper.copyResourceToTmp("sample2.csv");
+  }
+
+  /**
+   * Called by JUnit after each test method.
+   *
+   * @throws Exception	if tear-down fails
+   */
+  @Override
+  protected void tearDown() throws Exception {
+    m_TestHelper.deleteFileFromTmp("sample.csv");
+    m_TestHelper.deleteFileFromTmp("sample2.csv");
+
+    super.tearDown();
+  }
+
+  /**
+   * Reads the specified file using the given spreadsheet type.
+   *
+   * @param filename	the file to read
+   * @param type	the spreadsheet type
+   * @return		the spreadsheet
+   */
+  protected SpreadSheet read(String filename, SpreadSheet type) {
+    CsvSpreadSheetReader	reader;
+
+    reader = new CsvSpreadSheetReader();
+    reader.setSpreadSheetType(type);
+    return reader.read(new TmpFile(filename).getAbsolutePath());
+  }
+
+  /**
+   * Tests reading via the spreadsheet type of the reader.
+   */
+  public void testRead() {
+    SpreadSheet sheet = read("sample.csv", new ColumnarSpreadSheet());
+    assertTrue("wrong type", sheet instanceof ColumnarSpreadSheet);
+    assertEquals("wrong row type", ColumnarDataRow.class, sheet.getRow(0).getClass());
+    assertEquals("# of columns differ", 3, sheet.getColumnCount());
+    assertEquals("# of rows differ", 16, sheet.getRowCount());
+    assertEquals("content differs", read("sample.csv", new DefaultSpreadSheet()).toString(), sheet.toString());
+  }
+
+  /**
+   * Tests the uniform and mixed column storage.
+   */
+  public void testTypes() {
+    ColumnarSpreadSheet sheet = new ColumnarSpreadSheet();
+    sheet.getHeaderRow().addCell("a").setContentAsString("a");
+    sheet.getHeaderRow().addCell("b").setContentAsString("b");
+    for (int i = 0; i < 100; i++) {
+      Row row = sheet.addRow();
+      row.addCell(0).setContent(i * 0.5);
+      if (i % 10 == 0)
+	row.addCell(1).setContent("x" + i);
+      else if (i % 2 == 0)
+	row.addCell(1).setContent((long) i);
+      else
+	row.addCell(1).setMissing();
+    }
+
+    assertEquals("uniform type differs", ContentType.DOUBLE, sheet.getColumnStore(0).getType());
+    assertFalse("should be uniform", sheet.getColumnStore(0).isMixed());
+    assertTrue("should be mixed", sheet.getColumnStore(1).isMixed());
+    assertTrue("should be numeric", sheet.isNumeric(0));
+    assertEquals("value differs", 2.5, sheet.getCell(5, 0).toDouble(), 0.0);
+    assertEquals("value differs", "x10", sheet.getCell(10, 1).getContent());
+    assertEquals("value differs", 12L, (long) sheet.getCell(12, 1).toLong());
+    assertTrue("should be missing", sheet.getCell(13, 1).isMissing());
+    assertEquals("# of types differ", 2, sheet.getContentTypes(1).size());
+  }
+
+  /**
+   * Tests the insertColumn/removeColumn methods.
+   */
+  public void testColumns() {
+    SpreadSheet sheet = read("sample.csv", new ColumnarSpreadSheet());
+    SpreadSheet out;
+
+    out = sheet.getClone();
+    out.insertColumn(1, "new", "blah");
+    assertEquals("# of columns differ", sheet.getColumnCount() + 1, out.getColumnCount());
+    assertEquals("content differs", "blah", out.getCell(0, 1).getContent());
+    assertEquals("content differs", sheet.getCell(0, 1).getContent(), out.getCell(0, 2).getContent());
+
+    out.removeColumn(1);
+    assertEquals("content differs", sheet.toString(), out.toString());
+  }
+
+  /**
+   * Tests the sort and compact methods.
+   */
+  public void testSortAndCompact() {
+    SpreadSheet sheet = read("sample2.csv", new ColumnarSpreadSheet());
+    SpreadSheet ref = read("sample2.csv", new DefaultSpreadSheet());
+    RowComparator comp = new RowComparator(new int[]{0});
+    sheet.sort(comp);
+    ref.sort(comp);
+    assertEquals("content differs", ref.toString(), sheet.toString());
+
+    sheet.removeRow(0);
+    ref.removeRow(0);
+    ((ColumnarSpreadSheet) sheet).compact();
+    assertEquals("# of slots differ", sheet.getRowCount(), ((ColumnarSpreadSheet) sheet).getNumSlots());
+    assertEquals("content differs", ref.toString(), sheet.toString());
+  }
+
+  /**
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(ColumnarSpreadSheetTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(Environment.class);
+    runTest(suite());
+  }
+}
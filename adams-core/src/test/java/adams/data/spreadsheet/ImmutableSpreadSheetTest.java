@@ -0,0 +1,204 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ImmutableSpreadSheetTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.spreadsheet;
+
+import adams.core.ObjectCopyHelper;
+import adams.core.ObjectCopyHelper.CopyType;
+import adams.core.exception.NotImplementedException;
+import adams.env.Environment;
+import adams.test.AdamsTestCase;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Tests the adams.data.spreadsheet.ImmutableSpreadSheet class. Run from commandline with: <br><br>
+ * java adams.data.spreadsheet.ImmutableSpreadSheetTest
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ImmutableSpreadSheetTest
+  extends AdamsTestCase {
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public ImmutableSpreadSheetTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Creates a small spreadsheet.
+   *
+   * @return		the spreadsheet
+   */
+  protected SpreadSheet newSheet() {
+    SpreadSheet	result;
+    Row		row;
+    int		i;
+
+    result = new DefaultSpreadSheet();
+    result.setName("sheet");
+    row = result.getHeaderRow();
+    row.addCell("a").setContent("A");
+    row.addCell("b").setContent("B");
+    for (i = 0; i < 5; i++) {
+      row = result.addRow();
+      row.addCell("a").setContent(i);
+      row.addCell("b").setContent("v" + i);
+    }
+
+    return result;
+  }
+
+  /**
+   * Tests that the content is the same as the source.
+   */
+  public void testContent() {
+    SpreadSheet			sheet;
+    ImmutableSpreadSheet	imm;
+
+    sheet = newSheet();
+    imm   = new ImmutableSpreadSheet(sheet);
+    assertNull("header differs", sheet.equalsHeader(imm));
+    assertEquals("rows differ", sheet.getRowCount(), imm.getRowCount());
+    assertEquals("content differs", sheet.toString(), imm.toString());
+    assertEquals("cell differs", 3.0, imm.getCell(3, 0).toDouble(), 0.0);
+
+    // source modifications don't show
+    sheet.getCell(3, 0).setContent(42);
+    sheet.addRow().addCell("a").setContent(100);
+    assertEquals("cell changed", 3.0, imm.getCell(3, 0).toDouble(), 0.0);
+    assertEquals("rows changed", 5, imm.getRowCount());
+  }
+
+  /**
+   * Tests that modifications fail.
+   */
+  public void testModifications() {
+    ImmutableSpreadSheet	imm;
+
+    imm = new ImmutableSpreadSheet(newSheet());
+
+    try {
+      imm.getCell(0, 0).setContent(1);
+      fail("cell modified");
+    }
+    catch (NotImplementedException e) {
+      // expected
+    }
+    try {
+      imm.getRow(0).addCell("c");
+      fail("row modified");
+    }
+    catch (NotImplementedException e) {
+      // expected
+    }
+    try {
+      imm.getHeaderRow().getCell(0).setContent("X");
+      fail("header cell modified");
+    }
+    catch (NotImplementedException e) {
+      // expected
+    }
+    try {
+      imm.getHeaderRow().addCell("c");
+      fail("header modified");
+    }
+    catch (NotImplementedException e) {
+      // expected
+    }
+    try {
+      imm.addRow();
+      fail("row added");
+    }
+    catch (NotImplementedException e) {
+      // expected
+    }
+    try {
+      imm.setName("other");
+      fail("name modified");
+    }
+    catch (NotImplementedException e) {
+      // expected
+    }
+    assertEquals("cell changed", "A", imm.getHeaderRow().getCell(0).getContent());
+    assertEquals("cell changed", 0.0, imm.getCell(0, 0).toDouble(), 0.0);
+  }
+
+  /**
+   * Tests that the spreadsheet gets shared rather than copied.
+   */
+  public void testSharing() {
+    ImmutableSpreadSheet	imm;
+    SpreadSheet			clone;
+
+    imm = new ImmutableSpreadSheet(newSheet());
+    assertEquals("wrong copy type", CopyType.IMMUTABLE, ObjectCopyHelper.copyType(imm));
+    assertSame("should be shared", imm, ObjectCopyHelper.copyObject(imm));
+    assertSame("should be shared", imm, ImmutableSpreadSheet.toImmutable(imm));
+
+    clone = imm.getClone();
+    assertFalse("clone is immutable", clone instanceof ImmutableSpreadSheet);
+    clone.getCell(0, 0).setContent(42);
+    assertEquals("clone not modified", 42.0, clone.getCell(0, 0).toDouble(), 0.0);
+    assertEquals("shared modified", 0.0, imm.getCell(0, 0).toDouble(), 0.0);
+  }
+
+  /**
+   * Tests wrapping a spreadsheet without copying it.
+   */
+  public void testWrap() {
+    SpreadSheet			sheet;
+    ImmutableSpreadSheet	imm;
+
+    sheet = newSheet();
+    imm   = new ImmutableSpreadSheet(sheet, false);
+    assertEquals("content differs", sheet.toString(), imm.toString());
+    sheet.getCell(0, 0).setContent(42);
+    assertEquals("not wrapped", 42.0, imm.getCell(0, 0).toDouble(), 0.0);
+
+    imm = ImmutableSpreadSheet.toImmutable(sheet);
+    sheet.getCell(0, 0).setContent(43);
+    assertEquals("not copied", 42.0, imm.getCell(0, 0).toDouble(), 0.0);
+    assertSame("should be shared", imm, ImmutableSpreadSheet.toImmutable(imm, false));
+  }
+
+  /**
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(ImmutableSpreadSheetTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(Environment.class);
+    runTest(suite());
+  }
+}
@@ -25,9 +25,13 @@ import java.io.File;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 import adams.core.base.BaseString;
+import adams.data.spreadsheet.DefaultSpreadSheet;
+import adams.data.spreadsheet.ImmutableSpreadSheet;
+import adams.data.spreadsheet.SpreadSheet;
 import adams.env.Environment;
 import adams.flow.AbstractFlowTest;
 import adams.flow.core.AbstractActor;
+import adams.flow.core.Token;
 import adams.flow.sink.DumpFile;
 import adams.flow.source.StringConstants;
 import adams.test.TmpFile;
@@ -147,6 +151,33 @@ public class BranchTest
 	    new TmpFile("dumpfile2.txt")});
   }
 
+  /**
+   * Tests supplying the branches with copies of the token.
+   */
+  public void testCopyInput() {
+    Branch	br;
+    SpreadSheet	sheet;
+    Token	token;
+
+    sheet = new DefaultSpreadSheet();
+    sheet.getHeaderRow().addCell("A").setContent("A");
+    sheet.addRow().addCell("A").setContent(1.0);
+
+    br = new Branch();
+    br.input(new Token(sheet));
+    assertSame("token should be passed on", sheet, br.createBranchToken().getPayload());
+
+    br.setCopyInput(true);
+    br.input(new Token(sheet));
+    token = br.createBranchToken();
+    assertNotSame("token should be copied", sheet, token.getPayload());
+    assertEquals("copy differs", sheet.toString(), token.getPayload().toString());
+
+    sheet = new ImmutableSpreadSheet(sheet, false);
+    br.input(new Token(sheet));
+    assertSame("immutable payload should be shared", sheet, br.createBranchToken().getPayload());
+  }
+
   /**
    * Returns a test suite.
    *
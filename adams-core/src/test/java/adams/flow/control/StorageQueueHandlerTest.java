@@ -0,0 +1,163 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * StorageQueueHandlerTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.flow.control;
+
+import adams.core.classmanager.ClassManager;
+import adams.env.Environment;
+import adams.flow.sink.Null;
+import adams.test.AdamsTestCase;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the adams.flow.control.StorageQueueHandler class. Run from commandline with: <br><br>
+ * java adams.flow.control.StorageQueueHandlerTest
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class StorageQueueHandlerTest
+  extends AdamsTestCase {
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public StorageQueueHandlerTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Tests the non-blocking mode, rejecting items when full.
+   */
+  public void testNonBlocking() {
+    StorageQueueHandler q = new StorageQueueHandler("queue", 2, null, null);
+    assertFalse("should not block", q.isBlocking());
+    assertTrue("should be added", q.add(1));
+    assertTrue("should be added", q.add(2));
+    assertFalse("should be rejected", q.add(3));
+    assertEquals("size differs", 2, q.size());
+    assertEquals("item differs", 1, q.remove());
+    assertEquals("item differs", 2, q.remove());
+    assertNull("should be empty", q.remove());
+    assertEquals("# added differs", 2, q.getNumAdded());
+    assertEquals("# removed differs", 2, q.getNumRemoved());
+    assertEquals("# rejected differs", 1, q.getNumRejected());
+    assertEquals("peak differs", 2, q.getPeakSize());
+  }
+
+  /**
+   * Tests the blocking mode with timeout.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testBlockingTimeout() throws Exception {
+    StorageQueueHandler q = new StorageQueueHandler("queue", 1, null, null, true, 20);
+    assertTrue("should block", q.isBlocking());
+    assertTrue("should be added", q.add(1));
+    assertFalse("should time out", q.add(2));
+    assertEquals("# rejected differs", 1, q.getNumRejected());
+    assertTrue("should have waited", q.getAddWaitTime() >= 10);
+    assertEquals("item differs", 1, q.remove(10, TimeUnit.MILLISECONDS));
+    assertNull("should time out", q.remove(10, TimeUnit.MILLISECONDS));
+  }
+
+  /**
+   * Tests that a producer waiting indefinitely gives up once its actor stops.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testBlockingStopped() throws Exception {
+    final StorageQueueHandler q = new StorageQueueHandler("queue", 1, null, null, true, -1);
+    final Null caller = new Null();
+    final boolean[] added = new boolean[]{true};
+    assertTrue("should be added", q.add(1, caller));
+    Thread producer = new Thread(() -> added[0] = q.add(2, caller));
+    producer.start();
+    Thread.sleep(50);
+    assertTrue("producer should be waiting", producer.isAlive());
+    caller.stopExecution();
+    producer.join(5000);
+    assertFalse("producer should have finished", producer.isAlive());
+    assertFalse("should not be added", added[0]);
+    assertEquals("# added differs", 1, q.getNumAdded());
+    assertEquals("# rejected differs", 0, q.getNumRejected());
+  }
+
+  /**
+   * Tests the back-pressure of the blocking mode with a producer and a consumer.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testBlockingProducerConsumer() throws Exception {
+    final StorageQueueHandler q = new StorageQueueHandler("queue", 5, null, null, true, -1);
+    final int num = 1000;
+    Thread producer = new Thread(() -> {
+      for (int i = 0; i < num; i++)
+	q.add(i);
+    });
+    producer.start();
+    for (int i = 0; i < num; i++)
+      assertEquals("item differs", i, q.remove(10, TimeUnit.SECONDS));
+    producer.join();
+    assertEquals("# added differs", num, q.getNumAdded());
+    assertEquals("# removed differs", num, q.getNumRemoved());
+    assertEquals("# rejected differs", 0, q.getNumRejected());
+    assertTrue("peak exceeds limit", q.getPeakSize() <= 5);
+  }
+
+  /**
+   * Tests whether the queues can be serialized.
+   */
+  @Override
+  public void testSerializable() {
+    StorageQueueHandler q;
+
+    q = new StorageQueueHandler("queue", 10, null, null);
+    q.add("a");
+    assertNotNull("Not serializable: " + q, ClassManager.getSingleton().deepCopy(q));
+
+    q = new StorageQueueHandler("queue", 10, null, null, true, 100);
+    q.add("a");
+    assertNotNull("Not serializable: " + q, ClassManager.getSingleton().deepCopy(q));
+  }
+
+  /**
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(StorageQueueHandlerTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(Environment.class);
+    runTest(suite());
+  }
+}
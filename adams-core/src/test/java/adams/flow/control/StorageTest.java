@@ -21,11 +21,18 @@
 package adams.flow.control;
 
 import adams.env.Environment;
+import adams.event.StorageChangeEvent;
+import adams.event.StorageChangeEvent.Type;
 import adams.test.AdamsTestCase;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Tests the adams.flow.control.Storage class. Run from commandline with: <br><br>
@@ -159,6 +166,129 @@ public class StorageTest
     assertEquals("removed existing item", 2, s.size("1"));
   }
 
+  /**
+   * Tests storing null values.
+   */
+  public void testNullValue() {
+    Storage s = new Storage();
+    s.put(new StorageName("blah"), null);
+    assertTrue("has null value", s.has(new StorageName("blah")));
+    assertNull("null value", s.get(new StorageName("blah")));
+    assertNull("null value", s.getShallowCopy().get(new StorageName("blah")));
+    assertNull("null value", s.getClone().get(new StorageName("blah")));
+    assertNull("null value", s.remove(new StorageName("blah")));
+    assertEquals("storage size", 0, s.size());
+  }
+
+  /**
+   * Tests the events fired for null values.
+   */
+  public void testNullValueEvents() {
+    Storage s = new Storage();
+    final List<Type> types = new ArrayList<>();
+    s.addChangeListener((StorageChangeEvent e) -> types.add(e.getType()));
+    s.put(new StorageName("blah"), null);
+    s.put(new StorageName("blah"), 1);
+    s.put(new StorageName("blah"), 2);
+    s.put(new StorageName("blah"), null);
+    s.remove(new StorageName("blah"));
+    assertEquals("events differ", Arrays.asList(Type.ADDED, Type.ADDED, Type.MODIFIED, Type.MODIFIED), types);
+    assertEquals("computed", 3, s.computeIfAbsent(new StorageName("bloerk"), (StorageName name) -> 3));
+    s.put(new StorageName("bloerk"), null);
+    assertEquals("computed", 4, s.computeIfAbsent(new StorageName("bloerk"), (StorageName name) -> 4));
+  }
+
+  /**
+   * Tests the computeIfAbsent methods with multiple threads.
+   */
+  public void testComputeIfAbsent() throws Exception {
+    final Storage s = new Storage();
+    s.addCache("1", 10);
+    final AtomicInteger computed = new AtomicInteger();
+    final AtomicInteger cacheComputed = new AtomicInteger();
+    final AtomicInteger events = new AtomicInteger();
+    s.addChangeListener((StorageChangeEvent e) -> events.incrementAndGet());
+    Thread[] threads = new Thread[8];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread(() -> {
+	for (int n = 0; n < 100; n++) {
+	  s.computeIfAbsent(new StorageName("key" + n), (StorageName name) -> computed.incrementAndGet());
+	  s.computeIfAbsent("1", new StorageName("key"), (StorageName name) -> cacheComputed.incrementAndGet());
+	}
+      });
+      threads[i].start();
+    }
+    for (Thread thread: threads)
+      thread.join();
+    assertEquals("computed once per key", 100, computed.get());
+    assertEquals("computed once per key (cache)", 1, cacheComputed.get());
+    assertEquals("one event per computation", 101, events.get());
+    assertEquals("storage size", 100, s.size());
+    assertEquals("cache size", 1, s.size("1"));
+    assertEquals("value", 1, s.computeIfAbsent("1", new StorageName("key"), (StorageName name) -> -1));
+  }
+
+  /**
+   * Tests that threads waiting for a cache lock get counted.
+   */
+  public void testContention() throws Exception {
+    final Storage s = new Storage();
+    s.addCache("1", 10);
+    final CountDownLatch computing = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    Thread holder = new Thread(() -> s.computeIfAbsent("1", new StorageName("key"), (StorageName name) -> {
+      computing.countDown();
+      try {
+	release.await();
+      }
+      catch (InterruptedException e) {
+	// ignored
+      }
+      return 1;
+    }));
+    holder.start();
+    computing.await();
+    assertEquals("no contention yet", 0, s.getContentionCount());
+
+    Thread waiter = new Thread(() -> s.get("1", new StorageName("key")));
+    waiter.start();
+    while (!s.m_Caches.get("1").getLock().hasQueuedThread(waiter))
+      Thread.sleep(10);
+    release.countDown();
+    holder.join();
+    waiter.join();
+
+    assertEquals("contention", 1, s.getContentionCount());
+    assertEquals("locks acquired", 2, s.getLockCount());
+    s.resetContentionStatistics();
+    assertEquals("reset", 0, s.getLockCount());
+    assertEquals("reset", 0, s.getContentionCount());
+  }
+
+  /**
+   * Tests the lock statistics when accessing a cache with multiple threads.
+   */
+  public void testConcurrentCacheAccess() throws Exception {
+    final Storage s = new Storage();
+    s.addCache("1", 10);
+    Thread[] threads = new Thread[8];
+    for (int i = 0; i < threads.length; i++) {
+      final int offset = i;
+      threads[i] = new Thread(() -> {
+	for (int n = 0; n < 10000; n++) {
+	  s.put("1", new StorageName("key" + ((n + offset) % 20)), n);
+	  s.get("1", new StorageName("key" + (n % 20)));
+	}
+      });
+      threads[i].start();
+    }
+    for (Thread thread: threads)
+      thread.join();
+    assertEquals("locks acquired", threads.length * 10000 * 2, s.getLockCount());
+    assertTrue("contention", s.getContentionCount() <= s.getLockCount());
+    assertEquals("cache size", 10, s.size("1"));
+  }
+
   /**
    * Tests the {@link Storage#expand(String)} method.
    */
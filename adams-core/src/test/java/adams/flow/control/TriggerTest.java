@@ -21,10 +21,12 @@
 package adams.flow.control;
 
 import java.io.File;
+import java.util.List;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
 import adams.core.base.BaseString;
+import adams.core.io.FileUtils;
 import adams.env.Environment;
 import adams.flow.AbstractFlowTest;
 import adams.flow.control.Sleep;
@@ -143,6 +145,35 @@ public class TriggerTest
 	    new TmpFile("dumpfile.txt")});
   }
 
+  /**
+   * Tests whether the pipelined execution generates the same output as the
+   * sequential one.
+   */
+  public void testPipelined() {
+    Flow		flow;
+    List<String>	expected;
+    List<String>	actual;
+    int			i;
+
+    flow = (Flow) getActor();
+    performActorExecution(flow);
+    expected = FileUtils.loadFromFile(new TmpFile("dumpfile.txt"));
+    m_TestHelper.deleteFileFromTmp("dumpfile.txt");
+
+    flow = (Flow) getActor();
+    for (i = 0; i < flow.size(); i++) {
+      if (flow.get(i) instanceof Trigger) {
+	((Trigger) flow.get(i)).setPipelined(true);
+	((Trigger) flow.get(i)).setPipelineQueueSize(2);
+      }
+    }
+    performActorExecution(flow);
+    actual = FileUtils.loadFromFile(new TmpFile("dumpfile.txt"));
+
+    assertEquals("number of lines differ", expected.size(), actual.size());
+    assertEquals("output differs", expected, actual);
+  }
+
   /**
    * Returns a test suite.
    *
@@ -20,16 +20,23 @@
 
 package adams.flow.source;
 
+import adams.core.io.FileUtils;
+import adams.core.io.lister.ParallelLocalDirectoryLister;
 import adams.core.io.lister.Sorting;
 import adams.env.Environment;
 import adams.core.option.AbstractArgumentOption;
 import adams.flow.source.filesystemsearch.LocalFileSearch;
+import adams.flow.source.filesystemsearch.ParallelLocalFileSearch;
+import adams.test.TmpDirectory;
+import adams.test.TmpFile;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 import adams.flow.core.Actor;
 import adams.flow.control.Flow;
 import adams.flow.AbstractFlowTest;
 
+import java.io.File;
+
 /**
  * Test for FileSystemSearch actor.
  *
@@ -59,12 +66,131 @@ public class FileSystemSearchTest
     return new TestSuite(FileSystemSearchTest.class);
   }
 
+  /**
+   * Tests the parallel search, which has to return the same files (sorted
+   * by name) as the sequential search.
+   *
+   * @throws Exception	if search fails
+   */
+  public void testParallelSearch() throws Exception {
+    TmpFile[]			files;
+    LocalFileSearch		sequential;
+    ParallelLocalFileSearch	parallel;
+    int				i;
+
+    files = new TmpFile[20];
+    for (i = 0; i < files.length; i++) {
+      files[i] = new TmpFile("filesystemsearch-" + i + ".txt");
+      files[i].createNewFile();
+    }
+
+    try {
+      sequential = new LocalFileSearch();
+      configure(sequential);
+      parallel = new ParallelLocalFileSearch();
+      parallel.setNumThreads(4);
+      configure(parallel);
+      assertEquals("search results differ", sequential.search(), parallel.search());
+
+      assertNull("flow failed", performActorExecution(getActor(parallel)));
+    }
+    finally {
+      for (TmpFile file: files)
+	file.delete();
+    }
+  }
+
+  /**
+   * Returns whether any incremental traversal threads are still alive.
+   *
+   * @return		true if still alive
+   */
+  protected boolean isIterating() {
+    for (Thread thread: Thread.getAllStackTraces().keySet()) {
+      if (thread.isAlive() && thread.getName().equals(ParallelLocalDirectoryLister.class.getSimpleName() + "-iterate"))
+	return true;
+    }
+    return false;
+  }
+
+  /**
+   * Tests that incremental searches that only got consumed partially, get
+   * stopped when re-executing and wrapping up the actor.
+   *
+   * @throws Exception	if search fails
+   */
+  public void testStopIncrementalSearch() throws Exception {
+    TmpDirectory		dir;
+    ParallelLocalFileSearch	parallel;
+    FileSystemSearch		actor;
+    int				i;
+    int				n;
+
+    dir = new TmpDirectory("filesystemsearch-stop");
+    dir.mkdirs();
+    for (i = 0; i < ParallelLocalDirectoryLister.ITERATE_QUEUE_SIZE * 2; i++)
+      new File(dir.getAbsolutePath(), "file-" + i + ".txt").createNewFile();
+
+    try {
+      parallel = new ParallelLocalFileSearch();
+      parallel.setNumThreads(2);
+      parallel.setDirectory(dir);
+      actor = new FileSystemSearch();
+      actor.setSearch(parallel);
+      actor.setOutputArray(false);
+      assertNull("setUp failed", actor.setUp());
+
+      for (n = 0; n < 2; n++) {
+	assertNull("execute failed", actor.execute());
+	for (i = 0; i < 10; i++) {
+	  assertTrue("no output", actor.hasPendingOutput());
+	  assertNotNull("no token", actor.output());
+	}
+      }
+      actor.wrapUp();
+      actor.cleanUp();
+
+      for (i = 0; (i < 50) && isIterating(); i++)
+	Thread.sleep(100);
+      assertFalse("traversal still running", isIterating());
+    }
+    finally {
+      FileUtils.delete(dir);
+    }
+  }
+
+  /**
+   * Configures the search to list the files in the temp directory, sorted
+   * by name.
+   *
+   * @param filesearch4	the search to configure
+   * @throws Exception	if parsing of option values fails
+   */
+  protected void configure(LocalFileSearch filesearch4) throws Exception {
+    AbstractArgumentOption    argOption;
+
+    argOption = (AbstractArgumentOption) filesearch4.getOptionManager().findByProperty("directory");
+    filesearch4.setDirectory((adams.core.io.PlaceholderDirectory) argOption.valueOf("${TMP}"));
+    argOption = (AbstractArgumentOption) filesearch4.getOptionManager().findByProperty("sorting");
+    filesearch4.setSorting((Sorting) argOption.valueOf("SORT_BY_NAME"));
+  }
+
   /**
    * Used to create an instance of a specific actor.
    *
    * @return a suitably configured <code>Actor</code> value
    */
   public Actor getActor() {
+    return getActor(new LocalFileSearch());
+  }
+
+  /**
+   * Creates a flow that uses the specified search.
+   *
+   * @param filesearch4	the search to use
+   * @return a suitably configured <code>Actor</code> value
+   */
+  protected Actor getActor(LocalFileSearch filesearch4) {
     AbstractArgumentOption    argOption;
     
     Flow flow = new Flow();
@@ -76,11 +202,7 @@ public class FileSystemSearchTest
       // Flow.FileSystemSearch
       adams.flow.source.FileSystemSearch filesystemsearch2 = new adams.flow.source.FileSystemSearch();
       argOption = (AbstractArgumentOption) filesystemsearch2.getOptionManager().findByProperty("search");
-      LocalFileSearch filesearch4 = new LocalFileSearch();
-      argOption = (AbstractArgumentOption) filesearch4.getOptionManager().findByProperty("directory");
-      filesearch4.setDirectory((adams.core.io.PlaceholderDirectory) argOption.valueOf("${TMP}"));
-      argOption = (AbstractArgumentOption) filesearch4.getOptionManager().findByProperty("sorting");
-      filesearch4.setSorting((Sorting) argOption.valueOf("SORT_BY_NAME"));
+      configure(filesearch4);
       filesystemsearch2.setSearch(filesearch4);
 
       actors1[0] = filesystemsearch2;
@@ -24,6 +24,8 @@ import adams.env.Environment;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import java.util.HashMap;
+
 /**
  * Tests the adams.parser.BooleanExpression class. Run from commandline with: <br><br>
  * java adams.parser.BooleanExpressionTest
@@ -320,6 +322,52 @@ public class BooleanExpressionTest
     return new BooleanExpression[]{new BooleanExpression()};
   }
 
+  /**
+   * Tests re-using a compiled expression with different symbols.
+   *
+   * @throws Exception	if evaluation fails
+   */
+  public void testCompiledExpression() throws Exception {
+    CompiledExpression	compiled;
+    HashMap		symbols;
+    long		hits;
+
+    compiled = BooleanExpression.compile("(X < 3) and not (X = 1) or has(Y)");
+    assertEquals("# of tokens differ", 17, compiled.size());
+    assertTrue("no parse actions", compiled.hasActions());
+    symbols  = new HashMap();
+    symbols.put("X", 2.0);
+    assertTrue("result differs", BooleanExpression.evaluate(compiled, symbols));
+    symbols.put("X", 1.0);
+    assertFalse("result differs", BooleanExpression.evaluate(compiled, symbols));
+    symbols.put("X", 5.0);
+    assertFalse("result differs", BooleanExpression.evaluate(compiled, symbols));
+    symbols.put("Y", "y");
+    assertTrue("result differs", BooleanExpression.evaluate(compiled, symbols));
+
+    hits = BooleanExpression.getCache().getHits();
+    assertSame("not cached", compiled, BooleanExpression.compile(compiled.getExpression()));
+    assertTrue("result differs", BooleanExpression.evaluate(compiled.getExpression(), symbols));
+    assertEquals("# of hits differ", hits + 2, BooleanExpression.getCache().getHits());
+  }
+
+  /**
+   * Tests that compiled expressions with syntax errors still fail.
+   */
+  public void testCompiledExpressionError() {
+    CompiledExpression	compiled;
+
+    try {
+      compiled = BooleanExpression.compile("(X < 3) and and");
+      assertFalse("parse actions available", compiled.hasActions());
+      BooleanExpression.evaluate(compiled, new HashMap());
+      fail("syntax error not detected");
+    }
+    catch (Exception e) {
+      // expected
+    }
+  }
+
   /**
    * Returns a test suite.
    *
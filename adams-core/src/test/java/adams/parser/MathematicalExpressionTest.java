@@ -24,6 +24,8 @@ import adams.env.Environment;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import java.util.HashMap;
+
 /**
  * Tests the adams.parser.MathematicalExpression class. Run from commandline with: <br><br>
  * java adams.parser.MathematicalExpressionTest
@@ -273,6 +275,31 @@ public class MathematicalExpressionTest
     return new MathematicalExpression[]{new MathematicalExpression()};
   }
 
+  /**
+   * Tests re-using a compiled expression with different symbols.
+   *
+   * @throws Exception	if evaluation fails
+   */
+  public void testCompiledExpression() throws Exception {
+    CompiledExpression	compiled;
+    HashMap		symbols;
+    long		hits;
+
+    compiled = MathematicalExpression.compile("ifelse(X < 0; X^2; X*2) + length(\"abc\")");
+    assertEquals("# of tokens differ", 19, compiled.size());
+    assertTrue("no parse actions", compiled.hasActions());
+    symbols  = new HashMap();
+    symbols.put("X", -2.0);
+    assertEquals("result differs", 7.0, MathematicalExpression.evaluate(compiled, symbols), 0.0);
+    symbols.put("X", 3.0);
+    assertEquals("result differs", 9.0, MathematicalExpression.evaluate(compiled, symbols), 0.0);
+
+    hits = MathematicalExpression.getCache().getHits();
+    assertSame("not cached", compiled, MathematicalExpression.compile(compiled.getExpression()));
+    assertEquals("result differs", 9.0, MathematicalExpression.evaluate(compiled.getExpression(), symbols), 0.0);
+    assertEquals("# of hits differ", hits + 2, MathematicalExpression.getCache().getHits());
+  }
+
   /**
    * Returns a test suite.
    *
@@ -24,6 +24,8 @@ import adams.env.Environment;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import java.util.HashMap;
+
 /**
  * Tests the adams.parser.StringExpression class. Run from commandline with: <br><br>
  * java adams.parser.StringExpressionTest
@@ -142,6 +144,31 @@ public class StringExpressionTest
     return new StringExpression[]{new StringExpression()};
   }
 
+  /**
+   * Tests re-using a compiled expression with different symbols.
+   *
+   * @throws Exception	if evaluation fails
+   */
+  public void testCompiledExpression() throws Exception {
+    CompiledExpression	compiled;
+    HashMap		symbols;
+    long		hits;
+
+    compiled = StringExpression.compile("concatenate(left(X; 3); \"-\"; rept(right(X; 1); 2))");
+    assertEquals("# of tokens differ", 23, compiled.size());
+    assertTrue("no parse actions", compiled.hasActions());
+    symbols  = new HashMap();
+    symbols.put("X", "Hello");
+    assertEquals("result differs", "Hel-oo", StringExpression.evaluate(compiled, symbols));
+    symbols.put("X", "World");
+    assertEquals("result differs", "Wor-dd", StringExpression.evaluate(compiled, symbols));
+
+    hits = StringExpression.getCache().getHits();
+    assertSame("not cached", compiled, StringExpression.compile(compiled.getExpression()));
+    assertEquals("result differs", "Wor-dd", StringExpression.evaluate(compiled.getExpression(), symbols));
+    assertEquals("# of hits differ", hits + 2, StringExpression.getCache().getHits());
+  }
+
   /**
    * Returns a test suite.
    *
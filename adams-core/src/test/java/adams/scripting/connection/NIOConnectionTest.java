@@ -0,0 +1,321 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * NIOConnectionTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.scripting.connection;
+
+import adams.core.base.BaseText;
+import adams.env.Environment;
+import adams.scripting.command.RemoteCommand;
+import adams.scripting.command.basic.Ping;
+import adams.scripting.command.basic.Text;
+import adams.scripting.engine.NIOScriptingEngine;
+import adams.scripting.processor.DefaultProcessor;
+import adams.scripting.processor.RemoteCommandProcessor;
+import adams.test.AdamsTestCase;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests the adams.scripting.connection.NIOConnection class, sending
+ * commands to adams.scripting.engine.NIOScriptingEngine instances.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class NIOConnectionTest
+  extends AdamsTestCase {
+
+  /**
+   * Engine that records the commands it handles.
+   */
+  public static class RecordingEngine
+    extends NIOScriptingEngine {
+
+    private static final long serialVersionUID = 2942624532911880357L;
+
+    /** the commands handled. */
+    protected List<RemoteCommand> m_Handled = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Records the command before handling it.
+     *
+     * @param id	the ID of the frame that the command came in
+     * @param cmd	the command to handle
+     */
+    @Override
+    protected void handleCommand(long id, RemoteCommand cmd) {
+      m_Handled.add(cmd);
+      super.handleCommand(id, cmd);
+    }
+
+    /**
+     * Returns the commands handled so far.
+     *
+     * @return		the commands
+     */
+    public List<RemoteCommand> getHandled() {
+      return m_Handled;
+    }
+
+    /**
+     * Returns whether the engine is listening for connections.
+     *
+     * @return		true if listening
+     */
+    public boolean isListening() {
+      return (m_Server != null);
+    }
+  }
+
+  /** the engines that were started. */
+  protected List<RecordingEngine> m_Engines;
+
+  /** the threads of the engines. */
+  protected List<Thread> m_Threads;
+
+  /** the processor (not used by the connection). */
+  protected RemoteCommandProcessor m_Processor;
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public NIOConnectionTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Called by JUnit before each test method.
+   *
+   * @throws Exception if an error occurs.
+   */
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+
+    m_Engines   = new ArrayList<>();
+    m_Threads   = new ArrayList<>();
+    m_Processor = new DefaultProcessor();
+  }
+
+  /**
+   * Called by JUnit after each test method.
+   *
+   * @throws Exception	if tear-down fails
+   */
+  @Override
+  protected void tearDown() throws Exception {
+    for (RecordingEngine engine: m_Engines)
+      stop(engine);
+    NIOConnection.closeAll();
+
+    super.tearDown();
+  }
+
+  /**
+   * Returns a free port.
+   *
+   * @return		the port
+   * @throws Exception	if no port available
+   */
+  protected int freePort() throws Exception {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  /**
+   * Starts an engine on the specified port.
+   *
+   * @param port	the port to listen on
+   * @return		the engine
+   * @throws Exception	if waiting fails
+   */
+  protected RecordingEngine start(int port) throws Exception {
+    RecordingEngine	result;
+    Thread		thread;
+    int			i;
+
+    result = new RecordingEngine();
+    result.setPort(port);
+    thread = new Thread(result::execute);
+    thread.start();
+    m_Engines.add(result);
+    m_Threads.add(thread);
+
+    for (i = 0; (i < 100) && !result.isListening(); i++)
+      Thread.sleep(100);
+    assertTrue("engine not listening on port " + port, result.isListening());
+
+    return result;
+  }
+
+  /**
+   * Stops the engine and waits for it to finish.
+   *
+   * @param engine	the engine to stop
+   * @throws Exception	if waiting fails
+   */
+  protected void stop(RecordingEngine engine) throws Exception {
+    engine.stopExecution();
+    m_Threads.get(m_Engines.indexOf(engine)).join(10000);
+  }
+
+  /**
+   * Waits for the engine to have handled the specified number of commands.
+   *
+   * @param engine	the engine to check
+   * @param count	the number of commands
+   * @throws Exception	if waiting fails
+   */
+  protected void waitFor(RecordingEngine engine, int count) throws Exception {
+    int		i;
+
+    for (i = 0; (i < 100) && (engine.getHandled().size() < count); i++)
+      Thread.sleep(100);
+    assertEquals("number of commands handled", count, engine.getHandled().size());
+  }
+
+  /**
+   * Creates a connection to the specified port.
+   *
+   * @param port	the port of the engine
+   * @return		the connection
+   */
+  protected NIOConnection newConnection(int port) {
+    NIOConnection	result;
+
+    result = new NIOConnection();
+    result.setPort(port);
+    result.setAckTimeout(5000);
+
+    return result;
+  }
+
+  /**
+   * Creates a text command.
+   *
+   * @param text	the text to send
+   * @return		the command
+   */
+  protected Text newText(String text) {
+    Text	result;
+
+    result = new Text();
+    result.setText(new BaseText(text));
+
+    return result;
+  }
+
+  /**
+   * Sends requests and a response via persistent connections.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testRoundTrip() throws Exception {
+    int			port;
+    int			responsePort;
+    RecordingEngine	engine;
+    RecordingEngine	responseEngine;
+    NIOConnection	conn;
+    Ping		ping;
+    int			i;
+
+    port           = freePort();
+    responsePort   = freePort();
+    engine         = start(port);
+    responseEngine = start(responsePort);
+    conn           = newConnection(port);
+
+    // several requests over the same connection
+    for (i = 0; i < 10; i++)
+      assertNull("failed to send #" + i, conn.sendRequest(newText("text-" + i), m_Processor));
+    waitFor(engine, 10);
+    for (i = 0; i < 10; i++)
+      assertEquals("text differs", "text-" + i, engine.getHandled().get(i).getRequestPayloadObjects()[0]);
+
+    // request with response
+    ping = new Ping();
+    ping.setResponseConnection(newConnection(responsePort));
+    assertNull("failed to send ping", conn.sendRequest(ping, m_Processor));
+    waitFor(engine, 11);
+    waitFor(responseEngine, 1);
+    assertTrue("not a ping", responseEngine.getHandled().get(0) instanceof Ping);
+    assertFalse("not a response", responseEngine.getHandled().get(0).isRequest());
+  }
+
+  /**
+   * Tests that frames do not get lost when the engine closes the connection.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testClosedConnection() throws Exception {
+    int			port;
+    RecordingEngine	engine;
+    NIOConnection	conn;
+
+    port   = freePort();
+    engine = start(port);
+    conn   = newConnection(port);
+    assertNull("failed to send", conn.sendRequest(newText("first"), m_Processor));
+    waitFor(engine, 1);
+
+    // engine closes the connection, nobody listening anymore
+    stop(engine);
+    assertNotNull("sending to closed connection succeeded", conn.sendRequest(newText("lost"), m_Processor));
+
+    // new engine: connection gets re-established
+    engine = start(port);
+    assertNull("failed to send after restart", conn.sendRequest(newText("second"), m_Processor));
+    waitFor(engine, 1);
+    assertEquals("text differs", "second", engine.getHandled().get(0).getRequestPayloadObjects()[0]);
+
+    // engine closes the connection and gets restarted before the next frame
+    stop(engine);
+    engine = start(port);
+    assertNull("failed to send after reconnect", conn.sendRequest(newText("third"), m_Processor));
+    waitFor(engine, 1);
+    assertEquals("text differs", "third", engine.getHandled().get(0).getRequestPayloadObjects()[0]);
+  }
+
+  /**
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(NIOConnectionTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(Environment.class);
+    runTest(suite());
+  }
+}
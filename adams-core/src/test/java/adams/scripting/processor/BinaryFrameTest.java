@@ -0,0 +1,253 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * BinaryFrameTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.scripting.processor;
+
+import adams.core.MessageCollection;
+import adams.core.base.BaseText;
+import adams.env.Environment;
+import adams.scripting.command.RemoteCommand;
+import adams.scripting.command.basic.Text;
+import adams.test.AdamsTestCase;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tests the adams.scripting.processor.BinaryFrame class.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class BinaryFrameTest
+  extends AdamsTestCase {
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public BinaryFrameTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Creates a frame with the specified ID and payload size.
+   *
+   * @param id		the frame ID
+   * @param size	the size of the payload
+   * @return		the frame
+   */
+  protected BinaryFrame newFrame(long id, int size) {
+    byte[]	payload;
+    int		i;
+
+    payload = new byte[size];
+    for (i = 0; i < size; i++)
+      payload[i] = (byte) i;
+
+    return new BinaryFrame(
+      id, BinaryFrame.TYPE_RESPONSE, "# Command=blah".getBytes(StandardCharsets.UTF_8), payload);
+  }
+
+  /**
+   * Checks whether the two frames are the same.
+   *
+   * @param expected	the expected frame
+   * @param actual	the actual frame
+   */
+  protected void assertFrameEquals(BinaryFrame expected, BinaryFrame actual) {
+    assertNotNull("no frame", actual);
+    assertEquals("ID differs", expected.getID(), actual.getID());
+    assertEquals("type differs", expected.getType(), actual.getType());
+    assertTrue("header differs", Arrays.equals(expected.m_Header, actual.m_Header));
+    assertTrue("payload differs", Arrays.equals(expected.getPayload(), actual.getPayload()));
+  }
+
+  /**
+   * Tests writing and reading a single frame.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testRoundTrip() throws Exception {
+    BinaryFrame	frame;
+    ByteBuffer	buffer;
+
+    frame  = newFrame(42, 1000);
+    buffer = frame.toBuffer();
+    assertEquals("size differs", frame.size(), buffer.remaining());
+    assertFrameEquals(frame, BinaryFrame.read(buffer, BinaryFrame.DEFAULT_MAX_SIZE));
+    assertEquals("remaining", 0, buffer.remaining());
+
+    // empty payload
+    frame  = newFrame(Long.MAX_VALUE, 0);
+    buffer = frame.toBuffer();
+    assertFrameEquals(frame, BinaryFrame.read(buffer, BinaryFrame.DEFAULT_MAX_SIZE));
+  }
+
+  /**
+   * Tests reading multiple frames from the same buffer, supplied byte by
+   * byte like partial reads do.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testPartialReads() throws Exception {
+    BinaryFrame[]	frames;
+    ByteBuffer		data;
+    ByteBuffer		buffer;
+    BinaryFrame		frame;
+    int			count;
+    int			position;
+
+    frames = new BinaryFrame[]{newFrame(1, 10), newFrame(2, 0), newFrame(3, 300)};
+    data   = ByteBuffer.allocate(frames[0].size() + frames[1].size() + frames[2].size());
+    for (BinaryFrame f: frames)
+      data.put(f.toBuffer());
+    data.flip();
+
+    buffer = ByteBuffer.allocate(data.capacity());
+    count  = 0;
+    while (data.hasRemaining()) {
+      buffer.put(data.get());
+      buffer.flip();
+      position = buffer.position();
+      frame    = BinaryFrame.read(buffer, BinaryFrame.DEFAULT_MAX_SIZE);
+      if (frame == null) {
+	assertEquals("position changed", position, buffer.position());
+      }
+      else {
+	assertFrameEquals(frames[count], frame);
+	count++;
+      }
+      buffer.compact();
+    }
+    assertEquals("number of frames", frames.length, count);
+  }
+
+  /**
+   * Tests the detection of invalid frames.
+   */
+  public void testInvalid() {
+    ByteBuffer	buffer;
+
+    // too large
+    buffer = newFrame(1, 1000).toBuffer();
+    try {
+      BinaryFrame.read(buffer, 100);
+      fail("Frame size not checked");
+    }
+    catch (IOException e) {
+      // expected
+    }
+
+    // invalid type
+    buffer = newFrame(1, 10).toBuffer();
+    buffer.put(BinaryFrame.PREFIX_SIZE + 8, (byte) 99);
+    try {
+      BinaryFrame.read(buffer, BinaryFrame.DEFAULT_MAX_SIZE);
+      fail("Frame type not checked");
+    }
+    catch (IOException e) {
+      // expected
+    }
+
+    // invalid header size
+    buffer = newFrame(1, 10).toBuffer();
+    buffer.putInt(BinaryFrame.PREFIX_SIZE + 9, 1000);
+    try {
+      BinaryFrame.read(buffer, BinaryFrame.DEFAULT_MAX_SIZE);
+      fail("Header size not checked");
+    }
+    catch (IOException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Tests assembling a command and instantiating it again.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testCommand() throws Exception {
+    Text		text;
+    BinaryFrame		frame;
+    MessageCollection	errors;
+    RemoteCommand	cmd;
+
+    text = new Text();
+    text.setText(new BaseText("hello\nworld"));
+    frame  = BinaryFrame.read(BinaryFrame.assemble(7, text, true).toBuffer(), BinaryFrame.DEFAULT_MAX_SIZE);
+    assertTrue("not a request", frame.isRequest());
+    assertEquals("ID differs", 7, frame.getID());
+
+    errors = new MessageCollection();
+    cmd    = frame.toCommand(new DefaultProcessor(), errors);
+    assertTrue("errors: " + errors, errors.isEmpty());
+    assertTrue("wrong class: " + cmd, cmd instanceof Text);
+    assertEquals("payload differs", "hello\nworld", ((Text) cmd).getRequestPayloadObjects()[0]);
+  }
+
+  /**
+   * Tests acknowledgements.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testAcknowledge() throws Exception {
+    BinaryFrame		frame;
+    StringBuilder	error;
+
+    frame = BinaryFrame.read(BinaryFrame.acknowledge(5, null).toBuffer(), BinaryFrame.MAX_ACK_SIZE);
+    assertTrue("not an acknowledgement", frame.isAcknowledgement());
+    assertEquals("ID differs", 5, frame.getID());
+    assertNull("error present", frame.getError());
+
+    frame = BinaryFrame.read(BinaryFrame.acknowledge(6, "failed").toBuffer(), BinaryFrame.MAX_ACK_SIZE);
+    assertEquals("error differs", "failed", frame.getError());
+
+    // long errors get truncated to fit
+    error = new StringBuilder();
+    while (error.length() <= BinaryFrame.MAX_ERROR_LENGTH)
+      error.append("\u20ac");
+    frame = BinaryFrame.read(BinaryFrame.acknowledge(7, error.toString()).toBuffer(), BinaryFrame.MAX_ACK_SIZE);
+    assertEquals("error not truncated", BinaryFrame.MAX_ERROR_LENGTH, frame.getError().length());
+  }
+
+  /**
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(BinaryFrameTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(Environment.class);
+    runTest(suite());
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * ConnectionPoolTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.db;
+
+import adams.core.classmanager.ClassManager;
+import adams.env.Environment;
+import adams.test.AdamsTestCase;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests the pooled mode of database connections, using SQLite.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class ConnectionPoolTest
+  extends AdamsTestCase {
+
+  /** the number of worker threads (more than pool slots). */
+  public final static int NUM_THREADS = 6;
+
+  /** the maximum number of pooled connections. */
+  public final static int POOL_SIZE = 2;
+
+  /** the number of inserts per thread. */
+  public final static int NUM_INSERTS = 20;
+
+  /** the SQLite database file. */
+  protected File m_DbFile;
+
+  /** the database connection. */
+  protected DatabaseConnection m_Connection;
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public ConnectionPoolTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Called by JUnit before each test method.
+   *
+   * @throws Exception if an error occurs
+   */
+  @Override
+  protected void setUp() throws Exception {
+    Connection	conn;
+    Statement	stmt;
+
+    super.setUp();
+
+    m_DbFile = File.createTempFile("adams-pool-", ".db");
+    m_Connection = new DatabaseConnection();
+    m_Connection.setURL("jdbc:sqlite:" + m_DbFile.getAbsolutePath());
+    m_Connection.setUser("");
+    m_Connection.setPooled(true);
+    m_Connection.setPoolMinSize(1);
+    m_Connection.setPoolMaxSize(POOL_SIZE);
+    m_Connection.setPoolMaxWait(5000);
+    assertTrue("Failed to connect: " + m_Connection.getLastConnectionError(), m_Connection.connect());
+
+    conn = m_Connection.getConnection(false);
+    stmt = conn.createStatement();
+    stmt.executeUpdate("CREATE TABLE data (thread INTEGER, value INTEGER)");
+    stmt.close();
+    m_Connection.releaseConnection();
+  }
+
+  /**
+   * Called by JUnit after each test method.
+   *
+   * @throws Exception if tear-down fails
+   */
+  @Override
+  protected void tearDown() throws Exception {
+    m_Connection.disconnect();
+    m_DbFile.delete();
+
+    super.tearDown();
+  }
+
+  /**
+   * Returns the number of rows in the table.
+   *
+   * @return		the number of rows
+   * @throws Exception	if query fails
+   */
+  protected int count() throws Exception {
+    Connection	conn;
+    Statement	stmt;
+    ResultSet	rs;
+    int		result;
+
+    ConnectionPool.enterScope();
+    try {
+      conn = m_Connection.getConnection(false);
+      stmt = conn.createStatement();
+      rs   = stmt.executeQuery("SELECT COUNT(*) FROM data");
+      rs.next();
+      result = rs.getInt(1);
+      rs.close();
+      stmt.close();
+    }
+    finally {
+      ConnectionPool.leaveScope();
+    }
+
+    return result;
+  }
+
+  /**
+   * Uses more long-lived threads than there are pool slots, with each unit
+   * of work wrapped in a scope, like actors do.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testScopedWorkers() throws Exception {
+    ExecutorService	executor;
+    List<Future<?>>	futures;
+    ConnectionPool	pool;
+    int			i;
+
+    executor = Executors.newFixedThreadPool(NUM_THREADS);
+    futures  = new ArrayList<>();
+    try {
+      for (i = 0; i < NUM_THREADS * NUM_INSERTS; i++) {
+	final int value = i;
+	futures.add(executor.submit(() -> {
+	  ConnectionPool.enterScope();
+	  try {
+	    Connection conn = m_Connection.getConnection(false);
+	    assertNotNull("No connection: " + m_Connection.getLastConnectionError(), conn);
+	    Statement stmt = conn.createStatement();
+	    stmt.executeUpdate("INSERT INTO data VALUES (" + Thread.currentThread().getId() + ", " + value + ")");
+	    stmt.close();
+	  }
+	  finally {
+	    ConnectionPool.leaveScope();
+	  }
+	  return null;
+	}));
+      }
+      for (Future<?> future: futures)
+	future.get();
+
+      pool = m_Connection.getPool();
+      assertNotNull("Not pooled", pool);
+      // worker threads are still alive, but have returned their leases
+      assertEquals("active", 0, pool.getActiveCount());
+      assertEquals("timeouts", 0, pool.getTimeoutCount());
+      assertTrue("total", pool.getTotalCount() <= POOL_SIZE);
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    assertEquals("rows", NUM_THREADS * NUM_INSERTS, count());
+  }
+
+  /**
+   * Tests that nested scopes only return the lease with the outermost one.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testNestedScopes() throws Exception {
+    ConnectionPool	pool;
+    Connection		outer;
+    Connection		inner;
+
+    pool = m_Connection.getPool();
+    ConnectionPool.enterScope();
+    outer = m_Connection.getConnection(false);
+    ConnectionPool.enterScope();
+    inner = m_Connection.getConnection(false);
+    assertSame("same lease", outer, inner);
+    ConnectionPool.leaveScope();
+    assertEquals("active after inner scope", 1, pool.getActiveCount());
+    ConnectionPool.leaveScope();
+    assertEquals("active after outer scope", 0, pool.getActiveCount());
+  }
+
+  /**
+   * Tests that changing any of the pool settings, including the validation
+   * timeout, reconfigures the connection.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testConfigurePool() throws Exception {
+    assertFalse("unchanged", m_Connection.configurePool(true, 1, POOL_SIZE, 300, 5000, 5));
+    assertTrue("connected", m_Connection.isConnected());
+    assertTrue("validation timeout", m_Connection.configurePool(true, 1, POOL_SIZE, 300, 5000, 10));
+    assertEquals("validation timeout", 10, m_Connection.getPoolValidationTimeout());
+    assertFalse("connected after reconfigure", m_Connection.isConnected());
+  }
+
+  /**
+   * The pool holds live connections and is not part of the serialized state
+   * of the database connection, hence tests whether the pooled database
+   * connection can be serialized instead.
+   */
+  @Override
+  public void testSerializable() {
+    assertNotNull("Not serializable: " + m_Connection, ClassManager.getSingleton().deepCopy(m_Connection));
+  }
+
+  /**
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(ConnectionPoolTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(Environment.class);
+    runTest(suite());
+  }
+}
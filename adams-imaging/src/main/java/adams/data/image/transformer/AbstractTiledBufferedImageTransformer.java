@@ -0,0 +1,615 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * AbstractTiledBufferedImageTransformer.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.image.transformer;
+
+import adams.core.Performance;
+import adams.core.ThreadLimiter;
+import adams.data.image.BufferedImageContainer;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Ancestor for BufferedImage transformations that process the pixels in
+ * tiles, in parallel, using a fork-join pool.
+ * <br><br>
+ * The pixels are obtained directly from the backing data buffer of the image
+ * (for the types INT_RGB, INT_ARGB, 3BYTE_BGR and 4BYTE_ABGR), as ARGB
+ * integers (like {@link BufferedImage#getRGB(int, int)}), avoiding the color
+ * model for every single pixel. Other image types are handled via bulk
+ * get/setRGB calls.
+ * <br><br>
+ * Derived classes only have to implement {@link #processTile(Tile)}, which
+ * reads from the (shared, read-only) input pixels and writes the pixels of
+ * its region to the output. The halo (see {@link #getHalo()}) determines how
+ * far around the tile the algorithm requires intermediate results, e.g.,
+ * for the passes of a separable filter.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public abstract class AbstractTiledBufferedImageTransformer
+  extends AbstractBufferedImageTransformer
+  implements ThreadLimiter {
+
+  private static final long serialVersionUID = -1284447305716330245L;
+
+  /**
+   * Container for a single tile to process.
+   */
+  public static class Tile {
+
+    /** the x of the tile. */
+    public final int x;
+
+    /** the y of the tile. */
+    public final int y;
+
+    /** the width of the tile. */
+    public final int width;
+
+    /** the height of the tile. */
+    public final int height;
+
+    /** the x of the tile including the halo (clipped to the image). */
+    public final int haloX;
+
+    /** the y of the tile including the halo (clipped to the image). */
+    public final int haloY;
+
+    /** the width of the tile including the halo (clipped to the image). */
+    public final int haloWidth;
+
+    /** the height of the tile including the halo (clipped to the image). */
+    public final int haloHeight;
+
+    /** the width of the image. */
+    public final int imageWidth;
+
+    /** the height of the image. */
+    public final int imageHeight;
+
+    /** the ARGB pixels of the whole input image (row-wise, read-only). */
+    public final int[] input;
+
+    /** the ARGB pixels of the whole output image (row-wise). */
+    public final int[] output;
+
+    /**
+     * Initializes the tile.
+     *
+     * @param x		the x of the tile
+     * @param y		the y of the tile
+     * @param width	the width of the tile
+     * @param height	the height of the tile
+     * @param halo	the halo around the tile
+     * @param imageWidth	the width of the image
+     * @param imageHeight	the height of the image
+     * @param input	the input pixels
+     * @param output	the output pixels
+     */
+    public Tile(int x, int y, int width, int height, int halo, int imageWidth, int imageHeight, int[] input, int[] output) {
+      this.x           = x;
+      this.y           = y;
+      this.width       = width;
+      this.height      = height;
+      this.haloX       = Math.max(0, x - halo);
+      this.haloY       = Math.max(0, y - halo);
+      this.haloWidth   = Math.min(imageWidth, x + width + halo) - this.haloX;
+      this.haloHeight  = Math.min(imageHeight, y + height + halo) - this.haloY;
+      this.imageWidth  = imageWidth;
+      this.imageHeight = imageHeight;
+      this.input       = input;
+      this.output      = output;
+    }
+
+    /**
+     * Returns the input pixel at the specified location.
+     *
+     * @param x		the x in the image
+     * @param y		the y in the image
+     * @return		the ARGB value
+     */
+    public int get(int x, int y) {
+      return input[y * imageWidth + x];
+    }
+
+    /**
+     * Sets the output pixel at the specified location.
+     *
+     * @param x		the x in the image
+     * @param y		the y in the image
+     * @param value	the ARGB value
+     */
+    public void set(int x, int y, int value) {
+      output[y * imageWidth + x] = value;
+    }
+
+    /**
+     * Returns a short description of the tile.
+     *
+     * @return		the description
+     */
+    @Override
+    public String toString() {
+      return "x=" + x + ", y=" + y + ", w=" + width + ", h=" + height;
+    }
+  }
+
+  /**
+   * Processes a range of tiles, splitting it further if necessary.
+   */
+  public class TileTask
+    extends RecursiveAction {
+
+    private static final long serialVersionUID = 4313788102813838024L;
+
+    /** the tiles. */
+    protected List<Tile> m_Tiles;
+
+    /** the first tile (incl). */
+    protected int m_From;
+
+    /** the last tile (excl). */
+    protected int m_To;
+
+    /** the output image. */
+    protected BufferedImage m_Output;
+
+    /**
+     * Initializes the task.
+     *
+     * @param tiles	the tiles
+     * @param from	the first tile (incl)
+     * @param to	the last tile (excl)
+     * @param output	the output image
+     */
+    public TileTask(List<Tile> tiles, int from, int to, BufferedImage output) {
+      m_Tiles  = tiles;
+      m_From   = from;
+      m_To     = to;
+      m_Output = output;
+    }
+
+    /**
+     * Processes the tiles.
+     */
+    @Override
+    protected void compute() {
+      int	mid;
+
+      if (m_To - m_From == 1) {
+	processTile(m_Tiles.get(m_From));
+	writeTile(m_Tiles.get(m_From), m_Output);
+      }
+      else {
+	mid = (m_From + m_To) / 2;
+	invokeAll(
+	  new TileTask(m_Tiles, m_From, mid, m_Output),
+	  new TileTask(m_Tiles, mid, m_To, m_Output));
+      }
+    }
+  }
+
+  /** the number of threads to use. */
+  protected int m_NumThreads;
+
+  /** the size of the tiles. */
+  protected int m_TileSize;
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "num-threads", "numThreads",
+      -1);
+
+    m_OptionManager.add(
+      "tile-size", "tileSize",
+      256, 1, null);
+  }
+
+  /**
+   * Sets the number of threads to use for processing the tiles.
+   *
+   * @param value 	the number of threads
+   * @see		Performance#determineNumThreads(int)
+   */
+  public void setNumThreads(int value) {
+    m_NumThreads = value;
+    reset();
+  }
+
+  /**
+   * Returns the number of threads to use for processing the tiles.
+   *
+   * @return 		the number of threads
+   * @see		Performance#determineNumThreads(int)
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String numThreadsTipText() {
+    return Performance.getNumThreadsHelp();
+  }
+
+  /**
+   * Sets the width/height of the tiles.
+   *
+   * @param value 	the size
+   */
+  public void setTileSize(int value) {
+    if (getOptionManager().isValid("tileSize", value)) {
+      m_TileSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the width/height of the tiles.
+   *
+   * @return 		the size
+   */
+  public int getTileSize() {
+    return m_TileSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String tileSizeTipText() {
+    return "The width/height of the tiles that get processed in parallel.";
+  }
+
+  /**
+   * Returns the halo around the tiles, i.e., how many pixels around a tile
+   * the algorithm requires intermediate results for.
+   * <br>
+   * Default implementation returns 0.
+   *
+   * @return		the halo
+   */
+  protected int getHalo() {
+    return 0;
+  }
+
+  /**
+   * Hook method for preparing the input image before obtaining the pixels.
+   * <br>
+   * Default implementation returns the image as is.
+   *
+   * @param img		the image to prepare
+   * @return		the prepared image
+   */
+  protected BufferedImage prepareInput(BufferedImage img) {
+    return img;
+  }
+
+  /**
+   * Creates the (empty) output image.
+   * <br>
+   * Default implementation creates an INT_ARGB or INT_RGB image of the same
+   * size, depending on whether the input image has an alpha channel.
+   *
+   * @param input	the input image
+   * @return		the output image
+   */
+  protected BufferedImage createOutputImage(BufferedImage input) {
+    if (input.getColorModel().hasAlpha())
+      return new BufferedImage(input.getWidth(), input.getHeight(), BufferedImage.TYPE_INT_ARGB);
+    else
+      return new BufferedImage(input.getWidth(), input.getHeight(), BufferedImage.TYPE_INT_RGB);
+  }
+
+  /**
+   * Creates an (empty) output image of the same size and type as the input
+   * image, using the color model of the input image for custom types.
+   *
+   * @param input	the input image
+   * @return		the output image
+   */
+  protected BufferedImage createCompatibleOutputImage(BufferedImage input) {
+    ColorModel	cm;
+
+    cm = input.getColorModel();
+    if (input.getType() == BufferedImage.TYPE_CUSTOM)
+      return new BufferedImage(cm, cm.createCompatibleWritableRaster(input.getWidth(), input.getHeight()), cm.isAlphaPremultiplied(), null);
+    else if (cm instanceof IndexColorModel)
+      return new BufferedImage(input.getWidth(), input.getHeight(), input.getType(), (IndexColorModel) cm);
+    else
+      return new BufferedImage(input.getWidth(), input.getHeight(), input.getType());
+  }
+
+  /**
+   * Hook method that gets called with all the input pixels before the tiles
+   * get processed, e.g., for computing global statistics.
+   * <br>
+   * Default implementation does nothing.
+   *
+   * @param pixels	the ARGB pixels of the input image (row-wise)
+   * @param width	the width of the image
+   * @param height	the height of the image
+   */
+  protected void preprocess(int[] pixels, int width, int height) {
+  }
+
+  /**
+   * Processes the tile, reading from the input and writing the region of the
+   * tile to the output.
+   *
+   * @param tile	the tile to process
+   */
+  protected abstract void processTile(Tile tile);
+
+  /**
+   * Checks whether the raster is not a sub-raster and its data can be
+   * accessed directly.
+   *
+   * @param img		the image to check
+   * @return		true if direct access is possible
+   */
+  protected boolean isDirect(BufferedImage img) {
+    WritableRaster	raster;
+
+    raster = img.getRaster();
+    if (raster.getParent() != null)
+      return false;
+    if ((raster.getSampleModelTranslateX() != 0) || (raster.getSampleModelTranslateY() != 0))
+      return false;
+    if (raster.getDataBuffer().getNumBanks() != 1)
+      return false;
+    if (raster.getDataBuffer().getOffset() != 0)
+      return false;
+
+    switch (img.getType()) {
+      case BufferedImage.TYPE_INT_RGB:
+      case BufferedImage.TYPE_INT_ARGB:
+	return (raster.getSampleModel() instanceof SinglePixelPackedSampleModel)
+	  && (((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride() == img.getWidth());
+      case BufferedImage.TYPE_3BYTE_BGR:
+	return (raster.getSampleModel() instanceof ComponentSampleModel)
+	  && (((ComponentSampleModel) raster.getSampleModel()).getScanlineStride() == img.getWidth() * 3);
+      case BufferedImage.TYPE_4BYTE_ABGR:
+	return (raster.getSampleModel() instanceof ComponentSampleModel)
+	  && (((ComponentSampleModel) raster.getSampleModel()).getScanlineStride() == img.getWidth() * 4);
+      default:
+	return false;
+    }
+  }
+
+  /**
+   * Returns the pixels of the image as ARGB integers (row-wise), as
+   * {@link BufferedImage#getRGB(int, int)} would.
+   *
+   * @param img		the image to get the pixels from
+   * @return		the pixels, for INT_ARGB images the backing array itself
+   */
+  protected int[] getPixels(BufferedImage img) {
+    int[]	result;
+    int[]	data;
+    byte[]	bytes;
+    int		i;
+    int		n;
+
+    if (!isDirect(img))
+      return img.getRGB(0, 0, img.getWidth(), img.getHeight(), null, 0, img.getWidth());
+
+    switch (img.getType()) {
+      case BufferedImage.TYPE_INT_ARGB:
+	result = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+	break;
+
+      case BufferedImage.TYPE_INT_RGB:
+	data   = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+	result = new int[img.getWidth() * img.getHeight()];
+	for (i = 0; i < result.length; i++)
+	  result[i] = 0xFF000000 | data[i];
+	break;
+
+      case BufferedImage.TYPE_3BYTE_BGR:
+	bytes  = ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
+	result = new int[img.getWidth() * img.getHeight()];
+	for (i = 0, n = 0; i < result.length; i++, n += 3)
+	  result[i] = 0xFF000000 | ((bytes[n + 2] & 0xFF) << 16) | ((bytes[n + 1] & 0xFF) << 8) | (bytes[n] & 0xFF);
+	break;
+
+      case BufferedImage.TYPE_4BYTE_ABGR:
+	bytes  = ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
+	result = new int[img.getWidth() * img.getHeight()];
+	for (i = 0, n = 0; i < result.length; i++, n += 4)
+	  result[i] = ((bytes[n] & 0xFF) << 24) | ((bytes[n + 3] & 0xFF) << 16) | ((bytes[n + 2] & 0xFF) << 8) | (bytes[n + 1] & 0xFF);
+	break;
+
+      default:
+	throw new IllegalStateException("Unhandled image type: " + img.getType());
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the array that the tiles write their output pixels to.
+   *
+   * @param output	the output image
+   * @return		the array, for INT_RGB/INT_ARGB images the backing array itself
+   */
+  protected int[] getOutputPixels(BufferedImage output) {
+    if (isDirect(output) && ((output.getType() == BufferedImage.TYPE_INT_ARGB) || (output.getType() == BufferedImage.TYPE_INT_RGB)))
+      return ((DataBufferInt) output.getRaster().getDataBuffer()).getData();
+    else
+      return new int[output.getWidth() * output.getHeight()];
+  }
+
+  /**
+   * Transfers the output pixels of the tile into the byte-based backing
+   * array of the output image, if necessary.
+   *
+   * @param tile	the tile to transfer
+   * @param output	the output image
+   */
+  protected void writeTile(Tile tile, BufferedImage output) {
+    byte[]	bytes;
+    int		x;
+    int		y;
+    int		i;
+    int		n;
+    int		value;
+
+    if (!isDirect(output))
+      return;
+
+    switch (output.getType()) {
+      case BufferedImage.TYPE_3BYTE_BGR:
+	bytes = ((DataBufferByte) output.getRaster().getDataBuffer()).getData();
+	for (y = tile.y; y < tile.y + tile.height; y++) {
+	  i = y * tile.imageWidth + tile.x;
+	  n = i * 3;
+	  for (x = 0; x < tile.width; x++, i++, n += 3) {
+	    value        = tile.output[i];
+	    bytes[n]     = (byte) value;
+	    bytes[n + 1] = (byte) (value >> 8);
+	    bytes[n + 2] = (byte) (value >> 16);
+	  }
+	}
+	break;
+
+      case BufferedImage.TYPE_4BYTE_ABGR:
+	bytes = ((DataBufferByte) output.getRaster().getDataBuffer()).getData();
+	for (y = tile.y; y < tile.y + tile.height; y++) {
+	  i = y * tile.imageWidth + tile.x;
+	  n = i * 4;
+	  for (x = 0; x < tile.width; x++, i++, n += 4) {
+	    value        = tile.output[i];
+	    bytes[n]     = (byte) (value >>> 24);
+	    bytes[n + 1] = (byte) value;
+	    bytes[n + 2] = (byte) (value >> 8);
+	    bytes[n + 3] = (byte) (value >> 16);
+	  }
+	}
+	break;
+    }
+  }
+
+  /**
+   * Splits the image into tiles.
+   *
+   * @param width	the width of the image
+   * @param height	the height of the image
+   * @param input	the input pixels
+   * @param output	the output pixels
+   * @return		the tiles
+   */
+  protected List<Tile> createTiles(int width, int height, int[] input, int[] output) {
+    List<Tile>	result;
+    int		halo;
+    int		x;
+    int		y;
+
+    result = new ArrayList<>();
+    halo   = getHalo();
+    for (y = 0; y < height; y += m_TileSize) {
+      for (x = 0; x < width; x += m_TileSize)
+	result.add(new Tile(x, y, Math.min(m_TileSize, width - x), Math.min(m_TileSize, height - y), halo, width, height, input, output));
+    }
+
+    return result;
+  }
+
+  /**
+   * Performs the actual transforming of the image.
+   *
+   * @param img		the image to transform (can be modified, since it is a copy)
+   * @return		the generated image(s)
+   */
+  @Override
+  protected BufferedImageContainer[] doTransform(BufferedImageContainer img) {
+    BufferedImageContainer[]	result;
+    BufferedImage		input;
+    BufferedImage		output;
+    int				width;
+    int				height;
+    int[]			inPixels;
+    int[]			outPixels;
+    List<Tile>			tiles;
+    int				numThreads;
+    ForkJoinPool		pool;
+
+    input     = prepareInput(img.getImage());
+    width     = input.getWidth();
+    height    = input.getHeight();
+    inPixels  = getPixels(input);
+    output    = createOutputImage(input);
+    outPixels = getOutputPixels(output);
+    preprocess(inPixels, width, height);
+
+    tiles      = createTiles(width, height, inPixels, outPixels);
+    numThreads = Math.min(Performance.determineNumThreads(m_NumThreads), tiles.size());
+    if (isLoggingEnabled())
+      getLogger().fine("#tiles=" + tiles.size() + ", #threads=" + numThreads);
+    if (numThreads <= 1) {
+      for (Tile tile: tiles) {
+	processTile(tile);
+	writeTile(tile, output);
+      }
+    }
+    else {
+      pool = new ForkJoinPool(numThreads);
+      try {
+	pool.invoke(new TileTask(tiles, 0, tiles.size(), output));
+      }
+      finally {
+	pool.shutdownNow();
+      }
+    }
+
+    if (!isDirect(output))
+      output.setRGB(0, 0, width, height, outPixels, 0, width);
+
+    result    = new BufferedImageContainer[1];
+    result[0] = (BufferedImageContainer) img.getHeader();
+    result[0].setImage(output);
+
+    return result;
+  }
+}
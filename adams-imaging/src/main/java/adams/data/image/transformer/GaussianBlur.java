@@ -15,19 +15,17 @@
 
 /*
  * GaussianBlur.java
- * Copyright (C) 2011-2013 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2011-2026 University of Waikato, Hamilton, New Zealand
  * Copyright (C) Jerry Huxtable
  */
 
 package adams.data.image.transformer;
 
 import java.awt.image.BufferedImage;
-import java.awt.image.ColorModel;
 import java.awt.image.Kernel;
 
 import adams.core.License;
 import adams.core.annotation.MixedCopyright;
-import adams.data.image.BufferedImageContainer;
 
 /**
  <!-- globalinfo-start -->
@@ -38,13 +36,23 @@ import adams.data.image.BufferedImageContainer;
  <!-- globalinfo-end -->
  *
  <!-- options-start -->
- * Valid options are: <br><br>
+ * <pre>-logging-level &lt;OFF|SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST&gt; (property: loggingLevel)
+ * &nbsp;&nbsp;&nbsp;The logging level for outputting errors and debugging output.
+ * &nbsp;&nbsp;&nbsp;default: WARNING
+ * </pre>
+ *
+ * <pre>-num-threads &lt;int&gt; (property: numThreads)
+ * &nbsp;&nbsp;&nbsp;The number of threads to use for parallel execution; &gt; 0: specific number 
+ * &nbsp;&nbsp;&nbsp;of cores to use (capped by actual number of cores available, 1 = sequential 
+ * &nbsp;&nbsp;&nbsp;execution); = 0: number of cores; &lt; 0: number of free cores (eg -2 means 
+ * &nbsp;&nbsp;&nbsp;2 free cores; minimum of one core is used)
+ * &nbsp;&nbsp;&nbsp;default: -1
+ * </pre>
  *
- * <pre>-D &lt;int&gt; (property: debugLevel)
- * &nbsp;&nbsp;&nbsp;The greater the number the more additional info the scheme may output to
- * &nbsp;&nbsp;&nbsp;the console (0 = off).
- * &nbsp;&nbsp;&nbsp;default: 0
- * &nbsp;&nbsp;&nbsp;minimum: 0
+ * <pre>-tile-size &lt;int&gt; (property: tileSize)
+ * &nbsp;&nbsp;&nbsp;The width&#47;height of the tiles that get processed in parallel.
+ * &nbsp;&nbsp;&nbsp;default: 256
+ * &nbsp;&nbsp;&nbsp;minimum: 1
  * </pre>
  *
  * <pre>-radius &lt;double&gt; (property: radius)
@@ -65,7 +73,7 @@ import adams.data.image.BufferedImageContainer;
     url = "http://www.jhlabs.com/ip/blurring.html"
 )
 public class GaussianBlur
-  extends AbstractBufferedImageTransformer {
+  extends AbstractTiledBufferedImageTransformer {
 
   /** for serialization. */
   private static final long serialVersionUID = 2959486760492196174L;
@@ -73,6 +81,9 @@ public class GaussianBlur
   /** the radius to use. */
   protected double m_Radius;
 
+  /** the kernel data in use. */
+  protected transient float[] m_Matrix;
+
   /**
    * Returns a string describing the object.
    *
@@ -146,53 +157,6 @@ public class GaussianBlur
     return c;
   }
 
-  /**
-   * Applies the kernel.
-   *
-   * @param kernel	the kernel to apply
-   * @param inPixels	the incoming pixels
-   * @param outPixels	the generated pixels
-   * @param width	the width of the image
-   * @param height	the height of the image
-   */
-  protected void convolveAndTranspose(Kernel kernel, int[] inPixels, int[] outPixels, int width, int height) {
-    float[] matrix = kernel.getKernelData(null);
-    int cols = kernel.getWidth();
-    int cols2 = cols/2;
-
-    for (int y = 0; y < height; y++) {
-      int index = y;
-      int ioffset = y*width;
-      for (int x = 0; x < width; x++) {
-	float r = 0, g = 0, b = 0, a = 0;
-	int moffset = cols2;
-	for (int col = -cols2; col <= cols2; col++) {
-	  float f = matrix[moffset+col];
-
-	  if (f != 0) {
-	    int ix = x+col;
-	    if (ix < 0) {
-	      ix = 0;
-	    } else if (ix >= width) {
-	      ix = width-1;
-	    }
-	    int rgb = inPixels[ioffset+ix];
-	    a += f * ((rgb >> 24) & 0xff);
-	    r += f * ((rgb >> 16) & 0xff);
-	    g += f * ((rgb >> 8) & 0xff);
-	    b += f * (rgb & 0xff);
-	  }
-	}
-	int ia = 0xff;
-	int ir = clamp((int)(r+0.5));
-	int ig = clamp((int)(g+0.5));
-	int ib = clamp((int)(b+0.5));
-	outPixels[index] = (ia << 24) | (ir << 16) | (ig << 8) | ib;
-	index += height;
-      }
-    }
-  }
-
   /**
    * Make a Gaussian blur kernel.
    *
@@ -225,40 +189,114 @@ public class GaussianBlur
   }
 
   /**
-   * Performs no transformation at all, just returns the input.
+   * Returns the halo around the tiles, i.e., the radius of the kernel.
    *
-   * @param img		the image to process (can be modified, since it is a copy)
-   * @return		the copy of the image
+   * @return		the halo
    */
   @Override
-  protected BufferedImageContainer[] doTransform(BufferedImageContainer img) {
-    BufferedImageContainer[]	result;
-    int 			width;
-    int 			height;
-    ColorModel			dstCM;
-    Kernel 			kernel;
-    int[] 			inPixels;
-    int[] 			outPixels;
-    BufferedImage		image;
+  protected int getHalo() {
+    return (int) Math.ceil((float) m_Radius);
+  }
 
-    width     = img.getWidth();
-    height    = img.getHeight();
-    dstCM     = img.getImage().getColorModel();
-    result    = new BufferedImageContainer[1];
-    result[0] = (BufferedImageContainer) img.getHeader();
-    image     = new BufferedImage(dstCM, dstCM.createCompatibleWritableRaster(img.getWidth(), img.getHeight()), dstCM.isAlphaPremultiplied(), null);
+  /**
+   * Creates the (empty) output image, using the same color model as the input.
+   *
+   * @param input	the input image
+   * @return		the output image
+   */
+  @Override
+  protected BufferedImage createOutputImage(BufferedImage input) {
+    return createCompatibleOutputImage(input);
+  }
 
-    kernel    = makeKernel((float) m_Radius);
-    inPixels  = new int[width*height];
-    outPixels = new int[width*height];
-    img.getImage().getRGB(0, 0, width, height, inPixels, 0, width);
+  /**
+   * Generates the kernel.
+   *
+   * @param pixels	the ARGB pixels of the input image (row-wise)
+   * @param width	the width of the image
+   * @param height	the height of the image
+   */
+  @Override
+  protected void preprocess(int[] pixels, int width, int height) {
+    m_Matrix = makeKernel((float) m_Radius).getKernelData(null);
+  }
+
+  /**
+   * Applies the kernel horizontally to the rows of the tile (incl halo)
+   * and then vertically to the tile itself.
+   *
+   * @param tile	the tile to process
+   */
+  @Override
+  protected void processTile(Tile tile) {
+    float[]	matrix;
+    int		cols2;
+    int[]	tmp;
+    int		x;
+    int		y;
+    int		col;
+    int		ix;
+    int		iy;
+    int		t;
+    int		ioffset;
+    int		rgb;
+    float	f;
+    float	r;
+    float	g;
+    float	b;
 
-    convolveAndTranspose(kernel, inPixels, outPixels, width, height);
-    convolveAndTranspose(kernel, outPixels, inPixels, height, width);
+    matrix = m_Matrix;
+    cols2  = matrix.length / 2;
+    tmp    = new int[tile.haloHeight * tile.width];
 
-    image.setRGB(0, 0, width, height, inPixels, 0, width);
-    result[0].setImage(image);
+    // horizontal
+    for (y = tile.haloY; y < tile.haloY + tile.haloHeight; y++) {
+      ioffset = y * tile.imageWidth;
+      t       = (y - tile.haloY) * tile.width;
+      for (x = tile.x; x < tile.x + tile.width; x++, t++) {
+	r = 0;
+	g = 0;
+	b = 0;
+	for (col = -cols2; col <= cols2; col++) {
+	  f = matrix[cols2 + col];
+	  if (f != 0) {
+	    ix = x + col;
+	    if (ix < 0)
+	      ix = 0;
+	    else if (ix >= tile.imageWidth)
+	      ix = tile.imageWidth - 1;
+	    rgb = tile.input[ioffset + ix];
+	    r += f * ((rgb >> 16) & 0xff);
+	    g += f * ((rgb >> 8) & 0xff);
+	    b += f * (rgb & 0xff);
+	  }
+	}
+	tmp[t] = (0xff << 24) | (clamp((int)(r+0.5)) << 16) | (clamp((int)(g+0.5)) << 8) | clamp((int)(b+0.5));
+      }
+    }
 
-    return result;
+    // vertical
+    for (y = tile.y; y < tile.y + tile.height; y++) {
+      for (x = 0; x < tile.width; x++) {
+	r = 0;
+	g = 0;
+	b = 0;
+	for (col = -cols2; col <= cols2; col++) {
+	  f = matrix[cols2 + col];
+	  if (f != 0) {
+	    iy = y + col;
+	    if (iy < 0)
+	      iy = 0;
+	    else if (iy >= tile.imageHeight)
+	      iy = tile.imageHeight - 1;
+	    rgb = tmp[(iy - tile.haloY) * tile.width + x];
+	    r += f * ((rgb >> 16) & 0xff);
+	    g += f * ((rgb >> 8) & 0xff);
+	    b += f * (rgb & 0xff);
+	  }
+	}
+	tile.set(tile.x + x, y, (0xff << 24) | (clamp((int)(r+0.5)) << 16) | (clamp((int)(g+0.5)) << 8) | clamp((int)(b+0.5)));
+      }
+    }
   }
 }
@@ -15,12 +15,11 @@
 
 /*
  * Grayscale.java
- * Copyright (C) 2017 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2017-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.data.image.transformer;
 
 import adams.core.QuickInfoHelper;
-import adams.data.image.BufferedImageContainer;
 import adams.data.image.luminance.AbstractLuminanceParameters;
 import adams.data.image.luminance.BT601;
 
@@ -38,6 +37,20 @@ import java.awt.image.BufferedImage;
  * &nbsp;&nbsp;&nbsp;default: WARNING
  * </pre>
  *
+ * <pre>-num-threads &lt;int&gt; (property: numThreads)
+ * &nbsp;&nbsp;&nbsp;The number of threads to use for parallel execution; &gt; 0: specific number 
+ * &nbsp;&nbsp;&nbsp;of cores to use (capped by actual number of cores available, 1 = sequential 
+ * &nbsp;&nbsp;&nbsp;execution); = 0: number of cores; &lt; 0: number of free cores (eg -2 means 
+ * &nbsp;&nbsp;&nbsp;2 free cores; minimum of one core is used)
+ * &nbsp;&nbsp;&nbsp;default: -1
+ * </pre>
+ *
+ * <pre>-tile-size &lt;int&gt; (property: tileSize)
+ * &nbsp;&nbsp;&nbsp;The width&#47;height of the tiles that get processed in parallel.
+ * &nbsp;&nbsp;&nbsp;default: 256
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ *
  * <pre>-luminance &lt;adams.data.image.luminance.AbstractLuminanceParameters&gt; (property: luminance)
  * &nbsp;&nbsp;&nbsp;Supplies the luminance parameters for the grayscale conversion.
  * &nbsp;&nbsp;&nbsp;default: adams.data.image.luminance.BT601
@@ -48,7 +61,7 @@ import java.awt.image.BufferedImage;
  * @author  fracpete (fracpete at waikato dot ac dot nz)
  */
 public class Grayscale
-  extends AbstractBufferedImageTransformer {
+  extends AbstractTiledBufferedImageTransformer {
 
   /** for serialization. */
   private static final long serialVersionUID = 8400999643470579756L;
@@ -118,36 +131,39 @@ public class Grayscale
   }
 
   /**
-   * Performs the actual transforming of the image.
+   * Creates the (empty) output image.
+   *
+   * @param input	the input image
+   * @return		the output image
+   */
+  @Override
+  protected BufferedImage createOutputImage(BufferedImage input) {
+    return new BufferedImage(input.getWidth(), input.getHeight(), BufferedImage.TYPE_INT_RGB);
+  }
+
+  /**
+   * Processes the tile, reading from the input and writing the region of the
+   * tile to the output.
    *
-   * @param img		the image to transform (can be modified, since it is a copy)
-   * @return		the generated image(s)
+   * @param tile	the tile to process
    */
   @Override
-  protected BufferedImageContainer[] doTransform(BufferedImageContainer img) {
-    BufferedImageContainer[]	result;
-    BufferedImage 		orig;
-    BufferedImage 		gray;
-    int				x;
-    int				y;
-    int 			rgbOrig;
-    int				rgbGray;
-    double[]			luminance;
-
-    result    = new BufferedImageContainer[1];
-    result[0] = (BufferedImageContainer) img.getHeader();
+  protected void processTile(Tile tile) {
+    int		x;
+    int		y;
+    int		i;
+    int 	rgbOrig;
+    int		rgbGray;
+    double[]	luminance;
+
     luminance = m_Luminance.getParameters();
-    orig      = img.toBufferedImage();
-    gray      = new BufferedImage(orig.getWidth(), orig.getHeight(), BufferedImage.TYPE_INT_RGB);
-    result[0].setImage(gray);
-    for (x = 0; x < orig.getWidth(); x++) {
-      for (y = 0; y < orig.getHeight(); y++) {
-        rgbOrig = orig.getRGB(x, y);
-        rgbGray = (int)(((rgbOrig & 0xFF0000) >>> 16) * luminance[0] + ((rgbOrig & 0xFF00) >>> 8) * luminance[1] + (rgbOrig & 0xFF) * luminance[2]);
-	gray.setRGB(x, y, (rgbGray << 16) + (rgbGray << 8) + rgbGray);
+    for (y = tile.y; y < tile.y + tile.height; y++) {
+      i = y * tile.imageWidth + tile.x;
+      for (x = 0; x < tile.width; x++, i++) {
+	rgbOrig = tile.input[i];
+	rgbGray = (int)(((rgbOrig & 0xFF0000) >>> 16) * luminance[0] + ((rgbOrig & 0xFF00) >>> 8) * luminance[1] + (rgbOrig & 0xFF) * luminance[2]);
+	tile.output[i] = (rgbGray << 16) + (rgbGray << 8) + rgbGray;
       }
     }
-
-    return result;
   }
 }
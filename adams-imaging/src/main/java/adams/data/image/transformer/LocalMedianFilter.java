@@ -15,88 +15,130 @@
 
 /**
  * LocalMedianFilter.java
- * Copyright (C) 2016 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2016-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.data.image.transformer;
 
-import adams.data.image.BufferedImageContainer;
-import adams.data.image.BufferedImageHelper;
-
 import java.awt.image.BufferedImage;
 import java.util.Arrays;
 
 /**
- * TODO: what class does.
+ <!-- globalinfo-start -->
+ * Replaces each pixel with the median of its 3x3 neighborhood, determined separately for the R, G and B channels. Pixels on the border of the image are left as is.
+ * <br><br>
+ <!-- globalinfo-end -->
+ *
+ <!-- options-start -->
+ * <pre>-logging-level &lt;OFF|SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST&gt; (property: loggingLevel)
+ * &nbsp;&nbsp;&nbsp;The logging level for outputting errors and debugging output.
+ * &nbsp;&nbsp;&nbsp;default: WARNING
+ * </pre>
+ *
+ * <pre>-num-threads &lt;int&gt; (property: numThreads)
+ * &nbsp;&nbsp;&nbsp;The number of threads to use for parallel execution; &gt; 0: specific number 
+ * &nbsp;&nbsp;&nbsp;of cores to use (capped by actual number of cores available, 1 = sequential 
+ * &nbsp;&nbsp;&nbsp;execution); = 0: number of cores; &lt; 0: number of free cores (eg -2 means 
+ * &nbsp;&nbsp;&nbsp;2 free cores; minimum of one core is used)
+ * &nbsp;&nbsp;&nbsp;default: -1
+ * </pre>
+ *
+ * <pre>-tile-size &lt;int&gt; (property: tileSize)
+ * &nbsp;&nbsp;&nbsp;The width&#47;height of the tiles that get processed in parallel.
+ * &nbsp;&nbsp;&nbsp;default: 256
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ *
+ <!-- options-end -->
  *
  * @author sjb90
- * @version $Revision$
  */
-public class LocalMedianFilter extends AbstractBufferedImageTransformer {
+public class LocalMedianFilter
+  extends AbstractTiledBufferedImageTransformer {
+
+  private static final long serialVersionUID = -4296383867917946330L;
+
+  /** the index of the median in the sorted neighborhood. */
   final int K = 4;
+
   /**
-   * Performs the actual transforming of the image.
+   * Returns a string describing the object.
    *
-   * @param img the image to transform (can be modified, since it is a copy)
-   * @return the generated image(s)
+   * @return a description suitable for displaying in the gui
    */
   @Override
-  protected BufferedImageContainer[] doTransform(BufferedImageContainer img) {
-    BufferedImageContainer[] result = new BufferedImageContainer[1];
-
-    int 	height 	= img.getHeight();
-    int 	width 	= img.getWidth();
-    int[] 	pixels 	= new int[2*K+1];
-    BufferedImage image = img.getImage();
-    BufferedImage copy  = BufferedImageHelper.deepCopy(image);
-
-    for (int h = 1; h < height - 1; h++) {
-      for (int w = 1; w < width - 1; w++) {
-	int k = 0;
-	for (int x = -1; x < 2; x++) {
-	  for (int y = -1; y < 2; y++) {
-	    pixels[k] = copy.getRGB(w+x,h+y);
-	    k++;
-	  }
-	}
-        image.setRGB(w,h,getMedian(pixels));
-      }
-    }
-    result[0] = new BufferedImageContainer();
-    result[0].setImage(image);
-    return result;
+  public String globalInfo() {
+    return
+      "Replaces each pixel with the median of its 3x3 neighborhood, determined "
+	+ "separately for the R, G and B channels. Pixels on the border of the "
+	+ "image are left as is.";
   }
 
-  private int getMedian(int[] pixels) {
-    int result;
-    int[] r = new int[9];
-    int[] g = new int[9];
-    int[] b = new int[9];
+  /**
+   * Returns the halo around the tiles.
+   *
+   * @return		the halo
+   */
+  @Override
+  protected int getHalo() {
+    return 1;
+  }
 
-    for (int i = 0; i < pixels.length; i++) {
-      int[] channels = BufferedImageHelper.split(pixels[i]);
-      r[i] = channels[0];
-      g[i] = channels[1];
-      b[i] = channels[2];
-    }
-    Arrays.sort(r);
-    Arrays.sort(g);
-    Arrays.sort(b);
-    int[] median = new int[4];
-    median[0] = r[K];
-    median[1] = g[K];
-    median[2] = b[K];
-    result = BufferedImageHelper.combine(median);
-    return result;
+  /**
+   * Creates the (empty) output image, using the same color model as the input.
+   *
+   * @param input	the input image
+   * @return		the output image
+   */
+  @Override
+  protected BufferedImage createOutputImage(BufferedImage input) {
+    return createCompatibleOutputImage(input);
   }
 
   /**
-   * Returns a string describing the object.
+   * Processes the tile, reading from the input and writing the region of the
+   * tile to the output.
    *
-   * @return a description suitable for displaying in the gui
+   * @param tile	the tile to process
    */
   @Override
-  public String globalInfo() {
-    return null;
+  protected void processTile(Tile tile) {
+    int[]	r;
+    int[]	g;
+    int[]	b;
+    int		w;
+    int		h;
+    int		x;
+    int		y;
+    int		k;
+    int		pixel;
+
+    r = new int[2*K+1];
+    g = new int[2*K+1];
+    b = new int[2*K+1];
+
+    for (h = tile.y; h < tile.y + tile.height; h++) {
+      for (w = tile.x; w < tile.x + tile.width; w++) {
+	if ((h == 0) || (w == 0) || (h == tile.imageHeight - 1) || (w == tile.imageWidth - 1)) {
+	  tile.set(w, h, tile.get(w, h));
+	  continue;
+	}
+	k = 0;
+	for (x = -1; x < 2; x++) {
+	  for (y = -1; y < 2; y++) {
+	    pixel = tile.get(w+x, h+y);
+	    r[k]  = (pixel >> 16) & 0xFF;
+	    g[k]  = (pixel >>  8) & 0xFF;
+	    b[k]  = pixel & 0xFF;
+	    k++;
+	  }
+	}
+	Arrays.sort(r);
+	Arrays.sort(g);
+	Arrays.sort(b);
+	// alpha of 0, like BufferedImageHelper.combine(r, g, b, 0)
+	tile.set(w, h, (r[K] << 16) + (g[K] << 8) + b[K]);
+      }
+    }
   }
 }
@@ -15,19 +15,25 @@
 
 /*
  * WhiteBalance.java
- * Copyright (C) 2014 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2014-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.data.image.transformer;
 
 import adams.core.QuickInfoHelper;
 import adams.data.image.BufferedImageContainer;
+import adams.data.image.BufferedImageHelper;
 import adams.data.image.transformer.whitebalance.AbstractWhiteBalanceAlgorithm;
 import adams.data.image.transformer.whitebalance.NoBalance;
+import adams.data.image.transformer.whitebalance.PixelWiseWhiteBalanceAlgorithm;
+
+import java.awt.image.BufferedImage;
+import java.util.function.IntUnaryOperator;
 
 /**
  <!-- globalinfo-start -->
- * Processes the images passing through using the specified white balance algorithm.
+ * Processes the images passing through using the specified white balance algorithm.<br>
+ * Algorithms that apply a pixel-wise correction get processed in parallel, using tiles.
  * <br><br>
  <!-- globalinfo-end -->
  *
@@ -37,6 +43,20 @@ import adams.data.image.transformer.whitebalance.NoBalance;
  * &nbsp;&nbsp;&nbsp;default: WARNING
  * </pre>
  * 
+ * <pre>-num-threads &lt;int&gt; (property: numThreads)
+ * &nbsp;&nbsp;&nbsp;The number of threads to use for parallel execution; &gt; 0: specific number 
+ * &nbsp;&nbsp;&nbsp;of cores to use (capped by actual number of cores available, 1 = sequential 
+ * &nbsp;&nbsp;&nbsp;execution); = 0: number of cores; &lt; 0: number of free cores (eg -2 means 
+ * &nbsp;&nbsp;&nbsp;2 free cores; minimum of one core is used)
+ * &nbsp;&nbsp;&nbsp;default: -1
+ * </pre>
+ * 
+ * <pre>-tile-size &lt;int&gt; (property: tileSize)
+ * &nbsp;&nbsp;&nbsp;The width&#47;height of the tiles that get processed in parallel.
+ * &nbsp;&nbsp;&nbsp;default: 256
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ * 
  * <pre>-algorithm &lt;adams.data.jai.transformer.whitebalance.AbstractWhiteBalanceAlgorithm&gt; (property: algorithm)
  * &nbsp;&nbsp;&nbsp;The white balance algorithm to apply to the image.
  * &nbsp;&nbsp;&nbsp;default: adams.data.jai.transformer.whitebalance.NoBalance
@@ -48,13 +68,16 @@ import adams.data.image.transformer.whitebalance.NoBalance;
  * @version $Revision: 8951 $
  */
 public class WhiteBalance
-  extends AbstractBufferedImageTransformer {
+  extends AbstractTiledBufferedImageTransformer {
 
   /** for serialization. */
   private static final long serialVersionUID = 2959486760492196174L;
 
   /** the crop algorithm to use. */
   protected AbstractWhiteBalanceAlgorithm m_Algorithm;
+
+  /** the pixel-wise correction to apply. */
+  protected transient IntUnaryOperator m_Correction;
   
   /**
    * Returns a string describing the object.
@@ -63,7 +86,9 @@ public class WhiteBalance
    */
   @Override
   public String globalInfo() {
-    return "Processes the images passing through using the specified white balance algorithm.";
+    return
+      "Processes the images passing through using the specified white balance algorithm.\n"
+	+ "Algorithms that apply a pixel-wise correction get processed in parallel, using tiles.";
   }
 
   /**
@@ -118,18 +143,78 @@ public class WhiteBalance
   }
 
   /**
-   * Performs no transformation at all, just returns the input.
+   * Converts the image into TYPE_4BYTE_ABGR, like the algorithms do.
+   *
+   * @param img		the image to prepare
+   * @return		the prepared image
+   */
+  @Override
+  protected BufferedImage prepareInput(BufferedImage img) {
+    return BufferedImageHelper.convert(img, BufferedImage.TYPE_4BYTE_ABGR);
+  }
+
+  /**
+   * Creates an (empty) TYPE_4BYTE_ABGR output image.
+   *
+   * @param input	the input image
+   * @return		the output image
+   */
+  @Override
+  protected BufferedImage createOutputImage(BufferedImage input) {
+    return new BufferedImage(input.getWidth(), input.getHeight(), BufferedImage.TYPE_4BYTE_ABGR);
+  }
+
+  /**
+   * Determines the correction to apply from all the pixels.
+   *
+   * @param pixels	the ARGB pixels of the input image (row-wise)
+   * @param width	the width of the image
+   * @param height	the height of the image
+   */
+  @Override
+  protected void preprocess(int[] pixels, int width, int height) {
+    m_Correction = ((PixelWiseWhiteBalanceAlgorithm) m_Algorithm).determineCorrection(pixels, width, height);
+  }
+
+  /**
+   * Applies the correction to the pixels of the tile.
+   *
+   * @param tile	the tile to process
+   */
+  @Override
+  protected void processTile(Tile tile) {
+    int		x;
+    int		y;
+
+    for (y = tile.y; y < tile.y + tile.height; y++) {
+      for (x = tile.x; x < tile.x + tile.width; x++)
+	tile.set(x, y, m_Correction.applyAsInt(tile.get(x, y)));
+    }
+  }
+
+  /**
+   * Performs the actual transforming of the image. Algorithms that do not
+   * implement {@link PixelWiseWhiteBalanceAlgorithm} balance the image as a whole.
    *
    * @param img		the image to process (can be modified, since it is a copy)
-   * @return		the copy of the image
+   * @return		the processed image
    */
   @Override
   protected BufferedImageContainer[] doTransform(BufferedImageContainer img) {
     BufferedImageContainer	result;
-    
+
+    if (m_Algorithm instanceof PixelWiseWhiteBalanceAlgorithm) {
+      try {
+	return super.doTransform(img);
+      }
+      finally {
+	m_Correction = null;
+      }
+    }
+
     result = (BufferedImageContainer) img.getHeader();
     result.setImage(m_Algorithm.balance(img.getImage()));
-    
+
     return new BufferedImageContainer[]{result};
   }
 }
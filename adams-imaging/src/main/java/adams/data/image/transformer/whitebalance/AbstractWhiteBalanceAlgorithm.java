@@ -15,13 +15,15 @@
 
 /**
  * AbstractWhiteBalanceAlgorithm.java
- * Copyright (C) 2014 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2014-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.data.image.transformer.whitebalance;
 
 import java.awt.image.BufferedImage;
+import java.util.function.IntUnaryOperator;
 
 import adams.core.option.AbstractOptionHandler;
+import adams.data.image.BufferedImageHelper;
 
 /**
  * Ancestor to white balance algorithms.
@@ -48,6 +50,33 @@ public abstract class AbstractWhiteBalanceAlgorithm
       throw new IllegalStateException("No image supplied!");
   }
 
+  /**
+   * Balances the image using the pixel-wise correction of the algorithm,
+   * after converting it to TYPE_4BYTE_ABGR.
+   *
+   * @param img		the image to balance
+   * @return		the balanced image
+   * @see		PixelWiseWhiteBalanceAlgorithm
+   */
+  protected BufferedImage applyCorrection(BufferedImage img) {
+    int			width;
+    int			height;
+    int[]		pixels;
+    int			i;
+    IntUnaryOperator	correction;
+
+    img        = BufferedImageHelper.convert(img, BufferedImage.TYPE_4BYTE_ABGR);
+    width      = img.getWidth();
+    height     = img.getHeight();
+    pixels     = img.getRGB(0, 0, width, height, null, 0, width);
+    correction = ((PixelWiseWhiteBalanceAlgorithm) this).determineCorrection(pixels, width, height);
+    for (i = 0; i < pixels.length; i++)
+      pixels[i] = correction.applyAsInt(pixels[i]);
+    img.setRGB(0, 0, width, height, pixels, 0, width);
+
+    return img;
+  }
+
   /**
    * Performs the actual white balancing.
    * 
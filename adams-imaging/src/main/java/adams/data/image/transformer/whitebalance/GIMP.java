@@ -15,18 +15,18 @@
 
 /**
  * GIMP.java
- * Copyright (C) 2014 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2014-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.data.image.transformer.whitebalance;
 
 import java.awt.image.BufferedImage;
+import java.util.function.IntUnaryOperator;
 
 import adams.core.TechnicalInformation;
 import adams.core.TechnicalInformation.Field;
 import adams.core.TechnicalInformation.Type;
 import adams.core.TechnicalInformationHandler;
 import adams.core.Utils;
-import adams.data.image.BufferedImageHelper;
 
 /**
  <!-- globalinfo-start -->
@@ -59,7 +59,7 @@ import adams.data.image.BufferedImageHelper;
  */
 public class GIMP
   extends AbstractWhiteBalanceAlgorithm
-  implements TechnicalInformationHandler {
+  implements TechnicalInformationHandler, PixelWiseWhiteBalanceAlgorithm {
 
   /** for serialization. */
   private static final long serialVersionUID = -867061196522097584L;
@@ -156,17 +156,15 @@ public class GIMP
   }
 
   /**
-   * Performs the actual white balancing.
-   * 
-   * @param img		the image to process
-   * @return		the processed image
+   * Analyzes the pixels and returns the correction to apply to each pixel.
+   *
+   * @param pixels	the ARGB pixels (row-wise) of the image in TYPE_4BYTE_ABGR
+   * @param width	the width of the image
+   * @param height	the height of the image
+   * @return		the correction, maps ARGB pixel to ARGB pixel
    */
   @Override
-  protected BufferedImage doBalance(BufferedImage img) {
-    int		width;
-    int		height;
-    int		x;
-    int		y;
+  public IntUnaryOperator determineCorrection(int[] pixels, int width, int height) {
     int[][]	histo;
     int		min;
     int[]	first;
@@ -175,20 +173,21 @@ public class GIMP
     int		n;
     int[][]	conversion;
     double	factor;
-    int[]	split;
-    
-    img    = BufferedImageHelper.convert(img, BufferedImage.TYPE_4BYTE_ABGR);
-    width  = img.getWidth();
-    height = img.getHeight();
-    
+
     // get RGBA histograms
-    histo = BufferedImageHelper.histogram(img, false);
+    histo = new int[4][256];
+    for (i = 0; i < pixels.length; i++) {
+      histo[0][(pixels[i] >> 16) & 0xFF]++;
+      histo[1][(pixels[i] >>  8) & 0xFF]++;
+      histo[2][pixels[i] & 0xFF]++;
+      histo[3][(pixels[i] >> 24) & 0xFF]++;
+    }
     if (isLoggingEnabled()) {
       getLogger().finer("R: " + Utils.arrayToString(histo[0]));
       getLogger().finer("G: " + Utils.arrayToString(histo[1]));
       getLogger().finer("B: " + Utils.arrayToString(histo[2]));
     }
-    
+
     // determine which points to discard at either end
     min    = (int) Math.round((double) width * (double) height * m_Threshold / 100.0);
     first  = new int[3];
@@ -241,16 +240,21 @@ public class GIMP
       getLogger().finer("B (conversion): " + Utils.arrayToString(conversion[2]));
     }
 
-    // correct pixels
-    for (y = 0; y < height; y++) {
-      for (x = 0; x < width; x++) {
-	split = BufferedImageHelper.split(img.getRGB(x, y));
-	for (i = 0; i < conversion.length; i++)
-	  split[i] = conversion[i][split[i]];
-	img.setRGB(x, y, BufferedImageHelper.combine(split));
-      }
-    }
-    
-    return img;
+    // like BufferedImageHelper.combine(...)
+    return (int pixel) -> (conversion[0][(pixel >> 16) & 0xFF] << 16)
+      + (conversion[1][(pixel >> 8) & 0xFF] << 8)
+      + conversion[2][pixel & 0xFF]
+      + (((pixel >> 24) & 0xFF) << 24);
+  }
+
+  /**
+   * Performs the actual white balancing.
+   *
+   * @param img		the image to process
+   * @return		the processed image
+   */
+  @Override
+  protected BufferedImage doBalance(BufferedImage img) {
+    return applyCorrection(img);
   }
 }
@@ -15,17 +15,17 @@
 
 /**
  * GrayWorld.java
- * Copyright (C) 2014 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2014-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.data.image.transformer.whitebalance;
 
 import java.awt.image.BufferedImage;
+import java.util.function.IntUnaryOperator;
 
 import adams.core.TechnicalInformation;
 import adams.core.TechnicalInformation.Field;
 import adams.core.TechnicalInformation.Type;
 import adams.core.TechnicalInformationHandler;
-import adams.data.image.BufferedImageHelper;
 
 /**
  <!-- globalinfo-start -->
@@ -49,7 +49,7 @@ import adams.data.image.BufferedImageHelper;
  */
 public class GrayWorld
   extends AbstractWhiteBalanceAlgorithm
-  implements TechnicalInformationHandler {
+  implements TechnicalInformationHandler, PixelWiseWhiteBalanceAlgorithm {
 
   /** for serialization. */
   private static final long serialVersionUID = -696539737461589970L;
@@ -92,41 +92,32 @@ public class GrayWorld
   }
 
   /**
-   * Performs the actual white balancing.
-   * 
-   * @param img		the image to process
-   * @return		the processed image
+   * Analyzes the pixels and returns the correction to apply to each pixel.
+   *
+   * @param pixels	the ARGB pixels (row-wise) of the image in TYPE_4BYTE_ABGR
+   * @param width	the width of the image
+   * @param height	the height of the image
+   * @return		the correction, maps ARGB pixel to ARGB pixel
    */
   @Override
-  protected BufferedImage doBalance(BufferedImage img) {
-    int		width;
-    int		height;
+  public IntUnaryOperator determineCorrection(int[] pixels, int width, int height) {
     double	r;
     double	g;
     double	b;
     double	factor;
-    int[][]	pixels;
     int		i;
     double	alpha;
     double	beta;
-    int		x;
-    int		y;
-    int[]	split;
-    
-    img    = BufferedImageHelper.convert(img, BufferedImage.TYPE_4BYTE_ABGR);
-    width  = img.getWidth();
-    height = img.getHeight();
-    
+
     // calculate averages
     factor = 1 / Math.pow(width * height, 2);
     r      = 0.0;
     g      = 0.0;
     b      = 0.0;
-    pixels = BufferedImageHelper.getRGBPixels(img);
     for (i = 0; i < pixels.length; i++) {
-      r += pixels[i][0];
-      g += pixels[i][1];
-      b += pixels[i][2];
+      r += (pixels[i] >> 16) & 0xFF;
+      g += (pixels[i] >>  8) & 0xFF;
+      b += pixels[i] & 0xFF;
     }
     r *= factor;
     g *= factor;
@@ -135,17 +126,23 @@ public class GrayWorld
     // calculate corrections
     alpha = g / r;
     beta  = g / b;
-    
-    // correct pixels
-    for (y = 0; y < height; y++) {
-      for (x = 0; x < width; x++) {
-	split = BufferedImageHelper.split(img.getRGB(x, y));
-	split[0] *= alpha;
-	split[2] *= beta;
-	img.setRGB(x, y, BufferedImageHelper.combine(split));
-      }
-    }
-    
-    return img;
+
+    // like BufferedImageHelper.combine(r * alpha, g, b * beta, a)
+    return (int pixel) -> {
+      int r2 = (int) (((pixel >> 16) & 0xFF) * alpha);
+      int b2 = (int) ((pixel & 0xFF) * beta);
+      return (r2 << 16) + (pixel & 0xFF00) + b2 + (((pixel >> 24) & 0xFF) << 24);
+    };
+  }
+
+  /**
+   * Performs the actual white balancing.
+   *
+   * @param img		the image to process
+   * @return		the processed image
+   */
+  @Override
+  protected BufferedImage doBalance(BufferedImage img) {
+    return applyCorrection(img);
   }
 }
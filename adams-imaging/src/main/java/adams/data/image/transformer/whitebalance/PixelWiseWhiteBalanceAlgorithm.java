@@ -0,0 +1,43 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * PixelWiseWhiteBalanceAlgorithm.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.image.transformer.whitebalance;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Interface for white balance algorithms that analyze the image first and
+ * then correct each pixel independently of the others. This allows the
+ * correction to be applied directly to the pixel data, e.g., in parallel.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public interface PixelWiseWhiteBalanceAlgorithm {
+
+  /**
+   * Analyzes the pixels and returns the correction to apply to each pixel.
+   *
+   * @param pixels	the ARGB pixels (row-wise) of the image in TYPE_4BYTE_ABGR
+   * @param width	the width of the image
+   * @param height	the height of the image
+   * @return		the correction, maps ARGB pixel to ARGB pixel
+   */
+  public IntUnaryOperator determineCorrection(int[] pixels, int width, int height);
+}
@@ -24,6 +24,7 @@ import adams.core.QuickInfoHelper;
 import adams.core.base.BaseRegExp;
 import adams.flow.transformer.locateobjects.LocatedObject;
 import adams.flow.transformer.locateobjects.LocatedObjects;
+import adams.flow.transformer.locateobjects.LocatedObjectsIndex;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 
@@ -482,6 +483,8 @@ public class ObjectsInRegion
 
   /**
    * Performs the actual finding of the objects in the list.
+   * Uses a {@link LocatedObjectsIndex} to only check the objects that
+   * intersect with the bounds of the region.
    *
    * @param objects  	the list of objects to process
    * @return		the indices
@@ -504,7 +507,7 @@ public class ObjectsInRegion
     if (isLoggingEnabled())
       getLogger().info("Region: " + region);
 
-    for (LocatedObject obj : objects) {
+    for (LocatedObject obj : new LocatedObjectsIndex(objects).candidates(region)) {
       if (isLoggingEnabled())
 	getLogger().info("Object: " + obj);
       add = true;
@@ -24,8 +24,10 @@ import adams.core.base.BaseString;
 import adams.core.option.AbstractOptionHandler;
 import adams.flow.transformer.locateobjects.LocatedObject;
 import adams.flow.transformer.locateobjects.LocatedObjects;
+import adams.flow.transformer.locateobjects.LocatedObjectsIndex;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -185,6 +187,39 @@ public abstract class AbstractObjectOverlap
     return null;
   }
 
+  /**
+   * Creates a spatial index for the objects if a minimum ratio above zero
+   * is required, as only objects with intersecting bounds can then be
+   * considered overlaps.
+   *
+   * @param objects	the objects to index
+   * @param minRatio	the minimum ratio that an overlap requires
+   * @return		the index, null if all objects need to be compared
+   * @see		#candidates(LocatedObjectsIndex, LocatedObject, LocatedObjects)
+   */
+  protected LocatedObjectsIndex newIndex(LocatedObjects objects, double minRatio) {
+    if (minRatio > 0.0)
+      return new LocatedObjectsIndex(objects);
+    else
+      return null;
+  }
+
+  /**
+   * Returns the objects that the object needs to be compared with.
+   *
+   * @param index	the spatial index, null if to compare with all objects
+   * @param obj		the object to get the candidates for
+   * @param objects	all the objects
+   * @return		the candidates, in the same order as in objects
+   * @see		#newIndex(LocatedObjects, double)
+   */
+  protected List<LocatedObject> candidates(LocatedObjectsIndex index, LocatedObject obj, LocatedObjects objects) {
+    if (index == null)
+      return objects;
+    else
+      return index.candidates(obj);
+  }
+
   /**
    * Initializes the matches for the object.
    *
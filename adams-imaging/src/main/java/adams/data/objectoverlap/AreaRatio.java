@@ -24,6 +24,7 @@ import adams.core.QuickInfoHelper;
 import adams.core.logging.LoggingHelper;
 import adams.flow.transformer.locateobjects.LocatedObject;
 import adams.flow.transformer.locateobjects.LocatedObjects;
+import adams.flow.transformer.locateobjects.LocatedObjectsIndex;
 import com.github.fracpete.javautils.struct.Struct2;
 
 import java.util.HashSet;
@@ -303,6 +304,7 @@ public class AreaRatio
     LocatedObject 	actObj;
     LocatedObject	tmpObj;
     LocatedObject	otherObjectHighest;
+    LocatedObjectsIndex	index;
     double		ratio;
     double		ratio2;
 
@@ -312,6 +314,7 @@ public class AreaRatio
     }
     else {
       Set<LocatedObject> matchingObjects = new HashSet<>();
+      index = newIndex(predictions, m_MinOverlapRatio);
       for (LocatedObject thisObj : annotations) {
         if (isLoggingEnabled()) {
           if (LoggingHelper.isAtLeast(getLogger(), Level.FINE))
@@ -327,8 +330,9 @@ public class AreaRatio
 	  thisLabel = "" + thisObj.getMetaData().get(m_LabelKey);
 	actObj = thisObj;
 	otherObjectHighest = null;
-	for (LocatedObject otherObj : predictions) {
+	if (predictions.size() > 0)
 	  initMatch(matches, thisObj);
+	for (LocatedObject otherObj : candidates(index, thisObj, predictions)) {
 	  if (m_ExcludeIdentical && thisObj.equals(otherObj))
 	    continue;
 	  ratio = thisObj.overlapRatio(otherObj);
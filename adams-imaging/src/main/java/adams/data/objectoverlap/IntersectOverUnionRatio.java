@@ -24,6 +24,7 @@ import adams.core.QuickInfoHelper;
 import adams.core.logging.LoggingHelper;
 import adams.flow.transformer.locateobjects.LocatedObject;
 import adams.flow.transformer.locateobjects.LocatedObjects;
+import adams.flow.transformer.locateobjects.LocatedObjectsIndex;
 import com.github.fracpete.javautils.struct.Struct2;
 import org.locationtech.jts.geom.Polygon;
 
@@ -442,6 +443,7 @@ public class IntersectOverUnionRatio
     LocatedObject 	actObj;
     LocatedObject	tmpObj;
     LocatedObject	otherObjectHighest;
+    LocatedObjectsIndex	index;
     double		ratio;
     double		thisObjArea;
     double		intersectArea;
@@ -459,6 +461,7 @@ public class IntersectOverUnionRatio
     }
     else {
       Set<LocatedObject> matchingObjects = new HashSet<>();
+      index = newIndex(predictions, m_MinIntersectOverUnionRatio);
       for (LocatedObject thisObj : annotations) {
 	if (isLoggingEnabled()) {
 	  if (LoggingHelper.isAtLeast(getLogger(), Level.FINE))
@@ -474,8 +477,9 @@ public class IntersectOverUnionRatio
 	  thisLabel = "" + thisObj.getMetaData().get(m_LabelKey);
 	actObj = thisObj;
 	otherObjectHighest = null;
-	for (LocatedObject otherObj : predictions) {
+	if (predictions.size() > 0)
 	  initMatch(matches, thisObj);
+	for (LocatedObject otherObj : candidates(index, thisObj, predictions)) {
 	  if (m_ExcludeIdentical && thisObj.equals(otherObj))
 	    continue;
 	  iou = calculateIoU(thisObj, otherObj);
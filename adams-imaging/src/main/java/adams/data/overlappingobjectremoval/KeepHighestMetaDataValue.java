@@ -23,6 +23,7 @@ package adams.data.overlappingobjectremoval;
 import adams.flow.transformer.locateobjects.LocatedObject;
 import adams.flow.transformer.locateobjects.LocatedObjects;
 
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -100,6 +101,7 @@ public class KeepHighestMetaDataValue
   @Override
   public LocatedObjects removeOverlaps(LocatedObjects objects, Map<LocatedObject, Map<LocatedObject,Double>> matches) {
     LocatedObjects	result;
+    Set<LocatedObject>	added;
     Set<LocatedObject> 	others;
     LocatedObject 	keep;
     double		thisScore;
@@ -107,6 +109,7 @@ public class KeepHighestMetaDataValue
     double		currScore;
 
     result = new LocatedObjects();
+    added  = new HashSet<>();
     for (LocatedObject thisObj : objects) {
       others = matches.get(thisObj).keySet();
       if ((others != null) && (others.size() > 0)) {
@@ -120,11 +123,11 @@ public class KeepHighestMetaDataValue
 	    currScore = otherScore;
 	  }
 	}
-        if (!result.contains(keep))
+        if (added.add(keep))
           result.add(keep.getClone());
       }
       else {
-        if (!result.contains(thisObj))
+        if (added.add(thisObj))
           result.add(thisObj.getClone());
       }
     }
@@ -23,6 +23,7 @@ package adams.data.overlappingobjectremoval;
 import adams.flow.transformer.locateobjects.LocatedObject;
 import adams.flow.transformer.locateobjects.LocatedObjects;
 
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -56,12 +57,14 @@ public class RemoveLargerRectangle
   @Override
   public LocatedObjects removeOverlaps(LocatedObjects objects, Map<LocatedObject, Map<LocatedObject,Double>> matches) {
     LocatedObjects	result;
+    Set<LocatedObject>	added;
     Set<LocatedObject> 	others;
     LocatedObject 	smallest;
     double 		thisArea;
     double 		otherArea;
 
     result = new LocatedObjects();
+    added  = new HashSet<>();
     for (LocatedObject thisObj : objects) {
       if (!matches.containsKey(thisObj))
         continue;
@@ -76,11 +79,11 @@ public class RemoveLargerRectangle
 	    thisArea = otherArea;
 	  }
 	}
-        if (!result.contains(smallest))
+        if (added.add(smallest))
 	  result.add(smallest.getClone());
       }
       else {
-	if (!result.contains(thisObj))
+	if (added.add(thisObj))
 	  result.add(thisObj.getClone());
       }
     }
@@ -0,0 +1,350 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * LocatedObjectsIndex.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+package adams.flow.transformer.locateobjects;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Grid-bucket spatial index over located objects, for quickly determining
+ * the objects whose bounding boxes intersect with a given area. Used for
+ * pre-filtering candidate pairs before computing the exact (and expensive)
+ * overlap between objects.
+ * <br><br>
+ * The bounds of an object are the union of its bounding box and, if present,
+ * the bounds of its polygon. The size of the grid cells is based on the
+ * average object size. Objects that would span a lot of cells are kept in a
+ * separate list that gets checked for every query.
+ * <br><br>
+ * The index is a snapshot, i.e., changes to the objects after the index was
+ * built are not reflected.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class LocatedObjectsIndex
+  implements Serializable {
+
+  private static final long serialVersionUID = 7263925486410417703L;
+
+  /** the maximum number of cells an object can span before it is considered large. */
+  public final static int MAX_CELLS = 64;
+
+  /** the indexed objects. */
+  protected List<LocatedObject> m_Objects;
+
+  /** the left bounds (inclusive). */
+  protected int[] m_Left;
+
+  /** the top bounds (inclusive). */
+  protected int[] m_Top;
+
+  /** the right bounds (inclusive). */
+  protected int[] m_Right;
+
+  /** the bottom bounds (inclusive). */
+  protected int[] m_Bottom;
+
+  /** the size of the grid cells. */
+  protected int m_CellSize;
+
+  /** the grid cells (cell key - object indices). */
+  protected TLongObjectMap<TIntList> m_Cells;
+
+  /** the objects that span too many cells. */
+  protected TIntList m_Large;
+
+  /**
+   * Builds the index for the objects.
+   *
+   * @param objects	the objects to index
+   */
+  public LocatedObjectsIndex(List<LocatedObject> objects) {
+    super();
+    build(objects);
+  }
+
+  /**
+   * Returns the bounds of the object: the bounding box and, if present,
+   * the bounds of the polygon.
+   *
+   * @param obj		the object to get the bounds for
+   * @return		the bounds (left, top, right, bottom; all inclusive)
+   */
+  public static int[] bounds(LocatedObject obj) {
+    int[]	result;
+    Polygon	poly;
+    Rectangle	rect;
+
+    result = new int[]{
+      obj.getX(),
+      obj.getY(),
+      obj.getX() + Math.max(1, obj.getWidth()) - 1,
+      obj.getY() + Math.max(1, obj.getHeight()) - 1,
+    };
+
+    if (obj.hasPolygon()) {
+      poly = obj.getPolygon();
+      if (poly.npoints > 0) {
+	rect      = poly.getBounds();
+	result[0] = Math.min(result[0], rect.x);
+	result[1] = Math.min(result[1], rect.y);
+	result[2] = Math.max(result[2], rect.x + rect.width);
+	result[3] = Math.max(result[3], rect.y + rect.height);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the key for the grid cell.
+   *
+   * @param cx		the cell column
+   * @param cy		the cell row
+   * @return		the key
+   */
+  protected long key(int cx, int cy) {
+    return (((long) cx) << 32) | (cy & 0xffffffffL);
+  }
+
+  /**
+   * Returns the cell coordinate for the specified pixel coordinate.
+   *
+   * @param coord	the pixel coordinate
+   * @return		the cell coordinate
+   */
+  protected int cell(int coord) {
+    return Math.floorDiv(coord, m_CellSize);
+  }
+
+  /**
+   * Builds the index.
+   *
+   * @param objects	the objects to index
+   */
+  protected void build(List<LocatedObject> objects) {
+    int		i;
+    int[]	bounds;
+    long	total;
+    int		cx;
+    int		cy;
+    int		cx0;
+    int		cy0;
+    int		cx1;
+    int		cy1;
+    long	k;
+    TIntList	cell;
+
+    m_Objects = new ArrayList<>(objects);
+    m_Left    = new int[m_Objects.size()];
+    m_Top     = new int[m_Objects.size()];
+    m_Right   = new int[m_Objects.size()];
+    m_Bottom  = new int[m_Objects.size()];
+    m_Cells   = new TLongObjectHashMap<>();
+    m_Large   = new TIntArrayList();
+
+    // bounds
+    total = 0;
+    for (i = 0; i < m_Objects.size(); i++) {
+      bounds      = bounds(m_Objects.get(i));
+      m_Left[i]   = bounds[0];
+      m_Top[i]    = bounds[1];
+      m_Right[i]  = bounds[2];
+      m_Bottom[i] = bounds[3];
+      total      += Math.max(m_Right[i] - m_Left[i], m_Bottom[i] - m_Top[i]) + 1;
+    }
+    if (m_Objects.size() > 0)
+      m_CellSize = (int) Math.max(1, total / m_Objects.size());
+    else
+      m_CellSize = 1;
+
+    // fill cells
+    for (i = 0; i < m_Objects.size(); i++) {
+      cx0 = cell(m_Left[i]);
+      cy0 = cell(m_Top[i]);
+      cx1 = cell(m_Right[i]);
+      cy1 = cell(m_Bottom[i]);
+      if ((long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > MAX_CELLS) {
+	m_Large.add(i);
+	continue;
+      }
+      for (cx = cx0; cx <= cx1; cx++) {
+	for (cy = cy0; cy <= cy1; cy++) {
+	  k    = key(cx, cy);
+	  cell = m_Cells.get(k);
+	  if (cell == null) {
+	    cell = new TIntArrayList();
+	    m_Cells.put(k, cell);
+	  }
+	  cell.add(i);
+	}
+      }
+    }
+  }
+
+  /**
+   * Returns the number of indexed objects.
+   *
+   * @return		the number of objects
+   */
+  public int size() {
+    return m_Objects.size();
+  }
+
+  /**
+   * Returns the object at the specified position.
+   *
+   * @param index	the position of the object
+   * @return		the object
+   */
+  public LocatedObject get(int index) {
+    return m_Objects.get(index);
+  }
+
+  /**
+   * Returns the size of the grid cells.
+   *
+   * @return		the size in pixels
+   */
+  public int getCellSize() {
+    return m_CellSize;
+  }
+
+  /**
+   * Returns whether the bounds of the object at the specified position
+   * intersect with the area.
+   *
+   * @param index	the position of the object
+   * @param left	the left of the area (inclusive)
+   * @param top		the top of the area (inclusive)
+   * @param right	the right of the area (inclusive)
+   * @param bottom	the bottom of the area (inclusive)
+   * @return		true if intersecting
+   */
+  protected boolean intersects(int index, int left, int top, int right, int bottom) {
+    return (m_Left[index] <= right) && (m_Right[index] >= left) && (m_Top[index] <= bottom) && (m_Bottom[index] >= top);
+  }
+
+  /**
+   * Returns the positions of the objects whose bounds intersect with the
+   * specified area.
+   *
+   * @param left	the left of the area (inclusive)
+   * @param top		the top of the area (inclusive)
+   * @param right	the right of the area (inclusive)
+   * @param bottom	the bottom of the area (inclusive)
+   * @return		the positions of the objects, sorted
+   */
+  public int[] query(int left, int top, int right, int bottom) {
+    int[]	result;
+    TIntSet	found;
+    TIntList	cell;
+    int		cx;
+    int		cy;
+    int		cx0;
+    int		cy0;
+    int		cx1;
+    int		cy1;
+    int		i;
+    int		n;
+
+    found = new TIntHashSet();
+    cx0   = cell(left);
+    cy0   = cell(top);
+    cx1   = cell(right);
+    cy1   = cell(bottom);
+
+    // large query area? simply check all objects
+    if ((long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > m_Cells.size()) {
+      for (i = 0; i < m_Objects.size(); i++) {
+	if (intersects(i, left, top, right, bottom))
+	  found.add(i);
+      }
+    }
+    else {
+      for (cx = cx0; cx <= cx1; cx++) {
+	for (cy = cy0; cy <= cy1; cy++) {
+	  cell = m_Cells.get(key(cx, cy));
+	  if (cell == null)
+	    continue;
+	  for (n = 0; n < cell.size(); n++) {
+	    i = cell.get(n);
+	    if (intersects(i, left, top, right, bottom))
+	      found.add(i);
+	  }
+	}
+      }
+      for (n = 0; n < m_Large.size(); n++) {
+	i = m_Large.get(n);
+	if (intersects(i, left, top, right, bottom))
+	  found.add(i);
+      }
+    }
+
+    result = found.toArray();
+    Arrays.sort(result);
+
+    return result;
+  }
+
+  /**
+   * Returns the positions of the objects whose bounds intersect with the
+   * bounds of the specified object.
+   *
+   * @param obj		the object to get the candidates for
+   * @return		the positions of the objects, sorted
+   * @see		#bounds(LocatedObject)
+   */
+  public int[] query(LocatedObject obj) {
+    int[]	bounds;
+
+    bounds = bounds(obj);
+    return query(bounds[0], bounds[1], bounds[2], bounds[3]);
+  }
+
+  /**
+   * Returns the objects whose bounds intersect with the bounds of the
+   * specified object, in the order in which they were indexed.
+   *
+   * @param obj		the object to get the candidates for
+   * @return		the candidates
+   * @see		#query(LocatedObject)
+   */
+  public List<LocatedObject> candidates(LocatedObject obj) {
+    List<LocatedObject>	result;
+
+    result = new ArrayList<>();
+    for (int i: query(obj))
+      result.add(m_Objects.get(i));
+
+    return result;
+  }
+}
@@ -15,13 +15,17 @@
 
 /**
  * GaussianBlurTest.java
- * Copyright (C) 2011 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2011-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.data.image.transformer;
 
+import adams.data.image.BufferedImageContainer;
+import adams.env.Environment;
 import junit.framework.Test;
 import junit.framework.TestSuite;
-import adams.env.Environment;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
 
 /**
  * Test class for the GaussianBlur transformer. Run from the command line with: <br><br>
@@ -73,6 +77,40 @@ public class GaussianBlurTest
     return result;
   }
 
+  /**
+   * Tests whether processing small tiles in parallel generates the same
+   * output as processing the image in one go.
+   */
+  public void testTiles() {
+    BufferedImageContainer	data;
+    GaussianBlur		sequential;
+    GaussianBlur		tiled;
+    BufferedImage		expected;
+    BufferedImage		actual;
+
+    data = load("adams_logo.png");
+    assertNotNull("Failed to load data", data);
+
+    sequential = new GaussianBlur();
+    sequential.setRadius(5.0);
+    sequential.setNumThreads(1);
+    sequential.setTileSize(Integer.MAX_VALUE);
+    tiled = new GaussianBlur();
+    tiled.setRadius(5.0);
+    tiled.setNumThreads(4);
+    tiled.setTileSize(7);
+
+    expected = sequential.transform((BufferedImageContainer) data.getClone())[0].getImage();
+    actual   = tiled.transform((BufferedImageContainer) data.getClone())[0].getImage();
+    assertEquals("width differs", expected.getWidth(), actual.getWidth());
+    assertEquals("height differs", expected.getHeight(), actual.getHeight());
+    assertTrue(
+      "pixels differ",
+      Arrays.equals(
+	expected.getRGB(0, 0, expected.getWidth(), expected.getHeight(), null, 0, expected.getWidth()),
+	actual.getRGB(0, 0, actual.getWidth(), actual.getHeight(), null, 0, actual.getWidth())));
+  }
+
   /**
    * Returns the test suite.
    *
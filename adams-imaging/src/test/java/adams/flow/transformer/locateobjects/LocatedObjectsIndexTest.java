@@ -0,0 +1,161 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * LocatedObjectsIndexTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+package adams.flow.transformer.locateobjects;
+
+import adams.core.classmanager.ClassManager;
+import adams.env.Environment;
+import adams.test.AdamsTestCase;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tests the LocatedObjectsIndex class.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class LocatedObjectsIndexTest
+  extends AdamsTestCase {
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public LocatedObjectsIndexTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Generates random objects.
+   *
+   * @param num		the number of objects
+   * @param seed	the seed value
+   * @return		the objects
+   */
+  protected LocatedObjects generate(int num, long seed) {
+    LocatedObjects	result;
+    Random		rnd;
+    int			i;
+
+    result = new LocatedObjects();
+    rnd    = new Random(seed);
+    for (i = 0; i < num; i++) {
+      // mostly small objects, some large ones
+      if (i % 50 == 0)
+	result.add(new LocatedObject(rnd.nextInt(1000), rnd.nextInt(1000), 200 + rnd.nextInt(800), 200 + rnd.nextInt(800)));
+      else
+	result.add(new LocatedObject(rnd.nextInt(1000), rnd.nextInt(1000), 1 + rnd.nextInt(30), 1 + rnd.nextInt(30)));
+    }
+
+    return result;
+  }
+
+  /**
+   * Determines the intersecting objects via brute force.
+   *
+   * @param objects	the objects to check
+   * @param obj		the object to check against
+   * @return		the positions of the intersecting objects
+   */
+  protected int[] bruteForce(LocatedObjects objects, LocatedObject obj) {
+    TIntList	result;
+    int[]	b;
+    int[]	o;
+    int		i;
+
+    result = new TIntArrayList();
+    b      = LocatedObjectsIndex.bounds(obj);
+    for (i = 0; i < objects.size(); i++) {
+      o = LocatedObjectsIndex.bounds(objects.get(i));
+      if ((o[0] <= b[2]) && (o[2] >= b[0]) && (o[1] <= b[3]) && (o[3] >= b[1]))
+	result.add(i);
+    }
+
+    return result.toArray();
+  }
+
+  /**
+   * Compares the index queries against brute force.
+   */
+  public void testQuery() {
+    LocatedObjects 		objects;
+    LocatedObjectsIndex		index;
+    LocatedObject		obj;
+
+    objects = generate(1000, 42);
+    index   = new LocatedObjectsIndex(objects);
+    assertEquals("# of objects differ", objects.size(), index.size());
+    for (int i = 0; i < objects.size(); i++) {
+      obj = objects.get(i);
+      assertTrue("queries differ for #" + i, Arrays.equals(bruteForce(objects, obj), index.query(obj)));
+      assertTrue("object should be its own candidate", index.candidates(obj).contains(obj));
+    }
+
+    // query with large area
+    obj = new LocatedObject(-10, -10, 5000, 5000);
+    assertEquals("all objects should be candidates", objects.size(), index.query(obj).length);
+  }
+
+  /**
+   * Tests an empty index.
+   */
+  public void testEmpty() {
+    LocatedObjectsIndex		index;
+
+    index = new LocatedObjectsIndex(new LocatedObjects());
+    assertEquals("should be empty", 0, index.size());
+    assertEquals("should not find anything", 0, index.query(new LocatedObject(0, 0, 10, 10)).length);
+  }
+
+  /**
+   * Tests whether the index can be serialized.
+   */
+  @Override
+  public void testSerializable() {
+    LocatedObjectsIndex		index;
+
+    index = new LocatedObjectsIndex(generate(100, 1));
+    assertNotNull("Not serializable: " + index, ClassManager.getSingleton().deepCopy(index));
+  }
+
+  /**
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(LocatedObjectsIndexTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(Environment.class);
+    runTest(suite());
+  }
+}
@@ -20,7 +20,7 @@
 package adams.data.conversion;
 
 import adams.core.QuickInfoHelper;
-import adams.core.Utils;
+import adams.data.json.JsonHelper;
 import adams.data.spreadsheet.DefaultSpreadSheet;
 import adams.data.spreadsheet.Row;
 import adams.data.spreadsheet.SparseDataRow;
@@ -29,6 +29,8 @@ import net.minidev.json.JSONArray;
 import net.minidev.json.JSONAware;
 import net.minidev.json.JSONObject;
 
+import java.util.Map;
+
 /**
  <!-- globalinfo-start -->
  * Turns a JSON object into a spreadsheet, essentially flattening it.
@@ -182,77 +184,6 @@ public class JsonToSpreadSheet
     return SpreadSheet.class;
   }
 
-  /**
-   * Flattens the JSON object.
-   * 
-   * @param json	the array to flatten
-   * @param path	the current path
-   * @param sheet	the sheet to add it to
-   * @param header	the header row
-   */
-  protected void flatten(String path, JSONArray json, SpreadSheet sheet, Row header) {
-    int		i;
-    String	newPath;
-    Object	obj;
-    int		digits;
-    
-    digits = Integer.toString(json.size() - 1).length();
-    for (i = 0; i < json.size(); i++) {
-      obj     = json.get(i);
-      newPath = "[" + (m_LeftPad ? Utils.padLeft("" + i, '0', digits) : ("" + i)) + "]";
-      if (path != null)
-	newPath = path + newPath;
-      else
-	newPath = m_Prefix + newPath;
-
-      if (obj instanceof JSONObject) {
-	flatten(newPath, (JSONObject) obj, sheet, header);
-      }
-      else if (obj instanceof JSONArray) {
-	flatten(newPath, (JSONArray) obj, sheet, header);
-      }
-      else {
-	if (!header.hasCell(newPath))
-	  header.addCell(newPath).setContent(newPath);
-	sheet.getRow(0).addCell(newPath).setNative(obj);
-      }
-    }
-  }
-
-  /**
-   * Flattens the JSON object.
-   * 
-   * @param json	the object to flatten
-   * @param path	the current path
-   * @param sheet	the sheet to add it to
-   * @param header	the header row
-   */
-  protected void flatten(String path, JSONObject json, SpreadSheet sheet, Row header) {
-    Object	obj;
-    String	newPath;
-    
-    for (String key: json.keySet()) {
-      obj = json.get(key);
-      newPath = key;
-      if (path != null)
-	newPath = path + "." + newPath;
-      else
-	newPath = m_Prefix + newPath;
-      
-      if (obj instanceof JSONObject) {
-	flatten(newPath, (JSONObject) obj, sheet, header);
-      }
-      else if (obj instanceof JSONArray) {
-	flatten(newPath, (JSONArray) obj, sheet, header);
-      }
-      else {
-	if (!header.hasCell(newPath))
-	  header.addCell(newPath).setContent(newPath);
-	sheet.getRow(0).addCell(newPath).setNative(obj);
-      }
-    }
-  }
-  
   /**
    * Performs the actual conversion.
    *
@@ -261,20 +192,24 @@ public class JsonToSpreadSheet
    */
   @Override
   protected Object doConvert() throws Exception {
-    SpreadSheet	result;
-    Row		header;
+    SpreadSheet		result;
+    Row			header;
+    Row			row;
+    Map<String,Object>	flattened;
     
+    if (!(m_Input instanceof JSONObject) && !(m_Input instanceof JSONArray))
+      throw new IllegalStateException("Cannot handle: " + m_Input.getClass().getName());
+
     result = new DefaultSpreadSheet();
     result.setDataRowClass(SparseDataRow.class);
-    result.addRow();
+    row    = result.addRow();
     header = result.getHeaderRow();
-    
-    if (m_Input instanceof JSONObject)
-      flatten(null, (JSONObject) m_Input, result, header);
-    else if (m_Input instanceof JSONArray)
-      flatten(null, (JSONArray) m_Input, result, header);
-    else
-      throw new IllegalStateException("Cannot handle: " + m_Input.getClass().getName());
+
+    flattened = JsonHelper.flatten((JSONAware) m_Input, m_Prefix, m_LeftPad);
+    for (String key: flattened.keySet()) {
+      header.addCell(key).setContent(key);
+      row.addCell(key).setNative(flattened.get(key));
+    }
     
     return result;
   }
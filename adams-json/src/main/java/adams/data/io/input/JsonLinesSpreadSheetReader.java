@@ -0,0 +1,567 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * JsonLinesSpreadSheetReader.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.io.input;
+
+import adams.core.base.BaseCharset;
+import adams.core.io.FileUtils;
+import adams.core.logging.LoggingHelper;
+import adams.data.io.output.JsonLinesSpreadSheetWriter;
+import adams.data.io.output.SpreadSheetWriter;
+import adams.data.json.JsonHelper;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.env.Environment;
+import net.minidev.json.JSONAware;
+import net.minidev.json.parser.JSONParser;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ <!-- globalinfo-start -->
+ * Reads files in JSON Lines format (one JSON object per line) in a streaming fashion, i.e., only a single line is parsed at a time.<br>
+ * Nested objects and arrays get flattened into columns, using '.' to separate keys and '[index]' for array elements.<br>
+ * The columns are inferred from the first N records; keys that only occur in later records get ignored.
+ * <br><br>
+ <!-- globalinfo-end -->
+ *
+ <!-- options-start -->
+ * <pre>-logging-level &lt;OFF|SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST&gt; (property: loggingLevel)
+ * &nbsp;&nbsp;&nbsp;The logging level for outputting errors and debugging output.
+ * &nbsp;&nbsp;&nbsp;default: WARNING
+ * </pre>
+ *
+ * <pre>-data-row-type &lt;adams.data.spreadsheet.DataRow&gt; (property: dataRowType)
+ * &nbsp;&nbsp;&nbsp;The type of row to use for the data.
+ * &nbsp;&nbsp;&nbsp;default: adams.data.spreadsheet.DenseDataRow
+ * </pre>
+ *
+ * <pre>-spreadsheet-type &lt;adams.data.spreadsheet.SpreadSheet&gt; (property: spreadSheetType)
+ * &nbsp;&nbsp;&nbsp;The type of spreadsheet to use for the data.
+ * &nbsp;&nbsp;&nbsp;default: adams.data.spreadsheet.DefaultSpreadSheet
+ * </pre>
+ *
+ * <pre>-encoding &lt;adams.core.base.BaseCharset&gt; (property: encoding)
+ * &nbsp;&nbsp;&nbsp;The type of encoding to use when reading using a reader, leave empty for
+ * &nbsp;&nbsp;&nbsp;default.
+ * &nbsp;&nbsp;&nbsp;default: Default
+ * </pre>
+ *
+ * <pre>-infer-rows &lt;int&gt; (property: inferRows)
+ * &nbsp;&nbsp;&nbsp;The number of records to use for inferring the columns.
+ * &nbsp;&nbsp;&nbsp;default: 100
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ *
+ * <pre>-prefix &lt;java.lang.String&gt; (property: prefix)
+ * &nbsp;&nbsp;&nbsp;The prefix to use for the generated columns.
+ * &nbsp;&nbsp;&nbsp;default:
+ * </pre>
+ *
+ * <pre>-left-pad &lt;boolean&gt; (property: leftPad)
+ * &nbsp;&nbsp;&nbsp;If enabled, the index in the arrays gets left-padded with zeroes.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ * <pre>-skip-invalid &lt;boolean&gt; (property: skipInvalid)
+ * &nbsp;&nbsp;&nbsp;If enabled, lines that cannot be parsed get skipped rather than stopping
+ * &nbsp;&nbsp;&nbsp;the reading process.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ * <pre>-chunk-size &lt;int&gt; (property: chunkSize)
+ * &nbsp;&nbsp;&nbsp;The maximum number of rows per chunk; using -1 will read put all data into
+ * &nbsp;&nbsp;&nbsp;a single spreadsheet object.
+ * &nbsp;&nbsp;&nbsp;default: -1
+ * &nbsp;&nbsp;&nbsp;minimum: -1
+ * </pre>
+ *
+ <!-- options-end -->
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class JsonLinesSpreadSheetReader
+  extends AbstractSpreadSheetReader
+  implements ChunkedSpreadSheetReader {
+
+  private static final long serialVersionUID = 3528735213958183024L;
+
+  /** the number of records to use for inferring the columns. */
+  protected int m_InferRows;
+
+  /** the prefix to use for the columns. */
+  protected String m_Prefix;
+
+  /** whether to left-pad the index of arrays with 0s. */
+  protected boolean m_LeftPad;
+
+  /** whether to skip lines that cannot be parsed. */
+  protected boolean m_SkipInvalid;
+
+  /** the chunk size to use. */
+  protected int m_ChunkSize;
+
+  /** the reader in use. */
+  protected transient BufferedReader m_Reader;
+
+  /** the parser in use. */
+  protected transient JSONParser m_Parser;
+
+  /** the header in use. */
+  protected SpreadSheet m_Header;
+
+  /** the column name - column index relation. */
+  protected Map<String,Integer> m_Columns;
+
+  /** the records buffered during inference. */
+  protected Deque<Map<String,Object>> m_Buffer;
+
+  /** the keys that weren't part of the inferred columns. */
+  protected Set<String> m_Unknown;
+
+  /** the current line number. */
+  protected long m_LineNo;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return
+      "Reads files in JSON Lines format (one JSON object per line) in a "
+	+ "streaming fashion, i.e., only a single line is parsed at a time.\n"
+	+ "Nested objects and arrays get flattened into columns, using '.' to "
+	+ "separate keys and '[index]' for array elements.\n"
+	+ "The columns are inferred from the first N records; keys that only "
+	+ "occur in later records get ignored.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "encoding", "encoding",
+      new BaseCharset());
+
+    m_OptionManager.add(
+      "infer-rows", "inferRows",
+      100, 1, null);
+
+    m_OptionManager.add(
+      "prefix", "prefix",
+      "");
+
+    m_OptionManager.add(
+      "left-pad", "leftPad",
+      false);
+
+    m_OptionManager.add(
+      "skip-invalid", "skipInvalid",
+      false);
+
+    m_OptionManager.add(
+      "chunk-size", "chunkSize",
+      -1, -1, null);
+  }
+
+  /**
+   * Sets the number of records to use for inferring the columns.
+   *
+   * @param value	the number of records
+   */
+  public void setInferRows(int value) {
+    if (getOptionManager().isValid("inferRows", value)) {
+      m_InferRows = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the number of records to use for inferring the columns.
+   *
+   * @return		the number of records
+   */
+  public int getInferRows() {
+    return m_InferRows;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  public String inferRowsTipText() {
+    return "The number of records to use for inferring the columns.";
+  }
+
+  /**
+   * Sets the prefix to use for the columns.
+   *
+   * @param value	the prefix
+   */
+  public void setPrefix(String value) {
+    m_Prefix = value;
+    reset();
+  }
+
+  /**
+   * Returns the prefix to use for the columns.
+   *
+   * @return		the prefix
+   */
+  public String getPrefix() {
+    return m_Prefix;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  public String prefixTipText() {
+    return "The prefix to use for the generated columns.";
+  }
+
+  /**
+   * Sets whether to left-pad the array indices with zeroes.
+   *
+   * @param value	true if to pad
+   */
+  public void setLeftPad(boolean value) {
+    m_LeftPad = value;
+    reset();
+  }
+
+  /**
+   * Returns whether the array indices get left-padded with zeroes.
+   *
+   * @return		true if to pad
+   */
+  public boolean getLeftPad() {
+    return m_LeftPad;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  public String leftPadTipText() {
+    return "If enabled, the index in the arrays gets left-padded with zeroes.";
+  }
+
+  /**
+   * Sets whether to skip lines that cannot be parsed.
+   *
+   * @param value	true if to skip
+   */
+  public void setSkipInvalid(boolean value) {
+    m_SkipInvalid = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to skip lines that cannot be parsed.
+   *
+   * @return		true if to skip
+   */
+  public boolean getSkipInvalid() {
+    return m_SkipInvalid;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  public String skipInvalidTipText() {
+    return "If enabled, lines that cannot be parsed get skipped rather than stopping the reading process.";
+  }
+
+  /**
+   * Sets the maximum chunk size.
+   *
+   * @param value	the size of the chunks, &lt; 1 denotes infinity
+   */
+  @Override
+  public void setChunkSize(int value) {
+    if (value < 1)
+      value = -1;
+    m_ChunkSize = value;
+    reset();
+  }
+
+  /**
+   * Returns the current chunk size.
+   *
+   * @return	the size of the chunks, &lt; 1 denotes infinity
+   */
+  @Override
+  public int getChunkSize() {
+    return m_ChunkSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the gui
+   */
+  @Override
+  public String chunkSizeTipText() {
+    return "The maximum number of rows per chunk; using -1 will read put all data into a single spreadsheet object.";
+  }
+
+  /**
+   * Returns, if available, the corresponding writer.
+   *
+   * @return		the writer, null if none available
+   */
+  @Override
+  public SpreadSheetWriter getCorrespondingWriter() {
+    return new JsonLinesSpreadSheetWriter();
+  }
+
+  /**
+   * Returns a string describing the format (used in the file chooser).
+   *
+   * @return 			a description suitable for displaying in the
+   * 				file chooser
+   */
+  @Override
+  public String getFormatDescription() {
+    return new JsonLinesSpreadSheetWriter().getFormatDescription();
+  }
+
+  /**
+   * Returns the extension(s) of the format.
+   *
+   * @return 			the extension (without the dot!)
+   */
+  @Override
+  public String[] getFormatExtensions() {
+    return new JsonLinesSpreadSheetWriter().getFormatExtensions();
+  }
+
+  /**
+   * Returns how to read the data, from a file, stream or reader.
+   *
+   * @return		how to read the data
+   */
+  @Override
+  protected InputType getInputType() {
+    return InputType.READER;
+  }
+
+  /**
+   * Performs the actual reading.
+   *
+   * @param r		the reader to read from
+   * @return		the spreadsheet or null in case of an error
+   * @see		#getInputType()
+   */
+  @Override
+  protected SpreadSheet doRead(Reader r) {
+    if (r instanceof BufferedReader)
+      m_Reader = (BufferedReader) r;
+    else
+      m_Reader = new BufferedReader(r);
+    m_Parser  = new JSONParser(JSONParser.MODE_JSON_SIMPLE);
+    m_Header  = null;
+    m_Columns = null;
+    m_Buffer  = new ArrayDeque<>();
+    m_Unknown = new HashSet<>();
+    m_LineNo  = 0;
+
+    return nextChunk();
+  }
+
+  /**
+   * Checks whether there is more data to read.
+   *
+   * @return		true if there is more data available
+   */
+  @Override
+  public boolean hasMoreChunks() {
+    return (m_Reader != null) || ((m_Buffer != null) && !m_Buffer.isEmpty());
+  }
+
+  /**
+   * Reads the next record from the file.
+   *
+   * @return		the flattened record, null if no more data
+   * @throws Exception	if reading or parsing fails
+   */
+  protected Map<String,Object> nextRecord() throws Exception {
+    String	line;
+    Object	json;
+
+    while (m_Reader != null) {
+      line = m_Reader.readLine();
+      if (line == null) {
+	FileUtils.closeQuietly(m_Reader);
+	m_Reader = null;
+	break;
+      }
+      m_LineNo++;
+      line = line.trim();
+      if (line.isEmpty())
+	continue;
+
+      try {
+	json = m_Parser.parse(line);
+	if (!(json instanceof JSONAware))
+	  throw new IllegalStateException("Expected JSON object or array, but got: " + line);
+	return JsonHelper.flatten((JSONAware) json, m_Prefix, m_LeftPad);
+      }
+      catch (Exception e) {
+	if (!m_SkipInvalid)
+	  throw new IllegalStateException("Failed to parse line #" + m_LineNo + "!", e);
+	getLogger().warning("Skipping invalid line #" + m_LineNo + ": " + e);
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Infers the columns from the first records, which get buffered.
+   *
+   * @throws Exception	if reading fails
+   */
+  protected void inferColumns() throws Exception {
+    Map<String,Object>	record;
+    Row			row;
+
+    m_Header = m_SpreadSheetType.newInstance();
+    m_Header.setDataRowClass(m_DataRowType.getClass());
+    m_Columns = new HashMap<>();
+    row       = m_Header.getHeaderRow();
+    while (m_Buffer.size() < m_InferRows) {
+      record = nextRecord();
+      if (record == null)
+	break;
+      m_Buffer.add(record);
+      for (String key: record.keySet()) {
+	if (!m_Columns.containsKey(key)) {
+	  m_Columns.put(key, m_Columns.size());
+	  row.addCell("" + row.getCellCount()).setContentAsString(key);
+	}
+      }
+    }
+
+    if (isLoggingEnabled())
+      getLogger().info("Inferred " + m_Columns.size() + " columns from " + m_Buffer.size() + " records");
+  }
+
+  /**
+   * Adds the record to the spreadsheet.
+   *
+   * @param sheet	the sheet to add the record to
+   * @param record	the record to add
+   */
+  protected void addRecord(SpreadSheet sheet, Map<String,Object> record) {
+    Row		row;
+    Integer	index;
+
+    row = sheet.addRow();
+    for (String key: record.keySet()) {
+      index = m_Columns.get(key);
+      if (index == null) {
+	if (m_Unknown.add(key))
+	  getLogger().warning("Ignoring key not present in first " + m_InferRows + " records: " + key);
+	continue;
+      }
+      row.addCell(index).setNative(record.get(key));
+    }
+  }
+
+  /**
+   * Returns the next chunk.
+   *
+   * @return		the next chunk, null if no data available
+   */
+  @Override
+  public SpreadSheet nextChunk() {
+    SpreadSheet		result;
+    Map<String,Object>	record;
+    int			count;
+
+    result = null;
+
+    try {
+      if (m_Header == null)
+	inferColumns();
+
+      result = m_Header.getHeader();
+      count  = 0;
+      while ((m_ChunkSize < 1) || (count < m_ChunkSize)) {
+	if (m_Stopped)
+	  break;
+	record = m_Buffer.poll();
+	if (record == null)
+	  record = nextRecord();
+	if (record == null)
+	  break;
+	addRecord(result, record);
+	count++;
+      }
+    }
+    catch (Exception e) {
+      m_LastError = "Failed to read data!\n" + LoggingHelper.throwableToString(e);
+      FileUtils.closeQuietly(m_Reader);
+      m_Reader = null;
+      m_Buffer = null;
+      result   = null;
+    }
+
+    return result;
+  }
+
+  /**
+   * Runs the reader from the command-line.
+   *
+   * Use the option {@link #OPTION_INPUT} to specify the input file.
+   * If the option {@link #OPTION_OUTPUT} is specified then the read sheet
+   * gets output as .csv files in that directory.
+   *
+   * @param args	the command-line options to use
+   */
+  public static void main(String[] args) {
+    runReader(Environment.class, JsonLinesSpreadSheetReader.class, args);
+  }
+}
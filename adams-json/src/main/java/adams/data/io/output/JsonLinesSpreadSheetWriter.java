@@ -0,0 +1,366 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * JsonLinesSpreadSheetWriter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.io.output;
+
+import adams.data.io.input.JsonLinesSpreadSheetReader;
+import adams.data.io.input.SpreadSheetReader;
+import adams.data.spreadsheet.Cell;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import net.minidev.json.JSONValue;
+
+import java.io.Writer;
+import java.util.logging.Level;
+
+/**
+ <!-- globalinfo-start -->
+ * Writes spreadsheets in JSON Lines format, i.e., one JSON object per row. Missing values are omitted.<br>
+ * When appending, the rows get written straight to the file without the need to load the existing content.
+ * <br><br>
+ <!-- globalinfo-end -->
+ *
+ <!-- options-start -->
+ * <pre>-logging-level &lt;OFF|SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST&gt; (property: loggingLevel)
+ * &nbsp;&nbsp;&nbsp;The logging level for outputting errors and debugging output.
+ * &nbsp;&nbsp;&nbsp;default: WARNING
+ * </pre>
+ *
+ * <pre>-encoding &lt;adams.core.base.BaseCharset&gt; (property: encoding)
+ * &nbsp;&nbsp;&nbsp;The type of encoding to use when writing using a writer, use 'Default'
+ * &nbsp;&nbsp;&nbsp;for default.
+ * &nbsp;&nbsp;&nbsp;default: Default
+ * </pre>
+ *
+ * <pre>-appending &lt;boolean&gt; (property: appending)
+ * &nbsp;&nbsp;&nbsp;If enabled, multiple spreadsheets with the same structure can be written
+ * &nbsp;&nbsp;&nbsp;to the same file.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ * <pre>-keep-existing &lt;boolean&gt; (property: keepExisting)
+ * &nbsp;&nbsp;&nbsp;If enabled, any output file that exists when the writer is executed for
+ * &nbsp;&nbsp;&nbsp;the first time won't get replaced with the current header; useful when outputting
+ * &nbsp;&nbsp;&nbsp;data in multiple locations in the flow, but one needs to be cautious as to
+ * &nbsp;&nbsp;&nbsp;not stored mixed content (eg varying number of columns, etc).
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ <!-- options-end -->
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class JsonLinesSpreadSheetWriter
+  extends AbstractSpreadSheetWriter
+  implements AppendableSpreadSheetWriter {
+
+  private static final long serialVersionUID = -3021488532741402453L;
+
+  /** whether to append spreadsheets. */
+  protected boolean m_Appending;
+
+  /** the header of the first spreadsheet written to file, if appending is active. */
+  protected SpreadSheet m_Header;
+
+  /** whether to keep existing files the first time the writer is called. */
+  protected boolean m_KeepExisting;
+
+  /** whether the file already exists. */
+  protected boolean m_FileExists;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return
+      "Writes spreadsheets in JSON Lines format, i.e., one JSON object per row. "
+	+ "Missing values are omitted.\n"
+	+ "When appending, the rows get written straight to the file without "
+	+ "the need to load the existing content.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "appending", "appending",
+      false);
+
+    m_OptionManager.add(
+      "keep-existing", "keepExisting",
+      false);
+  }
+
+  /**
+   * Initializes the members.
+   */
+  @Override
+  protected void initialize() {
+    super.initialize();
+
+    m_Header     = null;
+    m_FileExists = false;
+  }
+
+  /**
+   * Resets the writer.
+   */
+  @Override
+  public void reset() {
+    super.reset();
+
+    m_Header     = null;
+    m_FileExists = false;
+  }
+
+  /**
+   * Returns a string describing the format (used in the file chooser).
+   *
+   * @return 			a description suitable for displaying in the
+   * 				file chooser
+   */
+  @Override
+  public String getFormatDescription() {
+    return "JSON Lines";
+  }
+
+  /**
+   * Returns the extension(s) of the format.
+   *
+   * @return 			the extension (without the dot!)
+   */
+  @Override
+  public String[] getFormatExtensions() {
+    return new String[]{"jsonl", "ndjson"};
+  }
+
+  /**
+   * Returns, if available, the corresponding reader.
+   *
+   * @return		the reader, null if none available
+   */
+  @Override
+  public SpreadSheetReader getCorrespondingReader() {
+    return new JsonLinesSpreadSheetReader();
+  }
+
+  /**
+   * Checks whether we can append the specified spreadsheet to the existing
+   * file.
+   *
+   * @param sheet	the spreadsheet to append to the existing one
+   * @return		true if appending is possible
+   */
+  @Override
+  public boolean canAppend(SpreadSheet sheet) {
+    if (m_Header == null)
+      return m_KeepExisting;
+    return (m_Header.equalsHeader(sheet) == null);
+  }
+
+  /**
+   * Sets whether the next write call is to append the data to the existing
+   * file.
+   *
+   * @param value	true if to append
+   */
+  @Override
+  public void setAppending(boolean value) {
+    m_Appending = value;
+    reset();
+  }
+
+  /**
+   * Returns whether the next spreadsheet will get appended.
+   *
+   * @return		true if append is active
+   */
+  @Override
+  public boolean isAppending() {
+    return m_Appending;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   *         		displaying in the explorer/experimenter gui
+   */
+  @Override
+  public String appendingTipText() {
+    return "If enabled, multiple spreadsheets with the same structure can be written to the same file.";
+  }
+
+  /**
+   * Sets whether to keep any existing file on first execution.
+   *
+   * @param value	if true then existing file is kept
+   */
+  @Override
+  public void setKeepExisting(boolean value) {
+    m_KeepExisting = value;
+    reset();
+  }
+
+  /**
+   * Returns whether any existing file is kept on first execution.
+   *
+   * @return		true if existing file is kept
+   */
+  @Override
+  public boolean getKeepExisting() {
+    return m_KeepExisting;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  @Override
+  public String keepExistingTipText() {
+    return
+        "If enabled, any output file that exists when the writer is executed "
+      + "for the first time won't get replaced with the current header; "
+      + "useful when outputting data in multiple locations in the flow, but "
+      + "one needs to be cautious as to not stored mixed content (eg varying "
+      + "number of columns, etc).";
+  }
+
+  /**
+   * Sets whether the output file already exists.
+   *
+   * @param value	true if the output file already exists
+   */
+  @Override
+  public void setFileExists(boolean value) {
+    m_FileExists = value;
+  }
+
+  /**
+   * Returns whether the output file already exists.
+   *
+   * @return		true if the output file already exists
+   */
+  @Override
+  public boolean getFileExists() {
+    return m_FileExists;
+  }
+
+  /**
+   * Returns how the data is written.
+   *
+   * @return		the type
+   */
+  @Override
+  protected OutputType getOutputType() {
+    return OutputType.WRITER;
+  }
+
+  /**
+   * Turns the cell into a JSON value.
+   *
+   * @param cell	the cell to convert
+   * @return		the value
+   */
+  protected Object toValue(Cell cell) {
+    if (cell.isFormula())
+      return cell.toDouble();
+
+    switch (cell.getContentType()) {
+      case LONG:
+	return cell.toLong();
+      case DOUBLE:
+	return cell.toDouble();
+      case BOOLEAN:
+	return cell.toBoolean();
+      default:
+	return cell.getContent();
+    }
+  }
+
+  /**
+   * Performs the actual writing. The caller must ensure that the writer gets
+   * closed.
+   *
+   * @param content	the spreadsheet to write
+   * @param writer	the writer to write the spreadsheet to
+   * @return		true if successfully written
+   */
+  @Override
+  protected boolean doWrite(SpreadSheet content, Writer writer) {
+    boolean		result;
+    Row			header;
+    String[]		names;
+    StringBuilder	line;
+    Cell		cell;
+    int			i;
+
+    result = true;
+
+    try {
+      // keep header as reference
+      if ((m_Header == null) && m_Appending)
+	m_Header = content.getHeader();
+
+      header = content.getHeaderRow();
+      names  = new String[content.getColumnCount()];
+      for (i = 0; i < names.length; i++)
+	names[i] = JSONValue.toJSONString(header.getCell(i).getContent()) + ":";
+
+      // keys are output in column order
+      line = new StringBuilder();
+      for (Row row: content.rows()) {
+	if (m_Stopped)
+	  return false;
+
+	line.setLength(0);
+	line.append("{");
+	for (i = 0; i < names.length; i++) {
+	  if (!row.hasCell(i))
+	    continue;
+	  cell = row.getCell(i);
+	  if ((cell == null) || cell.isMissing())
+	    continue;
+	  if (line.length() > 1)
+	    line.append(",");
+	  line.append(names[i]);
+	  line.append(JSONValue.toJSONString(toValue(cell)));
+	}
+	line.append("}\n");
+	writer.write(line.toString());
+      }
+    }
+    catch (Exception e) {
+      result = false;
+      getLogger().log(Level.SEVERE, "Failed to write data!", e);
+    }
+
+    return result;
+  }
+}
@@ -15,11 +15,12 @@
 
 /*
  * JsonHelper.java
- * Copyright (C) 2020-2022 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package adams.data.json;
 
+import adams.core.Utils;
 import adams.core.io.FileUtils;
 import adams.core.logging.LoggingSupporter;
 import com.google.gson.GsonBuilder;
@@ -38,6 +39,7 @@ import java.io.StringReader;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -286,4 +288,94 @@ public class JsonHelper {
 
     return result;
   }
+
+  /**
+   * Flattens the JSON array, using "[index]" for the elements.
+   *
+   * @param path	the current path, null for the root
+   * @param json	the array to flatten
+   * @param prefix	the prefix for the keys
+   * @param leftPad	whether to left-pad the indices with zeroes
+   * @param result	for storing the key-value pairs
+   */
+  protected static void flatten(String path, JSONArray json, String prefix, boolean leftPad, Map<String,Object> result) {
+    int		i;
+    int		digits;
+    String	newPath;
+
+    digits = Integer.toString(json.size() - 1).length();
+    for (i = 0; i < json.size(); i++) {
+      newPath = "[" + (leftPad ? Utils.padLeft("" + i, '0', digits) : ("" + i)) + "]";
+      if (path != null)
+	newPath = path + newPath;
+      else
+	newPath = prefix + newPath;
+      flatten(newPath, json.get(i), prefix, leftPad, result);
+    }
+  }
+
+  /**
+   * Flattens the JSON object, using "." to separate the keys.
+   *
+   * @param path	the current path, null for the root
+   * @param json	the object to flatten
+   * @param prefix	the prefix for the keys
+   * @param leftPad	whether to left-pad the indices with zeroes
+   * @param result	for storing the key-value pairs
+   */
+  protected static void flatten(String path, JSONObject json, String prefix, boolean leftPad, Map<String,Object> result) {
+    String	newPath;
+
+    for (String key: json.keySet()) {
+      if (path != null)
+	newPath = path + "." + key;
+      else
+	newPath = prefix + key;
+      flatten(newPath, json.get(key), prefix, leftPad, result);
+    }
+  }
+
+  /**
+   * Flattens the value, if necessary.
+   *
+   * @param path	the path of the value
+   * @param value	the value to flatten
+   * @param prefix	the prefix for the keys
+   * @param leftPad	whether to left-pad the indices with zeroes
+   * @param result	for storing the key-value pairs
+   */
+  protected static void flatten(String path, Object value, String prefix, boolean leftPad, Map<String,Object> result) {
+    if (value instanceof JSONObject)
+      flatten(path, (JSONObject) value, prefix, leftPad, result);
+    else if (value instanceof JSONArray)
+      flatten(path, (JSONArray) value, prefix, leftPad, result);
+    else
+      result.put(path, value);
+  }
+
+  /**
+   * Flattens the JSON structure into key-value pairs, using the same naming
+   * scheme as {@link adams.data.conversion.JsonToSpreadSheet}: "." separates
+   * nested keys and "[index]" denotes array elements.
+   *
+   * @param json	the object or array to flatten
+   * @param prefix	the prefix for the keys
+   * @param leftPad	whether to left-pad the indices with zeroes
+   * @return		the key-value pairs, in order of occurrence
+   */
+  public static Map<String,Object> flatten(JSONAware json, String prefix, boolean leftPad) {
+    Map<String,Object>	result;
+
+    result = new LinkedHashMap<>();
+    if (prefix == null)
+      prefix = "";
+    if (json instanceof JSONObject)
+      flatten(null, (JSONObject) json, prefix, leftPad, result);
+    else if (json instanceof JSONArray)
+      flatten(null, (JSONArray) json, prefix, leftPad, result);
+    else
+      throw new IllegalArgumentException("Cannot flatten: " + json.getClass().getName());
+
+    return result;
+  }
 }
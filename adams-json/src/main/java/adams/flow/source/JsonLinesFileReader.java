@@ -0,0 +1,619 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * JsonLinesFileReader.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.flow.source;
+
+import adams.core.QuickInfoHelper;
+import adams.core.base.BaseCharset;
+import adams.core.io.EncodingSupporter;
+import adams.core.io.FileUtils;
+import adams.core.io.GzipUtils;
+import adams.core.io.PlaceholderFile;
+import adams.data.json.JsonHelper;
+import adams.data.report.DataType;
+import adams.data.report.Field;
+import adams.data.report.Report;
+import adams.flow.core.Token;
+import net.minidev.json.JSONAware;
+import net.minidev.json.JSONObject;
+import net.minidev.json.parser.JSONParser;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ <!-- globalinfo-start -->
+ * Reads a file in JSON Lines format (one JSON object per line) and forwards one Report or Map per line.<br>
+ * Only a single line is held in memory at a time, making it suitable for very large files. Files ending in .gz get decompressed on the fly.
+ * <br><br>
+ <!-- globalinfo-end -->
+ *
+ <!-- flow-summary-start -->
+ * Input&#47;output:<br>
+ * - generates:<br>
+ * &nbsp;&nbsp;&nbsp;java.util.Map<br>
+ * <br><br>
+ <!-- flow-summary-end -->
+ *
+ <!-- options-start -->
+ * <pre>-logging-level &lt;OFF|SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST&gt; (property: loggingLevel)
+ * &nbsp;&nbsp;&nbsp;The logging level for outputting errors and debugging output.
+ * &nbsp;&nbsp;&nbsp;default: WARNING
+ * </pre>
+ *
+ * <pre>-name &lt;java.lang.String&gt; (property: name)
+ * &nbsp;&nbsp;&nbsp;The name of the actor.
+ * &nbsp;&nbsp;&nbsp;default: JsonLinesFileReader
+ * </pre>
+ *
+ * <pre>-annotation &lt;adams.core.base.BaseAnnotation&gt; (property: annotations)
+ * &nbsp;&nbsp;&nbsp;The annotations to attach to this actor.
+ * &nbsp;&nbsp;&nbsp;default:
+ * </pre>
+ *
+ * <pre>-skip &lt;boolean&gt; (property: skip)
+ * &nbsp;&nbsp;&nbsp;If set to true, transformation is skipped and the input token is just forwarded
+ * &nbsp;&nbsp;&nbsp;as it is.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ * <pre>-stop-flow-on-error &lt;boolean&gt; (property: stopFlowOnError)
+ * &nbsp;&nbsp;&nbsp;If set to true, the flow execution at this level gets stopped in case this
+ * &nbsp;&nbsp;&nbsp;actor encounters an error; the error gets propagated; useful for critical
+ * &nbsp;&nbsp;&nbsp;actors.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ * <pre>-silent &lt;boolean&gt; (property: silent)
+ * &nbsp;&nbsp;&nbsp;If enabled, then no errors are output in the console; Note: the enclosing
+ * &nbsp;&nbsp;&nbsp;actor handler must have this enabled as well.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ * <pre>-file &lt;adams.core.io.PlaceholderFile&gt; (property: file)
+ * &nbsp;&nbsp;&nbsp;The JSON Lines file to read.
+ * &nbsp;&nbsp;&nbsp;default: ${CWD}
+ * </pre>
+ *
+ * <pre>-encoding &lt;adams.core.base.BaseCharset&gt; (property: encoding)
+ * &nbsp;&nbsp;&nbsp;The type of encoding to use when reading the file, use empty string for
+ * &nbsp;&nbsp;&nbsp;default.
+ * &nbsp;&nbsp;&nbsp;default: Default
+ * </pre>
+ *
+ * <pre>-output-type &lt;MAP|REPORT&gt; (property: outputType)
+ * &nbsp;&nbsp;&nbsp;The type of object to forward for each line.
+ * &nbsp;&nbsp;&nbsp;default: MAP
+ * </pre>
+ *
+ * <pre>-flatten &lt;boolean&gt; (property: flatten)
+ * &nbsp;&nbsp;&nbsp;If enabled, nested objects and arrays get flattened into keys, using '.'
+ * &nbsp;&nbsp;&nbsp;to separate keys and '[index]' for array elements; reports are always flattened.
+ * &nbsp;&nbsp;&nbsp;default: true
+ * </pre>
+ *
+ * <pre>-prefix &lt;java.lang.String&gt; (property: prefix)
+ * &nbsp;&nbsp;&nbsp;The prefix to use for the flattened keys.
+ * &nbsp;&nbsp;&nbsp;default:
+ * </pre>
+ *
+ * <pre>-skip-invalid &lt;boolean&gt; (property: skipInvalid)
+ * &nbsp;&nbsp;&nbsp;If enabled, lines that cannot be parsed get skipped rather than stopping
+ * &nbsp;&nbsp;&nbsp;the reading process.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ <!-- options-end -->
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class JsonLinesFileReader
+  extends AbstractSource
+  implements EncodingSupporter {
+
+  private static final long serialVersionUID = -6019364102738125548L;
+
+  /**
+   * The type of object to generate.
+   */
+  public enum OutputType {
+    MAP,
+    REPORT
+  }
+
+  /** the file to read. */
+  protected PlaceholderFile m_File;
+
+  /** the encoding to use. */
+  protected BaseCharset m_Encoding;
+
+  /** the output type. */
+  protected OutputType m_OutputType;
+
+  /** whether to flatten the objects. */
+  protected boolean m_Flatten;
+
+  /** the prefix for the flattened keys. */
+  protected String m_Prefix;
+
+  /** whether to skip lines that cannot be parsed. */
+  protected boolean m_SkipInvalid;
+
+  /** the reader in use. */
+  protected transient BufferedReader m_Reader;
+
+  /** the parser in use. */
+  protected transient JSONParser m_Parser;
+
+  /** the next object to output. */
+  protected Object m_Next;
+
+  /** the current line number. */
+  protected long m_LineNo;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return
+      "Reads a file in JSON Lines format (one JSON object per line) and "
+	+ "forwards one Report or Map per line.\n"
+	+ "Only a single line is held in memory at a time, making it suitable "
+	+ "for very large files. Files ending in " + GzipUtils.EXTENSION + " get "
+	+ "decompressed on the fly.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "file", "file",
+      new PlaceholderFile("."));
+
+    m_OptionManager.add(
+      "encoding", "encoding",
+      new BaseCharset());
+
+    m_OptionManager.add(
+      "output-type", "outputType",
+      OutputType.MAP);
+
+    m_OptionManager.add(
+      "flatten", "flatten",
+      true);
+
+    m_OptionManager.add(
+      "prefix", "prefix",
+      "");
+
+    m_OptionManager.add(
+      "skip-invalid", "skipInvalid",
+      false);
+  }
+
+  /**
+   * Resets the scheme.
+   */
+  @Override
+  protected void reset() {
+    super.reset();
+
+    closeReader();
+  }
+
+  /**
+   * Sets the file to read.
+   *
+   * @param value	the file
+   */
+  public void setFile(PlaceholderFile value) {
+    m_File = value;
+    reset();
+  }
+
+  /**
+   * Returns the file to read.
+   *
+   * @return		the file
+   */
+  public PlaceholderFile getFile() {
+    return m_File;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String fileTipText() {
+    return "The JSON Lines file to read.";
+  }
+
+  /**
+   * Sets the encoding to use.
+   *
+   * @param value	the encoding, e.g. "UTF-8" or "UTF-16", empty string for default
+   */
+  @Override
+  public void setEncoding(BaseCharset value) {
+    m_Encoding = value;
+    reset();
+  }
+
+  /**
+   * Returns the encoding to use.
+   *
+   * @return		the encoding, e.g. "UTF-8" or "UTF-16", empty string for default
+   */
+  @Override
+  public BaseCharset getEncoding() {
+    return m_Encoding;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  @Override
+  public String encodingTipText() {
+    return "The type of encoding to use when reading the file, use empty string for default.";
+  }
+
+  /**
+   * Sets the type of object to generate.
+   *
+   * @param value	the type
+   */
+  public void setOutputType(OutputType value) {
+    m_OutputType = value;
+    reset();
+  }
+
+  /**
+   * Returns the type of object to generate.
+   *
+   * @return		the type
+   */
+  public OutputType getOutputType() {
+    return m_OutputType;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String outputTypeTipText() {
+    return "The type of object to forward for each line.";
+  }
+
+  /**
+   * Sets whether to flatten nested objects and arrays.
+   *
+   * @param value	true if to flatten
+   */
+  public void setFlatten(boolean value) {
+    m_Flatten = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to flatten nested objects and arrays.
+   *
+   * @return		true if to flatten
+   */
+  public boolean getFlatten() {
+    return m_Flatten;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String flattenTipText() {
+    return
+      "If enabled, nested objects and arrays get flattened into keys, using "
+	+ "'.' to separate keys and '[index]' for array elements; reports are "
+	+ "always flattened.";
+  }
+
+  /**
+   * Sets the prefix to use for the flattened keys.
+   *
+   * @param value	the prefix
+   */
+  public void setPrefix(String value) {
+    m_Prefix = value;
+    reset();
+  }
+
+  /**
+   * Returns the prefix to use for the flattened keys.
+   *
+   * @return		the prefix
+   */
+  public String getPrefix() {
+    return m_Prefix;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String prefixTipText() {
+    return "The prefix to use for the flattened keys.";
+  }
+
+  /**
+   * Sets whether to skip lines that cannot be parsed.
+   *
+   * @param value	true if to skip
+   */
+  public void setSkipInvalid(boolean value) {
+    m_SkipInvalid = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to skip lines that cannot be parsed.
+   *
+   * @return		true if to skip
+   */
+  public boolean getSkipInvalid() {
+    return m_SkipInvalid;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String skipInvalidTipText() {
+    return "If enabled, lines that cannot be parsed get skipped rather than stopping the reading process.";
+  }
+
+  /**
+   * Returns a quick info about the actor, which will be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result  = QuickInfoHelper.toString(this, "file", m_File);
+    result += QuickInfoHelper.toString(this, "outputType", m_OutputType, ", output: ");
+    result += QuickInfoHelper.toString(this, "flatten", m_Flatten, "flatten", ", ");
+
+    return result;
+  }
+
+  /**
+   * Returns the class of objects that it generates.
+   *
+   * @return		the generated classes
+   */
+  @Override
+  public Class[] generates() {
+    switch (m_OutputType) {
+      case MAP:
+	return new Class[]{Map.class};
+      case REPORT:
+	return new Class[]{Report.class};
+      default:
+	throw new IllegalStateException("Unhandled output type: " + m_OutputType);
+    }
+  }
+
+  /**
+   * Closes the reader, if necessary.
+   */
+  protected void closeReader() {
+    if (m_Reader != null) {
+      FileUtils.closeQuietly(m_Reader);
+      m_Reader = null;
+    }
+    m_Next = null;
+  }
+
+  /**
+   * Turns the flattened key-value pairs into a report.
+   *
+   * @param values	the key-value pairs
+   * @return		the report
+   */
+  protected Report toReport(Map<String,Object> values) {
+    Report	result;
+    Field	field;
+    Object	value;
+
+    result = new Report();
+    for (String key: values.keySet()) {
+      value = values.get(key);
+      if (value == null)
+	continue;
+      if (value instanceof Boolean) {
+	field = new Field(key, DataType.BOOLEAN);
+	result.addField(field);
+	result.setBooleanValue(field.getName(), (Boolean) value);
+      }
+      else if (value instanceof Number) {
+	field = new Field(key, DataType.NUMERIC);
+	result.addField(field);
+	result.setNumericValue(field.getName(), ((Number) value).doubleValue());
+      }
+      else {
+	field = new Field(key, DataType.STRING);
+	result.addField(field);
+	result.setStringValue(field.getName(), value.toString());
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Reads the next line and converts it into the output object.
+   *
+   * @return		the object, null if no more data available
+   * @throws Exception	if reading or parsing fails
+   */
+  protected Object readNext() throws Exception {
+    String	line;
+    Object	json;
+
+    while (m_Reader != null) {
+      line = m_Reader.readLine();
+      if (line == null) {
+	closeReader();
+	break;
+      }
+      m_LineNo++;
+      line = line.trim();
+      if (line.isEmpty())
+	continue;
+
+      try {
+	json = m_Parser.parse(line);
+	if (!(json instanceof JSONAware))
+	  throw new IllegalStateException("Expected JSON object or array, but got: " + line);
+      }
+      catch (Exception e) {
+	if (!m_SkipInvalid)
+	  throw new IllegalStateException("Failed to parse line #" + m_LineNo + " of " + m_File + "!", e);
+	getLogger().warning("Skipping invalid line #" + m_LineNo + ": " + e);
+	continue;
+      }
+
+      switch (m_OutputType) {
+	case MAP:
+	  if (!m_Flatten && (json instanceof JSONObject))
+	    return JsonHelper.toMap((JSONObject) json, true);
+	  return JsonHelper.flatten((JSONAware) json, m_Prefix, false);
+	case REPORT:
+	  return toReport(JsonHelper.flatten((JSONAware) json, m_Prefix, false));
+	default:
+	  throw new IllegalStateException("Unhandled output type: " + m_OutputType);
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Executes the flow item.
+   *
+   * @return		null if everything is fine, otherwise error message
+   */
+  @Override
+  protected String doExecute() {
+    String	result;
+    InputStream	in;
+
+    result = null;
+    closeReader();
+
+    try {
+      in = new FileInputStream(m_File.getAbsoluteFile());
+      if (m_File.getName().endsWith(GzipUtils.EXTENSION))
+	in = new GZIPInputStream(in);
+      m_Reader = new BufferedReader(new InputStreamReader(in, m_Encoding.charsetValue()));
+      m_Parser = new JSONParser(JSONParser.MODE_JSON_SIMPLE);
+      m_LineNo = 0;
+      m_Next   = readNext();
+    }
+    catch (Exception e) {
+      closeReader();
+      result = handleException("Failed to read: " + m_File, e);
+    }
+
+    return result;
+  }
+
+  /**
+   * Checks whether there is pending output to be collected after
+   * executing the flow item.
+   *
+   * @return		true if there is pending output
+   */
+  @Override
+  public boolean hasPendingOutput() {
+    return (m_Next != null);
+  }
+
+  /**
+   * Returns the generated token.
+   *
+   * @return		the generated token
+   */
+  @Override
+  public Token output() {
+    Token	result;
+
+    result = new Token(m_Next);
+    try {
+      m_Next = readNext();
+    }
+    catch (Exception e) {
+      closeReader();
+      handleException("Failed to read: " + m_File, e);
+    }
+
+    return result;
+  }
+
+  /**
+   * Stops the execution. No message set.
+   */
+  @Override
+  public void stopExecution() {
+    closeReader();
+    super.stopExecution();
+  }
+
+  /**
+   * Cleans up after the execution has finished.
+   */
+  @Override
+  public void wrapUp() {
+    closeReader();
+    super.wrapUp();
+  }
+}
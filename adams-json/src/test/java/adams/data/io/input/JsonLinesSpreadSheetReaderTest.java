@@ -0,0 +1,97 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * JsonLinesSpreadSheetReaderTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+package adams.data.io.input;
+
+import adams.env.Environment;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Tests the adams.data.io.input.JsonLinesSpreadSheetReader class. Run from commandline with: <br><br>
+ * java adams.data.io.input.JsonLinesSpreadSheetReaderTest
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class JsonLinesSpreadSheetReaderTest
+  extends AbstractSpreadSheetReaderTestCase {
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public JsonLinesSpreadSheetReaderTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Returns the filenames (without path) of the input data files to use
+   * in the regression test.
+   *
+   * @return		the filenames
+   */
+  @Override
+  protected String[] getRegressionInputFiles() {
+    return new String[]{
+      "events.jsonl",
+      "events.jsonl",
+      "events.jsonl",
+    };
+  }
+
+  /**
+   * Returns the setups to use in the regression test.
+   *
+   * @return		the setups
+   */
+  @Override
+  protected SpreadSheetReader[] getRegressionSetups() {
+    JsonLinesSpreadSheetReader[]	result;
+
+    result = new JsonLinesSpreadSheetReader[3];
+    result[0] = new JsonLinesSpreadSheetReader();
+    result[1] = new JsonLinesSpreadSheetReader();
+    result[1].setInferRows(1);
+    result[1].setPrefix("event.");
+    result[2] = new JsonLinesSpreadSheetReader();
+    result[2].setInferRows(2);
+    result[2].setChunkSize(2);
+
+    return result;
+  }
+
+  /**
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(JsonLinesSpreadSheetReaderTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(Environment.class);
+    runTest(suite());
+  }
+}
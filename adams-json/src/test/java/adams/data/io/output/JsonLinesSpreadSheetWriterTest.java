@@ -0,0 +1,109 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * JsonLinesSpreadSheetWriterTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+package adams.data.io.output;
+
+import adams.env.Environment;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Tests the adams.data.io.output.JsonLinesSpreadSheetWriter class. Run from commandline with: <br><br>
+ * java adams.data.io.output.JsonLinesSpreadSheetWriterTest
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class JsonLinesSpreadSheetWriterTest
+  extends AbstractSpreadSheetWriterTestCase {
+
+  /**
+   * Constructs the test case. Called by subclasses.
+   *
+   * @param name the name of the test
+   */
+  public JsonLinesSpreadSheetWriterTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Returns the filenames (without path) of the input data files to use
+   * in the setup tests.
+   *
+   * @return		the filenames
+   */
+  @Override
+  protected String[] getInputFiles() {
+    return new String[]{
+      "events.csv",
+    };
+  }
+
+  /**
+   * Returns the filenames (without path) of the output data files to use
+   * in the setup tests.
+   *
+   * @return		the filenames
+   */
+  @Override
+  protected String[] getOutputFiles() {
+    return new String[]{
+      "events.jsonl",
+    };
+  }
+
+  /**
+   * Returns the setups to use in the setup tests.
+   *
+   * @return		the setups
+   */
+  @Override
+  protected SpreadSheetWriter[] getSetups() {
+    return new SpreadSheetWriter[]{
+      new JsonLinesSpreadSheetWriter(),
+    };
+  }
+
+  /**
+   * Returns whether a regression can be run.
+   *
+   * @return		always true
+   */
+  @Override
+  protected boolean hasRegressionTest() {
+    return true;
+  }
+
+  /**
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(JsonLinesSpreadSheetWriterTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(Environment.class);
+    runTest(suite());
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * SpreadSheetToImmutable.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.conversion;
+
+import adams.core.QuickInfoHelper;
+import adams.data.spreadsheet.ImmutableSpreadSheet;
+import adams.data.spreadsheet.SpreadSheet;
+
+/**
+ <!-- globalinfo-start -->
+ * Turns the spreadsheet into a read-only one, which gets shared rather than copied when passed on to multiple branches or threads (e.g., by adams.flow.control.Branch or adams.flow.control.Tee with copying of the input enabled).
+ * <br><br>
+ <!-- globalinfo-end -->
+ *
+ <!-- options-start -->
+ * <pre>-logging-level &lt;OFF|SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST&gt; (property: loggingLevel)
+ * &nbsp;&nbsp;&nbsp;The logging level for outputting errors and debugging output.
+ * &nbsp;&nbsp;&nbsp;default: WARNING
+ * </pre>
+ *
+ * <pre>-copy &lt;boolean&gt; (property: copy)
+ * &nbsp;&nbsp;&nbsp;If enabled, the read-only spreadsheet uses a copy of the incoming one; 
+ * &nbsp;&nbsp;&nbsp;otherwise it wraps the incoming spreadsheet, which must not get modified 
+ * &nbsp;&nbsp;&nbsp;elsewhere in the flow afterwards.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ <!-- options-end -->
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class SpreadSheetToImmutable
+  extends AbstractSpreadSheetConversion {
+
+  private static final long serialVersionUID = -3218404934871552137L;
+
+  /** whether to copy the spreadsheet. */
+  protected boolean m_Copy;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return
+      "Turns the spreadsheet into a read-only one, which gets shared rather "
+	+ "than copied when passed on to multiple branches or threads (e.g., by "
+	+ "adams.flow.control.Branch or adams.flow.control.Tee with copying of "
+	+ "the input enabled).";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "copy", "copy",
+      false);
+  }
+
+  /**
+   * Sets whether to copy the incoming spreadsheet.
+   *
+   * @param value	true if to copy
+   */
+  public void setCopy(boolean value) {
+    m_Copy = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to copy the incoming spreadsheet.
+   *
+   * @return		true if to copy
+   */
+  public boolean getCopy() {
+    return m_Copy;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String copyTipText() {
+    return
+      "If enabled, the read-only spreadsheet uses a copy of the incoming one; "
+	+ "otherwise it wraps the incoming spreadsheet, which must not get "
+	+ "modified elsewhere in the flow afterwards.";
+  }
+
+  /**
+   * Returns a quick info about the object, which can be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    return QuickInfoHelper.toString(this, "copy", m_Copy, "copy");
+  }
+
+  /**
+   * Generates the new spreadsheet from the input.
+   *
+   * @param input	the incoming spreadsheet
+   * @return		the generated spreadsheet
+   * @throws Exception	if conversion fails for some reason
+   */
+  @Override
+  protected SpreadSheet convert(SpreadSheet input) throws Exception {
+    return ImmutableSpreadSheet.toImmutable(input, m_Copy);
+  }
+}
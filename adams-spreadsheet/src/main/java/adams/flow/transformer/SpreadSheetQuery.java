@@ -15,17 +15,19 @@
 
 /**
  * SpreadSheetQuery.java
- * Copyright (C) 2013-2015 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2013-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.flow.transformer;
 
+import adams.core.LRUCache;
 import adams.core.QuickInfoHelper;
 import adams.core.Shortening;
-import adams.core.Utils;
 import adams.data.spreadsheet.SpreadSheet;
 import adams.flow.core.Token;
 import adams.parser.GrammarSupplier;
 import adams.parser.SpreadSheetQueryText;
+import adams.parser.spreadsheetquery.QueryIndex;
+import adams.parser.spreadsheetquery.QueryPlan;
 
 import java.util.HashMap;
 
@@ -181,6 +183,20 @@ import java.util.HashMap;
  * &nbsp;&nbsp;&nbsp;default: SELECT *
  * </pre>
  * 
+ * <pre>-plan-cache-size &lt;int&gt; (property: planCacheSize)
+ * &nbsp;&nbsp;&nbsp;The maximum number of compiled queries to keep (with variables expanded);
+ * &nbsp;&nbsp;&nbsp; 0 disables the cache.
+ * &nbsp;&nbsp;&nbsp;default: 100
+ * &nbsp;&nbsp;&nbsp;minimum: 0
+ * </pre>
+ * 
+ * <pre>-use-index &lt;boolean&gt; (property: useIndex)
+ * &nbsp;&nbsp;&nbsp;If enabled, column indexes are built and re-used as long as the same spreadsheet 
+ * &nbsp;&nbsp;&nbsp;object (with the same number of rows) is being queried; the spreadsheet 
+ * &nbsp;&nbsp;&nbsp;must not get modified in between.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
@@ -195,6 +211,18 @@ public class SpreadSheetQuery
 
   /** for query to execute. */
   protected SpreadSheetQueryText m_Query;
+
+  /** the maximum number of compiled queries to cache. */
+  protected int m_PlanCacheSize;
+
+  /** whether to index the spreadsheet. */
+  protected boolean m_UseIndex;
+
+  /** the compiled queries (expanded query - plan). */
+  protected transient LRUCache<String,QueryPlan> m_Plans;
+
+  /** the index of the last spreadsheet. */
+  protected transient QueryIndex m_Index;
   
   /**
    * Returns a string describing the object.
@@ -221,6 +249,25 @@ public class SpreadSheetQuery
     m_OptionManager.add(
 	    "query", "query",
 	    new SpreadSheetQueryText("SELECT *"));
+
+    m_OptionManager.add(
+	    "plan-cache-size", "planCacheSize",
+	    100, 0, null);
+
+    m_OptionManager.add(
+	    "use-index", "useIndex",
+	    false);
+  }
+
+  /**
+   * Resets the scheme.
+   */
+  @Override
+  protected void reset() {
+    super.reset();
+
+    m_Plans = null;
+    m_Index = null;
   }
 
   /**
@@ -270,6 +317,96 @@ public class SpreadSheetQuery
   public String queryTipText() {
     return "The query to execute.";
   }
+
+  /**
+   * Sets the maximum number of compiled queries to cache.
+   *
+   * @param value	the size, 0 to disable
+   */
+  public void setPlanCacheSize(int value) {
+    if (getOptionManager().isValid("planCacheSize", value)) {
+      m_PlanCacheSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the maximum number of compiled queries to cache.
+   *
+   * @return		the size, 0 if disabled
+   */
+  public int getPlanCacheSize() {
+    return m_PlanCacheSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String planCacheSizeTipText() {
+    return "The maximum number of compiled queries to keep (with variables expanded); 0 disables the cache.";
+  }
+
+  /**
+   * Sets whether to build and re-use column indexes.
+   *
+   * @param value	true if to use indexes
+   */
+  public void setUseIndex(boolean value) {
+    m_UseIndex = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to build and re-use column indexes.
+   *
+   * @return		true if to use indexes
+   */
+  public boolean getUseIndex() {
+    return m_UseIndex;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String useIndexTipText() {
+    return
+      "If enabled, column indexes are built and re-used as long as the same "
+	+ "spreadsheet object (with the same number of rows) is being queried; "
+	+ "the spreadsheet must not get modified in between.";
+  }
+
+  /**
+   * Returns the compiled query, either from the cache or freshly compiled.
+   *
+   * @param query	the expanded query
+   * @return		the plan
+   * @throws Exception	if compiling fails
+   */
+  protected QueryPlan getPlan(String query) throws Exception {
+    QueryPlan	result;
+
+    if (m_PlanCacheSize == 0)
+      return adams.parser.SpreadSheetQuery.compile(query, new HashMap());
+
+    if (m_Plans == null)
+      m_Plans = new LRUCache<>(m_PlanCacheSize);
+
+    result = m_Plans.get(query);
+    if (result == null) {
+      result = adams.parser.SpreadSheetQuery.compile(query, new HashMap());
+      m_Plans.put(query, result);
+      if (isLoggingEnabled())
+	getLogger().info("Compiled: " + result);
+    }
+
+    return result;
+  }
   
   /**
    * Executes the flow item.
@@ -280,6 +417,7 @@ public class SpreadSheetQuery
   protected String doExecute() {
     String	result;
     String	query;
+    SpreadSheet	input;
     SpreadSheet	sheet;
     
     result = null;
@@ -293,9 +431,17 @@ public class SpreadSheetQuery
     if (isLoggingEnabled())
       getLogger().info("--> expanded: " + query);
     
+    input = (SpreadSheet) m_InputToken.getPayload();
     sheet = null;
     try {
-      sheet = adams.parser.SpreadSheetQuery.evaluate(query, new HashMap(), (SpreadSheet) m_InputToken.getPayload());
+      if (m_UseIndex) {
+	if ((m_Index == null) || !m_Index.isApplicable(input))
+	  m_Index = new QueryIndex(input);
+	sheet = getPlan(query).execute(input, m_Index);
+      }
+      else {
+	sheet = getPlan(query).execute(input);
+      }
     }
     catch (Exception e) {
       result = handleException("Failed to evaluate query: " + query, e);
@@ -306,4 +452,15 @@ public class SpreadSheetQuery
     
     return result;
   }
+
+  /**
+   * Cleans up after the execution has finished.
+   */
+  @Override
+  public void wrapUp() {
+    m_Plans = null;
+    m_Index = null;
+
+    super.wrapUp();
+  }
 }
@@ -15,7 +15,7 @@
 
 /*
  * SpreadSheetQuery.java
- * Copyright (C) 2013-2016 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2013-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package adams.parser;
@@ -25,6 +25,7 @@ import adams.data.io.input.CsvSpreadSheetReader;
 import adams.data.io.input.SpreadSheetReader;
 import adams.data.spreadsheet.SpreadSheet;
 import adams.parser.spreadsheetquery.Parser;
+import adams.parser.spreadsheetquery.QueryPlan;
 import adams.parser.spreadsheetquery.Scanner;
 import java_cup.runtime.DefaultSymbolFactory;
 import java_cup.runtime.SymbolFactory;
@@ -475,16 +476,15 @@ public class SpreadSheetQuery
   }
 
   /**
-   * Parses and evaluates the given expression.
-   * Returns the result of the mathematical expression, based on the given
-   * values of the symbols.
+   * Parses the given expression and compiles it into an execution plan,
+   * which can be applied to any number of spreadsheets.
    *
-   * @param expr	the expression to evaluate
+   * @param expr	the expression to compile
    * @param symbols	the symbol/value mapping
-   * @return		the evaluated result
+   * @return		the plan
    * @throws Exception	if something goes wrong
    */
-  public static SpreadSheet evaluate(String expr, HashMap symbols, SpreadSheet sheet) throws Exception {
+  public static QueryPlan compile(String expr, HashMap symbols) throws Exception {
     SymbolFactory 		sf;
     ByteArrayInputStream 	parserInput;
     Parser 			parser;
@@ -498,10 +498,24 @@ public class SpreadSheetQuery
     parserInput = new ByteArrayInputStream(expr.getBytes());
     parser      = new Parser(new Scanner(parserInput, sf), sf);
     parser.setSymbols(symbols);
-    parser.setSheet(sheet);
     parser.parse();
 
-    return parser.getResult();
+    return parser.getPlan();
+  }
+
+  /**
+   * Parses and evaluates the given expression.
+   * Returns the result of the mathematical expression, based on the given
+   * values of the symbols.
+   *
+   * @param expr	the expression to evaluate
+   * @param symbols	the symbol/value mapping
+   * @param sheet	the spreadsheet to query
+   * @return		the evaluated result
+   * @throws Exception	if something goes wrong
+   */
+  public static SpreadSheet evaluate(String expr, HashMap symbols, SpreadSheet sheet) throws Exception {
+    return compile(expr, symbols).execute(sheet);
   }
 
   /**
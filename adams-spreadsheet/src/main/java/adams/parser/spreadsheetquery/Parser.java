@@ -17,14 +17,11 @@ import adams.data.spreadsheet.SpreadSheet;
 import adams.data.spreadsheet.SpreadSheetColumnIndex;
 import adams.data.spreadsheet.SpreadSheetColumnRange;
 import adams.data.spreadsheet.rowfinder.ByDateValue;
-import adams.data.spreadsheet.rowfinder.ByNumericValue;
-import adams.data.spreadsheet.rowfinder.ByStringComparison;
 import adams.data.spreadsheet.rowfinder.ByValue;
 import adams.data.spreadsheet.rowfinder.IsNumeric;
 import adams.data.spreadsheet.rowfinder.MissingValue;
 import adams.data.spreadsheet.rowfinder.MultiRowFinder;
 import adams.data.spreadsheet.rowfinder.RowFinder;
-import adams.flow.control.SubProcess;
 import adams.flow.transformer.SpreadSheetAggregate.Aggregate;
 
 import java.util.Date;
@@ -447,12 +444,12 @@ public class Parser extends java_cup.runtime.lr_parser {
   }
 
   /**
-   * Returns the partial flow that was generated to process the spreadsheet.
+   * Returns the execution plan that was compiled from the query.
    *
-   * @return the partial flow, null if none available
+   * @return the plan
    */
-  public SubProcess getSubProcess() {
-    return m_Helper.getSubProcess();
+  public QueryPlan getPlan() {
+    return m_Helper.getPlan();
   }
 
   /**
@@ -966,9 +963,9 @@ class CUP$Parser$actions {
               Object RESULT =null;
 		int cleft = ((java_cup.runtime.Symbol)CUP$Parser$stack.peek()).left;
 		int cright = ((java_cup.runtime.Symbol)CUP$Parser$stack.peek()).right;
-		int[] c = (int[])((java_cup.runtime.Symbol) CUP$Parser$stack.peek()).value;
+		RowCondition c = (RowCondition)((java_cup.runtime.Symbol) CUP$Parser$stack.peek()).value;
 		
-                  parser.getHelper().setRows(c);
+                  parser.getHelper().setCondition(c);
                 
               CUP$Parser$result = parser.getSymbolFactory().newSymbol("cond_list",11, ((java_cup.runtime.Symbol)CUP$Parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$Parser$stack.peek()), RESULT);
             }
@@ -977,7 +974,7 @@ class CUP$Parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 40: // cond ::= COLUMN LT value 
             {
-              int[] RESULT =null;
+              RowCondition RESULT =null;
 		int cleft = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).left;
 		int cright = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).right;
 		String c = (String)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
@@ -987,20 +984,10 @@ class CUP$Parser$actions {
 		 
                   String comp = " < ";
                   if (a instanceof Double) {
-                    Double n = (Double) a;
-                    ByNumericValue rf = new ByNumericValue();
-                    rf.setMaximum(n);
-                    rf.setMaximumIncluded(false);
-                    rf.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                    RESULT = parser.getHelper().applyRowFinder(rf, c + comp + a);
+                    RESULT = parser.getHelper().compareNumeric(c, RowCondition.Operator.LT, (Double) a);
                   }
                   else if (a instanceof String) {
-                    String s = (String) a;
-                    ByStringComparison rf = new ByStringComparison();
-                    rf.setMaximum(s);
-                    rf.setMaximumIncluded(false);
-                    rf.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                    RESULT = parser.getHelper().applyRowFinder(rf, c + comp + a);
+                    RESULT = parser.getHelper().compareString(c, RowCondition.Operator.LT, (String) a);
                   }
                   else if (a instanceof DateValueSupporter) {
                     Date d = ((DateValueSupporter) a).dateValue();
@@ -1024,7 +1011,7 @@ class CUP$Parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 41: // cond ::= COLUMN LE value 
             {
-              int[] RESULT =null;
+              RowCondition RESULT =null;
 		int cleft = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).left;
 		int cright = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).right;
 		String c = (String)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
@@ -1034,20 +1021,10 @@ class CUP$Parser$actions {
 		 
                   String comp = " <= ";
                   if (a instanceof Double) {
-                    Double n = (Double) a;
-                    ByNumericValue rf = new ByNumericValue();
-                    rf.setMaximum(n);
-                    rf.setMaximumIncluded(true);
-                    rf.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                    RESULT = parser.getHelper().applyRowFinder(rf, c + comp + a);
+                    RESULT = parser.getHelper().compareNumeric(c, RowCondition.Operator.LE, (Double) a);
                   }
                   else if (a instanceof String) {
-                    String s = (String) a;
-                    ByStringComparison rf = new ByStringComparison();
-                    rf.setMaximum(s);
-                    rf.setMaximumIncluded(true);
-                    rf.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                    RESULT = parser.getHelper().applyRowFinder(rf, c + comp + a);
+                    RESULT = parser.getHelper().compareString(c, RowCondition.Operator.LE, (String) a);
                   }
                   else if (a instanceof DateValueSupporter) {
                     Date d = ((DateValueSupporter) a).dateValue();
@@ -1071,7 +1048,7 @@ class CUP$Parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 42: // cond ::= COLUMN EQ value 
             {
-              int[] RESULT =null;
+              RowCondition RESULT =null;
 		int cleft = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).left;
 		int cright = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).right;
 		String c = (String)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
@@ -1081,14 +1058,7 @@ class CUP$Parser$actions {
 		 
                   String comp = " = ";
                   if (a instanceof Double) {
-                    Double n = (Double) a;
-                    ByNumericValue rf = new ByNumericValue();
-                    rf.setMinimum(n);
-                    rf.setMinimumIncluded(true);
-                    rf.setMaximum(n);
-                    rf.setMaximumIncluded(true);
-                    rf.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                    RESULT = parser.getHelper().applyRowFinder(rf, c + comp + a);
+                    RESULT = parser.getHelper().compareNumeric(c, RowCondition.Operator.EQ, (Double) a);
                   }
                   else if (a instanceof String) {
                     String s = (String) a;
@@ -1099,13 +1069,7 @@ class CUP$Parser$actions {
                       RESULT = parser.getHelper().applyRowFinder(rf, c + " comp " + s);
                     }
                     else {
-                      ByStringComparison rf = new ByStringComparison();
-                      rf.setMinimum(s);
-                      rf.setMinimumIncluded(true);
-                      rf.setMaximum(s);
-                      rf.setMaximumIncluded(true);
-                      rf.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                      RESULT = parser.getHelper().applyRowFinder(rf, c + comp + a);
+                      RESULT = parser.getHelper().compareString(c, RowCondition.Operator.EQ, s);
                     }
                   }
                   else if (a instanceof DateValueSupporter) {
@@ -1132,7 +1096,7 @@ class CUP$Parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 43: // cond ::= COLUMN NOT_EQ value 
             {
-              int[] RESULT =null;
+              RowCondition RESULT =null;
 		int cleft = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).left;
 		int cright = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).right;
 		String c = (String)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
@@ -1142,19 +1106,7 @@ class CUP$Parser$actions {
 		 
                   String comp = " <> ";
                   if (a instanceof Double) {
-                    Double n = (Double) a;
-                    ByNumericValue rf1 = new ByNumericValue();
-                    rf1.setMinimum(n);
-                    rf1.setMinimumIncluded(false);
-                    rf1.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                    ByNumericValue rf2 = new ByNumericValue();
-                    rf2.setMaximum(n);
-                    rf2.setMaximumIncluded(false);
-                    rf2.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                    MultiRowFinder multi = new MultiRowFinder();
-                    multi.setFinders(new RowFinder[]{rf1, rf2});
-                    multi.setCombination(MultiRowFinder.Combination.JOIN);
-                    RESULT = parser.getHelper().applyRowFinder(multi, c + comp + a);
+                    RESULT = parser.getHelper().compareNumeric(c, RowCondition.Operator.NOT_EQ, (Double) a);
                   }
                   else if (a instanceof String) {
                     String s = (String) a;
@@ -1165,18 +1117,7 @@ class CUP$Parser$actions {
                       RESULT = parser.getHelper().applyRowFinder(rf, c + " comp " + s);
                     }
                     else {
-                      ByStringComparison rf1 = new ByStringComparison();
-                      rf1.setMinimum(s);
-                      rf1.setMinimumIncluded(false);
-                      rf1.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                      ByStringComparison rf2 = new ByStringComparison();
-                      rf2.setMaximum(s);
-                      rf2.setMaximumIncluded(false);
-                      rf2.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                      MultiRowFinder multi = new MultiRowFinder();
-                      multi.setFinders(new RowFinder[]{rf1, rf2});
-                      multi.setCombination(MultiRowFinder.Combination.JOIN);
-                      RESULT = parser.getHelper().applyRowFinder(multi, c + comp + a);
+                      RESULT = parser.getHelper().compareString(c, RowCondition.Operator.NOT_EQ, s);
                     }
                   }
                   else if (a instanceof DateValueSupporter) {
@@ -1209,7 +1150,7 @@ class CUP$Parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 44: // cond ::= COLUMN GE value 
             {
-              int[] RESULT =null;
+              RowCondition RESULT =null;
 		int cleft = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).left;
 		int cright = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).right;
 		String c = (String)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
@@ -1219,20 +1160,10 @@ class CUP$Parser$actions {
 		 
                   String comp = " >= ";
                   if (a instanceof Double) {
-                    Double n = (Double) a;
-                    ByNumericValue rf = new ByNumericValue();
-                    rf.setMinimum(n);
-                    rf.setMinimumIncluded(true);
-                    rf.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                    RESULT = parser.getHelper().applyRowFinder(rf, c + comp + a);
+                    RESULT = parser.getHelper().compareNumeric(c, RowCondition.Operator.GE, (Double) a);
                   }
                   else if (a instanceof String) {
-                    String s = (String) a;
-                    ByStringComparison rf = new ByStringComparison();
-                    rf.setMinimum(s);
-                    rf.setMinimumIncluded(true);
-                    rf.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                    RESULT = parser.getHelper().applyRowFinder(rf, c + comp + a);
+                    RESULT = parser.getHelper().compareString(c, RowCondition.Operator.GE, (String) a);
                   }
                   else if (a instanceof DateValueSupporter) {
                     Date d = ((DateValueSupporter) a).dateValue();
@@ -1256,7 +1187,7 @@ class CUP$Parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 45: // cond ::= COLUMN GT value 
             {
-              int[] RESULT =null;
+              RowCondition RESULT =null;
 		int cleft = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).left;
 		int cright = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).right;
 		String c = (String)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
@@ -1266,20 +1197,10 @@ class CUP$Parser$actions {
 		 
                   String comp = " > ";
                   if (a instanceof Double) {
-                    Double n = (Double) a;
-                    ByNumericValue rf = new ByNumericValue();
-                    rf.setMinimum(n);
-                    rf.setMinimumIncluded(false);
-                    rf.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                    RESULT = parser.getHelper().applyRowFinder(rf, c + comp + a);
+                    RESULT = parser.getHelper().compareNumeric(c, RowCondition.Operator.GT, (Double) a);
                   }
                   else if (a instanceof String) {
-                    String s = (String) a;
-                    ByStringComparison rf = new ByStringComparison();
-                    rf.setMinimum(s);
-                    rf.setMinimumIncluded(false);
-                    rf.setAttributeIndex(new SpreadSheetColumnIndex(c));
-                    RESULT = parser.getHelper().applyRowFinder(rf, c + comp + a);
+                    RESULT = parser.getHelper().compareString(c, RowCondition.Operator.GT, (String) a);
                   }
                   else if (a instanceof DateValueSupporter) {
                     Date d = ((DateValueSupporter) a).dateValue();
@@ -1303,7 +1224,7 @@ class CUP$Parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 46: // cond ::= COLUMN REGEXP STRING 
             {
-              int[] RESULT =null;
+              RowCondition RESULT =null;
 		int cleft = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).left;
 		int cright = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).right;
 		String c = (String)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
@@ -1323,7 +1244,7 @@ class CUP$Parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 47: // cond ::= COLUMN IS NULL 
             {
-              int[] RESULT =null;
+              RowCondition RESULT =null;
 		int cleft = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).left;
 		int cright = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).right;
 		String c = (String)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
@@ -1339,7 +1260,7 @@ class CUP$Parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 48: // cond ::= CELLTYPE LPAREN COLUMN RPAREN EQ STRING 
             {
-              int[] RESULT =null;
+              RowCondition RESULT =null;
 		int cleft = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-3)).left;
 		int cright = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-3)).right;
 		String c = (String)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-3)).value;
@@ -1430,10 +1351,10 @@ class CUP$Parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 49: // cond ::= LPAREN cond RPAREN 
             {
-              int[] RESULT =null;
+              RowCondition RESULT =null;
 		int cleft = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-1)).left;
 		int cright = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-1)).right;
-		int[] c = (int[])((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
+		RowCondition c = (RowCondition)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-1)).value;
 		 
                   RESULT = c; 
                 
@@ -1444,13 +1365,13 @@ class CUP$Parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 50: // cond ::= cond AND cond 
             {
-              int[] RESULT =null;
+              RowCondition RESULT =null;
 		int c1left = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).left;
 		int c1right = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).right;
-		int[] c1 = (int[])((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
+		RowCondition c1 = (RowCondition)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		int c2left = ((java_cup.runtime.Symbol)CUP$Parser$stack.peek()).left;
 		int c2right = ((java_cup.runtime.Symbol)CUP$Parser$stack.peek()).right;
-		int[] c2 = (int[])((java_cup.runtime.Symbol) CUP$Parser$stack.peek()).value;
+		RowCondition c2 = (RowCondition)((java_cup.runtime.Symbol) CUP$Parser$stack.peek()).value;
 		 
                   RESULT = parser.getHelper().combineWithAnd(c1, c2); 
                 
@@ -1461,13 +1382,13 @@ class CUP$Parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 51: // cond ::= cond OR cond 
             {
-              int[] RESULT =null;
+              RowCondition RESULT =null;
 		int c1left = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).left;
 		int c1right = ((java_cup.runtime.Symbol)CUP$Parser$stack.elementAt(CUP$Parser$top-2)).right;
-		int[] c1 = (int[])((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
+		RowCondition c1 = (RowCondition)((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt(CUP$Parser$top-2)).value;
 		int c2left = ((java_cup.runtime.Symbol)CUP$Parser$stack.peek()).left;
 		int c2right = ((java_cup.runtime.Symbol)CUP$Parser$stack.peek()).right;
-		int[] c2 = (int[])((java_cup.runtime.Symbol) CUP$Parser$stack.peek()).value;
+		RowCondition c2 = (RowCondition)((java_cup.runtime.Symbol) CUP$Parser$stack.peek()).value;
 		 
                   RESULT = parser.getHelper().combineWithOr(c1, c2); 
                 
@@ -1478,10 +1399,10 @@ class CUP$Parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 52: // cond ::= NOT cond 
             {
-              int[] RESULT =null;
+              RowCondition RESULT =null;
 		int cleft = ((java_cup.runtime.Symbol)CUP$Parser$stack.peek()).left;
 		int cright = ((java_cup.runtime.Symbol)CUP$Parser$stack.peek()).right;
-		int[] c = (int[])((java_cup.runtime.Symbol) CUP$Parser$stack.peek()).value;
+		RowCondition c = (RowCondition)((java_cup.runtime.Symbol) CUP$Parser$stack.peek()).value;
 		 
                   RESULT = parser.getHelper().invert(c); 
                 
@@ -15,17 +15,13 @@
 
 /*
  * ParserHelper.java
- * Copyright (C) 2013-2019 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2013-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.parser.spreadsheetquery;
 
 import adams.core.DateFormat;
 import adams.core.DateUtils;
-import adams.core.Range;
 import adams.core.Utils;
-import adams.core.base.BaseBoolean;
-import adams.core.logging.LoggingHelper;
-import adams.core.option.OptionUtils;
 import adams.data.DateFormatString;
 import adams.data.conversion.Conversion;
 import adams.data.conversion.MultiConversion;
@@ -34,24 +30,22 @@ import adams.data.spreadsheet.SpreadSheet;
 import adams.data.spreadsheet.SpreadSheetColumnIndex;
 import adams.data.spreadsheet.SpreadSheetColumnRange;
 import adams.data.spreadsheet.SpreadSheetUnorderedColumnRange;
-import adams.data.spreadsheet.rowfinder.ByIndex;
 import adams.data.spreadsheet.rowfinder.RowFinder;
 import adams.flow.control.SubProcess;
-import adams.flow.core.Token;
 import adams.flow.transformer.Convert;
 import adams.flow.transformer.SpreadSheetAggregate;
 import adams.flow.transformer.SpreadSheetAggregate.Aggregate;
 import adams.flow.transformer.SpreadSheetRemoveColumn;
-import adams.flow.transformer.SpreadSheetReorderColumns;
-import adams.flow.transformer.SpreadSheetRowFilter;
-import adams.flow.transformer.SpreadSheetSetCell;
-import adams.flow.transformer.SpreadSheetSort;
-import adams.flow.transformer.SpreadSheetSubset;
-import gnu.trove.list.array.TIntArrayList;
-import gnu.trove.set.hash.TIntHashSet;
+import adams.parser.spreadsheetquery.QueryPlan.QueryType;
+import adams.parser.spreadsheetquery.RowCondition.And;
+import adams.parser.spreadsheetquery.RowCondition.Not;
+import adams.parser.spreadsheetquery.RowCondition.NumericComparison;
+import adams.parser.spreadsheetquery.RowCondition.Operator;
+import adams.parser.spreadsheetquery.RowCondition.Or;
+import adams.parser.spreadsheetquery.RowCondition.RowFinderCondition;
+import adams.parser.spreadsheetquery.RowCondition.StringComparison;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -101,17 +95,14 @@ public class ParserHelper
   /** the columns to sort on. */
   protected List<Boolean> m_SortAsc;
 
-  /** the row finders to use. */
-  protected List<RowFinder> m_RowFinders;
-  
   /** the rowfinder to use for generating a subsample. */
   protected RowFinder m_Subsample;
   
-  /** the partial flow for converting the spreadsheet. */
-  protected SubProcess m_SubProcess;
-  
-  /** the rows to select. */
-  protected int[] m_Rows;
+  /** the condition for selecting rows. */
+  protected RowCondition m_Condition;
+
+  /** the compiled plan. */
+  protected QueryPlan m_Plan;
   
   /** the limit. */
   protected int m_LimitMax;
@@ -149,13 +140,12 @@ public class ParserHelper
     m_UpdateColumns     = new HashMap<>();
     m_SortColumns       = new ArrayList<>();
     m_SortAsc           = new ArrayList<>();
-    m_RowFinders        = new ArrayList<>();
     m_Subsample         = null;
     m_Aggregates        = new HashMap<>();
     m_RenamedAggregates = new HashMap<>();
     m_GroupByColumns    = new ArrayList<>();
-    m_SubProcess        = null;
-    m_Rows              = null;
+    m_Condition         = null;
+    m_Plan              = null;
     m_LimitOffset       = 0;
     m_LimitMax          = -1;
     m_DateFormat        = DateUtils.getTimestampFormatterMsecs();
@@ -309,19 +299,52 @@ public class ParserHelper
   }
 
   /**
-   * Applies the row finder.
+   * Wraps the row finder in a condition.
    *
    * @param finder the row finder to apply
    * @param log a logging message
-   * @return the selected rows
+   * @return the condition
    */
-  public int[] applyRowFinder(RowFinder finder, String log) {
-    int[]	result;
-    
-    result = finder.findRows(m_Sheet);
+  public RowCondition applyRowFinder(RowFinder finder, String log) {
     if (isLoggingEnabled())
-      getLogger().fine(log + ": " + Utils.arrayToString(result));
-    
+      getLogger().fine("row finder: " + log);
+
+    return new RowFinderCondition(finder, log);
+  }
+
+  /**
+   * Creates a numeric comparison for the column.
+   *
+   * @param col the column
+   * @param op the comparison operator
+   * @param value the value to compare against
+   * @return the condition
+   */
+  public RowCondition compareNumeric(String col, Operator op, double value) {
+    RowCondition	result;
+
+    result = new NumericComparison(col, op, value);
+    if (isLoggingEnabled())
+      getLogger().fine("numeric: " + result);
+
+    return result;
+  }
+
+  /**
+   * Creates a lexicographic comparison for the column.
+   *
+   * @param col the column
+   * @param op the comparison operator
+   * @param value the value to compare against
+   * @return the condition
+   */
+  public RowCondition compareString(String col, Operator op, String value) {
+    RowCondition	result;
+
+    result = new StringComparison(col, op, value);
+    if (isLoggingEnabled())
+      getLogger().fine("string: " + result);
+
     return result;
   }
 
@@ -374,71 +397,51 @@ public class ParserHelper
   }
 
   /**
-   * Combines the row finders with logical AND.
+   * Combines the conditions with logical AND.
    * 
-   * @param c1 the first set of rows
-   * @param c2 the second set of rows
-   * @return the combined rows
+   * @param c1 the first condition
+   * @param c2 the second condition
+   * @return the combined condition
    */
-  public int[] combineWithAnd(int[] c1, int[] c2) {
-    int[]	result;
-    TIntHashSet	set;
-
-    set = new TIntHashSet(c1);
-    set.retainAll(c2);
-    result = set.toArray();
-    Arrays.sort(result);
-    
+  public RowCondition combineWithAnd(RowCondition c1, RowCondition c2) {
+    RowCondition	result;
+
+    result = new And(c1, c2);
     if (isLoggingEnabled())
-      getLogger().fine("and: " + Utils.arrayToString(result));
+      getLogger().fine("and: " + result);
     
     return result;
   }
 
   /**
-   * Combines the row finders with logical OR.
+   * Combines the conditions with logical OR.
    * 
-   * @param c1 the first set of rows
-   * @param c2 the second set of rows
-   * @return the combined rows
+   * @param c1 the first condition
+   * @param c2 the second condition
+   * @return the combined condition
    */
-  public int[] combineWithOr(int[] c1, int[] c2) {
-    int[]	result;
-    TIntHashSet	set;
-
-    set = new TIntHashSet(c1);
-    set.addAll(c2);
-    result = set.toArray();
-    Arrays.sort(result);
+  public RowCondition combineWithOr(RowCondition c1, RowCondition c2) {
+    RowCondition	result;
 
+    result = new Or(c1, c2);
     if (isLoggingEnabled())
-      getLogger().fine("or: " + Utils.arrayToString(result));
+      getLogger().fine("or: " + result);
 
     return result;
   }
 
   /**
-   * Inverts the row finders.
+   * Inverts the condition.
    * 
-   * @param c the rows to invert
-   * @return the inverted rows
+   * @param c the condition to invert
+   * @return the inverted condition
    */
-  public int[] invert(int[] c) {
-    int[]		result;
-    TIntHashSet		set;
-    TIntArrayList	list;
-    int			i;
-    
-    set  = new TIntHashSet(c);
-    list = new TIntArrayList(m_Sheet.getRowCount() - c.length);
-    for (i = 0; i < m_Sheet.getRowCount(); i++) {
-      if (!set.contains(i))
-	list.add(i);
-    }
-    result = list.toArray();
+  public RowCondition invert(RowCondition c) {
+    RowCondition	result;
 
+    result = new Not(c);
     if (isLoggingEnabled())
-      getLogger().fine("not: " + Utils.arrayToString(result));
+      getLogger().fine("not: " + result);
     
     return result;
   }
@@ -459,226 +462,174 @@ public class ParserHelper
   }
   
   /**
-   * Sets the rows to use.
+   * Sets the condition for selecting the rows.
    * 
-   * @param value the rows
+   * @param value the condition
    */
-  public void setRows(int[] value) {
-    m_Rows = value;
+  public void setCondition(RowCondition value) {
+    m_Condition = value;
+    m_Plan      = null;
   }
   
   /**
-   * Returns the rows to use.
+   * Returns the condition for selecting the rows.
    * 
-   * @return the rows
+   * @return the condition, null if all rows
    */
-  public int[] getRows() {
-    return m_Rows;
+  public RowCondition getCondition() {
+    return m_Condition;
   }
 
   /**
-   * Returns the partial flow that was generated to process the spreadsheet.
+   * Generates the sub-flow for computing the aggregates.
    *
-   * @return the partial flow, null if none available
+   * @return the sub-flow
    */
-  public SubProcess getSubProcess() {
-    return m_SubProcess;
+  protected SubProcess createAggregation() {
+    SubProcess	result;
+
+    result = new SubProcess();
+    // create aggregate column range
+    HashSet<String> cols = new HashSet<>();
+    for (Aggregate a: m_Aggregates.keySet())
+      cols.addAll(m_Aggregates.get(a));
+    List<String> all = new ArrayList<>(cols);
+    Collections.sort(all);
+    SpreadSheetColumnRange aggRange = new SpreadSheetColumnRange();
+    aggRange.setRange(Utils.flatten(all, ","));
+    // create group by range
+    SpreadSheetColumnRange keyRange = new SpreadSheetColumnRange();
+    if (m_GroupByColumns.size() > 0)
+      keyRange.setRange(Utils.flatten(m_GroupByColumns, ","));
+    // aggregates
+    List<Aggregate> aggs = new ArrayList<>(m_Aggregates.keySet());
+    Collections.sort(aggs);
+    if (aggs.contains(Aggregate.COUNT)) {
+      aggs.remove(Aggregate.COUNT);
+      aggs.add(0, Aggregate.COUNT);
+    }
+    // aggregate
+    SpreadSheetAggregate agg = new SpreadSheetAggregate();
+    agg.setAggregateColumns(aggRange);
+    agg.setKeyColumns(keyRange);
+    agg.setAggregates(aggs.toArray(new Aggregate[aggs.size()]));
+    result.add(agg);
+    // delete columns
+    List<String> remove;
+    if (!all.isEmpty()) {
+      for (Aggregate a : m_Aggregates.keySet()) {
+	if (a == Aggregate.COUNT) {
+	  remove = new ArrayList<>(all);
+	  remove.remove(0);
+	  if (remove.size() > 0) {
+	    SpreadSheetColumnRange remRange = new SpreadSheetColumnRange();
+	    remRange.setRange(Utils.flatten(remove, ","));
+	    SpreadSheetRemoveColumn remCol = new SpreadSheetRemoveColumn();
+	    remCol.setPosition(remRange);
+	    result.add(remCol);
+	  }
+	  Convert conv = new Convert();
+	  RenameSpreadSheetColumn ren = new RenameSpreadSheetColumn();
+	  ren.setColumn(new SpreadSheetColumnIndex("" + (m_GroupByColumns.size() + 1)));
+	  ren.setNewName(Aggregate.COUNT.toString());
+	  conv.setConversion(ren);
+	  result.add(conv);
+	}
+	else {
+	  remove = new ArrayList<>(all);
+	  remove.removeAll(m_Aggregates.get(a));
+	  if (remove.size() > 0) {
+	    SpreadSheetColumnRange remRange = new SpreadSheetColumnRange();
+	    remRange.setRange(Utils.flatten(remove, ","));
+	    SpreadSheetRemoveColumn remCol = new SpreadSheetRemoveColumn();
+	    remCol.setPosition(remRange);
+	    result.add(remCol);
+	  }
+	}
+      }
+    }
+    // rename aggregates
+    if (m_RenamedAggregates.size() > 0) {
+      Convert conv = new Convert();
+      MultiConversion multi = new MultiConversion();
+      List<Conversion> list = new ArrayList<>();
+      for (String col: m_RenamedAggregates.keySet()) {
+	RenameSpreadSheetColumn ren = new RenameSpreadSheetColumn();
+	ren.setNoCopy(true);
+	ren.setColumn(new SpreadSheetColumnIndex(col));
+	ren.setNewName(m_RenamedAggregates.get(col));
+	list.add(ren);
+      }
+      multi.setSubConversions(list.toArray(new Conversion[list.size()]));
+      conv.setConversion(multi);
+      result.add(conv);
+    }
+
+    return result;
   }
 
   /**
-   * Returns the result of the evaluation.
+   * Returns the execution plan compiled from the parsed query.
    *
-   * @return the result
+   * @return the plan
    */
-  public SpreadSheet getResult() {
-    SpreadSheet result;
-    String msg;
-    Range rows;
-  
-    result       = null;
-    m_SubProcess = null;
-    
-    // final rows selection
-    SpreadSheetRowFilter rowFilter = new SpreadSheetRowFilter();
-    ByIndex byIndex = new ByIndex();
-    rows = new Range();
-    if (m_Rows == null)
-      rows.setRange(Range.ALL);
-    else
-      rows.setIndices(m_Rows);
-    byIndex.setRows(rows);
-    rowFilter.setFinder(byIndex);
-    
-    SubProcess sub = new SubProcess();
+  public QueryPlan getPlan() {
+    QueryPlan			result;
+    SpreadSheetColumnIndex[]	cols;
+    boolean[]			asc;
+    int				i;
+
+    if (m_Plan != null)
+      return m_Plan;
+
     if (m_Select) {
-      // subset of columns?
-      if (!m_AllColumns) {
-        SpreadSheetReorderColumns reorder = new SpreadSheetReorderColumns();
-        reorder.setOrder(new SpreadSheetUnorderedColumnRange(Utils.flatten(m_Columns, ",")));
-        sub.add(reorder);
-      }
-      // rename columns?
-      if (m_RenameColumns.size() > 0) {
-	Convert conv = new Convert();
-	MultiConversion multi = new MultiConversion();
-	List<Conversion> list = new ArrayList<>();
-	for (String col: m_RenameColumns.keySet()) {
-	  RenameSpreadSheetColumn ren = new RenameSpreadSheetColumn();
-	  ren.setNoCopy(true);
-	  ren.setColumn(new SpreadSheetColumnIndex(col));
-	  ren.setNewName(m_RenameColumns.get(col));
-          list.add(ren);
-        }
-        multi.setSubConversions(list.toArray(new Conversion[list.size()]));
-        conv.setConversion(multi);
-        sub.add(conv);
-      }
-      sub.add(rowFilter);
-      // subsample?
-      if (m_Subsample != null) {
-	SpreadSheetRowFilter subsample = new SpreadSheetRowFilter();
-	subsample.setFinder(m_Subsample);
-	sub.add(subsample);
-      }
-      // sorting?
+      result = new QueryPlan(QueryType.SELECT);
+      if (!m_AllColumns)
+	result.setColumns(new SpreadSheetUnorderedColumnRange(Utils.flatten(m_Columns, ",")));
+      for (String col: m_RenameColumns.keySet())
+	result.addRenameColumn(col, m_RenameColumns.get(col));
+      result.setSubsample(m_Subsample);
       if (m_SortColumns.size() > 0) {
-        SpreadSheetSort sort = new SpreadSheetSort();
-        SpreadSheetColumnIndex[] cols = new SpreadSheetColumnIndex[m_SortColumns.size()];
-        BaseBoolean[] order = new BaseBoolean[m_SortColumns.size()];
-        for (int i = 0; i < m_SortColumns.size(); i++) {
-          cols[i]  = new SpreadSheetColumnIndex(m_SortColumns.get(i));
-          order[i] = new BaseBoolean("" + m_SortAsc.get(i));
-        }
-        sort.setNoCopy(true);
-        sort.setSortColumn(cols);
-        sort.setSortOrder(order);
-        sub.add(sort);
-      }
-      // limit?
-      if (m_LimitMax > 0) {
-	Range limit = new Range((m_LimitOffset + 1) + Range.RANGE + (m_LimitOffset + m_LimitMax));
-	SpreadSheetSubset subset = new SpreadSheetSubset();
-	subset.setRows(limit);
-	subset.setColumns(new SpreadSheetColumnRange(SpreadSheetColumnRange.ALL));
-	sub.add(subset);
+	cols = new SpreadSheetColumnIndex[m_SortColumns.size()];
+	asc  = new boolean[m_SortColumns.size()];
+	for (i = 0; i < m_SortColumns.size(); i++) {
+	  cols[i] = new SpreadSheetColumnIndex(m_SortColumns.get(i));
+	  asc[i]  = m_SortAsc.get(i);
+	}
+	result.setSort(cols, asc);
       }
+      result.setLimit(m_LimitOffset, m_LimitMax);
     }
     else if (m_Update) {
-      for (String col: m_UpdateColumns.keySet()) {
-	SpreadSheetSetCell setcell = new SpreadSheetSetCell();
-	setcell.setNoCopy(true);
-	setcell.setRow(rows);
-	setcell.setColumn(new SpreadSheetColumnRange(col));
-	setcell.setValue(m_UpdateColumns.get(col).toString());
-	sub.add(setcell);
-      }
+      result = new QueryPlan(QueryType.UPDATE);
+      for (String col: m_UpdateColumns.keySet())
+	result.addUpdateColumn(col, m_UpdateColumns.get(col).toString());
     }
     else if (m_Delete) {
-      rows.setInverted(true);
-      byIndex.setRows(rows);
-      sub.add(rowFilter);
+      result = new QueryPlan(QueryType.DELETE);
     }
     else if (m_Aggregate) {
-      sub.add(rowFilter);
-      // create aggregate column range
-      HashSet<String> cols = new HashSet<>();
-      for (Aggregate a: m_Aggregates.keySet())
-	cols.addAll(m_Aggregates.get(a));
-      List<String> all = new ArrayList<>(cols);
-      Collections.sort(all);
-      SpreadSheetColumnRange aggRange = new SpreadSheetColumnRange();
-      aggRange.setRange(Utils.flatten(all, ","));
-      // create group by range
-      SpreadSheetColumnRange keyRange = new SpreadSheetColumnRange();
-      if (m_GroupByColumns.size() > 0)
-	keyRange.setRange(Utils.flatten(m_GroupByColumns, ","));
-      // aggregates
-      List<Aggregate> aggs = new ArrayList<>(m_Aggregates.keySet());
-      Collections.sort(aggs);
-      if (aggs.contains(Aggregate.COUNT)) {
-	aggs.remove(Aggregate.COUNT);
-	aggs.add(0, Aggregate.COUNT);
-      }
-      // aggregate
-      SpreadSheetAggregate agg = new SpreadSheetAggregate();
-      agg.setAggregateColumns(aggRange);
-      agg.setKeyColumns(keyRange);
-      agg.setAggregates(aggs.toArray(new Aggregate[aggs.size()]));
-      sub.add(agg);
-      // delete columns
-      List<String> remove;
-      if (!all.isEmpty()) {
-	for (Aggregate a : m_Aggregates.keySet()) {
-	  if (a == Aggregate.COUNT) {
-	    remove = new ArrayList<>(all);
-	    remove.remove(0);
-	    if (remove.size() > 0) {
-	      SpreadSheetColumnRange remRange = new SpreadSheetColumnRange();
-	      remRange.setRange(Utils.flatten(remove, ","));
-	      SpreadSheetRemoveColumn remCol = new SpreadSheetRemoveColumn();
-	      remCol.setPosition(remRange);
-	      sub.add(remCol);
-	    }
-	    Convert conv = new Convert();
-	    RenameSpreadSheetColumn ren = new RenameSpreadSheetColumn();
-	    ren.setColumn(new SpreadSheetColumnIndex("" + (m_GroupByColumns.size() + 1)));
-	    ren.setNewName(Aggregate.COUNT.toString());
-	    conv.setConversion(ren);
-	    sub.add(conv);
-	  }
-	  else {
-	    remove = new ArrayList<>(all);
-	    remove.removeAll(m_Aggregates.get(a));
-	    if (remove.size() > 0) {
-	      SpreadSheetColumnRange remRange = new SpreadSheetColumnRange();
-	      remRange.setRange(Utils.flatten(remove, ","));
-	      SpreadSheetRemoveColumn remCol = new SpreadSheetRemoveColumn();
-	      remCol.setPosition(remRange);
-	      sub.add(remCol);
-	    }
-	  }
-	}
-      }
-      // rename aggregates
-      if (m_RenamedAggregates.size() > 0) {
-	Convert conv = new Convert();
-	MultiConversion multi = new MultiConversion();
-	List<Conversion> list = new ArrayList<>();
-	for (String col: m_RenamedAggregates.keySet()) {
-	  RenameSpreadSheetColumn ren = new RenameSpreadSheetColumn();
-	  ren.setNoCopy(true);
-	  ren.setColumn(new SpreadSheetColumnIndex(col));
-	  ren.setNewName(m_RenamedAggregates.get(col));
-          list.add(ren);
-        }
-        multi.setSubConversions(list.toArray(new Conversion[list.size()]));
-        conv.setConversion(multi);
-        sub.add(conv);
-      }
+      result = new QueryPlan(QueryType.AGGREGATE);
+      result.setAggregation(createAggregation());
     }
-    
-    // transform spreadsheet
-    m_SubProcess = (SubProcess) sub.shallowCopy();
-    msg = sub.setUp();
-    if (msg == null) {
-      sub.input(new Token(getSheet().getClone()));
-      try {
-        msg = sub.execute();
-        if ((msg == null) && (sub.hasPendingOutput()))
-          result = (SpreadSheet) sub.output().getPayload();
-        else
-          msg = "Failed to execute flow:\n" + ((msg == null) ? "" : (msg + "\n\n"))
-            + OptionUtils.getCommandLine(sub);
-      }
-      catch (Exception e) {
-        msg = "Failed to execute flow:\n" + LoggingHelper.throwableToString(e) + "\n\n"
-          + OptionUtils.getCommandLine(sub);
-      }
+    else {
+      throw new IllegalStateException("Unhandled query type!");
     }
+    result.setCondition(m_Condition);
 
-    if (msg != null)
-      throw new IllegalStateException(msg);
+    if (isLoggingEnabled())
+      getLogger().fine("plan: " + result);
+    m_Plan = result;
 
     return result;
   }
+
+  /**
+   * Returns the result of the evaluation.
+   *
+   * @return the result
+   */
+  public SpreadSheet getResult() {
+    return getPlan().execute(m_Sheet);
+  }
 }
@@ -0,0 +1,418 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * QueryIndex.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.parser.spreadsheetquery;
+
+import adams.data.spreadsheet.Cell;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.parser.spreadsheetquery.RowCondition.NumericComparison;
+import adams.parser.spreadsheetquery.RowCondition.Operator;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column indexes for a spreadsheet, built lazily the first time a column
+ * gets queried: sorted indexes for numeric columns and sorted plus hash
+ * indexes for string columns.
+ * <br><br>
+ * The index reflects the state of the spreadsheet at the time the column
+ * got indexed, i.e., it must not be reused once the spreadsheet has been
+ * modified.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class QueryIndex {
+
+  /**
+   * Sorted index of the numeric values of a column.
+   */
+  protected static class NumericIndex {
+
+    /** the sorted values. */
+    public double[] values;
+
+    /** the rows associated with the sorted values. */
+    public int[] rows;
+
+    /** all the rows with non-missing numeric values. */
+    public BitSet all;
+  }
+
+  /**
+   * Sorted and hash index of the string values of a column.
+   */
+  protected static class StringIndex {
+
+    /** the sorted values. */
+    public String[] values;
+
+    /** the rows associated with the sorted values. */
+    public int[] rows;
+
+    /** value - rows. */
+    public Map<String,int[]> lookup;
+
+    /** all the rows with non-missing values. */
+    public BitSet all;
+  }
+
+  /** the spreadsheet that is being indexed. */
+  protected SpreadSheet m_Sheet;
+
+  /** the number of rows at the time the index was created. */
+  protected int m_RowCount;
+
+  /** whether columns are numeric (column - numeric). */
+  protected Map<Integer,Boolean> m_Numeric;
+
+  /** the numeric indexes. */
+  protected Map<Integer,NumericIndex> m_NumericIndexes;
+
+  /** the string indexes. */
+  protected Map<Integer,StringIndex> m_StringIndexes;
+
+  /**
+   * Initializes the index for the spreadsheet.
+   *
+   * @param sheet	the spreadsheet to index
+   */
+  public QueryIndex(SpreadSheet sheet) {
+    m_Sheet          = sheet;
+    m_RowCount       = sheet.getRowCount();
+    m_Numeric        = new HashMap<>();
+    m_NumericIndexes = new HashMap<>();
+    m_StringIndexes  = new HashMap<>();
+  }
+
+  /**
+   * Returns the spreadsheet that is being indexed.
+   *
+   * @return		the spreadsheet
+   */
+  public SpreadSheet getSheet() {
+    return m_Sheet;
+  }
+
+  /**
+   * Checks whether the index can be used for the spreadsheet, i.e., whether
+   * it is the same spreadsheet object with the same number of rows.
+   *
+   * @param sheet	the spreadsheet to check
+   * @return		true if applicable
+   */
+  public boolean isApplicable(SpreadSheet sheet) {
+    return (sheet == m_Sheet) && (sheet.getRowCount() == m_RowCount);
+  }
+
+  /**
+   * Returns whether the column is numeric (allowing missing values).
+   *
+   * @param col		the column index
+   * @return		true if numeric
+   */
+  public synchronized boolean isNumeric(int col) {
+    if (!m_Numeric.containsKey(col))
+      m_Numeric.put(col, m_Sheet.isNumeric(col, true));
+    return m_Numeric.get(col);
+  }
+
+  /**
+   * Returns the numeric index for the column, creating it if necessary.
+   *
+   * @param col		the column index
+   * @return		the index
+   */
+  protected synchronized NumericIndex getNumericIndex(int col) {
+    NumericIndex	result;
+    TIntList		rows;
+    Integer[]		order;
+    double[]		values;
+    Row			row;
+    Cell		cell;
+    double		value;
+    int			i;
+
+    result = m_NumericIndexes.get(col);
+    if (result != null)
+      return result;
+
+    rows   = new TIntArrayList();
+    values = new double[m_RowCount];
+    for (i = 0; i < m_RowCount; i++) {
+      row = m_Sheet.getRow(i);
+      if (!row.hasCell(col))
+	continue;
+      cell = row.getCell(col);
+      if (cell.isMissing() || !cell.isNumeric())
+	continue;
+      value = cell.toDouble();
+      if (Double.isNaN(value))
+	continue;
+      values[rows.size()] = value;
+      rows.add(i);
+    }
+
+    order = new Integer[rows.size()];
+    for (i = 0; i < order.length; i++)
+      order[i] = i;
+    final double[] fValues = values;
+    Arrays.sort(order, (o1, o2) -> Double.compare(fValues[o1], fValues[o2]));
+
+    result        = new NumericIndex();
+    result.values = new double[order.length];
+    result.rows   = new int[order.length];
+    result.all    = new BitSet(m_RowCount);
+    for (i = 0; i < order.length; i++) {
+      result.values[i] = values[order[i]];
+      result.rows[i]   = rows.get(order[i]);
+      result.all.set(result.rows[i]);
+    }
+    m_NumericIndexes.put(col, result);
+
+    return result;
+  }
+
+  /**
+   * Returns the string index for the column, creating it if necessary.
+   *
+   * @param col		the column index
+   * @return		the index
+   */
+  protected synchronized StringIndex getStringIndex(int col) {
+    StringIndex			result;
+    TIntList			rows;
+    Integer[]			order;
+    String[]			values;
+    Map<String,TIntList>	lookup;
+    Row				row;
+    Cell			cell;
+    String			value;
+    int				i;
+
+    result = m_StringIndexes.get(col);
+    if (result != null)
+      return result;
+
+    rows   = new TIntArrayList();
+    values = new String[m_RowCount];
+    lookup = new HashMap<>();
+    for (i = 0; i < m_RowCount; i++) {
+      row = m_Sheet.getRow(i);
+      if (!row.hasCell(col))
+	continue;
+      cell = row.getCell(col);
+      if (cell.isMissing())
+	continue;
+      value = cell.getContent();
+      values[rows.size()] = value;
+      rows.add(i);
+      if (!lookup.containsKey(value))
+	lookup.put(value, new TIntArrayList());
+      lookup.get(value).add(i);
+    }
+
+    order = new Integer[rows.size()];
+    for (i = 0; i < order.length; i++)
+      order[i] = i;
+    final String[] fValues = values;
+    Arrays.sort(order, (o1, o2) -> fValues[o1].compareTo(fValues[o2]));
+
+    result        = new StringIndex();
+    result.values = new String[order.length];
+    result.rows   = new int[order.length];
+    result.all    = new BitSet(m_RowCount);
+    result.lookup = new HashMap<>();
+    for (i = 0; i < order.length; i++) {
+      result.values[i] = values[order[i]];
+      result.rows[i]   = rows.get(order[i]);
+      result.all.set(result.rows[i]);
+    }
+    for (String key: lookup.keySet())
+      result.lookup.put(key, lookup.get(key).toArray());
+    m_StringIndexes.put(col, result);
+
+    return result;
+  }
+
+  /**
+   * Returns the position of the first value that is not less than (or, if
+   * exclusive, not less or equal to) the reference value.
+   *
+   * @param values	the sorted values
+   * @param ref		the reference value
+   * @param exclusive	whether to skip values equal to the reference value
+   * @return		the position
+   */
+  protected static int bound(double[] values, double ref, boolean exclusive) {
+    int		low;
+    int		high;
+    int		mid;
+    int		cmp;
+
+    low  = 0;
+    high = values.length;
+    while (low < high) {
+      mid = (low + high) >>> 1;
+      cmp = NumericComparison.compare(values[mid], ref);
+      if ((cmp < 0) || (exclusive && (cmp == 0)))
+	low = mid + 1;
+      else
+	high = mid;
+    }
+
+    return low;
+  }
+
+  /**
+   * Returns the position of the first value that is not less than (or, if
+   * exclusive, not less or equal to) the reference value.
+   *
+   * @param values	the sorted values
+   * @param ref		the reference value
+   * @param exclusive	whether to skip values equal to the reference value
+   * @return		the position
+   */
+  protected static int bound(String[] values, String ref, boolean exclusive) {
+    int		low;
+    int		high;
+    int		mid;
+    int		cmp;
+
+    low  = 0;
+    high = values.length;
+    while (low < high) {
+      mid = (low + high) >>> 1;
+      cmp = values[mid].compareTo(ref);
+      if ((cmp < 0) || (exclusive && (cmp == 0)))
+	low = mid + 1;
+      else
+	high = mid;
+    }
+
+    return low;
+  }
+
+  /**
+   * Sets the bits of the rows in the specified range of sorted positions.
+   *
+   * @param rows	the rows associated with the sorted values
+   * @param from	the first position (incl)
+   * @param to		the last position (excl)
+   * @param result	the bitmap to update
+   */
+  protected static void set(int[] rows, int from, int to, BitSet result) {
+    int		i;
+
+    for (i = from; i < to; i++)
+      result.set(rows[i]);
+  }
+
+  /**
+   * Selects the rows in the sorted index that satisfy the operator.
+   *
+   * @param rows	the rows associated with the sorted values
+   * @param lower	the position of the first value equal to the reference value
+   * @param upper	the position of the first value greater than the reference value
+   * @param op		the operator
+   * @return		the matching rows
+   */
+  protected BitSet select(int[] rows, int lower, int upper, Operator op) {
+    BitSet	result;
+
+    result = new BitSet(m_RowCount);
+    switch (op) {
+      case LT:
+	set(rows, 0, lower, result);
+	break;
+      case LE:
+	set(rows, 0, upper, result);
+	break;
+      case EQ:
+	set(rows, lower, upper, result);
+	break;
+      case NOT_EQ:
+	set(rows, 0, lower, result);
+	set(rows, upper, rows.length, result);
+	break;
+      case GE:
+	set(rows, lower, rows.length, result);
+	break;
+      case GT:
+	set(rows, upper, rows.length, result);
+	break;
+      default:
+	throw new IllegalStateException("Unhandled operator: " + op);
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the rows with non-missing numeric values that satisfy the
+   * comparison.
+   *
+   * @param col		the column index
+   * @param op		the operator
+   * @param value	the value to compare against
+   * @return		the matching rows
+   */
+  public BitSet findNumeric(int col, Operator op, double value) {
+    NumericIndex	index;
+
+    index = getNumericIndex(col);
+    return select(index.rows, bound(index.values, value, false), bound(index.values, value, true), op);
+  }
+
+  /**
+   * Returns the rows with non-missing values that satisfy the lexicographic
+   * comparison. An empty string does not impose a bound, i.e., all
+   * non-missing rows are returned.
+   *
+   * @param col		the column index
+   * @param op		the operator
+   * @param value	the value to compare against
+   * @return		the matching rows
+   */
+  public BitSet findString(int col, Operator op, String value) {
+    StringIndex		index;
+    BitSet		result;
+
+    index = getStringIndex(col);
+    if (value.isEmpty())
+      return (BitSet) index.all.clone();
+
+    if (op == Operator.EQ) {
+      result = new BitSet(m_RowCount);
+      if (index.lookup.containsKey(value)) {
+	for (int row: index.lookup.get(value))
+	  result.set(row);
+      }
+      return result;
+    }
+
+    return select(index.rows, bound(index.values, value, false), bound(index.values, value, true), op);
+  }
+}
@@ -0,0 +1,550 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * QueryPlan.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.parser.spreadsheetquery;
+
+import adams.core.logging.LoggingHelper;
+import adams.core.option.OptionHandler;
+import adams.core.option.OptionUtils;
+import adams.data.spreadsheet.Cell;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.RowComparator;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.data.spreadsheet.SpreadSheetColumnIndex;
+import adams.data.spreadsheet.SpreadSheetColumnRange;
+import adams.data.spreadsheet.SpreadSheetUnorderedColumnRange;
+import adams.data.spreadsheet.rowfinder.RowFinder;
+import adams.flow.control.SubProcess;
+import adams.flow.core.Token;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compiled form of a spreadsheet query. A plan gets generated once by
+ * the parser and can then be applied to any number of spreadsheets, without
+ * having to parse the query again.
+ * <br><br>
+ * Row selection uses bitmaps generated by the {@link RowCondition} of the
+ * query, optionally backed by a {@link QueryIndex}. Only aggregation is
+ * still performed by a (pre-configured) sub-flow.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class QueryPlan
+  implements Serializable {
+
+  private static final long serialVersionUID = 5027153702155326934L;
+
+  /**
+   * The type of query.
+   */
+  public enum QueryType {
+    SELECT,
+    UPDATE,
+    DELETE,
+    AGGREGATE
+  }
+
+  /** the type of query. */
+  protected QueryType m_Type;
+
+  /** the condition, null for all rows. */
+  protected RowCondition m_Condition;
+
+  /** the columns to retrieve, null for all. */
+  protected SpreadSheetUnorderedColumnRange m_Columns;
+
+  /** the columns to rename (column - new name). */
+  protected Map<String,String> m_RenameColumns;
+
+  /** the row finder for generating a subsample, null if not used. */
+  protected RowFinder m_Subsample;
+
+  /** the columns to sort on. */
+  protected SpreadSheetColumnIndex[] m_SortColumns;
+
+  /** the sort order. */
+  protected boolean[] m_SortAsc;
+
+  /** the offset for the limit. */
+  protected int m_LimitOffset;
+
+  /** the limit, -1 if unlimited. */
+  protected int m_LimitMax;
+
+  /** the columns to update (column - new value). */
+  protected Map<String,String> m_UpdateColumns;
+
+  /** the sub-flow for generating the aggregates. */
+  protected SubProcess m_Aggregation;
+
+  /** whether the aggregation sub-flow has been set up. */
+  protected boolean m_AggregationSetUp;
+
+  /**
+   * Initializes the plan.
+   *
+   * @param type	the type of query
+   */
+  public QueryPlan(QueryType type) {
+    m_Type             = type;
+    m_Condition        = null;
+    m_Columns          = null;
+    m_RenameColumns    = new LinkedHashMap<>();
+    m_Subsample        = null;
+    m_SortColumns      = new SpreadSheetColumnIndex[0];
+    m_SortAsc          = new boolean[0];
+    m_LimitOffset      = 0;
+    m_LimitMax         = -1;
+    m_UpdateColumns    = new LinkedHashMap<>();
+    m_Aggregation      = null;
+    m_AggregationSetUp = false;
+  }
+
+  /**
+   * Returns the type of query.
+   *
+   * @return		the type
+   */
+  public QueryType getType() {
+    return m_Type;
+  }
+
+  /**
+   * Sets the condition for selecting rows.
+   *
+   * @param value	the condition, null for all rows
+   */
+  public void setCondition(RowCondition value) {
+    m_Condition = value;
+  }
+
+  /**
+   * Returns the condition for selecting rows.
+   *
+   * @return		the condition, null for all rows
+   */
+  public RowCondition getCondition() {
+    return m_Condition;
+  }
+
+  /**
+   * Sets the columns to retrieve.
+   *
+   * @param value	the columns, null for all
+   */
+  public void setColumns(SpreadSheetUnorderedColumnRange value) {
+    m_Columns = value;
+  }
+
+  /**
+   * Adds a column to rename.
+   *
+   * @param col		the current column name
+   * @param newCol	the new column name
+   */
+  public void addRenameColumn(String col, String newCol) {
+    m_RenameColumns.put(col, newCol);
+  }
+
+  /**
+   * Sets the row finder for generating a subsample.
+   *
+   * @param value	the row finder, null if not used
+   */
+  public void setSubsample(RowFinder value) {
+    m_Subsample = value;
+  }
+
+  /**
+   * Sets the columns to sort on.
+   *
+   * @param cols	the columns
+   * @param asc		the sort order
+   */
+  public void setSort(SpreadSheetColumnIndex[] cols, boolean[] asc) {
+    if (cols.length != asc.length)
+      throw new IllegalArgumentException("Number of sort columns and sort orders differ: " + cols.length + " != " + asc.length);
+    m_SortColumns = cols;
+    m_SortAsc     = asc;
+  }
+
+  /**
+   * Sets the limit.
+   *
+   * @param offset	the offset (0 is offset for first row)
+   * @param max		the maximum number of rows, -1 for unlimited
+   */
+  public void setLimit(int offset, int max) {
+    m_LimitOffset = offset;
+    m_LimitMax    = max;
+  }
+
+  /**
+   * Adds a column to update.
+   *
+   * @param col		the column
+   * @param value	the new value
+   */
+  public void addUpdateColumn(String col, String value) {
+    m_UpdateColumns.put(col, value);
+  }
+
+  /**
+   * Sets the sub-flow for generating the aggregates.
+   *
+   * @param value	the sub-flow
+   */
+  public void setAggregation(SubProcess value) {
+    m_Aggregation      = value;
+    m_AggregationSetUp = false;
+  }
+
+  /**
+   * Returns the sub-flow for generating the aggregates.
+   *
+   * @return		the sub-flow, null if not an aggregate query
+   */
+  public SubProcess getAggregation() {
+    return m_Aggregation;
+  }
+
+  /**
+   * Determines the rows that satisfy the condition.
+   *
+   * @param sheet	the spreadsheet to evaluate
+   * @param index	the index to use, can be null
+   * @return		the matching rows
+   */
+  protected BitSet selectRows(SpreadSheet sheet, QueryIndex index) {
+    BitSet	result;
+
+    if (m_Condition == null) {
+      result = new BitSet(sheet.getRowCount());
+      result.set(0, sheet.getRowCount());
+    }
+    else {
+      result = m_Condition.evaluate(sheet, index);
+    }
+
+    return result;
+  }
+
+  /**
+   * Copies the header and the specified rows into a new spreadsheet.
+   *
+   * @param sheet	the spreadsheet to filter
+   * @param rows	the rows to copy
+   * @return		the filtered spreadsheet
+   */
+  protected SpreadSheet filter(SpreadSheet sheet, BitSet rows) {
+    SpreadSheet	result;
+    int		i;
+
+    result = sheet.getHeader();
+    for (i = rows.nextSetBit(0); (i >= 0) && (i < sheet.getRowCount()); i = rows.nextSetBit(i + 1))
+      result.addRow().assign(sheet.getRow(i));
+
+    return result;
+  }
+
+  /**
+   * Copies the specified columns and rows into a new spreadsheet.
+   *
+   * @param sheet	the spreadsheet to filter
+   * @param rows	the rows to copy
+   * @return		the filtered spreadsheet
+   */
+  protected SpreadSheet reorder(SpreadSheet sheet, BitSet rows) {
+    SpreadSheet		result;
+    int[]		indices;
+    Row			rowOld;
+    Row			rowNew;
+    int			i;
+    int			n;
+
+    result = sheet.newInstance();
+    result.setDataRowClass(sheet.getDataRowClass());
+    for (String comment: sheet.getComments())
+      result.addComment(comment);
+
+    m_Columns.setData(sheet);
+    indices = m_Columns.getIntIndices();
+
+    rowOld = sheet.getHeaderRow();
+    rowNew = result.getHeaderRow();
+    for (i = 0; i < indices.length; i++)
+      rowNew.addCell("" + i).setContentAsString(rowOld.getContent(indices[i]));
+
+    for (n = rows.nextSetBit(0); (n >= 0) && (n < sheet.getRowCount()); n = rows.nextSetBit(n + 1)) {
+      rowOld = sheet.getRow(n);
+      rowNew = result.addRow();
+      for (i = 0; i < indices.length; i++) {
+	if (rowOld.hasCell(indices[i]))
+	  rowNew.addCell("" + i).assign(rowOld.getCell(indices[i]));
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Renames the columns.
+   *
+   * @param sheet	the spreadsheet to update
+   */
+  protected void rename(SpreadSheet sheet) {
+    SpreadSheetColumnIndex	col;
+    int				index;
+
+    for (String name: m_RenameColumns.keySet()) {
+      col = new SpreadSheetColumnIndex(name);
+      col.setSpreadSheet(sheet);
+      index = col.getIntIndex();
+      if (index == -1)
+	throw new IllegalStateException("Not a valid column index (1-based): " + col.getIndex());
+      sheet.getHeaderRow().getCell(index).setContent(m_RenameColumns.get(name));
+    }
+  }
+
+  /**
+   * Generates the subsample.
+   *
+   * @param sheet	the spreadsheet to subsample
+   * @return		the subsample
+   */
+  protected SpreadSheet subsample(SpreadSheet sheet) {
+    RowFinder	finder;
+    BitSet	rows;
+
+    // use a fresh copy to obtain the same subsample every time
+    if (m_Subsample instanceof OptionHandler)
+      finder = (RowFinder) OptionUtils.shallowCopy((OptionHandler) m_Subsample);
+    else
+      finder = m_Subsample;
+    rows = new BitSet(sheet.getRowCount());
+    for (int row: finder.findRows(sheet))
+      rows.set(row);
+
+    return filter(sheet, rows);
+  }
+
+  /**
+   * Sorts the spreadsheet.
+   *
+   * @param sheet	the spreadsheet to sort
+   */
+  protected void sort(SpreadSheet sheet) {
+    SpreadSheetColumnIndex	col;
+    int[]			indices;
+    int				i;
+
+    indices = new int[m_SortColumns.length];
+    for (i = 0; i < m_SortColumns.length; i++) {
+      col = new SpreadSheetColumnIndex(m_SortColumns[i].getIndex());
+      col.setSpreadSheet(sheet);
+      indices[i] = col.getIntIndex();
+    }
+    sheet.sort(new RowComparator(indices, m_SortAsc), false);
+  }
+
+  /**
+   * Applies the limit.
+   *
+   * @param sheet	the spreadsheet to limit
+   * @return		the limited spreadsheet
+   */
+  protected SpreadSheet limit(SpreadSheet sheet) {
+    BitSet	rows;
+
+    rows = new BitSet(sheet.getRowCount());
+    rows.set(Math.min(m_LimitOffset, sheet.getRowCount()), Math.min(m_LimitOffset + m_LimitMax, sheet.getRowCount()));
+
+    return filter(sheet, rows);
+  }
+
+  /**
+   * Updates the cells of the selected rows. Nothing happens if no rows
+   * have been selected.
+   *
+   * @param sheet	the spreadsheet to update
+   * @param rows	the rows to update
+   */
+  protected void update(SpreadSheet sheet, BitSet rows) {
+    SpreadSheetColumnRange	range;
+    int[]			cols;
+    Row				row;
+    Cell			cell;
+    String			value;
+    int				r;
+
+    if (rows.isEmpty())
+      return;
+
+    for (String col: m_UpdateColumns.keySet()) {
+      range = new SpreadSheetColumnRange(col);
+      range.setSpreadSheet(sheet);
+      cols = range.getIntIndices();
+      if (cols.length == 0)
+	throw new IllegalStateException("No column(s) selected? " + range.getRange());
+      value = m_UpdateColumns.get(col);
+      for (r = rows.nextSetBit(0); (r >= 0) && (r < sheet.getRowCount()); r = rows.nextSetBit(r + 1)) {
+	row = sheet.getRow(r);
+	for (int c: cols) {
+	  cell = row.getCell(c);
+	  if (cell == null)
+	    cell = row.addCell(c);
+	  cell.setContent(value);
+	}
+      }
+    }
+  }
+
+  /**
+   * Generates the aggregates.
+   *
+   * @param sheet	the (filtered) spreadsheet to aggregate
+   * @return		the aggregates
+   */
+  protected SpreadSheet aggregate(SpreadSheet sheet) {
+    String	msg;
+
+    msg = null;
+    if (!m_AggregationSetUp) {
+      msg = m_Aggregation.setUp();
+      m_AggregationSetUp = (msg == null);
+    }
+
+    if (msg == null) {
+      m_Aggregation.input(new Token(sheet));
+      try {
+	msg = m_Aggregation.execute();
+	if ((msg == null) && m_Aggregation.hasPendingOutput())
+	  return (SpreadSheet) m_Aggregation.output().getPayload();
+	msg = "Failed to execute flow:\n" + ((msg == null) ? "" : (msg + "\n\n"))
+	  + OptionUtils.getCommandLine(m_Aggregation);
+      }
+      catch (Exception e) {
+	msg = "Failed to execute flow:\n" + LoggingHelper.throwableToString(e) + "\n\n"
+	  + OptionUtils.getCommandLine(m_Aggregation);
+      }
+    }
+
+    throw new IllegalStateException(msg);
+  }
+
+  /**
+   * Applies the plan to the spreadsheet. The spreadsheet itself does not
+   * get modified.
+   *
+   * @param sheet	the spreadsheet to query
+   * @return		the result of the query
+   */
+  public SpreadSheet execute(SpreadSheet sheet) {
+    return execute(sheet, null);
+  }
+
+  /**
+   * Applies the plan to the spreadsheet, using the supplied index for
+   * evaluating column comparisons. The spreadsheet itself does not get
+   * modified.
+   *
+   * @param sheet	the spreadsheet to query
+   * @param index	the index to use, null to scan the spreadsheet
+   * @return		the result of the query
+   */
+  public synchronized SpreadSheet execute(SpreadSheet sheet, QueryIndex index) {
+    SpreadSheet	result;
+    BitSet	rows;
+
+    if ((index != null) && !index.isApplicable(sheet))
+      throw new IllegalArgumentException("Index was not built for this spreadsheet!");
+
+    rows = selectRows(sheet, index);
+
+    switch (m_Type) {
+      case SELECT:
+	if (m_Columns == null)
+	  result = filter(sheet, rows);
+	else
+	  result = reorder(sheet, rows);
+	rename(result);
+	if (m_Subsample != null)
+	  result = subsample(result);
+	if (m_SortColumns.length > 0)
+	  sort(result);
+	if (m_LimitMax > 0)
+	  result = limit(result);
+	break;
+
+      case UPDATE:
+	result = sheet.getClone();
+	update(result, rows);
+	break;
+
+      case DELETE:
+	rows.flip(0, sheet.getRowCount());
+	result = filter(sheet, rows);
+	break;
+
+      case AGGREGATE:
+	result = aggregate(filter(sheet, rows));
+	break;
+
+      default:
+	throw new IllegalStateException("Unhandled query type: " + m_Type);
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns a short description of the plan.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    List<String>	parts;
+
+    parts = new ArrayList<>();
+    parts.add(m_Type.toString());
+    if (m_Columns != null)
+      parts.add("columns=" + m_Columns.getRange());
+    if (!m_RenameColumns.isEmpty())
+      parts.add("rename=" + m_RenameColumns);
+    if (!m_UpdateColumns.isEmpty())
+      parts.add("update=" + m_UpdateColumns);
+    parts.add("where=" + ((m_Condition == null) ? "all" : m_Condition.toString()));
+    if (m_Subsample != null)
+      parts.add("subsample");
+    if (m_SortColumns.length > 0)
+      parts.add("sort=" + m_SortColumns.length);
+    if (m_LimitMax > 0)
+      parts.add("limit=" + m_LimitOffset + "," + m_LimitMax);
+
+    return String.join(", ", parts);
+  }
+}
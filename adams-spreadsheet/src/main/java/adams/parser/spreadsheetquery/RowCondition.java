@@ -0,0 +1,535 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * RowCondition.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.parser.spreadsheetquery;
+
+import adams.data.spreadsheet.Cell;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.data.spreadsheet.SpreadSheetColumnIndex;
+import adams.data.spreadsheet.rowfinder.RowFinder;
+
+import java.io.Serializable;
+import java.util.BitSet;
+
+/**
+ * Ancestor for the compiled conditions of a spreadsheet query. Conditions
+ * evaluate to a bitmap of the matching rows.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public abstract class RowCondition
+  implements Serializable {
+
+  private static final long serialVersionUID = -2419306426519585383L;
+
+  /**
+   * The comparison operators.
+   */
+  public enum Operator {
+    LT("<"),
+    LE("<="),
+    EQ("="),
+    NOT_EQ("<>"),
+    GE(">="),
+    GT(">");
+
+    /** the display string. */
+    private final String m_Display;
+
+    /**
+     * Initializes the operator.
+     *
+     * @param display	the display string
+     */
+    Operator(String display) {
+      m_Display = display;
+    }
+
+    /**
+     * Returns the display string.
+     *
+     * @return		the display string
+     */
+    @Override
+    public String toString() {
+      return m_Display;
+    }
+
+    /**
+     * Checks whether the comparison result satisfies the operator.
+     *
+     * @param cmp	the result of the comparison (negative, zero, positive)
+     * @return		true if satisfied
+     */
+    public boolean accepts(int cmp) {
+      switch (this) {
+	case LT:
+	  return cmp < 0;
+	case LE:
+	  return cmp <= 0;
+	case EQ:
+	  return cmp == 0;
+	case NOT_EQ:
+	  return cmp != 0;
+	case GE:
+	  return cmp >= 0;
+	case GT:
+	  return cmp > 0;
+	default:
+	  throw new IllegalStateException("Unhandled operator: " + this);
+      }
+    }
+  }
+
+  /**
+   * Ancestor for conditions on a single column.
+   */
+  public static abstract class AbstractColumnCondition
+    extends RowCondition {
+
+    private static final long serialVersionUID = 7811298005488813442L;
+
+    /** the column. */
+    protected SpreadSheetColumnIndex m_Column;
+
+    /**
+     * Initializes the condition.
+     *
+     * @param column	the column
+     */
+    protected AbstractColumnCondition(String column) {
+      m_Column = new SpreadSheetColumnIndex(column);
+    }
+
+    /**
+     * Determines the column index in the spreadsheet.
+     *
+     * @param sheet	the spreadsheet to use
+     * @return		the index
+     * @throws IllegalStateException	if the column cannot be located
+     */
+    protected synchronized int getColumnIndex(SpreadSheet sheet) {
+      int	result;
+
+      m_Column.setSpreadSheet(sheet);
+      result = m_Column.getIntIndex();
+      if (result == -1)
+	throw new IllegalStateException("Invalid index '" + m_Column.getIndex() + "'?");
+
+      return result;
+    }
+  }
+
+  /**
+   * Compares the numeric values of a column, skipping missing and
+   * non-numeric cells.
+   */
+  public static class NumericComparison
+    extends AbstractColumnCondition {
+
+    private static final long serialVersionUID = -2203452916298513428L;
+
+    /** the operator. */
+    protected Operator m_Operator;
+
+    /** the value to compare against. */
+    protected double m_Value;
+
+    /**
+     * Initializes the condition.
+     *
+     * @param column	the column
+     * @param operator	the comparison operator
+     * @param value	the value to compare against
+     */
+    public NumericComparison(String column, Operator operator, double value) {
+      super(column);
+      m_Operator = operator;
+      m_Value    = value;
+    }
+
+    /**
+     * Compares the two numbers, treating -0.0 and 0.0 as equal.
+     *
+     * @param value	the cell value
+     * @param ref	the reference value
+     * @return		negative, zero or positive
+     */
+    public static int compare(double value, double ref) {
+      if (value < ref)
+	return -1;
+      else if (value > ref)
+	return 1;
+      else
+	return 0;
+    }
+
+    /**
+     * Evaluates the condition.
+     *
+     * @param sheet	the spreadsheet to evaluate the condition against
+     * @param index	the index to use, can be null
+     * @return		the matching rows
+     */
+    @Override
+    public BitSet evaluate(SpreadSheet sheet, QueryIndex index) {
+      BitSet	result;
+      int	col;
+      int	i;
+      Row	row;
+      Cell	cell;
+      double	value;
+
+      col = getColumnIndex(sheet);
+      if (index != null) {
+	if (!index.isNumeric(col))
+	  throw new IllegalStateException("Column at index '" + m_Column.getIndex() + "' is not numeric!");
+	return index.findNumeric(col, m_Operator, m_Value);
+      }
+
+      if (!sheet.isNumeric(col, true))
+	throw new IllegalStateException("Column at index '" + m_Column.getIndex() + "' is not numeric!");
+
+      result = new BitSet(sheet.getRowCount());
+      for (i = 0; i < sheet.getRowCount(); i++) {
+	row = sheet.getRow(i);
+	if (!row.hasCell(col))
+	  continue;
+	cell = row.getCell(col);
+	if (cell.isMissing() || !cell.isNumeric())
+	  continue;
+	value = cell.toDouble();
+	// NaN never matches, not even for "<>"
+	if (Double.isNaN(value))
+	  continue;
+	if (m_Operator.accepts(compare(value, m_Value)))
+	  result.set(i);
+      }
+
+      return result;
+    }
+
+    /**
+     * Returns a string representation of the condition.
+     *
+     * @return		the string representation
+     */
+    @Override
+    public String toString() {
+      return m_Column.getIndex() + " " + m_Operator + " " + m_Value;
+    }
+  }
+
+  /**
+   * Compares the string content of a column lexicographically, skipping
+   * missing cells. An empty string does not impose any bound, i.e., all
+   * non-missing cells match.
+   */
+  public static class StringComparison
+    extends AbstractColumnCondition {
+
+    private static final long serialVersionUID = 5300426358893549386L;
+
+    /** the operator. */
+    protected Operator m_Operator;
+
+    /** the value to compare against. */
+    protected String m_Value;
+
+    /**
+     * Initializes the condition.
+     *
+     * @param column	the column
+     * @param operator	the comparison operator
+     * @param value	the value to compare against
+     */
+    public StringComparison(String column, Operator operator, String value) {
+      super(column);
+      m_Operator = operator;
+      m_Value    = value;
+    }
+
+    /**
+     * Evaluates the condition.
+     *
+     * @param sheet	the spreadsheet to evaluate the condition against
+     * @param index	the index to use, can be null
+     * @return		the matching rows
+     */
+    @Override
+    public BitSet evaluate(SpreadSheet sheet, QueryIndex index) {
+      BitSet	result;
+      int	col;
+      int	i;
+      Row	row;
+      Cell	cell;
+
+      col = getColumnIndex(sheet);
+      if (index != null)
+	return index.findString(col, m_Operator, m_Value);
+
+      result = new BitSet(sheet.getRowCount());
+      for (i = 0; i < sheet.getRowCount(); i++) {
+	row = sheet.getRow(i);
+	if (!row.hasCell(col))
+	  continue;
+	cell = row.getCell(col);
+	if (cell.isMissing())
+	  continue;
+	if (m_Value.isEmpty() || m_Operator.accepts(cell.getContent().compareTo(m_Value)))
+	  result.set(i);
+      }
+
+      return result;
+    }
+
+    /**
+     * Returns a string representation of the condition.
+     *
+     * @return		the string representation
+     */
+    @Override
+    public String toString() {
+      return m_Column.getIndex() + " " + m_Operator + " \"" + m_Value + "\"";
+    }
+  }
+
+  /**
+   * Uses a row finder for locating the matching rows.
+   */
+  public static class RowFinderCondition
+    extends RowCondition {
+
+    private static final long serialVersionUID = 1968331069400640049L;
+
+    /** the row finder to use. */
+    protected RowFinder m_Finder;
+
+    /** the description. */
+    protected String m_Description;
+
+    /**
+     * Initializes the condition.
+     *
+     * @param finder		the row finder to use
+     * @param description	the description of the condition
+     */
+    public RowFinderCondition(RowFinder finder, String description) {
+      m_Finder      = finder;
+      m_Description = description;
+    }
+
+    /**
+     * Evaluates the condition.
+     *
+     * @param sheet	the spreadsheet to evaluate the condition against
+     * @param index	ignored
+     * @return		the matching rows
+     */
+    @Override
+    public BitSet evaluate(SpreadSheet sheet, QueryIndex index) {
+      BitSet	result;
+      int[]	rows;
+
+      synchronized(m_Finder) {
+	rows = m_Finder.findRows(sheet);
+      }
+      result = new BitSet(sheet.getRowCount());
+      for (int row: rows)
+	result.set(row);
+
+      return result;
+    }
+
+    /**
+     * Returns a string representation of the condition.
+     *
+     * @return		the string representation
+     */
+    @Override
+    public String toString() {
+      return m_Description;
+    }
+  }
+
+  /**
+   * Combines two conditions with logical AND.
+   */
+  public static class And
+    extends RowCondition {
+
+    private static final long serialVersionUID = -6178457380587017040L;
+
+    /** the first condition. */
+    protected RowCondition m_First;
+
+    /** the second condition. */
+    protected RowCondition m_Second;
+
+    /**
+     * Initializes the condition.
+     *
+     * @param first	the first condition
+     * @param second	the second condition
+     */
+    public And(RowCondition first, RowCondition second) {
+      m_First  = first;
+      m_Second = second;
+    }
+
+    /**
+     * Evaluates the condition.
+     *
+     * @param sheet	the spreadsheet to evaluate the condition against
+     * @param index	the index to use, can be null
+     * @return		the matching rows
+     */
+    @Override
+    public BitSet evaluate(SpreadSheet sheet, QueryIndex index) {
+      BitSet	result;
+
+      result = m_First.evaluate(sheet, index);
+      result.and(m_Second.evaluate(sheet, index));
+
+      return result;
+    }
+
+    /**
+     * Returns a string representation of the condition.
+     *
+     * @return		the string representation
+     */
+    @Override
+    public String toString() {
+      return "(" + m_First + " AND " + m_Second + ")";
+    }
+  }
+
+  /**
+   * Combines two conditions with logical OR.
+   */
+  public static class Or
+    extends RowCondition {
+
+    private static final long serialVersionUID = 7346014233957735958L;
+
+    /** the first condition. */
+    protected RowCondition m_First;
+
+    /** the second condition. */
+    protected RowCondition m_Second;
+
+    /**
+     * Initializes the condition.
+     *
+     * @param first	the first condition
+     * @param second	the second condition
+     */
+    public Or(RowCondition first, RowCondition second) {
+      m_First  = first;
+      m_Second = second;
+    }
+
+    /**
+     * Evaluates the condition.
+     *
+     * @param sheet	the spreadsheet to evaluate the condition against
+     * @param index	the index to use, can be null
+     * @return		the matching rows
+     */
+    @Override
+    public BitSet evaluate(SpreadSheet sheet, QueryIndex index) {
+      BitSet	result;
+
+      result = m_First.evaluate(sheet, index);
+      result.or(m_Second.evaluate(sheet, index));
+
+      return result;
+    }
+
+    /**
+     * Returns a string representation of the condition.
+     *
+     * @return		the string representation
+     */
+    @Override
+    public String toString() {
+      return "(" + m_First + " OR " + m_Second + ")";
+    }
+  }
+
+  /**
+   * Inverts a condition.
+   */
+  public static class Not
+    extends RowCondition {
+
+    private static final long serialVersionUID = 3093485412541520178L;
+
+    /** the condition to invert. */
+    protected RowCondition m_Condition;
+
+    /**
+     * Initializes the condition.
+     *
+     * @param condition	the condition to invert
+     */
+    public Not(RowCondition condition) {
+      m_Condition = condition;
+    }
+
+    /**
+     * Evaluates the condition.
+     *
+     * @param sheet	the spreadsheet to evaluate the condition against
+     * @param index	the index to use, can be null
+     * @return		the matching rows
+     */
+    @Override
+    public BitSet evaluate(SpreadSheet sheet, QueryIndex index) {
+      BitSet	result;
+
+      result = m_Condition.evaluate(sheet, index);
+      result.flip(0, sheet.getRowCount());
+
+      return result;
+    }
+
+    /**
+     * Returns a string representation of the condition.
+     *
+     * @return		the string representation
+     */
+    @Override
+    public String toString() {
+      return "NOT " + m_Condition;
+    }
+  }
+
+  /**
+   * Evaluates the condition.
+   *
+   * @param sheet	the spreadsheet to evaluate the condition against
+   * @param index	the index to use, can be null
+   * @return		the matching rows
+   */
+  public abstract BitSet evaluate(SpreadSheet sheet, QueryIndex index);
+}
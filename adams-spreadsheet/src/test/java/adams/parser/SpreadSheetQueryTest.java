@@ -15,18 +15,23 @@
 
 /**
  * SpreadSheetQueryTest.java
- * Copyright (C) 2013-2015 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2013-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.parser;
 
 import adams.core.base.BaseString;
 import adams.data.io.input.CsvSpreadSheetReader;
 import adams.data.spreadsheet.SpreadSheet;
+import adams.data.spreadsheet.SpreadSheetHelper;
 import adams.env.Environment;
+import adams.parser.spreadsheetquery.QueryIndex;
+import adams.parser.spreadsheetquery.QueryPlan;
 import adams.test.TmpFile;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import java.util.HashMap;
+
 /**
  * Tests the adams.parser.SpreadSheetQuery class. Run from commandline with: <br><br>
  * java adams.parser.SpreadSheetQueryTest
@@ -156,6 +161,29 @@ public class SpreadSheetQueryTest
     return new SpreadSheetQuery[]{new SpreadSheetQuery()};
   }
 
+  /**
+   * Tests that re-using a compiled plan, with and without index, produces
+   * the same output as evaluating the query from scratch.
+   *
+   * @throws Exception	if evaluation fails
+   */
+  public void testCompiledPlan() throws Exception {
+    String[]	queries;
+    QueryPlan	plan;
+    QueryIndex	index;
+    SpreadSheet	expected;
+
+    queries = getRegressionExpressions()[0];
+    index   = new QueryIndex(m_Sheet);
+    for (String query: queries) {
+      expected = SpreadSheetQuery.evaluate(query, new HashMap(), m_Sheet);
+      plan     = SpreadSheetQuery.compile(query, new HashMap());
+      assertNull(query, SpreadSheetHelper.compare(expected, plan.execute(m_Sheet)));
+      assertNull(query, SpreadSheetHelper.compare(expected, plan.execute(m_Sheet, index)));
+      assertNull(query, SpreadSheetHelper.compare(expected, plan.execute(m_Sheet, index)));
+    }
+  }
+
   /**
    * Returns a test suite.
    *
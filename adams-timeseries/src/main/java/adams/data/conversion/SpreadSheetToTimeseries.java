@@ -15,7 +15,7 @@
 
 /**
  * SpreadSheetToTimeseries.java
- * Copyright (C) 2013 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2013-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.data.conversion;
 
@@ -24,6 +24,7 @@ import java.util.Date;
 import adams.data.spreadsheet.Row;
 import adams.data.spreadsheet.SpreadSheet;
 import adams.data.spreadsheet.SpreadSheetColumnIndex;
+import adams.data.timeseries.CompactTimeseries;
 import adams.data.timeseries.Timeseries;
 import adams.data.timeseries.TimeseriesPoint;
 
@@ -54,6 +55,12 @@ import adams.data.timeseries.TimeseriesPoint;
  * &nbsp;&nbsp;&nbsp;example: An index is a number starting with 1; apart from column names (case-sensitive), the following placeholders can be used as well: first, second, third, last_2, last_1, last
  * </pre>
  * 
+ * <pre>-compact &lt;boolean&gt; (property: compact)
+ * &nbsp;&nbsp;&nbsp;If enabled, the timeseries get stored in compact, array-backed containers, 
+ * &nbsp;&nbsp;&nbsp;which require a lot less memory for long timeseries.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
@@ -70,6 +77,9 @@ public class SpreadSheetToTimeseries
   
   /** the value column to use. */
   protected SpreadSheetColumnIndex m_ValueColumn;
+
+  /** whether to generate compact timeseries. */
+  protected boolean m_Compact;
   
   /**
    * Returns a string describing the object.
@@ -95,6 +105,10 @@ public class SpreadSheetToTimeseries
     m_OptionManager.add(
 	    "value-column", "valueColumn",
 	    new SpreadSheetColumnIndex("2"));
+
+    m_OptionManager.add(
+	    "compact", "compact",
+	    false);
   }
 
   /**
@@ -155,6 +169,35 @@ public class SpreadSheetToTimeseries
     return "The index of the column with the timeseries values in the dataset.";
   }
 
+  /**
+   * Sets whether to generate compact, array-backed timeseries.
+   *
+   * @param value	true if to generate compact timeseries
+   */
+  public void setCompact(boolean value) {
+    m_Compact = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to generate compact, array-backed timeseries.
+   *
+   * @return		true if to generate compact timeseries
+   */
+  public boolean getCompact() {
+    return m_Compact;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String compactTipText() {
+    return "If enabled, the timeseries get stored in compact, array-backed containers, which require a lot less memory for long timeseries.";
+  }
+
   /**
    * Returns the class that is accepted as input.
    *
@@ -192,6 +235,7 @@ public class SpreadSheetToTimeseries
     int				i;
     Date			timestamp;
     double			value;
+    String			id;
     
     input = (SpreadSheet) m_Input;
 
@@ -205,14 +249,23 @@ public class SpreadSheetToTimeseries
     if (indexValue == -1)
       throw new IllegalStateException("Failed to located value column: " + m_ValueColumn.getIndex());
     
-    result = new Timeseries((input.getName() != null ? (input.getName() + "-") : ("")) + input.getColumnName(indexValue));
+    id = (input.getName() != null ? (input.getName() + "-") : ("")) + input.getColumnName(indexValue);
+    if (m_Compact)
+      result = new CompactTimeseries(id, input.getRowCount());
+    else
+      result = new Timeseries(id);
     for (i = 0; i < input.getRowCount(); i++) {
       row = input.getRow(i);
       if (row.hasCell(indexDate) && !row.getCell(indexDate).isMissing() && row.hasCell(indexValue) && !row.getCell(indexValue).isMissing()) {
 	timestamp = row.getCell(indexDate).toAnyDateType();
 	value     = row.getCell(indexValue).toDouble();
-	point     = new TimeseriesPoint(timestamp, value);
-	result.add(point);
+	if (m_Compact) {
+	  ((CompactTimeseries) result).append(timestamp, value);
+	}
+	else {
+	  point = new TimeseriesPoint(timestamp, value);
+	  result.add(point);
+	}
       }
     }
     
@@ -15,11 +15,12 @@
 
 /**
  * AbstractTimeseriesReader.java
- * Copyright (C) 2013 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2013-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.data.io.input;
 
 import adams.core.ClassLister;
+import adams.data.timeseries.CompactTimeseries;
 import adams.data.timeseries.Timeseries;
 
 /**
@@ -34,6 +35,63 @@ public abstract class AbstractTimeseriesReader
   /** for serialization. */
   private static final long serialVersionUID = -3384980618158494184L;
 
+  /** whether to generate compact timeseries. */
+  protected boolean m_Compact;
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+	    "compact", "compact",
+	    false);
+  }
+
+  /**
+   * Sets whether to generate compact, array-backed timeseries.
+   *
+   * @param value	true if to generate compact timeseries
+   */
+  public void setCompact(boolean value) {
+    m_Compact = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to generate compact, array-backed timeseries.
+   *
+   * @return		true if to generate compact timeseries
+   */
+  public boolean getCompact() {
+    return m_Compact;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String compactTipText() {
+    return "If enabled, the timeseries get stored in compact, array-backed containers, which require a lot less memory for long timeseries.";
+  }
+
+  /**
+   * Creates a new, empty timeseries.
+   *
+   * @return		the timeseries
+   * @see		#getCompact()
+   */
+  protected Timeseries newTimeseries() {
+    if (m_Compact)
+      return new CompactTimeseries();
+    else
+      return new Timeseries();
+  }
+
   /**
    * Returns a list with classnames of readers.
    *
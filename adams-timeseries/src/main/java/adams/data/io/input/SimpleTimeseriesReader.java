@@ -15,7 +15,7 @@
 
 /**
  * SimpleTimeseriesReader.java
- * Copyright (C) 2013-2015 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2013-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.data.io.input;
 
@@ -147,12 +147,13 @@ public class SimpleTimeseriesReader
     FileReader		fr;
     String[]		parts;
     DateFormat		dformat;
+    int			i;
 
     reader  = null;
     fr      = null;
     fis     = null;
     dformat = m_TimestampFormat.toDateFormat();
-    series  = new Timeseries();
+    series  = newTimeseries();
     
     try {
       if (m_Input.getName().endsWith(".gz")) {
@@ -171,9 +172,10 @@ public class SimpleTimeseriesReader
 
       // report?
       report = new ArrayList<String>();
-      while ((content.size() > 0) && content.get(0).startsWith(Properties.COMMENT)) {
-	report.add(content.get(0));
-	content.remove(0);
+      i      = 0;
+      while ((i < content.size()) && content.get(i).startsWith(Properties.COMMENT)) {
+	report.add(content.get(i));
+	i++;
       }
       if (report.size() > 0) {
 	sd = Report.parseProperties(Properties.fromComment(Utils.flatten(report, "\n")));
@@ -184,12 +186,15 @@ public class SimpleTimeseriesReader
       }
 
       // header - ignored
-      content.remove(0);
+      if (i >= content.size())
+	throw new IllegalStateException("No header row present!");
+      i++;
 
       // data points
-      while (content.size() > 0) {
-	line   = content.get(0).trim();
-	content.remove(0);
+      series.ensureCapacity(content.size() - i);
+      while (i < content.size()) {
+	line = content.get(i).trim();
+	i++;
 	if (line.length() == 0)
 	  continue;
 	parts = line.split(",");
@@ -15,7 +15,7 @@
 
 /**
  * SpreadSheetTimeseriesReader.java
- * Copyright (C) 2013 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2013-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.data.io.input;
 
@@ -55,6 +55,12 @@ import java.util.logging.Level;
  * &nbsp;&nbsp;&nbsp;default: false
  * </pre>
  * 
+ * <pre>-compact &lt;boolean&gt; (property: compact)
+ * &nbsp;&nbsp;&nbsp;If enabled, the timeseries get stored in compact, array-backed containers, 
+ * &nbsp;&nbsp;&nbsp;which require a lot less memory for long timeseries.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
  * <pre>-reader &lt;adams.data.io.input.SpreadSheetReader&gt; (property: reader)
  * &nbsp;&nbsp;&nbsp;The reader to use for reading the spreadsheet file.
  * &nbsp;&nbsp;&nbsp;default: adams.data.io.input.CsvSpreadSheetReader
@@ -391,7 +397,7 @@ public class SpreadSheetTimeseriesReader
       // read data point
       point = readDataPoint(sheet);
       if (!id.equals(idOld)) {
-	m_Timeseries = new Timeseries();
+	m_Timeseries = newTimeseries();
 	m_Timeseries.setID(id);
 	m_Timeseries.add(point);
 	m_ReadData.add(m_Timeseries);
@@ -0,0 +1,1018 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * CompactTimeseries.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+package adams.data.timeseries;
+
+import adams.data.container.DataContainer;
+import adams.data.container.DataPointComparator;
+import adams.data.report.Report;
+import adams.data.statistics.TimeseriesStatistic;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.TreeSet;
+
+/**
+ * Timeseries that stores its data points in two parallel arrays, one with
+ * the timestamps (epoch msecs) and one with the values, rather than as
+ * {@link TimeseriesPoint} objects. Meant for very long timeseries.
+ * <br><br>
+ * Appending points is amortized O(1): points that are out of order are just
+ * appended and the arrays only get sorted (stable, the last value added for
+ * a timestamp wins) once the data gets accessed. {@link TimeseriesPoint}
+ * objects are only created on demand, e.g., when iterating or when using
+ * {@link #toList()}. These points are views: changing their value or
+ * timestamp updates the timeseries, as long as they have not been added to
+ * another timeseries.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CompactTimeseries
+  extends Timeseries<TimeseriesPoint, Report, TimeseriesStatistic> {
+
+  private static final long serialVersionUID = 4617420393014861392L;
+
+  /** the default capacity. */
+  public final static int DEFAULT_CAPACITY = 16;
+
+  /** below this size, insertion sort is used. */
+  protected final static int INSERTION_SORT_THRESHOLD = 32;
+
+  /**
+   * Point generated on demand, which writes changes through to the
+   * timeseries that it belongs to.
+   */
+  protected static class PointView
+    extends TimeseriesPoint {
+
+    private static final long serialVersionUID = -6125790386950213394L;
+
+    /**
+     * Initializes the point.
+     *
+     * @param parent	the timeseries the point belongs to
+     * @param timestamp	the timestamp (epoch msecs)
+     * @param value	the value
+     */
+    public PointView(CompactTimeseries parent, long timestamp, double value) {
+      super(new Date(timestamp), value);
+      setParent(parent);
+    }
+
+    /**
+     * Sets the timestamp, moving the point in the timeseries.
+     *
+     * @param value	the timestamp
+     */
+    @Override
+    public void setTimestamp(Date value) {
+      Date	old;
+
+      old = m_Timestamp;
+      super.setTimestamp(value);
+      if ((old != null) && (m_Parent instanceof CompactTimeseries))
+	((CompactTimeseries) m_Parent).move(old.getTime(), value.getTime(), m_Value);
+    }
+
+    /**
+     * Sets the value, updating the timeseries.
+     *
+     * @param value	the value
+     */
+    @Override
+    public void setValue(double value) {
+      super.setValue(value);
+      if (m_Parent instanceof CompactTimeseries)
+	((CompactTimeseries) m_Parent).update(m_Timestamp.getTime(), value);
+    }
+  }
+
+  /**
+   * Read-only list view of the timeseries, generating the points on demand.
+   */
+  protected class PointList
+    extends AbstractList<TimeseriesPoint>
+    implements RandomAccess {
+
+    /**
+     * Returns the point at the specified position.
+     *
+     * @param index	the position
+     * @return		the generated point
+     */
+    @Override
+    public TimeseriesPoint get(int index) {
+      return getPoint(index);
+    }
+
+    /**
+     * Returns the number of points.
+     *
+     * @return		the number of points
+     */
+    @Override
+    public int size() {
+      return CompactTimeseries.this.size();
+    }
+  }
+
+  /** the timestamps (epoch msecs). */
+  protected long[] m_Timestamps;
+
+  /** the values. */
+  protected double[] m_Values;
+
+  /** the number of points stored in the arrays. */
+  protected int m_Size;
+
+  /** whether the arrays are sorted and contain no duplicate timestamps. */
+  protected boolean m_Sorted;
+
+  /**
+   * Initializes the timeseries with no ID.
+   */
+  public CompactTimeseries() {
+    this("none");
+  }
+
+  /**
+   * Initializes the timeseries with the specified ID.
+   *
+   * @param id		the ID
+   */
+  public CompactTimeseries(String id) {
+    this(id, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Initializes the timeseries with the specified ID and initial capacity.
+   *
+   * @param id		the ID
+   * @param capacity	the initial capacity
+   */
+  public CompactTimeseries(String id, int capacity) {
+    super(id);
+
+    m_Timestamps = new long[Math.max(1, capacity)];
+    m_Values     = new double[m_Timestamps.length];
+    m_Size       = 0;
+    m_Sorted     = true;
+  }
+
+  /**
+   * Ensures that the arrays can hold the specified number of points.
+   *
+   * @param minCapacity	the minimum number of points
+   */
+  @Override
+  public synchronized void ensureCapacity(int minCapacity) {
+    int		capacity;
+
+    if (minCapacity <= m_Timestamps.length)
+      return;
+
+    capacity     = Math.max(minCapacity, m_Timestamps.length + (m_Timestamps.length >> 1));
+    m_Timestamps = Arrays.copyOf(m_Timestamps, capacity);
+    m_Values     = Arrays.copyOf(m_Values, capacity);
+  }
+
+  /**
+   * Trims the arrays to the actual number of points.
+   */
+  @Override
+  public synchronized void trimToSize() {
+    sort();
+    if (m_Size < m_Timestamps.length) {
+      m_Timestamps = Arrays.copyOf(m_Timestamps, Math.max(1, m_Size));
+      m_Values     = Arrays.copyOf(m_Values, m_Timestamps.length);
+    }
+  }
+
+  /**
+   * Sorts the arrays (stable) and removes duplicate timestamps, the value
+   * added last wins.
+   *
+   * @param timestamps	the timestamps to sort
+   * @param values	the associated values
+   * @param length	the number of points to sort
+   * @return		the number of points after removing duplicates
+   */
+  protected static int sort(long[] timestamps, double[] values, int length) {
+    int		i;
+    int		n;
+
+    mergeSort(timestamps, values, new long[length], new double[length], 0, length);
+
+    n = 0;
+    for (i = 0; i < length; i++) {
+      if ((n > 0) && (timestamps[n - 1] == timestamps[i])) {
+	values[n - 1] = values[i];
+      }
+      else {
+	timestamps[n] = timestamps[i];
+	values[n]     = values[i];
+	n++;
+      }
+    }
+
+    return n;
+  }
+
+  /**
+   * Stable merge sort of the timestamps and associated values. Sorted runs,
+   * like appended data usually is, get skipped.
+   *
+   * @param timestamps	the timestamps to sort
+   * @param values	the associated values
+   * @param tmpTimestamps	temporary storage for the timestamps
+   * @param tmpValues	temporary storage for the values
+   * @param from	the first position (incl)
+   * @param to		the last position (excl)
+   */
+  protected static void mergeSort(long[] timestamps, double[] values, long[] tmpTimestamps, double[] tmpValues, int from, int to) {
+    int		mid;
+    int		i;
+    int		j;
+    int		k;
+    long	timestamp;
+    double	value;
+
+    if (to - from < INSERTION_SORT_THRESHOLD) {
+      for (i = from + 1; i < to; i++) {
+	timestamp = timestamps[i];
+	value     = values[i];
+	for (j = i; (j > from) && (timestamps[j - 1] > timestamp); j--) {
+	  timestamps[j] = timestamps[j - 1];
+	  values[j]     = values[j - 1];
+	}
+	timestamps[j] = timestamp;
+	values[j]     = value;
+      }
+      return;
+    }
+
+    mid = (from + to) >>> 1;
+    mergeSort(timestamps, values, tmpTimestamps, tmpValues, from, mid);
+    mergeSort(timestamps, values, tmpTimestamps, tmpValues, mid, to);
+    if (timestamps[mid - 1] <= timestamps[mid])
+      return;
+
+    System.arraycopy(timestamps, from, tmpTimestamps, from, to - from);
+    System.arraycopy(values, from, tmpValues, from, to - from);
+    i = from;
+    j = mid;
+    k = from;
+    while ((i < mid) && (j < to)) {
+      if (tmpTimestamps[j] < tmpTimestamps[i]) {
+	timestamps[k] = tmpTimestamps[j];
+	values[k]     = tmpValues[j];
+	j++;
+      }
+      else {
+	timestamps[k] = tmpTimestamps[i];
+	values[k]     = tmpValues[i];
+	i++;
+      }
+      k++;
+    }
+    if (i < mid) {
+      System.arraycopy(tmpTimestamps, i, timestamps, k, mid - i);
+      System.arraycopy(tmpValues, i, values, k, mid - i);
+    }
+    if (j < to) {
+      System.arraycopy(tmpTimestamps, j, timestamps, k, to - j);
+      System.arraycopy(tmpValues, j, values, k, to - j);
+    }
+  }
+
+  /**
+   * Sorts the data points if necessary.
+   */
+  protected synchronized void sort() {
+    if (m_Sorted)
+      return;
+
+    m_Size   = sort(m_Timestamps, m_Values, m_Size);
+    m_Sorted = true;
+  }
+
+  /**
+   * Appends the data point. Amortized O(1), points that are out of order
+   * get sorted once the data is accessed.
+   *
+   * @param timestamp	the timestamp (epoch msecs)
+   * @param value	the value
+   */
+  public synchronized void append(long timestamp, double value) {
+    if ((m_Size > 0) && m_Sorted && (timestamp == m_Timestamps[m_Size - 1])) {
+      m_Values[m_Size - 1] = value;
+    }
+    else {
+      if ((m_Size > 0) && (timestamp < m_Timestamps[m_Size - 1]))
+	m_Sorted = false;
+      if (m_Size == m_Timestamps.length)
+	ensureCapacity(m_Size + 1);
+      m_Timestamps[m_Size] = timestamp;
+      m_Values[m_Size]     = value;
+      m_Size++;
+    }
+    modifiedListener(true);
+  }
+
+  /**
+   * Appends the data point.
+   *
+   * @param timestamp	the timestamp
+   * @param value	the value
+   * @see		#append(long, double)
+   */
+  public void append(Date timestamp, double value) {
+    append(timestamp.getTime(), value);
+  }
+
+  /**
+   * Merges the data points into this timeseries. The data points do not
+   * have to be sorted. Values of timestamps that are already present get
+   * replaced.
+   *
+   * @param timestamps	the timestamps (epoch msecs)
+   * @param values	the associated values
+   */
+  public void merge(long[] timestamps, double[] values) {
+    merge(timestamps, values, true);
+  }
+
+  /**
+   * Merges the data points into this timeseries. The data points do not
+   * have to be sorted.
+   *
+   * @param timestamps	the timestamps (epoch msecs)
+   * @param values	the associated values
+   * @param replace	whether to replace the values of timestamps that are
+   *                    already present
+   */
+  protected synchronized void merge(long[] timestamps, double[] values, boolean replace) {
+    long[]	otherTimestamps;
+    double[]	otherValues;
+    int		otherSize;
+    long[]	newTimestamps;
+    double[]	newValues;
+    int		i;
+    int		j;
+    int		k;
+
+    if (timestamps.length != values.length)
+      throw new IllegalArgumentException("Number of timestamps and values differ: " + timestamps.length + " != " + values.length);
+    if (timestamps.length == 0)
+      return;
+
+    sort();
+    otherTimestamps = Arrays.copyOf(timestamps, timestamps.length);
+    otherValues     = Arrays.copyOf(values, values.length);
+    otherSize       = sort(otherTimestamps, otherValues, otherTimestamps.length);
+
+    // simply append?
+    if ((m_Size == 0) || (otherTimestamps[0] > m_Timestamps[m_Size - 1])) {
+      ensureCapacity(m_Size + otherSize);
+      System.arraycopy(otherTimestamps, 0, m_Timestamps, m_Size, otherSize);
+      System.arraycopy(otherValues, 0, m_Values, m_Size, otherSize);
+      m_Size += otherSize;
+      modifiedListener(true);
+      return;
+    }
+
+    newTimestamps = new long[m_Size + otherSize];
+    newValues     = new double[newTimestamps.length];
+    i = 0;
+    j = 0;
+    k = 0;
+    while ((i < m_Size) && (j < otherSize)) {
+      if (m_Timestamps[i] < otherTimestamps[j]) {
+	newTimestamps[k] = m_Timestamps[i];
+	newValues[k]     = m_Values[i];
+	i++;
+      }
+      else if (otherTimestamps[j] < m_Timestamps[i]) {
+	newTimestamps[k] = otherTimestamps[j];
+	newValues[k]     = otherValues[j];
+	j++;
+      }
+      else {
+	newTimestamps[k] = m_Timestamps[i];
+	newValues[k]     = replace ? otherValues[j] : m_Values[i];
+	i++;
+	j++;
+      }
+      k++;
+    }
+    if (i < m_Size) {
+      System.arraycopy(m_Timestamps, i, newTimestamps, k, m_Size - i);
+      System.arraycopy(m_Values, i, newValues, k, m_Size - i);
+      k += m_Size - i;
+    }
+    if (j < otherSize) {
+      System.arraycopy(otherTimestamps, j, newTimestamps, k, otherSize - j);
+      System.arraycopy(otherValues, j, newValues, k, otherSize - j);
+      k += otherSize - j;
+    }
+
+    m_Timestamps = newTimestamps;
+    m_Values     = newValues;
+    m_Size       = k;
+    modifiedListener(true);
+  }
+
+  /**
+   * Returns the position of the timestamp.
+   *
+   * @param timestamp	the timestamp (epoch msecs) to look for
+   * @return		the position, -1 if not found
+   */
+  public synchronized int indexOf(long timestamp) {
+    int		result;
+
+    sort();
+    result = Arrays.binarySearch(m_Timestamps, 0, m_Size, timestamp);
+    if (result < 0)
+      result = -1;
+
+    return result;
+  }
+
+  /**
+   * Returns the timestamp at the specified position.
+   *
+   * @param index	the position
+   * @return		the timestamp (epoch msecs)
+   */
+  public synchronized long getTimestamp(int index) {
+    sort();
+    if ((index < 0) || (index >= m_Size))
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + m_Size);
+    return m_Timestamps[index];
+  }
+
+  /**
+   * Returns the value at the specified position.
+   *
+   * @param index	the position
+   * @return		the value
+   */
+  public synchronized double getValue(int index) {
+    sort();
+    if ((index < 0) || (index >= m_Size))
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + m_Size);
+    return m_Values[index];
+  }
+
+  /**
+   * Sets the value at the specified position.
+   *
+   * @param index	the position
+   * @param value	the new value
+   */
+  public synchronized void setValue(int index, double value) {
+    sort();
+    if ((index < 0) || (index >= m_Size))
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + m_Size);
+    m_Values[index] = value;
+    modifiedListener(true);
+  }
+
+  /**
+   * Updates the value of the point with the specified timestamp, if present.
+   *
+   * @param timestamp	the timestamp (epoch msecs) of the point
+   * @param value	the new value
+   */
+  protected synchronized void update(long timestamp, double value) {
+    int		index;
+
+    index = indexOf(timestamp);
+    if (index == -1)
+      return;
+    m_Values[index] = value;
+    modifiedListener(true);
+  }
+
+  /**
+   * Moves the point with the specified timestamp to the new timestamp, if
+   * present. Replaces any point with the new timestamp.
+   *
+   * @param from	the current timestamp (epoch msecs) of the point
+   * @param to		the new timestamp (epoch msecs)
+   * @param value	the value of the point
+   */
+  protected synchronized void move(long from, long to, double value) {
+    int		index;
+
+    index = indexOf(from);
+    if (index == -1)
+      return;
+    System.arraycopy(m_Timestamps, index + 1, m_Timestamps, index, m_Size - index - 1);
+    System.arraycopy(m_Values, index + 1, m_Values, index, m_Size - index - 1);
+    m_Size--;
+    append(to, value);
+  }
+
+  /**
+   * Creates a data point for the specified position.
+   *
+   * @param index	the position
+   * @return		the data point (a view, changes get written through)
+   */
+  public synchronized TimeseriesPoint getPoint(int index) {
+    sort();
+    if ((index < 0) || (index >= m_Size))
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + m_Size);
+
+    return new PointView(this, m_Timestamps[index], m_Values[index]);
+  }
+
+  /**
+   * Returns a copy of the timestamps.
+   *
+   * @return		the timestamps (epoch msecs)
+   */
+  public synchronized long[] getTimestamps() {
+    sort();
+    return Arrays.copyOf(m_Timestamps, m_Size);
+  }
+
+  /**
+   * Returns a copy of the values.
+   *
+   * @return		the values
+   */
+  public synchronized double[] getValues() {
+    sort();
+    return Arrays.copyOf(m_Values, m_Size);
+  }
+
+  /**
+   * Returns a clone of itself, copying the arrays.
+   *
+   * @return		the clone
+   */
+  @Override
+  public synchronized Object getClone() {
+    CompactTimeseries	result;
+
+    try {
+      result = getClass().getDeclaredConstructor().newInstance();
+    }
+    catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+    sort();
+    result.assign(this);
+    result.m_Timestamps = Arrays.copyOf(m_Timestamps, Math.max(1, m_Size));
+    result.m_Values     = Arrays.copyOf(m_Values, result.m_Timestamps.length);
+    result.m_Size       = m_Size;
+    result.m_Sorted     = true;
+
+    return result;
+  }
+
+  /**
+   * Compares the data points of the timeseries, uses the timestamps only.
+   *
+   * @param o		the object to be compared
+   * @return		a negative integer, zero, or a positive integer as
+   *                    this object is less than, equal to, or greater than
+   *                    the specified object
+   */
+  @Override
+  public int compareToData(Object o) {
+    int			result;
+    CompactTimeseries	other;
+    int			i;
+
+    if (!(o instanceof CompactTimeseries))
+      return super.compareToData(o);
+
+    other  = (CompactTimeseries) o;
+    result = Integer.compare(size(), other.size());
+    for (i = 0; (result == 0) && (i < m_Size); i++)
+      result = Long.compare(getTimestamp(i), other.getTimestamp(i));
+
+    return result;
+  }
+
+  /**
+   * Removes all data points.
+   */
+  @Override
+  public synchronized void clear() {
+    if (m_Size > 0) {
+      m_Size   = 0;
+      m_Sorted = true;
+      modifiedListener(true);
+    }
+  }
+
+  /**
+   * Returns whether the timeseries is empty.
+   *
+   * @return		true if no data points stored
+   */
+  @Override
+  public boolean isEmpty() {
+    return (m_Size == 0);
+  }
+
+  /**
+   * Adds the point, replacing any point with the same timestamp.
+   *
+   * @param point	the point to add
+   * @return		always true
+   */
+  @Override
+  public boolean add(TimeseriesPoint point) {
+    point.setParent(this);
+    append(point.getTimestamp().getTime(), point.getValue());
+    return true;
+  }
+
+  /**
+   * Adds all the points, replacing any points with the same timestamp.
+   *
+   * @param points	the points to add
+   * @return		true if the timeseries changed
+   */
+  @Override
+  public synchronized boolean addAll(Collection points) {
+    TimeseriesPoint	point;
+
+    if (points instanceof CompactTimeseries) {
+      merge(((CompactTimeseries) points).getTimestamps(), ((CompactTimeseries) points).getValues());
+      return !points.isEmpty();
+    }
+
+    ensureCapacity(m_Size + points.size());
+    for (Object obj: points) {
+      point = (TimeseriesPoint) obj;
+      point.setParent(this);
+      append(point.getTimestamp().getTime(), point.getValue());
+    }
+
+    return !points.isEmpty();
+  }
+
+  /**
+   * Removes the points at the positions that are flagged.
+   *
+   * @param remove	the flags (per position)
+   * @return		true if any points were removed
+   */
+  protected boolean removeFlagged(boolean[] remove) {
+    int		i;
+    int		n;
+
+    n = 0;
+    for (i = 0; i < m_Size; i++) {
+      if (!remove[i]) {
+	m_Timestamps[n] = m_Timestamps[i];
+	m_Values[n]     = m_Values[i];
+	n++;
+      }
+    }
+    if (n == m_Size)
+      return false;
+    m_Size = n;
+
+    return modifiedListener(true);
+  }
+
+  /**
+   * Removes the point with the same timestamp.
+   *
+   * @param point	the point to remove
+   * @return		true if removed
+   */
+  @Override
+  public synchronized boolean remove(Object point) {
+    int		index;
+
+    if (!(point instanceof TimeseriesPoint))
+      return false;
+
+    index = indexOf(((TimeseriesPoint) point).getTimestamp().getTime());
+    if (index == -1)
+      return false;
+
+    System.arraycopy(m_Timestamps, index + 1, m_Timestamps, index, m_Size - index - 1);
+    System.arraycopy(m_Values, index + 1, m_Values, index, m_Size - index - 1);
+    m_Size--;
+
+    return modifiedListener(true);
+  }
+
+  /**
+   * Removes all the points with the same timestamps.
+   *
+   * @param points	the points to remove
+   * @return		true if any points were removed
+   */
+  @Override
+  public synchronized boolean removeAll(Collection points) {
+    boolean[]	remove;
+    int		index;
+
+    sort();
+    remove = new boolean[m_Size];
+    for (Object point: points) {
+      if (point instanceof TimeseriesPoint) {
+	index = indexOf(((TimeseriesPoint) point).getTimestamp().getTime());
+	if (index > -1)
+	  remove[index] = true;
+      }
+    }
+
+    return removeFlagged(remove);
+  }
+
+  /**
+   * Retains only the points with the same timestamps.
+   *
+   * @param points	the points to keep
+   * @return		true if any points were removed
+   */
+  @Override
+  public synchronized boolean retainAll(Collection points) {
+    boolean[]	remove;
+    int		index;
+
+    sort();
+    remove = new boolean[m_Size];
+    Arrays.fill(remove, true);
+    for (Object point: points) {
+      if (point instanceof TimeseriesPoint) {
+	index = indexOf(((TimeseriesPoint) point).getTimestamp().getTime());
+	if (index > -1)
+	  remove[index] = false;
+      }
+    }
+
+    return removeFlagged(remove);
+  }
+
+  /**
+   * Checks whether a point with the same timestamp is present.
+   *
+   * @param point	the point to look for
+   * @return		true if present
+   */
+  @Override
+  public boolean contains(Object point) {
+    if (!(point instanceof TimeseriesPoint))
+      return false;
+    return (indexOf(((TimeseriesPoint) point).getTimestamp().getTime()) > -1);
+  }
+
+  /**
+   * Checks whether points with the same timestamps are present.
+   *
+   * @param points	the points to look for
+   * @return		true if all present
+   */
+  @Override
+  public boolean containsAll(Collection points) {
+    for (Object point: points) {
+      if (!contains(point))
+	return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number of points.
+   *
+   * @return		the number of points
+   */
+  @Override
+  public synchronized int size() {
+    sort();
+    return m_Size;
+  }
+
+  /**
+   * Adds the points of the other container that are not present yet.
+   *
+   * @param other	the container to merge with
+   */
+  @Override
+  public void mergeWith(DataContainer other) {
+    long[]		timestamps;
+    double[]		values;
+    int			i;
+    TimeseriesPoint	point;
+
+    if (other instanceof CompactTimeseries) {
+      timestamps = ((CompactTimeseries) other).getTimestamps();
+      values     = ((CompactTimeseries) other).getValues();
+    }
+    else {
+      timestamps = new long[other.size()];
+      values     = new double[other.size()];
+      i          = 0;
+      for (Object obj: other) {
+	point         = (TimeseriesPoint) obj;
+	timestamps[i] = point.getTimestamp().getTime();
+	values[i]     = point.getValue();
+	i++;
+      }
+    }
+
+    merge(timestamps, values, false);
+  }
+
+  /**
+   * Returns an iterator over the points, generated on demand.
+   *
+   * @return		the iterator
+   */
+  @Override
+  public Iterator<TimeseriesPoint> iterator() {
+    return toList().iterator();
+  }
+
+  /**
+   * Returns the points as array.
+   *
+   * @return		the generated points
+   */
+  @Override
+  public Object[] toArray() {
+    return toList().toArray();
+  }
+
+  /**
+   * Returns the points as array.
+   *
+   * @param array	the array to use
+   * @return		the generated points
+   */
+  @Override
+  public Object[] toArray(Object[] array) {
+    return toList().toArray(array);
+  }
+
+  /**
+   * Returns a read-only list view, generating the points on demand.
+   * Changes to the generated points get written through to the timeseries.
+   *
+   * @return		the list
+   */
+  @Override
+  public List<TimeseriesPoint> toList() {
+    return new PointList();
+  }
+
+  /**
+   * Returns the points sorted with the specified comparator.
+   *
+   * @param comparator	the comparator to use
+   * @return		the sorted points
+   */
+  @Override
+  public List<TimeseriesPoint> toList(DataPointComparator comparator) {
+    List<TimeseriesPoint>	result;
+
+    result = new ArrayList<>(toList());
+    result.sort(comparator);
+
+    return result;
+  }
+
+  /**
+   * Returns the points in a tree set, using the specified comparator.
+   *
+   * @param comparator	the comparator to use
+   * @return		the points
+   */
+  @Override
+  public TreeSet<TimeseriesPoint> toTreeSet(DataPointComparator comparator) {
+    TreeSet<TimeseriesPoint>	result;
+
+    result = new TreeSet<>(comparator);
+    result.addAll(toList());
+
+    return result;
+  }
+
+  /**
+   * Determines the points with the smallest/largest value.
+   */
+  @Override
+  protected synchronized void validateMinMax() {
+    int		i;
+    int		min;
+    int		max;
+
+    if (m_MinValue != null)
+      return;
+
+    sort();
+    if (m_Size == 0)
+      return;
+
+    min = 0;
+    max = 0;
+    for (i = 1; i < m_Size; i++) {
+      if (m_Values[i] > m_Values[max])
+	max = i;
+      if (m_Values[i] < m_Values[min])
+	min = i;
+    }
+    m_MinValue = getPoint(min);
+    m_MaxValue = getPoint(max);
+  }
+
+  /**
+   * Returns the TimeseriesPoint with the exact timestamp, null if not found.
+   *
+   * @param timestamp	the timestamp to look for
+   * @return		the TimeseriesPoint or null if not found
+   */
+  @Override
+  public TimeseriesPoint find(Date timestamp) {
+    int		index;
+
+    index = indexOf(timestamp.getTime());
+    if (index == -1)
+      return null;
+    else
+      return getPoint(index);
+  }
+
+  /**
+   * Returns the TimeseriesPoint with a timestamp closest to the one provided.
+   *
+   * @param timestamp	the timestamp to look for
+   * @return		the TimeseriesPoint, null if empty
+   */
+  @Override
+  public synchronized TimeseriesPoint findClosest(Date timestamp) {
+    int		index;
+    long	time;
+
+    sort();
+    if (m_Size == 0)
+      return null;
+
+    time  = timestamp.getTime();
+    index = Arrays.binarySearch(m_Timestamps, 0, m_Size, time);
+    if (index < 0) {
+      index = -index - 1;
+      if (index == m_Size)
+	index--;
+      else if ((index > 0) && (Math.abs(time - m_Timestamps[index - 1]) <= Math.abs(m_Timestamps[index] - time)))
+	index--;
+    }
+
+    return getPoint(index);
+  }
+
+  /**
+   * Turns the timeseries into a compact one, if necessary.
+   *
+   * @param series	the timeseries to convert
+   * @return		the compact timeseries
+   */
+  public static CompactTimeseries toCompact(Timeseries series) {
+    CompactTimeseries	result;
+
+    if (series instanceof CompactTimeseries)
+      return (CompactTimeseries) series;
+
+    result = new CompactTimeseries(series.getID(), Math.max(1, series.size()));
+    result.assign(series);
+    for (Object point: series)
+      result.append(((TimeseriesPoint) point).getTimestamp().getTime(), ((TimeseriesPoint) point).getValue());
+
+    return result;
+  }
+}
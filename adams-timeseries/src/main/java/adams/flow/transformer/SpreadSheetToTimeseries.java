@@ -15,7 +15,7 @@
 
 /*
  * SpreadSheetToTimeseries.java
- * Copyright (C) 2013-2018 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2013-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.flow.transformer;
 
@@ -26,6 +26,7 @@ import adams.data.spreadsheet.Row;
 import adams.data.spreadsheet.RowComparator;
 import adams.data.spreadsheet.SpreadSheet;
 import adams.data.spreadsheet.SpreadSheetColumnIndex;
+import adams.data.timeseries.CompactTimeseries;
 import adams.data.timeseries.Timeseries;
 import adams.data.timeseries.TimeseriesPoint;
 
@@ -100,6 +101,12 @@ import java.util.HashSet;
  * &nbsp;&nbsp;&nbsp;example: An index is a number starting with 1; column names (case-sensitive) as well as the following placeholders can be used: first, second, third, last_2, last_1, last
  * </pre>
  * 
+ * <pre>-compact &lt;boolean&gt; (property: compact)
+ * &nbsp;&nbsp;&nbsp;If enabled, the timeseries get stored in compact, array-backed containers, 
+ * &nbsp;&nbsp;&nbsp;which require a lot less memory for long timeseries.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
@@ -119,6 +126,9 @@ public class SpreadSheetToTimeseries
   /** the column to use for value of the timeseries. */
   protected SpreadSheetColumnIndex m_ColumnValue;
 
+  /** whether to generate compact timeseries. */
+  protected boolean m_Compact;
+
   /* (non-Javadoc)
    * @see adams.core.option.AbstractOptionHandler#globalInfo()
    */
@@ -149,6 +159,10 @@ public class SpreadSheetToTimeseries
     m_OptionManager.add(
 	    "column-value", "columnValue",
 	    new SpreadSheetColumnIndex("3"));
+
+    m_OptionManager.add(
+	    "compact", "compact",
+	    false);
   }
 
   /**
@@ -260,6 +274,35 @@ public class SpreadSheetToTimeseries
     return "The column that contains the value of the data points.";
   }
 
+  /**
+   * Sets whether to generate compact, array-backed timeseries.
+   *
+   * @param value	true if to generate compact timeseries
+   */
+  public void setCompact(boolean value) {
+    m_Compact = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to generate compact, array-backed timeseries.
+   *
+   * @return		true if to generate compact timeseries
+   */
+  public boolean getCompact() {
+    return m_Compact;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String compactTipText() {
+    return "If enabled, the timeseries get stored in compact, array-backed containers, which require a lot less memory for long timeseries.";
+  }
+
   /**
    * Returns the class that the consumer accepts.
    * 
@@ -358,7 +401,7 @@ public class SpreadSheetToTimeseries
       for (Row row: sheet.rows()) {
 	if (colID == -1) {
 	  if (series == null) {
-	    series = new Timeseries();
+	    series = m_Compact ? new CompactTimeseries() : new Timeseries();
 	    if (sheet.getName() != null)
 	      series.setID(sheet.getName());
 	    else
@@ -373,7 +416,7 @@ public class SpreadSheetToTimeseries
 	    if (isLoggingEnabled() && (series != null))
 	      getLogger().info("# data points: " + series.size());
 	    currID = row.getContent(colID);
-	    series = new Timeseries();
+	    series = m_Compact ? new CompactTimeseries() : new Timeseries();
 	    series.setID(currID);
 	    m_Queue.add(series);
 	    if (isLoggingEnabled())
@@ -407,7 +450,10 @@ public class SpreadSheetToTimeseries
 	    continue;
 	}
 	
-	series.add(new TimeseriesPoint(timestamp, value));
+	if (m_Compact)
+	  ((CompactTimeseries) series).append(timestamp, value);
+	else
+	  series.add(new TimeseriesPoint(timestamp, value));
       }
     }
     
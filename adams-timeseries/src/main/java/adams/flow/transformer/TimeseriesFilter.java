@@ -15,14 +15,16 @@
 
 /*
  * TimeseriesFilter.java
- * Copyright (C) 2013-2017 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2013-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.flow.transformer;
 
+import adams.data.timeseries.CompactTimeseries;
 import adams.data.timeseries.Timeseries;
 import adams.db.AbstractDatabaseConnection;
 import adams.flow.container.TimeseriesFilterContainer;
 import adams.flow.core.ActorUtils;
+import adams.flow.core.Token;
 
 /**
  <!-- globalinfo-start -->
@@ -74,6 +76,22 @@ import adams.flow.core.ActorUtils;
  * &nbsp;&nbsp;&nbsp;default: adams.data.filter.PassThrough
  * </pre>
  * 
+ * <pre>-var-name &lt;adams.core.VariableName&gt; (property: variableName)
+ * &nbsp;&nbsp;&nbsp;The variable to monitor for resetting trainable batch filters.
+ * &nbsp;&nbsp;&nbsp;default: variable
+ * </pre>
+ * 
+ * <pre>-output-container &lt;boolean&gt; (property: outputContainer)
+ * &nbsp;&nbsp;&nbsp;If enabled, outputs the filter along side the filtered data in a adams.flow.container.TimeseriesFilterContainer.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
+ * <pre>-compact &lt;boolean&gt; (property: compact)
+ * &nbsp;&nbsp;&nbsp;If enabled, the filtered timeseries get turned into compact, array-backed 
+ * &nbsp;&nbsp;&nbsp;containers, which require a lot less memory for long timeseries.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
@@ -85,6 +103,52 @@ public class TimeseriesFilter
   /** for serialization. */
   private static final long serialVersionUID = -7637423921443102660L;
 
+  /** whether to output compact timeseries. */
+  protected boolean m_Compact;
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "compact", "compact",
+      false);
+  }
+
+  /**
+   * Sets whether to turn the filtered timeseries into compact, array-backed
+   * ones.
+   *
+   * @param value	true if to output compact timeseries
+   */
+  public void setCompact(boolean value) {
+    m_Compact = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to turn the filtered timeseries into compact,
+   * array-backed ones.
+   *
+   * @return		true if to output compact timeseries
+   */
+  public boolean getCompact() {
+    return m_Compact;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String compactTipText() {
+    return "If enabled, the filtered timeseries get turned into compact, array-backed containers, which require a lot less memory for long timeseries.";
+  }
+
   /**
    * Returns the data container class in use.
    *
@@ -117,4 +181,32 @@ public class TimeseriesFilter
 	  adams.flow.standalone.DatabaseConnectionProvider.class,
 	  adams.db.DatabaseConnection.getSingleton());
   }
+
+  /**
+   * Creates the token to output, turning the timeseries into compact ones
+   * if necessary.
+   *
+   * @param output	the output to wrap
+   * @return		the token
+   * @see		#getCompact()
+   */
+  @Override
+  protected Token createToken(Object output) {
+    Timeseries[]	series;
+    int			i;
+
+    if (m_Compact) {
+      if (output instanceof Timeseries) {
+	output = CompactTimeseries.toCompact((Timeseries) output);
+      }
+      else if (output instanceof Timeseries[]) {
+	series = new Timeseries[((Timeseries[]) output).length];
+	for (i = 0; i < series.length; i++)
+	  series[i] = CompactTimeseries.toCompact(((Timeseries[]) output)[i]);
+	output = series;
+      }
+    }
+
+    return super.createToken(output);
+  }
 }
@@ -21,7 +21,9 @@ package adams.data.filter;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
+import adams.data.timeseries.CompactTimeseries;
 import adams.data.timeseries.Timeseries;
+import adams.data.timeseries.TimeseriesPoint;
 import adams.env.Environment;
 
 /**
@@ -86,6 +88,37 @@ public class TimeseriesEquiDistanceTest
     return result;
   }
 
+  /**
+   * Tests whether compact timeseries get filtered the same way as regular
+   * ones (the post-processing of exact hits updates points in place).
+   */
+  public void testCompact() {
+    Timeseries			data;
+    Timeseries			plain;
+    Timeseries			compact;
+    TimeseriesEquiDistance	filter;
+    int				i;
+    TimeseriesPoint		expected;
+    TimeseriesPoint		actual;
+
+    data = load("wine_mod.sts");
+    assertNotNull("Failed to load data", data);
+
+    for (Filter setup: getRegressionSetups()) {
+      filter  = (TimeseriesEquiDistance) setup;
+      plain   = filter.filter(data);
+      filter  = (TimeseriesEquiDistance) setup.shallowCopy();
+      compact = filter.filter(CompactTimeseries.toCompact(data));
+      assertEquals("size differs", plain.size(), compact.size());
+      for (i = 0; i < plain.size(); i++) {
+	expected = (TimeseriesPoint) plain.toList().get(i);
+	actual   = (TimeseriesPoint) compact.toList().get(i);
+	assertEquals("timestamp #" + i + " differs", expected.getTimestamp(), actual.getTimestamp());
+	assertEquals("value #" + i + " differs", expected.getValue(), actual.getValue(), 1e-10);
+      }
+    }
+  }
+
   /**
    * Returns the test suite.
    *
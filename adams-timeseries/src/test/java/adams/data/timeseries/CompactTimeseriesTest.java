@@ -0,0 +1,283 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * CompactTimeseriesTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.data.timeseries;
+
+import adams.env.Environment;
+import adams.test.AdamsTestCase;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the CompactTimeseries class.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CompactTimeseriesTest
+  extends AdamsTestCase {
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public CompactTimeseriesTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Checks whether the two timeseries contain the same data points.
+   *
+   * @param expected	the expected data
+   * @param actual	the actual data
+   */
+  protected void assertSamePoints(Timeseries expected, CompactTimeseries actual) {
+    Iterator		iterExp;
+    Iterator		iterAct;
+    TimeseriesPoint	pointExp;
+    TimeseriesPoint	pointAct;
+
+    assertEquals("size differs", expected.size(), actual.size());
+    iterExp = expected.iterator();
+    iterAct = actual.iterator();
+    while (iterExp.hasNext()) {
+      pointExp = (TimeseriesPoint) iterExp.next();
+      pointAct = (TimeseriesPoint) iterAct.next();
+      assertEquals("timestamp differs", pointExp.getTimestamp(), pointAct.getTimestamp());
+      assertEquals("value differs", pointExp.getValue(), pointAct.getValue());
+    }
+  }
+
+  /**
+   * Tests appending in and out of order, including duplicate timestamps.
+   */
+  public void testAdd() {
+    Timeseries		series;
+    CompactTimeseries	compact;
+    Random		rand;
+    int			i;
+    long		timestamp;
+
+    series  = new Timeseries();
+    compact = new CompactTimeseries();
+    rand    = new Random(1);
+    for (i = 0; i < 1000; i++) {
+      timestamp = rand.nextBoolean() ? i * 10L : rand.nextInt(10000);
+      series.add(new TimeseriesPoint(new Date(timestamp), i));
+      compact.add(new TimeseriesPoint(new Date(timestamp), i));
+    }
+    assertSamePoints(series, compact);
+    assertEquals(series.getMinValue().getTimestamp(), compact.getMinValue().getTimestamp());
+    assertEquals(series.getMaxValue().getTimestamp(), compact.getMaxValue().getTimestamp());
+    assertTrue(compact.equalsData(series));
+    assertTrue(series.equalsData(compact));
+  }
+
+  /**
+   * Tests accessing the data via index and timestamp.
+   */
+  public void testAccess() {
+    CompactTimeseries	compact;
+
+    compact = new CompactTimeseries();
+    compact.append(30, 3.0);
+    compact.append(10, 1.0);
+    compact.append(20, 2.0);
+    compact.append(10, 1.5);
+    assertEquals(3, compact.size());
+    assertEquals(10L, compact.getTimestamp(0));
+    assertEquals(1.5, compact.getValue(0));
+    assertEquals(2, compact.indexOf(30));
+    assertEquals(-1, compact.indexOf(25));
+    assertNull(compact.find(new Date(25)));
+    assertEquals(2.0, compact.find(new Date(20)).getValue());
+    assertEquals(20L, compact.findClosest(new Date(24)).getTimestamp().getTime());
+    assertEquals(30L, compact.findClosest(new Date(100)).getTimestamp().getTime());
+    assertEquals(10L, compact.findClosest(new Date(0)).getTimestamp().getTime());
+    compact.setValue(1, 5.0);
+    assertEquals(5.0, compact.getMaxValue().getValue());
+    assertEquals(3, compact.toList().size());
+    assertEquals(5.0, compact.toList().get(1).getValue());
+  }
+
+  /**
+   * Tests that changes to the generated points get written through.
+   */
+  public void testPointViews() {
+    CompactTimeseries	compact;
+    Timeseries		other;
+    TimeseriesPoint	point;
+    int			i;
+
+    compact = new CompactTimeseries();
+    for (i = 0; i < 5; i++)
+      compact.append(i * 10L, i);
+
+    compact.toList().get(1).setValue(-1.0);
+    assertEquals(-1.0, compact.getValue(1));
+    assertEquals(-1.0, compact.getMinValue().getValue());
+    for (TimeseriesPoint p: compact)
+      p.setValue(p.getValue() * 2);
+    assertEquals(-2.0, compact.getValue(1));
+    assertEquals(8.0, compact.getValue(4));
+
+    compact.find(new Date(20)).setTimestamp(new Date(45));
+    assertEquals(5, compact.size());
+    assertEquals(-1, compact.indexOf(20));
+    assertEquals(4.0, compact.find(new Date(45)).getValue());
+
+    compact.find(new Date(0)).setTimestamp(new Date(10));
+    assertEquals(4, compact.size());
+    assertEquals(0.0, compact.getValue(0));
+
+    // detached once added to another timeseries
+    point = compact.find(new Date(30));
+    other = new Timeseries();
+    other.add(point);
+    point.setValue(100.0);
+    assertEquals(6.0, compact.find(new Date(30)).getValue());
+
+    // copies are detached
+    point = (TimeseriesPoint) compact.find(new Date(40)).getClone();
+    point.setValue(100.0);
+    assertEquals(8.0, compact.find(new Date(40)).getValue());
+  }
+
+  /**
+   * Tests the bulk merge.
+   */
+  public void testMerge() {
+    Timeseries		series;
+    CompactTimeseries	compact;
+    Timeseries		other;
+    long[]		timestamps;
+    double[]		values;
+    int			i;
+
+    series  = new Timeseries();
+    compact = new CompactTimeseries();
+    for (i = 0; i < 100; i++) {
+      series.add(new TimeseriesPoint(new Date(i * 10L), i));
+      compact.append(i * 10L, i);
+    }
+
+    // replaces existing values
+    timestamps = new long[]{995, 5, 50, 1200, 50};
+    values     = new double[]{1.0, 2.0, 3.0, 4.0, 5.0};
+    compact.merge(timestamps, values);
+    for (i = 0; i < timestamps.length; i++)
+      series.add(new TimeseriesPoint(new Date(timestamps[i]), values[i]));
+    assertSamePoints(series, compact);
+
+    // keeps existing values
+    other = new Timeseries();
+    other.add(new TimeseriesPoint(new Date(10), -1.0));
+    other.add(new TimeseriesPoint(new Date(11), -1.0));
+    compact.mergeWith(other);
+    series.mergeWith(other);
+    assertSamePoints(series, compact);
+  }
+
+  /**
+   * Tests removing data points.
+   */
+  public void testRemove() {
+    Timeseries			series;
+    CompactTimeseries		compact;
+    List<TimeseriesPoint>	points;
+    int				i;
+
+    series  = new Timeseries();
+    compact = new CompactTimeseries();
+    for (i = 0; i < 100; i++) {
+      series.add(new TimeseriesPoint(new Date(i * 10L), i));
+      compact.append(i * 10L, i);
+    }
+    points = new ArrayList<>();
+    points.add(new TimeseriesPoint(new Date(0), 0));
+    points.add(new TimeseriesPoint(new Date(500), 0));
+    points.add(new TimeseriesPoint(new Date(505), 0));
+
+    assertTrue(compact.remove(points.get(1)));
+    assertFalse(compact.remove(points.get(2)));
+    series.remove(points.get(1));
+    assertSamePoints(series, compact);
+
+    compact.removeAll(points);
+    series.removeAll(points);
+    assertSamePoints(series, compact);
+
+    compact.retainAll(series.toList().subList(0, 10));
+    series.retainAll(new ArrayList<>(series.toList().subList(0, 10)));
+    assertSamePoints(series, compact);
+
+    compact.clear();
+    assertTrue(compact.isEmpty());
+  }
+
+  /**
+   * Tests cloning and converting.
+   */
+  public void testCopy() {
+    Timeseries		series;
+    CompactTimeseries	compact;
+    int			i;
+
+    series = new Timeseries("test");
+    for (i = 0; i < 100; i++)
+      series.add(new TimeseriesPoint(new Date(i * 10L), i));
+    compact = CompactTimeseries.toCompact(series);
+    assertEquals("test", compact.getID());
+    assertSamePoints(series, compact);
+    assertSame(compact, CompactTimeseries.toCompact(compact));
+    assertTrue(compact.getClone() instanceof CompactTimeseries);
+    assertSamePoints(series, (CompactTimeseries) compact.getClone());
+    assertEquals(compact, compact.getClone());
+    // filters modify points after adding them to the header, hence a regular timeseries
+    assertFalse(compact.getHeader() instanceof CompactTimeseries);
+    assertEquals("test", compact.getHeader().getID());
+    assertEquals(0, compact.getHeader().size());
+  }
+
+  /**
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(CompactTimeseriesTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(Environment.class);
+    runTest(suite());
+  }
+}
@@ -15,7 +15,7 @@
 
 /**
  * SpreadSheetToWekaInstances.java
- * Copyright (C) 2011-2017 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2011-2026 University of Waikato, Hamilton, New Zealand
  */
 package adams.data.conversion;
 
@@ -31,6 +31,7 @@ import weka.core.Attribute;
 import weka.core.DenseInstance;
 import weka.core.FastVector;
 import weka.core.Instances;
+import weka.core.SpreadSheetInstances;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -40,7 +41,8 @@ import java.util.HashSet;
 /**
  <!-- globalinfo-start -->
  * Generates a weka.core.Instances object from a SpreadSheet object.<br>
- * If there are too many unique lables for a NOMINAL attribute, it gets turned into a STRING attribute (see 'maxLabels' property).
+ * If there are too many unique lables for a NOMINAL attribute, it gets turned into a STRING attribute (see 'maxLabels' property).<br>
+ * Instead of copying the data, a read-only view backed by the spreadsheet can be generated (see 'view' property).
  * <br><br>
  <!-- globalinfo-end -->
  *
@@ -57,6 +59,13 @@ import java.util.HashSet;
  * &nbsp;&nbsp;&nbsp;minimum: -1
  * </pre>
  * 
+ * <pre>-view &lt;boolean&gt; (property: view)
+ * &nbsp;&nbsp;&nbsp;If enabled, a read-only view backed by the spreadsheet is generated instead 
+ * &nbsp;&nbsp;&nbsp;of a copy; rows get converted on access and nominal indices are cached; 
+ * &nbsp;&nbsp;&nbsp;use a copy if the data needs to be modified.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ * 
  <!-- options-end -->
  *
  * @author  fracpete (fracpete at waikato dot ac dot nz)
@@ -71,6 +80,9 @@ public class SpreadSheetToWekaInstances
   /** the threshold for number of labels before an attribute gets switched 
    * to {@link Attribute#STRING}. */
   protected int m_MaxLabels;
+
+  /** whether to generate a view rather than a copy. */
+  protected boolean m_View;
   
   /**
    * Returns a string describing the object.
@@ -83,7 +95,9 @@ public class SpreadSheetToWekaInstances
 	"Generates a " + Instances.class.getName() + " object from a "
 	+ "SpreadSheet object.\n"
 	+ "If there are too many unique lables for a NOMINAL attribute, it gets "
-	+ "turned into a STRING attribute (see 'maxLabels' property).";
+	+ "turned into a STRING attribute (see 'maxLabels' property).\n"
+	+ "Instead of copying the data, a read-only view backed by the spreadsheet "
+	+ "can be generated (see 'view' property).";
   }
 
   /**
@@ -96,6 +110,10 @@ public class SpreadSheetToWekaInstances
     m_OptionManager.add(
 	    "max-labels", "maxLabels",
 	    25, -1, null);
+
+    m_OptionManager.add(
+	    "view", "view",
+	    false);
   }
 
   /**
@@ -131,6 +149,38 @@ public class SpreadSheetToWekaInstances
 	+ "before it is switched to a STRING attribute; use -1 to enforce STRING attributes.";
   }
 
+  /**
+   * Sets whether to generate a read-only view instead of a copy.
+   *
+   * @param value 	true if to generate a view
+   */
+  public void setView(boolean value) {
+    m_View = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to generate a read-only view instead of a copy.
+   *
+   * @return 		true if to generate a view
+   */
+  public boolean getView() {
+    return m_View;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String viewTipText() {
+    return
+	"If enabled, a read-only view backed by the spreadsheet is generated "
+	+ "instead of a copy; rows get converted on access and nominal indices "
+	+ "are cached; use a copy if the data needs to be modified.";
+  }
+
   /**
    * Returns the class that is accepted as input.
    *
@@ -152,16 +202,13 @@ public class SpreadSheetToWekaInstances
   }
 
   /**
-   * Performs the actual conversion.
+   * Generates the header for the spreadsheet.
    *
-   * @return		the converted data
-   * @throws Exception	if something goes wrong with the conversion
+   * @param sheet	the spreadsheet to generate the header for
+   * @return		the header
    */
-  @Override
-  protected Object doConvert() throws Exception {
+  protected Instances createHeader(SpreadSheet sheet) {
     Instances			result;
-    SpreadSheet			sheet;
-    DenseInstance		inst;
     ArrayList<Attribute>	atts;
     HashSet<String>		unique;
     ArrayList<String>		labels;
@@ -169,15 +216,10 @@ public class SpreadSheetToWekaInstances
     Cell			cell;
     int				i;
     int				n;
-    double[]			values;
     Collection<ContentType>	types;
     ContentType			type;
     boolean			added;
-    int[]			classIndices;
 
-    sheet = (SpreadSheet) m_Input;
-
-    // create header
     atts = new ArrayList<>();
     for (i = 0; i < sheet.getColumnCount(); i++) {
       added = false;
@@ -223,37 +265,66 @@ public class SpreadSheetToWekaInstances
 	}
       }
     }
-    result = new Instances(Environment.getInstance().getProject(), atts, sheet.getRowCount());
+    result = new Instances(Environment.getInstance().getProject(), atts, m_View ? 0 : sheet.getRowCount());
     if (sheet.hasName())
       result.setRelationName(sheet.getName());
 
-    // add data
-    for (n = 0; n < sheet.getRowCount(); n++) {
-      row    = sheet.getRow(n);
-      values = new double[result.numAttributes()];
-      for (i = 0; i < result.numAttributes(); i++) {
-	cell      = row.getCell(i);
-	values[i] = weka.core.Utils.missingValue();
-	if ((cell != null) && !cell.isMissing()) {
-	  if (result.attribute(i).type() == Attribute.DATE) {
-	    if (cell.isTime())
-	      values[i] = cell.toTime().getTime();
-	    else
-	      values[i] = cell.toDate().getTime();
-	  }
-	  else if (result.attribute(i).isNumeric()) {
-	    values[i] = Utils.toDouble(cell.getContent());
-	  }
-	  else if (result.attribute(i).isString()) {
-	    values[i] = result.attribute(i).addStringValue(cell.getContent());
-	  }
-	  else {
-	    values[i] = result.attribute(i).indexOfValue(cell.getContent());
+    return result;
+  }
+
+  /**
+   * Performs the actual conversion.
+   *
+   * @return		the converted data
+   * @throws Exception	if something goes wrong with the conversion
+   */
+  @Override
+  protected Object doConvert() throws Exception {
+    Instances			result;
+    SpreadSheet			sheet;
+    DenseInstance		inst;
+    Row				row;
+    Cell			cell;
+    int				i;
+    int				n;
+    double[]			values;
+    int[]			classIndices;
+
+    sheet  = (SpreadSheet) m_Input;
+    result = createHeader(sheet);
+
+    if (m_View) {
+      result = new SpreadSheetInstances(result, sheet);
+    }
+    else {
+      // add data
+      for (n = 0; n < sheet.getRowCount(); n++) {
+	row    = sheet.getRow(n);
+	values = new double[result.numAttributes()];
+	for (i = 0; i < result.numAttributes(); i++) {
+	  cell      = row.getCell(i);
+	  values[i] = weka.core.Utils.missingValue();
+	  if ((cell != null) && !cell.isMissing()) {
+	    if (result.attribute(i).type() == Attribute.DATE) {
+	      if (cell.isTime())
+		values[i] = cell.toTime().getTime();
+	      else
+		values[i] = cell.toDate().getTime();
+	    }
+	    else if (result.attribute(i).isNumeric()) {
+	      values[i] = Utils.toDouble(cell.getContent());
+	    }
+	    else if (result.attribute(i).isString()) {
+	      values[i] = result.attribute(i).addStringValue(cell.getContent());
+	    }
+	    else {
+	      values[i] = result.attribute(i).indexOfValue(cell.getContent());
+	    }
 	  }
 	}
+	inst = new DenseInstance(1.0, values);
+	result.add(inst);
       }
-      inst = new DenseInstance(1.0, values);
-      result.add(inst);
     }
 
     if (sheet instanceof Dataset) {
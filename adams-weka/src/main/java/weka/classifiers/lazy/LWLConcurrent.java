@@ -0,0 +1,585 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ *    LWLConcurrent.java
+ *    Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ *
+ */
+
+package weka.classifiers.lazy;
+
+import adams.core.Performance;
+import adams.core.ThreadLimiter;
+import adams.multiprocess.ExecutorHelper;
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.Classifier;
+import weka.core.DistanceFunction;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.NormalizableDistance;
+import weka.core.Option;
+import weka.core.RevisionUtils;
+import weka.core.Utils;
+import weka.core.neighboursearch.VantagePointTree;
+import weka.core.neighboursearch.VantagePointTree.Neighbours;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Vector;
+
+/**
+ <!-- globalinfo-start -->
+ * Locally weighted learning that can make predictions concurrently, without synchronization.<br>
+ * The neighbours get determined with a vantage-point tree that is built once at training time, using the distance function of the nearest neighbour search algorithm. The local model is built with a per-thread copy of the base classifier.<br>
+ * Differences to LWLSynchro: the distance function never gets updated with the instances to make predictions for and ties at the k-th distance are not included in the neighbourhood.
+ * <br><br>
+ <!-- globalinfo-end -->
+ *
+ <!-- options-start -->
+ * Valid options are: <br><br>
+ *
+ * <pre> -num-threads &lt;num&gt;
+ *  The number of threads to use for batch predictions;
+ *  &gt; 0: number of threads (1 = sequential execution);
+ *  = 0: number of cores; &lt; 0: number of free cores.
+ *  (default: 1)</pre>
+ *
+ * <pre> -no-update
+ *  Suppresses the update of the nearest neighbor search (nns)
+ *  algorithm with the data that is to be classified.
+ * (default: nns gets updated).
+ * </pre>
+ *
+ * <pre> -A
+ *  The nearest neighbour search algorithm to use (default: weka.core.neighboursearch.LinearNNSearch).
+ * </pre>
+ *
+ * <pre> -K &lt;number of neighbours&gt;
+ *  Set the number of neighbours used to set the kernel bandwidth.
+ *  (default all)</pre>
+ *
+ * <pre> -U &lt;number of weighting method&gt;
+ *  Set the weighting kernel shape to use. 0=Linear, 1=Epanechnikov,
+ *  2=Tricube, 3=Inverse, 4=Gaussian.
+ *  (default 0 = Linear)</pre>
+ *
+ * <pre> -D
+ *  If set, classifier is run in debug mode and
+ *  may output additional info to the console</pre>
+ *
+ * <pre> -W
+ *  Full name of base classifier.
+ *  (default: weka.classifiers.functions.GaussianProcesses)</pre>
+ *
+ * <pre>
+ * Options specific to classifier weka.classifiers.functions.GaussianProcesses:
+ * </pre>
+ *
+ * <pre> -D
+ *  If set, classifier is run in debug mode and
+ *  may output additional info to the console</pre>
+ *
+ * <pre> -L &lt;double&gt;
+ *  Level of Gaussian Noise wrt transformed target. (default 1)</pre>
+ *
+ * <pre> -N
+ *  Whether to 0=normalize/1=standardize/2=neither. (default 0=normalize)</pre>
+ *
+ * <pre> -K &lt;classname and parameters&gt;
+ *  The Kernel to use.
+ *  (default: weka.classifiers.functions.supportVector.PolyKernel)</pre>
+ *
+ * <pre>
+ * Options specific to kernel weka.classifiers.functions.supportVector.PolyKernel:
+ * </pre>
+ *
+ * <pre> -D
+ *  Enables debugging output (if available) to be printed.
+ *  (default: off)</pre>
+ *
+ * <pre> -no-checks
+ *  Turns off all checks - use with caution!
+ *  (default: checks on)</pre>
+ *
+ * <pre> -C &lt;num&gt;
+ *  The size of the cache (a prime number), 0 for full cache and
+ *  -1 to turn it off.
+ *  (default: 250007)</pre>
+ *
+ * <pre> -E &lt;num&gt;
+ *  The Exponent to use.
+ *  (default: 1.0)</pre>
+ *
+ * <pre> -L
+ *  Use lower-order terms.
+ *  (default: no)</pre>
+ *
+ <!-- options-end -->
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ * @see LWLSynchro
+ */
+public class LWLConcurrent
+  extends LWLSynchro
+  implements ThreadLimiter {
+
+  /** for serialization. */
+  private static final long serialVersionUID = -1263441017869520371L;
+
+  /** the seed for selecting the vantage points. */
+  public static final long TREE_SEED = 1;
+
+  /** the number of threads to use for batch predictions. */
+  protected int m_NumThreads = 1;
+
+  /** the tree for the neighbour search. */
+  protected VantagePointTree m_Tree;
+
+  /** the per-thread copies of the base classifier. */
+  protected transient ThreadLocal<Classifier> m_LocalClassifier;
+
+  /**
+   * Returns a string describing classifier.
+   *
+   * @return 		a description suitable for displaying in the
+   * 			explorer/experimenter gui
+   */
+  @Override
+  public String globalInfo() {
+    return
+        "Locally weighted learning that can make predictions concurrently, without synchronization.\n"
+      + "The neighbours get determined with a vantage-point tree that is built once at training time, "
+      + "using the distance function of the nearest neighbour search algorithm. "
+      + "The local model is built with a per-thread copy of the base classifier.\n"
+      + "Differences to " + LWLSynchro.class.getSimpleName() + ": the distance function never gets updated "
+      + "with the instances to make predictions for and ties at the k-th distance are not included "
+      + "in the neighbourhood.";
+  }
+
+  /**
+   * Returns an enumeration describing the available options.
+   *
+   * @return an enumeration of all the available options.
+   */
+  @Override
+  public Enumeration listOptions() {
+    Vector 	result;
+    Enumeration	enm;
+
+    result = new Vector();
+
+    result.addElement(
+	new Option(
+	    "\tThe number of threads to use for batch predictions;\n"
+	    + "\t> 0: number of threads (1 = sequential execution);\n"
+	    + "\t= 0: number of cores; < 0: number of free cores.\n"
+	    + "\t(default: 1)",
+	    "num-threads", 1, "-num-threads <num>"));
+
+    enm = super.listOptions();
+    while (enm.hasMoreElements())
+      result.addElement(enm.nextElement());
+
+    return result.elements();
+  }
+
+  /**
+   * Parses a given list of options. <br><br>
+   *
+   <!-- options-start -->
+   * Valid options are: <br><br>
+   *
+   * <pre> -num-threads &lt;num&gt;
+   *  The number of threads to use for batch predictions;
+   *  &gt; 0: number of threads (1 = sequential execution);
+   *  = 0: number of cores; &lt; 0: number of free cores.
+   *  (default: 1)</pre>
+   *
+   * <pre> -no-update
+   *  Suppresses the update of the nearest neighbor search (nns)
+   *  algorithm with the data that is to be classified.
+   * (default: nns gets updated).
+   * </pre>
+   *
+   * <pre> -A
+   *  The nearest neighbour search algorithm to use (default: weka.core.neighboursearch.LinearNNSearch).
+   * </pre>
+   *
+   * <pre> -K &lt;number of neighbours&gt;
+   *  Set the number of neighbours used to set the kernel bandwidth.
+   *  (default all)</pre>
+   *
+   * <pre> -U &lt;number of weighting method&gt;
+   *  Set the weighting kernel shape to use. 0=Linear, 1=Epanechnikov,
+   *  2=Tricube, 3=Inverse, 4=Gaussian.
+   *  (default 0 = Linear)</pre>
+   *
+   * <pre> -D
+   *  If set, classifier is run in debug mode and
+   *  may output additional info to the console</pre>
+   *
+   * <pre> -W
+   *  Full name of base classifier.
+   *  (default: weka.classifiers.functions.GaussianProcesses)</pre>
+   *
+   * <pre>
+   * Options specific to classifier weka.classifiers.functions.GaussianProcesses:
+   * </pre>
+   *
+   * <pre> -D
+   *  If set, classifier is run in debug mode and
+   *  may output additional info to the console</pre>
+   *
+   * <pre> -L &lt;double&gt;
+   *  Level of Gaussian Noise wrt transformed target. (default 1)</pre>
+   *
+   * <pre> -N
+   *  Whether to 0=normalize/1=standardize/2=neither. (default 0=normalize)</pre>
+   *
+   * <pre> -K &lt;classname and parameters&gt;
+   *  The Kernel to use.
+   *  (default: weka.classifiers.functions.supportVector.PolyKernel)</pre>
+   *
+   * <pre>
+   * Options specific to kernel weka.classifiers.functions.supportVector.PolyKernel:
+   * </pre>
+   *
+   * <pre> -D
+   *  Enables debugging output (if available) to be printed.
+   *  (default: off)</pre>
+   *
+   * <pre> -no-checks
+   *  Turns off all checks - use with caution!
+   *  (default: checks on)</pre>
+   *
+   * <pre> -C &lt;num&gt;
+   *  The size of the cache (a prime number), 0 for full cache and
+   *  -1 to turn it off.
+   *  (default: 250007)</pre>
+   *
+   * <pre> -E &lt;num&gt;
+   *  The Exponent to use.
+   *  (default: 1.0)</pre>
+   *
+   * <pre> -L
+   *  Use lower-order terms.
+   *  (default: no)</pre>
+   *
+   <!-- options-end -->
+   *
+   * @param options the list of options as an array of strings
+   * @throws Exception if an option is not supported
+   */
+  @Override
+  public void setOptions(String[] options) throws Exception {
+    String	tmpStr;
+
+    tmpStr = Utils.getOption("num-threads", options);
+    if (tmpStr.length() != 0)
+      setNumThreads(Integer.parseInt(tmpStr));
+    else
+      setNumThreads(1);
+
+    super.setOptions(options);
+  }
+
+  /**
+   * Gets the current settings of the classifier.
+   *
+   * @return an array of strings suitable for passing to setOptions
+   */
+  @Override
+  public String[] getOptions() {
+    Vector<String>	result;
+
+    result = new Vector<String>();
+
+    result.add("-num-threads");
+    result.add("" + getNumThreads());
+
+    result.addAll(Arrays.asList(super.getOptions()));
+
+    return result.toArray(new String[result.size()]);
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the explorer/experimenter gui
+   */
+  @Override
+  public String noUpdateTipText() {
+    return "Ignored, the distance function never gets updated when making predictions.";
+  }
+
+  /**
+   * Sets the number of threads to use for batch predictions.
+   *
+   * @param value 	the number of threads: 1 = sequential, 0 = all cores, -N = all but N cores
+   */
+  public void setNumThreads(int value) {
+    m_NumThreads = value;
+  }
+
+  /**
+   * Returns the number of threads to use for batch predictions.
+   *
+   * @return 		the number of threads: 1 = sequential, 0 = all cores, -N = all but N cores
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the explorer/experimenter gui
+   */
+  public String numThreadsTipText() {
+    return Performance.getNumThreadsHelp() + "; used for batch predictions.";
+  }
+
+  /**
+   * Creates the container for the per-thread copies of the base classifier.
+   *
+   * @return		the container
+   */
+  protected ThreadLocal<Classifier> newLocalClassifier() {
+    return new ThreadLocal<Classifier>() {
+      @Override
+      protected Classifier initialValue() {
+	try {
+	  return AbstractClassifier.makeCopy(m_Classifier);
+	}
+	catch (Exception e) {
+	  throw new IllegalStateException("Failed to copy base classifier!", e);
+	}
+      }
+    };
+  }
+
+  /**
+   * Creates the distance function for the tree, a copy of the one of the
+   * nearest neighbour search algorithm that gets initialized with the
+   * training data. As it never gets updated with the instances to make
+   * predictions for, attributes without any values in the training data
+   * get a range of zero width, as values of such attributes would otherwise
+   * result in NaN distances.
+   *
+   * @return		the distance function
+   * @throws Exception	if copying of the distance function fails
+   */
+  protected DistanceFunction newDistanceFunction() throws Exception {
+    DistanceFunction	result;
+    double[][]		ranges;
+    int			i;
+
+    result = m_NNSearch.getDistanceFunction();
+    result = (DistanceFunction) Utils.forName(DistanceFunction.class, result.getClass().getName(), result.getOptions());
+    result.setInstances(m_Train);
+
+    if (result instanceof NormalizableDistance) {
+      ranges = ((NormalizableDistance) result).getRanges();
+      for (i = 0; i < ranges.length; i++) {
+	if (ranges[i][NormalizableDistance.R_MIN] > ranges[i][NormalizableDistance.R_MAX]) {
+	  ranges[i][NormalizableDistance.R_MIN]   = 0;
+	  ranges[i][NormalizableDistance.R_MAX]   = 0;
+	  ranges[i][NormalizableDistance.R_WIDTH] = 0;
+	}
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Builds the tree for the neighbour search.
+   *
+   * @throws Exception	if creating the distance function fails
+   */
+  protected void buildTree() throws Exception {
+    if (m_ZeroR == null)
+      m_Tree = new VantagePointTree(m_Train, newDistanceFunction(), TREE_SEED);
+    else
+      m_Tree = null;
+  }
+
+  /**
+   * Generates the classifier.
+   *
+   * @param instances 	set of instances serving as training data
+   * @throws Exception 	if the classifier has not been generated successfully
+   */
+  @Override
+  public void buildClassifier(Instances instances) throws Exception {
+    super.buildClassifier(instances);
+
+    buildTree();
+    m_LocalClassifier = newLocalClassifier();
+  }
+
+  /**
+   * Adds the supplied instance to the training set and rebuilds the tree.
+   *
+   * @param instance 	the instance to add
+   * @throws Exception 	if instance could not be incorporated successfully
+   */
+  @Override
+  public void updateClassifier(Instance instance) throws Exception {
+    super.updateClassifier(instance);
+
+    buildTree();
+  }
+
+  /**
+   * Builds the local model for the instance, without modifying the state
+   * of this classifier.
+   *
+   * @param instance	the instance to make prediction for
+   * @return		the local model
+   * @throws Exception	if build fails
+   */
+  protected Classifier buildLocal(Instance instance) throws Exception {
+    Classifier	result;
+    Neighbours	nn;
+    Instances	neighbours;
+    double[]	distances;
+    int		k;
+    int		i;
+
+    k = m_Train.numInstances();
+    if (!m_UseAllK && (m_kNN < k))
+      k = m_kNN;
+
+    nn         = m_Tree.kNearestNeighbours(instance, k);
+    distances  = nn.getDistances();
+    neighbours = new Instances(m_Train, nn.size());
+    for (i = 0; i < nn.size(); i++)
+      neighbours.add(m_Train.instance(nn.getIndices()[i]));
+
+    if (m_Debug) {
+      System.out.println("Test Instance: " + instance);
+      System.out.println("For " + k + " kept " + neighbours.numInstances() + " out of " +
+	m_Train.numInstances() + " instances.");
+    }
+
+    if (k > distances.length)
+      k = distances.length;
+
+    weight(neighbours, distances, k);
+
+    result = m_LocalClassifier.get();
+    result.buildClassifier(neighbours);
+
+    return result;
+  }
+
+  /**
+   * Calculates the class membership probabilities for the given test instance.
+   *
+   * @param instance the instance to be classified
+   * @return predicted class probability distribution
+   * @throws Exception if distribution can't be computed successfully
+   */
+  @Override
+  public double[] distributionForInstance(Instance instance) throws Exception {
+    Classifier	local;
+
+    // default model?
+    if (m_ZeroR != null)
+      return m_ZeroR.distributionForInstance(instance);
+
+    if (m_Train.numInstances() == 0)
+      throw new Exception("No training instances!");
+
+    local = buildLocal(instance);
+
+    if (m_Debug) {
+      System.out.println("Classifying test instance: " + instance);
+      System.out.println("Built base classifier:\n" + local.toString());
+    }
+
+    return local.distributionForInstance(instance);
+  }
+
+  /**
+   * Returns true, as the instances of the batch are processed in parallel
+   * (if multiple threads are used).
+   *
+   * @return		always true
+   */
+  @Override
+  public boolean implementsMoreEfficientBatchPrediction() {
+    return true;
+  }
+
+  /**
+   * Calculates the class membership probabilities for the given test
+   * instances, using the specified number of threads.
+   *
+   * @param insts	the instances to make predictions for
+   * @return		the predictions, one distribution per instance
+   * @throws Exception	if predictions fail
+   */
+  @Override
+  public double[][] distributionsForInstances(final Instances insts) throws Exception {
+    final double[][]	result;
+
+    result = new double[insts.numInstances()][];
+    ExecutorHelper.processChunks(result.length, Performance.determineNumThreads(m_NumThreads), (int from, int to) -> {
+      for (int i = from; i < to; i++)
+	result[i] = distributionForInstance(insts.instance(i));
+    });
+
+    return result;
+  }
+
+  /**
+   * Restores the per-thread copies of the base classifier after
+   * deserialization.
+   *
+   * @param in		the stream to read from
+   * @throws IOException	if reading fails
+   * @throws ClassNotFoundException	if a class cannot be found
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    m_LocalClassifier = newLocalClassifier();
+  }
+
+  /**
+   * Returns the revision string.
+   *
+   * @return		the revision
+   */
+  @Override
+  public String getRevision() {
+    return RevisionUtils.extract("$Revision$");
+  }
+
+  /**
+   * Main method for testing this class.
+   *
+   * @param argv the options
+   */
+  public static void main(String [] argv) {
+    runClassifier(new LWLConcurrent(), argv);
+  }
+}
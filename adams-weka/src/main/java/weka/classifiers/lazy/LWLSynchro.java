@@ -15,7 +15,7 @@
 
 /*
  *    LWLSynchro.java
- *    Copyright (C) 1999-2015 University of Waikato, Hamilton, New Zealand
+ *    Copyright (C) 1999-2026 University of Waikato, Hamilton, New Zealand
  *
  */
 
@@ -389,6 +389,22 @@ public class LWLSynchro
       }
     }
 
+    weight(neighbours, distances, k);
+
+    // Create a weighted classifier
+    m_Classifier.buildClassifier(neighbours);
+  }
+
+  /**
+   * Turns the distances of the neighbours into instance weights, using the
+   * bandwidth determined by the k-th distance and the weighting kernel.
+   * The weights of the neighbours get modified in place.
+   *
+   * @param neighbours	the neighbours to weight
+   * @param distances	the distances of the neighbours (get modified)
+   * @param k		the number of neighbours that determine the bandwidth
+   */
+  protected void weight(Instances neighbours, double[] distances, int k) {
     // Determine the bandwidth
     double bandwidth = distances[k-1];
 
@@ -451,9 +467,6 @@ public class LWLSynchro
       Instance inst = neighbours.instance(i);
       inst.setWeight(inst.weight() * sumOfWeights / newSumOfWeights);
     }
-
-    // Create a weighted classifier
-    m_Classifier.buildClassifier(neighbours);
   }
 
   /**
@@ -15,12 +15,15 @@
 
 /*
  *    RandomRegressionForest.java
- *    Copyright (C) 2007 University of Waikato
+ *    Copyright (C) 2007-2026 University of Waikato
  *
  */
 
 package weka.classifiers.trees;
 
+import adams.core.Performance;
+import adams.core.ThreadLimiter;
+import adams.multiprocess.ExecutorHelper;
 import weka.classifiers.RandomizableClassifier;
 import weka.classifiers.functions.LinearRegressionJ;
 import weka.core.Capabilities;
@@ -40,6 +43,7 @@ import java.util.Enumeration;
 import java.util.List;
 import java.util.Random;
 import java.util.Vector;
+import java.util.concurrent.Callable;
 
 /**
  <!-- globalinfo-start -->
@@ -63,6 +67,12 @@ import java.util.Vector;
  *  Number of PLS components.
  *  (default 20)</pre>
  *
+ * <pre> -num-threads &lt;num&gt;
+ *  Number of threads for building and batch prediction;
+ *  &gt; 0: number of threads (1 = sequential execution);
+ *  = 0: number of cores; &lt; 0: number of free cores.
+ *  (default 1)</pre>
+ *
  * <pre> -S &lt;num&gt;
  *  Random number seed.
  *  (default 1)</pre>
@@ -78,7 +88,7 @@ import java.util.Vector;
  */
 public class RandomRegressionForest
   extends RandomizableClassifier
-  implements WeightedInstancesHandler {
+  implements WeightedInstancesHandler, ThreadLimiter {
 
   /** for serialization */
   private static final long serialVersionUID = -3779643299723247400L;
@@ -104,6 +114,9 @@ public class RandomRegressionForest
   /** the mean */
   protected double m_Mean = 0.0;
 
+  /** the number of threads to use (1 = sequential, 0 = all cores, -N = all but N cores). */
+  protected int m_NumThreads = 1;
+
   /**
    * Returns a string describing this classifier.
    *
@@ -140,6 +153,13 @@ public class RandomRegressionForest
 	+ "\t(default 20)",
 	"C", 1, "-C <num>"));
 
+    result.addElement(new Option(
+	"\tNumber of threads for building and batch prediction;\n"
+	+ "\t> 0: number of threads (1 = sequential execution);\n"
+	+ "\t= 0: number of cores; < 0: number of free cores.\n"
+	+ "\t(default 1)",
+	"num-threads", 1, "-num-threads <num>"));
+
     Enumeration enm = super.listOptions();
     while (enm.hasMoreElements())
       result.addElement(enm.nextElement());
@@ -165,6 +185,12 @@ public class RandomRegressionForest
    *  Number of PLS components.
    *  (default 20)</pre>
    *
+   * <pre> -num-threads &lt;num&gt;
+   *  Number of threads for building and batch prediction;
+   *  &gt; 0: number of threads (1 = sequential execution);
+   *  = 0: number of cores; &lt; 0: number of free cores.
+   *  (default 1)</pre>
+   *
    * <pre> -S &lt;num&gt;
    *  Random number seed.
    *  (default 1)</pre>
@@ -202,6 +228,13 @@ public class RandomRegressionForest
       setNumIterations(100);
     }
 
+    tmpStr = Utils.getOption("num-threads", options);
+    if (tmpStr.length() != 0) {
+      setNumThreads(Integer.parseInt(tmpStr));
+    } else {
+      setNumThreads(1);
+    }
+
     super.setOptions(options);
   }
 
@@ -226,6 +259,9 @@ public class RandomRegressionForest
     result.add("-N");
     result.add("" + getNumIterations());
 
+    result.add("-num-threads");
+    result.add("" + getNumThreads());
+
     options = super.getOptions();
     for (i = 0; i < options.length; i++)
       result.add(options[i]);
@@ -317,6 +353,34 @@ public class RandomRegressionForest
     return m_PLS;
   }
 
+  /**
+   * Returns the tip text for this property
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the explorer/experimenter gui
+   */
+  public String numThreadsTipText() {
+    return Performance.getNumThreadsHelp() + "; used for building the trees and for batch prediction.";
+  }
+
+  /**
+   * Sets the number of threads to use.
+   *
+   * @param value 	the number of threads: 1 = sequential, 0 = all cores, -N = all but N cores
+   */
+  public void setNumThreads(int value) {
+    m_NumThreads = value;
+  }
+
+  /**
+   * Returns the number of threads to use.
+   *
+   * @return 		the number of threads: 1 = sequential, 0 = all cores, -N = all but N cores
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
   /**
    * Centers the class value in the data.
    *
@@ -381,14 +445,69 @@ public class RandomRegressionForest
 
     m_Data = data; // keep for printing ???
 
-    m_Node = new Node[getNumIterations()];
-    Random r = new Random(getSeed());
+    m_Node = buildNodes(data);
+
+    m_Data = new Instances(m_Data,0); // cleanOUT
+  }
 
-    for (int j = 0; j < m_Node.length; j++) {
-      m_Node[j] = new Node(data,r,m_Min);
+  /**
+   * Grows the trees. Every tree uses its own random number generator, seeded
+   * from a sequence determined by the seed of the classifier, so that
+   * sequential and parallel execution generate the same trees.
+   *
+   * @param data	the (filtered) training data
+   * @return		the trees
+   * @throws Exception	if building of a tree fails
+   */
+  protected Node[] buildNodes(final Instances data) throws Exception {
+    long[]			seeds;
+    Random			r;
+    List<Callable<Node>>	jobs;
+    int				j;
+
+    seeds = new long[getNumIterations()];
+    r     = new Random(getSeed());
+    for (j = 0; j < seeds.length; j++)
+      seeds[j] = r.nextLong();
+
+    jobs = new ArrayList<>();
+    for (j = 0; j < seeds.length; j++) {
+      final long seed = seeds[j];
+      jobs.add(() -> new Node(data, new Random(seed), m_Min));
     }
 
-    m_Data = new Instances(m_Data,0); // cleanOUT
+    return ExecutorHelper.invokeAll(jobs, Performance.determineNumThreads(m_NumThreads)).toArray(new Node[0]);
+  }
+
+  /**
+   * Pushes the instance through the PLS filter.
+   *
+   * @param instance	the instance to filter
+   * @return		the filtered instance
+   * @throws Exception	if filtering fails
+   */
+  protected Instance filter(Instance instance) throws Exception {
+    synchronized(m_PLSFilter) {
+      m_PLSFilter.input(instance);
+      m_PLSFilter.batchFinished();
+      return m_PLSFilter.output();
+    }
+  }
+
+  /**
+   * Averages the predictions of the trees for an already filtered instance.
+   *
+   * @param instance	the filtered instance
+   * @return		the prediction
+   * @throws Exception	if a tree fails to make a prediction
+   */
+  protected double predict(Instance instance) throws Exception {
+    double sum = 0.0;
+    for (Node node: m_Node) {
+      sum += node.classifyInstance(instance);
+    }
+
+    return m_Mean + sum/m_Node.length;
   }
 
   /**
@@ -399,16 +518,43 @@ public class RandomRegressionForest
    * @throws Exception 	if distribution can't be computed successfully
    */
   public double classifyInstance(Instance instance) throws Exception {
-    m_PLSFilter.input(instance);
-    m_PLSFilter.batchFinished();
-    instance = m_PLSFilter.output();
+    return predict(filter(instance));
+  }
 
-    double sum = 0.0;
-    for (Node node: m_Node) {
-      sum += node.classifyInstance(instance);
+  /**
+   * Returns true, as the batch is pushed through the PLS filter in one go
+   * and the instances are scored in parallel (if multiple threads are used).
+   *
+   * @return		always true
+   */
+  @Override
+  public boolean implementsMoreEfficientBatchPrediction() {
+    return true;
+  }
+
+  /**
+   * Makes predictions for the batch of instances.
+   *
+   * @param insts	the instances to make predictions for
+   * @return		the predictions, one single-element array per instance
+   * @throws Exception	if predictions fail
+   */
+  @Override
+  public double[][] distributionsForInstances(Instances insts) throws Exception {
+    final double[][]	result;
+    final Instances	filtered;
+
+    result = new double[insts.numInstances()][1];
+    synchronized(m_PLSFilter) {
+      filtered = Filter.useFilter(insts, m_PLSFilter);
     }
 
-    return m_Mean + sum/m_Node.length;
+    ExecutorHelper.processChunks(result.length, Performance.determineNumThreads(m_NumThreads), (int from, int to) -> {
+      for (int i = from; i < to; i++)
+	result[i][0] = predict(filtered.instance(i));
+    });
+
+    return result;
   }
 
   /**
@@ -0,0 +1,1043 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * SpreadSheetInstances.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package weka.core;
+
+import adams.core.exception.NotImplementedException;
+import adams.data.spreadsheet.Cell;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+
+import java.io.Serializable;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-only view of a spreadsheet as Instances object. The rows of the
+ * spreadsheet get turned into instances only when they are accessed, they
+ * are not stored, i.e., each call of {@link #instance(int)} returns a new
+ * object. The indices of nominal and string values get cached.
+ * <br><br>
+ * Since changes to these instances would get lost silently, they are
+ * read-only as well: changing the weight or values throws a
+ * {@link NotImplementedException}. All instances have a weight of 1.
+ * Copies of the instances (<code>copy()</code>) are regular instances
+ * that can be modified.
+ * <br><br>
+ * The attribute types are defined by the header, which must have the same
+ * number of attributes as the spreadsheet has columns. All the values of
+ * string attributes get added to the header at construction time.
+ * <br><br>
+ * Operations that would modify the data throw a {@link NotImplementedException}.
+ * Use <code>new Instances(view)</code> to obtain a modifiable copy.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class SpreadSheetInstances
+  extends Instances {
+
+  private static final long serialVersionUID = -4519866270404779231L;
+
+  /**
+   * Instance that cannot be modified, as its changes would not be stored
+   * in the spreadsheet. Wraps a regular instance, since the weight of
+   * {@link AbstractInstance} cannot be protected from changes.
+   */
+  protected static class ReadOnlyInstance
+    implements Instance, Serializable {
+
+    private static final long serialVersionUID = 2436470957658316281L;
+
+    /** the wrapped instance. */
+    protected Instance m_Instance;
+
+    /**
+     * Initializes the instance.
+     *
+     * @param instance	the instance to wrap
+     */
+    public ReadOnlyInstance(Instance instance) {
+      m_Instance = instance;
+    }
+
+    /**
+     * Returns the attribute with the given index.
+     *
+     * @param index	the attribute's index
+     * @return		the attribute
+     */
+    @Override
+    public Attribute attribute(int index) {
+      return m_Instance.attribute(index);
+    }
+
+    /**
+     * Returns the attribute with the given index in the sparse representation.
+     *
+     * @param indexOfIndex	the index of the attribute's index
+     * @return		the attribute
+     */
+    @Override
+    public Attribute attributeSparse(int indexOfIndex) {
+      return m_Instance.attributeSparse(indexOfIndex);
+    }
+
+    /**
+     * Returns the class attribute.
+     *
+     * @return		the class attribute
+     */
+    @Override
+    public Attribute classAttribute() {
+      return m_Instance.classAttribute();
+    }
+
+    /**
+     * Returns the index of the class attribute.
+     *
+     * @return		the class index
+     */
+    @Override
+    public int classIndex() {
+      return m_Instance.classIndex();
+    }
+
+    /**
+     * Returns whether the class value is missing.
+     *
+     * @return		true if missing
+     */
+    @Override
+    public boolean classIsMissing() {
+      return m_Instance.classIsMissing();
+    }
+
+    /**
+     * Returns the class value.
+     *
+     * @return		the class value
+     */
+    @Override
+    public double classValue() {
+      return m_Instance.classValue();
+    }
+
+    /**
+     * Returns a regular, modifiable copy of the instance.
+     *
+     * @return		the copy
+     */
+    @Override
+    public Object copy() {
+      return m_Instance.copy();
+    }
+
+    /**
+     * Returns a regular, modifiable copy of the instance with the given values.
+     *
+     * @param values	the values for the copy
+     * @return		the copy
+     */
+    @Override
+    public Instance copy(double[] values) {
+      return m_Instance.copy(values);
+    }
+
+    /**
+     * Returns the dataset the instance belongs to.
+     *
+     * @return		the dataset
+     */
+    @Override
+    public Instances dataset() {
+      return m_Instance.dataset();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param position	the attribute's position
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void deleteAttributeAt(int position) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Returns an enumeration of the attributes, without the class attribute.
+     *
+     * @return		the attributes
+     */
+    @Override
+    public Enumeration<Attribute> enumerateAttributes() {
+      return m_Instance.enumerateAttributes();
+    }
+
+    /**
+     * Tests whether the header of the instance is equal to the other one.
+     *
+     * @param inst	the instance to compare with
+     * @return		true if equal
+     */
+    @Override
+    public boolean equalHeaders(Instance inst) {
+      return m_Instance.equalHeaders(inst);
+    }
+
+    /**
+     * Returns why the headers of the instances differ.
+     *
+     * @param inst	the instance to compare with
+     * @return		null if equal, otherwise the message
+     */
+    @Override
+    public String equalHeadersMsg(Instance inst) {
+      return m_Instance.equalHeadersMsg(inst);
+    }
+
+    /**
+     * Returns whether the instance has missing values.
+     *
+     * @return		true if there are missing values
+     */
+    @Override
+    public boolean hasMissingValue() {
+      return m_Instance.hasMissingValue();
+    }
+
+    /**
+     * Returns the attribute index at the given position.
+     *
+     * @param position	the position in the sparse representation
+     * @return		the attribute index
+     */
+    @Override
+    public int index(int position) {
+      return m_Instance.index(position);
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param position	the attribute's position
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void insertAttributeAt(int position) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Returns whether the value of the attribute is missing.
+     *
+     * @param attIndex	the attribute's index
+     * @return		true if missing
+     */
+    @Override
+    public boolean isMissing(int attIndex) {
+      return m_Instance.isMissing(attIndex);
+    }
+
+    /**
+     * Returns whether the value in the sparse representation is missing.
+     *
+     * @param indexOfIndex	the index of the attribute's index
+     * @return		true if missing
+     */
+    @Override
+    public boolean isMissingSparse(int indexOfIndex) {
+      return m_Instance.isMissingSparse(indexOfIndex);
+    }
+
+    /**
+     * Returns whether the value of the attribute is missing.
+     *
+     * @param att	the attribute
+     * @return		true if missing
+     */
+    @Override
+    public boolean isMissing(Attribute att) {
+      return m_Instance.isMissing(att);
+    }
+
+    /**
+     * Merges this instance with the other one into a new instance.
+     *
+     * @param inst	the instance to merge with
+     * @return		the merged instance
+     */
+    @Override
+    public Instance mergeInstance(Instance inst) {
+      return m_Instance.mergeInstance(inst);
+    }
+
+    /**
+     * Returns the number of attributes.
+     *
+     * @return		the number of attributes
+     */
+    @Override
+    public int numAttributes() {
+      return m_Instance.numAttributes();
+    }
+
+    /**
+     * Returns the number of class labels.
+     *
+     * @return		the number of class labels
+     */
+    @Override
+    public int numClasses() {
+      return m_Instance.numClasses();
+    }
+
+    /**
+     * Returns the number of values in the sparse representation.
+     *
+     * @return		the number of values
+     */
+    @Override
+    public int numValues() {
+      return m_Instance.numValues();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param array	containing the means and modes
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void replaceMissingValues(double[] array) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void setClassMissing() {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param value	the new class value
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void setClassValue(double value) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param value	the new class value
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void setClassValue(String value) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Sets the dataset the instance belongs to.
+     *
+     * @param instances	the dataset
+     */
+    @Override
+    public void setDataset(Instances instances) {
+      m_Instance.setDataset(instances);
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param attIndex	the attribute's index
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void setMissing(int attIndex) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param att	the attribute
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void setMissing(Attribute att) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param attIndex	the attribute's index
+     * @param value	the new attribute value
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void setValue(int attIndex, double value) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param indexOfIndex	the index of the attribute's index
+     * @param value	the new attribute value
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void setValueSparse(int indexOfIndex, double value) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param attIndex	the attribute's index
+     * @param value	the new attribute value
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void setValue(int attIndex, String value) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param att	the attribute
+     * @param value	the new attribute value
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void setValue(Attribute att, double value) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param att	the attribute
+     * @param value	the new attribute value
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void setValue(Attribute att, String value) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param weight	the weight
+     * @throws NotImplementedException always
+     */
+    @Override
+    public void setWeight(double weight) {
+      throw new NotImplementedException();
+    }
+
+    /**
+     * Returns the relational value of the attribute.
+     *
+     * @param attIndex	the attribute's index
+     * @return		the relational value
+     */
+    @Override
+    public Instances relationalValue(int attIndex) {
+      return m_Instance.relationalValue(attIndex);
+    }
+
+    /**
+     * Returns the relational value of the attribute.
+     *
+     * @param att	the attribute
+     * @return		the relational value
+     */
+    @Override
+    public Instances relationalValue(Attribute att) {
+      return m_Instance.relationalValue(att);
+    }
+
+    /**
+     * Returns the value of the nominal, string, date or relational attribute as string.
+     *
+     * @param attIndex	the attribute's index
+     * @return		the value
+     */
+    @Override
+    public String stringValue(int attIndex) {
+      return m_Instance.stringValue(attIndex);
+    }
+
+    /**
+     * Returns the value of the nominal, string, date or relational attribute as string.
+     *
+     * @param att	the attribute
+     * @return		the value
+     */
+    @Override
+    public String stringValue(Attribute att) {
+      return m_Instance.stringValue(att);
+    }
+
+    /**
+     * Returns the internal values.
+     *
+     * @return		the values
+     */
+    @Override
+    public double[] toDoubleArray() {
+      return m_Instance.toDoubleArray();
+    }
+
+    /**
+     * Returns the instance as string, without the weight.
+     *
+     * @param afterDecimalPoint	the number of decimals
+     * @return		the string
+     */
+    @Override
+    public String toStringNoWeight(int afterDecimalPoint) {
+      return m_Instance.toStringNoWeight(afterDecimalPoint);
+    }
+
+    /**
+     * Returns the instance as string, without the weight.
+     *
+     * @return		the string
+     */
+    @Override
+    public String toStringNoWeight() {
+      return m_Instance.toStringNoWeight();
+    }
+
+    /**
+     * Returns the instance as string.
+     *
+     * @param afterDecimalPoint	the number of decimals
+     * @return		the string
+     */
+    @Override
+    public String toStringMaxDecimalDigits(int afterDecimalPoint) {
+      return m_Instance.toStringMaxDecimalDigits(afterDecimalPoint);
+    }
+
+    /**
+     * Returns the value of the attribute as string.
+     *
+     * @param attIndex	the attribute's index
+     * @param afterDecimalPoint	the number of decimals
+     * @return		the string
+     */
+    @Override
+    public String toString(int attIndex, int afterDecimalPoint) {
+      return m_Instance.toString(attIndex, afterDecimalPoint);
+    }
+
+    /**
+     * Returns the value of the attribute as string.
+     *
+     * @param attIndex	the attribute's index
+     * @return		the string
+     */
+    @Override
+    public String toString(int attIndex) {
+      return m_Instance.toString(attIndex);
+    }
+
+    /**
+     * Returns the value of the attribute as string.
+     *
+     * @param att	the attribute
+     * @param afterDecimalPoint	the number of decimals
+     * @return		the string
+     */
+    @Override
+    public String toString(Attribute att, int afterDecimalPoint) {
+      return m_Instance.toString(att, afterDecimalPoint);
+    }
+
+    /**
+     * Returns the value of the attribute as string.
+     *
+     * @param att	the attribute
+     * @return		the string
+     */
+    @Override
+    public String toString(Attribute att) {
+      return m_Instance.toString(att);
+    }
+
+    /**
+     * Returns the internal value of the attribute.
+     *
+     * @param attIndex	the attribute's index
+     * @return		the value
+     */
+    @Override
+    public double value(int attIndex) {
+      return m_Instance.value(attIndex);
+    }
+
+    /**
+     * Returns the internal value in the sparse representation.
+     *
+     * @param indexOfIndex	the index of the attribute's index
+     * @return		the value
+     */
+    @Override
+    public double valueSparse(int indexOfIndex) {
+      return m_Instance.valueSparse(indexOfIndex);
+    }
+
+    /**
+     * Returns the internal value of the attribute.
+     *
+     * @param att	the attribute
+     * @return		the value
+     */
+    @Override
+    public double value(Attribute att) {
+      return m_Instance.value(att);
+    }
+
+    /**
+     * Returns the weight of the instance.
+     *
+     * @return		the weight
+     */
+    @Override
+    public double weight() {
+      return m_Instance.weight();
+    }
+
+    /**
+     * Returns the instance as string.
+     *
+     * @return		the string
+     */
+    @Override
+    public String toString() {
+      return m_Instance.toString();
+    }
+  }
+
+  /** the underlying spreadsheet. */
+  protected SpreadSheet m_Sheet;
+
+  /** the label/index lookups for nominal and string attributes (null for others). */
+  protected Map<String,Integer>[] m_Indices;
+
+  /**
+   * Initializes the view.
+   *
+   * @param header	the header to use
+   * @param sheet	the underlying spreadsheet
+   */
+  public SpreadSheetInstances(Instances header, SpreadSheet sheet) {
+    super(header, 0);
+
+    int		i;
+    int		n;
+    Attribute	att;
+    Cell	cell;
+
+    if (header.numAttributes() != sheet.getColumnCount())
+      throw new IllegalArgumentException(
+	"Number of attributes and columns differ: " + header.numAttributes() + " != " + sheet.getColumnCount());
+
+    m_Sheet   = sheet;
+    m_Indices = new Map[numAttributes()];
+    for (i = 0; i < numAttributes(); i++) {
+      att = attribute(i);
+      if (att.isString()) {
+	for (n = 0; n < sheet.getRowCount(); n++) {
+	  cell = sheet.getRow(n).getCell(i);
+	  if ((cell != null) && !cell.isMissing())
+	    att.addStringValue(cell.getContent());
+	}
+      }
+      if (att.isNominal() || att.isString()) {
+	m_Indices[i] = new HashMap<>();
+	for (n = 0; n < att.numValues(); n++)
+	  m_Indices[i].put(att.value(n), n);
+      }
+    }
+  }
+
+  /**
+   * Returns the underlying spreadsheet.
+   *
+   * @return		the spreadsheet
+   */
+  public SpreadSheet getSpreadSheet() {
+    return m_Sheet;
+  }
+
+  /**
+   * Turns the cell into the internal value of the attribute.
+   *
+   * @param cell	the cell to convert, can be null
+   * @param index	the attribute index
+   * @return		the internal value
+   */
+  protected double toValue(Cell cell, int index) {
+    Attribute	att;
+    Integer	label;
+
+    if ((cell == null) || cell.isMissing())
+      return Utils.missingValue();
+
+    att = attribute(index);
+    if (att.type() == Attribute.DATE) {
+      if (cell.isTime())
+	return cell.toTime().getTime();
+      else
+	return cell.toDate().getTime();
+    }
+    else if (att.isNumeric()) {
+      if (cell.isNumeric())
+	return cell.toDouble();
+      else
+	return adams.core.Utils.toDouble(cell.getContent());
+    }
+    else if (m_Indices[index] != null) {
+      label = m_Indices[index].get(cell.getContent());
+      if (label == null)
+	return -1;
+      return label;
+    }
+    else {
+      return Utils.missingValue();
+    }
+  }
+
+  /**
+   * Returns the instance at the given position. The instance is generated
+   * from the spreadsheet row with each call and is read-only.
+   *
+   * @param index the instance's index (index starts with 0)
+   * @return the instance at the given position
+   */
+  @Override
+  public Instance instance(int index) {
+    Instance	result;
+    Row		row;
+    double[]	values;
+    int		i;
+
+    row    = m_Sheet.getRow(index);
+    values = new double[numAttributes()];
+    for (i = 0; i < values.length; i++)
+      values[i] = toValue(row.getCell(i), i);
+    result = new DenseInstance(1.0, values);
+    result.setDataset(this);
+    result = new ReadOnlyInstance(result);
+
+    return result;
+  }
+
+  /**
+   * Returns the instance at the given position.
+   *
+   * @param index the instance's index (index starts with 0)
+   * @return the instance at the given position
+   */
+  @Override
+  public Instance get(int index) {
+    return instance(index);
+  }
+
+  /**
+   * Returns the first instance in the set.
+   *
+   * @return the first instance in the set
+   */
+  @Override
+  public Instance firstInstance() {
+    return instance(0);
+  }
+
+  /**
+   * Returns the last instance in the set.
+   *
+   * @return the last instance in the set
+   */
+  @Override
+  public Instance lastInstance() {
+    return instance(numInstances() - 1);
+  }
+
+  /**
+   * Returns an enumeration of all instances in the dataset.
+   *
+   * @return enumeration of all instances in the dataset
+   */
+  @Override
+  public Enumeration<Instance> enumerateInstances() {
+    return new Enumeration<Instance>() {
+      protected int m_Index = 0;
+      public boolean hasMoreElements() {
+	return (m_Index < numInstances());
+      }
+      public Instance nextElement() {
+	if (!hasMoreElements())
+	  throw new NoSuchElementException();
+	return instance(m_Index++);
+      }
+    };
+  }
+
+  /**
+   * Returns the number of instances in the dataset.
+   *
+   * @return the number of instances in the dataset as an integer
+   */
+  @Override
+  public int size() {
+    return numInstances();
+  }
+
+  /**
+   * Returns the number of instances in the dataset.
+   *
+   * @return the number of instances in the dataset as an integer
+   */
+  @Override
+  public int numInstances() {
+    return m_Sheet.getRowCount();
+  }
+
+  /**
+   * Does nothing.
+   */
+  @Override
+  public void compactify() {
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param instance the instance to be added
+   * @throws NotImplementedException always
+   */
+  @Override
+  public boolean add(Instance instance) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param index position where instance is to be inserted
+   * @param instance the instance to be added
+   * @throws NotImplementedException always
+   */
+  @Override
+  public void add(int index, Instance instance) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param index position where instance is to be inserted
+   * @param instance the instance to be inserted
+   * @return the instance previously at that position
+   * @throws NotImplementedException always
+   */
+  @Override
+  public Instance set(int index, Instance instance) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param index the instance's index (index starts with 0)
+   * @return the instance at the given position
+   * @throws NotImplementedException always
+   */
+  @Override
+  public Instance remove(int index) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @throws NotImplementedException always
+   */
+  @Override
+  public void delete() {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param index the instance's position (index starts with 0)
+   * @throws NotImplementedException always
+   */
+  @Override
+  public void delete(int index) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param attIndex the attribute's index (index starts with 0)
+   * @throws NotImplementedException always
+   */
+  @Override
+  public void deleteWithMissing(int attIndex) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param position the attribute's position (position starts with 0)
+   * @throws NotImplementedException always
+   */
+  @Override
+  public void deleteAttributeAt(int position) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param attType the attribute type to delete
+   * @throws NotImplementedException always
+   */
+  @Override
+  public void deleteAttributeType(int attType) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param att the attribute to be inserted
+   * @param position the attribute's position (position starts with 0)
+   * @throws NotImplementedException always
+   */
+  @Override
+  public void insertAttributeAt(Attribute att, int position) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param att the attribute to be inserted
+   * @param position the attribute's position (position starts with 0)
+   * @throws NotImplementedException always
+   */
+  @Override
+  public void replaceAttributeAt(Attribute att, int position) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param att the attribute's index (index starts with 0)
+   * @param val the value's index (index starts with 0)
+   * @param name the new name
+   * @throws NotImplementedException always
+   */
+  @Override
+  public void renameAttributeValue(int att, int val, String name) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param i the first instance's index (index starts with 0)
+   * @param j the second instance's index (index starts with 0)
+   * @throws NotImplementedException always
+   */
+  @Override
+  public void swap(int i, int j) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param attIndex the attribute's index (index starts with 0)
+   * @throws NotImplementedException always
+   */
+  @Override
+  protected void sortBasedOnNominalAttribute(int attIndex) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param attIndex the attribute's index (index starts with 0)
+   * @throws NotImplementedException always
+   */
+  @Override
+  public void sort(int attIndex) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param attIndex the attribute's index (index starts with 0)
+   * @throws NotImplementedException always
+   */
+  @Override
+  public void stableSort(int attIndex) {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * Not supported.
+   *
+   * @param numFolds the number of folds for the stratification
+   * @throws NotImplementedException always
+   */
+  @Override
+  protected void stratStep(int numFolds) {
+    throw new NotImplementedException();
+  }
+}
@@ -0,0 +1,305 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ *    VantagePointTree.java
+ *    Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package weka.core.neighboursearch;
+
+import weka.core.DistanceFunction;
+import weka.core.Instance;
+import weka.core.Instances;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Vantage-point tree (metric ball tree) for k-nearest neighbour search.
+ * The tree gets built once and is not modified by queries, all the state
+ * of a search is local to the call. Hence, searches can be performed
+ * concurrently, as long as the distance function does not get updated
+ * (e.g., with ranges of test instances).
+ * <br><br>
+ * Each node splits its instances into the ones inside the ball around the
+ * vantage point (with the median distance as radius) and the ones outside.
+ * The triangle inequality is used for pruning, i.e., the distance function
+ * must be a metric (like the Euclidean distance) for the search to be exact.
+ * <br><br>
+ * For more information see:<br>
+ * Peter N. Yianilos: Data structures and algorithms for nearest neighbor
+ * search in general metric spaces. In: Proceedings of the Fourth Annual
+ * ACM-SIAM Symposium on Discrete Algorithms, 311-321, 1993.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class VantagePointTree
+  implements Serializable {
+
+  private static final long serialVersionUID = 6427960217434186307L;
+
+  /**
+   * Container for the result of a search.
+   */
+  public static class Neighbours
+    implements Serializable {
+
+    private static final long serialVersionUID = 2815520432683337082L;
+
+    /** the indices of the neighbours in the data, sorted by distance. */
+    protected int[] m_Indices;
+
+    /** the distances of the neighbours, sorted ascending. */
+    protected double[] m_Distances;
+
+    /**
+     * Initializes the container.
+     *
+     * @param indices	the indices of the neighbours
+     * @param distances	the corresponding distances
+     */
+    public Neighbours(int[] indices, double[] distances) {
+      m_Indices   = indices;
+      m_Distances = distances;
+    }
+
+    /**
+     * Returns the indices of the neighbours, sorted by distance.
+     *
+     * @return		the indices (in the data the tree was built with)
+     */
+    public int[] getIndices() {
+      return m_Indices;
+    }
+
+    /**
+     * Returns the distances of the neighbours, sorted ascending.
+     *
+     * @return		the distances
+     */
+    public double[] getDistances() {
+      return m_Distances;
+    }
+
+    /**
+     * Returns the number of neighbours.
+     *
+     * @return		the number of neighbours
+     */
+    public int size() {
+      return m_Indices.length;
+    }
+  }
+
+  /**
+   * A neighbour candidate during search.
+   */
+  protected static class Candidate {
+
+    /** the index of the instance. */
+    public int index;
+
+    /** the distance to the query. */
+    public double distance;
+
+    /**
+     * Initializes the candidate.
+     *
+     * @param index	the index of the instance
+     * @param distance	the distance to the query
+     */
+    public Candidate(int index, double distance) {
+      this.index    = index;
+      this.distance = distance;
+    }
+  }
+
+  /** the data the tree was built with. */
+  protected Instances m_Instances;
+
+  /** the distance function in use. */
+  protected DistanceFunction m_DistanceFunction;
+
+  /** the instance indices, in tree order (the vantage point of a node comes first). */
+  protected int[] m_Order;
+
+  /** the radius of the ball of the node starting at the same position in m_Order. */
+  protected double[] m_Radius;
+
+  /**
+   * Builds the tree.
+   *
+   * @param data	the data to build the tree for
+   * @param distance	the distance function to use, must be initialized with the data
+   * @param seed	the seed for selecting the vantage points
+   */
+  public VantagePointTree(Instances data, DistanceFunction distance, long seed) {
+    int		i;
+
+    m_Instances        = data;
+    m_DistanceFunction = distance;
+    m_Order            = new int[data.numInstances()];
+    m_Radius           = new double[data.numInstances()];
+    for (i = 0; i < m_Order.length; i++)
+      m_Order[i] = i;
+
+    build(0, m_Order.length, new double[m_Order.length], new Random(seed));
+  }
+
+  /**
+   * Builds the node for the specified range of m_Order.
+   *
+   * @param lo		the first position (incl)
+   * @param hi		the last position (excl)
+   * @param dist	buffer for the distances to the vantage point
+   * @param rand	for selecting the vantage point
+   */
+  protected void build(int lo, int hi, final double[] dist, Random rand) {
+    int		i;
+    int		vp;
+    int		mid;
+    Integer[]	sorted;
+
+    if (hi - lo <= 1)
+      return;
+
+    // move vantage point to front
+    i           = lo + rand.nextInt(hi - lo);
+    vp          = m_Order[i];
+    m_Order[i]  = m_Order[lo];
+    m_Order[lo] = vp;
+
+    // sort remainder by distance to vantage point
+    sorted = new Integer[hi - lo - 1];
+    for (i = lo + 1; i < hi; i++) {
+      sorted[i - lo - 1] = m_Order[i];
+      dist[m_Order[i]]   = m_DistanceFunction.distance(m_Instances.instance(vp), m_Instances.instance(m_Order[i]));
+    }
+    Arrays.sort(sorted, new Comparator<Integer>() {
+      public int compare(Integer o1, Integer o2) {
+	return Double.compare(dist[o1], dist[o2]);
+      }
+    });
+    for (i = 0; i < sorted.length; i++)
+      m_Order[lo + 1 + i] = sorted[i];
+
+    // inside: [lo+1, mid), outside: [mid, hi)
+    mid          = lo + 1 + (hi - lo - 1) / 2;
+    m_Radius[lo] = dist[m_Order[mid]];
+
+    build(lo + 1, mid, dist, rand);
+    build(mid, hi, dist, rand);
+  }
+
+  /**
+   * Searches the node for the specified range of m_Order.
+   *
+   * @param query	the instance to find the neighbours for
+   * @param k		the number of neighbours
+   * @param lo		the first position (incl)
+   * @param hi		the last position (excl)
+   * @param heap	the current neighbours, largest distance first
+   */
+  protected void search(Instance query, int k, int lo, int hi, PriorityQueue<Candidate> heap) {
+    double	d;
+    double	tau;
+    int		mid;
+
+    if (lo >= hi)
+      return;
+
+    d = m_DistanceFunction.distance(query, m_Instances.instance(m_Order[lo]));
+    if (heap.size() < k) {
+      heap.add(new Candidate(m_Order[lo], d));
+    }
+    else if (d < heap.peek().distance) {
+      heap.poll();
+      heap.add(new Candidate(m_Order[lo], d));
+    }
+    if (hi - lo == 1)
+      return;
+
+    mid = lo + 1 + (hi - lo - 1) / 2;
+    if (d < m_Radius[lo]) {
+      search(query, k, lo + 1, mid, heap);
+      tau = (heap.size() < k) ? Double.POSITIVE_INFINITY : heap.peek().distance;
+      if (d + tau >= m_Radius[lo])
+	search(query, k, mid, hi, heap);
+    }
+    else {
+      search(query, k, mid, hi, heap);
+      tau = (heap.size() < k) ? Double.POSITIVE_INFINITY : heap.peek().distance;
+      if (d - tau <= m_Radius[lo])
+	search(query, k, lo + 1, mid, heap);
+    }
+  }
+
+  /**
+   * Determines the k nearest neighbours of the query instance. Ties at the
+   * k-th distance are not included.
+   *
+   * @param query	the instance to find the neighbours for
+   * @param k		the number of neighbours
+   * @return		the neighbours
+   */
+  public Neighbours kNearestNeighbours(Instance query, int k) {
+    PriorityQueue<Candidate>	heap;
+    int[]			indices;
+    double[]			distances;
+    int				i;
+    Candidate			cand;
+
+    k    = Math.min(k, m_Order.length);
+    heap = new PriorityQueue<>(Math.max(1, k), new Comparator<Candidate>() {
+      public int compare(Candidate o1, Candidate o2) {
+	return Double.compare(o2.distance, o1.distance);
+      }
+    });
+    if (k > 0)
+      search(query, k, 0, m_Order.length, heap);
+
+    indices   = new int[heap.size()];
+    distances = new double[heap.size()];
+    for (i = indices.length - 1; i >= 0; i--) {
+      cand         = heap.poll();
+      indices[i]   = cand.index;
+      distances[i] = cand.distance;
+    }
+
+    return new Neighbours(indices, distances);
+  }
+
+  /**
+   * Returns the data the tree was built with.
+   *
+   * @return		the data
+   */
+  public Instances getInstances() {
+    return m_Instances;
+  }
+
+  /**
+   * Returns the distance function in use.
+   *
+   * @return		the distance function
+   */
+  public DistanceFunction getDistanceFunction() {
+    return m_DistanceFunction;
+  }
+}
@@ -22,10 +22,13 @@ package adams.data.conversion;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
+import adams.core.exception.NotImplementedException;
 import adams.data.io.input.CsvSpreadSheetReader;
 import adams.data.spreadsheet.SpreadSheet;
 import adams.env.Environment;
 import adams.test.TmpFile;
+import weka.core.Instance;
+import weka.core.Instances;
 
 /**
  * Tests the SpreadSheetToInstances conversion.
@@ -91,6 +94,43 @@ public class SpreadSheetToWekaInstancesTest
     return result;
   }
 
+  /**
+   * Tests whether the view generates the same output as the copy and that
+   * its instances are read-only.
+   */
+  public void testView() {
+    SpreadSheetToWekaInstances	conv;
+    Instances			copy;
+    Instances			view;
+    Instance			inst;
+
+    for (Object input: getRegressionInput()) {
+      conv = new SpreadSheetToWekaInstances();
+      conv.setInput(input);
+      assertNull("conversion failed", conv.convert());
+      copy = (Instances) conv.getOutput();
+
+      conv = new SpreadSheetToWekaInstances();
+      conv.setView(true);
+      conv.setInput(input);
+      assertNull("conversion failed", conv.convert());
+      view = (Instances) conv.getOutput();
+
+      assertEquals("output differs", copy.toString(), view.toString());
+      try {
+	view.instance(0).setWeight(2.0);
+	fail("Weight change not detected");
+      }
+      catch (NotImplementedException e) {
+	// expected
+      }
+      assertEquals("weight changed", 1.0, view.instance(0).weight());
+      inst = (Instance) view.instance(0).copy();
+      inst.setWeight(2.0);
+      assertEquals("copy not modifiable", 2.0, inst.weight());
+    }
+  }
+
   /**
    * Returns the setups to use in the regression test.
    *
@@ -100,10 +140,12 @@ public class SpreadSheetToWekaInstancesTest
   protected Conversion[] getRegressionSetups() {
     SpreadSheetToWekaInstances[]	result;
 
-    result = new SpreadSheetToWekaInstances[2];
+    result = new SpreadSheetToWekaInstances[3];
     result[0] = new SpreadSheetToWekaInstances();
     result[1] = new SpreadSheetToWekaInstances();
     result[1].setMaxLabels(2);
+    result[2] = new SpreadSheetToWekaInstances();
+    result[2].setView(true);
 
     return result;
   }
@@ -0,0 +1,169 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * LWLConcurrentTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package weka.classifiers.lazy;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+import weka.classifiers.AbstractAdamsClassifierTest;
+import weka.classifiers.Classifier;
+import weka.core.Attribute;
+import weka.core.Instances;
+import weka.core.TestInstances;
+
+import java.util.Arrays;
+
+/**
+ * Tests LWLConcurrent. Run from the command line with:<p>
+ * java weka.classifiers.lazy.LWLConcurrentTest
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class LWLConcurrentTest
+  extends AbstractAdamsClassifierTest {
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public LWLConcurrentTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Creates a default LWLConcurrent.
+   *
+   * @return		the classifier
+   */
+  @Override
+  public Classifier getClassifier() {
+    return new LWLConcurrent();
+  }
+
+  /**
+   * Generates a regression dataset with numeric attributes only, i.e.,
+   * without ties in the distances.
+   *
+   * @return		the dataset
+   * @throws Exception	if generation fails
+   */
+  protected Instances generateData() throws Exception {
+    TestInstances	test;
+
+    test = new TestInstances();
+    test.setNumNominal(0);
+    test.setNumNumeric(5);
+    test.setNumInstances(100);
+    test.setClassType(Attribute.NUMERIC);
+
+    return test.generate();
+  }
+
+  /**
+   * Trains the classifier on the first half of the data and returns the
+   * predictions for the second half.
+   *
+   * @param classifier	the classifier to use
+   * @param data	the data to use
+   * @return		the predictions
+   * @throws Exception	if build or predictions fail
+   */
+  protected double[][] predict(LWLSynchro classifier, Instances data) throws Exception {
+    int		half;
+
+    half = data.numInstances() / 2;
+    classifier.setKNN(10);
+    classifier.buildClassifier(new Instances(data, 0, half));
+
+    return classifier.distributionsForInstances(new Instances(data, half, data.numInstances() - half));
+  }
+
+  /**
+   * Compares the predictions.
+   *
+   * @param msg		the message prefix
+   * @param expected	the expected predictions
+   * @param actual	the actual predictions
+   */
+  protected void assertPredictionsEqual(String msg, double[][] expected, double[][] actual) {
+    int		i;
+
+    assertEquals(msg + ": number of predictions differ", expected.length, actual.length);
+    for (i = 0; i < expected.length; i++)
+      assertTrue(msg + ": prediction #" + (i+1) + " differs", Arrays.equals(expected[i], actual[i]));
+  }
+
+  /**
+   * Tests whether the predictions are the same as the ones of LWLSynchro
+   * when the distance function does not get updated and there are no ties.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testSameAsLWLSynchro() throws Exception {
+    Instances	data;
+    LWLSynchro	synchro;
+
+    data    = generateData();
+    synchro = new LWLSynchro();
+    synchro.setNoUpdate(true);
+    assertPredictionsEqual(
+      "LWLSynchro vs LWLConcurrent", predict(synchro, data), predict(new LWLConcurrent(), data));
+  }
+
+  /**
+   * Tests whether sequential and parallel execution generate the same
+   * predictions.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testNumThreads() throws Exception {
+    Instances		data;
+    LWLConcurrent	sequential;
+    LWLConcurrent	parallel;
+
+    data       = generateData();
+    sequential = new LWLConcurrent();
+    sequential.setNumThreads(1);
+    parallel   = new LWLConcurrent();
+    parallel.setNumThreads(4);
+    assertPredictionsEqual(
+      "1 vs 4 threads", predict(sequential, data), predict(parallel, data));
+  }
+
+  /**
+   * Returns the test suite.
+   *
+   * @return		the suite
+   */
+  public static Test suite() {
+    return new TestSuite(LWLConcurrentTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    TestRunner.run(suite());
+  }
+}
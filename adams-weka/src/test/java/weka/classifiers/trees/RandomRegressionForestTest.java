@@ -25,6 +25,11 @@ import junit.textui.TestRunner;
 import weka.classifiers.AbstractAdamsClassifierTest;
 import weka.classifiers.Classifier;
 import weka.classifiers.rules.ZeroR;
+import weka.core.Attribute;
+import weka.core.Instances;
+import weka.core.TestInstances;
+
+import java.util.Arrays;
 
 /**
  * Tests RandomRegressionForest. Run from the command line with:<br><br>
@@ -57,6 +62,54 @@ public class RandomRegressionForestTest
     return new ZeroR();
   }
 
+  /**
+   * Builds the forest with the specified number of threads and returns the
+   * batch predictions for the data.
+   *
+   * @param data	the data to train and predict on
+   * @param numThreads	the number of threads to use
+   * @return		the predictions
+   * @throws Exception	if build or predictions fail
+   */
+  protected double[][] predict(Instances data, int numThreads) throws Exception {
+    RandomRegressionForest	forest;
+
+    forest = new RandomRegressionForest();
+    forest.setNumIterations(10);
+    forest.setPLS(5);
+    forest.setNumThreads(numThreads);
+    forest.buildClassifier(data);
+
+    return forest.distributionsForInstances(data);
+  }
+
+  /**
+   * Tests whether sequential and parallel execution generate the same
+   * predictions.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testNumThreads() throws Exception {
+    TestInstances	test;
+    Instances		data;
+    double[][]		sequential;
+    double[][]		parallel;
+    int			i;
+
+    test = new TestInstances();
+    test.setNumNominal(0);
+    test.setNumNumeric(10);
+    test.setNumInstances(100);
+    test.setClassType(Attribute.NUMERIC);
+    data = test.generate();
+
+    sequential = predict(data, 1);
+    parallel   = predict(data, 4);
+    assertEquals("number of predictions differ", sequential.length, parallel.length);
+    for (i = 0; i < sequential.length; i++)
+      assertTrue("prediction #" + (i+1) + " differs", Arrays.equals(sequential[i], parallel[i]));
+  }
+
   /**
    * Returns the test suite.
    *
@@ -0,0 +1,493 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * StreamingXPath.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.core;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Subset of XPath that can be evaluated while pull-parsing a document, i.e.,
+ * only against the stack of currently open elements. Supported:
+ * <ul>
+ *   <li>child steps: <code>/a/b</code></li>
+ *   <li>descendant steps: <code>//b</code>, <code>/a//c</code></li>
+ *   <li>wildcards: <code>/a/*</code></li>
+ *   <li>attribute predicates: <code>b[@id]</code>, <code>b[@id='1']</code></li>
+ *   <li>final attribute or text selection: <code>b/@id</code>, <code>b/text()</code></li>
+ *   <li>the context element: <code>.</code></li>
+ * </ul>
+ * Expressions without a leading slash are relative to a context element.
+ * Namespace prefixes are ignored, names get matched using their local part.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class StreamingXPath
+  implements Serializable {
+
+  private static final long serialVersionUID = 2942735437081066418L;
+
+  /**
+   * What the expression selects.
+   */
+  public enum Target {
+    /** the string value of the element. */
+    ELEMENT,
+    /** only the text directly below the element. */
+    TEXT,
+    /** an attribute of the element. */
+    ATTRIBUTE
+  }
+
+  /**
+   * Container for an open element, as seen by the parser.
+   */
+  public static class Element
+    implements Serializable {
+
+    private static final long serialVersionUID = -2174001587302375137L;
+
+    /** the local name. */
+    protected String m_Name;
+
+    /** the attributes (local name - value). */
+    protected Map<String,String> m_Attributes;
+
+    /**
+     * Initializes the element.
+     *
+     * @param name	the local name
+     */
+    public Element(String name) {
+      m_Name       = name;
+      m_Attributes = new LinkedHashMap<>();
+    }
+
+    /**
+     * Returns the local name.
+     *
+     * @return		the name
+     */
+    public String getName() {
+      return m_Name;
+    }
+
+    /**
+     * Returns the attributes.
+     *
+     * @return		the attributes (local name - value)
+     */
+    public Map<String,String> getAttributes() {
+      return m_Attributes;
+    }
+
+    /**
+     * Returns the specified attribute.
+     *
+     * @param name	the local name of the attribute
+     * @return		the value, null if not present
+     */
+    public String getAttribute(String name) {
+      return m_Attributes.get(name);
+    }
+
+    /**
+     * Returns a short description of the element.
+     *
+     * @return		the description
+     */
+    @Override
+    public String toString() {
+      return m_Name + m_Attributes;
+    }
+  }
+
+  /**
+   * A single location step.
+   */
+  public static class Step
+    implements Serializable {
+
+    private static final long serialVersionUID = -1296587498232400585L;
+
+    /** the element name, null for wildcard. */
+    protected String m_Name;
+
+    /** whether the descendant axis is used. */
+    protected boolean m_Descendant;
+
+    /** the attribute that must be present, null if no predicate. */
+    protected String m_Attribute;
+
+    /** the value the attribute must have, null if only presence is checked. */
+    protected String m_Value;
+
+    /**
+     * Initializes the step.
+     *
+     * @param name	the element name, null for wildcard
+     * @param descendant	whether descendant axis
+     * @param attribute	the attribute of the predicate, null if none
+     * @param value	the value of the predicate, null if none
+     */
+    public Step(String name, boolean descendant, String attribute, String value) {
+      m_Name       = name;
+      m_Descendant = descendant;
+      m_Attribute  = attribute;
+      m_Value      = value;
+    }
+
+    /**
+     * Returns whether the step uses the descendant axis.
+     *
+     * @return		true if descendant axis
+     */
+    public boolean isDescendant() {
+      return m_Descendant;
+    }
+
+    /**
+     * Checks whether the element matches this step.
+     *
+     * @param element	the element to check
+     * @return		true if a match
+     */
+    public boolean matches(Element element) {
+      String	value;
+
+      if ((m_Name != null) && !m_Name.equals(element.getName()))
+	return false;
+      if (m_Attribute != null) {
+	value = element.getAttribute(m_Attribute);
+	if (value == null)
+	  return false;
+	if ((m_Value != null) && !m_Value.equals(value))
+	  return false;
+      }
+
+      return true;
+    }
+  }
+
+  /** the expression. */
+  protected String m_Expression;
+
+  /** whether the expression is absolute. */
+  protected boolean m_Absolute;
+
+  /** the steps. */
+  protected Step[] m_Steps;
+
+  /** what gets selected. */
+  protected Target m_Target;
+
+  /** the attribute to select. */
+  protected String m_TargetAttribute;
+
+  /**
+   * Initializes the expression with the context element.
+   */
+  public StreamingXPath() {
+    this(".");
+  }
+
+  /**
+   * Parses the expression.
+   *
+   * @param expression	the expression to parse
+   * @throws IllegalArgumentException	if the expression is not supported
+   */
+  public StreamingXPath(String expression) {
+    m_Expression = expression.trim();
+    parse();
+  }
+
+  /**
+   * Strips any namespace prefix.
+   *
+   * @param name	the name to process
+   * @return		the local name
+   */
+  protected String localName(String name) {
+    int		pos;
+
+    pos = name.indexOf(':');
+    if (pos > -1)
+      return name.substring(pos + 1);
+    else
+      return name;
+  }
+
+  /**
+   * Throws an exception for the current expression.
+   *
+   * @param msg		the error message
+   */
+  protected void fail(String msg) {
+    throw new IllegalArgumentException(msg + ": " + m_Expression);
+  }
+
+  /**
+   * Parses a single step.
+   *
+   * @param step	the step to parse
+   * @param descendant	whether descendant axis
+   * @return		the step
+   */
+  protected Step parseStep(String step, boolean descendant) {
+    String	name;
+    String	pred;
+    String	attr;
+    String	value;
+    int		pos;
+
+    attr  = null;
+    value = null;
+    pos   = step.indexOf('[');
+    if (pos > -1) {
+      if (!step.endsWith("]"))
+	fail("Unterminated predicate");
+      name = step.substring(0, pos).trim();
+      pred = step.substring(pos + 1, step.length() - 1).trim();
+      if (!pred.startsWith("@"))
+	fail("Only attribute predicates are supported");
+      pos = pred.indexOf('=');
+      if (pos > -1) {
+	attr  = pred.substring(1, pos).trim();
+	value = pred.substring(pos + 1).trim();
+	if ((value.length() < 2)
+	  || !((value.startsWith("'") && value.endsWith("'")) || (value.startsWith("\"") && value.endsWith("\""))))
+	  fail("Predicate value must be quoted");
+	value = value.substring(1, value.length() - 1);
+      }
+      else {
+	attr = pred.substring(1).trim();
+      }
+      attr = localName(attr);
+    }
+    else {
+      name = step.trim();
+    }
+
+    if (name.isEmpty())
+      fail("Empty step");
+    if (name.equals("*"))
+      name = null;
+    else if (!name.matches("[\\w.:\\-]+"))
+      fail("Unsupported step '" + step + "'");
+    else
+      name = localName(name);
+
+    return new Step(name, descendant, attr, value);
+  }
+
+  /**
+   * Parses the expression.
+   */
+  protected void parse() {
+    List<Step>		steps;
+    int			i;
+    int			start;
+    boolean		descendant;
+    char		quote;
+    int			brackets;
+    String		step;
+
+    if (m_Expression.isEmpty())
+      fail("Empty expression");
+
+    steps    = new ArrayList<>();
+    m_Target = Target.ELEMENT;
+    m_Absolute = m_Expression.startsWith("/");
+    i        = 0;
+
+    while (i < m_Expression.length()) {
+      // axis
+      descendant = false;
+      if (m_Expression.startsWith("//", i)) {
+	descendant = true;
+	i += 2;
+      }
+      else if (m_Expression.charAt(i) == '/') {
+	i++;
+      }
+      else if (i > 0) {
+	fail("Expected '/' at position " + i);
+      }
+
+      // step
+      start    = i;
+      quote    = 0;
+      brackets = 0;
+      while (i < m_Expression.length()) {
+	if (quote != 0) {
+	  if (m_Expression.charAt(i) == quote)
+	    quote = 0;
+	}
+	else if ((m_Expression.charAt(i) == '\'') || (m_Expression.charAt(i) == '"')) {
+	  quote = m_Expression.charAt(i);
+	}
+	else if (m_Expression.charAt(i) == '[') {
+	  brackets++;
+	}
+	else if (m_Expression.charAt(i) == ']') {
+	  brackets--;
+	}
+	else if ((m_Expression.charAt(i) == '/') && (brackets == 0)) {
+	  break;
+	}
+	i++;
+      }
+      step = m_Expression.substring(start, i).trim();
+
+      if (step.startsWith("@") || step.equals("text()")) {
+	if (i < m_Expression.length())
+	  fail("Attribute or text selection must be the last step");
+	if (descendant)
+	  fail("Descendant axis not supported for attribute or text selection");
+	if (step.startsWith("@")) {
+	  m_Target          = Target.ATTRIBUTE;
+	  m_TargetAttribute = localName(step.substring(1).trim());
+	  if (m_TargetAttribute.isEmpty())
+	    fail("Missing attribute name");
+	}
+	else {
+	  m_Target = Target.TEXT;
+	}
+      }
+      else if (step.equals(".")) {
+	if (descendant || (i > 1) || m_Absolute)
+	  fail("'.' is only supported as first step of relative expressions");
+      }
+      else {
+	steps.add(parseStep(step, descendant));
+      }
+    }
+
+    if (m_Absolute && steps.isEmpty())
+      fail("Absolute expression requires at least one element step");
+
+    m_Steps = steps.toArray(new Step[0]);
+  }
+
+  /**
+   * Returns the expression.
+   *
+   * @return		the expression
+   */
+  public String getExpression() {
+    return m_Expression;
+  }
+
+  /**
+   * Returns whether the expression is absolute.
+   *
+   * @return		true if absolute
+   */
+  public boolean isAbsolute() {
+    return m_Absolute;
+  }
+
+  /**
+   * Returns what the expression selects.
+   *
+   * @return		the target
+   */
+  public Target getTarget() {
+    return m_Target;
+  }
+
+  /**
+   * Returns the attribute to select.
+   *
+   * @return		the attribute name, null if not selecting an attribute
+   */
+  public String getTargetAttribute() {
+    return m_TargetAttribute;
+  }
+
+  /**
+   * Checks whether the steps starting at the specified index match the
+   * elements starting at the specified depth.
+   *
+   * @param stack	the open elements
+   * @param step	the index of the step
+   * @param depth	the depth in the stack
+   * @return		true if matching
+   */
+  protected boolean matches(List<? extends Element> stack, int step, int depth) {
+    int		i;
+
+    if (step == m_Steps.length)
+      return (depth == stack.size());
+    if (depth >= stack.size())
+      return false;
+
+    if (!m_Steps[step].isDescendant())
+      return m_Steps[step].matches(stack.get(depth)) && matches(stack, step + 1, depth + 1);
+
+    for (i = depth; i < stack.size(); i++) {
+      if (m_Steps[step].matches(stack.get(i)) && matches(stack, step + 1, i + 1))
+	return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Checks whether the innermost open element is selected by the expression,
+   * evaluated against the document.
+   *
+   * @param stack	the open elements, starting with the root element
+   * @return		true if selected
+   */
+  public boolean matches(List<? extends Element> stack) {
+    return matches(stack, 0, 0);
+  }
+
+  /**
+   * Checks whether the innermost open element is selected by the expression,
+   * evaluated against the context element. Absolute expressions ignore the
+   * context.
+   *
+   * @param stack	the open elements, starting with the root element
+   * @param context	the depth of the context element in the stack
+   * @return		true if selected
+   */
+  public boolean matches(List<? extends Element> stack, int context) {
+    if (m_Absolute)
+      return matches(stack, 0, 0);
+    else
+      return matches(stack, 0, context + 1);
+  }
+
+  /**
+   * Returns the expression.
+   *
+   * @return		the expression
+   */
+  @Override
+  public String toString() {
+    return m_Expression;
+  }
+}
@@ -0,0 +1,1006 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * XMLRecordSplitter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.flow.transformer;
+
+import adams.core.QuickInfoHelper;
+import adams.core.StreamingXPath;
+import adams.core.StreamingXPath.Element;
+import adams.core.StreamingXPath.Target;
+import adams.core.Utils;
+import adams.core.base.XPathExpression;
+import adams.core.io.FileUtils;
+import adams.core.io.GzipUtils;
+import adams.core.io.PlaceholderFile;
+import adams.data.report.DataType;
+import adams.data.report.Field;
+import adams.data.report.Report;
+import adams.flow.core.Token;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ <!-- globalinfo-start -->
+ * Splits an XML file into records while pull-parsing it, forwarding one sub-document, string, map or report per element that matches the record path. Only the current record is held in memory, making it suitable for very large files; files ending in .gz get decompressed on the fly.<br>
+ * The record path and the selections support a streaming subset of XPath: child (&#47;) and descendant (&#47;&#47;) steps, wildcards (*), attribute predicates ([&#64;attr] or [&#64;attr='value']) and a final attribute (&#64;attr) or text (text()) selection. Selections are relative to the record element.<br>
+ * Maps and reports use the selection expressions as keys. Without selections, all attributes and text values of the record get stored, using keys relative to the record, e.g., 'title', 'title&#47;&#64;lang' or 'author[2]'.
+ * <br><br>
+ <!-- globalinfo-end -->
+ *
+ <!-- flow-summary-start -->
+ * Input&#47;output:<br>
+ * - accepts:<br>
+ * &nbsp;&nbsp;&nbsp;java.lang.String<br>
+ * &nbsp;&nbsp;&nbsp;java.io.File<br>
+ * - generates:<br>
+ * &nbsp;&nbsp;&nbsp;java.util.Map<br>
+ * <br><br>
+ <!-- flow-summary-end -->
+ *
+ <!-- options-start -->
+ * <pre>-logging-level &lt;OFF|SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST&gt; (property: loggingLevel)
+ * &nbsp;&nbsp;&nbsp;The logging level for outputting errors and debugging output.
+ * &nbsp;&nbsp;&nbsp;default: WARNING
+ * </pre>
+ *
+ * <pre>-name &lt;java.lang.String&gt; (property: name)
+ * &nbsp;&nbsp;&nbsp;The name of the actor.
+ * &nbsp;&nbsp;&nbsp;default: XMLRecordSplitter
+ * </pre>
+ *
+ * <pre>-annotation &lt;adams.core.base.BaseAnnotation&gt; (property: annotations)
+ * &nbsp;&nbsp;&nbsp;The annotations to attach to this actor.
+ * &nbsp;&nbsp;&nbsp;default:
+ * </pre>
+ *
+ * <pre>-skip &lt;boolean&gt; (property: skip)
+ * &nbsp;&nbsp;&nbsp;If set to true, transformation is skipped and the input token is just forwarded
+ * &nbsp;&nbsp;&nbsp;as it is.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ * <pre>-stop-flow-on-error &lt;boolean&gt; (property: stopFlowOnError)
+ * &nbsp;&nbsp;&nbsp;If set to true, the flow execution at this level gets stopped in case this
+ * &nbsp;&nbsp;&nbsp;actor encounters an error; the error gets propagated; useful for critical
+ * &nbsp;&nbsp;&nbsp;actors.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ * <pre>-silent &lt;boolean&gt; (property: silent)
+ * &nbsp;&nbsp;&nbsp;If enabled, then no errors are output in the console; Note: the enclosing
+ * &nbsp;&nbsp;&nbsp;actor handler must have this enabled as well.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ * <pre>-record-path &lt;adams.core.base.XPathExpression&gt; (property: recordPath)
+ * &nbsp;&nbsp;&nbsp;The path of the elements that represent the records, e.g., '&#47;catalog&#47;book'
+ * &nbsp;&nbsp;&nbsp;or '&#47;&#47;book[&#64;type='ebook']'.
+ * &nbsp;&nbsp;&nbsp;default: &#47;*&#47;*
+ * </pre>
+ *
+ * <pre>-output-type &lt;DOCUMENT|STRING|MAP|REPORT&gt; (property: outputType)
+ * &nbsp;&nbsp;&nbsp;The type of object to forward for each record.
+ * &nbsp;&nbsp;&nbsp;default: MAP
+ * </pre>
+ *
+ * <pre>-selection &lt;adams.core.base.XPathExpression&gt; [-selection ...] (property: selections)
+ * &nbsp;&nbsp;&nbsp;The optional expressions, relative to the record element, that select the
+ * &nbsp;&nbsp;&nbsp;values to store in maps&#47;reports, e.g., 'title' or '&#64;category'; only
+ * &nbsp;&nbsp;&nbsp;the selected values get materialized.
+ * &nbsp;&nbsp;&nbsp;default:
+ * </pre>
+ *
+ <!-- options-end -->
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class XMLRecordSplitter
+  extends AbstractTransformer {
+
+  private static final long serialVersionUID = 4475413829516049470L;
+
+  /**
+   * The type of output to generate.
+   */
+  public enum OutputType {
+    DOCUMENT,
+    STRING,
+    MAP,
+    REPORT
+  }
+
+  /**
+   * An open element, with the record-related state.
+   */
+  protected static class Frame
+    extends Element {
+
+    private static final long serialVersionUID = 1869768416018327620L;
+
+    /** the key relative to the record. */
+    protected String m_Key;
+
+    /** the number of occurrences of child names. */
+    protected Map<String,Integer> m_Children;
+
+    /** the text directly below the element. */
+    protected StringBuilder m_Text;
+
+    /** the DOM node. */
+    protected transient Node m_Node;
+
+    /**
+     * Initializes the frame.
+     *
+     * @param name	the local name
+     */
+    public Frame(String name) {
+      super(name);
+    }
+
+    /**
+     * Generates the key for the next child element with the specified name.
+     *
+     * @param name	the name of the child
+     * @return		the key
+     */
+    public String nextChildKey(String name) {
+      int	count;
+
+      if (m_Children == null)
+	m_Children = new HashMap<>();
+      count = m_Children.getOrDefault(name, 0) + 1;
+      m_Children.put(name, count);
+      if (count > 1)
+	name = name + "[" + count + "]";
+      if (m_Key.isEmpty())
+	return name;
+      else
+	return m_Key + "/" + name;
+    }
+
+    /**
+     * Generates the key for the attribute.
+     *
+     * @param name	the name of the attribute
+     * @return		the key
+     */
+    public String attributeKey(String name) {
+      if (m_Key.isEmpty())
+	return "@" + name;
+      else
+	return m_Key + "/@" + name;
+    }
+
+    /**
+     * Returns the key for the text.
+     *
+     * @return		the key
+     */
+    public String textKey() {
+      if (m_Key.isEmpty())
+	return "text()";
+      else
+	return m_Key;
+    }
+  }
+
+  /**
+   * Collects the text for a selection.
+   */
+  protected static class Capture {
+
+    /** the depth of the element in the stack. */
+    protected int depth;
+
+    /** the index of the selection. */
+    protected int selection;
+
+    /** whether only direct text gets collected. */
+    protected boolean direct;
+
+    /** the collected text. */
+    protected StringBuilder text = new StringBuilder();
+  }
+
+  /** the path of the record elements. */
+  protected XPathExpression m_RecordPath;
+
+  /** the output type. */
+  protected OutputType m_OutputType;
+
+  /** the selections. */
+  protected XPathExpression[] m_Selections;
+
+  /** the parsed record path. */
+  protected transient StreamingXPath m_RecordXPath;
+
+  /** the parsed selections. */
+  protected transient StreamingXPath[] m_SelectionXPaths;
+
+  /** the underlying stream. */
+  protected transient InputStream m_Input;
+
+  /** the pull parser. */
+  protected transient XMLStreamReader m_Reader;
+
+  /** the open elements. */
+  protected transient List<Frame> m_Stack;
+
+  /** the depth of the record element, -1 if outside record. */
+  protected int m_RecordDepth;
+
+  /** the open selection captures. */
+  protected transient List<Capture> m_Captures;
+
+  /** the collected values. */
+  protected Map<String,String> m_Values;
+
+  /** the document builder. */
+  protected transient DocumentBuilder m_Builder;
+
+  /** the current document. */
+  protected transient Document m_Document;
+
+  /** the buffer for the string output. */
+  protected transient StringWriter m_Buffer;
+
+  /** the writer for the string output. */
+  protected transient XMLStreamWriter m_Writer;
+
+  /** the next record. */
+  protected Object m_Next;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return
+      "Splits an XML file into records while pull-parsing it, forwarding one "
+	+ "sub-document, string, map or report per element that matches the "
+	+ "record path. Only the current record is held in memory, making it "
+	+ "suitable for very large files; files ending in " + GzipUtils.EXTENSION + " "
+	+ "get decompressed on the fly.\n"
+	+ "The record path and the selections support a streaming subset of XPath: "
+	+ "child (/) and descendant (//) steps, wildcards (*), attribute predicates "
+	+ "([@attr] or [@attr='value']) and a final attribute (@attr) or text (text()) "
+	+ "selection. Selections are relative to the record element.\n"
+	+ "Maps and reports use the selection expressions as keys. Without "
+	+ "selections, all attributes and text values of the record get stored, "
+	+ "using keys relative to the record, e.g., 'title', 'title/@lang' or 'author[2]'.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "record-path", "recordPath",
+      new XPathExpression("/*/*"));
+
+    m_OptionManager.add(
+      "output-type", "outputType",
+      OutputType.MAP);
+
+    m_OptionManager.add(
+      "selection", "selections",
+      new XPathExpression[0]);
+  }
+
+  /**
+   * Resets the scheme.
+   */
+  @Override
+  protected void reset() {
+    super.reset();
+
+    m_RecordXPath     = null;
+    m_SelectionXPaths = null;
+    closeReader();
+  }
+
+  /**
+   * Sets the path of the record elements.
+   *
+   * @param value	the path
+   */
+  public void setRecordPath(XPathExpression value) {
+    m_RecordPath = value;
+    reset();
+  }
+
+  /**
+   * Returns the path of the record elements.
+   *
+   * @return		the path
+   */
+  public XPathExpression getRecordPath() {
+    return m_RecordPath;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String recordPathTipText() {
+    return "The path of the elements that represent the records, e.g., '/catalog/book' or '//book[@type='ebook']'.";
+  }
+
+  /**
+   * Sets the type of object to generate.
+   *
+   * @param value	the type
+   */
+  public void setOutputType(OutputType value) {
+    m_OutputType = value;
+    reset();
+  }
+
+  /**
+   * Returns the type of object to generate.
+   *
+   * @return		the type
+   */
+  public OutputType getOutputType() {
+    return m_OutputType;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String outputTypeTipText() {
+    return "The type of object to forward for each record.";
+  }
+
+  /**
+   * Sets the selections relative to the record element.
+   *
+   * @param value	the selections
+   */
+  public void setSelections(XPathExpression[] value) {
+    m_Selections = value;
+    reset();
+  }
+
+  /**
+   * Returns the selections relative to the record element.
+   *
+   * @return		the selections
+   */
+  public XPathExpression[] getSelections() {
+    return m_Selections;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String selectionsTipText() {
+    return
+      "The optional expressions, relative to the record element, that select "
+	+ "the values to store in maps/reports, e.g., 'title' or '@category'; "
+	+ "only the selected values get materialized.";
+  }
+
+  /**
+   * Returns a quick info about the actor, which will be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result  = QuickInfoHelper.toString(this, "recordPath", m_RecordPath, "path: ");
+    result += QuickInfoHelper.toString(this, "outputType", m_OutputType, ", output: ");
+    result += QuickInfoHelper.toString(this, "selections", m_Selections.length, ", selections: ");
+
+    return result;
+  }
+
+  /**
+   * Returns the class that the consumer accepts.
+   *
+   * @return		<!-- flow-accepts-start -->java.lang.String.class, java.io.File.class<!-- flow-accepts-end -->
+   */
+  @Override
+  public Class[] accepts() {
+    return new Class[]{String.class, File.class};
+  }
+
+  /**
+   * Returns the class of objects that it generates.
+   *
+   * @return		the generated classes
+   */
+  @Override
+  public Class[] generates() {
+    switch (m_OutputType) {
+      case DOCUMENT:
+	return new Class[]{Document.class};
+      case STRING:
+	return new Class[]{String.class};
+      case MAP:
+	return new Class[]{Map.class};
+      case REPORT:
+	return new Class[]{Report.class};
+      default:
+	throw new IllegalStateException("Unhandled output type: " + m_OutputType);
+    }
+  }
+
+  /**
+   * Initializes the item for flow execution.
+   *
+   * @return		null if everything is fine, otherwise error message
+   */
+  @Override
+  public String setUp() {
+    String	result;
+    int		i;
+
+    result = super.setUp();
+
+    if (result == null) {
+      try {
+	m_RecordXPath     = new StreamingXPath(m_RecordPath.getValue());
+	if (m_RecordXPath.getTarget() != Target.ELEMENT)
+	  result = "Record path must select elements: " + m_RecordPath;
+	m_SelectionXPaths = new StreamingXPath[m_Selections.length];
+	for (i = 0; i < m_Selections.length; i++)
+	  m_SelectionXPaths[i] = new StreamingXPath(m_Selections[i].getValue());
+      }
+      catch (Exception e) {
+	result = handleException("Unsupported expression!", e);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Closes the parser and the underlying stream, if necessary.
+   */
+  protected void closeReader() {
+    if (m_Reader != null) {
+      try {
+	m_Reader.close();
+      }
+      catch (Exception e) {
+	// ignored
+      }
+      m_Reader = null;
+    }
+    if (m_Input != null) {
+      FileUtils.closeQuietly(m_Input);
+      m_Input = null;
+    }
+    m_Stack    = null;
+    m_Captures = null;
+    m_Values   = null;
+    m_Document = null;
+    m_Buffer   = null;
+    m_Writer   = null;
+    m_Next     = null;
+  }
+
+  /**
+   * Returns whether only the selections get collected.
+   *
+   * @return		true if selecting
+   */
+  protected boolean isSelecting() {
+    return (m_SelectionXPaths.length > 0) && ((m_OutputType == OutputType.MAP) || (m_OutputType == OutputType.REPORT));
+  }
+
+  /**
+   * Starts a new record.
+   *
+   * @throws Exception	if initialization fails
+   */
+  protected void startRecord() throws Exception {
+    switch (m_OutputType) {
+      case DOCUMENT:
+	if (m_Builder == null)
+	  m_Builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+	m_Document = m_Builder.newDocument();
+	break;
+      case STRING:
+	m_Buffer = new StringWriter();
+	m_Writer = XMLOutputFactory.newInstance().createXMLStreamWriter(m_Buffer);
+	break;
+      case MAP:
+      case REPORT:
+	m_Values = new LinkedHashMap<>();
+	break;
+      default:
+	throw new IllegalStateException("Unhandled output type: " + m_OutputType);
+    }
+  }
+
+  /**
+   * Processes the start of an element inside a record.
+   *
+   * @param frame	the element
+   * @throws Exception	if processing fails
+   */
+  protected void startElement(Frame frame) throws Exception {
+    org.w3c.dom.Element	element;
+    Node		parent;
+    String		prefix;
+    String		ns;
+    Capture		capture;
+    int			i;
+
+    switch (m_OutputType) {
+      case DOCUMENT:
+	ns = m_Reader.getNamespaceURI();
+	if ((ns == null) || ns.isEmpty())
+	  element = m_Document.createElement(qualifiedName(m_Reader.getPrefix(), m_Reader.getLocalName()));
+	else
+	  element = m_Document.createElementNS(ns, qualifiedName(m_Reader.getPrefix(), m_Reader.getLocalName()));
+	for (i = 0; i < m_Reader.getAttributeCount(); i++) {
+	  ns = m_Reader.getAttributeNamespace(i);
+	  if ((ns == null) || ns.isEmpty())
+	    element.setAttribute(m_Reader.getAttributeLocalName(i), m_Reader.getAttributeValue(i));
+	  else
+	    element.setAttributeNS(ns, qualifiedName(m_Reader.getAttributePrefix(i), m_Reader.getAttributeLocalName(i)), m_Reader.getAttributeValue(i));
+	}
+	parent = (m_Stack.size() - 1 == m_RecordDepth) ? m_Document : m_Stack.get(m_Stack.size() - 2).m_Node;
+	parent.appendChild(element);
+	frame.m_Node = element;
+	break;
+
+      case STRING:
+	prefix = m_Reader.getPrefix();
+	ns     = m_Reader.getNamespaceURI();
+	if ((ns == null) || ns.isEmpty())
+	  m_Writer.writeStartElement(m_Reader.getLocalName());
+	else
+	  m_Writer.writeStartElement((prefix == null) ? "" : prefix, m_Reader.getLocalName(), ns);
+	for (i = 0; i < m_Reader.getNamespaceCount(); i++) {
+	  if ((m_Reader.getNamespacePrefix(i) == null) || m_Reader.getNamespacePrefix(i).isEmpty())
+	    m_Writer.writeDefaultNamespace(m_Reader.getNamespaceURI(i));
+	  else
+	    m_Writer.writeNamespace(m_Reader.getNamespacePrefix(i), m_Reader.getNamespaceURI(i));
+	}
+	for (i = 0; i < m_Reader.getAttributeCount(); i++) {
+	  ns = m_Reader.getAttributeNamespace(i);
+	  if ((ns == null) || ns.isEmpty())
+	    m_Writer.writeAttribute(m_Reader.getAttributeLocalName(i), m_Reader.getAttributeValue(i));
+	  else
+	    m_Writer.writeAttribute(m_Reader.getAttributePrefix(i), ns, m_Reader.getAttributeLocalName(i), m_Reader.getAttributeValue(i));
+	}
+	break;
+
+      case MAP:
+      case REPORT:
+	if (isSelecting()) {
+	  for (i = 0; i < m_SelectionXPaths.length; i++) {
+	    if (m_Values.containsKey(m_SelectionXPaths[i].getExpression()))
+	      continue;
+	    if (!m_SelectionXPaths[i].matches(m_Stack, m_RecordDepth))
+	      continue;
+	    if (m_SelectionXPaths[i].getTarget() == Target.ATTRIBUTE) {
+	      if (frame.getAttribute(m_SelectionXPaths[i].getTargetAttribute()) != null)
+		m_Values.put(m_SelectionXPaths[i].getExpression(), frame.getAttribute(m_SelectionXPaths[i].getTargetAttribute()));
+	    }
+	    else {
+	      capture           = new Capture();
+	      capture.depth     = m_Stack.size() - 1;
+	      capture.selection = i;
+	      capture.direct    = (m_SelectionXPaths[i].getTarget() == Target.TEXT);
+	      m_Captures.add(capture);
+	    }
+	  }
+	}
+	else {
+	  for (String name: frame.getAttributes().keySet())
+	    m_Values.put(frame.attributeKey(name), frame.getAttribute(name));
+	  frame.m_Text = new StringBuilder();
+	}
+	break;
+
+      default:
+	throw new IllegalStateException("Unhandled output type: " + m_OutputType);
+    }
+  }
+
+  /**
+   * Processes text inside a record.
+   *
+   * @param frame	the innermost element
+   * @param cdata	whether CDATA section
+   * @throws Exception	if processing fails
+   */
+  protected void text(Frame frame, boolean cdata) throws Exception {
+    switch (m_OutputType) {
+      case DOCUMENT:
+	if (cdata)
+	  frame.m_Node.appendChild(m_Document.createCDATASection(m_Reader.getText()));
+	else
+	  frame.m_Node.appendChild(m_Document.createTextNode(m_Reader.getText()));
+	break;
+
+      case STRING:
+	if (cdata)
+	  m_Writer.writeCData(m_Reader.getText());
+	else
+	  m_Writer.writeCharacters(m_Reader.getText());
+	break;
+
+      case MAP:
+      case REPORT:
+	if (isSelecting()) {
+	  for (Capture capture: m_Captures) {
+	    if (!capture.direct || (capture.depth == m_Stack.size() - 1))
+	      capture.text.append(m_Reader.getTextCharacters(), m_Reader.getTextStart(), m_Reader.getTextLength());
+	  }
+	}
+	else {
+	  frame.m_Text.append(m_Reader.getTextCharacters(), m_Reader.getTextStart(), m_Reader.getTextLength());
+	}
+	break;
+
+      default:
+	throw new IllegalStateException("Unhandled output type: " + m_OutputType);
+    }
+  }
+
+  /**
+   * Processes the end of an element inside a record.
+   *
+   * @param frame	the element
+   * @throws Exception	if processing fails
+   */
+  protected void endElement(Frame frame) throws Exception {
+    Capture	capture;
+    String	text;
+    int		i;
+
+    switch (m_OutputType) {
+      case DOCUMENT:
+	break;
+
+      case STRING:
+	m_Writer.writeEndElement();
+	break;
+
+      case MAP:
+      case REPORT:
+	if (isSelecting()) {
+	  for (i = m_Captures.size() - 1; i >= 0; i--) {
+	    capture = m_Captures.get(i);
+	    if (capture.depth != m_Stack.size() - 1)
+	      continue;
+	    m_Captures.remove(i);
+	    text = capture.text.toString().trim();
+	    if (!m_Values.containsKey(m_SelectionXPaths[capture.selection].getExpression()))
+	      m_Values.put(m_SelectionXPaths[capture.selection].getExpression(), text);
+	  }
+	}
+	else {
+	  text = frame.m_Text.toString().trim();
+	  if (!text.isEmpty())
+	    m_Values.put(frame.textKey(), text);
+	}
+	break;
+
+      default:
+	throw new IllegalStateException("Unhandled output type: " + m_OutputType);
+    }
+  }
+
+  /**
+   * Finishes the current record.
+   *
+   * @return		the generated output
+   * @throws Exception	if finishing fails
+   */
+  protected Object finishRecord() throws Exception {
+    Object			result;
+    Report			report;
+    Map<String,String>		ordered;
+    String			key;
+
+    switch (m_OutputType) {
+      case DOCUMENT:
+	result     = m_Document;
+	m_Document = null;
+	break;
+
+      case STRING:
+	m_Writer.flush();
+	m_Writer.close();
+	result   = m_Buffer.toString();
+	m_Writer = null;
+	m_Buffer = null;
+	break;
+
+      case MAP:
+	if (isSelecting()) {
+	  // same order as selections
+	  ordered = new LinkedHashMap<>();
+	  for (StreamingXPath xpath: m_SelectionXPaths) {
+	    key = xpath.getExpression();
+	    if (m_Values.containsKey(key))
+	      ordered.put(key, m_Values.get(key));
+	  }
+	  result = ordered;
+	}
+	else {
+	  result = m_Values;
+	}
+	m_Values = null;
+	break;
+
+      case REPORT:
+	report = new Report();
+	if (isSelecting()) {
+	  // same order as selections
+	  for (StreamingXPath xpath: m_SelectionXPaths) {
+	    key = xpath.getExpression();
+	    if (m_Values.containsKey(key))
+	      addField(report, key, m_Values.get(key));
+	  }
+	}
+	else {
+	  for (String k: m_Values.keySet())
+	    addField(report, k, m_Values.get(k));
+	}
+	result   = report;
+	m_Values = null;
+	break;
+
+      default:
+	throw new IllegalStateException("Unhandled output type: " + m_OutputType);
+    }
+
+    return result;
+  }
+
+  /**
+   * Adds the value to the report, either as numeric or string field.
+   *
+   * @param report	the report to update
+   * @param name	the field name
+   * @param value	the value
+   */
+  protected void addField(Report report, String name, String value) {
+    Field	field;
+
+    if (Utils.isDouble(value)) {
+      field = new Field(name, DataType.NUMERIC);
+      report.addField(field);
+      report.setNumericValue(field.getName(), Utils.toDouble(value));
+    }
+    else {
+      field = new Field(name, DataType.STRING);
+      report.addField(field);
+      report.setStringValue(field.getName(), value);
+    }
+  }
+
+  /**
+   * Combines prefix and local name.
+   *
+   * @param prefix	the prefix, can be null or empty
+   * @param local	the local name
+   * @return		the qualified name
+   */
+  protected String qualifiedName(String prefix, String local) {
+    if ((prefix == null) || prefix.isEmpty())
+      return local;
+    else
+      return prefix + ":" + local;
+  }
+
+  /**
+   * Pulls events from the parser until the next record has been completed.
+   *
+   * @return		the record, null if no more records available
+   * @throws Exception	if parsing fails
+   */
+  protected Object readNext() throws Exception {
+    Object	result;
+    Frame	frame;
+    Frame	parent;
+    int		event;
+    int		i;
+
+    result = null;
+
+    while ((result == null) && (m_Reader != null) && m_Reader.hasNext()) {
+      if (isStopped())
+	break;
+
+      event = m_Reader.next();
+      switch (event) {
+	case XMLStreamConstants.START_ELEMENT:
+	  frame = new Frame(m_Reader.getLocalName());
+	  for (i = 0; i < m_Reader.getAttributeCount(); i++)
+	    frame.getAttributes().put(m_Reader.getAttributeLocalName(i), m_Reader.getAttributeValue(i));
+	  m_Stack.add(frame);
+	  if (m_RecordDepth == -1) {
+	    if (m_RecordXPath.matches(m_Stack)) {
+	      m_RecordDepth = m_Stack.size() - 1;
+	      frame.m_Key   = "";
+	      startRecord();
+	    }
+	  }
+	  else {
+	    parent      = m_Stack.get(m_Stack.size() - 2);
+	    frame.m_Key = parent.nextChildKey(frame.getName());
+	  }
+	  if (m_RecordDepth > -1)
+	    startElement(frame);
+	  break;
+
+	case XMLStreamConstants.CHARACTERS:
+	case XMLStreamConstants.SPACE:
+	case XMLStreamConstants.CDATA:
+	  if (m_RecordDepth > -1)
+	    text(m_Stack.get(m_Stack.size() - 1), (event == XMLStreamConstants.CDATA));
+	  break;
+
+	case XMLStreamConstants.END_ELEMENT:
+	  frame = m_Stack.get(m_Stack.size() - 1);
+	  if (m_RecordDepth > -1) {
+	    endElement(frame);
+	    if (m_RecordDepth == m_Stack.size() - 1) {
+	      result        = finishRecord();
+	      m_RecordDepth = -1;
+	    }
+	  }
+	  m_Stack.remove(m_Stack.size() - 1);
+	  break;
+      }
+    }
+
+    if (result == null)
+      closeReader();
+
+    return result;
+  }
+
+  /**
+   * Executes the flow item.
+   *
+   * @return		null if everything is fine, otherwise error message
+   */
+  @Override
+  protected String doExecute() {
+    String		result;
+    Object		fileObj;
+    File		file;
+    XMLInputFactory	factory;
+
+    result = null;
+    closeReader();
+
+    fileObj = m_InputToken.getPayload();
+    if (fileObj instanceof File)
+      file = (File) fileObj;
+    else
+      file = new PlaceholderFile((String) fileObj);
+
+    try {
+      m_Input = new BufferedInputStream(new FileInputStream(file.getAbsolutePath()));
+      if (file.getName().endsWith(GzipUtils.EXTENSION))
+	m_Input = new GZIPInputStream(m_Input);
+      factory = XMLInputFactory.newInstance();
+      factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+      m_Reader      = factory.createXMLStreamReader(m_Input);
+      m_Stack       = new ArrayList<>();
+      m_Captures    = new ArrayList<>();
+      m_RecordDepth = -1;
+      m_Next        = readNext();
+    }
+    catch (Exception e) {
+      closeReader();
+      result = handleException("Failed to read XML file: " + file, e);
+    }
+
+    return result;
+  }
+
+  /**
+   * Checks whether there is pending output to be collected after
+   * executing the flow item.
+   *
+   * @return		true if there is pending output
+   */
+  @Override
+  public boolean hasPendingOutput() {
+    return (m_Next != null);
+  }
+
+  /**
+   * Returns the generated token.
+   *
+   * @return		the generated token
+   */
+  @Override
+  public Token output() {
+    Token	result;
+
+    result = new Token(m_Next);
+    try {
+      m_Next = readNext();
+    }
+    catch (Exception e) {
+      closeReader();
+      handleException("Failed to read XML file!", e);
+    }
+
+    return result;
+  }
+
+  /**
+   * Stops the execution. No message set.
+   */
+  @Override
+  public void stopExecution() {
+    closeReader();
+    super.stopExecution();
+  }
+
+  /**
+   * Cleans up after the execution has finished.
+   */
+  @Override
+  public void wrapUp() {
+    closeReader();
+    super.wrapUp();
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * StreamingXPathTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.core;
+
+import adams.core.StreamingXPath.Element;
+import adams.core.StreamingXPath.Target;
+import adams.env.Environment;
+import adams.test.AdamsTestCase;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the StreamingXPath class.
+ *
+ * @author  fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class StreamingXPathTest
+  extends AdamsTestCase {
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public StreamingXPathTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Generates a stack of open elements.
+   *
+   * @param names	the element names, attributes can be appended using "name@attr=value"
+   * @return		the stack
+   */
+  protected List<Element> stack(String... names) {
+    List<Element>	result;
+    Element		element;
+    String[]		parts;
+
+    result = new ArrayList<>();
+    for (String name: names) {
+      parts   = name.split("@");
+      element = new Element(parts[0]);
+      if (parts.length > 1)
+	element.getAttributes().put(parts[1].split("=")[0], parts[1].split("=")[1]);
+      result.add(element);
+    }
+
+    return result;
+  }
+
+  /**
+   * Tests absolute child paths.
+   */
+  public void testAbsolute() {
+    StreamingXPath	xpath;
+
+    xpath = new StreamingXPath("/bookstore/book");
+    assertTrue(xpath.isAbsolute());
+    assertEquals(Target.ELEMENT, xpath.getTarget());
+    assertTrue(xpath.matches(stack("bookstore", "book")));
+    assertFalse(xpath.matches(stack("bookstore")));
+    assertFalse(xpath.matches(stack("bookstore", "book", "title")));
+    assertFalse(xpath.matches(stack("shop", "book")));
+
+    xpath = new StreamingXPath("/*/*");
+    assertTrue(xpath.matches(stack("a", "b")));
+    assertFalse(xpath.matches(stack("a", "b", "c")));
+  }
+
+  /**
+   * Tests descendant steps.
+   */
+  public void testDescendant() {
+    StreamingXPath	xpath;
+
+    xpath = new StreamingXPath("//book");
+    assertTrue(xpath.matches(stack("book")));
+    assertTrue(xpath.matches(stack("a", "b", "book")));
+    assertFalse(xpath.matches(stack("a", "book", "title")));
+
+    xpath = new StreamingXPath("/a//c/d");
+    assertTrue(xpath.matches(stack("a", "c", "d")));
+    assertTrue(xpath.matches(stack("a", "b", "b", "c", "d")));
+    assertFalse(xpath.matches(stack("x", "c", "d")));
+  }
+
+  /**
+   * Tests attribute predicates.
+   */
+  public void testPredicates() {
+    StreamingXPath	xpath;
+
+    xpath = new StreamingXPath("//book[@category='WEB']");
+    assertTrue(xpath.matches(stack("bookstore", "book@category=WEB")));
+    assertFalse(xpath.matches(stack("bookstore", "book@category=COOKING")));
+    assertFalse(xpath.matches(stack("bookstore", "book")));
+
+    xpath = new StreamingXPath("//book[@category]");
+    assertTrue(xpath.matches(stack("bookstore", "book@category=COOKING")));
+    assertFalse(xpath.matches(stack("bookstore", "book")));
+  }
+
+  /**
+   * Tests expressions relative to a context element.
+   */
+  public void testRelative() {
+    StreamingXPath	xpath;
+    List<Element>	stack;
+
+    stack = stack("bookstore", "book@category=WEB", "title@lang=en");
+
+    xpath = new StreamingXPath("title");
+    assertFalse(xpath.isAbsolute());
+    assertTrue(xpath.matches(stack, 1));
+    assertFalse(xpath.matches(stack, 0));
+
+    xpath = new StreamingXPath("title/@lang");
+    assertEquals(Target.ATTRIBUTE, xpath.getTarget());
+    assertEquals("lang", xpath.getTargetAttribute());
+    assertTrue(xpath.matches(stack, 1));
+
+    xpath = new StreamingXPath("@category");
+    assertTrue(xpath.matches(stack, 2));
+    assertFalse(xpath.matches(stack, 1));
+
+    xpath = new StreamingXPath("./title/text()");
+    assertEquals(Target.TEXT, xpath.getTarget());
+    assertTrue(xpath.matches(stack, 1));
+
+    xpath = new StreamingXPath("/bookstore/book/title");
+    assertTrue(xpath.matches(stack, 1));
+  }
+
+  /**
+   * Tests that namespace prefixes get ignored.
+   */
+  public void testNamespaces() {
+    assertTrue(new StreamingXPath("/ns:a/b").matches(stack("a", "b")));
+  }
+
+  /**
+   * Tests unsupported expressions.
+   */
+  public void testUnsupported() {
+    String[]	exprs;
+
+    exprs = new String[]{
+      "",
+      "/",
+      "/a/@b/c",
+      "//@id",
+      "/a[1]",
+      "/a[@b=c]",
+      "/a/b()",
+      "a/.",
+    };
+    for (String expr: exprs) {
+      try {
+	new StreamingXPath(expr);
+	fail("Expression should have failed: " + expr);
+      }
+      catch (IllegalArgumentException e) {
+	// expected
+      }
+    }
+  }
+
+  /**
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(StreamingXPathTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(Environment.class);
+    runTest(suite());
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * XMLRecordSplitterTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package adams.flow.transformer;
+
+import adams.core.option.AbstractArgumentOption;
+import adams.env.Environment;
+import adams.flow.AbstractFlowTest;
+import adams.flow.control.Flow;
+import adams.flow.core.Actor;
+import adams.test.TmpFile;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Test for XMLRecordSplitter actor.
+ *
+ * @author fracpete
+ */
+public class XMLRecordSplitterTest
+  extends AbstractFlowTest {
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public XMLRecordSplitterTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Called by JUnit before each test method.
+   *
+   * @throws Exception 	if an error occurs.
+   */
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    
+    m_TestHelper.copyResourceToTmp("books.xml");
+    m_TestHelper.deleteFileFromTmp("dumpfile.txt");
+  }
+
+  /**
+   * Called by JUnit after each test method.
+   *
+   * @throws Exception	if tear-down fails
+   */
+  @Override
+  protected void tearDown() throws Exception {
+    m_TestHelper.deleteFileFromTmp("books.xml");
+    m_TestHelper.deleteFileFromTmp("dumpfile.txt");
+    
+    super.tearDown();
+  }
+
+  /**
+   * Performs a regression test, comparing against previously generated output.
+   */
+  public void testRegression() {
+    performRegressionTest(
+        new TmpFile[]{
+          new TmpFile("dumpfile.txt")
+        });
+  }
+
+  /**
+   * 
+   * Returns a test suite.
+   *
+   * @return		the test suite
+   */
+  public static Test suite() {
+    return new TestSuite(XMLRecordSplitterTest.class);
+  }
+
+  /**
+   * Used to create an instance of a specific actor.
+   *
+   * @return a suitably configured <code>Actor</code> value
+   */
+  @Override
+  public Actor getActor() {
+    AbstractArgumentOption    argOption;
+    
+    Flow flow = new Flow();
+    
+    try {
+      argOption = (AbstractArgumentOption) flow.getOptionManager().findByProperty("actors");
+      adams.flow.core.Actor[] abstractactor1 = new adams.flow.core.Actor[4];
+
+      // Flow.FileSupplier
+      adams.flow.source.FileSupplier filesupplier2 = new adams.flow.source.FileSupplier();
+      argOption = (AbstractArgumentOption) filesupplier2.getOptionManager().findByProperty("files");
+      adams.core.io.PlaceholderFile[] placeholderfile3 = new adams.core.io.PlaceholderFile[1];
+      placeholderfile3[0] = (adams.core.io.PlaceholderFile) argOption.valueOf("${TMP}/books.xml");
+      filesupplier2.setFiles(placeholderfile3);
+
+      abstractactor1[0] = filesupplier2;
+
+      // Flow.XMLRecordSplitter
+      adams.flow.transformer.XMLRecordSplitter xmlrecordsplitter4 = new adams.flow.transformer.XMLRecordSplitter();
+      argOption = (AbstractArgumentOption) xmlrecordsplitter4.getOptionManager().findByProperty("recordPath");
+      xmlrecordsplitter4.setRecordPath((adams.core.base.XPathExpression) argOption.valueOf("/bookstore/book"));
+      argOption = (AbstractArgumentOption) xmlrecordsplitter4.getOptionManager().findByProperty("selections");
+      adams.core.base.XPathExpression[] xpathexpression5 = new adams.core.base.XPathExpression[4];
+      xpathexpression5[0] = (adams.core.base.XPathExpression) argOption.valueOf("@category");
+      xpathexpression5[1] = (adams.core.base.XPathExpression) argOption.valueOf("title");
+      xpathexpression5[2] = (adams.core.base.XPathExpression) argOption.valueOf("title/@lang");
+      xpathexpression5[3] = (adams.core.base.XPathExpression) argOption.valueOf("author");
+      xmlrecordsplitter4.setSelections(xpathexpression5);
+      abstractactor1[1] = xmlrecordsplitter4;
+
+      // Flow.Convert
+      adams.flow.transformer.Convert convert5 = new adams.flow.transformer.Convert();
+      argOption = (AbstractArgumentOption) convert5.getOptionManager().findByProperty("conversion");
+      adams.data.conversion.AnyToString anytostring7 = new adams.data.conversion.AnyToString();
+      convert5.setConversion(anytostring7);
+
+      abstractactor1[2] = convert5;
+
+      // Flow.DumpFile
+      adams.flow.sink.DumpFile dumpfile8 = new adams.flow.sink.DumpFile();
+      dumpfile8.setAppend(true);
+      argOption = (AbstractArgumentOption) dumpfile8.getOptionManager().findByProperty("outputFile");
+      dumpfile8.setOutputFile((adams.core.io.PlaceholderFile) argOption.valueOf("${TMP}/dumpfile.txt"));
+
+      abstractactor1[3] = dumpfile8;
+      flow.setActors(abstractactor1);
+
+      argOption = (AbstractArgumentOption) flow.getOptionManager().findByProperty("flowExecutionListener");
+      adams.flow.execution.NullListener nulllistener11 = new adams.flow.execution.NullListener();
+      flow.setFlowExecutionListener(nulllistener11);
+
+    }
+    catch (Exception e) {
+      fail("Failed to set up actor: " + e);
+    }
+    
+    return flow;
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    Environment.setEnvironmentClass(adams.env.Environment.class);
+    runTest(suite());
+  }
+}
+